@@ -6,7 +6,8 @@ public enum CliType {
     ENCLAVE,
     CONFIG_MIGRATION,
     DATA_MIGRATION,
-    MULTITENANCY_MIGRATION;
+    MULTITENANCY_MIGRATION,
+    SCHEMA_MIGRATION;
 
     public static final String CLI_TYPE_KEY = "tessera.cli.type";
 }
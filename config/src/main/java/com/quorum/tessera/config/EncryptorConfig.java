@@ -2,6 +2,7 @@ package com.quorum.tessera.config;
 
 import com.quorum.tessera.config.adapters.MapAdapter;
 
+import javax.validation.constraints.Min;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -13,12 +14,19 @@ import java.util.Objects;
 @XmlAccessorType(XmlAccessType.FIELD)
 public class EncryptorConfig {
 
+    public static final int DEFAULT_MAX_INFLATED_PAYLOAD_SIZE = 64 * 1024 * 1024;
+
     @XmlAttribute private EncryptorType type;
 
     @XmlJavaTypeAdapter(MapAdapter.class)
     @XmlElement
     private Map<String, String> properties;
 
+    /** The most bytes a compressed payload may inflate to once decrypted, larger payloads are refused */
+    @Min(1)
+    @XmlElement(defaultValue = "67108864")
+    private int maxInflatedPayloadSize = DEFAULT_MAX_INFLATED_PAYLOAD_SIZE;
+
     public EncryptorType getType() {
         return type;
     }
@@ -35,11 +43,20 @@ public class EncryptorConfig {
         this.properties = properties;
     }
 
+    public int getMaxInflatedPayloadSize() {
+        return maxInflatedPayloadSize;
+    }
+
+    public void setMaxInflatedPayloadSize(int maxInflatedPayloadSize) {
+        this.maxInflatedPayloadSize = maxInflatedPayloadSize;
+    }
+
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 61 * hash + Objects.hashCode(this.type);
         hash = 61 * hash + Objects.hashCode(this.properties);
+        hash = 61 * hash + this.maxInflatedPayloadSize;
         return hash;
     }
 
@@ -61,6 +78,9 @@ public class EncryptorConfig {
         if (!Objects.equals(this.properties, other.properties)) {
             return false;
         }
+        if (this.maxInflatedPayloadSize != other.maxInflatedPayloadSize) {
+            return false;
+        }
         return true;
     }
 
@@ -0,0 +1,129 @@
+package com.quorum.tessera.config;
+
+import com.quorum.tessera.config.adapters.MapAdapter;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Sizing of the database connection pool and settings of the statements run over it. Any value that is not set keeps
+ * the default of the pool or of the persistence provider.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class JdbcPoolConfig extends ConfigItem {
+
+    /** Maximum number of connections in the pool, in use or idle */
+    @Min(1)
+    @XmlElement
+    private Integer maxPoolSize;
+
+    /** Number of idle connections the pool keeps open */
+    @Min(0)
+    @XmlElement
+    private Integer minIdle;
+
+    /** Time in milliseconds to wait for a free connection before failing */
+    @Min(250)
+    @XmlElement
+    private Long connectionTimeout;
+
+    /**
+     * Time in milliseconds a connection may be held before a possible leak is logged, at least 2000 to enable, 0
+     * disables
+     */
+    @Min(0)
+    @XmlElement
+    private Long leakDetectionThreshold;
+
+    /**
+     * Properties passed to the JDBC driver. The pool leaves caching of prepared statements to the driver, so this is
+     * where the cache is sized, e.g. prepStmtCacheSize for MySQL or preparedStatementCacheQueries for PostgreSQL.
+     */
+    @XmlJavaTypeAdapter(MapAdapter.class)
+    @XmlElement
+    private Map<String, String> driverProperties = Collections.emptyMap();
+
+    /** Send the inserts and updates of a database transaction to the database in JDBC batches */
+    @XmlElement
+    private Boolean batchWriting;
+
+    /** Maximum number of statements in one batch */
+    @Min(1)
+    @XmlElement
+    private Integer batchWritingSize;
+
+    /** Level of the persistence provider's logging, one of the java.util.logging level names */
+    @Pattern(regexp = "OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST|ALL")
+    @XmlElement
+    private String loggingLevel;
+
+    public Integer getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(Integer maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public Integer getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(Integer minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public Long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(Long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public Map<String, String> getDriverProperties() {
+        return driverProperties;
+    }
+
+    public void setDriverProperties(Map<String, String> driverProperties) {
+        this.driverProperties = driverProperties;
+    }
+
+    public Boolean getBatchWriting() {
+        return batchWriting;
+    }
+
+    public void setBatchWriting(Boolean batchWriting) {
+        this.batchWriting = batchWriting;
+    }
+
+    public Integer getBatchWritingSize() {
+        return batchWritingSize;
+    }
+
+    public void setBatchWritingSize(Integer batchWritingSize) {
+        this.batchWritingSize = batchWritingSize;
+    }
+
+    public String getLoggingLevel() {
+        return loggingLevel;
+    }
+
+    public void setLoggingLevel(String loggingLevel) {
+        this.loggingLevel = loggingLevel;
+    }
+}
@@ -44,13 +44,19 @@ public class ServerConfig extends ConfigItem {
     @XmlElement(name = "cors")
     private CrossDomainConfig crossDomainConfig;
 
+    @Valid
+    @XmlElement(name = "tuning")
+    private ServerTuningConfig tuningConfig;
+
+    /** Accept HTTP/2 as well as HTTP/1.1, negotiated with ALPN over TLS and as h2c otherwise */
+    @XmlElement(defaultValue = "false")
+    private boolean http2Enabled;
+
     @XmlJavaTypeAdapter(MapAdapter.class)
     @XmlElement
     private Map<String, String> properties = Collections.emptyMap();
 
-    /**
-     * @deprecated USe default constructor and setters
-     */
+    /** @deprecated USe default constructor and setters */
     @Deprecated
     public ServerConfig(
             final AppType app,
@@ -149,6 +155,22 @@ public class ServerConfig extends ConfigItem {
         this.crossDomainConfig = crossDomainConfig;
     }
 
+    public ServerTuningConfig getTuningConfig() {
+        return tuningConfig;
+    }
+
+    public void setTuningConfig(ServerTuningConfig tuningConfig) {
+        this.tuningConfig = tuningConfig;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
     public Map<String, String> getProperties() {
         return properties;
     }
@@ -0,0 +1,179 @@
+package com.quorum.tessera.config;
+
+import javax.validation.constraints.Min;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * Limits on the threads and connections a server uses. Any value that is not set keeps the server's default, so the
+ * thread pool queue is unbounded and there is no limit on concurrent requests unless configured.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+public class ServerTuningConfig extends ConfigItem {
+
+    /** Minimum number of threads kept in the request thread pool */
+    @Min(1)
+    @XmlElement
+    private Integer minThreads;
+
+    /** Maximum number of threads in the request thread pool */
+    @Min(1)
+    @XmlElement
+    private Integer maxThreads;
+
+    /** Number of jobs that may wait for a free thread, further connections are rejected */
+    @Min(1)
+    @XmlElement
+    private Integer queueCapacity;
+
+    /** Time in milliseconds an idle thread is kept above the minimum */
+    @Min(1)
+    @XmlElement
+    private Integer idleTimeout;
+
+    /** Number of threads accepting new connections, 0 lets the selectors accept them */
+    @Min(0)
+    @XmlElement
+    private Integer acceptors;
+
+    /** Number of threads handling IO on open connections */
+    @Min(1)
+    @XmlElement
+    private Integer selectors;
+
+    /** Number of pending connections the operating system queues before refusing new ones */
+    @Min(0)
+    @XmlElement
+    private Integer acceptQueueSize;
+
+    /** Number of requests handled at once, further requests wait for one to complete */
+    @Min(1)
+    @XmlElement
+    private Integer maxConcurrentRequests;
+
+    /** Time in milliseconds a request may wait when the concurrency limit is reached before it is rejected */
+    @Min(1)
+    @XmlElement
+    private Integer maxRequestWait;
+
+    /**
+     * Time in milliseconds an asynchronous request, such as a send or push, may take before it is rejected as
+     * unavailable. The request's work is not interrupted, it runs to the end and its result is dropped.
+     */
+    @Min(1)
+    @XmlElement
+    private Integer asyncTimeout;
+
+    /**
+     * Number of asynchronous requests of this server run at once. Sends of every server of the node other than the p2p
+     * server share one pool, sized by the sum over those servers. Pushes to the p2p server have a pool of their own.
+     */
+    @Min(1)
+    @XmlElement
+    private Integer asyncThreads;
+
+    /**
+     * Number of asynchronous requests of this server that may wait for a thread, further requests are rejected as
+     * unavailable. Summed over the servers like the threads.
+     */
+    @Min(1)
+    @XmlElement
+    private Integer asyncQueueCapacity;
+
+    public Integer getMinThreads() {
+        return minThreads;
+    }
+
+    public void setMinThreads(Integer minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    public Integer getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(Integer maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Integer getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Integer idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Integer getAcceptors() {
+        return acceptors;
+    }
+
+    public void setAcceptors(Integer acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    public Integer getSelectors() {
+        return selectors;
+    }
+
+    public void setSelectors(Integer selectors) {
+        this.selectors = selectors;
+    }
+
+    public Integer getAcceptQueueSize() {
+        return acceptQueueSize;
+    }
+
+    public void setAcceptQueueSize(Integer acceptQueueSize) {
+        this.acceptQueueSize = acceptQueueSize;
+    }
+
+    public Integer getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public Integer getMaxRequestWait() {
+        return maxRequestWait;
+    }
+
+    public void setMaxRequestWait(Integer maxRequestWait) {
+        this.maxRequestWait = maxRequestWait;
+    }
+
+    public Integer getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    public void setAsyncTimeout(Integer asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    public Integer getAsyncThreads() {
+        return asyncThreads;
+    }
+
+    public void setAsyncThreads(Integer asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+
+    public Integer getAsyncQueueCapacity() {
+        return asyncQueueCapacity;
+    }
+
+    public void setAsyncQueueCapacity(Integer asyncQueueCapacity) {
+        this.asyncQueueCapacity = asyncQueueCapacity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.quorum.tessera.config.constraints;
+
+import com.quorum.tessera.config.JdbcPoolConfig;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import java.util.Objects;
+
+public class JdbcPoolConfigValidator implements ConstraintValidator<ValidJdbcPoolConfig, JdbcPoolConfig> {
+
+    // the pool ignores shorter thresholds, it would only warn about a leak when the connection is returned
+    private static final long MIN_LEAK_DETECTION_THRESHOLD = 2000;
+
+    @Override
+    public boolean isValid(JdbcPoolConfig poolConfig, ConstraintValidatorContext constraintContext) {
+
+        if (poolConfig == null) {
+            return true;
+        }
+
+        if (Objects.nonNull(poolConfig.getMinIdle())
+                && Objects.nonNull(poolConfig.getMaxPoolSize())
+                && poolConfig.getMinIdle() > poolConfig.getMaxPoolSize()) {
+            return invalid(constraintContext, "Invalid jdbc pool config. minIdle must not be greater than maxPoolSize");
+        }
+
+        final Long leakDetectionThreshold = poolConfig.getLeakDetectionThreshold();
+        if (Objects.nonNull(leakDetectionThreshold)
+                && leakDetectionThreshold != 0
+                && leakDetectionThreshold < MIN_LEAK_DETECTION_THRESHOLD) {
+            return invalid(
+                    constraintContext,
+                    "Invalid jdbc pool config. leakDetectionThreshold must be 0 or at least "
+                            + MIN_LEAK_DETECTION_THRESHOLD);
+        }
+
+        return true;
+    }
+
+    private static boolean invalid(ConstraintValidatorContext constraintContext, String message) {
+        constraintContext.disableDefaultConstraintViolation();
+        constraintContext.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+        return false;
+    }
+}
@@ -2,12 +2,14 @@ package com.quorum.tessera.config.constraints;
 
 import com.quorum.tessera.config.AppType;
 import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import java.util.Arrays;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class ServerConfigValidator implements ConstraintValidator<ValidServerConfig, ServerConfig> {
@@ -66,6 +68,54 @@ public class ServerConfigValidator implements ConstraintValidator<ValidServerCon
             }
         }
 
+        final ServerTuningConfig tuningConfig = serverConfig.getTuningConfig();
+        if (tuningConfig != null
+                && tuningConfig.getMinThreads() != null
+                && tuningConfig.getMaxThreads() != null
+                && tuningConfig.getMinThreads() > tuningConfig.getMaxThreads()) {
+            LOGGER.debug("Invalid server config. minThreads must not be greater than maxThreads");
+            constraintContext.disableDefaultConstraintViolation();
+            constraintContext
+                    .buildConstraintViolationWithTemplate(
+                            "Invalid server config. minThreads must not be greater than maxThreads")
+                    .addConstraintViolation();
+            return false;
+        }
+
+        if (tuningConfig != null && tuningConfig.getMaxThreads() != null) {
+            final int requiredThreads = requiredThreads(tuningConfig);
+            if (tuningConfig.getMaxThreads() <= requiredThreads) {
+                final String message =
+                        String.format(
+                                "Invalid server config. maxThreads must be greater than the %d threads the server keeps"
+                                        + " for accepting connections, selecting and reserve, so that requests can be"
+                                        + " handled",
+                                requiredThreads);
+                LOGGER.debug(message);
+                constraintContext.disableDefaultConstraintViolation();
+                constraintContext.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+                return false;
+            }
+        }
+
         return true;
     }
+
+    /*
+     * The threads Jetty takes from the pool before any request is handled, using the same defaults it chooses for the
+     * values that are not configured. A pool with no more threads than these fails to start.
+     */
+    static int requiredThreads(ServerTuningConfig tuningConfig) {
+        final int cpus = Runtime.getRuntime().availableProcessors();
+        final int maxThreads = tuningConfig.getMaxThreads();
+
+        final int acceptors =
+                Optional.ofNullable(tuningConfig.getAcceptors()).orElse(Math.max(1, Math.min(4, cpus / 8)));
+        final int selectors =
+                Optional.ofNullable(tuningConfig.getSelectors())
+                        .orElse(Math.max(1, Math.min(cpus / 2, maxThreads / 16)));
+        final int reserved = Math.max(1, Math.min(cpus, maxThreads / 10));
+
+        return acceptors + selectors + reserved;
+    }
 }
@@ -66,6 +66,20 @@ public class EncryptorConfigTest {
         assertThat(encryptorConfig).isNotEqualTo(otherEncryptorConfig);
     }
 
+    @Test
+    public void differentMaxInflatedPayloadSizesNotEqual() {
+
+        EncryptorConfig encryptorConfig = new EncryptorConfig();
+        encryptorConfig.setType(EncryptorType.NACL);
+
+        EncryptorConfig otherEncryptorConfig = new EncryptorConfig();
+        otherEncryptorConfig.setType(EncryptorType.NACL);
+        otherEncryptorConfig.setMaxInflatedPayloadSize(1024);
+
+        assertThat(encryptorConfig).isNotEqualTo(otherEncryptorConfig);
+        assertThat(encryptorConfig.hashCode()).isNotEqualTo(otherEncryptorConfig.hashCode());
+    }
+
     @Test
     public void unmarshal() {
 
@@ -88,6 +102,18 @@ public class EncryptorConfigTest {
         assertThat(result.getProperties().get("greeting")).isEqualTo("Hellow");
         assertThat(result.getProperties().get("something")).isEqualTo("ELSE");
         assertThat(result.getProperties().get("bogus")).isNull();
+        assertThat(result.getMaxInflatedPayloadSize()).isEqualTo(EncryptorConfig.DEFAULT_MAX_INFLATED_PAYLOAD_SIZE);
+    }
+
+    @Test
+    public void unmarshalMaxInflatedPayloadSize() {
+
+        String data =
+                Json.createObjectBuilder().add("type", "NACL").add("maxInflatedPayloadSize", 1024).build().toString();
+
+        EncryptorConfig result = JaxbUtil.unmarshal(new ByteArrayInputStream(data.getBytes()), EncryptorConfig.class);
+
+        assertThat(result.getMaxInflatedPayloadSize()).isEqualTo(1024);
     }
 
     @Test
@@ -0,0 +1,48 @@
+package com.quorum.tessera.config;
+
+import com.quorum.tessera.config.util.JaxbUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JdbcConfigTest {
+
+    @Test
+    public void unmarshalPoolConfig() {
+        byte[] json =
+                ("{\"url\": \"jdbc:h2:mem:test\", \"replicaUrl\": [\"jdbc:h2:mem:replica\"], "
+                                + "\"pool\": {\"maxPoolSize\": 20, \"minIdle\": 5, \"connectionTimeout\": 3000, "
+                                + "\"leakDetectionThreshold\": 60000, "
+                                + "\"driverProperties\": {\"prepStmtCacheSize\": \"250\"}, "
+                                + "\"batchWriting\": false, \"batchWritingSize\": 50, \"loggingLevel\": \"WARNING\"}}")
+                        .getBytes();
+
+        JdbcConfig jdbcConfig = JaxbUtil.unmarshal(new ByteArrayInputStream(json), JdbcConfig.class);
+
+        assertThat(jdbcConfig.getReplicaUrls()).containsExactly("jdbc:h2:mem:replica");
+
+        JdbcPoolConfig pool = jdbcConfig.getPoolConfig();
+        assertThat(pool.getMaxPoolSize()).isEqualTo(20);
+        assertThat(pool.getMinIdle()).isEqualTo(5);
+        assertThat(pool.getConnectionTimeout()).isEqualTo(3000L);
+        assertThat(pool.getLeakDetectionThreshold()).isEqualTo(60000L);
+        assertThat(pool.getDriverProperties()).isEqualTo(Map.of("prepStmtCacheSize", "250"));
+        assertThat(pool.getBatchWriting()).isFalse();
+        assertThat(pool.getBatchWritingSize()).isEqualTo(50);
+        assertThat(pool.getLoggingLevel()).isEqualTo("WARNING");
+    }
+
+    @Test
+    public void poolConfigIsOptional() {
+        byte[] json = "{\"url\": \"jdbc:h2:mem:test\"}".getBytes();
+
+        JdbcConfig jdbcConfig = JaxbUtil.unmarshal(new ByteArrayInputStream(json), JdbcConfig.class);
+
+        assertThat(jdbcConfig.getPoolConfig()).isNull();
+        assertThat(jdbcConfig.getReplicaUrls()).isEmpty();
+        assertThat(jdbcConfig.getReplicaLagMillis()).isEqualTo(5000L);
+    }
+}
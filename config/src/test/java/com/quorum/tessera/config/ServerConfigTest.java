@@ -1,7 +1,10 @@
 package com.quorum.tessera.config;
 
+import com.quorum.tessera.config.util.JaxbUtil;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -23,7 +26,9 @@ public class ServerConfigTest {
     @Test
     public void bindingUri() throws URISyntaxException {
         String serverAddress = "somedomain:99";
-        ServerConfig config = new ServerConfig(AppType.P2P, serverAddress, CommunicationType.REST, null, null, "http://somedomain:9000");
+        ServerConfig config =
+                new ServerConfig(
+                        AppType.P2P, serverAddress, CommunicationType.REST, null, null, "http://somedomain:9000");
         assertThat(config.getBindingUri()).isEqualTo(new URI("http://somedomain:9000"));
         assertThat(config.isSsl()).isFalse();
     }
@@ -43,7 +48,8 @@ public class ServerConfigTest {
         final SslConfig sslConfig = mock(SslConfig.class);
         when(sslConfig.getTls()).thenReturn(SslAuthenticationMode.OFF);
 
-        ServerConfig serverConfig = new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, sslConfig, null, null);
+        ServerConfig serverConfig =
+                new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, sslConfig, null, null);
         assertThat(serverConfig.isSsl()).isFalse();
     }
 
@@ -52,27 +58,69 @@ public class ServerConfigTest {
         final SslConfig sslConfig = mock(SslConfig.class);
         when(sslConfig.getTls()).thenReturn(SslAuthenticationMode.STRICT);
 
-        ServerConfig serverConfig = new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, sslConfig, null, null);
+        ServerConfig serverConfig =
+                new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, sslConfig, null, null);
         assertThat(serverConfig.isSsl()).isTrue();
     }
 
     @Test
     public void advertisedUrlIsDifferentToBindAddress() {
-        final ServerConfig serverConfig = new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, null, null, "http://bindingUrl:9999");
+        final ServerConfig serverConfig =
+                new ServerConfig(
+                        AppType.P2P, "somedomain:8989", CommunicationType.REST, null, null, "http://bindingUrl:9999");
         assertThat(serverConfig.getBindingAddress()).isEqualTo("http://bindingUrl:9999");
     }
 
     @Test
     public void nullAdvertisedUrlIsSameAsBindAddress() {
-        final ServerConfig serverConfig = new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, null, null, null);
+        final ServerConfig serverConfig =
+                new ServerConfig(AppType.P2P, "somedomain:8989", CommunicationType.REST, null, null, null);
         assertThat(serverConfig.getBindingAddress()).isEqualTo("somedomain:8989");
         assertThat(serverConfig.isUnixSocket()).isFalse();
     }
 
     @Test
     public void unixSocketConfig() {
-        final ServerConfig serverConfig = new ServerConfig(AppType.P2P, "unix:/bogis.ipc", CommunicationType.REST, null, null, null);
+        final ServerConfig serverConfig =
+                new ServerConfig(AppType.P2P, "unix:/bogis.ipc", CommunicationType.REST, null, null, null);
         assertThat(serverConfig.getBindingAddress()).isEqualTo("unix:/bogis.ipc");
         assertThat(serverConfig.isUnixSocket()).isTrue();
     }
+
+    @Test
+    public void unmarshalTuningConfig() {
+        byte[] json =
+                ("{\"app\": \"P2P\", \"serverAddress\": \"http://localhost:9001\", "
+                                + "\"tuning\": {\"minThreads\": 8, \"maxThreads\": 64, \"queueCapacity\": 256, "
+                                + "\"idleTimeout\": 30000, \"acceptors\": 1, \"selectors\": 2, "
+                                + "\"acceptQueueSize\": 512, \"maxConcurrentRequests\": 32, \"maxRequestWait\": 1000, "
+                                + "\"asyncTimeout\": 60000, \"asyncThreads\": 16, \"asyncQueueCapacity\": 100}}")
+                        .getBytes();
+
+        ServerTuningConfig tuning =
+                JaxbUtil.unmarshal(new ByteArrayInputStream(json), ServerConfig.class).getTuningConfig();
+
+        assertThat(tuning.getMinThreads()).isEqualTo(8);
+        assertThat(tuning.getMaxThreads()).isEqualTo(64);
+        assertThat(tuning.getQueueCapacity()).isEqualTo(256);
+        assertThat(tuning.getIdleTimeout()).isEqualTo(30000);
+        assertThat(tuning.getAcceptors()).isEqualTo(1);
+        assertThat(tuning.getSelectors()).isEqualTo(2);
+        assertThat(tuning.getAcceptQueueSize()).isEqualTo(512);
+        assertThat(tuning.getMaxConcurrentRequests()).isEqualTo(32);
+        assertThat(tuning.getMaxRequestWait()).isEqualTo(1000);
+        assertThat(tuning.getAsyncTimeout()).isEqualTo(60000);
+        assertThat(tuning.getAsyncThreads()).isEqualTo(16);
+        assertThat(tuning.getAsyncQueueCapacity()).isEqualTo(100);
+    }
+
+    @Test
+    public void http2IsDisabledByDefault() {
+        byte[] json = "{\"app\": \"P2P\", \"serverAddress\": \"http://localhost:9001\"}".getBytes();
+        assertThat(JaxbUtil.unmarshal(new ByteArrayInputStream(json), ServerConfig.class).isHttp2Enabled()).isFalse();
+
+        byte[] enabled =
+                "{\"app\": \"P2P\", \"serverAddress\": \"http://localhost:9001\", \"http2Enabled\": true}".getBytes();
+        assertThat(JaxbUtil.unmarshal(new ByteArrayInputStream(enabled), ServerConfig.class).isHttp2Enabled()).isTrue();
+    }
 }
@@ -0,0 +1,87 @@
+package com.quorum.tessera.config.constraints;
+
+import com.quorum.tessera.config.JdbcPoolConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.validation.ConstraintValidatorContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class JdbcPoolConfigValidatorTest {
+
+    private JdbcPoolConfig poolConfig;
+
+    private ConstraintValidatorContext cvc;
+
+    private JdbcPoolConfigValidator validator;
+
+    @Before
+    public void onSetUp() {
+        cvc = mock(ConstraintValidatorContext.class);
+        poolConfig = new JdbcPoolConfig();
+        validator = new JdbcPoolConfigValidator();
+
+        when(cvc.buildConstraintViolationWithTemplate(anyString()))
+                .thenReturn(mock(ConstraintValidatorContext.ConstraintViolationBuilder.class));
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(cvc);
+    }
+
+    @Test
+    public void isValidWhenPoolConfigIsNull() {
+        assertThat(validator.isValid(null, cvc)).isTrue();
+    }
+
+    @Test
+    public void isValidWhenNothingIsSet() {
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+    }
+
+    @Test
+    public void minIdleGreaterThanMaxPoolSizeIsInvalid() {
+        poolConfig.setMinIdle(20);
+        poolConfig.setMaxPoolSize(10);
+
+        assertThat(validator.isValid(poolConfig, cvc)).isFalse();
+        verify(cvc).disableDefaultConstraintViolation();
+        verify(cvc).buildConstraintViolationWithTemplate(anyString());
+    }
+
+    @Test
+    public void partialPoolSizesAreValid() {
+        poolConfig.setMinIdle(20);
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+
+        poolConfig.setMinIdle(null);
+        poolConfig.setMaxPoolSize(10);
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+
+        poolConfig.setMinIdle(10);
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+    }
+
+    @Test
+    public void shortLeakDetectionThresholdIsInvalid() {
+        poolConfig.setLeakDetectionThreshold(1999L);
+
+        assertThat(validator.isValid(poolConfig, cvc)).isFalse();
+        verify(cvc).disableDefaultConstraintViolation();
+        verify(cvc).buildConstraintViolationWithTemplate(anyString());
+    }
+
+    @Test
+    public void disabledOrLongLeakDetectionThresholdIsValid() {
+        poolConfig.setLeakDetectionThreshold(0L);
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+
+        poolConfig.setLeakDetectionThreshold(2000L);
+        assertThat(validator.isValid(poolConfig, cvc)).isTrue();
+    }
+}
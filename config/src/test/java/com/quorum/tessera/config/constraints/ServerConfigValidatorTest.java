@@ -81,4 +81,67 @@ public class ServerConfigValidatorTest {
         verify(cvc).disableDefaultConstraintViolation();
         verify(cvc).buildConstraintViolationWithTemplate(anyString());
     }
+
+    @Test
+    public void minThreadsGreaterThanMaxThreads() {
+        ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setMinThreads(20);
+        tuning.setMaxThreads(10);
+        serverConfig.setTuningConfig(tuning);
+
+        assertThat(validator.isValid(serverConfig, cvc)).isFalse();
+        verify(cvc).disableDefaultConstraintViolation();
+        verify(cvc).buildConstraintViolationWithTemplate(anyString());
+    }
+
+    @Test
+    public void partialTuningConfigIsValid() {
+        ServerTuningConfig minOnly = new ServerTuningConfig();
+        minOnly.setMinThreads(20);
+        serverConfig.setTuningConfig(minOnly);
+        assertThat(validator.isValid(serverConfig, cvc)).isTrue();
+
+        ServerTuningConfig maxOnly = new ServerTuningConfig();
+        maxOnly.setMaxThreads(10);
+        serverConfig.setTuningConfig(maxOnly);
+        assertThat(validator.isValid(serverConfig, cvc)).isTrue();
+
+        ServerTuningConfig both = new ServerTuningConfig();
+        both.setMinThreads(10);
+        both.setMaxThreads(10);
+        serverConfig.setTuningConfig(both);
+        assertThat(validator.isValid(serverConfig, cvc)).isTrue();
+    }
+
+    @Test
+    public void maxThreadsNotAboveAcceptorsSelectorsAndReserved() {
+        ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setAcceptors(2);
+        tuning.setSelectors(4);
+        // and one reserved thread
+        tuning.setMaxThreads(7);
+        serverConfig.setTuningConfig(tuning);
+
+        assertThat(validator.isValid(serverConfig, cvc)).isFalse();
+        verify(cvc).disableDefaultConstraintViolation();
+        verify(cvc).buildConstraintViolationWithTemplate(contains("greater than the 7 threads"));
+
+        tuning.setMaxThreads(8);
+
+        assertThat(validator.isValid(serverConfig, cvc)).isTrue();
+    }
+
+    @Test
+    public void requiredThreadsUsesJettyDefaultsForUnsetValues() {
+        ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setMaxThreads(200);
+
+        final int cpus = Runtime.getRuntime().availableProcessors();
+        final int expected =
+                Math.max(1, Math.min(4, cpus / 8))
+                        + Math.max(1, Math.min(cpus / 2, 12))
+                        + Math.max(1, Math.min(cpus, 20));
+
+        assertThat(ServerConfigValidator.requiredThreads(tuning)).isEqualTo(expected);
+    }
 }
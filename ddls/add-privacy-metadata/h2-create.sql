@@ -0,0 +1 @@
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS LONGVARBINARY NOT NULL, EXEC_HASH LONGVARBINARY, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1 @@
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS BLOB NOT NULL, EXEC_HASH BLOB, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1 @@
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE NUMBER(10) NOT NULL, RECIPIENT_KEYS BLOB NOT NULL, EXEC_HASH BLOB, HASH RAW(100) NOT NULL, PRIMARY KEY (HASH));
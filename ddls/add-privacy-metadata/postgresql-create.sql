@@ -0,0 +1 @@
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS BYTEA NOT NULL, EXEC_HASH BYTEA, HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1 @@
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INTEGER NOT NULL, RECIPIENT_KEYS BLOB NOT NULL, EXEC_HASH BLOB, HASH BLOB NOT NULL, PRIMARY KEY (HASH));
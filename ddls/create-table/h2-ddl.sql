@@ -1,2 +1,3 @@
 CREATE TABLE ENCRYPTED_TRANSACTION (ENCODED_PAYLOAD LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
 CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY LONGVARBINARY NOT NULL, ENCRYPTED_PAYLOAD LONGVARBINARY NOT NULL, NONCE LONGVARBINARY NOT NULL, SENDER LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS LONGVARBINARY NOT NULL, EXEC_HASH LONGVARBINARY, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
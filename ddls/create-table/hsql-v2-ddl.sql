@@ -0,0 +1,4 @@
+CREATE TABLE TX_INDEX (TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD LONGVARBINARY NOT NULL, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY LONGVARBINARY NOT NULL, ENCRYPTED_PAYLOAD LONGVARBINARY NOT NULL, NONCE LONGVARBINARY NOT NULL, SENDER LONGVARBINARY NOT NULL, TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS LONGVARBINARY NOT NULL, EXEC_HASH LONGVARBINARY, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1,4 @@
+CREATE TABLE TX_INDEX (TIMESTAMP BIGINT, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BLOB NOT NULL, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY BLOB NOT NULL, ENCRYPTED_PAYLOAD BLOB NOT NULL, NONCE BLOB NOT NULL, SENDER BLOB NOT NULL, TIMESTAMP BIGINT, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS BLOB NOT NULL, EXEC_HASH BLOB, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1,4 @@
+CREATE TABLE TX_INDEX (TIMESTAMP DECIMAL(19), HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BYTEA NOT NULL, HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE ENCRYPTED_RAW_TRANSACTION (ENCRYPTED_KEY BYTEA NOT NULL, ENCRYPTED_PAYLOAD BYTEA NOT NULL, NONCE BYTEA NOT NULL, SENDER BYTEA NOT NULL, TIMESTAMP DECIMAL(19), HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TRANSACTION_PRIVACY_METADATA (PRIVACY_MODE INT NOT NULL, RECIPIENT_KEYS BYTEA NOT NULL, EXEC_HASH BYTEA, HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
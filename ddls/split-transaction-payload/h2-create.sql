@@ -0,0 +1,2 @@
+CREATE TABLE TX_INDEX (TIMESTAMP BIGINT, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD LONGVARBINARY NOT NULL, HASH LONGVARBINARY NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1,2 @@
+CREATE TABLE TX_INDEX (TIMESTAMP BIGINT, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BLOB NOT NULL, HASH VARBINARY(100) NOT NULL, PRIMARY KEY (HASH));
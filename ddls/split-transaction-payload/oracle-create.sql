@@ -0,0 +1,2 @@
+CREATE TABLE TX_INDEX (TIMESTAMP NUMBER(19), HASH RAW(100) NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BLOB NOT NULL, HASH RAW(100) NOT NULL, PRIMARY KEY (HASH));
@@ -0,0 +1,2 @@
+CREATE TABLE TX_INDEX (TIMESTAMP DECIMAL(19), HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BYTEA NOT NULL, HASH BYTEA NOT NULL, PRIMARY KEY (HASH));
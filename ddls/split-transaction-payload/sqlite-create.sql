@@ -0,0 +1,2 @@
+CREATE TABLE TX_INDEX (TIMESTAMP NUMBER(19), HASH BLOB NOT NULL, PRIMARY KEY (HASH));
+CREATE TABLE TX_PAYLOAD (PAYLOAD BLOB NOT NULL, HASH BLOB NOT NULL, PRIMARY KEY (HASH));
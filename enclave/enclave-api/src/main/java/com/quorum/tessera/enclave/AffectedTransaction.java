@@ -1,16 +1,34 @@
 package com.quorum.tessera.enclave;
 
-import java.util.Objects;
+import com.quorum.tessera.encryption.PublicKey;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A transaction referenced by another transaction as an affected contract transaction.
+ *
+ * <p>The privacy mode and recipients can be given separately from the payload, in which case the payload is only
+ * fetched from its supplier when it is needed, such as when calculating a security hash.
+ */
 public class AffectedTransaction {
 
     private final TxHash hash;
 
-    private final EncodedPayload payload;
+    private final Supplier<EncodedPayload> payload;
+
+    private final PrivacyMode privacyMode;
 
-    private AffectedTransaction(TxHash hash, EncodedPayload payload) {
+    private final List<PublicKey> recipientKeys;
+
+    private AffectedTransaction(
+            TxHash hash, Supplier<EncodedPayload> payload, PrivacyMode privacyMode, List<PublicKey> recipientKeys) {
         this.hash = Objects.requireNonNull(hash);
         this.payload = Objects.requireNonNull(payload);
+        this.privacyMode = privacyMode;
+        this.recipientKeys = recipientKeys;
     }
 
     public TxHash getHash() {
@@ -18,14 +36,26 @@ public class AffectedTransaction {
     }
 
     public EncodedPayload getPayload() {
-        return payload;
+        return payload.get();
+    }
+
+    public PrivacyMode getPrivacyMode() {
+        return Optional.ofNullable(privacyMode).orElseGet(() -> getPayload().getPrivacyMode());
+    }
+
+    public List<PublicKey> getRecipientKeys() {
+        return Optional.ofNullable(recipientKeys).orElseGet(() -> getPayload().getRecipientKeys());
     }
 
     public static class Builder {
 
         private byte[] hash;
 
-        private EncodedPayload payload;
+        private Supplier<EncodedPayload> payload;
+
+        private PrivacyMode privacyMode;
+
+        private List<PublicKey> recipientKeys;
 
         public Builder withHash(byte[] hash) {
             this.hash = hash;
@@ -33,10 +63,25 @@ public class AffectedTransaction {
         }
 
         public Builder withPayload(EncodedPayload payload) {
+            this.payload = Objects.isNull(payload) ? null : () -> payload;
+            return this;
+        }
+
+        public Builder withPayload(Supplier<EncodedPayload> payload) {
             this.payload = payload;
             return this;
         }
 
+        public Builder withPrivacyMode(PrivacyMode privacyMode) {
+            this.privacyMode = privacyMode;
+            return this;
+        }
+
+        public Builder withRecipientKeys(List<PublicKey> recipientKeys) {
+            this.recipientKeys = Objects.isNull(recipientKeys) ? null : List.copyOf(recipientKeys);
+            return this;
+        }
+
         private Builder() {}
 
         public static Builder create() {
@@ -45,7 +90,7 @@ public class AffectedTransaction {
 
         public AffectedTransaction build() {
             TxHash txHash = new TxHash(hash);
-            return new AffectedTransaction(txHash, payload);
+            return new AffectedTransaction(txHash, payload, privacyMode, recipientKeys);
         }
     }
 
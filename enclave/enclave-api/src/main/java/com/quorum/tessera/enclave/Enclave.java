@@ -55,6 +55,32 @@ public interface Enclave extends Service {
             List<AffectedTransaction> affectedContractTransactions,
             byte[] execHash);
 
+    /**
+     * Encrypts a message as {@link #encryptPayload(byte[], PublicKey, List, PrivacyMode, List, byte[])} does, first
+     * compressing it as requested if that makes it smaller. Recipients must support the compression to be able to
+     * decrypt the payload. Enclaves that cannot compress messages encrypt them uncompressed.
+     *
+     * @param message the message to be encrypted
+     * @param senderPublicKey the public key which this enclave manages
+     * @param recipientPublicKeys the recipients to encrypt this message for
+     * @param privacyMode the privacy flag of the transaction
+     * @param affectedContractTransactions the map of tx hash to encoded payloads
+     * @param execHash execution hash for psv transactions
+     * @param compression the compression to apply to the message before it is encrypted
+     * @return the encrypted information, represented by an {@link EncodedPayload}
+     */
+    default EncodedPayload encryptPayload(
+            byte[] message,
+            PublicKey senderPublicKey,
+            List<PublicKey> recipientPublicKeys,
+            PrivacyMode privacyMode,
+            List<AffectedTransaction> affectedContractTransactions,
+            byte[] execHash,
+            PayloadCompression compression) {
+        return encryptPayload(
+                message, senderPublicKey, recipientPublicKeys, privacyMode, affectedContractTransactions, execHash);
+    }
+
     /**
      * Decrypts a {@link RawTransaction} so that it can be re-encrypted into a {@link EncodedPayload} with the given
      * recipient list
@@ -91,9 +117,9 @@ public interface Enclave extends Service {
     RawTransaction encryptRawPayload(byte[] message, PublicKey sender);
 
     /**
-     * Decrypt a transaction and fetch the original message using the given public key. Throws an {@link
-     * com.quorum.tessera.nacl.NaclException} if the provided public key OR one of the Enclave's managed keys cannot be
-     * used to decrypt the payload
+     * Decrypt a transaction and fetch the original message using the given public key, decompressing it if the payload
+     * says it was compressed before it was encrypted. Throws an {@link com.quorum.tessera.nacl.NaclException} if the
+     * provided public key OR one of the Enclave's managed keys cannot be used to decrypt the payload
      *
      * @param payload the encrypted payload
      * @param providedKey the key to use for decryption, if the payload wasn't sent by this Enclave
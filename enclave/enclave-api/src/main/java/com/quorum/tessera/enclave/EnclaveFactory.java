@@ -43,7 +43,9 @@ public interface EnclaveFactory {
 
         LoggerFactory.getLogger(EnclaveFactory.class).debug("Creating enclave");
 
-        Enclave enclave = new EnclaveImpl(encryptor, new KeyManagerImpl(keys, forwardKeys));
+        Enclave enclave =
+                new EnclaveImpl(
+                        encryptor, new KeyManagerImpl(keys, forwardKeys), encryptorConfig.getMaxInflatedPayloadSize());
 
         LoggerFactory.getLogger(EnclaveFactory.class).debug("Created enclave {}", enclave);
 
@@ -62,7 +64,7 @@ public interface EnclaveFactory {
     default Enclave create(Config config) {
         EnclaveHolder enclaveHolder = EnclaveHolder.getInstance();
         Optional<Enclave> enclave = enclaveHolder.getEnclave();
-        if(enclave.isPresent()) {
+        if (enclave.isPresent()) {
             return enclave.get();
         }
 
@@ -1,7 +1,7 @@
 package com.quorum.tessera.enclave;
 
+import com.quorum.tessera.config.EncryptorConfig;
 import com.quorum.tessera.encryption.*;
-import org.bouncycastle.jcajce.provider.digest.SHA3;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,19 +18,47 @@ import com.quorum.tessera.encryption.SharedKey;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class EnclaveImpl implements Enclave {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EnclaveImpl.class);
 
+    private static final int MAX_VERIFIED_SECURITY_HASHES = 10_000;
+
+    private static final String COMPRESSION_MISMATCH = "Payload compression does not match the sealed message";
+
+    // compressed messages larger than this are opened into an array of their own rather than kept by the thread
+    private static final int MAX_RETAINED_OPENED_LENGTH = 256 * 1024;
+
+    private static final ThreadLocal<byte[]> OPENED = ThreadLocal.withInitial(() -> new byte[0]);
+
     private final Encryptor encryptor;
 
     private final KeyManager keyManager;
 
+    private final VerifiedSecurityHashes verifiedSecurityHashes;
+
+    private final int maxInflatedPayloadSize;
+
     public EnclaveImpl(Encryptor encryptor, KeyManager keyManager) {
+        this(encryptor, keyManager, EncryptorConfig.DEFAULT_MAX_INFLATED_PAYLOAD_SIZE);
+    }
+
+    public EnclaveImpl(Encryptor encryptor, KeyManager keyManager, int maxInflatedPayloadSize) {
+        this(encryptor, keyManager, new VerifiedSecurityHashes(MAX_VERIFIED_SECURITY_HASHES), maxInflatedPayloadSize);
+    }
+
+    EnclaveImpl(
+            Encryptor encryptor,
+            KeyManager keyManager,
+            VerifiedSecurityHashes verifiedSecurityHashes,
+            int maxInflatedPayloadSize) {
         this.encryptor = Objects.requireNonNull(encryptor);
         this.keyManager = Objects.requireNonNull(keyManager);
+        this.verifiedSecurityHashes = Objects.requireNonNull(verifiedSecurityHashes);
+        this.maxInflatedPayloadSize = maxInflatedPayloadSize;
     }
 
     @Override
@@ -41,12 +69,41 @@ public class EnclaveImpl implements Enclave {
             final PrivacyMode privacyMode,
             final List<AffectedTransaction> affectedContractTransactions,
             final byte[] execHash) {
+        return encryptPayload(
+                message,
+                senderPublicKey,
+                recipientPublicKeys,
+                privacyMode,
+                affectedContractTransactions,
+                execHash,
+                PayloadCompression.NONE);
+    }
+
+    @Override
+    public EncodedPayload encryptPayload(
+            final byte[] message,
+            final PublicKey senderPublicKey,
+            final List<PublicKey> recipientPublicKeys,
+            final PrivacyMode privacyMode,
+            final List<AffectedTransaction> affectedContractTransactions,
+            final byte[] execHash,
+            final PayloadCompression compression) {
 
         final MasterKey masterKey = encryptor.createMasterKey();
         final Nonce nonce = encryptor.randomNonce();
         final Nonce recipientNonce = encryptor.randomNonce();
 
-        final byte[] cipherText = encryptor.sealAfterPrecomputation(message, nonce, masterKey);
+        // messages that do not get any smaller are left as they are, so recipients have nothing to decompress
+        final ByteBuffer compressed =
+                compression == PayloadCompression.DEFLATE ? PayloadCompressor.compress(message) : null;
+        final boolean applyCompression = compressed != null && compressed.remaining() < message.length;
+        final PayloadCompression appliedCompression =
+                applyCompression ? PayloadCompression.DEFLATE : PayloadCompression.NONE;
+
+        final byte[] cipherText =
+                applyCompression
+                        ? seal(compressed, nonce, masterKey)
+                        : encryptor.sealAfterPrecomputation(message, nonce, masterKey);
 
         final List<byte[]> encryptedMasterKeys =
                 buildRecipientMasterKeys(senderPublicKey, recipientPublicKeys, recipientNonce, masterKey);
@@ -69,6 +126,7 @@ public class EnclaveImpl implements Enclave {
                 .withPrivacyMode(privacyMode)
                 .withAffectedContractTransactions(affectedContractTransactionHashes)
                 .withExecHash(execHash)
+                .withCompression(appliedCompression)
                 .build();
     }
 
@@ -76,8 +134,7 @@ public class EnclaveImpl implements Enclave {
             Map<TxHash, EncodedPayload> affectedContractTransactions, byte[] cipherText) {
         Map<TxHash, byte[]> affectedContractTransactionHashes = new HashMap<>();
         for (final Map.Entry<TxHash, EncodedPayload> entry : affectedContractTransactions.entrySet()) {
-            // TODO - remove extra logs
-            LOGGER.info("Calculating hash for TxKey {}", entry.getKey().encodeToBase64());
+            LOGGER.debug("Calculating hash for TxKey {}", entry.getKey().encodeToBase64());
             affectedContractTransactionHashes.put(
                     entry.getKey(), computeAffectedContractTransactionHash(cipherText, entry.getValue()));
         }
@@ -90,13 +147,7 @@ public class EnclaveImpl implements Enclave {
     }
 
     private byte[] computeCAHash(byte[] c1, byte[] c2, MasterKey masterKey) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(c1.length + c2.length + masterKey.getKeyBytes().length);
-        byteBuffer.put(c1);
-        byteBuffer.put(c2);
-        byteBuffer.put(masterKey.getKeyBytes());
-
-        final SHA3.DigestSHA3 digestSHA3 = new SHA3.Digest512();
-        return digestSHA3.digest(byteBuffer.array());
+        return Sha3Digest.digest512(c1, c2, masterKey.getKeyBytes());
     }
 
     @Override
@@ -160,28 +211,45 @@ public class EnclaveImpl implements Enclave {
     @Override
     public Set<TxHash> findInvalidSecurityHashes(
             EncodedPayload encodedPayload, List<AffectedTransaction> affectedContractTransactions) {
-        return encodedPayload.getAffectedContractTransactions().entrySet().stream()
-                .filter(
-                        entry -> {
-                            // TODO - remove extra logs
-                            LOGGER.info("Verifying hash for TxKey {}", entry.getKey().encodeToBase64());
-                            TxHash txHash = entry.getKey();
-
-                            final Optional<EncodedPayload> affectedTransaction =
-                                    affectedContractTransactions.stream()
-                                            .filter(t -> Objects.equals(t.getHash(), txHash))
-                                            .findFirst()
-                                            .map(AffectedTransaction::getPayload);
-                            if (affectedTransaction.isEmpty()) {
-                                return true;
-                            }
-                            byte[] calculatedHash =
-                                    computeAffectedContractTransactionHash(
-                                            encodedPayload.getCipherText(), affectedTransaction.get());
-                            return !Arrays.equals(entry.getValue().getData(), calculatedHash);
-                        })
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+
+        final Map<TxHash, SecurityHash> securityHashes = encodedPayload.getAffectedContractTransactions();
+        if (securityHashes.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final Map<TxHash, AffectedTransaction> affectedTransactions =
+                affectedContractTransactions.stream()
+                        .collect(
+                                Collectors.toMap(
+                                        AffectedTransaction::getHash, Function.identity(), (first, second) -> first));
+
+        final byte[] cipherText = encodedPayload.getCipherText();
+        final byte[] cipherTextDigest = Sha3Digest.digest512(cipherText);
+
+        final Set<TxHash> invalidHashes = new HashSet<>();
+        for (final Map.Entry<TxHash, SecurityHash> entry : securityHashes.entrySet()) {
+            final TxHash txHash = entry.getKey();
+            final byte[] securityHash = entry.getValue().getData();
+            LOGGER.debug("Verifying hash for TxKey {}", txHash.encodeToBase64());
+
+            final AffectedTransaction affectedTransaction = affectedTransactions.get(txHash);
+            if (affectedTransaction == null) {
+                invalidHashes.add(txHash);
+                continue;
+            }
+            if (verifiedSecurityHashes.contains(cipherTextDigest, txHash, securityHash)) {
+                continue;
+            }
+
+            final byte[] calculatedHash =
+                    computeAffectedContractTransactionHash(cipherText, affectedTransaction.getPayload());
+            if (Arrays.equals(securityHash, calculatedHash)) {
+                verifiedSecurityHashes.add(cipherTextDigest, txHash, securityHash);
+            } else {
+                invalidHashes.add(txHash);
+            }
+        }
+        return invalidHashes;
     }
 
     private List<byte[]> buildRecipientMasterKeys(
@@ -294,9 +362,58 @@ public class EnclaveImpl implements Enclave {
         final byte[] cipherText = payload.getCipherText();
         final Nonce cipherTextNonce = payload.getCipherTextNonce();
 
+        // the compression field is not sealed, so a compressed payload has to carry the header sealed into the message
+        if (payload.getCompression() == PayloadCompression.DEFLATE) {
+            return openCompressed(cipherText, cipherTextNonce, masterKey);
+        }
+
+        // an uncompressed message is returned as it was sealed, even if it happens to start with the header
         return encryptor.openAfterPrecomputation(cipherText, cipherTextNonce, masterKey);
     }
 
+    private byte[] seal(final ByteBuffer message, final Nonce nonce, final MasterKey masterKey) {
+        final byte[] sealed = new byte[message.remaining() + encryptor.sealOverhead()];
+        final int length =
+                encryptor.sealInto(message, ByteBuffer.wrap(sealed), nonce, SharedKey.from(masterKey.getKeyBytes()));
+        return length == sealed.length ? sealed : Arrays.copyOf(sealed, length);
+    }
+
+    /*
+     * The compressed message is only read by the inflater, so it is opened into a buffer kept by this thread rather
+     * than an array allocated for each transaction, and cleared once the message has been inflated.
+     */
+    private byte[] openCompressed(final byte[] cipherText, final Nonce nonce, final MasterKey masterKey) {
+        final int length = Math.max(0, cipherText.length - encryptor.sealOverhead());
+        final byte[] opened = openedBuffer(length);
+        try {
+            final ByteBuffer plainText = ByteBuffer.wrap(opened, 0, length);
+            encryptor.openInto(ByteBuffer.wrap(cipherText), plainText, nonce, SharedKey.from(masterKey.getKeyBytes()));
+            plainText.flip();
+
+            if (!PayloadCompressor.isCompressed(plainText)) {
+                throw new EnclaveException(COMPRESSION_MISMATCH);
+            }
+            return PayloadCompressor.decompress(plainText, maxInflatedPayloadSize);
+        } finally {
+            Arrays.fill(opened, 0, length, (byte) 0);
+        }
+    }
+
+    private static byte[] openedBuffer(final int length) {
+        if (length > MAX_RETAINED_OPENED_LENGTH) {
+            return new byte[length];
+        }
+
+        final byte[] current = OPENED.get();
+        if (current.length >= length) {
+            return current;
+        }
+
+        final byte[] grown = new byte[length];
+        OPENED.set(grown);
+        return grown;
+    }
+
     @Override
     public byte[] unencryptRawPayload(RawTransaction payload) {
 
@@ -27,6 +27,8 @@ public class EncodedPayload {
 
     private final byte[] execHash;
 
+    private final PayloadCompression compression;
+
     private EncodedPayload(
             final PublicKey senderKey,
             final byte[] cipherText,
@@ -36,7 +38,8 @@ public class EncodedPayload {
             final List<PublicKey> recipientKeys,
             final PrivacyMode privacyMode,
             final Map<TxHash, SecurityHash> affectedContractTransactions,
-            final byte[] execHash) {
+            final byte[] execHash,
+            final PayloadCompression compression) {
         this.senderKey = senderKey;
         this.cipherText = cipherText;
         this.cipherTextNonce = cipherTextNonce;
@@ -46,6 +49,7 @@ public class EncodedPayload {
         this.privacyMode = privacyMode;
         this.affectedContractTransactions = affectedContractTransactions;
         this.execHash = execHash;
+        this.compression = compression;
     }
 
     public PublicKey getSenderKey() {
@@ -84,6 +88,10 @@ public class EncodedPayload {
         return execHash;
     }
 
+    public PayloadCompression getCompression() {
+        return compression;
+    }
+
     public static class Builder {
 
         private Builder() {}
@@ -110,7 +118,8 @@ public class EncodedPayload {
                     .withExecHash(encodedPayload.getExecHash())
                     .withCipherText(encodedPayload.getCipherText())
                     .withCipherTextNonce(encodedPayload.getCipherTextNonce())
-                    .withAffectedContractTransactions(affectedContractTransactionMap);
+                    .withAffectedContractTransactions(affectedContractTransactionMap)
+                    .withCompression(encodedPayload.getCompression());
         }
 
         private PublicKey senderKey;
@@ -131,6 +140,8 @@ public class EncodedPayload {
 
         private byte[] execHash = new byte[0];
 
+        private PayloadCompression compression = PayloadCompression.NONE;
+
         public Builder withSenderKey(final PublicKey senderKey) {
             this.senderKey = senderKey;
             return this;
@@ -205,6 +216,11 @@ public class EncodedPayload {
             return this;
         }
 
+        public Builder withCompression(final PayloadCompression compression) {
+            this.compression = compression;
+            return this;
+        }
+
         public EncodedPayload build() {
 
             Map<TxHash, SecurityHash> affectedTxns =
@@ -225,7 +241,8 @@ public class EncodedPayload {
                     recipientKeys,
                     privacyMode,
                     affectedTxns,
-                    execHash);
+                    execHash,
+                    compression);
         }
     }
 
@@ -241,13 +258,21 @@ public class EncodedPayload {
                 && Objects.equals(recipientNonce, that.recipientNonce)
                 && Objects.equals(recipientKeys, that.recipientKeys)
                 && privacyMode == that.privacyMode
-                && Arrays.equals(execHash, that.execHash);
+                && Arrays.equals(execHash, that.execHash)
+                && compression == that.compression;
     }
 
     @Override
     public int hashCode() {
         int result =
-                Objects.hash(senderKey, cipherTextNonce, recipientBoxes, recipientNonce, recipientKeys, privacyMode);
+                Objects.hash(
+                        senderKey,
+                        cipherTextNonce,
+                        recipientBoxes,
+                        recipientNonce,
+                        recipientKeys,
+                        privacyMode,
+                        compression);
         result = 31 * result + Arrays.hashCode(cipherText);
         result = 31 * result + Arrays.hashCode(execHash);
         return result;
@@ -1,11 +1,16 @@
 package com.quorum.tessera.enclave;
 
+import com.quorum.tessera.config.ArgonOptions;
 import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.KeyDataConfig;
 import com.quorum.tessera.config.KeyVaultType;
+import com.quorum.tessera.config.PrivateKeyType;
 import com.quorum.tessera.config.keypairs.AWSKeyPair;
 import com.quorum.tessera.config.keypairs.AzureVaultKeyPair;
 import com.quorum.tessera.config.keypairs.ConfigKeyPair;
+import com.quorum.tessera.config.keypairs.FilesystemKeyPair;
 import com.quorum.tessera.config.keypairs.HashicorpVaultKeyPair;
+import com.quorum.tessera.config.keypairs.InlineKeypair;
 import com.quorum.tessera.config.util.EnvironmentVariableProvider;
 import com.quorum.tessera.config.vault.data.AWSGetSecretData;
 import com.quorum.tessera.config.vault.data.AzureGetSecretData;
@@ -16,92 +21,195 @@ import com.quorum.tessera.encryption.PrivateKey;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.key.vault.KeyVaultService;
 import com.quorum.tessera.key.vault.KeyVaultServiceFactory;
+import com.sun.management.OperatingSystemMXBean;
 
+import java.lang.management.ManagementFactory;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
+/**
+ * Resolves configured key pairs into usable keys.
+ *
+ * <p>Secrets held in key vaults are fetched concurrently using a single client per vault type, and locked keys are
+ * unlocked in parallel on a pool sized so that the Argon2 memory of all concurrent unlocks fits in free memory.
+ */
 public class KeyPairConverter {
 
+    private static final int MAX_CONCURRENT_VAULT_REQUESTS = 16;
+
     private final Config config;
 
     private final EnvironmentVariableProvider envProvider;
 
+    private final LongSupplier freeMemory;
+
+    private final Map<KeyVaultType, KeyVaultService> keyVaultServices = new ConcurrentHashMap<>();
+
     public KeyPairConverter(Config config, EnvironmentVariableProvider envProvider) {
+        this(config, envProvider, KeyPairConverter::freePhysicalMemory);
+    }
+
+    KeyPairConverter(Config config, EnvironmentVariableProvider envProvider, LongSupplier freeMemory) {
         this.config = config;
         this.envProvider = envProvider;
+        this.freeMemory = Objects.requireNonNull(freeMemory);
     }
 
     public Collection<KeyPair> convert(Collection<ConfigKeyPair> configKeyPairs) {
-        return configKeyPairs
-            .stream()
-            .map(this::convert)
-            .collect(Collectors.toList());
+        final int unlockThreads =
+                unlockThreads(configKeyPairs, freeMemory.getAsLong(), Runtime.getRuntime().availableProcessors());
+
+        // each vault key pair fetches two secrets, and no pool is needed when none are held in vaults
+        final long vaultRequests = 2 * configKeyPairs.stream().filter(KeyPairConverter::isVaultKeyPair).count();
+        final ExecutorService vaultExecutor =
+                vaultRequests == 0
+                        ? null
+                        : Executors.newFixedThreadPool((int) Math.min(MAX_CONCURRENT_VAULT_REQUESTS, vaultRequests));
+        final ExecutorService unlockExecutor = Executors.newFixedThreadPool(unlockThreads);
+        try {
+            final List<CompletableFuture<KeyPair>> keyPairs =
+                    configKeyPairs.stream()
+                            .map(configKeyPair -> convert(configKeyPair, vaultExecutor, unlockExecutor))
+                            .collect(Collectors.toList());
+
+            return keyPairs.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        } finally {
+            Optional.ofNullable(vaultExecutor).ifPresent(ExecutorService::shutdownNow);
+            unlockExecutor.shutdownNow();
+        }
     }
 
-    private KeyPair convert(ConfigKeyPair configKeyPair) {
-        String base64PublicKey;
-        String base64PrivateKey;
-
-        if (configKeyPair instanceof AzureVaultKeyPair) {
-
-            KeyVaultServiceFactory keyVaultServiceFactory = KeyVaultServiceFactory.getInstance(KeyVaultType.AZURE);
+    private static boolean isVaultKeyPair(ConfigKeyPair configKeyPair) {
+        return configKeyPair instanceof AzureVaultKeyPair
+                || configKeyPair instanceof HashicorpVaultKeyPair
+                || configKeyPair instanceof AWSKeyPair;
+    }
 
-            KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+    private CompletableFuture<KeyPair> convert(
+            ConfigKeyPair configKeyPair, Executor vaultExecutor, Executor unlockExecutor) {
 
+        if (configKeyPair instanceof AzureVaultKeyPair) {
             AzureVaultKeyPair akp = (AzureVaultKeyPair) configKeyPair;
 
             GetSecretData getPublicKeyData = new AzureGetSecretData(akp.getPublicKeyId(), akp.getPublicKeyVersion());
             GetSecretData getPrivateKeyData = new AzureGetSecretData(akp.getPrivateKeyId(), akp.getPrivateKeyVersion());
 
-            base64PublicKey = keyVaultService.getSecret(getPublicKeyData);
-            base64PrivateKey = keyVaultService.getSecret(getPrivateKeyData);
+            return fetchFromVault(KeyVaultType.AZURE, getPublicKeyData, getPrivateKeyData, vaultExecutor);
         } else if (configKeyPair instanceof HashicorpVaultKeyPair) {
+            HashicorpVaultKeyPair hkp = (HashicorpVaultKeyPair) configKeyPair;
 
-            KeyVaultServiceFactory keyVaultServiceFactory = KeyVaultServiceFactory.getInstance(KeyVaultType.HASHICORP);
+            GetSecretData getPublicKeyData =
+                    new HashicorpGetSecretData(
+                            hkp.getSecretEngineName(),
+                            hkp.getSecretName(),
+                            hkp.getPublicKeyId(),
+                            hkp.getSecretVersion());
+            GetSecretData getPrivateKeyData =
+                    new HashicorpGetSecretData(
+                            hkp.getSecretEngineName(),
+                            hkp.getSecretName(),
+                            hkp.getPrivateKeyId(),
+                            hkp.getSecretVersion());
+
+            return fetchFromVault(KeyVaultType.HASHICORP, getPublicKeyData, getPrivateKeyData, vaultExecutor);
+        } else if (configKeyPair instanceof AWSKeyPair) {
+            AWSKeyPair akp = (AWSKeyPair) configKeyPair;
 
-            KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+            GetSecretData getPublicKeyData = new AWSGetSecretData(akp.getPublicKeyId());
+            GetSecretData getPrivateKeyData = new AWSGetSecretData(akp.getPrivateKeyId());
 
-            HashicorpVaultKeyPair hkp = (HashicorpVaultKeyPair) configKeyPair;
+            return fetchFromVault(KeyVaultType.AWS, getPublicKeyData, getPrivateKeyData, vaultExecutor);
+        }
 
-            GetSecretData getPublicKeyData = new HashicorpGetSecretData(hkp.getSecretEngineName(), hkp.getSecretName(), hkp.getPublicKeyId(), hkp.getSecretVersion());
-            GetSecretData getPrivateKeyData = new HashicorpGetSecretData(hkp.getSecretEngineName(), hkp.getSecretName(), hkp.getPrivateKeyId(), hkp.getSecretVersion());
+        // reading the private key of a locked key pair runs the Argon2 unlock
+        return CompletableFuture.supplyAsync(
+                () -> toKeyPair(configKeyPair.getPublicKey(), configKeyPair.getPrivateKey()), unlockExecutor);
+    }
 
-            base64PublicKey = keyVaultService.getSecret(getPublicKeyData);
-            base64PrivateKey = keyVaultService.getSecret(getPrivateKeyData);
-        } else if (configKeyPair instanceof AWSKeyPair) {
-            KeyVaultServiceFactory keyVaultServiceFactory = KeyVaultServiceFactory.getInstance(KeyVaultType.AWS);
+    private CompletableFuture<KeyPair> fetchFromVault(
+            KeyVaultType keyVaultType,
+            GetSecretData getPublicKeyData,
+            GetSecretData getPrivateKeyData,
+            Executor vaultExecutor) {
 
-            KeyVaultService keyVaultService = keyVaultServiceFactory.create(config, envProvider);
+        final KeyVaultService keyVaultService =
+                keyVaultServices.computeIfAbsent(
+                        keyVaultType, type -> KeyVaultServiceFactory.getInstance(type).create(config, envProvider));
 
-            AWSKeyPair akp = (AWSKeyPair) configKeyPair;
+        final CompletableFuture<String> base64PublicKey =
+                CompletableFuture.supplyAsync(() -> keyVaultService.getSecret(getPublicKeyData), vaultExecutor);
+        final CompletableFuture<String> base64PrivateKey =
+                CompletableFuture.supplyAsync(() -> keyVaultService.getSecret(getPrivateKeyData), vaultExecutor);
 
-            GetSecretData getPublicKeyData = new AWSGetSecretData(akp.getPublicKeyId());
-            GetSecretData getPrivateKeyData = new AWSGetSecretData(akp.getPrivateKeyId());
+        return base64PublicKey.thenCombine(base64PrivateKey, KeyPairConverter::toKeyPair);
+    }
 
-            base64PublicKey = keyVaultService.getSecret(getPublicKeyData);
-            base64PrivateKey = keyVaultService.getSecret(getPrivateKeyData);
-        } else {
+    private static KeyPair toKeyPair(String base64PublicKey, String base64PrivateKey) {
+        return new KeyPair(
+                PublicKey.from(Base64.getDecoder().decode(base64PublicKey.trim())),
+                PrivateKey.from(Base64.getDecoder().decode(base64PrivateKey.trim())));
+    }
 
-            base64PublicKey = configKeyPair.getPublicKey();
-            base64PrivateKey = configKeyPair.getPrivateKey();
+    /**
+     * Works out how many locked keys can be unlocked at once. Each Argon2 unlock allocates the configured amount of
+     * memory, so no more unlocks run concurrently than fit in the free memory, and never more than there are processors
+     * or key pairs. At least one unlock always runs.
+     */
+    static int unlockThreads(Collection<ConfigKeyPair> configKeyPairs, long freeMemory, int processors) {
+        final long argonMemory = configKeyPairs.stream().mapToLong(KeyPairConverter::argonMemoryBytes).max().orElse(0L);
 
+        final long affordable = argonMemory == 0L ? processors : freeMemory / argonMemory;
+
+        return (int) Math.max(1L, Math.min(affordable, Math.min(processors, configKeyPairs.size())));
+    }
+
+    private static long argonMemoryBytes(ConfigKeyPair configKeyPair) {
+        final InlineKeypair inlineKeypair;
+        if (configKeyPair instanceof FilesystemKeyPair) {
+            inlineKeypair = ((FilesystemKeyPair) configKeyPair).getInlineKeypair();
+        } else if (configKeyPair instanceof InlineKeypair) {
+            inlineKeypair = (InlineKeypair) configKeyPair;
+        } else {
+            inlineKeypair = null;
         }
 
-        return new KeyPair(
-            PublicKey.from(Base64.getDecoder().decode(base64PublicKey.trim())),
-            PrivateKey.from(Base64.getDecoder().decode(base64PrivateKey.trim()))
-        );
+        return Optional.ofNullable(inlineKeypair)
+                .map(InlineKeypair::getPrivateKeyConfig)
+                .filter(keyDataConfig -> keyDataConfig.getType() == PrivateKeyType.LOCKED)
+                .map(KeyDataConfig::getArgonOptions)
+                .map(ArgonOptions::getMemory)
+                .map(kibibytes -> kibibytes * 1024L)
+                .orElse(0L);
     }
 
-    public List<PublicKey> convert(List<String> values) {
-        return Objects.requireNonNull(values, "Key values cannot be null")
-            .stream()
-            .map(v -> Base64.getDecoder().decode(v))
-            .map(PublicKey::from)
-            .collect(Collectors.toList());
+    private static long freePhysicalMemory() {
+        return ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class).getFreePhysicalMemorySize();
     }
 
+    public List<PublicKey> convert(List<String> values) {
+        return Objects.requireNonNull(values, "Key values cannot be null").stream()
+                .map(v -> Base64.getDecoder().decode(v))
+                .map(PublicKey::from)
+                .collect(Collectors.toList());
+    }
 }
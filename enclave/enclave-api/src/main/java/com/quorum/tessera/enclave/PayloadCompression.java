@@ -0,0 +1,29 @@
+package com.quorum.tessera.enclave;
+
+import java.util.stream.Stream;
+
+/**
+ * How the message was compressed before it was sealed into the cipher text of a payload. Encryption leaves nothing to
+ * compress, so this has to happen to the plaintext, and recipients must know about it to restore the original message.
+ */
+public enum PayloadCompression {
+    NONE(0),
+    DEFLATE(1);
+
+    private final int compressionFlag;
+
+    PayloadCompression(int compressionFlag) {
+        this.compressionFlag = compressionFlag;
+    }
+
+    public static PayloadCompression fromFlag(int compressionFlag) {
+        return Stream.of(PayloadCompression.values())
+                .filter(v -> v.getCompressionFlag() == compressionFlag)
+                .findFirst()
+                .orElseThrow(() -> new EnclaveException("Unknown payload compression " + compressionFlag));
+    }
+
+    public int getCompressionFlag() {
+        return this.compressionFlag;
+    }
+}
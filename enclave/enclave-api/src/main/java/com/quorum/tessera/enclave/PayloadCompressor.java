@@ -0,0 +1,109 @@
+package com.quorum.tessera.enclave;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses messages with the JDK deflate implementation before they are sealed, and restores them once opened.
+ *
+ * <p>A compressed message starts with a header naming its compression. The header is sealed along with the message, so
+ * unlike the compression field of the payload it cannot be changed without breaking the cipher text. Recipients of a
+ * payload flagged as compressed check the header before inflating it. The header is not checked on uncompressed
+ * payloads, as their messages are arbitrary bytes that may start with it.
+ */
+final class PayloadCompressor {
+
+    // eight bytes no contract code or call data is expected to start with, followed by the compression flag
+    private static final byte[] HEADER = {
+        (byte) 0xfe, 'T', 'Z', 'I', 'P', (byte) 0xfe, 0, 0, (byte) PayloadCompression.DEFLATE.getCompressionFlag()
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // the output buffer starts at a guess of the inflated size, but no larger than this however big the input is
+    private static final int MAX_INITIAL_OUTPUT_SIZE = 1024 * 1024;
+
+    private PayloadCompressor() {}
+
+    /**
+     * Deflates the message behind the compression header. The result is returned over the array it was deflated into,
+     * so the caller can seal it without first copying it to an array of the exact length.
+     *
+     * @param message the message to compress
+     * @return the compressed message, from the buffer position to its limit
+     */
+    static ByteBuffer compress(final byte[] message) {
+        final Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(message);
+            deflater.finish();
+
+            byte[] output = Arrays.copyOf(HEADER, HEADER.length + message.length / 2 + 16);
+            int length = HEADER.length;
+            while (!deflater.finished()) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                length += deflater.deflate(output, length, output.length - length);
+            }
+            return ByteBuffer.wrap(output, 0, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Whether the remaining bytes of the opened message start with the header of a compressed message.
+     *
+     * @param plainText the opened message, which is left at its current position
+     * @return true if the message was sealed compressed
+     */
+    static boolean isCompressed(final ByteBuffer plainText) {
+        return plainText.remaining() >= HEADER.length
+                && plainText.duplicate().limit(plainText.position() + HEADER.length).equals(ByteBuffer.wrap(HEADER));
+    }
+
+    /**
+     * Inflates the compressed message, refusing messages that inflate to more than the maximum size so that a small
+     * payload cannot exhaust the heap.
+     *
+     * @param compressed the deflated message, which is read from its position to its limit
+     * @param maxInflatedSize the most bytes the message may inflate to
+     * @return the inflated message
+     */
+    static byte[] decompress(final ByteBuffer compressed, final int maxInflatedSize) {
+        if (!isCompressed(compressed)) {
+            throw new EnclaveException("Compressed payload is invalid: the compression header is missing");
+        }
+
+        final Inflater inflater = new Inflater();
+        try {
+            final long expectedSize = Math.min(compressed.remaining() * 4L, maxInflatedSize);
+            inflater.setInput(compressed.position(compressed.position() + HEADER.length));
+
+            final ByteArrayOutputStream output =
+                    new ByteArrayOutputStream((int) Math.min(expectedSize, MAX_INITIAL_OUTPUT_SIZE));
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(buffer);
+                if (length == 0 && !inflater.finished()) {
+                    throw new EnclaveException("Compressed payload is incomplete");
+                }
+                if (output.size() + length > maxInflatedSize) {
+                    throw new EnclaveException(
+                            "Compressed payload inflates to more than the maximum of " + maxInflatedSize + " bytes");
+                }
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException ex) {
+            throw new EnclaveException("Compressed payload is invalid: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
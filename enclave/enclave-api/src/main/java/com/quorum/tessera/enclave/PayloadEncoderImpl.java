@@ -19,10 +19,15 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
         final byte[] cipherText = encodeField(payload.getCipherText());
         final byte[] nonce = encodeField(payload.getCipherTextNonce().getNonceBytes());
         final byte[] recipientNonce = encodeField(payload.getRecipientNonce().getNonceBytes());
-        final byte[] recipients = encodeArray(payload.getRecipientBoxes().stream().map(RecipientBox::getData).collect(Collectors.toUnmodifiableList()));
+        final byte[] recipients =
+                encodeArray(
+                        payload.getRecipientBoxes().stream()
+                                .map(RecipientBox::getData)
+                                .collect(Collectors.toUnmodifiableList()));
         final byte[] recipientBytes =
                 encodeArray(payload.getRecipientKeys().stream().map(PublicKey::getKeyBytes).collect(toList()));
-        final PrivacyMode privacyMode = Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE);
+        final PrivacyMode privacyMode =
+                Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE);
         final byte[] privacyModeByte = encodeField(new byte[] {(byte) privacyMode.getPrivacyFlag()});
 
         final int affectedContractsPayloadLength =
@@ -42,9 +47,20 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
             affectedContractTxs.putLong(entry.getValue().getData().length);
             affectedContractTxs.put(entry.getValue().getData());
         }
+        final PayloadCompression compression =
+                Optional.ofNullable(payload.getCompression()).orElse(PayloadCompression.NONE);
+
+        // the compression field follows the execution hash, so the hash is written even when empty if it is present
         byte[] executionHash = new byte[0];
         if (Objects.nonNull(payload.getExecHash()) && payload.getExecHash().length > 0) {
             executionHash = encodeField(payload.getExecHash());
+        } else if (compression != PayloadCompression.NONE) {
+            executionHash = encodeField(new byte[0]);
+        }
+
+        byte[] compressionByte = new byte[0];
+        if (compression != PayloadCompression.NONE) {
+            compressionByte = encodeField(new byte[] {(byte) compression.getCompressionFlag()});
         }
 
         return ByteBuffer.allocate(
@@ -56,7 +72,8 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
                                 + recipientBytes.length
                                 + privacyModeByte.length
                                 + affectedContractsPayloadLength
-                                + executionHash.length)
+                                + executionHash.length
+                                + compressionByte.length)
                 .put(senderKey)
                 .put(cipherText)
                 .put(nonce)
@@ -66,6 +83,7 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
                 .put(privacyModeByte)
                 .put(affectedContractTxs.array())
                 .put(executionHash)
+                .put(compressionByte)
                 .array();
     }
 
@@ -166,6 +184,16 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
             buffer.get(executionHash);
         }
 
+        PayloadCompression compression = PayloadCompression.NONE;
+
+        if (buffer.hasRemaining()) {
+            final long compressionLength = buffer.getLong();
+            if (compressionLength != 1) {
+                throw new EnclaveException("Invalid payload compression field of length " + compressionLength);
+            }
+            compression = PayloadCompression.fromFlag(buffer.get());
+        }
+
         return EncodedPayload.Builder.create()
                 .withSenderKey(PublicKey.from(senderKey))
                 .withCipherText(cipherText)
@@ -176,6 +204,7 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
                 .withPrivacyMode(PrivacyMode.fromFlag(privacyMode[0]))
                 .withAffectedContractTransactions(affectedContractTransactions)
                 .withExecHash(executionHash)
+                .withCompression(compression)
                 .build();
     }
 
@@ -200,8 +229,9 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
             recipientList = singletonList(recipient);
         }
 
-        Map<TxHash,byte[]> affectedTxnMap = payload.getAffectedContractTransactions().entrySet()
-            .stream().collect(Collectors.toMap(e -> e.getKey(),e -> e.getValue().getData()));
+        Map<TxHash, byte[]> affectedTxnMap =
+                payload.getAffectedContractTransactions().entrySet().stream()
+                        .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().getData()));
 
         return EncodedPayload.Builder.create()
                 .withSenderKey(payload.getSenderKey())
@@ -213,6 +243,7 @@ public class PayloadEncoderImpl implements PayloadEncoder, BinaryEncoder {
                 .withPrivacyMode(payload.getPrivacyMode())
                 .withAffectedContractTransactions(affectedTxnMap)
                 .withExecHash(payload.getExecHash())
+                .withCompression(payload.getCompression())
                 .build();
     }
 
@@ -0,0 +1,29 @@
+package com.quorum.tessera.enclave;
+
+import org.bouncycastle.jcajce.provider.digest.SHA3;
+
+/**
+ * Calculates SHA3-512 digests, reusing one digest instance per thread rather than creating a new one for every
+ * transaction hash and security hash.
+ */
+public final class Sha3Digest {
+
+    private static final ThreadLocal<SHA3.DigestSHA3> SHA3_512 = ThreadLocal.withInitial(SHA3.Digest512::new);
+
+    private Sha3Digest() {}
+
+    /**
+     * Calculates the SHA3-512 digest of the given inputs, as if they were concatenated in order.
+     *
+     * @param inputs the byte arrays to digest
+     * @return the 64 byte digest
+     */
+    public static byte[] digest512(final byte[]... inputs) {
+        final SHA3.DigestSHA3 digest = SHA3_512.get();
+        digest.reset();
+        for (final byte[] input : inputs) {
+            digest.update(input);
+        }
+        return digest.digest();
+    }
+}
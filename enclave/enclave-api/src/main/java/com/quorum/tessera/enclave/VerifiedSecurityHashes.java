@@ -0,0 +1,56 @@
+package com.quorum.tessera.enclave;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A least recently used record of security hashes that have already been found to be valid, so that a transaction
+ * pushed again, such as during a resend, does not need the master keys of its affected transactions decrypted and its
+ * security hashes recalculated.
+ *
+ * <p>A verification is identified by the digest of the transaction cipher text, the hash of the affected transaction
+ * and the security hash given for it. The affected transaction hash is the digest of its own cipher text, so a
+ * recorded verification holds for any payload with the same three values.
+ */
+class VerifiedSecurityHashes {
+
+    private final Map<List<Object>, Boolean> verified;
+
+    VerifiedSecurityHashes(final int maxEntries) {
+        this.verified =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<List<Object>, Boolean> eldest) {
+                        return size() > maxEntries;
+                    }
+                };
+    }
+
+    boolean contains(final byte[] cipherTextDigest, final TxHash affectedTransaction, final byte[] securityHash) {
+        final List<Object> verification = verification(cipherTextDigest, affectedTransaction, securityHash);
+        synchronized (verified) {
+            return verified.get(verification) != null;
+        }
+    }
+
+    void add(final byte[] cipherTextDigest, final TxHash affectedTransaction, final byte[] securityHash) {
+        final List<Object> verification = verification(cipherTextDigest, affectedTransaction, securityHash);
+        synchronized (verified) {
+            verified.put(verification, Boolean.TRUE);
+        }
+    }
+
+    // byte buffers are equal when their contents are, so the key can be looked up with new arrays
+    private static List<Object> verification(
+            final byte[] cipherTextDigest, final TxHash affectedTransaction, final byte[] securityHash) {
+        return List.of(ByteBuffer.wrap(cipherTextDigest), affectedTransaction, ByteBuffer.wrap(securityHash));
+    }
+
+    int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+}
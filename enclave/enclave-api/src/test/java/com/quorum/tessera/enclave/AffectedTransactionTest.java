@@ -1,10 +1,14 @@
 package com.quorum.tessera.enclave;
 
+import com.quorum.tessera.encryption.PublicKey;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.*;
 
 public class AffectedTransactionTest {
 
@@ -20,20 +24,64 @@ public class AffectedTransactionTest {
 
         EncodedPayload encodedPayload = mock(EncodedPayload.class);
 
-        AffectedTransaction result = AffectedTransaction.Builder.create()
-            .withPayload(encodedPayload)
-            .withHash(hashBytes)
-            .build();
+        AffectedTransaction result =
+                AffectedTransaction.Builder.create().withPayload(encodedPayload).withHash(hashBytes).build();
 
         assertThat(result.getPayload()).isSameAs(encodedPayload);
         assertThat(result.getHash().getBytes()).isEqualTo(hashBytes);
 
-        EqualsVerifier.forClass(AffectedTransaction.class)
-            .withOnlyTheseFields("hash")
-            .usingGetClass().verify();
+        EqualsVerifier.forClass(AffectedTransaction.class).withOnlyTheseFields("hash").usingGetClass().verify();
+    }
+
+    @Test
+    public void privacyModeAndRecipientsAreReadFromPayloadWhenNotGiven() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
 
+        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
+        when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipient));
 
+        final AffectedTransaction result =
+                AffectedTransaction.Builder.create()
+                        .withPayload(encodedPayload)
+                        .withRecipientKeys(null)
+                        .withHash("SOMEBYTES".getBytes())
+                        .build();
 
+        assertThat(result.getPrivacyMode()).isEqualTo(PrivacyMode.PARTY_PROTECTION);
+        assertThat(result.getRecipientKeys()).containsExactly(recipient);
     }
 
+    @Test
+    public void payloadIsNotFetchedWhenPrivacyModeAndRecipientsAreGiven() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        final Supplier<EncodedPayload> payloadSupplier = mock(Supplier.class);
+        when(payloadSupplier.get()).thenReturn(encodedPayload);
+
+        final AffectedTransaction result =
+                AffectedTransaction.Builder.create()
+                        .withPayload(payloadSupplier)
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .withRecipientKeys(List.of(recipient))
+                        .withHash("SOMEBYTES".getBytes())
+                        .build();
+
+        assertThat(result.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(result.getRecipientKeys()).containsExactly(recipient);
+        verifyZeroInteractions(payloadSupplier);
+
+        assertThat(result.getPayload()).isSameAs(encodedPayload);
+        verify(payloadSupplier).get();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void buildWithNullPayload() {
+        AffectedTransaction.Builder.create()
+                .withPayload((EncodedPayload) null)
+                .withHash("SOMEBYTES".getBytes())
+                .build();
+    }
 }
@@ -6,6 +6,7 @@ import org.bouncycastle.jcajce.provider.digest.SHA3;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
 
 import java.nio.ByteBuffer;
 import java.util.*;
@@ -586,6 +587,312 @@ public class EnclaveTest {
         verify(keyManager).getPrivateKeyForPublicKey(senderPublicKey);
     }
 
+    @Test
+    public void encryptPayloadWithCompression() {
+
+        byte[] message = new byte[1000];
+        Arrays.fill(message, (byte) 1);
+
+        PublicKey senderPublicKey = mock(PublicKey.class);
+        PublicKey recipientPublicKey = mock(PublicKey.class);
+
+        byte[] masterKeyBytes = "masterKeyBytes".getBytes();
+        MasterKey masterKey = MasterKey.from(masterKeyBytes);
+        Nonce cipherNonce = mock(Nonce.class);
+        Nonce recipientNonce = mock(Nonce.class);
+
+        when(nacl.createMasterKey()).thenReturn(masterKey);
+        when(nacl.randomNonce()).thenReturn(cipherNonce, recipientNonce);
+        sealAndOpenByCopying();
+
+        PrivateKey senderPrivateKey = mock(PrivateKey.class);
+        when(keyManager.getPrivateKeyForPublicKey(senderPublicKey)).thenReturn(senderPrivateKey);
+
+        SharedKey sharedKey = mock(SharedKey.class);
+        when(nacl.computeSharedKey(recipientPublicKey, senderPrivateKey)).thenReturn(sharedKey);
+
+        byte[] encryptedMasterKeys = "encryptedMasterKeys".getBytes();
+        when(nacl.sealAfterPrecomputation(masterKeyBytes, recipientNonce, sharedKey)).thenReturn(encryptedMasterKeys);
+
+        EncodedPayload result =
+                enclave.encryptPayload(
+                        message,
+                        senderPublicKey,
+                        List.of(recipientPublicKey),
+                        PrivacyMode.STANDARD_PRIVATE,
+                        emptyList(),
+                        null,
+                        PayloadCompression.DEFLATE);
+
+        assertThat(result.getCompression()).isEqualTo(PayloadCompression.DEFLATE);
+        assertThat(result.getCipherText().length).isLessThan(message.length);
+        assertThat(PayloadCompressor.decompress(ByteBuffer.wrap(result.getCipherText()), message.length))
+                .isEqualTo(message);
+
+        verify(nacl)
+                .sealInto(
+                        any(ByteBuffer.class),
+                        any(ByteBuffer.class),
+                        eq(cipherNonce),
+                        eq(SharedKey.from(masterKeyBytes)));
+        verify(nacl).sealOverhead();
+        verify(nacl).createMasterKey();
+        verify(nacl, times(2)).randomNonce();
+        verify(nacl).sealAfterPrecomputation(masterKeyBytes, recipientNonce, sharedKey);
+        verify(nacl).computeSharedKey(recipientPublicKey, senderPrivateKey);
+        verify(keyManager).getPrivateKeyForPublicKey(senderPublicKey);
+    }
+
+    @Test
+    public void encryptPayloadWithCompressionLeavesIncompressibleMessage() {
+
+        byte[] message = "MESSAGE".getBytes();
+
+        PublicKey senderPublicKey = mock(PublicKey.class);
+
+        MasterKey masterKey = MasterKey.from("masterKeyBytes".getBytes());
+        Nonce cipherNonce = mock(Nonce.class);
+        Nonce recipientNonce = mock(Nonce.class);
+
+        byte[] cipherText = "cipherText".getBytes();
+
+        when(nacl.createMasterKey()).thenReturn(masterKey);
+        when(nacl.randomNonce()).thenReturn(cipherNonce, recipientNonce);
+        when(nacl.sealAfterPrecomputation(message, cipherNonce, masterKey)).thenReturn(cipherText);
+
+        EncodedPayload result =
+                enclave.encryptPayload(
+                        message,
+                        senderPublicKey,
+                        emptyList(),
+                        PrivacyMode.STANDARD_PRIVATE,
+                        emptyList(),
+                        null,
+                        PayloadCompression.DEFLATE);
+
+        assertThat(result.getCipherText()).isEqualTo(cipherText);
+        assertThat(result.getCompression()).isEqualTo(PayloadCompression.NONE);
+
+        verify(nacl).createMasterKey();
+        verify(nacl, times(2)).randomNonce();
+        verify(nacl).sealAfterPrecomputation(message, cipherNonce, masterKey);
+        verify(keyManager).getPrivateKeyForPublicKey(senderPublicKey);
+    }
+
+    @Test
+    public void unencryptCompressedTransaction() {
+        final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+        final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+        final byte[] expectedOutcome = "SUCCESS".repeat(100).getBytes();
+        final byte[] cipherText = compress(expectedOutcome);
+        final Nonce cipherTextNonce = mock(Nonce.class);
+        final RecipientBox recipientBox = RecipientBox.from("RecipientBox".getBytes());
+        final Nonce recipientNonce = mock(Nonce.class);
+
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(senderKey)
+                        .withCipherText(cipherText)
+                        .withCipherTextNonce(cipherTextNonce)
+                        .withRecipientBox(recipientBox.getData())
+                        .withRecipientNonce(recipientNonce)
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+
+        final PrivateKey recipientPrivateKey = PrivateKey.from("private-key".getBytes());
+        when(keyManager.getPrivateKeyForPublicKey(recipientKey)).thenReturn(recipientPrivateKey);
+
+        final SharedKey sharedKey = SharedKey.from("shared-key".getBytes());
+        when(nacl.computeSharedKey(senderKey, recipientPrivateKey)).thenReturn(sharedKey);
+
+        when(nacl.openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey))
+                .thenReturn("sharedOrMasterKeyBytes".getBytes());
+        sealAndOpenByCopying();
+
+        final byte[] result = enclave.unencryptTransaction(payload, recipientKey);
+
+        assertThat(result).isEqualTo(expectedOutcome);
+
+        verify(nacl).openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey);
+        verify(nacl)
+                .openInto(
+                        any(ByteBuffer.class),
+                        any(ByteBuffer.class),
+                        eq(cipherTextNonce),
+                        eq(SharedKey.from("sharedOrMasterKeyBytes".getBytes())));
+        verify(nacl).sealOverhead();
+        verify(nacl).computeSharedKey(senderKey, recipientPrivateKey);
+        verify(keyManager).getPrivateKeyForPublicKey(recipientKey);
+    }
+
+    @Test
+    public void unencryptCompressedTransactionLargerThanMaximumIsRefused() {
+        final Enclave limitedEnclave = new EnclaveImpl(nacl, keyManager, 100);
+
+        final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+        final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+        final Nonce cipherTextNonce = mock(Nonce.class);
+        final RecipientBox recipientBox = RecipientBox.from("RecipientBox".getBytes());
+        final Nonce recipientNonce = mock(Nonce.class);
+
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(senderKey)
+                        .withCipherText(compress(new byte[101]))
+                        .withCipherTextNonce(cipherTextNonce)
+                        .withRecipientBox(recipientBox.getData())
+                        .withRecipientNonce(recipientNonce)
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+
+        final PrivateKey recipientPrivateKey = PrivateKey.from("private-key".getBytes());
+        when(keyManager.getPrivateKeyForPublicKey(recipientKey)).thenReturn(recipientPrivateKey);
+
+        final SharedKey sharedKey = SharedKey.from("shared-key".getBytes());
+        when(nacl.computeSharedKey(senderKey, recipientPrivateKey)).thenReturn(sharedKey);
+
+        when(nacl.openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey))
+                .thenReturn("sharedOrMasterKeyBytes".getBytes());
+        sealAndOpenByCopying();
+
+        final Throwable throwable = catchThrowable(() -> limitedEnclave.unencryptTransaction(payload, recipientKey));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessage("Compressed payload inflates to more than the maximum of 100 bytes");
+
+        verify(nacl).openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey);
+        verify(nacl).openInto(any(ByteBuffer.class), any(ByteBuffer.class), eq(cipherTextNonce), any(SharedKey.class));
+        verify(nacl).sealOverhead();
+        verify(nacl).computeSharedKey(senderKey, recipientPrivateKey);
+        verify(keyManager).getPrivateKeyForPublicKey(recipientKey);
+    }
+
+    @Test
+    public void unencryptTransactionWithCompressionFlagRemovedIsNotInflated() {
+        final byte[] sealed = compress("SUCCESS".repeat(100).getBytes());
+
+        final byte[] result = unencryptSealedMessage(sealed, PayloadCompression.NONE);
+
+        assertThat(result).isEqualTo(sealed);
+
+        verify(nacl).openAfterPrecomputation(any(byte[].class), any(Nonce.class), any(MasterKey.class));
+        verifyRecipientBoxOpened();
+    }
+
+    @Test
+    public void unencryptUncompressedTransactionStartingWithCompressionHeader() {
+        final byte[] header = Arrays.copyOf(compress("SUCCESS".getBytes()), 9);
+        final byte[] sealed = ByteBuffer.allocate(header.length + 7).put(header).put("SUCCESS".getBytes()).array();
+
+        final byte[] result = unencryptSealedMessage(sealed, PayloadCompression.NONE);
+
+        assertThat(result).isEqualTo(sealed);
+
+        verify(nacl).openAfterPrecomputation(any(byte[].class), any(Nonce.class), any(MasterKey.class));
+        verifyRecipientBoxOpened();
+    }
+
+    @Test
+    public void unencryptTransactionWithCompressionFlagAddedIsRefused() {
+        final Throwable throwable =
+                catchThrowable(() -> unencryptSealedMessage("SUCCESS".getBytes(), PayloadCompression.DEFLATE));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessage("Payload compression does not match the sealed message");
+
+        verify(nacl).openInto(any(ByteBuffer.class), any(ByteBuffer.class), any(Nonce.class), any(SharedKey.class));
+        verify(nacl).sealOverhead();
+        verifyRecipientBoxOpened();
+    }
+
+    private byte[] unencryptSealedMessage(final byte[] sealed, final PayloadCompression compression) {
+        final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+        final PublicKey recipientKey = PublicKey.from("recipientKey".getBytes());
+        final Nonce cipherTextNonce = mock(Nonce.class);
+        final RecipientBox recipientBox = RecipientBox.from("RecipientBox".getBytes());
+        final Nonce recipientNonce = mock(Nonce.class);
+
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(senderKey)
+                        .withCipherText(sealed)
+                        .withCipherTextNonce(cipherTextNonce)
+                        .withRecipientBox(recipientBox.getData())
+                        .withRecipientNonce(recipientNonce)
+                        .withCompression(compression)
+                        .build();
+
+        final PrivateKey recipientPrivateKey = PrivateKey.from("private-key".getBytes());
+        when(keyManager.getPrivateKeyForPublicKey(recipientKey)).thenReturn(recipientPrivateKey);
+
+        final SharedKey sharedKey = SharedKey.from("shared-key".getBytes());
+        when(nacl.computeSharedKey(senderKey, recipientPrivateKey)).thenReturn(sharedKey);
+
+        when(nacl.openAfterPrecomputation(recipientBox.getData(), recipientNonce, sharedKey))
+                .thenReturn("sharedOrMasterKeyBytes".getBytes());
+        when(nacl.openAfterPrecomputation(sealed, cipherTextNonce, MasterKey.from("sharedOrMasterKeyBytes".getBytes())))
+                .thenReturn(sealed);
+        sealAndOpenByCopying();
+
+        return enclave.unencryptTransaction(payload, recipientKey);
+    }
+
+    private void verifyRecipientBoxOpened() {
+        verify(nacl).openAfterPrecomputation(any(byte[].class), any(Nonce.class), any(SharedKey.class));
+        verify(nacl).computeSharedKey(any(PublicKey.class), any(PrivateKey.class));
+        verify(keyManager).getPrivateKeyForPublicKey(any(PublicKey.class));
+    }
+
+    private static byte[] compress(final byte[] message) {
+        final ByteBuffer compressed = PayloadCompressor.compress(message);
+        return Arrays.copyOfRange(compressed.array(), compressed.position(), compressed.limit());
+    }
+
+    // the mocked encryptor seals and opens into buffers by copying, so a sealed message is the message itself
+    private void sealAndOpenByCopying() {
+        when(nacl.sealInto(any(ByteBuffer.class), any(ByteBuffer.class), any(Nonce.class), any(SharedKey.class)))
+                .thenAnswer(EnclaveTest::copy);
+        when(nacl.openInto(any(ByteBuffer.class), any(ByteBuffer.class), any(Nonce.class), any(SharedKey.class)))
+                .thenAnswer(EnclaveTest::copy);
+    }
+
+    private static int copy(final InvocationOnMock invocation) {
+        final ByteBuffer input = invocation.getArgument(0);
+        final ByteBuffer output = invocation.getArgument(1);
+        final int length = input.remaining();
+        output.put(input);
+        return length;
+    }
+
+    @Test
+    public void defaultEncryptPayloadWithCompressionEncryptsUncompressed() {
+        final EncodedPayload expected = mock(EncodedPayload.class);
+        final byte[] message = "MESSAGE".getBytes();
+        final PublicKey senderKey = PublicKey.from("senderKey".getBytes());
+        final byte[] execHash = "execHash".getBytes();
+
+        final Enclave uncompressingEnclave = mock(UncompressingEnclave.class, CALLS_REAL_METHODS);
+        doReturn(expected)
+                .when(uncompressingEnclave)
+                .encryptPayload(message, senderKey, emptyList(), PrivacyMode.STANDARD_PRIVATE, emptyList(), execHash);
+
+        final EncodedPayload result =
+                uncompressingEnclave.encryptPayload(
+                        message,
+                        senderKey,
+                        emptyList(),
+                        PrivacyMode.STANDARD_PRIVATE,
+                        emptyList(),
+                        execHash,
+                        PayloadCompression.DEFLATE);
+
+        assertThat(result).isSameAs(expected);
+    }
+
+    abstract static class UncompressingEnclave implements Enclave {}
+
     @Test
     public void encryptPayloadWithAffectedTransactions() {
 
@@ -1169,4 +1476,73 @@ public class EnclaveTest {
         verify(keyManager).getPrivateKeyForPublicKey(recipientKey);
         verify(nacl).computeSharedKey(senderKey, privateKey);
     }
+
+    @Test
+    public void findInvalidSecurityHashesOnlyCalculatesValidHashOnce() {
+
+        final PublicKey recipientKey = PublicKey.from("recipient".getBytes());
+        final PublicKey senderKey = PublicKey.from("sender".getBytes());
+        final PrivateKey privateKey = PrivateKey.from("private".getBytes());
+
+        final SharedKey sharedKey = SharedKey.from("shared".getBytes());
+        final RecipientBox closedbox = RecipientBox.from("closed".getBytes());
+        final Nonce nonce = new Nonce("nonce".getBytes());
+        final byte[] cipherText = "cipherText".getBytes();
+
+        when(keyManager.getPrivateKeyForPublicKey(recipientKey)).thenReturn(privateKey);
+        when(keyManager.getPublicKeys()).thenReturn(Collections.singleton(recipientKey));
+        when(nacl.computeSharedKey(senderKey, privateKey)).thenReturn(sharedKey);
+        when(nacl.openAfterPrecomputation(closedbox.getData(), nonce, sharedKey)).thenReturn("open".getBytes());
+
+        final TxHash validHash = new TxHash("valid".getBytes());
+        final TxHash invalidHash = new TxHash("invalid".getBytes());
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getCipherText()).thenReturn(cipherText);
+        when(payload.getAffectedContractTransactions())
+                .thenReturn(
+                        Map.of(
+                                validHash,
+                                SecurityHash.from(Sha3Digest.digest512("cipherTextcipherTextopen".getBytes())),
+                                invalidHash,
+                                SecurityHash.from("securityHash".getBytes())));
+
+        final EncodedPayload affectedTxPayload = mock(EncodedPayload.class);
+        when(affectedTxPayload.getSenderKey()).thenReturn(senderKey);
+        when(affectedTxPayload.getCipherText()).thenReturn(cipherText);
+        when(affectedTxPayload.getRecipientBoxes()).thenReturn(singletonList(closedbox));
+        when(affectedTxPayload.getRecipientNonce()).thenReturn(nonce);
+
+        final List<AffectedTransaction> affectedTransactions =
+                List.of(
+                        AffectedTransaction.Builder.create()
+                                .withHash(validHash.getBytes())
+                                .withPayload(affectedTxPayload)
+                                .build(),
+                        AffectedTransaction.Builder.create()
+                                .withHash(invalidHash.getBytes())
+                                .withPayload(affectedTxPayload)
+                                .build(),
+                        AffectedTransaction.Builder.create()
+                                .withHash(validHash.getBytes())
+                                .withPayload(mock(EncodedPayload.class))
+                                .build());
+
+        assertThat(enclave.findInvalidSecurityHashes(payload, affectedTransactions)).containsExactly(invalidHash);
+        assertThat(enclave.findInvalidSecurityHashes(payload, affectedTransactions)).containsExactly(invalidHash);
+
+        // the valid hash is calculated on the first check only, the invalid one on both
+        verify(nacl, times(3)).computeSharedKey(senderKey, privateKey);
+        verify(nacl, times(3)).openAfterPrecomputation(closedbox.getData(), nonce, sharedKey);
+        verify(keyManager, times(6)).getPublicKeys();
+        verify(keyManager, times(3)).getPrivateKeyForPublicKey(recipientKey);
+    }
+
+    @Test
+    public void findInvalidSecurityHashesWithNoAffectedContractTransactions() {
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getAffectedContractTransactions()).thenReturn(emptyMap());
+
+        assertThat(enclave.findInvalidSecurityHashes(payload, emptyList())).isEmpty();
+    }
 }
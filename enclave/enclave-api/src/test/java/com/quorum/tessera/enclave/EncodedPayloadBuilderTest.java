@@ -89,11 +89,13 @@ public class EncodedPayloadBuilderTest {
                         .withRecipientKeys(List.of(recipientKey))
                         .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
                         .withExecHash(execHash)
+                        .withCompression(PayloadCompression.DEFLATE)
                         .build();
 
         EncodedPayload result = EncodedPayload.Builder.from(sample).build();
 
         assertThat(result).isNotSameAs(sample).isEqualTo(sample);
+        assertThat(result.getCompression()).isEqualTo(PayloadCompression.DEFLATE);
 
         EqualsVerifier.forClass(EncodedPayload.class)
                 .withIgnoredFields("affectedContractTransactions")
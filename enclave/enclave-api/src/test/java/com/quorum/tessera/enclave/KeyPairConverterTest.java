@@ -1,6 +1,10 @@
 package com.quorum.tessera.enclave;
 
+import com.quorum.tessera.config.ArgonOptions;
 import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.KeyDataConfig;
+import com.quorum.tessera.config.PrivateKeyData;
+import com.quorum.tessera.config.PrivateKeyType;
 import com.quorum.tessera.config.keypairs.*;
 import com.quorum.tessera.config.util.EnvironmentVariableProvider;
 import com.quorum.tessera.encryption.KeyPair;
@@ -12,6 +16,7 @@ import org.junit.Test;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -39,7 +44,8 @@ public class KeyPairConverterTest {
 
         assertThat(result).hasSize(1);
 
-        KeyPair expected = new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
+        KeyPair expected =
+                new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
         KeyPair resultKeyPair = result.iterator().next();
 
         assertThat(resultKeyPair).isEqualToComparingFieldByField(expected);
@@ -55,7 +61,8 @@ public class KeyPairConverterTest {
 
         assertThat(result).hasSize(1);
 
-        KeyPair expected = new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
+        KeyPair expected =
+                new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
         KeyPair resultKeyPair = result.iterator().next();
 
         assertThat(resultKeyPair).isEqualToComparingFieldByField(expected);
@@ -71,14 +78,15 @@ public class KeyPairConverterTest {
 
         assertThat(result).hasSize(1);
 
-        KeyPair expected = new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
+        KeyPair expected =
+                new KeyPair(PublicKey.from(decodeBase64("public")), PrivateKey.from(decodeBase64("private")));
         KeyPair resultKeyPair = result.iterator().next();
 
         assertThat(resultKeyPair).isEqualToComparingFieldByField(expected);
     }
 
     @Test
-    //Uses com.quorum.tessera.keypairconverter.MockAzureKeyVaultServiceFactory
+    // Uses com.quorum.tessera.keypairconverter.MockAzureKeyVaultServiceFactory
     public void convertSingleAzureVaultKeyPair() {
         final AzureVaultKeyPair keyPair = new AzureVaultKeyPair("pub", "priv", null, null);
 
@@ -118,7 +126,8 @@ public class KeyPairConverterTest {
         assertThat(result).hasSize(1);
 
         KeyPair resultKeyPair = result.iterator().next();
-        KeyPair expected = new KeyPair(PublicKey.from(decodeBase64("publicSecret")), PrivateKey.from(decodeBase64("privSecret")));
+        KeyPair expected =
+                new KeyPair(PublicKey.from(decodeBase64("publicSecret")), PrivateKey.from(decodeBase64("privSecret")));
 
         assertThat(resultKeyPair).isEqualToComparingFieldByField(expected);
     }
@@ -152,14 +161,16 @@ public class KeyPairConverterTest {
     @Test
     public void convertKeyPairWithNewlineOrSpace() {
         final DirectKeyPair keyPair =
-            new DirectKeyPair("gybY1t9GOYiuN6QgwcrvM2+pQzIu4UrHwiMG7yKQnTg=\n",
-            "   yTjqANGAvPCy8AfhcIZ+e4O8CHZPbHkIeOmae5W3srY=\n\n\n");
+                new DirectKeyPair(
+                        "gybY1t9GOYiuN6QgwcrvM2+pQzIu4UrHwiMG7yKQnTg=\n",
+                        "   yTjqANGAvPCy8AfhcIZ+e4O8CHZPbHkIeOmae5W3srY=\n\n\n");
 
         Collection<KeyPair> result = converter.convert(Collections.singletonList(keyPair));
 
-        KeyPair expected = new KeyPair(
-            PublicKey.from(decodeBase64("gybY1t9GOYiuN6QgwcrvM2+pQzIu4UrHwiMG7yKQnTg=")),
-            PrivateKey.from(decodeBase64("yTjqANGAvPCy8AfhcIZ+e4O8CHZPbHkIeOmae5W3srY=")));
+        KeyPair expected =
+                new KeyPair(
+                        PublicKey.from(decodeBase64("gybY1t9GOYiuN6QgwcrvM2+pQzIu4UrHwiMG7yKQnTg=")),
+                        PrivateKey.from(decodeBase64("yTjqANGAvPCy8AfhcIZ+e4O8CHZPbHkIeOmae5W3srY=")));
 
         KeyPair resultKeyPair = result.iterator().next();
         assertThat(resultKeyPair).isEqualToComparingFieldByField(expected);
@@ -169,13 +180,116 @@ public class KeyPairConverterTest {
     public void createFromStrings() {
         final List<String> inputs = Arrays.asList("KEYONE", "KEYTWO");
 
-        final PublicKey[] expectedOutputs = new PublicKey[]{
-            PublicKey.from(new byte[]{40, 70, 14, 52}), PublicKey.from(new byte[]{40, 70, 19, 88})
-        };
+        final PublicKey[] expectedOutputs =
+                new PublicKey[] {
+                    PublicKey.from(new byte[] {40, 70, 14, 52}), PublicKey.from(new byte[] {40, 70, 19, 88})
+                };
 
         final List<PublicKey> keys = this.converter.convert(inputs);
 
         assertThat(keys).hasSize(2).containsExactlyInAnyOrder(expectedOutputs);
     }
 
+    @Test
+    public void vaultClientIsCreatedOncePerVaultType() {
+        MockAzureKeyVaultServiceFactory.CREATED.set(0);
+
+        final List<ConfigKeyPair> keyPairs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keyPairs.add(new AzureVaultKeyPair("pub" + i, "priv" + i, null, null));
+        }
+
+        final Collection<KeyPair> result = converter.convert(keyPairs);
+
+        assertThat(MockAzureKeyVaultServiceFactory.CREATED).hasValue(1);
+
+        final KeyPair expected =
+                new KeyPair(PublicKey.from(decodeBase64("publicSecret")), PrivateKey.from(decodeBase64("privSecret")));
+        assertThat(result).hasSize(5).allSatisfy(k -> assertThat(k).isEqualToComparingFieldByField(expected));
+    }
+
+    @Test
+    public void resultsKeepConfiguredOrderAcrossKeyTypes() {
+        final List<ConfigKeyPair> keyPairs =
+                Arrays.asList(
+                        new DirectKeyPair("publicA", "privateA"),
+                        new AWSKeyPair("pub", "priv"),
+                        new DirectKeyPair("publicB", "privateB"));
+
+        final List<KeyPair> result = new ArrayList<>(converter.convert(keyPairs));
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).getPublicKey()).isEqualTo(PublicKey.from(decodeBase64("publicA")));
+        assertThat(result.get(1).getPublicKey()).isEqualTo(PublicKey.from(decodeBase64("publicSecret")));
+        assertThat(result.get(2).getPublicKey()).isEqualTo(PublicKey.from(decodeBase64("publicB")));
+    }
+
+    @Test
+    public void unlockFailureIsRethrown() {
+        final ConfigKeyPair keyPair = mock(ConfigKeyPair.class);
+        when(keyPair.getPublicKey()).thenReturn("public");
+        when(keyPair.getPrivateKey()).thenThrow(new IllegalStateException("cannot unlock"));
+
+        final Throwable ex = catchThrowable(() -> converter.convert(Collections.singletonList(keyPair)));
+
+        assertThat(ex).isExactlyInstanceOf(IllegalStateException.class).hasMessage("cannot unlock");
+    }
+
+    @Test
+    public void unlockErrorIsRethrown() {
+        final AssertionError error = new AssertionError("broken");
+        final ConfigKeyPair keyPair = mock(ConfigKeyPair.class);
+        when(keyPair.getPublicKey()).thenReturn("public");
+        when(keyPair.getPrivateKey()).thenThrow(error);
+
+        final Throwable ex = catchThrowable(() -> converter.convert(Collections.singletonList(keyPair)));
+
+        assertThat(ex).isSameAs(error);
+    }
+
+    @Test
+    public void unlockThreadsLimitedByArgonMemory() {
+        final long oneGib = 1024L * 1024 * 1024;
+        final List<ConfigKeyPair> keyPairs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keyPairs.add(lockedInlineKeyPair(1024 * 1024));
+        }
+
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, 3 * oneGib, 8)).isEqualTo(3);
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, 100 * oneGib, 8)).isEqualTo(8);
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, oneGib / 2, 8)).isEqualTo(1);
+    }
+
+    @Test
+    public void unlockThreadsUsesLockedFilesystemKeys() {
+        final InlineKeypair inline = lockedInlineKeyPair(1024 * 1024);
+        final FilesystemKeyPair locked = mock(FilesystemKeyPair.class);
+        when(locked.getInlineKeypair()).thenReturn(inline);
+        final FilesystemKeyPair unreadable = mock(FilesystemKeyPair.class);
+
+        final List<ConfigKeyPair> keyPairs = Arrays.asList(locked, unreadable, new DirectKeyPair("pub", "priv"));
+
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, 2L * 1024 * 1024 * 1024, 8)).isEqualTo(2);
+    }
+
+    @Test
+    public void unlockThreadsWithoutLockedKeysLimitedByProcessorsAndKeyCount() {
+        final InlineKeypair unlocked = mock(InlineKeypair.class);
+        when(unlocked.getPrivateKeyConfig()).thenReturn(new KeyDataConfig(null, PrivateKeyType.UNLOCKED));
+
+        final List<ConfigKeyPair> keyPairs = Arrays.asList(unlocked, new DirectKeyPair("pub", "priv"));
+
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, 0L, 8)).isEqualTo(2);
+        assertThat(KeyPairConverter.unlockThreads(keyPairs, 0L, 1)).isEqualTo(1);
+        assertThat(KeyPairConverter.unlockThreads(Collections.emptyList(), 0L, 8)).isEqualTo(1);
+    }
+
+    private static InlineKeypair lockedInlineKeyPair(int argonMemory) {
+        final ArgonOptions argonOptions = new ArgonOptions("id", 10, argonMemory, 4);
+        final PrivateKeyData privateKeyData = new PrivateKeyData(null, null, null, null, argonOptions);
+
+        final InlineKeypair keyPair = mock(InlineKeypair.class);
+        when(keyPair.getPrivateKeyConfig()).thenReturn(new KeyDataConfig(privateKeyData, PrivateKeyType.LOCKED));
+        return keyPair;
+    }
 }
@@ -16,7 +16,12 @@ public class MockAwsKeyVaultServiceFactory implements KeyVaultServiceFactory {
     public KeyVaultService create(Config config, EnvironmentVariableProvider envProvider) {
         KeyVaultService mock = mock(KeyVaultService.class);
 
-        when(mock.getSecret(any(AWSGetSecretData.class))).thenReturn("publicSecret").thenReturn("privSecret");
+        when(mock.getSecret(any(AWSGetSecretData.class)))
+                .thenAnswer(
+                        invocation -> {
+                            AWSGetSecretData data = invocation.getArgument(0);
+                            return data.getSecretName().startsWith("pub") ? "publicSecret" : "privSecret";
+                        });
 
         return mock;
     }
@@ -7,18 +7,28 @@ import com.quorum.tessera.config.vault.data.AzureGetSecretData;
 import com.quorum.tessera.key.vault.KeyVaultService;
 import com.quorum.tessera.key.vault.KeyVaultServiceFactory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class MockAzureKeyVaultServiceFactory implements KeyVaultServiceFactory {
+
+    static final AtomicInteger CREATED = new AtomicInteger();
+
     @Override
     public KeyVaultService create(Config config, EnvironmentVariableProvider envProvider) {
         KeyVaultService mock = mock(KeyVaultService.class);
 
         when(mock.getSecret(any(AzureGetSecretData.class)))
-            .thenReturn("publicSecret")
-            .thenReturn("privSecret");
+                .thenAnswer(
+                        invocation -> {
+                            AzureGetSecretData data = invocation.getArgument(0);
+                            return data.getSecretName().startsWith("pub") ? "publicSecret" : "privSecret";
+                        });
+
+        CREATED.incrementAndGet();
 
         return mock;
     }
@@ -17,8 +17,11 @@ public class MockHashicorpKeyVaultServiceFactory implements KeyVaultServiceFacto
         KeyVaultService mock = mock(KeyVaultService.class);
 
         when(mock.getSecret(any(HashicorpGetSecretData.class)))
-            .thenReturn("publicSecret")
-            .thenReturn("privSecret");
+                .thenAnswer(
+                        invocation -> {
+                            HashicorpGetSecretData data = invocation.getArgument(0);
+                            return data.getValueId().startsWith("pub") ? "publicSecret" : "privSecret";
+                        });
 
         return mock;
     }
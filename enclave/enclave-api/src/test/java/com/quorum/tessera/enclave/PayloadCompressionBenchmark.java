@@ -0,0 +1,102 @@
+package com.quorum.tessera.enclave;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of compressing messages before they are sealed and inflating them once opened, for messages from
+ * the size of a contract call up to the largest contract deployment. Contract messages are deployments of a compiled
+ * contract with random constructor arguments, repeated up to the size, as a contract factory would deploy them. Random
+ * messages cannot be compressed and measure the cost paid for messages that are then stored uncompressed.
+ *
+ * <p>The sizes counter reports the bytes compressed and the bytes they compressed to, so the ratio can be read off the
+ * results alongside the time taken.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.enclave.PayloadCompressionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PayloadCompressionBenchmark {
+
+    // a simple storage contract, without its constructor argument
+    private static final byte[] CONTRACT_CODE =
+            Hex.decode(
+                    "6060604052341561000f57600080fd5b604051602080610149833981016040528080519060200190919050505b806000"
+                            + "819055505b505b610104806100456000396000f30060606040526000357c01000000000000000000000000"
+                            + "00000000000000000000000000000000900463ffffffff1680632a1afcd914605157806360fe47b1146077"
+                            + "5780636d4ce63c146097575b600080fd5b3415605b57600080fd5b606160bd565b60405180828152602001"
+                            + "91505060405180910390f35b3415608157600080fd5b6095600480803590602001909190505060c3565b00"
+                            + "5b341560a157600080fd5b60a760ce565b6040518082815260200191505060405180910390f35b60005481"
+                            + "565b806000819055505b50565b6000805490505b905600a165627a7a72305820d5851baab720bba574474d"
+                            + "e3d09dbeaabc674a15f4dd93b974908476542c23f00029");
+
+    private static final int MAX_INFLATED_SIZE = 64 * 1024 * 1024;
+
+    @Param({"256", "4096", "24576", "262144"})
+    public int messageSize;
+
+    @Param({"contract", "random"})
+    public String messageType;
+
+    private byte[] message;
+
+    private ByteBuffer compressed;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+
+        public long messageBytes;
+
+        public long compressedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(1);
+        if ("random".equals(messageType)) {
+            message = new byte[messageSize];
+            random.nextBytes(message);
+        } else {
+            final ByteArrayOutputStream deployments = new ByteArrayOutputStream(messageSize + CONTRACT_CODE.length);
+            final byte[] argument = new byte[32];
+            while (deployments.size() < messageSize) {
+                random.nextBytes(argument);
+                deployments.write(CONTRACT_CODE, 0, CONTRACT_CODE.length);
+                deployments.write(argument, 0, argument.length);
+            }
+            message = new byte[messageSize];
+            System.arraycopy(deployments.toByteArray(), 0, message, 0, messageSize);
+        }
+        compressed = PayloadCompressor.compress(message);
+    }
+
+    @Benchmark
+    public ByteBuffer compress(final Sizes sizes) {
+        final ByteBuffer result = PayloadCompressor.compress(message);
+        sizes.messageBytes += message.length;
+        sizes.compressedBytes += result.remaining();
+        return result;
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return PayloadCompressor.decompress(compressed.duplicate(), MAX_INFLATED_SIZE);
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PayloadCompressionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.quorum.tessera.enclave;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class PayloadCompressorTest {
+
+    private static final int MAX_INFLATED_SIZE = 1024 * 1024;
+
+    // deployment of a simple storage contract, with its constructor argument
+    private static final byte[] CONTRACT_DEPLOYMENT =
+            Hex.decode(
+                    "6060604052341561000f57600080fd5b604051602080610149833981016040528080519060200190919050505b806000"
+                            + "819055505b505b610104806100456000396000f30060606040526000357c01000000000000000000000000"
+                            + "00000000000000000000000000000000900463ffffffff1680632a1afcd914605157806360fe47b1146077"
+                            + "5780636d4ce63c146097575b600080fd5b3415605b57600080fd5b606160bd565b60405180828152602001"
+                            + "91505060405180910390f35b3415608157600080fd5b6095600480803590602001909190505060c3565b00"
+                            + "5b341560a157600080fd5b60a760ce565b6040518082815260200191505060405180910390f35b60005481"
+                            + "565b806000819055505b50565b6000805490505b905600a165627a7a72305820d5851baab720bba574474d"
+                            + "e3d09dbeaabc674a15f4dd93b974908476542c23f00029000000000000000000000000000000000000000000"
+                            + "000000000000000000002a");
+
+    @Test
+    public void compressedContractDeploymentIsSmallerAndRestored() {
+        final byte[] compressed = compress(CONTRACT_DEPLOYMENT);
+
+        assertThat(compressed.length).isLessThan(CONTRACT_DEPLOYMENT.length);
+        assertThat(decompress(compressed, MAX_INFLATED_SIZE)).isEqualTo(CONTRACT_DEPLOYMENT);
+    }
+
+    @Test
+    public void compressLargeMessage() {
+        final byte[] message = new byte[100_000];
+        Arrays.fill(message, (byte) 7);
+
+        final byte[] compressed = compress(message);
+
+        assertThat(compressed.length).isLessThan(1_000);
+        assertThat(decompress(compressed, MAX_INFLATED_SIZE)).isEqualTo(message);
+    }
+
+    @Test
+    public void compressEmptyMessage() {
+        assertThat(decompress(compress(new byte[0]), MAX_INFLATED_SIZE)).isEmpty();
+    }
+
+    @Test
+    public void decompressInvalidData() {
+        final Throwable throwable = catchThrowable(() -> decompress("invalid".getBytes(), MAX_INFLATED_SIZE));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessageStartingWith("Compressed payload is invalid");
+    }
+
+    @Test
+    public void compressedMessageStartsWithHeader() {
+        assertThat(PayloadCompressor.isCompressed(PayloadCompressor.compress(CONTRACT_DEPLOYMENT))).isTrue();
+        assertThat(PayloadCompressor.isCompressed(ByteBuffer.wrap(CONTRACT_DEPLOYMENT))).isFalse();
+        assertThat(PayloadCompressor.isCompressed(ByteBuffer.allocate(0))).isFalse();
+    }
+
+    @Test
+    public void compressedBufferIsReadFromItsPosition() {
+        final ByteBuffer compressed = PayloadCompressor.compress(CONTRACT_DEPLOYMENT);
+        final ByteBuffer offset = ByteBuffer.allocate(compressed.remaining() + 3);
+        offset.position(3).mark();
+        offset.put(compressed).reset();
+
+        assertThat(PayloadCompressor.isCompressed(offset)).isTrue();
+        assertThat(offset.position()).isEqualTo(3);
+        assertThat(PayloadCompressor.decompress(offset, MAX_INFLATED_SIZE)).isEqualTo(CONTRACT_DEPLOYMENT);
+    }
+
+    @Test
+    public void decompressDeflatedDataWithoutHeader() {
+        final byte[] compressed = compress(CONTRACT_DEPLOYMENT);
+        final byte[] headless = Arrays.copyOfRange(compressed, 9, compressed.length);
+
+        final Throwable throwable = catchThrowable(() -> decompress(headless, MAX_INFLATED_SIZE));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessage("Compressed payload is invalid: the compression header is missing");
+    }
+
+    @Test
+    public void decompressIncompleteData() {
+        final byte[] compressed = compress(CONTRACT_DEPLOYMENT);
+        final byte[] incomplete = Arrays.copyOf(compressed, compressed.length / 2);
+
+        final Throwable throwable = catchThrowable(() -> decompress(incomplete, MAX_INFLATED_SIZE));
+
+        assertThat(throwable).isInstanceOf(EnclaveException.class).hasMessage("Compressed payload is incomplete");
+    }
+
+    @Test
+    public void decompressMessageOfMaximumSize() {
+        final byte[] message = new byte[100_000];
+
+        assertThat(decompress(compress(message), message.length))
+                .isEqualTo(message);
+    }
+
+    @Test
+    public void decompressMessageLargerThanMaximum() {
+        // a few hundred bytes that inflate to far more than the maximum
+        final byte[] compressed = compress(new byte[MAX_INFLATED_SIZE * 16]);
+
+        final Throwable throwable = catchThrowable(() -> decompress(compressed, MAX_INFLATED_SIZE));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessage("Compressed payload inflates to more than the maximum of " + MAX_INFLATED_SIZE + " bytes");
+    }
+
+    @Test
+    public void compressionFromFlag() {
+        assertThat(PayloadCompression.fromFlag(0)).isEqualTo(PayloadCompression.NONE);
+        assertThat(PayloadCompression.fromFlag(1)).isEqualTo(PayloadCompression.DEFLATE);
+    }
+
+    @Test
+    public void compressionFromUnknownFlag() {
+        final Throwable throwable = catchThrowable(() -> PayloadCompression.fromFlag(9));
+
+        assertThat(throwable).isInstanceOf(EnclaveException.class).hasMessage("Unknown payload compression 9");
+    }
+
+    private static byte[] compress(final byte[] message) {
+        final ByteBuffer compressed = PayloadCompressor.compress(message);
+        return Arrays.copyOfRange(compressed.array(), compressed.position(), compressed.limit());
+    }
+
+    private static byte[] decompress(final byte[] compressed, final int maxInflatedSize) {
+        return PayloadCompressor.decompress(ByteBuffer.wrap(compressed), maxInflatedSize);
+    }
+}
@@ -11,6 +11,7 @@ import java.util.*;
 import static java.util.Collections.*;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.mock;
 
 public class PayloadEncoderTest {
@@ -312,7 +313,8 @@ public class PayloadEncoderTest {
         assertThat(payload.getRecipientKeys()).isEmpty();
         assertThat(payload.getPrivacyMode()).isEqualTo(PrivacyMode.PARTY_PROTECTION);
         assertThat(payload.getAffectedContractTransactions()).hasSize(1);
-        assertThat(payload.getAffectedContractTransactions().values().iterator().next().getData()).containsExactly("test".getBytes());
+        assertThat(payload.getAffectedContractTransactions().values().iterator().next().getData())
+                .containsExactly("test".getBytes());
         assertThat(payload.getExecHash()).isNullOrEmpty();
     }
 
@@ -570,7 +572,8 @@ public class PayloadEncoderTest {
         assertThat(payload.getRecipientKeys()).isEmpty();
         assertThat(payload.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
         assertThat(payload.getAffectedContractTransactions()).hasSize(1);
-        assertThat(payload.getAffectedContractTransactions().values().iterator().next().getData()).containsExactly("test".getBytes());
+        assertThat(payload.getAffectedContractTransactions().values().iterator().next().getData())
+                .containsExactly("test".getBytes());
         assertThat(payload.getExecHash()).isEqualTo(execHash);
     }
 
@@ -1011,7 +1014,8 @@ public class PayloadEncoderTest {
         assertThat(decodedPayload.getRecipientKeys()).isEqualTo(originalPayload.getRecipientKeys());
         assertThat(decodedPayload.getPrivacyMode()).isEqualTo(originalPayload.getPrivacyMode());
 
-        assertThat(decodedPayload.getAffectedContractTransactions().get(new TxHash("test".getBytes())).getData()).isEqualTo("test".getBytes());
+        assertThat(decodedPayload.getAffectedContractTransactions().get(new TxHash("test".getBytes())).getData())
+                .isEqualTo("test".getBytes());
         assertThat(decodedPayload.getExecHash()).isNullOrEmpty();
     }
 
@@ -1530,7 +1534,7 @@ public class PayloadEncoderTest {
         assertThat(result.getRecipientNonce()).isEqualTo(control.getRecipientNonce());
         assertThat(result.getCipherTextNonce()).isEqualTo(control.getCipherTextNonce());
         assertThat(result.getRecipientKeys()).hasSize(1).containsExactly(recipientKey);
-        //assertThat(result.getRecipientBoxes()).isNotEqualTo(control.getRecipientBoxes());
+        // assertThat(result.getRecipientBoxes()).isNotEqualTo(control.getRecipientBoxes());
         assertThat(result.getPrivacyMode()).isEqualTo(PrivacyMode.STANDARD_PRIVATE);
     }
 
@@ -2083,6 +2087,92 @@ public class PayloadEncoderTest {
      * Do NOT change as this is a copy of the legacy payload encoder. The tests will use these logic to ensure the
      * legacy encoder is still able to understand new encoded payload and vice versa
      */
+    @Test
+    public void encodeDecodeCompressedPayloadWithoutExecHash() {
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(PublicKey.from("sender".getBytes()))
+                        .withCipherText("cipherText".getBytes())
+                        .withCipherTextNonce("cipherTextNonce".getBytes())
+                        .withRecipientBoxes(List.of("box".getBytes()))
+                        .withRecipientNonce("recipientNonce".getBytes())
+                        .withRecipientKeys(List.of(PublicKey.from("recipient".getBytes())))
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+
+        final byte[] encoded = payloadEncoder.encode(payload);
+        final EncodedPayload uncompressed =
+                payloadEncoder.decode(
+                        payloadEncoder.encode(
+                                EncodedPayload.Builder.from(payload).withCompression(PayloadCompression.NONE).build()));
+
+        // the empty execution hash and the compression flag are each written as a length and value
+        assertThat(encoded).hasSize(payloadEncoder.encode(uncompressed).length + Long.BYTES + Long.BYTES + 1);
+
+        final EncodedPayload result = payloadEncoder.decode(encoded);
+
+        assertThat(result).isEqualTo(payload);
+        assertThat(result.getExecHash()).isEmpty();
+        assertThat(result.getCompression()).isEqualTo(PayloadCompression.DEFLATE);
+        assertThat(uncompressed.getCompression()).isEqualTo(PayloadCompression.NONE);
+    }
+
+    @Test
+    public void decodeEmptyCompressionField() {
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(PublicKey.from("sender".getBytes()))
+                        .withCipherText("cipherText".getBytes())
+                        .withCipherTextNonce("cipherTextNonce".getBytes())
+                        .withRecipientBoxes(List.of("box".getBytes()))
+                        .withRecipientNonce("recipientNonce".getBytes())
+                        .withRecipientKeys(List.of(PublicKey.from("recipient".getBytes())))
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+
+        // swap the one byte compression field for an empty one
+        final byte[] encoded = payloadEncoder.encode(payload);
+        final byte[] withEmptyField =
+                ByteBuffer.allocate(encoded.length - 1)
+                        .put(encoded, 0, encoded.length - Long.BYTES - 1)
+                        .putLong(0)
+                        .array();
+
+        final Throwable throwable = catchThrowable(() -> payloadEncoder.decode(withEmptyField));
+
+        assertThat(throwable)
+                .isInstanceOf(EnclaveException.class)
+                .hasMessage("Invalid payload compression field of length 0");
+    }
+
+    @Test
+    public void encodeDecodeCompressedPsvPayload() {
+        final PublicKey recipient = PublicKey.from("recipient".getBytes());
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(PublicKey.from("sender".getBytes()))
+                        .withCipherText("cipherText".getBytes())
+                        .withCipherTextNonce("cipherTextNonce".getBytes())
+                        .withRecipientBoxes(List.of("box".getBytes()))
+                        .withRecipientNonce("recipientNonce".getBytes())
+                        .withRecipientKeys(List.of(recipient))
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .withAffectedContractTransactions(Map.of(new TxHash("txHash".getBytes()), "hash".getBytes()))
+                        .withExecHash("execHash".getBytes())
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+
+        final EncodedPayload result = payloadEncoder.decode(payloadEncoder.encode(payload));
+
+        assertThat(result).isEqualTo(payload);
+        assertThat(result.getExecHash()).isEqualTo("execHash".getBytes());
+        assertThat(result.getAffectedContractTransactions()).hasSize(1);
+        assertThat(result.getCompression()).isEqualTo(PayloadCompression.DEFLATE);
+
+        assertThat(payloadEncoder.forRecipient(payload, recipient).getCompression())
+                .isEqualTo(PayloadCompression.DEFLATE);
+    }
+
     private class LegacyPayloadEncoder implements BinaryEncoder {
 
         byte[] encode(final LegacyEncodedPayload payload) {
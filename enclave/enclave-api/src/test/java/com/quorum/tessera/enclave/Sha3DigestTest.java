@@ -0,0 +1,29 @@
+package com.quorum.tessera.enclave;
+
+import org.bouncycastle.jcajce.provider.digest.SHA3;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Sha3DigestTest {
+
+    @Test
+    public void digestMatchesNewDigestInstance() {
+        final byte[] expected = new SHA3.Digest512().digest("data".getBytes());
+
+        assertThat(Sha3Digest.digest512("data".getBytes())).isEqualTo(expected);
+        assertThat(Sha3Digest.digest512("data".getBytes())).isEqualTo(expected);
+    }
+
+    @Test
+    public void digestOfSeveralInputsIsDigestOfTheirConcatenation() {
+        final byte[] expected = new SHA3.Digest512().digest("cipherTextmasterKey".getBytes());
+
+        assertThat(Sha3Digest.digest512("cipherText".getBytes(), "masterKey".getBytes())).isEqualTo(expected);
+    }
+
+    @Test
+    public void digestOfNothing() {
+        assertThat(Sha3Digest.digest512()).isEqualTo(new SHA3.Digest512().digest());
+    }
+}
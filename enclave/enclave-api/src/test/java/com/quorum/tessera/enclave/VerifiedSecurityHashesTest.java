@@ -0,0 +1,47 @@
+package com.quorum.tessera.enclave;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VerifiedSecurityHashesTest {
+
+    private final byte[] cipherTextDigest = "digest".getBytes();
+
+    private final TxHash affectedTransaction = new TxHash("affected".getBytes());
+
+    @Test
+    public void containsAddedVerification() {
+        final VerifiedSecurityHashes verifiedSecurityHashes = new VerifiedSecurityHashes(10);
+
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "hash".getBytes())).isFalse();
+
+        verifiedSecurityHashes.add(cipherTextDigest, affectedTransaction, "hash".getBytes());
+
+        assertThat(verifiedSecurityHashes.contains("digest".getBytes(), affectedTransaction, "hash".getBytes()))
+                .isTrue();
+        assertThat(verifiedSecurityHashes.contains("other".getBytes(), affectedTransaction, "hash".getBytes()))
+                .isFalse();
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, new TxHash("other".getBytes()), "hash".getBytes()))
+                .isFalse();
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "other".getBytes()))
+                .isFalse();
+        assertThat(verifiedSecurityHashes.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void leastRecentlyUsedVerificationIsEvicted() {
+        final VerifiedSecurityHashes verifiedSecurityHashes = new VerifiedSecurityHashes(2);
+
+        verifiedSecurityHashes.add(cipherTextDigest, affectedTransaction, "first".getBytes());
+        verifiedSecurityHashes.add(cipherTextDigest, affectedTransaction, "second".getBytes());
+        verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "first".getBytes());
+        verifiedSecurityHashes.add(cipherTextDigest, affectedTransaction, "third".getBytes());
+
+        assertThat(verifiedSecurityHashes.size()).isEqualTo(2);
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "first".getBytes())).isTrue();
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "second".getBytes()))
+                .isFalse();
+        assertThat(verifiedSecurityHashes.contains(cipherTextDigest, affectedTransaction, "third".getBytes())).isTrue();
+    }
+}
@@ -1,5 +1,7 @@
 package com.quorum.tessera.encryption;
 
+import java.nio.ByteBuffer;
+
 /**
  * The API provided to the application that all implementation of this API
  * module should extend
@@ -71,6 +73,57 @@ public interface Encryptor {
      */
     byte[] openAfterPrecomputation(byte[] cipherText, Nonce nonce, SharedKey sharedKey);
 
+    /**
+     * Encrypts the remaining bytes of the message into the output buffer using the shared key. The bytes written are
+     * the same as those returned by {@link #sealAfterPrecomputation(byte[], Nonce, SharedKey)}, but implementations may
+     * reuse their working buffers rather than allocating new arrays for each call.
+     *
+     * <p>The message is read up to its limit, and the output must have at least {@link #sealOverhead()} bytes more
+     * remaining than the message.
+     *
+     * @param message The payload to be encrypted
+     * @param output The buffer the encrypted payload is written to
+     * @param nonce A unique nonce for this shared key
+     * @param sharedKey The shared key between the sender and recipient of the payload
+     * @return The number of bytes written to the output
+     */
+    default int sealInto(ByteBuffer message, ByteBuffer output, Nonce nonce, SharedKey sharedKey) {
+        final byte[] messageBytes = new byte[message.remaining()];
+        message.get(messageBytes);
+
+        final byte[] sealed = sealAfterPrecomputation(messageBytes, nonce, sharedKey);
+        output.put(sealed);
+        return sealed.length;
+    }
+
+    /**
+     * Decrypts the remaining bytes of the cipher text into the output buffer using the shared key. The bytes written
+     * are the same as those returned by {@link #openAfterPrecomputation(byte[], Nonce, SharedKey)}, but implementations
+     * may reuse their working buffers rather than allocating new arrays for each call.
+     *
+     * @param cipherText The encrypted payload
+     * @param output The buffer the decrypted payload is written to
+     * @param nonce The nonce that was used to encrypt this payload
+     * @param sharedKey The shared key for the sender and recipient
+     * @return The number of bytes written to the output
+     */
+    default int openInto(ByteBuffer cipherText, ByteBuffer output, Nonce nonce, SharedKey sharedKey) {
+        final byte[] cipherTextBytes = new byte[cipherText.remaining()];
+        cipherText.get(cipherTextBytes);
+
+        final byte[] opened = openAfterPrecomputation(cipherTextBytes, nonce, sharedKey);
+        output.put(opened);
+        return opened.length;
+    }
+
+    /**
+     * The number of bytes sealing adds to a message, so callers of {@link #sealInto} can size the output buffer. This
+     * is fixed by the algorithm, so implementations return a constant rather than sealing anything to find it.
+     *
+     * @return the difference in length between a sealed payload and its message
+     */
+    int sealOverhead();
+
     /**
      * Generates a new random nonce of the correct size
      *
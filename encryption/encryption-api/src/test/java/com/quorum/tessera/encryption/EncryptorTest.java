@@ -1,5 +1,8 @@
 package com.quorum.tessera.encryption;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.Before;
 import org.junit.Test;
@@ -47,6 +50,32 @@ public class EncryptorTest {
         assertThat(result.getKeyBytes()).isEqualTo("createSingleKey".getBytes());
     }
 
+    @Test
+    public void sealIntoWritesSealedPayloadToOutput() {
+        ByteBuffer message = ByteBuffer.wrap("MESSAGE".getBytes());
+        ByteBuffer output = ByteBuffer.allocate(64);
+
+        int written = encryptor.sealInto(message, output, mock(Nonce.class), SharedKey.from("".getBytes()));
+
+        byte[] outcome = "sealAfterPrecomputationWithSharedKey".getBytes();
+        assertThat(written).isEqualTo(outcome.length);
+        assertThat(message.hasRemaining()).isFalse();
+        assertThat(Arrays.copyOf(output.array(), output.position())).isEqualTo(outcome);
+    }
+
+    @Test
+    public void openIntoWritesOpenedPayloadToOutput() {
+        ByteBuffer cipherText = ByteBuffer.wrap("CIPHERTEXT".getBytes());
+        ByteBuffer output = ByteBuffer.allocate(64);
+
+        int written = encryptor.openInto(cipherText, output, mock(Nonce.class), SharedKey.from("".getBytes()));
+
+        byte[] outcome = "openAfterPrecomputationWithSharedKey".getBytes();
+        assertThat(written).isEqualTo(outcome.length);
+        assertThat(cipherText.hasRemaining()).isFalse();
+        assertThat(Arrays.copyOf(output.array(), output.position())).isEqualTo(outcome);
+    }
+
     static class MockNaclFacade implements Encryptor {
 
         @Override
@@ -75,10 +104,15 @@ public class EncryptorTest {
         }
 
         @Override
-        public Nonce randomNonce() {
+        public int sealOverhead() {
             throw new UnsupportedOperationException("Not supported yet.");
         }
 
+        @Override
+        public Nonce randomNonce() {
+            return new Nonce(new byte[24]);
+        }
+
         @Override
         public KeyPair generateNewKeys() {
             throw new UnsupportedOperationException("Not supported yet.");
@@ -88,6 +122,5 @@ public class EncryptorTest {
         public SharedKey createSingleKey() {
             return SharedKey.from("createSingleKey".getBytes());
         }
-
     }
 }
@@ -44,6 +44,11 @@ public enum MockEncryptor implements Encryptor {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    @Override
+    public int sealOverhead() {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public MasterKey createMasterKey() {
         throw new UnsupportedOperationException("Not supported yet."); 
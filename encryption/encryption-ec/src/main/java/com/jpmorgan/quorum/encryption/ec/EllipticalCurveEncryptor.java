@@ -20,10 +20,23 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 
+/**
+ * Elliptic curve {@link Encryptor}, using ECDH to agree shared keys and a symmetric cipher to encrypt payloads.
+ *
+ * <p>Looking up JCA implementations and decoding keys is slow compared to the operations themselves, so each thread
+ * reuses its own {@link KeyAgreement} and {@link Cipher}, and recently used keys are kept in their decoded form.
+ */
 public class EllipticalCurveEncryptor implements Encryptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EllipticalCurveEncryptor.class);
 
+    static final int MAX_CACHED_KEYS = 256;
+
+    /** Length in bits of the authentication tag the cipher adds to each sealed payload */
+    static final int TAG_LENGTH = 128;
+
+    private static final ThreadLocal<MessageDigest> SHA3_256 = ThreadLocal.withInitial(SHA3.Digest256::new);
+
     private final int nonceLength;
 
     private final int sharedKeyLength;
@@ -38,11 +51,21 @@ public class EllipticalCurveEncryptor implements Encryptor {
 
     private final String symmetricCipher;
 
+    private final ThreadLocal<KeyAgreement> keyAgreements = new ThreadLocal<>();
+
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+    private final ParsedKeyCache<PublicKey, java.security.PublicKey> publicKeys = new ParsedKeyCache<>(MAX_CACHED_KEYS);
+
+    private final ParsedKeyCache<PrivateKey, java.security.PrivateKey> privateKeys =
+            new ParsedKeyCache<>(MAX_CACHED_KEYS);
+
     public EllipticalCurveEncryptor(final String symmetricCipher, final String ellipticCurve) {
         this(symmetricCipher, ellipticCurve, 24, 32);
     }
 
-    public EllipticalCurveEncryptor(final String symmetricCipher, final String ellipticCurve, int nonceLength, int sharedKeyLength) {
+    public EllipticalCurveEncryptor(
+            final String symmetricCipher, final String ellipticCurve, int nonceLength, int sharedKeyLength) {
         this.nonceLength = nonceLength;
         this.sharedKeyLength = sharedKeyLength;
         this.symmetricCipher = symmetricCipher;
@@ -61,24 +84,22 @@ public class EllipticalCurveEncryptor implements Encryptor {
     @Override
     public SharedKey computeSharedKey(PublicKey publicKey, PrivateKey privateKey) {
         try {
-            KeyAgreement keyAgreement = KeyAgreement.getInstance("ECDH");
+            KeyAgreement keyAgreement = keyAgreement();
 
-            java.security.PrivateKey privKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(privateKey.getKeyBytes()));
+            java.security.PrivateKey privKey =
+                    privateKeys.get(
+                            privateKey, k -> keyFactory.generatePrivate(new PKCS8EncodedKeySpec(k.getKeyBytes())));
 
             keyAgreement.init(privKey);
 
-            LOGGER.info("Encode public key {}",publicKey.encodeToBase64());
-            
-            X509EncodedKeySpec encodedKeySpec = new X509EncodedKeySpec(publicKey.getKeyBytes());
-
-            java.security.PublicKey pubKey = keyFactory.generatePublic(encodedKeySpec);
+            java.security.PublicKey pubKey =
+                    publicKeys.get(publicKey, k -> keyFactory.generatePublic(new X509EncodedKeySpec(k.getKeyBytes())));
 
             keyAgreement.doPhase(pubKey, true);
 
             byte[] secret = keyAgreement.generateSecret();
             // for now ensure the secret is 32 bytes long (not sure if the keyAgreement secret length may vary
-            MessageDigest sha3256 = new SHA3.Digest256();
-            final byte[] digest = sha3256.digest(secret);
+            final byte[] digest = SHA3_256.get().digest(secret);
             return SharedKey.from(digest);
         } catch (InvalidKeyException | NoSuchAlgorithmException | InvalidKeySpecException e) {
             LOGGER.error("unable to generate shared secret", e);
@@ -99,12 +120,8 @@ public class EllipticalCurveEncryptor implements Encryptor {
     @Override
     public byte[] sealAfterPrecomputation(byte[] message, Nonce nonce, SharedKey sharedKey) {
         try {
-            Cipher cipher = Cipher.getInstance(this.symmetricCipher);
-            cipher.init(
-                    Cipher.ENCRYPT_MODE,
-                    new SecretKeySpec(sharedKey.getKeyBytes(), "AES"),
-                    // does this mean that only 16 bytes from the nonce are being used?
-                    new GCMParameterSpec(128, nonce.getNonceBytes()));
+            // does this mean that only 16 bytes from the nonce are being used?
+            Cipher cipher = cipher(Cipher.ENCRYPT_MODE, sharedKey, nonce);
             return cipher.doFinal(message);
         } catch (GeneralSecurityException e) {
             LOGGER.error("unable to perform symmetric encryption", e);
@@ -115,11 +132,7 @@ public class EllipticalCurveEncryptor implements Encryptor {
     @Override
     public byte[] openAfterPrecomputation(byte[] cipherText, Nonce nonce, SharedKey sharedKey) {
         try {
-            Cipher cipher = Cipher.getInstance(symmetricCipher);
-            cipher.init(
-                    Cipher.DECRYPT_MODE,
-                    new SecretKeySpec(sharedKey.getKeyBytes(), "AES"),
-                    new GCMParameterSpec(128, nonce.getNonceBytes()));
+            Cipher cipher = cipher(Cipher.DECRYPT_MODE, sharedKey, nonce);
             return cipher.doFinal(cipherText);
         } catch (GeneralSecurityException e) {
             LOGGER.error("unable to perform symmetric decryption", e);
@@ -127,6 +140,11 @@ public class EllipticalCurveEncryptor implements Encryptor {
         }
     }
 
+    @Override
+    public int sealOverhead() {
+        return TAG_LENGTH / Byte.SIZE;
+    }
+
     @Override
     public Nonce randomNonce() {
         final byte[] nonceBytes = new byte[nonceLength];
@@ -163,6 +181,37 @@ public class EllipticalCurveEncryptor implements Encryptor {
         return key;
     }
 
+    private KeyAgreement keyAgreement() throws NoSuchAlgorithmException {
+        KeyAgreement keyAgreement = keyAgreements.get();
+        if (keyAgreement == null) {
+            keyAgreement = KeyAgreement.getInstance("ECDH");
+            keyAgreements.set(keyAgreement);
+        }
+        return keyAgreement;
+    }
+
+    private Cipher cipher(int mode, SharedKey sharedKey, Nonce nonce) throws GeneralSecurityException {
+        final SecretKeySpec keySpec = new SecretKeySpec(sharedKey.getKeyBytes(), "AES");
+        final GCMParameterSpec parameterSpec = new GCMParameterSpec(TAG_LENGTH, nonce.getNonceBytes());
+
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(symmetricCipher);
+            ciphers.set(cipher);
+        }
+
+        try {
+            cipher.init(mode, keySpec, parameterSpec);
+            return cipher;
+        } catch (InvalidAlgorithmParameterException ex) {
+            // a GCM cipher refuses to encrypt again with the key and nonce it last used, which a new instance allows
+            final Cipher newCipher = Cipher.getInstance(symmetricCipher);
+            newCipher.init(mode, keySpec, parameterSpec);
+            ciphers.set(newCipher);
+            return newCipher;
+        }
+    }
+
     private byte[] keyToBytes(java.security.PublicKey publicKey) {
         // this produces a 33 byte public key for the P-256 curve which then gets encoded to 44 chars as base64 (just
         // like nacl)
@@ -174,5 +223,4 @@ public class EllipticalCurveEncryptor implements Encryptor {
     private byte[] keyToBytes(java.security.PrivateKey privateKey) {
         return privateKey.getEncoded();
     }
-
 }
@@ -0,0 +1,54 @@
+package com.jpmorgan.quorum.encryption.ec;
+
+import java.security.spec.InvalidKeySpecException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of decoded keys, so that keys used repeatedly are not parsed from their encoded form on
+ * every operation.
+ *
+ * @param <K> the encoded key type
+ * @param <V> the decoded key type
+ */
+class ParsedKeyCache<K, V> {
+
+    @FunctionalInterface
+    interface KeyParser<K, V> {
+        V parse(K key) throws InvalidKeySpecException;
+    }
+
+    private final Map<K, V> entries;
+
+    ParsedKeyCache(final int maxEntries) {
+        this.entries =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                        return size() > maxEntries;
+                    }
+                };
+    }
+
+    V get(final K key, final KeyParser<K, V> parser) throws InvalidKeySpecException {
+        synchronized (entries) {
+            final V cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // parse outside the lock, two threads parsing the same key at once both get an equal result
+        final V parsed = parser.parse(key);
+        synchronized (entries) {
+            entries.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.jpmorgan.quorum.encryption.ec;
+
+import com.quorum.tessera.encryption.KeyPair;
+import com.quorum.tessera.encryption.MasterKey;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.SharedKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the operations used for every recipient of a transaction, on the P-256 and secp384r1
+ * curves.
+ *
+ * <p>Run from the test classpath with {@code java com.jpmorgan.quorum.encryption.ec.EllipticalCurveEncryptorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EllipticalCurveEncryptorBenchmark {
+
+    @Param({"secp256r1", "secp384r1"})
+    public String ellipticCurve;
+
+    private EllipticalCurveEncryptor encryptor;
+
+    private KeyPair sender;
+
+    private KeyPair recipient;
+
+    private MasterKey masterKey;
+
+    private Nonce nonce;
+
+    private byte[] message;
+
+    private byte[] cipherText;
+
+    @Setup
+    public void setUp() {
+        encryptor = new EllipticalCurveEncryptor("AES/GCM/NoPadding", ellipticCurve);
+        sender = encryptor.generateNewKeys();
+        recipient = encryptor.generateNewKeys();
+        masterKey = encryptor.createMasterKey();
+        nonce = encryptor.randomNonce();
+        message = new byte[1024];
+        cipherText = encryptor.sealAfterPrecomputation(message, nonce, masterKey);
+    }
+
+    @Benchmark
+    public SharedKey computeSharedKey() {
+        return encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+    }
+
+    @Benchmark
+    public byte[] sealMasterKey() {
+        final SharedKey sharedKey = encryptor.computeSharedKey(recipient.getPublicKey(), sender.getPrivateKey());
+        return encryptor.sealAfterPrecomputation(masterKey.getKeyBytes(), encryptor.randomNonce(), sharedKey);
+    }
+
+    @Benchmark
+    public byte[] openAfterPrecomputation() {
+        return encryptor.openAfterPrecomputation(cipherText, nonce, masterKey);
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EllipticalCurveEncryptorBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
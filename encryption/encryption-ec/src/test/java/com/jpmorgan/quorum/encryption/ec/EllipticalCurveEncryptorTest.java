@@ -1,7 +1,5 @@
-
 package com.jpmorgan.quorum.encryption.ec;
 
-
 import com.quorum.tessera.encryption.EncryptorException;
 import com.quorum.tessera.encryption.EncryptorFactory;
 import com.quorum.tessera.encryption.KeyPair;
@@ -13,16 +11,16 @@ import com.quorum.tessera.encryption.SharedKey;
 import java.util.Base64;
 import static junit.framework.Assert.assertEquals;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
 public class EllipticalCurveEncryptorTest {
-private static final Logger LOGGER = LoggerFactory.getLogger(EllipticalCurveEncryptor.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(EllipticalCurveEncryptor.class);
 
     private final EncryptorFactory facadeFactory = new EllipticalCurveEncryptorFactory();
-    
+
     private final EllipticalCurveEncryptor encryptor = (EllipticalCurveEncryptor) facadeFactory.create();
 
     @Test
@@ -34,8 +32,30 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EllipticalCurveEncr
         assertEquals(sharedPub1Priv2, sharedPriv1Pub2);
         LOGGER.info("SharedKey: {}", sharedPriv1Pub2.encodeToBase64());
     }
- 
-    
+
+    @Test
+    public void computeSharedKeyRepeatedlyWithCachedKeys() {
+        KeyPair keyPair1 = encryptor.generateNewKeys();
+        KeyPair keyPair2 = encryptor.generateNewKeys();
+        SharedKey first = encryptor.computeSharedKey(keyPair1.getPublicKey(), keyPair2.getPrivateKey());
+        SharedKey second =
+                encryptor.computeSharedKey(
+                        PublicKey.from(keyPair1.getPublicKey().getKeyBytes().clone()),
+                        PrivateKey.from(keyPair2.getPrivateKey().getKeyBytes().clone()));
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    public void computeSharedKeyOnOtherCurve() {
+        EllipticalCurveEncryptor secp384r1 = new EllipticalCurveEncryptor("AES/GCM/NoPadding", "secp384r1");
+        KeyPair keyPair1 = secp384r1.generateNewKeys();
+        KeyPair keyPair2 = secp384r1.generateNewKeys();
+        SharedKey sharedPub1Priv2 = secp384r1.computeSharedKey(keyPair1.getPublicKey(), keyPair2.getPrivateKey());
+        SharedKey sharedPriv1Pub2 = secp384r1.computeSharedKey(keyPair2.getPublicKey(), keyPair1.getPrivateKey());
+        assertThat(sharedPub1Priv2).isEqualTo(sharedPriv1Pub2);
+        assertThat(sharedPub1Priv2.getKeyBytes()).hasSize(32);
+    }
+
     @Test(expected = RuntimeException.class)
     public void computeSharedKeyWithInvalidKeys() {
         encryptor.computeSharedKey(PublicKey.from("garbage".getBytes()), PrivateKey.from("garbage".getBytes()));
@@ -62,6 +82,40 @@ private static final Logger LOGGER = LoggerFactory.getLogger(EllipticalCurveEncr
         assertThat(decryptedText).containsExactly(clearText);
     }
 
+    @Test
+    public void sealTwiceWithSameKeyAndNonce() {
+        MasterKey masterKey = encryptor.createMasterKey();
+        byte[] clearText = "MessageToEncrypt123".getBytes();
+        Nonce nonce = encryptor.randomNonce();
+        byte[] first = encryptor.sealAfterPrecomputation(clearText, nonce, masterKey);
+        byte[] second = encryptor.sealAfterPrecomputation(clearText, nonce, masterKey);
+        assertThat(second).containsExactly(first);
+    }
+
+    @Test
+    public void sealOverheadIsLengthAddedBySealing() {
+        MasterKey masterKey = encryptor.createMasterKey();
+        Nonce nonce = encryptor.randomNonce();
+        assertThat(encryptor.sealOverhead()).isEqualTo(16);
+        assertThat(encryptor.sealAfterPrecomputation(new byte[0], nonce, masterKey)).hasSize(encryptor.sealOverhead());
+        assertThat(encryptor.sealAfterPrecomputation(new byte[100], encryptor.randomNonce(), masterKey))
+                .hasSize(100 + encryptor.sealOverhead());
+    }
+
+    @Test
+    public void openAfterFailedOpen() {
+        MasterKey masterKey = encryptor.createMasterKey();
+        byte[] clearText = "MessageToEncrypt123".getBytes();
+        Nonce nonce = encryptor.randomNonce();
+        byte[] cipherText = encryptor.sealAfterPrecomputation(clearText, nonce, masterKey);
+
+        Throwable ex =
+                catchThrowable(() -> encryptor.openAfterPrecomputation(cipherText, nonce, encryptor.createMasterKey()));
+        assertThat(ex).isInstanceOf(EncryptorException.class);
+
+        assertThat(encryptor.openAfterPrecomputation(cipherText, nonce, masterKey)).containsExactly(clearText);
+    }
+
     @Test(expected = EncryptorException.class)
     public void sealAfterPrecomputationInvalidSymmetricCipher() {
         EllipticalCurveEncryptor facade = new EllipticalCurveEncryptor("garbage", "secp256r1");
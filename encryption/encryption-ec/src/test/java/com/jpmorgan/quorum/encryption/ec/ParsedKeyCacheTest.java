@@ -0,0 +1,58 @@
+package com.jpmorgan.quorum.encryption.ec;
+
+import org.junit.Test;
+
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class ParsedKeyCacheTest {
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+
+    private final ParsedKeyCache<String, Integer> cache = new ParsedKeyCache<>(2);
+
+    private Integer parse(String key) throws InvalidKeySpecException {
+        parseCount.incrementAndGet();
+        if (key.isEmpty()) {
+            throw new InvalidKeySpecException("empty");
+        }
+        return key.length();
+    }
+
+    @Test
+    public void parsedKeyIsReused() throws Exception {
+        assertThat(cache.get("one", this::parse)).isEqualTo(3);
+        assertThat(cache.get("one", this::parse)).isEqualTo(3);
+
+        assertThat(parseCount).hasValue(1);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void leastRecentlyUsedKeyIsEvicted() throws Exception {
+        cache.get("one", this::parse);
+        cache.get("two", this::parse);
+        cache.get("one", this::parse);
+        cache.get("three", this::parse);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(parseCount).hasValue(3);
+
+        cache.get("one", this::parse);
+        assertThat(parseCount).hasValue(3);
+
+        cache.get("two", this::parse);
+        assertThat(parseCount).hasValue(4);
+    }
+
+    @Test
+    public void failedParseIsNotCached() {
+        Throwable ex = catchThrowable(() -> cache.get("", this::parse));
+
+        assertThat(ex).isInstanceOf(InvalidKeySpecException.class);
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -5,16 +5,27 @@ import com.quorum.tessera.encryption.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Objects;
 
 import static com.neilalexander.jnacl.crypto.curve25519xsalsa20poly1305.*;
 
-/** Uses jnacl, which is a pure Java implementation of the NaCl standard */
+/**
+ * Uses jnacl, which is a pure Java implementation of the NaCl standard
+ *
+ * <p>Sealing and opening with a shared key pads the payload in arrays that are kept by each thread and reused, so that
+ * only the result is allocated per call.
+ */
 public class Jnacl implements Encryptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Jnacl.class);
 
+    /** Length of the authenticator added to each sealed payload */
+    static final int MAC_BYTES = crypto_secretbox_ZEROBYTES - crypto_secretbox_BOXZEROBYTES;
+
     private final SecureRandom secureRandom;
 
     private final SecretBox secretBox;
@@ -28,7 +39,6 @@ public class Jnacl implements Encryptor {
     public SharedKey computeSharedKey(final PublicKey publicKey, final PrivateKey privateKey) {
         final byte[] precomputed = new byte[crypto_secretbox_BEFORENMBYTES];
 
-        LOGGER.debug("Computing the shared key for public key {} and private key {}", publicKey, privateKey);
         final int jnaclResult =
                 secretBox.cryptoBoxBeforenm(precomputed, publicKey.getKeyBytes(), privateKey.getKeyBytes());
 
@@ -37,35 +47,18 @@ public class Jnacl implements Encryptor {
             throw new EncryptorException("jnacl could not compute the shared key");
         }
 
-        final SharedKey sharedKey = SharedKey.from(precomputed);
-
-        LOGGER.debug("Computed shared key {} for pub {} and priv {}", sharedKey, publicKey, privateKey);
-
-        return sharedKey;
+        return SharedKey.from(precomputed);
     }
 
     @Override
     public byte[] seal(
             final byte[] message, final Nonce nonce, final PublicKey publicKey, final PrivateKey privateKey) {
-
-        LOGGER.debug(
-                "Sealing message using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
         try {
 
             final NaCl nacl = new NaCl(privateKey.getKeyBytes(), publicKey.getKeyBytes());
 
             final byte[] cipherText = nacl.encrypt(message, nonce.getNonceBytes());
 
-            LOGGER.debug(
-                    "Created sealed payload using nonce {}, public key {} and private key {}",
-                    nonce,
-                    publicKey,
-                    privateKey);
-
             return extract(cipherText, crypto_secretbox_BOXZEROBYTES);
 
         } catch (final Exception ex) {
@@ -76,27 +69,13 @@ public class Jnacl implements Encryptor {
     @Override
     public byte[] open(
             final byte[] cipherText, final Nonce nonce, final PublicKey publicKey, final PrivateKey privateKey) {
-        LOGGER.debug(
-                "Opening message using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
         try {
 
             final byte[] paddedInput = pad(cipherText, crypto_secretbox_BOXZEROBYTES);
 
             final NaCl nacl = new NaCl(privateKey.getKeyBytes(), publicKey.getKeyBytes());
 
-            final byte[] plaintext = nacl.decrypt(paddedInput, nonce.getNonceBytes());
-
-            LOGGER.debug(
-                "Opened message using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
-            return plaintext;
+            return nacl.decrypt(paddedInput, nonce.getNonceBytes());
         } catch (final Exception ex) {
             throw new EncryptorException(ex.getMessage());
         }
@@ -104,54 +83,91 @@ public class Jnacl implements Encryptor {
 
     @Override
     public byte[] sealAfterPrecomputation(final byte[] message, final Nonce nonce, final SharedKey sharedKey) {
+        final byte[] sealed = new byte[message.length + MAC_BYTES];
+        sealInto(ByteBuffer.wrap(message), ByteBuffer.wrap(sealed), nonce, sharedKey);
+        return sealed;
+    }
 
-        final byte[] paddedMessage = new byte[message.length + crypto_secretbox_ZEROBYTES];
-        final byte[] output = new byte[message.length + crypto_secretbox_ZEROBYTES];
+    @Override
+    public byte[] openAfterPrecomputation(final byte[] cipherText, final Nonce nonce, final SharedKey sharedKey) {
+        final byte[] opened = new byte[Math.max(0, cipherText.length - MAC_BYTES)];
+        openInto(ByteBuffer.wrap(cipherText), ByteBuffer.wrap(opened), nonce, sharedKey);
+        return opened;
+    }
+
+    @Override
+    public int sealInto(
+            final ByteBuffer message, final ByteBuffer output, final Nonce nonce, final SharedKey sharedKey) {
+        final int messageLength = message.remaining();
+        final int paddedLength = messageLength + crypto_secretbox_ZEROBYTES;
+        final int sealedLength = messageLength + MAC_BYTES;
+        if (output.remaining() < sealedLength) {
+            throw new BufferOverflowException();
+        }
+
+        final byte[] paddedMessage = Scratch.INPUT.get(paddedLength);
+        final byte[] paddedOutput = Scratch.OUTPUT.get(paddedLength);
 
-        LOGGER.debug("Sealing message using nonce {} and shared key {}", nonce, sharedKey);
+        final int position = message.position();
+        Arrays.fill(paddedMessage, 0, crypto_secretbox_ZEROBYTES, (byte) 0);
+        message.get(paddedMessage, crypto_secretbox_ZEROBYTES, messageLength);
 
-        System.arraycopy(message, 0, paddedMessage, crypto_secretbox_ZEROBYTES, message.length);
         final int jnaclResult =
                 secretBox.cryptoBoxAfternm(
-                        output, paddedMessage, paddedMessage.length, nonce.getNonceBytes(), sharedKey.getKeyBytes());
+                        paddedOutput, paddedMessage, paddedLength, nonce.getNonceBytes(), sharedKey.getKeyBytes());
+
+        // the scratch input holds the plain text, so it is not left behind for the next caller on this thread
+        Arrays.fill(paddedMessage, 0, paddedLength, (byte) 0);
 
         if (jnaclResult == -1) {
+            message.position(position);
             LOGGER.error("Could not create sealed payload using shared key {}", sharedKey);
             throw new EncryptorException("jnacl could not seal the payload using the shared key");
         }
 
-        LOGGER.debug(
-                "Created sealed payload using nonce {} and shared key {}",
-                nonce,
-                sharedKey);
-
-        return extract(output, crypto_secretbox_BOXZEROBYTES);
+        output.put(paddedOutput, crypto_secretbox_BOXZEROBYTES, sealedLength);
+        return sealedLength;
     }
 
     @Override
-    public byte[] openAfterPrecomputation(final byte[] cipherText, final Nonce nonce, final SharedKey sharedKey) {
-        LOGGER.debug(
-                "Opening message using nonce {} and shared key {}", nonce, sharedKey);
+    public int openInto(
+            final ByteBuffer cipherText, final ByteBuffer output, final Nonce nonce, final SharedKey sharedKey) {
+        final int cipherTextLength = cipherText.remaining();
+        final int paddedLength = cipherTextLength + crypto_secretbox_BOXZEROBYTES;
+        final int openedLength = cipherTextLength - MAC_BYTES;
+        if (output.remaining() < openedLength) {
+            throw new BufferOverflowException();
+        }
+
+        final byte[] paddedInput = Scratch.INPUT.get(paddedLength);
+        final byte[] paddedOutput = Scratch.OUTPUT.get(paddedLength);
 
-        final byte[] paddedInput = pad(cipherText, crypto_secretbox_BOXZEROBYTES);
-        final byte[] paddedOutput = new byte[paddedInput.length];
+        final int position = cipherText.position();
+        Arrays.fill(paddedInput, 0, crypto_secretbox_BOXZEROBYTES, (byte) 0);
+        cipherText.get(paddedInput, crypto_secretbox_BOXZEROBYTES, cipherTextLength);
 
         final int jnaclResult =
                 secretBox.cryptoBoxOpenAfternm(
-                        paddedOutput, paddedInput, paddedInput.length, nonce.getNonceBytes(), sharedKey.getKeyBytes());
+                        paddedOutput, paddedInput, paddedLength, nonce.getNonceBytes(), sharedKey.getKeyBytes());
 
         if (jnaclResult == -1) {
+            cipherText.position(position);
             LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
             throw new EncryptorException("jnacl could not open the payload using the shared key");
         }
 
-        LOGGER.debug("Opened sealed payload for shared key {}", sharedKey);
-        LOGGER.debug(
-                "Opened payload using nonce {} and shared key {}",
-                nonce,
-                sharedKey);
+        final int written = Math.max(0, openedLength);
+        output.put(paddedOutput, crypto_secretbox_ZEROBYTES, written);
+
+        // the scratch output holds the plain text, so it is not left behind for the next caller on this thread
+        Arrays.fill(paddedOutput, 0, paddedLength, (byte) 0);
+
+        return written;
+    }
 
-        return extract(paddedOutput, crypto_secretbox_ZEROBYTES);
+    @Override
+    public int sealOverhead() {
+        return MAC_BYTES;
     }
 
     @Override
@@ -160,11 +176,7 @@ public class Jnacl implements Encryptor {
 
         this.secureRandom.nextBytes(nonceBytes);
 
-        final Nonce nonce = new Nonce(nonceBytes);
-
-        LOGGER.debug("Generated random nonce {}", nonce);
-
-        return nonce;
+        return new Nonce(nonceBytes);
     }
 
     @Override
@@ -192,18 +204,11 @@ public class Jnacl implements Encryptor {
 
     @Override
     public SharedKey createSingleKey() {
-        LOGGER.debug("Generating random key");
-
         final byte[] keyBytes = new byte[crypto_secretbox_PUBLICKEYBYTES];
 
         this.secureRandom.nextBytes(keyBytes);
 
-        final SharedKey key = SharedKey.from(keyBytes);
-
-        LOGGER.debug("Random key generated");
-        LOGGER.debug("Generated key with value {}", key);
-
-        return key;
+        return SharedKey.from(keyBytes);
     }
 
     /**
@@ -233,4 +238,29 @@ public class Jnacl implements Encryptor {
 
         return extractedMessage;
     }
+
+    /** Padded arrays reused by each thread, up to a size above which they are allocated per call instead */
+    enum Scratch {
+        INPUT,
+        OUTPUT;
+
+        static final int MAX_RETAINED_LENGTH = 256 * 1024;
+
+        private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[0]);
+
+        byte[] get(final int length) {
+            if (length > MAX_RETAINED_LENGTH) {
+                return new byte[length];
+            }
+
+            final byte[] current = buffer.get();
+            if (current.length >= length) {
+                return current;
+            }
+
+            final byte[] grown = new byte[length];
+            buffer.set(grown);
+            return grown;
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.quorum.tessera.nacl.jnacl;
+
+import com.quorum.tessera.encryption.MasterKey;
+import com.quorum.tessera.encryption.Nonce;
+import com.quorum.tessera.encryption.SharedKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sealing and opening payloads with a shared key, through the byte array methods and through the buffer
+ * methods with buffers that are reused between calls.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.nacl.jnacl.JnaclBenchmark}, adding
+ * {@code -prof gc} to see the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JnaclBenchmark {
+
+    @Param({"1024", "65536"})
+    public int payloadSize;
+
+    private Jnacl jnacl;
+
+    private SharedKey sharedKey;
+
+    private Nonce nonce;
+
+    private byte[] message;
+
+    private byte[] cipherText;
+
+    private ByteBuffer messageBuffer;
+
+    private ByteBuffer cipherTextBuffer;
+
+    private ByteBuffer output;
+
+    @Setup
+    public void setUp() {
+        jnacl = new Jnacl(new SecureRandom(), new JnaclSecretBox());
+        final MasterKey masterKey = jnacl.createMasterKey();
+        sharedKey = SharedKey.from(masterKey.getKeyBytes());
+        nonce = jnacl.randomNonce();
+        message = new byte[payloadSize];
+        cipherText = jnacl.sealAfterPrecomputation(message, nonce, sharedKey);
+
+        messageBuffer = ByteBuffer.wrap(message);
+        cipherTextBuffer = ByteBuffer.wrap(cipherText);
+        output = ByteBuffer.allocate(payloadSize + jnacl.sealOverhead());
+    }
+
+    @Benchmark
+    public byte[] sealAfterPrecomputation() {
+        return jnacl.sealAfterPrecomputation(message, nonce, sharedKey);
+    }
+
+    @Benchmark
+    public byte[] openAfterPrecomputation() {
+        return jnacl.openAfterPrecomputation(cipherText, nonce, sharedKey);
+    }
+
+    @Benchmark
+    public int sealInto() {
+        messageBuffer.clear();
+        output.clear();
+        return jnacl.sealInto(messageBuffer, output, nonce, sharedKey);
+    }
+
+    @Benchmark
+    public int openInto() {
+        cipherTextBuffer.clear();
+        output.clear();
+        return jnacl.openInto(cipherTextBuffer, output, nonce, sharedKey);
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JnaclBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
+import java.util.Arrays;
 
 import static com.neilalexander.jnacl.crypto.curve25519xsalsa20poly1305.crypto_secretbox_BEFORENMBYTES;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -230,4 +233,128 @@ public class JnaclTest {
 
         assertThat(key.getKeyBytes()).hasSize(expectedKeysize);
     }
+
+    @Test
+    public void sealIntoAndOpenIntoRoundTripThroughBuffers() {
+        final Jnacl realJnacl = new Jnacl(new SecureRandom(), new JnaclSecretBox());
+
+        final ByteBuffer sealed = ByteBuffer.allocateDirect(message.length + realJnacl.sealOverhead());
+        final int sealedLength = realJnacl.sealInto(ByteBuffer.wrap(message), sealed, nonce, sharedKey);
+
+        assertThat(sealedLength).isEqualTo(message.length + Jnacl.MAC_BYTES);
+        assertThat(sealed.hasRemaining()).isFalse();
+
+        sealed.flip();
+        final byte[] sealedBytes = new byte[sealedLength];
+        sealed.duplicate().get(sealedBytes);
+        assertThat(sealedBytes).isEqualTo(realJnacl.sealAfterPrecomputation(message, nonce, sharedKey));
+
+        final ByteBuffer opened = ByteBuffer.allocate(64);
+        final int openedLength = realJnacl.openInto(sealed, opened, nonce, sharedKey);
+
+        assertThat(openedLength).isEqualTo(message.length);
+        assertThat(Arrays.copyOf(opened.array(), openedLength)).isEqualTo(message);
+    }
+
+    @Test
+    public void plainTextIsClearedFromScratchArrays() {
+        final Jnacl realJnacl = new Jnacl(new SecureRandom(), new JnaclSecretBox());
+
+        final byte[] longMessage = new byte[1000];
+        Arrays.fill(longMessage, (byte) 1);
+        final byte[] sealedLongMessage = realJnacl.sealAfterPrecomputation(longMessage, nonce, sharedKey);
+
+        assertThat(Jnacl.Scratch.INPUT.get(0)).containsOnly(0);
+
+        final byte[] sealed = realJnacl.sealAfterPrecomputation(message, nonce, sharedKey);
+        assertThat(realJnacl.openAfterPrecomputation(sealed, nonce, sharedKey)).isEqualTo(message);
+        assertThat(realJnacl.openAfterPrecomputation(sealedLongMessage, nonce, sharedKey)).isEqualTo(longMessage);
+
+        assertThat(Jnacl.Scratch.OUTPUT.get(0)).containsOnly(0);
+    }
+
+    @Test
+    public void payloadsLargerThanScratchArraysAreSealed() {
+        final Jnacl realJnacl = new Jnacl(new SecureRandom(), new JnaclSecretBox());
+
+        final byte[] largeMessage = new byte[Jnacl.Scratch.MAX_RETAINED_LENGTH + 1];
+        new SecureRandom().nextBytes(largeMessage);
+
+        final byte[] sealed = realJnacl.sealAfterPrecomputation(largeMessage, nonce, sharedKey);
+
+        assertThat(realJnacl.openAfterPrecomputation(sealed, nonce, sharedKey)).isEqualTo(largeMessage);
+        assertThat(Jnacl.Scratch.INPUT.get(Jnacl.Scratch.MAX_RETAINED_LENGTH + 1))
+                .isNotSameAs(Jnacl.Scratch.INPUT.get(Jnacl.Scratch.MAX_RETAINED_LENGTH + 1));
+    }
+
+    @Test
+    public void sealIntoFailsWhenOutputIsTooSmall() {
+        final ByteBuffer input = ByteBuffer.wrap(message);
+
+        final Throwable throwable =
+                catchThrowable(() -> this.jnacl.sealInto(input, ByteBuffer.allocate(message.length), nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(BufferOverflowException.class);
+        assertThat(input.position()).isZero();
+    }
+
+    @Test
+    public void openIntoFailsWhenOutputIsTooSmall() {
+        final ByteBuffer input = ByteBuffer.wrap(new byte[100]);
+
+        final Throwable throwable =
+                catchThrowable(() -> this.jnacl.openInto(input, ByteBuffer.allocate(10), nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(BufferOverflowException.class);
+        assertThat(input.position()).isZero();
+    }
+
+    @Test
+    public void failedSealIntoLeavesInputUnread() {
+        doReturn(-1)
+                .when(this.secretBox)
+                .cryptoBoxAfternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+        final ByteBuffer input = ByteBuffer.wrap(message);
+        final ByteBuffer output = ByteBuffer.allocate(64);
+
+        final Throwable throwable = catchThrowable(() -> this.jnacl.sealInto(input, output, nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(EncryptorException.class);
+        assertThat(input.position()).isZero();
+        assertThat(output.position()).isZero();
+
+        verify(this.secretBox)
+                .cryptoBoxAfternm(any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void failedOpenIntoLeavesInputUnread() {
+        doReturn(-1)
+                .when(this.secretBox)
+                .cryptoBoxOpenAfternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+        final ByteBuffer input = ByteBuffer.wrap(new byte[100]);
+        final ByteBuffer output = ByteBuffer.allocate(100);
+
+        final Throwable throwable = catchThrowable(() -> this.jnacl.openInto(input, output, nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(EncryptorException.class);
+        assertThat(input.position()).isZero();
+        assertThat(output.position()).isZero();
+
+        verify(this.secretBox)
+                .cryptoBoxOpenAfternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void sealOverheadIsMacLength() {
+        final Jnacl realJnacl = new Jnacl(new SecureRandom(), new JnaclSecretBox());
+
+        assertThat(realJnacl.sealOverhead()).isEqualTo(16);
+        assertThat(realJnacl.sealAfterPrecomputation(new byte[0], nonce, sharedKey)).hasSize(16);
+    }
 }
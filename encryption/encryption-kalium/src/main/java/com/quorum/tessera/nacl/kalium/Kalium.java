@@ -5,15 +5,27 @@ import org.abstractj.kalium.NaCl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
 
 import static org.abstractj.kalium.NaCl.Sodium.*;
 
-/** An implementation of the {@link Encryptor} using the Kalium and libsodium binding */
+/**
+ * An implementation of the {@link Encryptor} using the Kalium and libsodium binding
+ *
+ * <p>Sealing and opening pads the payload in arrays that are kept by each thread and reused, so that only the result is
+ * allocated per call.
+ */
 public class Kalium implements Encryptor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Kalium.class);
 
+    /** Length of the authenticator added to each sealed payload */
+    static final int MAC_BYTES =
+            CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES - CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES;
+
     private final NaCl.Sodium sodium;
 
     public Kalium(final NaCl.Sodium sodium) {
@@ -28,7 +40,6 @@ public class Kalium implements Encryptor {
     public SharedKey computeSharedKey(final PublicKey publicKey, final PrivateKey privateKey) {
         final byte[] output = new byte[CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BEFORENMBYTES];
 
-        LOGGER.debug("Computing the shared key for public key {} and private key {}", publicKey, privateKey);
         final int sodiumResult =
                 this.sodium.crypto_box_curve25519xsalsa20poly1305_beforenm(
                         output, publicKey.getKeyBytes(), privateKey.getKeyBytes());
@@ -38,165 +49,203 @@ public class Kalium implements Encryptor {
             throw new EncryptorException("Kalium could not compute the shared key");
         }
 
-        final SharedKey sharedKey = SharedKey.from(output);
-
-        LOGGER.debug("Computed shared key {} for pub {} and priv {}", sharedKey, publicKey, privateKey);
-
-        return sharedKey;
+        return SharedKey.from(output);
     }
 
     @Override
     public byte[] seal(
             final byte[] message, final Nonce nonce, final PublicKey publicKey, final PrivateKey privateKey) {
-        /*
-         * The Kalium library uses the C API
-         * which expects the first CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES bytes to be zero
-         */
-        final byte[] paddedMessage = pad(message, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES);
-        final byte[] output = new byte[paddedMessage.length];
-
-        LOGGER.info("Sealing message using public key {}", publicKey);
-        LOGGER.debug(
-                "Sealing message using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
+        final byte[] sealed = new byte[message.length + MAC_BYTES];
 
         final int sodiumResult =
-                sodium.crypto_box_curve25519xsalsa20poly1305(
-                        output,
-                        paddedMessage,
-                        paddedMessage.length,
-                        nonce.getNonceBytes(),
-                        publicKey.getKeyBytes(),
-                        privateKey.getKeyBytes());
+                seal(
+                        ByteBuffer.wrap(message),
+                        ByteBuffer.wrap(sealed),
+                        (output, paddedMessage, length) ->
+                                sodium.crypto_box_curve25519xsalsa20poly1305(
+                                        output,
+                                        paddedMessage,
+                                        length,
+                                        nonce.getNonceBytes(),
+                                        publicKey.getKeyBytes(),
+                                        privateKey.getKeyBytes()));
 
         if (sodiumResult == -1) {
-            LOGGER.error("Could not create sealed payload using public key {} and private key {}", publicKey, privateKey);
+            LOGGER.error(
+                    "Could not create sealed payload using public key {} and private key {}", publicKey, privateKey);
             throw new EncryptorException("Kalium could not seal the payload using the provided keys directly");
         }
 
-        LOGGER.info("Created sealed payload for public key {}", publicKey);
-        LOGGER.debug(
-                "Created sealed payload using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
-        /*
-         * NaCL C API states that first crypto_secretbox_BOXZEROBYTES must be zero
-         * but these are not part of the message, and must be stripped out
-         */
-        return extract(output, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES);
+        return sealed;
     }
 
     @Override
     public byte[] open(
             final byte[] cipherText, final Nonce nonce, final PublicKey publicKey, final PrivateKey privateKey) {
-        LOGGER.info("Opening message using public key {}", publicKey);
-        LOGGER.debug(
-                "Opening message using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
-        /*
-         * NaCL C API states that first crypto_secretbox_BOXZEROBYTES must be zero
-         * but these are not part of the ciphertext, and must be added in
-         */
-        final byte[] paddedInput = pad(cipherText, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES);
-        final byte[] paddedOutput = new byte[paddedInput.length];
+        final byte[] opened = new byte[Math.max(0, cipherText.length - MAC_BYTES)];
 
         final int sodiumResult =
-                sodium.crypto_box_curve25519xsalsa20poly1305_open(
-                        paddedOutput,
-                        paddedInput,
-                        paddedInput.length,
-                        nonce.getNonceBytes(),
-                        publicKey.getKeyBytes(),
-                        privateKey.getKeyBytes());
+                open(
+                        ByteBuffer.wrap(cipherText),
+                        ByteBuffer.wrap(opened),
+                        (output, paddedInput, length) ->
+                                sodium.crypto_box_curve25519xsalsa20poly1305_open(
+                                        output,
+                                        paddedInput,
+                                        length,
+                                        nonce.getNonceBytes(),
+                                        publicKey.getKeyBytes(),
+                                        privateKey.getKeyBytes()));
 
         if (sodiumResult == -1) {
-            LOGGER.error(
-                    "Could not open sealed payload using public key {} and private key {}", publicKey, privateKey);
+            LOGGER.error("Could not open sealed payload using public key {} and private key {}", publicKey, privateKey);
             throw new EncryptorException("Kalium could not open the payload using the provided keys directly");
         }
 
-        LOGGER.info("Opened sealed payload for public key {}", publicKey);
-        LOGGER.debug(
-                "Opened payload using nonce {}, public key {} and private key {}",
-                nonce,
-                publicKey,
-                privateKey);
-
-        return extract(paddedOutput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES);
+        return opened;
     }
 
     @Override
     public byte[] sealAfterPrecomputation(final byte[] message, final Nonce nonce, final SharedKey sharedKey) {
-        /*
-         * The Kalium library uses the C API
-         * which expects the first CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES bytes to be zero
-         */
-        final byte[] paddedMessage = pad(message, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES);
-        final byte[] output = new byte[paddedMessage.length];
-
-        LOGGER.info("Sealing message using public key {}", sharedKey);
-        LOGGER.debug("Sealing message using nonce {} and shared key {}", nonce, sharedKey);
+        final byte[] sealed = new byte[message.length + MAC_BYTES];
+        sealInto(ByteBuffer.wrap(message), ByteBuffer.wrap(sealed), nonce, sharedKey);
+        return sealed;
+    }
 
-        final int sodiumResult =
-                this.sodium.crypto_box_curve25519xsalsa20poly1305_afternm(
-                        output, paddedMessage, paddedMessage.length, nonce.getNonceBytes(), sharedKey.getKeyBytes());
+    @Override
+    public byte[] openAfterPrecomputation(final byte[] encryptedPayload, final Nonce nonce, final SharedKey sharedKey) {
+        final byte[] opened = new byte[Math.max(0, encryptedPayload.length - MAC_BYTES)];
+        openInto(ByteBuffer.wrap(encryptedPayload), ByteBuffer.wrap(opened), nonce, sharedKey);
+        return opened;
+    }
 
-        if (sodiumResult == -1) {
+    @Override
+    public int sealInto(
+            final ByteBuffer message, final ByteBuffer output, final Nonce nonce, final SharedKey sharedKey) {
+        final int written =
+                seal(
+                        message,
+                        output,
+                        (paddedOutput, paddedMessage, length) ->
+                                sodium.crypto_box_curve25519xsalsa20poly1305_afternm(
+                                        paddedOutput,
+                                        paddedMessage,
+                                        length,
+                                        nonce.getNonceBytes(),
+                                        sharedKey.getKeyBytes()));
+
+        if (written == -1) {
             LOGGER.error("Could not create sealed payload using shared key {}", sharedKey);
             throw new EncryptorException("Kalium could not seal the payload using the shared key");
         }
 
-        LOGGER.info("Created sealed payload for shared key {}", sharedKey);
-        LOGGER.debug(
-                "Created sealed payload using nonce {} and shared key {}",
-                nonce,
-                sharedKey);
-
-        /*
-         * NaCL C API states that first crypto_secretbox_BOXZEROBYTES must be zero
-         * but these are not part of the message, and must be stripped out
-         */
-        return extract(output, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES);
+        return written;
     }
 
     @Override
-    public byte[] openAfterPrecomputation(final byte[] encryptedPayload, final Nonce nonce, final SharedKey sharedKey) {
-        LOGGER.info("Opening message using shared key {}", sharedKey);
-        LOGGER.debug(
-                "Opening message using nonce {} and shared key {}",
-                nonce,
-                sharedKey);
-
-        /*
-         * NaCL C API states that first crypto_secretbox_BOXZEROBYTES must be zero
-         * but these are not part of the ciphertext, and must be added in
-         */
-        final byte[] paddedInput = pad(encryptedPayload, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES);
-        final byte[] paddedOutput = new byte[paddedInput.length];
+    public int openInto(
+            final ByteBuffer cipherText, final ByteBuffer output, final Nonce nonce, final SharedKey sharedKey) {
+        final int written =
+                open(
+                        cipherText,
+                        output,
+                        (paddedOutput, paddedInput, length) ->
+                                sodium.crypto_box_curve25519xsalsa20poly1305_open_afternm(
+                                        paddedOutput,
+                                        paddedInput,
+                                        length,
+                                        nonce.getNonceBytes(),
+                                        sharedKey.getKeyBytes()));
+
+        if (written == -1) {
+            LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
+            throw new EncryptorException("Kalium could not open the payload using the shared key");
+        }
 
-        final int sodiumResult =
-                this.sodium.crypto_box_curve25519xsalsa20poly1305_open_afternm(
-                        paddedOutput, paddedInput, paddedInput.length, nonce.getNonceBytes(), sharedKey.getKeyBytes());
+        return written;
+    }
+
+    @Override
+    public int sealOverhead() {
+        return MAC_BYTES;
+    }
+
+    /** One of the sodium box functions, taking the padded output, the padded input and the padded length */
+    @FunctionalInterface
+    interface Box {
+        int apply(byte[] output, byte[] input, int length);
+    }
+
+    /**
+     * Pads the message in this thread's scratch array, seals it and writes the sealed payload to the output.
+     *
+     * <p>The C API expects the first CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES bytes of the message to be zero,
+     * and the first CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES of the result are zero and not part of it.
+     *
+     * @return the number of bytes written, or -1 if sodium could not seal the message
+     */
+    private static int seal(final ByteBuffer message, final ByteBuffer output, final Box box) {
+        final int messageLength = message.remaining();
+        final int paddedLength = messageLength + CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES;
+        final int sealedLength = messageLength + MAC_BYTES;
+        if (output.remaining() < sealedLength) {
+            throw new BufferOverflowException();
+        }
+
+        final byte[] paddedMessage = Scratch.INPUT.get(paddedLength);
+        final byte[] paddedOutput = Scratch.OUTPUT.get(paddedLength);
+
+        final int position = message.position();
+        Arrays.fill(paddedMessage, 0, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES, (byte) 0);
+        message.get(paddedMessage, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES, messageLength);
+
+        final int sodiumResult = box.apply(paddedOutput, paddedMessage, paddedLength);
+
+        // the scratch input holds the plain text, so it is not left behind for the next caller on this thread
+        Arrays.fill(paddedMessage, 0, paddedLength, (byte) 0);
 
         if (sodiumResult == -1) {
-            LOGGER.error("Could not open sealed payload using shared key {}", sharedKey);
-            throw new EncryptorException("Kalium could not open the payload using the shared key");
+            message.position(position);
+            return -1;
+        }
+
+        output.put(paddedOutput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES, sealedLength);
+        return sealedLength;
+    }
+
+    /**
+     * Pads the cipher text in this thread's scratch array, opens it and writes the plain text to the output.
+     *
+     * @return the number of bytes written, or -1 if sodium could not open the cipher text
+     */
+    private static int open(final ByteBuffer cipherText, final ByteBuffer output, final Box box) {
+        final int cipherTextLength = cipherText.remaining();
+        final int paddedLength = cipherTextLength + CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES;
+        final int openedLength = Math.max(0, cipherTextLength - MAC_BYTES);
+        if (output.remaining() < openedLength) {
+            throw new BufferOverflowException();
         }
 
-        LOGGER.info("Opened sealed payload for shared key {}", sharedKey);
-        LOGGER.debug(
-                "Opened payload using nonce {} and sharedKey {}",
-                nonce,
-                sharedKey);
+        final byte[] paddedInput = Scratch.INPUT.get(paddedLength);
+        final byte[] paddedOutput = Scratch.OUTPUT.get(paddedLength);
+
+        final int position = cipherText.position();
+        Arrays.fill(paddedInput, 0, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES, (byte) 0);
+        cipherText.get(paddedInput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BOXZEROBYTES, cipherTextLength);
+
+        final int sodiumResult = box.apply(paddedOutput, paddedInput, paddedLength);
 
-        return extract(paddedOutput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES);
+        if (sodiumResult == -1) {
+            cipherText.position(position);
+            return -1;
+        }
+
+        output.put(paddedOutput, CRYPTO_BOX_CURVE25519XSALSA20POLY1305_ZEROBYTES, openedLength);
+
+        // the scratch output holds the plain text, so it is not left behind for the next caller on this thread
+        Arrays.fill(paddedOutput, 0, paddedLength, (byte) 0);
+
+        return openedLength;
     }
 
     @Override
@@ -206,11 +255,7 @@ public class Kalium implements Encryptor {
 
         this.sodium.randombytes(nonceBytes, nonceBytes.length);
 
-        final Nonce nonce = new Nonce(nonceBytes);
-
-        LOGGER.debug("Generated random nonce {}", nonce);
-
-        return nonce;
+        return new Nonce(nonceBytes);
     }
 
     @Override
@@ -236,47 +281,37 @@ public class Kalium implements Encryptor {
         return new KeyPair(pubKey, privKey);
     }
 
-    /**
-     * Left-pads a given message with padSize amount of zeros
-     *
-     * @param input the message to be padded
-     * @param padSize the amount of left-padding to apply
-     * @return the padded message
-     */
-    private byte[] pad(final byte[] input, final int padSize) {
-        final byte[] paddedMessage = new byte[padSize + input.length];
-        System.arraycopy(input, 0, paddedMessage, padSize, input.length);
-
-        return paddedMessage;
-    }
+    @Override
+    public SharedKey createSingleKey() {
+        final byte[] keyBytes = new byte[CRYPTO_BOX_CURVE25519XSALSA20POLY1305_PUBLICKEYBYTES];
 
-    /**
-     * Removes left-padding from a given message to tune of padSize
-     *
-     * @param input The message from which to remove left-padding
-     * @param padSize The amount of left-padding to remove
-     * @return The trimmed message
-     */
-    private byte[] extract(final byte[] input, final int padSize) {
-        final byte[] extractedMessage = new byte[input.length - padSize];
-        System.arraycopy(input, padSize, extractedMessage, 0, extractedMessage.length);
+        this.sodium.randombytes(keyBytes, keyBytes.length);
 
-        return extractedMessage;
+        return SharedKey.from(keyBytes);
     }
 
-    @Override
-    public SharedKey createSingleKey() {
-        LOGGER.info("Generating random key");
+    /** Padded arrays reused by each thread, up to a size above which they are allocated per call instead */
+    enum Scratch {
+        INPUT,
+        OUTPUT;
 
-        final byte[] keyBytes = new byte[CRYPTO_BOX_CURVE25519XSALSA20POLY1305_PUBLICKEYBYTES];
+        static final int MAX_RETAINED_LENGTH = 256 * 1024;
 
-        this.sodium.randombytes(keyBytes, keyBytes.length);
+        private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[0]);
 
-        final SharedKey key = SharedKey.from(keyBytes);
+        byte[] get(final int length) {
+            if (length > MAX_RETAINED_LENGTH) {
+                return new byte[length];
+            }
 
-        LOGGER.info("Random key generated");
-        LOGGER.debug("Generated key with value {}", key);
+            final byte[] current = buffer.get();
+            if (current.length >= length) {
+                return current;
+            }
 
-        return key;
+            final byte[] grown = new byte[length];
+            buffer.set(grown);
+            return grown;
+        }
     }
 }
@@ -7,6 +7,8 @@ import org.abstractj.kalium.NaCl;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -87,4 +89,35 @@ public class KaliumIT {
         final String decryptedMessage = new String(decryptedPayload, UTF_8);
         assertThat(decryptedMessage).isEqualTo(payload);
     }
+
+    @Test
+    public void sealIntoAndOpenIntoRoundTripThroughBuffers() {
+        final SharedKey sharedKey = kalium.computeSharedKey(keypairOne.getPublicKey(), keypairTwo.getPrivateKey());
+        final byte[] payload = "Hello world".getBytes(UTF_8);
+        final Nonce nonce = kalium.randomNonce();
+
+        final ByteBuffer sealed = ByteBuffer.allocateDirect(payload.length + kalium.sealOverhead());
+        kalium.sealInto(ByteBuffer.wrap(payload), sealed, nonce, sharedKey);
+        sealed.flip();
+
+        final byte[] sealedBytes = new byte[sealed.remaining()];
+        sealed.duplicate().get(sealedBytes);
+        assertThat(sealedBytes).isEqualTo(kalium.sealAfterPrecomputation(payload, nonce, sharedKey));
+
+        final ByteBuffer opened = ByteBuffer.allocate(payload.length);
+        kalium.openInto(sealed, opened, nonce, sharedKey);
+
+        assertThat(opened.array()).isEqualTo(payload);
+    }
+
+    @Test
+    public void payloadsLargerThanScratchArraysAreSealed() {
+        final SharedKey sharedKey = kalium.computeSharedKey(keypairOne.getPublicKey(), keypairTwo.getPrivateKey());
+        final byte[] payload = new byte[Kalium.Scratch.MAX_RETAINED_LENGTH + 1];
+        final Nonce nonce = kalium.randomNonce();
+
+        final byte[] sealed = kalium.sealAfterPrecomputation(payload, nonce, sharedKey);
+
+        assertThat(kalium.openAfterPrecomputation(sealed, nonce, sharedKey)).isEqualTo(payload);
+    }
 }
@@ -11,6 +11,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.abstractj.kalium.NaCl.Sodium.CRYPTO_BOX_CURVE25519XSALSA20POLY1305_BEFORENMBYTES;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -317,4 +320,101 @@ public class KaliumTest {
 
         verify(this.sodium).randombytes(any(byte[].class), eq(expectedKeysize));
     }
+
+    @Test
+    public void sealIntoFailsWhenOutputIsTooSmall() {
+        final ByteBuffer input = ByteBuffer.wrap(message);
+
+        final Throwable throwable =
+                catchThrowable(() -> kalium.sealInto(input, ByteBuffer.allocate(message.length), nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(BufferOverflowException.class);
+        assertThat(input.position()).isZero();
+    }
+
+    @Test
+    public void openIntoFailsWhenOutputIsTooSmall() {
+        final ByteBuffer input = ByteBuffer.wrap(new byte[100]);
+
+        final Throwable throwable =
+                catchThrowable(() -> kalium.openInto(input, ByteBuffer.allocate(10), nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(BufferOverflowException.class);
+        assertThat(input.position()).isZero();
+    }
+
+    @Test
+    public void failedSealIntoLeavesInputUnread() {
+        doReturn(-1)
+                .when(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_afternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+        final ByteBuffer input = ByteBuffer.wrap(message);
+        final ByteBuffer output = ByteBuffer.allocate(64);
+
+        final Throwable throwable = catchThrowable(() -> kalium.sealInto(input, output, nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(EncryptorException.class);
+        assertThat(input.position()).isZero();
+        assertThat(output.position()).isZero();
+
+        verify(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_afternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void failedOpenIntoLeavesInputUnread() {
+        doReturn(-1)
+                .when(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), eq(sharedKey.getKeyBytes()));
+
+        final ByteBuffer input = ByteBuffer.wrap(new byte[100]);
+        final ByteBuffer output = ByteBuffer.allocate(100);
+
+        final Throwable throwable = catchThrowable(() -> kalium.openInto(input, output, nonce, sharedKey));
+
+        assertThat(throwable).isInstanceOf(EncryptorException.class);
+        assertThat(input.position()).isZero();
+        assertThat(output.position()).isZero();
+
+        verify(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_open_afternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+    }
+
+    @Test
+    public void sealIntoPadsMessageForSodium() {
+        final ByteBuffer output = ByteBuffer.allocate(message.length + kalium.sealOverhead());
+
+        final int written = kalium.sealInto(ByteBuffer.wrap(message), output, nonce, sharedKey);
+
+        assertThat(written).isEqualTo(message.length + 16);
+        assertThat(output.hasRemaining()).isFalse();
+
+        verify(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_afternm(
+                        any(byte[].class),
+                        any(byte[].class),
+                        eq(message.length + 32),
+                        any(byte[].class),
+                        any(byte[].class));
+    }
+
+    @Test
+    public void payloadsLargerThanScratchArraysUseNewArrays() {
+        final byte[] largeMessage = new byte[Kalium.Scratch.MAX_RETAINED_LENGTH];
+
+        final byte[] sealed = kalium.sealAfterPrecomputation(largeMessage, nonce, sharedKey);
+
+        assertThat(sealed).hasSize(largeMessage.length + 16);
+        assertThat(Kalium.Scratch.INPUT.get(Kalium.Scratch.MAX_RETAINED_LENGTH + 1))
+                .isNotSameAs(Kalium.Scratch.INPUT.get(Kalium.Scratch.MAX_RETAINED_LENGTH + 1));
+
+        verify(this.sodium)
+                .crypto_box_curve25519xsalsa20poly1305_afternm(
+                        any(byte[].class), any(byte[].class), anyInt(), any(byte[].class), any(byte[].class));
+    }
 }
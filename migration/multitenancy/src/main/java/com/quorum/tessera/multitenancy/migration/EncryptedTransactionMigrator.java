@@ -2,59 +2,112 @@ package com.quorum.tessera.multitenancy.migration;
 
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class EncryptedTransactionMigrator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedTransactionMigrator.class);
+
+    private static final String CHECKPOINT_PREFIX = "encrypted";
+
     private final EncryptedTransactionDAO primary;
 
     private final EncryptedTransactionDAO secondary;
 
     private final PayloadEncoder payloadEncoder;
 
-    private final int maxBatchSize = 100;
+    private final int maxBatchSize;
+
+    private final int partitions;
+
+    private final MigrationCheckpoint checkpoint;
 
     public EncryptedTransactionMigrator(
             final EncryptedTransactionDAO primary,
             final EncryptedTransactionDAO secondary,
             final PayloadEncoder payloadEncoder) {
+        this(primary, secondary, payloadEncoder, 100, 1, MigrationCheckpoint.inMemory());
+    }
+
+    public EncryptedTransactionMigrator(
+            final EncryptedTransactionDAO primary,
+            final EncryptedTransactionDAO secondary,
+            final PayloadEncoder payloadEncoder,
+            final int maxBatchSize,
+            final int partitions,
+            final MigrationCheckpoint checkpoint) {
         this.primary = Objects.requireNonNull(primary);
         this.secondary = Objects.requireNonNull(secondary);
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
+        this.maxBatchSize = maxBatchSize;
+        this.partitions = partitions;
+        this.checkpoint = Objects.requireNonNull(checkpoint);
     }
 
     public void migrate() {
-        final long secondaryTxCount = secondary.transactionCount();
-        final int batchCount = calculateBatchCount(maxBatchSize, secondaryTxCount);
-
-        IntStream.range(0, batchCount)
-                .map(i -> i * maxBatchSize)
-                .mapToObj(offset -> secondary.retrieveTransactions(offset, maxBatchSize))
-                .flatMap(List::stream)
-                .forEach(
-                        et -> {
-                            final Optional<EncryptedTransaction> existing = primary.retrieveByHash(et.getHash());
-                            if (existing.isEmpty()) {
-                                primary.save(et);
-                                return;
-                            }
-
-                            final EncryptedTransaction outerTx = existing.get();
-
-                            final EncodedPayload primaryTx = payloadEncoder.decode(outerTx.getEncodedPayload());
-                            final EncodedPayload secondaryTx = payloadEncoder.decode(et.getEncodedPayload());
-
-                            final EncodedPayload updatedPayload = this.handleSingleTransaction(primaryTx, secondaryTx);
-
-                            final byte[] updatedEncoded = payloadEncoder.encode(updatedPayload);
-                            outerTx.setEncodedPayload(updatedEncoded);
-                            primary.update(outerTx);
-                        });
+        HashRange.forEachInParallel(partitions, this::migrateRange);
+    }
+
+    private void migrateRange(final HashRange range) {
+        final String checkpointKey = CHECKPOINT_PREFIX + "." + partitions + "." + range.getIndex();
+
+        MessageHash lastMigrated = checkpoint.lastMigrated(checkpointKey).orElse(range.getAfter());
+        List<EncryptedTransaction> batch;
+        do {
+            batch = secondary.retrieveTransactionsByHashRange(lastMigrated, range.getUpTo(), maxBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            this.migrateBatch(batch);
+
+            lastMigrated = batch.get(batch.size() - 1).getHash();
+            checkpoint.record(checkpointKey, lastMigrated);
+            LOGGER.debug("Migrated {} transactions up to {}", batch.size(), lastMigrated);
+        } while (batch.size() == maxBatchSize);
+    }
+
+    private void migrateBatch(final List<EncryptedTransaction> batch) {
+        final List<MessageHash> hashes = batch.stream().map(EncryptedTransaction::getHash).collect(Collectors.toList());
+
+        final Map<MessageHash, EncryptedTransaction> existing =
+                primary.findByHashes(hashes).stream()
+                        .collect(Collectors.toMap(EncryptedTransaction::getHash, Function.identity()));
+
+        final List<EncryptedTransaction> newTransactions = new ArrayList<>();
+        final List<EncryptedTransaction> updatedTransactions = new ArrayList<>();
+        for (final EncryptedTransaction et : batch) {
+            final EncryptedTransaction outerTx = existing.get(et.getHash());
+            if (outerTx == null) {
+                newTransactions.add(et);
+                continue;
+            }
+
+            // an identical payload has nothing to merge, e.g. when a batch is replayed after an interruption
+            if (Arrays.equals(outerTx.getEncodedPayload(), et.getEncodedPayload())) {
+                continue;
+            }
+
+            final EncodedPayload primaryTx = payloadEncoder.decode(outerTx.getEncodedPayload());
+            final EncodedPayload secondaryTx = payloadEncoder.decode(et.getEncodedPayload());
+
+            final EncodedPayload updatedPayload = this.handleSingleTransaction(primaryTx, secondaryTx);
+
+            outerTx.setEncodedPayload(payloadEncoder.encode(updatedPayload), updatedPayload);
+            updatedTransactions.add(outerTx);
+        }
+
+        if (!newTransactions.isEmpty() || !updatedTransactions.isEmpty()) {
+            primary.saveAll(newTransactions, updatedTransactions);
+        }
     }
 
     public EncodedPayload handleSingleTransaction(final EncodedPayload primaryTx, final EncodedPayload secondaryTx) {
@@ -78,10 +131,18 @@ public class EncryptedTransactionMigrator {
             return secondaryTx;
         }
 
-        final List<PublicKey> recipients = new ArrayList<>(primaryTx.getRecipientKeys());
-        // remove the public keys from secondary
         final List<PublicKey> secondaryRecipients =
                 secondaryTx.getRecipientKeys().subList(0, secondaryTx.getRecipientBoxes().size());
+        // already merged when a page is migrated again because its checkpoint was not recorded
+        if (primaryTx
+                .getRecipientKeys()
+                .subList(0, primaryTx.getRecipientBoxes().size())
+                .containsAll(secondaryRecipients)) {
+            return primaryTx;
+        }
+
+        final List<PublicKey> recipients = new ArrayList<>(primaryTx.getRecipientKeys());
+        // remove the public keys from secondary
         recipients.removeAll(secondaryRecipients);
         recipients.addAll(0, secondaryRecipients);
 
@@ -103,11 +164,9 @@ public class EncryptedTransactionMigrator {
             return secondaryTx;
         }
 
-        List<PublicKey> recipients = new ArrayList<>(primaryTx.getRecipientKeys());
-        recipients.addAll(secondaryTx.getRecipientKeys());
+        List<PublicKey> recipients = union(primaryTx.getRecipientKeys(), secondaryTx.getRecipientKeys());
 
-        List<RecipientBox> boxes = new ArrayList<>(primaryTx.getRecipientBoxes());
-        boxes.addAll(secondaryTx.getRecipientBoxes());
+        List<RecipientBox> boxes = union(primaryTx.getRecipientBoxes(), secondaryTx.getRecipientBoxes());
 
         return EncodedPayload.Builder.from(primaryTx)
                 .withAffectedContractTransactions(combineAcoths(primaryTx, secondaryTx))
@@ -126,11 +185,9 @@ public class EncryptedTransactionMigrator {
         }
 
         if (primaryTx.getRecipientKeys().isEmpty() && secondaryTx.getRecipientKeys().isEmpty()) {
-            List<PublicKey> recipients = new ArrayList<>(primaryTx.getRecipientKeys());
-            recipients.addAll(secondaryTx.getRecipientKeys());
+            List<PublicKey> recipients = union(primaryTx.getRecipientKeys(), secondaryTx.getRecipientKeys());
 
-            List<RecipientBox> boxes = new ArrayList<>(primaryTx.getRecipientBoxes());
-            boxes.addAll(secondaryTx.getRecipientBoxes());
+            List<RecipientBox> boxes = union(primaryTx.getRecipientBoxes(), secondaryTx.getRecipientBoxes());
 
             return EncodedPayload.Builder.from(primaryTx)
                     .withNewRecipientKeys(recipients)
@@ -139,11 +196,9 @@ public class EncryptedTransactionMigrator {
         }
 
         if (!primaryTx.getRecipientKeys().isEmpty() && !secondaryTx.getRecipientKeys().isEmpty()) {
-            final List<PublicKey> recipients = new ArrayList<>(primaryTx.getRecipientKeys());
-            recipients.addAll(secondaryTx.getRecipientKeys());
+            final List<PublicKey> recipients = union(primaryTx.getRecipientKeys(), secondaryTx.getRecipientKeys());
 
-            final List<RecipientBox> boxes = new ArrayList<>(primaryTx.getRecipientBoxes());
-            boxes.addAll(secondaryTx.getRecipientBoxes());
+            final List<RecipientBox> boxes = union(primaryTx.getRecipientBoxes(), secondaryTx.getRecipientBoxes());
 
             return EncodedPayload.Builder.from(primaryTx)
                     .withNewRecipientKeys(recipients)
@@ -159,6 +214,20 @@ public class EncryptedTransactionMigrator {
         return secondaryTx;
     }
 
+    /*
+     * Appends what the primary does not already have, so that merging a page again after its checkpoint was lost
+     * leaves the merged transaction as it was.
+     */
+    private static <T> List<T> union(final List<T> primary, final List<T> secondary) {
+        final List<T> union = new ArrayList<>(primary);
+        for (final T element : secondary) {
+            if (!union.contains(element)) {
+                union.add(element);
+            }
+        }
+        return union;
+    }
+
     static Map<TxHash, byte[]> combineAcoths(final EncodedPayload primaryTx, final EncodedPayload secondaryTx) {
         final Map<TxHash, SecurityHash> combinedAffectedTxs =
                 new HashMap<>(primaryTx.getAffectedContractTransactions());
@@ -167,8 +236,4 @@ public class EncryptedTransactionMigrator {
         return combinedAffectedTxs.entrySet().stream()
                 .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().getData()));
     }
-
-    static int calculateBatchCount(long maxResults, long total) {
-        return (int) Math.ceil((double) total / maxResults);
-    }
 }
@@ -0,0 +1,100 @@
+package com.quorum.tessera.multitenancy.migration;
+
+import com.quorum.tessera.data.MessageHash;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A contiguous range of transaction hashes, bounded by an exclusive lower hash and an inclusive upper hash. A null
+ * bound means the range is open on that side.
+ */
+final class HashRange {
+
+    private final int index;
+
+    private final MessageHash after;
+
+    private final MessageHash upTo;
+
+    HashRange(final int index, final MessageHash after, final MessageHash upTo) {
+        this.index = index;
+        this.after = after;
+        this.upTo = upTo;
+    }
+
+    /**
+     * Splits the whole hash space into the given number of disjoint ranges.
+     *
+     * <p>The boundaries are single bytes below 0x80, so the ranges stay disjoint and cover every hash whether the
+     * database compares binary values as signed or unsigned bytes.
+     *
+     * @param partitions the number of ranges to create, between 1 and 128
+     * @return the ranges in ascending order
+     */
+    static List<HashRange> split(final int partitions) {
+        if (partitions < 1 || partitions > 128) {
+            throw new IllegalArgumentException("Partition count must be between 1 and 128");
+        }
+
+        final List<HashRange> ranges = new ArrayList<>(partitions);
+        MessageHash lower = null;
+        for (int i = 1; i < partitions; i++) {
+            final MessageHash boundary = new MessageHash(new byte[] {(byte) (i * 128 / partitions)});
+            ranges.add(new HashRange(i - 1, lower, boundary));
+            lower = boundary;
+        }
+        ranges.add(new HashRange(partitions - 1, lower, null));
+        return List.copyOf(ranges);
+    }
+
+    /**
+     * Splits the hash space into the given number of ranges and runs the action for each range on its own thread,
+     * waiting for all of them to complete. The first failure is rethrown and the remaining ranges are interrupted.
+     *
+     * @param partitions the number of ranges to process concurrently
+     * @param action the work to run for each range
+     */
+    static void forEachInParallel(final int partitions, final Consumer<HashRange> action) {
+        final List<HashRange> ranges = split(partitions);
+        final ExecutorService executorService = Executors.newFixedThreadPool(partitions);
+        try {
+            final List<Future<?>> futures =
+                    ranges.stream()
+                            .map(range -> executorService.submit(() -> action.accept(range)))
+                            .collect(Collectors.toList());
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for migration to complete", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    MessageHash getAfter() {
+        return after;
+    }
+
+    MessageHash getUpTo() {
+        return upTo;
+    }
+}
@@ -0,0 +1,72 @@
+package com.quorum.tessera.multitenancy.migration;
+
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.io.IOCallback;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Records the hash of the last migrated transaction for each hash range, so an interrupted migration can resume after
+ * it instead of starting again. When backed by a file, progress is written after every committed batch.
+ */
+public class MigrationCheckpoint {
+
+    private final Path file;
+
+    private final Properties progress;
+
+    private MigrationCheckpoint(final Path file, final Properties progress) {
+        this.file = file;
+        this.progress = Objects.requireNonNull(progress);
+    }
+
+    public static MigrationCheckpoint inMemory() {
+        return new MigrationCheckpoint(null, new Properties());
+    }
+
+    public static MigrationCheckpoint load(final Path file) {
+        final Properties progress = new Properties();
+        if (Files.exists(file)) {
+            IOCallback.execute(
+                    () -> {
+                        try (InputStream in = Files.newInputStream(file)) {
+                            progress.load(in);
+                        }
+                        return null;
+                    });
+        }
+        return new MigrationCheckpoint(file, progress);
+    }
+
+    public synchronized Optional<MessageHash> lastMigrated(final String key) {
+        return Optional.ofNullable(progress.getProperty(key))
+                .map(Base64.getDecoder()::decode)
+                .map(MessageHash::new);
+    }
+
+    public synchronized void record(final String key, final MessageHash hash) {
+        progress.setProperty(key, Base64.getEncoder().encodeToString(hash.getHashBytes()));
+
+        if (Objects.isNull(file)) {
+            return;
+        }
+
+        // write to a sibling file first so a crash mid-write never leaves a truncated checkpoint
+        final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        IOCallback.execute(
+                () -> {
+                    try (OutputStream out = Files.newOutputStream(tempFile)) {
+                        progress.store(out, null);
+                    }
+                    return Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+                });
+    }
+}
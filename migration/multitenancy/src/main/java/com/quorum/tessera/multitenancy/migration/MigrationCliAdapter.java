@@ -7,6 +7,8 @@ import com.quorum.tessera.config.Config;
 import com.quorum.tessera.data.EntityManagerDAOFactory;
 import picocli.CommandLine;
 
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 @CommandLine.Command(
@@ -27,6 +29,17 @@ public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
             required = true)
     public Config configSecondary;
 
+    @CommandLine.Option(
+            names = "--partitions",
+            description = "number of hash ranges to migrate in parallel (1 to 128)",
+            defaultValue = "1")
+    public int partitions = 1;
+
+    @CommandLine.Option(
+            names = "--checkpoint",
+            description = "path to a file recording migration progress, used to resume an interrupted migration")
+    public Path checkpointFile;
+
     @Override
     public CliType getType() {
         return CliType.MULTITENANCY_MIGRATION;
@@ -37,7 +50,12 @@ public class MigrationCliAdapter implements CliAdapter, Callable<CliResult> {
         EntityManagerDAOFactory primaryFactory = EntityManagerDAOFactory.newFactory(configPrimary);
         EntityManagerDAOFactory secondaryFactory = EntityManagerDAOFactory.newFactory(configSecondary);
 
-        new MigrationRunner(primaryFactory, secondaryFactory).run();
+        final MigrationCheckpoint checkpoint =
+                Optional.ofNullable(checkpointFile)
+                        .map(MigrationCheckpoint::load)
+                        .orElseGet(MigrationCheckpoint::inMemory);
+
+        new MigrationRunner(primaryFactory, secondaryFactory, partitions, checkpoint).run();
 
         return new CliResult(0, true, null);
     }
@@ -7,20 +7,36 @@ import java.util.Objects;
 
 public class MigrationRunner {
 
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final EntityManagerDAOFactory primary;
 
     private final EntityManagerDAOFactory secondary;
 
-    public MigrationRunner(final EntityManagerDAOFactory primary, final EntityManagerDAOFactory secondary) {
+    private final int partitions;
+
+    private final MigrationCheckpoint checkpoint;
+
+    public MigrationRunner(
+            final EntityManagerDAOFactory primary,
+            final EntityManagerDAOFactory secondary,
+            final int partitions,
+            final MigrationCheckpoint checkpoint) {
         this.primary = Objects.requireNonNull(primary);
         this.secondary = Objects.requireNonNull(secondary);
+        this.partitions = partitions;
+        this.checkpoint = Objects.requireNonNull(checkpoint);
     }
 
     public void run() {
         // migrate raw
         final RawTransactionMigrator rawMigrator =
                 new RawTransactionMigrator(
-                        primary.createEncryptedRawTransactionDAO(), secondary.createEncryptedRawTransactionDAO());
+                        primary.createEncryptedRawTransactionDAO(),
+                        secondary.createEncryptedRawTransactionDAO(),
+                        MAX_BATCH_SIZE,
+                        partitions,
+                        checkpoint);
         rawMigrator.migrate();
 
         // migrate regular
@@ -28,7 +44,10 @@ public class MigrationRunner {
                 new EncryptedTransactionMigrator(
                         primary.createEncryptedTransactionDAO(),
                         secondary.createEncryptedTransactionDAO(),
-                        PayloadEncoder.create());
+                        PayloadEncoder.create(),
+                        MAX_BATCH_SIZE,
+                        partitions,
+                        checkpoint);
         etMigrator.migrate();
     }
 }
@@ -2,44 +2,84 @@ package com.quorum.tessera.multitenancy.migration;
 
 import com.quorum.tessera.data.EncryptedRawTransaction;
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class RawTransactionMigrator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RawTransactionMigrator.class);
+
+    private static final String CHECKPOINT_PREFIX = "raw";
+
     private final EncryptedRawTransactionDAO primary;
 
     private final EncryptedRawTransactionDAO secondary;
 
-    private final int maxBatchSize = 100;
+    private final int maxBatchSize;
+
+    private final int partitions;
+
+    private final MigrationCheckpoint checkpoint;
 
     public RawTransactionMigrator(
             final EncryptedRawTransactionDAO primary, final EncryptedRawTransactionDAO secondary) {
+        this(primary, secondary, 100, 1, MigrationCheckpoint.inMemory());
+    }
+
+    public RawTransactionMigrator(
+            final EncryptedRawTransactionDAO primary,
+            final EncryptedRawTransactionDAO secondary,
+            final int maxBatchSize,
+            final int partitions,
+            final MigrationCheckpoint checkpoint) {
         this.primary = Objects.requireNonNull(primary);
         this.secondary = Objects.requireNonNull(secondary);
+        this.maxBatchSize = maxBatchSize;
+        this.partitions = partitions;
+        this.checkpoint = Objects.requireNonNull(checkpoint);
     }
 
     public void migrate() {
-        final long secondaryTxCount = secondary.transactionCount();
-        final int batchCount = calculateBatchCount(maxBatchSize, secondaryTxCount);
-
-        IntStream.range(0, batchCount)
-                .map(i -> i * maxBatchSize)
-                .mapToObj(offset -> secondary.retrieveTransactions(offset, maxBatchSize))
-                .flatMap(List::stream)
-                .forEach(
-                        ert -> {
-                            final Optional<EncryptedRawTransaction> existing = primary.retrieveByHash(ert.getHash());
-                            if (existing.isEmpty()) {
-                                primary.save(ert);
-                            }
-                        });
+        HashRange.forEachInParallel(partitions, this::migrateRange);
     }
 
-    private static int calculateBatchCount(final long maxResults, final long total) {
-        return (int) Math.ceil((double) total / maxResults);
+    private void migrateRange(final HashRange range) {
+        final String checkpointKey = CHECKPOINT_PREFIX + "." + partitions + "." + range.getIndex();
+
+        MessageHash lastMigrated = checkpoint.lastMigrated(checkpointKey).orElse(range.getAfter());
+        List<EncryptedRawTransaction> batch;
+        do {
+            batch = secondary.retrieveTransactionsByHashRange(lastMigrated, range.getUpTo(), maxBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            this.migrateBatch(batch);
+
+            lastMigrated = batch.get(batch.size() - 1).getHash();
+            checkpoint.record(checkpointKey, lastMigrated);
+            LOGGER.debug("Migrated {} raw transactions up to {}", batch.size(), lastMigrated);
+        } while (batch.size() == maxBatchSize);
+    }
+
+    private void migrateBatch(final List<EncryptedRawTransaction> batch) {
+        final List<MessageHash> hashes =
+                batch.stream().map(EncryptedRawTransaction::getHash).collect(Collectors.toList());
+
+        final Set<MessageHash> existing =
+                primary.findByHashes(hashes).stream().map(EncryptedRawTransaction::getHash).collect(Collectors.toSet());
+
+        final List<EncryptedRawTransaction> newTransactions =
+                batch.stream().filter(ert -> !existing.contains(ert.getHash())).collect(Collectors.toList());
+
+        if (!newTransactions.isEmpty()) {
+            primary.saveAll(newTransactions);
+        }
     }
 }
@@ -11,7 +11,6 @@ import org.junit.Test;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -47,38 +46,103 @@ public class EncryptedTransactionMigratorTest {
         final EncryptedTransaction testTx = new EncryptedTransaction();
         testTx.setHash(testTxHash);
 
-        when(secondaryDao.transactionCount()).thenReturn(1L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx));
-        when(primaryDao.retrieveByHash(testTxHash)).thenReturn(Optional.empty());
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(testTx));
+        when(primaryDao.findByHashes(List.of(testTxHash))).thenReturn(List.of());
 
         migrator.migrate();
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(testTxHash);
-        verify(primaryDao).save(testTx);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(testTxHash));
+        verify(primaryDao).saveAll(List.of(testTx), List.of());
     }
 
     @Test
-    public void multipleBatchesForLargeCounts() {
-        final MessageHash testTxHash = new MessageHash("testHash".getBytes());
-        final EncryptedTransaction testTx = new EncryptedTransaction();
-        testTx.setHash(testTxHash);
+    public void emptySecondaryDoesNothing() {
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of());
+
+        migrator.migrate();
+
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+    }
+
+    @Test
+    public void fullBatchFetchesNextPageAfterLastHash() {
+        final MessageHash firstHash = new MessageHash("hash1".getBytes());
+        final EncryptedTransaction firstTx = new EncryptedTransaction(firstHash, "payload1".getBytes());
+
+        final MessageHash secondHash = new MessageHash("hash2".getBytes());
+        final EncryptedTransaction secondTx = new EncryptedTransaction(secondHash, "payload2".getBytes());
+
+        final MessageHash thirdHash = new MessageHash("hash3".getBytes());
+        final EncryptedTransaction thirdTx = new EncryptedTransaction(thirdHash, "payload3".getBytes());
+
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.inMemory();
+        final EncryptedTransactionMigrator pagedMigrator =
+                new EncryptedTransactionMigrator(primaryDao, secondaryDao, payloadEncoder, 2, 1, checkpoint);
+
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 2)).thenReturn(List.of(firstTx, secondTx));
+        when(secondaryDao.retrieveTransactionsByHashRange(secondHash, null, 2)).thenReturn(List.of(thirdTx));
+        when(primaryDao.findByHashes(List.of(firstHash, secondHash))).thenReturn(List.of());
+        when(primaryDao.findByHashes(List.of(thirdHash))).thenReturn(List.of());
+
+        pagedMigrator.migrate();
+
+        assertThat(checkpoint.lastMigrated("encrypted.1.0")).contains(thirdHash);
+
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 2);
+        verify(secondaryDao).retrieveTransactionsByHashRange(secondHash, null, 2);
+        verify(primaryDao).findByHashes(List.of(firstHash, secondHash));
+        verify(primaryDao).findByHashes(List.of(thirdHash));
+        verify(primaryDao).saveAll(List.of(firstTx, secondTx), List.of());
+        verify(primaryDao).saveAll(List.of(thirdTx), List.of());
+    }
+
+    @Test
+    public void resumesFromCheckpoint() {
+        final MessageHash checkpointedHash = new MessageHash("hash1".getBytes());
+
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.inMemory();
+        checkpoint.record("encrypted.1.0", checkpointedHash);
+
+        final EncryptedTransactionMigrator resumedMigrator =
+                new EncryptedTransactionMigrator(primaryDao, secondaryDao, payloadEncoder, 100, 1, checkpoint);
+
+        when(secondaryDao.retrieveTransactionsByHashRange(checkpointedHash, null, 100)).thenReturn(List.of());
+
+        resumedMigrator.migrate();
+
+        verify(secondaryDao).retrieveTransactionsByHashRange(checkpointedHash, null, 100);
+    }
+
+    @Test
+    public void partitionsAreMigratedSeparately() {
+        final EncryptedTransactionMigrator partitionedMigrator =
+                new EncryptedTransactionMigrator(
+                        primaryDao, secondaryDao, payloadEncoder, 100, 2, MigrationCheckpoint.inMemory());
+
+        final MessageHash boundary = new MessageHash(new byte[] {64});
+        when(secondaryDao.retrieveTransactionsByHashRange(any(), any(), eq(100))).thenReturn(List.of());
 
-        when(secondaryDao.transactionCount()).thenReturn(201L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx));
-        when(secondaryDao.retrieveTransactions(100, 100)).thenReturn(List.of(testTx));
-        when(secondaryDao.retrieveTransactions(200, 100)).thenReturn(List.of(testTx));
-        when(primaryDao.retrieveByHash(testTxHash)).thenReturn(Optional.empty());
+        partitionedMigrator.migrate();
+
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, boundary, 100);
+        verify(secondaryDao).retrieveTransactionsByHashRange(boundary, null, 100);
+    }
+
+    @Test
+    public void identicalPayloadIsNotUpdated() {
+        final MessageHash txHash = new MessageHash("testHash".getBytes());
+        final EncryptedTransaction primaryDbTx = new EncryptedTransaction(txHash, "payload".getBytes());
+        final EncryptedTransaction secondaryDbTx = new EncryptedTransaction(txHash, "payload".getBytes());
+
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(secondaryDbTx));
+        when(primaryDao.findByHashes(List.of(txHash))).thenReturn(List.of(primaryDbTx));
 
         migrator.migrate();
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(secondaryDao).retrieveTransactions(100, 100);
-        verify(secondaryDao).retrieveTransactions(200, 100);
-        verify(primaryDao, times(3)).retrieveByHash(testTxHash);
-        verify(primaryDao, times(3)).save(testTx);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(txHash));
+        verifyNoInteractions(payloadEncoder);
     }
 
     @Test
@@ -91,17 +155,15 @@ public class EncryptedTransactionMigratorTest {
         final EncryptedTransaction testTx2 = new EncryptedTransaction();
         testTx2.setHash(testTxHash2);
 
-        when(secondaryDao.transactionCount()).thenReturn(2L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx, testTx2));
-        when(primaryDao.retrieveByHash(testTxHash)).thenThrow(RuntimeException.class);
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(testTx, testTx2));
+        when(primaryDao.findByHashes(List.of(testTxHash, testTxHash2))).thenThrow(RuntimeException.class);
 
         final Throwable throwable = catchThrowable(migrator::migrate);
 
         assertThat(throwable).isInstanceOf(RuntimeException.class);
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(testTxHash);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(testTxHash, testTxHash2));
     }
 
     @Test
@@ -139,9 +201,8 @@ public class EncryptedTransactionMigratorTest {
         when(payloadEncoder.decode("payload1".getBytes())).thenReturn(primaryPayload);
         when(payloadEncoder.decode("payload2".getBytes())).thenReturn(secondaryPayload);
         when(payloadEncoder.encode(secondaryPayload)).thenReturn("updatedPayload".getBytes());
-        when(secondaryDao.transactionCount()).thenReturn(1L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(secondaryDbTx));
-        when(primaryDao.retrieveByHash(txHash)).thenReturn(Optional.of(primaryDbTx));
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(secondaryDbTx));
+        when(primaryDao.findByHashes(List.of(txHash))).thenReturn(List.of(primaryDbTx));
 
         migrator.migrate();
 
@@ -151,10 +212,9 @@ public class EncryptedTransactionMigratorTest {
         verify(payloadEncoder).decode("payload1".getBytes());
         verify(payloadEncoder).decode("payload2".getBytes());
         verify(payloadEncoder).encode(secondaryPayload);
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(txHash);
-        verify(primaryDao).update(primaryDbTx);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(txHash));
+        verify(primaryDao).saveAll(List.of(), List.of(primaryDbTx));
     }
 
     @Test
@@ -573,4 +633,109 @@ public class EncryptedTransactionMigratorTest {
 
         assertThat(result).isEqualToComparingFieldByFieldRecursively(secondaryPayload);
     }
+
+    @Test
+    public void psvTxMergedAgainIsUnchanged() {
+        final PublicKey sender = PublicKey.from("sender".getBytes());
+        final PublicKey recipient1 = PublicKey.from("recipient1".getBytes());
+        final PublicKey recipient2 = PublicKey.from("recipient2".getBytes());
+        final PublicKey recipient3 = PublicKey.from("recipient3".getBytes());
+
+        final EncodedPayload primaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .withSenderKey(sender)
+                        .withNewRecipientKeys(List.of(recipient1, sender, recipient2, recipient3))
+                        .withRecipientBoxes(List.of("box1".getBytes()))
+                        .build();
+        final EncodedPayload secondaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .withSenderKey(sender)
+                        .withNewRecipientKeys(List.of(recipient2, sender, recipient1, recipient3))
+                        .withRecipientBox("box2".getBytes())
+                        .build();
+
+        final EncodedPayload merged = migrator.handleSingleTransaction(primaryPayload, secondaryPayload);
+        final EncodedPayload mergedAgain = migrator.handleSingleTransaction(merged, secondaryPayload);
+
+        assertThat(merged.getRecipientBoxes()).hasSize(2);
+        assertThat(mergedAgain).isEqualToComparingFieldByFieldRecursively(merged);
+    }
+
+    @Test
+    public void ppTxMergedAgainIsUnchanged() {
+        final PublicKey sender = PublicKey.from("sender".getBytes());
+
+        final EncodedPayload primaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+                        .withSenderKey(sender)
+                        .withNewRecipientKeys(List.of(PublicKey.from("recipient1".getBytes())))
+                        .withRecipientBoxes(List.of("box1".getBytes()))
+                        .build();
+        final EncodedPayload secondaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+                        .withSenderKey(sender)
+                        .withNewRecipientKeys(List.of(PublicKey.from("recipient2".getBytes())))
+                        .withRecipientBox("box2".getBytes())
+                        .build();
+
+        final EncodedPayload merged = migrator.handleSingleTransaction(primaryPayload, secondaryPayload);
+        final EncodedPayload mergedAgain = migrator.handleSingleTransaction(merged, secondaryPayload);
+
+        assertThat(merged.getRecipientKeys()).hasSize(2);
+        assertThat(mergedAgain).isEqualToComparingFieldByFieldRecursively(merged);
+    }
+
+    @Test
+    public void spPETxMergedAgainIsUnchanged() {
+        final PublicKey sender = PublicKey.from("sender".getBytes());
+
+        final EncodedPayload primaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withSenderKey(sender)
+                        .withRecipientKey(PublicKey.from("recipient1".getBytes()))
+                        .withRecipientBox("box1".getBytes())
+                        .build();
+        final EncodedPayload secondaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withSenderKey(sender)
+                        .withRecipientKey(PublicKey.from("recipient2".getBytes()))
+                        .withRecipientBox("box2".getBytes())
+                        .build();
+
+        final EncodedPayload merged = migrator.handleSingleTransaction(primaryPayload, secondaryPayload);
+        final EncodedPayload mergedAgain = migrator.handleSingleTransaction(merged, secondaryPayload);
+
+        assertThat(merged.getRecipientKeys()).hasSize(2);
+        assertThat(mergedAgain).isEqualToComparingFieldByFieldRecursively(merged);
+    }
+
+    @Test
+    public void spPrePETxMergedAgainIsUnchanged() {
+        final PublicKey sender = PublicKey.from("sender".getBytes());
+
+        final EncodedPayload primaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withSenderKey(sender)
+                        .withRecipientBoxes(List.of("box1".getBytes()))
+                        .build();
+        final EncodedPayload secondaryPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withSenderKey(sender)
+                        .withRecipientBox("box2".getBytes())
+                        .build();
+
+        final EncodedPayload merged = migrator.handleSingleTransaction(primaryPayload, secondaryPayload);
+        final EncodedPayload mergedAgain = migrator.handleSingleTransaction(merged, secondaryPayload);
+
+        assertThat(merged.getRecipientBoxes()).hasSize(2);
+        assertThat(mergedAgain).isEqualToComparingFieldByFieldRecursively(merged);
+    }
 }
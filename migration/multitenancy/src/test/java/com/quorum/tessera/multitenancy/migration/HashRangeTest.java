@@ -0,0 +1,105 @@
+package com.quorum.tessera.multitenancy.migration;
+
+import com.quorum.tessera.data.MessageHash;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class HashRangeTest {
+
+    @Test
+    public void singlePartitionCoversEverything() {
+        final List<HashRange> ranges = HashRange.split(1);
+
+        assertThat(ranges).hasSize(1);
+        assertThat(ranges.get(0).getIndex()).isZero();
+        assertThat(ranges.get(0).getAfter()).isNull();
+        assertThat(ranges.get(0).getUpTo()).isNull();
+    }
+
+    @Test
+    public void boundariesAreContiguousAndBelowSignBit() {
+        final List<HashRange> ranges = HashRange.split(4);
+
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0).getAfter()).isNull();
+        assertThat(ranges.get(0).getUpTo()).isEqualTo(new MessageHash(new byte[] {32}));
+        assertThat(ranges.get(1).getAfter()).isEqualTo(new MessageHash(new byte[] {32}));
+        assertThat(ranges.get(1).getUpTo()).isEqualTo(new MessageHash(new byte[] {64}));
+        assertThat(ranges.get(2).getAfter()).isEqualTo(new MessageHash(new byte[] {64}));
+        assertThat(ranges.get(2).getUpTo()).isEqualTo(new MessageHash(new byte[] {96}));
+        assertThat(ranges.get(3).getAfter()).isEqualTo(new MessageHash(new byte[] {96}));
+        assertThat(ranges.get(3).getUpTo()).isNull();
+        assertThat(ranges).extracting(HashRange::getIndex).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void invalidPartitionCounts() {
+        assertThat(catchThrowable(() -> HashRange.split(0))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(catchThrowable(() -> HashRange.split(129))).isInstanceOf(IllegalArgumentException.class);
+        assertThat(HashRange.split(128)).hasSize(128);
+    }
+
+    @Test
+    public void forEachInParallelVisitsEveryRange() {
+        final Set<Integer> visited = ConcurrentHashMap.newKeySet();
+
+        HashRange.forEachInParallel(3, range -> visited.add(range.getIndex()));
+
+        assertThat(visited).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    public void forEachInParallelRethrowsRuntimeException() {
+        final Throwable throwable =
+                catchThrowable(
+                        () ->
+                                HashRange.forEachInParallel(
+                                        2,
+                                        range -> {
+                                            throw new IllegalStateException("OUCH");
+                                        }));
+
+        assertThat(throwable).isInstanceOf(IllegalStateException.class).hasMessage("OUCH");
+    }
+
+    @Test
+    public void forEachInParallelRethrowsError() {
+        final Throwable throwable =
+                catchThrowable(
+                        () ->
+                                HashRange.forEachInParallel(
+                                        1,
+                                        range -> {
+                                            throw new AssertionError("OUCH");
+                                        }));
+
+        assertThat(throwable).isInstanceOf(AssertionError.class).hasMessage("OUCH");
+    }
+
+    @Test
+    public void forEachInParallelInterrupted() {
+        Thread.currentThread().interrupt();
+
+        final Throwable throwable =
+                catchThrowable(
+                        () ->
+                                HashRange.forEachInParallel(
+                                        1,
+                                        range -> {
+                                            try {
+                                                Thread.sleep(10000);
+                                            } catch (InterruptedException ex) {
+                                                Thread.currentThread().interrupt();
+                                            }
+                                        }));
+
+        assertThat(throwable).isInstanceOf(IllegalStateException.class);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+}
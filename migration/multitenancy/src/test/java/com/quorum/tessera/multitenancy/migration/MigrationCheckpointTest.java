@@ -0,0 +1,57 @@
+package com.quorum.tessera.multitenancy.migration;
+
+import com.quorum.tessera.data.MessageHash;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class MigrationCheckpointTest {
+
+    @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void inMemoryCheckpointStartsEmpty() {
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.inMemory();
+
+        assertThat(checkpoint.lastMigrated("encrypted.1.0")).isEmpty();
+
+        final MessageHash hash = new MessageHash("hash".getBytes());
+        checkpoint.record("encrypted.1.0", hash);
+
+        assertThat(checkpoint.lastMigrated("encrypted.1.0")).contains(hash);
+        assertThat(checkpoint.lastMigrated("raw.1.0")).isEmpty();
+    }
+
+    @Test
+    public void progressIsReloadedFromFile() throws Exception {
+        final Path file = tempFolder.getRoot().toPath().resolve("migration.properties");
+
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.load(file);
+        assertThat(checkpoint.lastMigrated("raw.2.1")).isEmpty();
+
+        final MessageHash hash = new MessageHash("hash".getBytes());
+        checkpoint.record("raw.2.1", hash);
+
+        assertThat(file).exists();
+        assertThat(Files.exists(file.resolveSibling("migration.properties.tmp"))).isFalse();
+
+        final MigrationCheckpoint reloaded = MigrationCheckpoint.load(file);
+        assertThat(reloaded.lastMigrated("raw.2.1")).contains(hash);
+    }
+
+    @Test
+    public void unreadableFileThrowsUncheckedException() throws Exception {
+        final Path directory = tempFolder.newFolder().toPath();
+
+        final Throwable throwable = catchThrowable(() -> MigrationCheckpoint.load(directory));
+
+        assertThat(throwable).isInstanceOf(UncheckedIOException.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.quorum.tessera.multitenancy.migration;
 
+import com.quorum.tessera.cli.CliResult;
 import com.quorum.tessera.cli.CliType;
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.JdbcConfig;
@@ -9,6 +10,8 @@ import com.quorum.tessera.data.EntityManagerDAOFactory;
 import com.quorum.tessera.data.MessageHash;
 import org.junit.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -71,4 +74,45 @@ public class MigrationCliAdapterTest {
         assertThat(newlySavedEt.get().getHash()).isEqualTo(secondaryTx.getHash());
         assertThat(newlySavedEt.get().getEncodedPayload()).isEqualTo(secondaryTx.getEncodedPayload());
     }
+
+    @Test
+    public void partitionedMigrationRecordsCheckpoint() throws Exception {
+        final EncryptedTransaction secondaryTx =
+                new EncryptedTransaction(new MessageHash(new byte[] {100, 1}), "sampleencodedpayload".getBytes());
+
+        final Config primaryConfig = new Config();
+        final JdbcConfig jdbc1 = new JdbcConfig("sa", "", "jdbc:h2:mem:partitionedprimary;DB_CLOSE_DELAY=-1");
+        jdbc1.setAutoCreateTables(true);
+        primaryConfig.setJdbcConfig(jdbc1);
+
+        final Config secondaryConfig = new Config();
+        final JdbcConfig jdbc2 = new JdbcConfig("sa", "", "jdbc:h2:mem:partitionedsecondary;DB_CLOSE_DELAY=-1");
+        jdbc2.setAutoCreateTables(true);
+        secondaryConfig.setJdbcConfig(jdbc2);
+
+        EntityManagerDAOFactory.newFactory(secondaryConfig).createEncryptedTransactionDAO().save(secondaryTx);
+
+        final Path checkpointFile = Files.createTempFile("migration", ".properties");
+        Files.delete(checkpointFile);
+
+        final MigrationCliAdapter adapter = new MigrationCliAdapter();
+        adapter.configPrimary = primaryConfig;
+        adapter.configSecondary = secondaryConfig;
+        adapter.partitions = 4;
+        adapter.checkpointFile = checkpointFile;
+        final CliResult result = adapter.call();
+
+        assertThat(result.getStatus()).isZero();
+
+        final Optional<EncryptedTransaction> migrated =
+                EntityManagerDAOFactory.newFactory(primaryConfig)
+                        .createEncryptedTransactionDAO()
+                        .retrieveByHash(secondaryTx.getHash());
+        assertThat(migrated).isPresent();
+
+        assertThat(MigrationCheckpoint.load(checkpointFile).lastMigrated("encrypted.4.3"))
+                .contains(secondaryTx.getHash());
+
+        Files.delete(checkpointFile);
+    }
 }
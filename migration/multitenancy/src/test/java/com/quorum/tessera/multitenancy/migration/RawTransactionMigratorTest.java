@@ -8,7 +8,6 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
@@ -41,38 +40,64 @@ public class RawTransactionMigratorTest {
         final EncryptedRawTransaction testTx = new EncryptedRawTransaction();
         testTx.setHash(testTxHash);
 
-        when(secondaryDao.transactionCount()).thenReturn(1L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx));
-        when(primaryDao.retrieveByHash(testTxHash)).thenReturn(Optional.empty());
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(testTx));
+        when(primaryDao.findByHashes(List.of(testTxHash))).thenReturn(List.of());
 
         migrator.migrate();
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(testTxHash);
-        verify(primaryDao).save(testTx);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(testTxHash));
+        verify(primaryDao).saveAll(List.of(testTx));
     }
 
     @Test
-    public void multipleBatchesForLargeCounts() {
-        final MessageHash testTxHash = new MessageHash("testHash".getBytes());
-        final EncryptedRawTransaction testTx = new EncryptedRawTransaction();
-        testTx.setHash(testTxHash);
+    public void fullBatchFetchesNextPageAfterLastHash() {
+        final MessageHash firstHash = new MessageHash("hash1".getBytes());
+        final EncryptedRawTransaction firstTx = new EncryptedRawTransaction();
+        firstTx.setHash(firstHash);
+
+        final MessageHash secondHash = new MessageHash("hash2".getBytes());
+        final EncryptedRawTransaction secondTx = new EncryptedRawTransaction();
+        secondTx.setHash(secondHash);
+
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.inMemory();
+        final RawTransactionMigrator pagedMigrator =
+                new RawTransactionMigrator(primaryDao, secondaryDao, 1, 1, checkpoint);
+
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 1)).thenReturn(List.of(firstTx));
+        when(secondaryDao.retrieveTransactionsByHashRange(firstHash, null, 1)).thenReturn(List.of(secondTx));
+        when(secondaryDao.retrieveTransactionsByHashRange(secondHash, null, 1)).thenReturn(List.of());
+        when(primaryDao.findByHashes(List.of(firstHash))).thenReturn(List.of());
+        when(primaryDao.findByHashes(List.of(secondHash))).thenReturn(List.of());
+
+        pagedMigrator.migrate();
+
+        assertThat(checkpoint.lastMigrated("raw.1.0")).contains(secondHash);
+
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 1);
+        verify(secondaryDao).retrieveTransactionsByHashRange(firstHash, null, 1);
+        verify(secondaryDao).retrieveTransactionsByHashRange(secondHash, null, 1);
+        verify(primaryDao).findByHashes(List.of(firstHash));
+        verify(primaryDao).findByHashes(List.of(secondHash));
+        verify(primaryDao).saveAll(List.of(firstTx));
+        verify(primaryDao).saveAll(List.of(secondTx));
+    }
 
-        when(secondaryDao.transactionCount()).thenReturn(201L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx));
-        when(secondaryDao.retrieveTransactions(100, 100)).thenReturn(List.of(testTx));
-        when(secondaryDao.retrieveTransactions(200, 100)).thenReturn(List.of(testTx));
-        when(primaryDao.retrieveByHash(testTxHash)).thenReturn(Optional.empty());
+    @Test
+    public void resumesFromCheckpoint() {
+        final MessageHash checkpointedHash = new MessageHash("hash1".getBytes());
 
-        migrator.migrate();
+        final MigrationCheckpoint checkpoint = MigrationCheckpoint.inMemory();
+        checkpoint.record("raw.1.0", checkpointedHash);
+
+        final RawTransactionMigrator resumedMigrator =
+                new RawTransactionMigrator(primaryDao, secondaryDao, 100, 1, checkpoint);
+
+        when(secondaryDao.retrieveTransactionsByHashRange(checkpointedHash, null, 100)).thenReturn(List.of());
+
+        resumedMigrator.migrate();
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(secondaryDao).retrieveTransactions(100, 100);
-        verify(secondaryDao).retrieveTransactions(200, 100);
-        verify(primaryDao, times(3)).retrieveByHash(testTxHash);
-        verify(primaryDao, times(3)).save(testTx);
+        verify(secondaryDao).retrieveTransactionsByHashRange(checkpointedHash, null, 100);
     }
 
     @Test
@@ -81,15 +106,13 @@ public class RawTransactionMigratorTest {
         final EncryptedRawTransaction testTx = new EncryptedRawTransaction();
         testTx.setHash(testTxHash);
 
-        when(secondaryDao.transactionCount()).thenReturn(1L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx));
-        when(primaryDao.retrieveByHash(testTxHash)).thenReturn(Optional.of(testTx));
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(testTx));
+        when(primaryDao.findByHashes(List.of(testTxHash))).thenReturn(List.of(testTx));
 
         migrator.migrate();
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(testTxHash);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(testTxHash));
     }
 
     @Test
@@ -102,16 +125,14 @@ public class RawTransactionMigratorTest {
         final EncryptedRawTransaction testTx2 = new EncryptedRawTransaction();
         testTx2.setHash(testTxHash2);
 
-        when(secondaryDao.transactionCount()).thenReturn(2L);
-        when(secondaryDao.retrieveTransactions(0, 100)).thenReturn(List.of(testTx, testTx2));
-        when(primaryDao.retrieveByHash(testTxHash)).thenThrow(RuntimeException.class);
+        when(secondaryDao.retrieveTransactionsByHashRange(null, null, 100)).thenReturn(List.of(testTx, testTx2));
+        when(primaryDao.findByHashes(List.of(testTxHash, testTxHash2))).thenThrow(RuntimeException.class);
 
         final Throwable throwable = catchThrowable(migrator::migrate);
 
         assertThat(throwable).isInstanceOf(RuntimeException.class);
 
-        verify(secondaryDao).transactionCount();
-        verify(secondaryDao).retrieveTransactions(0, 100);
-        verify(primaryDao).retrieveByHash(testTxHash);
+        verify(secondaryDao).retrieveTransactionsByHashRange(null, null, 100);
+        verify(primaryDao).findByHashes(List.of(testTxHash, testTxHash2));
     }
 }
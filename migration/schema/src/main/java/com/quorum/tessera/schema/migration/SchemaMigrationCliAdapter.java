@@ -0,0 +1,67 @@
+package com.quorum.tessera.schema.migration;
+
+import com.quorum.tessera.cli.CliAdapter;
+import com.quorum.tessera.cli.CliResult;
+import com.quorum.tessera.cli.CliType;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.data.EntityManagerDAOFactory;
+import com.quorum.tessera.data.SplitPayloadMigration;
+import picocli.CommandLine;
+
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(
+        headerHeading = "Usage:%n%n",
+        synopsisHeading = "%n",
+        descriptionHeading = "%nDescription:%n%n",
+        parameterListHeading = "%nParameters:%n",
+        optionListHeading = "%nOptions:%n",
+        header = "Copy transactions into the schema version 2 tables",
+        description =
+                "Copies transactions from ENCRYPTED_TRANSACTION into TX_INDEX and TX_PAYLOAD while the node keeps"
+                        + " running. Run it again after stopping the node, then set jdbc.schemaVersion to 2.")
+public class SchemaMigrationCliAdapter implements CliAdapter, Callable<CliResult> {
+
+    @CommandLine.Option(names = "--config", description = "path to node configuration file", required = true)
+    public Config config;
+
+    @CommandLine.Option(
+            names = "--pagesize",
+            description = "number of transactions copied in each database transaction",
+            defaultValue = "1000")
+    public int pageSize = 1000;
+
+    @CommandLine.Option(
+            names = "--passes",
+            description = "maximum number of scans for transactions stored while migrating",
+            defaultValue = "5")
+    public int passes = 5;
+
+    @Override
+    public CliType getType() {
+        return CliType.SCHEMA_MIGRATION;
+    }
+
+    @Override
+    public CliResult execute(String... args) {
+        // open the database with the new layout, so the new tables are created if the config creates tables
+        config.getJdbcConfig().setSchemaVersion(2);
+
+        final SplitPayloadMigration.Result result =
+                EntityManagerDAOFactory.newFactory(config).createSplitPayloadMigration(pageSize).migrate(passes);
+
+        System.out.printf(
+                "Transactions copied: %d, refreshed: %d, deleted: %d",
+                result.getCopied(),
+                result.getRefreshed(),
+                result.getDeleted());
+        System.out.println();
+
+        return new CliResult(0, true, null);
+    }
+
+    @Override
+    public CliResult call() {
+        return this.execute();
+    }
+}
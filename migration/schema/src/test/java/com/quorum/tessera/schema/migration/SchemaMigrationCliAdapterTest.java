@@ -0,0 +1,50 @@
+package com.quorum.tessera.schema.migration;
+
+import com.quorum.tessera.cli.CliResult;
+import com.quorum.tessera.cli.CliType;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.EntityManagerDAOFactory;
+import com.quorum.tessera.data.MessageHash;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchemaMigrationCliAdapterTest {
+
+    @Test
+    public void adapterType() {
+        assertThat(new SchemaMigrationCliAdapter().getType()).isEqualTo(CliType.SCHEMA_MIGRATION);
+    }
+
+    @Test
+    public void copiesTransactionsIntoSplitTables() {
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(
+                        new MessageHash("encryptedTransactionHash".getBytes()), "sampleencodedpayload".getBytes());
+
+        final Config config = new Config();
+        final JdbcConfig jdbcConfig = new JdbcConfig("sa", "", "jdbc:h2:mem:schemamigration;DB_CLOSE_DELAY=-1");
+        jdbcConfig.setAutoCreateTables(true);
+        config.setJdbcConfig(jdbcConfig);
+
+        EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO().save(transaction);
+
+        final SchemaMigrationCliAdapter adapter = new SchemaMigrationCliAdapter();
+        adapter.config = config;
+        final CliResult result = adapter.call();
+
+        assertThat(result.getStatus()).isZero();
+        assertThat(jdbcConfig.getSchemaVersion()).isEqualTo(2);
+
+        final EncryptedTransactionDAO migratedDAO = EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+        final Optional<EncryptedTransaction> migrated = migratedDAO.retrieveByHash(transaction.getHash());
+        assertThat(migrated).isPresent();
+        assertThat(migrated.get().getEncodedPayload()).isEqualTo(transaction.getEncodedPayload());
+        assertThat(migratedDAO.transactionCount()).isEqualTo(1);
+    }
+}
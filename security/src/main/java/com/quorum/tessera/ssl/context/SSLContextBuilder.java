@@ -23,6 +23,15 @@ public class SSLContextBuilder {
 
     private static final String PROTOCOL = "TLS";
 
+    /** Number of sessions each side of a connection keeps so that peers can resume them */
+    static final int SESSION_CACHE_SIZE = 1000;
+
+    /**
+     * Seconds a session can be resumed for. A resumed session skips the trust manager, so this also bounds how long a
+     * peer removed from the known hosts can keep reconnecting.
+     */
+    static final int SESSION_TIMEOUT = 3600;
+
     private String address;
 
     private Path keyStore;
@@ -67,7 +76,15 @@ public class SSLContextBuilder {
         return this;
     }
 
+    /**
+     * Returns the context, with session caches sized so repeated connections to the same peers resume their sessions
+     * rather than making a full handshake each time.
+     */
     public SSLContext build() {
+        sslContext.getClientSessionContext().setSessionCacheSize(SESSION_CACHE_SIZE);
+        sslContext.getClientSessionContext().setSessionTimeout(SESSION_TIMEOUT);
+        sslContext.getServerSessionContext().setSessionCacheSize(SESSION_CACHE_SIZE);
+        sslContext.getServerSessionContext().setSessionTimeout(SESSION_TIMEOUT);
         return sslContext;
     }
 
@@ -5,35 +5,46 @@ import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.X509TrustManager;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
-import java.util.HashMap;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
 import java.util.Map;
-import java.util.Objects;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Base for trust managers that check certificates against a known hosts file. Handshakes may check certificates
+ * concurrently, so the known hosts are held in a concurrent map and new hosts are written to the file in the
+ * background.
+ */
 abstract class AbstractTrustManager implements X509TrustManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractTrustManager.class);
 
+    private static final int MAX_CACHED_THUMBPRINTS = 256;
+
+    private static final ThumbprintCache THUMBPRINTS = new ThumbprintCache(MAX_CACHED_THUMBPRINTS);
+
     private Path knownHostsFile;
 
     private Map<String, String> certificates;
 
+    private KnownHostsWriter knownHostsWriter;
+
     AbstractTrustManager(final Path knownHostsFile) throws IOException {
         this.knownHostsFile = knownHostsFile;
-        certificates = new HashMap<>();
+        this.knownHostsWriter = new KnownHostsWriter(knownHostsFile);
+        certificates = new ConcurrentHashMap<>();
         getWhiteListedCertificateForServerAddress();
     }
 
-    AbstractTrustManager(){
-    }
+    AbstractTrustManager() {}
 
     private void getWhiteListedCertificateForServerAddress() throws IOException {
 
-        if (knownHostsFile.toFile().exists()){
+        if (knownHostsFile.toFile().exists()) {
             try (BufferedReader reader = Files.newBufferedReader(knownHostsFile)) {
                 String line;
                 while ((line = reader.readLine()) != null) {
@@ -44,32 +55,26 @@ abstract class AbstractTrustManager implements X509TrustManager {
         }
     }
 
-    private void generateWhiteListedFileIfNotExisted() throws IOException {
-
-        if (!knownHostsFile.toFile().exists()) {
+    /**
+     * Adds the address to the known hosts, unless a concurrent handshake has already added it.
+     *
+     * @return whether the address was added with this thumbprint
+     */
+    boolean addServerToKnownHostsList(String address, String thumbPrint) throws IOException {
+        knownHostsWriter.checkWritable();
 
-            final Path parentDirectory = knownHostsFile.getParent();
-
-            if (Objects.nonNull(parentDirectory) && !parentDirectory.toFile().exists()) {
-                Files.createDirectory(parentDirectory);
-            }
-
-            Files.createFile(knownHostsFile);
+        if (this.certificates.putIfAbsent(address, thumbPrint) != null) {
+            return false;
         }
-    }
 
-    void addServerToKnownHostsList(String address, String thumbPrint) throws IOException {
         LOGGER.info("Add entry to known host file");
+        knownHostsWriter.append(address, thumbPrint);
+        return true;
+    }
 
-        generateWhiteListedFileIfNotExisted();
-
-        this.certificates.put(address, thumbPrint);
-
-        try (BufferedWriter writer = Files.newBufferedWriter(knownHostsFile, StandardOpenOption.APPEND))
-        {
-            writer.write(address + " " + thumbPrint);
-            writer.newLine();
-        }
+    /** Waits until the known hosts added so far have been written to the file */
+    void flushKnownHosts() throws InterruptedException, ExecutionException {
+        knownHostsWriter.flush();
     }
 
     boolean certificateExistsInKnownHosts(String address) {
@@ -77,7 +82,10 @@ abstract class AbstractTrustManager implements X509TrustManager {
     }
 
     boolean certificateValidForKnownHost(String address, String thumbPrint) {
-        return this.certificates.get(address).equals(thumbPrint);
+        return thumbPrint.equals(this.certificates.get(address));
     }
 
+    static String thumbPrint(X509Certificate certificate) throws CertificateException {
+        return THUMBPRINTS.thumbPrint(certificate);
+    }
 }
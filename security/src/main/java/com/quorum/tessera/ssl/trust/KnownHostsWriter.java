@@ -0,0 +1,150 @@
+package com.quorum.tessera.ssl.trust;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends entries to a known hosts file on a background thread, so that a handshake adding a new host does not wait for
+ * the file to be written. Entries are written in the order they are added.
+ *
+ * <p>The file is created, and checked to be writable, before an entry is accepted, so a known hosts file that can never
+ * be written still fails the handshake that tries to add to it. An entry that still fails to be written is kept and
+ * written again with the next one, and {@link #flush()} fails while any entry remains unwritten.
+ *
+ * <p>The writer thread is a daemon, so entries still queued when the JVM exits are written by a shutdown hook before
+ * they are lost. Entries added once the writer has shut down are written on the calling thread.
+ */
+class KnownHostsWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnownHostsWriter.class);
+
+    private static final ExecutorService WRITER =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "known-hosts-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(WRITER), "known-hosts-shutdown"));
+    }
+
+    private final Path knownHostsFile;
+
+    private final ExecutorService writer;
+
+    // only used on the writer thread
+    private final Deque<String> unwritten = new ArrayDeque<>();
+
+    KnownHostsWriter(final Path knownHostsFile) {
+        this(knownHostsFile, WRITER);
+    }
+
+    KnownHostsWriter(final Path knownHostsFile, final ExecutorService writer) {
+        this.knownHostsFile = Objects.requireNonNull(knownHostsFile);
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    /** Writes the entries already queued, waiting a few seconds at most, and stops accepting new ones */
+    static void shutdown(final ExecutorService writer) {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Known hosts entries were still being written after {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    synchronized void checkWritable() throws IOException {
+        if (!knownHostsFile.toFile().exists()) {
+
+            final Path parentDirectory = knownHostsFile.getParent();
+
+            if (Objects.nonNull(parentDirectory) && !parentDirectory.toFile().exists()) {
+                Files.createDirectory(parentDirectory);
+            }
+
+            Files.createFile(knownHostsFile);
+        }
+
+        if (!Files.isWritable(knownHostsFile)) {
+            throw new IOException("Known hosts file " + knownHostsFile + " is not writable");
+        }
+    }
+
+    void append(final String address, final String thumbPrint) throws IOException {
+        final String entry = address + " " + thumbPrint;
+        try {
+            writer.execute(() -> add(entry));
+        } catch (RejectedExecutionException ex) {
+            // the writer has shut down with the JVM, so the entry is written here rather than lost
+            write(List.of(entry));
+        }
+    }
+
+    private void add(final String entry) {
+        unwritten.add(entry);
+        try {
+            writeUnwritten();
+        } catch (IOException ex) {
+            LOGGER.error(
+                    "Failed to add {} entries to known hosts file {}, they are written with the next entry",
+                    unwritten.size(),
+                    knownHostsFile,
+                    ex);
+        }
+    }
+
+    /**
+     * Waits until the entries appended so far have been written, trying again to write any that failed.
+     *
+     * @throws ExecutionException caused by the {@link IOException} if an entry could still not be written
+     */
+    void flush() throws InterruptedException, ExecutionException {
+        writer.submit(
+                        () -> {
+                            writeUnwritten();
+                            return null;
+                        })
+                .get();
+    }
+
+    private void writeUnwritten() throws IOException {
+        if (unwritten.isEmpty()) {
+            return;
+        }
+        write(unwritten);
+        // only dropped once written, an entry written twice after a partial failure is read back the same
+        unwritten.clear();
+    }
+
+    private void write(final Collection<String> entries) throws IOException {
+        try (BufferedWriter fileWriter = Files.newBufferedWriter(knownHostsFile, StandardOpenOption.APPEND)) {
+            for (final String entry : entries) {
+                fileWriter.write(entry);
+                fileWriter.newLine();
+            }
+        }
+    }
+}
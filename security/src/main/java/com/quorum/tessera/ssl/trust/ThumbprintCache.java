@@ -0,0 +1,52 @@
+package com.quorum.tessera.ssl.trust;
+
+import com.quorum.tessera.ssl.util.CertificateUtil;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of certificate thumbprints, so that a peer that connects repeatedly does not have its
+ * certificate hashed on every handshake. Certificates are equal when their encoded forms are, so a certificate that is
+ * parsed again for a new connection still finds its cached thumbprint.
+ */
+class ThumbprintCache {
+
+    private final CertificateUtil certificateUtil = CertificateUtil.create();
+
+    private final Map<X509Certificate, String> thumbPrints;
+
+    ThumbprintCache(final int maxEntries) {
+        this.thumbPrints =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(final Map.Entry<X509Certificate, String> eldest) {
+                        return size() > maxEntries;
+                    }
+                };
+    }
+
+    String thumbPrint(final X509Certificate certificate) throws CertificateException {
+        synchronized (thumbPrints) {
+            final String cached = thumbPrints.get(certificate);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // hash outside the lock, two threads hashing the same certificate at once both get the same result
+        final String thumbPrint = certificateUtil.thumbPrint(certificate);
+        synchronized (thumbPrints) {
+            thumbPrints.put(certificate, thumbPrint);
+        }
+        return thumbPrint;
+    }
+
+    int size() {
+        synchronized (thumbPrints) {
+            return thumbPrints.size();
+        }
+    }
+}
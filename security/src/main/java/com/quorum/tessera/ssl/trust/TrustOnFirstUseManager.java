@@ -1,6 +1,5 @@
 package com.quorum.tessera.ssl.trust;
 
-import com.quorum.tessera.ssl.util.CertificateUtil;
 import org.cryptacular.util.CertUtil;
 
 import java.io.IOException;
@@ -31,19 +30,23 @@ public class TrustOnFirstUseManager extends AbstractTrustManager {
 
     private void checkTrusted(X509Certificate[] x509Certificates) throws CertificateException {
         final X509Certificate certificate = x509Certificates[0];
-        final String thumbPrint = CertificateUtil.create().thumbPrint(certificate);
+        final String thumbPrint = thumbPrint(certificate);
         final String address = CertUtil.subjectCN(certificate);
 
         if (!certificateExistsInKnownHosts(address)) {
             try {
-                addServerToKnownHostsList(address, thumbPrint);
+                if (addServerToKnownHostsList(address, thumbPrint)) {
+                    return;
+                }
             } catch (IOException ex) {
-                throw new CertificateException("Failed to save address and certificate fingerprint to whitelist. Cause by ", ex);
-            }
-        } else {
-            if (!certificateValidForKnownHost(address, thumbPrint)) {
-                throw new CertificateException("This address has been associated with a different certificate");
+                throw new CertificateException(
+                        "Failed to save address and certificate fingerprint to whitelist. Cause by ", ex);
             }
         }
+
+        // another handshake may have added the address first, in which case its certificate has to match
+        if (!certificateValidForKnownHost(address, thumbPrint)) {
+            throw new CertificateException("This address has been associated with a different certificate");
+        }
     }
 }
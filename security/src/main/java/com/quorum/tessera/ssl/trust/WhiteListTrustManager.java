@@ -1,6 +1,5 @@
 package com.quorum.tessera.ssl.trust;
 
-import com.quorum.tessera.ssl.util.CertificateUtil;
 import org.cryptacular.util.CertUtil;
 
 import java.io.IOException;
@@ -29,14 +28,13 @@ public class WhiteListTrustManager extends AbstractTrustManager {
         return new X509Certificate[0];
     }
 
-    private void checkTrusted(X509Certificate[] x509Certificates) throws CertificateException{
+    private void checkTrusted(X509Certificate[] x509Certificates) throws CertificateException {
         final X509Certificate certificate = x509Certificates[0];
-        final String thumbPrint = CertificateUtil.create().thumbPrint(certificate);
+        final String thumbPrint = thumbPrint(certificate);
         final String address = CertUtil.subjectCN(certificate);
 
         if (!certificateValidForKnownHost(address, thumbPrint)) {
             throw new CertificateException("Connections not allowed");
         }
     }
-
 }
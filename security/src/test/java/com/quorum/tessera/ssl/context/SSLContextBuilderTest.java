@@ -193,4 +193,20 @@ public class SSLContextBuilderTest {
                 .isNotNull()
                 .hasSize(1);
     }
+
+    @Test
+    public void testSessionCachesAreConfiguredForResumption()
+            throws GeneralSecurityException, IOException, OperatorCreationException {
+
+        final SSLContext sslContext = sslContextBuilder.forTrustOnFirstUse(knownHostFile).build();
+
+        assertThat(sslContext.getClientSessionContext().getSessionCacheSize())
+                .isEqualTo(SSLContextBuilder.SESSION_CACHE_SIZE);
+        assertThat(sslContext.getClientSessionContext().getSessionTimeout())
+                .isEqualTo(SSLContextBuilder.SESSION_TIMEOUT);
+        assertThat(sslContext.getServerSessionContext().getSessionCacheSize())
+                .isEqualTo(SSLContextBuilder.SESSION_CACHE_SIZE);
+        assertThat(sslContext.getServerSessionContext().getSessionTimeout())
+                .isEqualTo(SSLContextBuilder.SESSION_TIMEOUT);
+    }
 }
@@ -0,0 +1,119 @@
+package com.quorum.tessera.ssl.trust;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class KnownHostsWriterTest {
+
+    @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
+
+    @Test
+    public void entriesAreAppendedInOrder() throws Exception {
+        final Path knownHosts = tmpDir.getRoot().toPath().resolve("parent").resolve("knownHosts");
+        final KnownHostsWriter writer = new KnownHostsWriter(knownHosts);
+
+        writer.checkWritable();
+        assertThat(knownHosts).exists();
+
+        writer.append("first", "thumbprint1");
+        writer.append("second", "thumbprint2");
+        writer.flush();
+
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("first thumbprint1", "second thumbprint2");
+    }
+
+    @Test
+    public void failedWriteIsReportedAndWrittenWithNextEntry() throws Exception {
+        final Path knownHosts = tmpDir.getRoot().toPath().resolve("knownHosts");
+        final KnownHostsWriter writer = new KnownHostsWriter(knownHosts);
+
+        // the file is replaced by a directory after the check, so the write itself fails
+        writer.checkWritable();
+        Files.delete(knownHosts);
+        Files.createDirectory(knownHosts);
+
+        writer.append("first", "thumbprint1");
+
+        final Throwable throwable = catchThrowable(writer::flush);
+        assertThat(throwable).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IOException.class);
+
+        Files.delete(knownHosts);
+        writer.checkWritable();
+        writer.append("second", "thumbprint2");
+        writer.flush();
+
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("first thumbprint1", "second thumbprint2");
+    }
+
+    @Test
+    public void flushRetriesFailedWrite() throws Exception {
+        final Path knownHosts = tmpDir.getRoot().toPath().resolve("knownHosts");
+        final KnownHostsWriter writer = new KnownHostsWriter(knownHosts);
+
+        writer.checkWritable();
+        Files.delete(knownHosts);
+        Files.createDirectory(knownHosts);
+
+        writer.append("address", "thumbprint");
+        assertThat(catchThrowable(writer::flush)).isInstanceOf(ExecutionException.class);
+
+        Files.delete(knownHosts);
+        Files.createFile(knownHosts);
+        writer.flush();
+
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("address thumbprint");
+    }
+
+    @Test
+    public void queuedEntriesAreWrittenOnShutdown() throws Exception {
+        final Path knownHosts = tmpDir.getRoot().toPath().resolve("knownHosts");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final KnownHostsWriter writer = new KnownHostsWriter(knownHosts, executor);
+        writer.checkWritable();
+
+        // holds the writer thread, so the entries are still queued when it is shut down
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(
+                () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        writer.append("first", "thumbprint1");
+        writer.append("second", "thumbprint2");
+        assertThat(Files.readAllLines(knownHosts)).isEmpty();
+
+        release.countDown();
+        KnownHostsWriter.shutdown(executor);
+
+        assertThat(executor.isTerminated()).isTrue();
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("first thumbprint1", "second thumbprint2");
+    }
+
+    @Test
+    public void entryAddedAfterShutdownIsWrittenImmediately() throws Exception {
+        final Path knownHosts = tmpDir.getRoot().toPath().resolve("knownHosts");
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final KnownHostsWriter writer = new KnownHostsWriter(knownHosts, executor);
+        writer.checkWritable();
+
+        KnownHostsWriter.shutdown(executor);
+        writer.append("address", "thumbprint");
+
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("address thumbprint");
+    }
+}
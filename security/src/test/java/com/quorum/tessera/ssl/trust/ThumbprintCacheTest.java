@@ -0,0 +1,59 @@
+package com.quorum.tessera.ssl.trust;
+
+import com.quorum.tessera.ssl.util.CertificateUtil;
+import org.junit.Test;
+
+import java.security.cert.X509Certificate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ThumbprintCacheTest {
+
+    @Test
+    public void thumbPrintIsComputedOncePerCertificate() throws Exception {
+        final ThumbprintCache cache = new ThumbprintCache(2);
+
+        final X509Certificate certificate = mock(X509Certificate.class);
+        when(certificate.getEncoded()).thenReturn("certificate".getBytes(UTF_8));
+
+        final String expected = CertificateUtil.create().thumbPrint(certificate);
+
+        assertThat(cache.thumbPrint(certificate)).isEqualTo(expected);
+        assertThat(cache.thumbPrint(certificate)).isEqualTo(expected);
+
+        verify(certificate, times(2)).getEncoded();
+        verifyNoMoreInteractions(certificate);
+    }
+
+    @Test
+    public void leastRecentlyUsedCertificateIsEvicted() throws Exception {
+        final ThumbprintCache cache = new ThumbprintCache(2);
+
+        final X509Certificate first = certificate("first");
+        final X509Certificate second = certificate("second");
+        final X509Certificate third = certificate("third");
+
+        cache.thumbPrint(first);
+        cache.thumbPrint(second);
+        cache.thumbPrint(first);
+        cache.thumbPrint(third);
+
+        assertThat(cache.size()).isEqualTo(2);
+
+        // second was evicted, so it is hashed again, first was not
+        cache.thumbPrint(first);
+        cache.thumbPrint(second);
+
+        verify(first, times(1)).getEncoded();
+        verify(second, times(2)).getEncoded();
+        verify(third, times(1)).getEncoded();
+    }
+
+    private static X509Certificate certificate(String encoded) throws Exception {
+        final X509Certificate certificate = mock(X509Certificate.class);
+        when(certificate.getEncoded()).thenReturn(encoded.getBytes(UTF_8));
+        return certificate;
+    }
+}
@@ -1,5 +1,6 @@
 package com.quorum.tessera.ssl.trust;
 
+import com.quorum.tessera.ssl.util.CertificateUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -15,6 +16,12 @@ import java.nio.file.attribute.PosixFilePermissions;
 import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
@@ -23,8 +30,7 @@ import static org.mockito.Mockito.*;
 
 public class TrustOnFirstUseManagerTest {
 
-    @Rule
-    public TemporaryFolder tmpDir = new TemporaryFolder();
+    @Rule public TemporaryFolder tmpDir = new TemporaryFolder();
 
     private TrustOnFirstUseManager trustManager;
 
@@ -54,18 +60,80 @@ public class TrustOnFirstUseManagerTest {
 
         assertThat(Files.exists(knownHosts)).isFalse();
 
-        trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "s");
+        trustManager.checkServerTrusted(new X509Certificate[] {certificate}, "s");
 
         assertThat(Files.exists(knownHosts)).isTrue();
 
-        trustManager.checkClientTrusted(new X509Certificate[]{certificate}, "s");
-        verify(certificate, times(2)).getEncoded();
+        trustManager.checkClientTrusted(new X509Certificate[] {certificate}, "s");
+        verify(certificate).getEncoded();
         verify(certificate, times(2)).getSubjectX500Principal();
     }
 
+    @Test
+    public void testKnownHostIsWrittenToFile() throws Exception {
+        trustManager = new TrustOnFirstUseManager(knownHosts);
+
+        when(certificate.getEncoded()).thenReturn("certificate".getBytes(UTF_8));
+        when(certificate.getSubjectX500Principal()).thenReturn(new X500Principal("CN=localhost"));
+
+        trustManager.checkServerTrusted(new X509Certificate[] {certificate}, "s");
+        trustManager.flushKnownHosts();
+
+        final String thumbPrint = CertificateUtil.create().thumbPrint(certificate);
+        assertThat(Files.readAllLines(knownHosts)).containsExactly("localhost " + thumbPrint);
+
+        assertThat(new TrustOnFirstUseManager(knownHosts).certificateValidForKnownHost("localhost", thumbPrint))
+                .isTrue();
+
+        verify(certificate, times(2)).getEncoded();
+        verify(certificate).getSubjectX500Principal();
+    }
+
+    @Test
+    public void testOnlyFirstOfConcurrentCertificatesIsTrusted() throws Exception {
+        trustManager = new TrustOnFirstUseManager(knownHosts);
+
+        final int handshakes = 8;
+        final List<X509Certificate> certificates = new ArrayList<>();
+        for (int i = 0; i < handshakes; i++) {
+            X509Certificate other = mock(X509Certificate.class);
+            when(other.getEncoded()).thenReturn(("certificate" + i).getBytes(UTF_8));
+            when(other.getSubjectX500Principal()).thenReturn(new X500Principal("CN=concurrent"));
+            certificates.add(other);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(handshakes);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> results = new ArrayList<>();
+        for (X509Certificate other : certificates) {
+            results.add(
+                    executor.submit(
+                            () -> {
+                                start.await();
+                                try {
+                                    trustManager.checkServerTrusted(new X509Certificate[] {other}, "s");
+                                    return true;
+                                } catch (CertificateException ex) {
+                                    return false;
+                                }
+                            }));
+        }
+        start.countDown();
+
+        int trusted = 0;
+        for (Future<Boolean> result : results) {
+            trusted += result.get() ? 1 : 0;
+        }
+        executor.shutdown();
+        trustManager.flushKnownHosts();
+
+        assertThat(trusted).isEqualTo(1);
+        assertThat(Files.readAllLines(knownHosts)).hasSize(1);
+    }
+
     @Test
     public void testFailedToGenerateWhiteListFile() throws IOException, CertificateEncodingException {
-        Path anotherFile = Paths.get(tmpDir.getRoot().getPath(),"parent", "anotherFile");
+        Path anotherFile = Paths.get(tmpDir.getRoot().getPath(), "parent", "anotherFile");
         tmpDir.getRoot().setWritable(false);
 
         trustManager = new TrustOnFirstUseManager(anotherFile);
@@ -75,12 +143,12 @@ public class TrustOnFirstUseManagerTest {
         when(certificate.getSubjectX500Principal()).thenReturn(cn);
 
         try {
-            trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "str");
+            trustManager.checkServerTrusted(new X509Certificate[] {certificate}, "str");
             failBecauseExceptionWasNotThrown(IOException.class);
         } catch (Exception ex) {
             assertThat(ex)
-                .isInstanceOf(CertificateException.class)
-                .hasMessageContaining("Failed to save address and certificate fingerprint to whitelist");
+                    .isInstanceOf(CertificateException.class)
+                    .hasMessageContaining("Failed to save address and certificate fingerprint to whitelist");
         }
 
         verify(certificate).getEncoded();
@@ -99,7 +167,7 @@ public class TrustOnFirstUseManagerTest {
 
         assertThat(Files.exists(anotherFile)).isFalse();
 
-        trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "str");
+        trustManager.checkServerTrusted(new X509Certificate[] {certificate}, "str");
 
         assertThat(Files.exists(anotherFile)).isTrue();
 
@@ -109,7 +177,6 @@ public class TrustOnFirstUseManagerTest {
         Files.deleteIfExists(anotherFile);
 
         assertThat(Files.exists(anotherFile)).isFalse();
-
     }
 
     @Test
@@ -128,8 +195,8 @@ public class TrustOnFirstUseManagerTest {
         when(certificate.getSubjectX500Principal()).thenReturn(cn);
 
         try {
-            trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "s");
-            trustManager.checkClientTrusted(new X509Certificate[]{certificate}, "s");
+            trustManager.checkServerTrusted(new X509Certificate[] {certificate}, "s");
+            trustManager.checkClientTrusted(new X509Certificate[] {certificate}, "s");
 
             failBecauseExceptionWasNotThrown(CertificateException.class);
         } catch (Exception ex) {
@@ -141,22 +208,23 @@ public class TrustOnFirstUseManagerTest {
     public void testCertificateNotValidForRecognisedAddress() throws CertificateException, IOException {
         testAddThumbPrintToKnownHostsList();
 
-        when(certificate.getEncoded()).thenReturn("ADifferentCertificate".getBytes(UTF_8));
+        X509Certificate otherCertificate = mock(X509Certificate.class);
+        when(otherCertificate.getEncoded()).thenReturn("ADifferentCertificate".getBytes(UTF_8));
         X500Principal cn = new X500Principal("CN=localhost");
-        when(certificate.getSubjectX500Principal()).thenReturn(cn);
+        when(otherCertificate.getSubjectX500Principal()).thenReturn(cn);
 
         try {
-            trustManager.checkServerTrusted(new X509Certificate[]{certificate}, "str");
+            trustManager.checkServerTrusted(new X509Certificate[] {otherCertificate}, "str");
             failBecauseExceptionWasNotThrown(IOException.class);
         } catch (Exception ex) {
             assertThat(ex)
-                .isInstanceOf(CertificateException.class)
-                .hasMessageContaining("This address has been associated with a different certificate");
+                    .isInstanceOf(CertificateException.class)
+                    .hasMessageContaining("This address has been associated with a different certificate");
         }
 
-        verify(certificate, times(3)).getEncoded();
-        verify(certificate, times(3)).getSubjectX500Principal();
-
+        verify(otherCertificate).getEncoded();
+        verify(otherCertificate).getSubjectX500Principal();
+        verifyNoMoreInteractions(otherCertificate);
     }
 
     @Test
@@ -164,5 +232,4 @@ public class TrustOnFirstUseManagerTest {
         trustManager = new TrustOnFirstUseManager(knownHosts);
         assertThat(trustManager.getAcceptedIssuers()).isEmpty();
     }
-
 }
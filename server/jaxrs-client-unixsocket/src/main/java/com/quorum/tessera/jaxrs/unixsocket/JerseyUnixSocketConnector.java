@@ -1,34 +1,46 @@
 package com.quorum.tessera.jaxrs.unixsocket;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import org.glassfish.jersey.client.ClientRequest;
 import org.glassfish.jersey.client.ClientResponse;
 import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
 import org.glassfish.jersey.client.spi.Connector;
 import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.client.api.ContentProvider;
-import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
-import org.eclipse.jetty.client.util.BytesContentProvider;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.client.util.OutputStreamContentProvider;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.unixsocket.client.HttpClientTransportOverUnixSockets;
 import org.glassfish.jersey.message.internal.Statuses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends requests over a unix domain socket using the Jetty HTTP client, which keeps a pool of open connections to the
+ * socket and reuses them between requests.
+ *
+ * <p>Request entities are streamed to the socket as Jersey writes them, instead of being buffered first. Response
+ * entities are streamed back to the caller too, whether the request is synchronous or not. Asynchronous requests do not
+ * block the calling thread: the response is passed to the callback on one of the client's own threads once its headers
+ * have been received.
+ */
 public class JerseyUnixSocketConnector implements Connector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JerseyUnixSocketConnector.class);
@@ -42,7 +54,7 @@ public class JerseyUnixSocketConnector implements Connector {
         String unixFilePath = Paths.get(unixfile).toFile().getAbsolutePath();
 
         httpClient = new HttpClient(new HttpClientTransportOverUnixSockets(unixFilePath), null);
-        try{
+        try {
             httpClient.start();
         } catch (Exception ex) {
             throw new RuntimeException(ex);
@@ -52,97 +64,202 @@ public class JerseyUnixSocketConnector implements Connector {
     @Override
     public ClientResponse apply(ClientRequest request) {
 
-        try{
+        try {
             return doApply(request);
         } catch (Exception ex) {
             throw new ProcessingException(ex);
         }
-
     }
 
     private ClientResponse doApply(ClientRequest request) throws Exception {
 
+        final Request clientRequest = createRequest(request);
+        final InputStreamResponseListener listener = new InputStreamResponseListener();
+
+        send(request, clientRequest, listener);
+
+        // the request has no timeout of its own, so this returns once the response headers or a failure arrive
+        final Response response = listener.get(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        return toClientResponse(request, response, listener.getInputStream());
+    }
+
+    private Request createRequest(ClientRequest request) {
+
         HttpMethod httpMethod = HttpMethod.valueOf(request.getMethod());
         final URI originalUri = request.getUri();
         final URI uri;
         Path basePath = Paths.get(unixfile);
 
         if (originalUri.getScheme().startsWith("unix")) {
-            
-            String path = originalUri.getRawPath()
-                    .replaceFirst(basePath.toString(), "");
-
-            LOGGER.trace("Extracted path {} from {}",path, originalUri.getRawPath());
-
-            uri = UriBuilder.fromUri(originalUri)
-                    .replacePath(path)
-                    .scheme("http")
-                    .port(99)
-                    .host("localhost")
-                    .build();
-                        
-            LOGGER.trace("Created psuedo uri {} for originalUri {}", uri, originalUri);
-        } else {
-            uri = originalUri;
-        }
 
-        Request clientRequest = httpClient.newRequest(uri)
-                .method(httpMethod);
+            String path = originalUri.getRawPath().replaceFirst(basePath.toString(), "");
 
-        MultivaluedMap<String, Object> headers = request.getHeaders();
+            LOGGER.trace("Extracted path {} from {}", path, originalUri.getRawPath());
 
-        headers.keySet().stream().forEach(name -> {
-            headers.get(name).forEach(value -> {
-                clientRequest.header(name, Objects.toString(value));
-            });
+            uri = UriBuilder.fromUri(originalUri).replacePath(path).scheme("http").port(99).host("localhost").build();
 
-        });
+            LOGGER.trace("Created psuedo uri {} for originalUri {}", uri, originalUri);
+        } else {
+            uri = originalUri;
+        }
 
-        if (request.hasEntity()) {
-            final long length = request.getLengthLong();
+        return httpClient.newRequest(uri).method(httpMethod);
+    }
 
-            try (ByteArrayOutputStream bout = new ByteArrayOutputStream()){
+    private static void send(ClientRequest request, Request clientRequest, Response.CompleteListener listener)
+            throws IOException {
 
-                request.setStreamProvider((int contentLength) -> bout);
-                request.writeEntity();
+        if (!request.hasEntity()) {
+            copyHeaders(request, clientRequest);
+            clientRequest.send(listener);
+            return;
+        }
 
-                ContentProvider content = new BytesContentProvider(bout.toByteArray());
-                clientRequest.content(content);
-            }
+        // the headers are final once Jersey asks for the entity stream, so the request is started then and the
+        // entity is written to the socket while it is being serialised
+        final OutputStreamContentProvider content = new OutputStreamContentProvider();
+        request.setStreamProvider(
+                (int contentLength) -> {
+                    copyHeaders(request, clientRequest);
+                    clientRequest.content(content).send(listener);
+                    return content.getOutputStream();
+                });
 
+        try {
+            request.writeEntity();
+        } catch (IOException | RuntimeException ex) {
+            clientRequest.abort(ex);
+            throw ex;
         }
-        final ContentResponse contentResponse = clientRequest.send();
+        content.close();
+    }
+
+    private static void copyHeaders(ClientRequest request, Request clientRequest) {
+        MultivaluedMap<String, Object> headers = request.getHeaders();
 
-        int statusCode = contentResponse.getStatus();
-        String reason = contentResponse.getReason();
+        headers.keySet().stream()
+                .forEach(
+                        name -> {
+                            headers.get(name)
+                                    .forEach(
+                                            value -> {
+                                                clientRequest.header(name, Objects.toString(value));
+                                            });
+                        });
+    }
 
-        LOGGER.trace("uri {}, method: {},statusCode:{},reason: {} ", uri, httpMethod, statusCode, reason);
+    private static ClientResponse toClientResponse(ClientRequest request, Response response, InputStream entity) {
 
-        final Response.StatusType status = Statuses.from(statusCode, reason);
+        int statusCode = response.getStatus();
+        String reason = response.getReason();
 
-        ClientResponse response = new ClientResponse(status, request);
-        contentResponse.getHeaders().stream()
-                .forEach(header -> {
-                    response.headers(header.getName(), (Object[]) header.getValues());
-                });
+        LOGGER.trace(
+                "uri {}, method: {},statusCode:{},reason: {} ",
+                response.getRequest().getURI(),
+                response.getRequest().getMethod(),
+                statusCode,
+                reason);
 
-        response.setEntityStream(new ByteArrayInputStream(contentResponse.getContent()));
-        return response;
+        ClientResponse clientResponse = new ClientResponse(Statuses.from(statusCode, reason), request);
+        response.getHeaders().stream()
+                .forEach(
+                        header -> {
+                            clientResponse.headers(header.getName(), (Object[]) header.getValues());
+                        });
 
+        clientResponse.setEntityStream(entity);
+        return clientResponse;
     }
 
     @Override
     public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
 
-        try{
-            callback.response(doApply(request));
+        final CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+
+        try {
+            final Request clientRequest = createRequest(request);
+            future.whenComplete(
+                    (response, ex) -> {
+                        if (ex instanceof CancellationException) {
+                            clientRequest.abort(ex);
+                        }
+                    });
+
+            send(
+                    request,
+                    clientRequest,
+                    new AsyncResponseListener(request, callback, future, httpClient.getExecutor()));
         } catch (IOException ex) {
-            callback.failure(new ProcessingException(ex));
+            fail(callback, future, new ProcessingException(ex));
         } catch (Throwable t) {
-            callback.failure(t);
+            fail(callback, future, t);
         }
 
-        return CompletableFuture.completedFuture(null);
+        return future;
+    }
+
+    // a request can fail more than once, for instance aborting it after its entity fails to be written also fails
+    // its response listener, but the callback is only told about whichever completes the request first
+    private static void fail(AsyncConnectorCallback callback, CompletableFuture<?> future, Throwable failure) {
+        if (future.completeExceptionally(failure)) {
+            callback.failure(failure);
+        }
+    }
+
+    private static void succeed(
+            AsyncConnectorCallback callback, CompletableFuture<ClientResponse> future, ClientResponse response) {
+        if (future.complete(response)) {
+            callback.response(response);
+        }
+    }
+
+    /**
+     * Completes the request once the response headers arrive, leaving the entity to be streamed as it is read. The
+     * thread that received the headers goes on to receive the entity, so the callback is run on another of the
+     * client's threads, where it may read the entity without blocking its delivery.
+     */
+    private static class AsyncResponseListener extends InputStreamResponseListener {
+
+        private final ClientRequest request;
+
+        private final AsyncConnectorCallback callback;
+
+        private final CompletableFuture<ClientResponse> future;
+
+        private final Executor executor;
+
+        AsyncResponseListener(
+                ClientRequest request,
+                AsyncConnectorCallback callback,
+                CompletableFuture<ClientResponse> future,
+                Executor executor) {
+            this.request = request;
+            this.callback = callback;
+            this.future = future;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onHeaders(Response response) {
+            super.onHeaders(response);
+
+            final InputStream entity = getInputStream();
+            try {
+                executor.execute(() -> succeed(callback, future, toClientResponse(request, response, entity)));
+            } catch (RejectedExecutionException ex) {
+                response.abort(ex);
+            }
+        }
+
+        @Override
+        public void onComplete(Result result) {
+            super.onComplete(result);
+
+            // a failure once the response has been passed on reaches the caller through the entity stream instead
+            if (result.isFailed()) {
+                fail(callback, future, new ProcessingException(result.getFailure()));
+            }
+        }
     }
 
     @Override
@@ -152,11 +269,10 @@ public class JerseyUnixSocketConnector implements Connector {
 
     @Override
     public void close() {
-        try{
+        try {
             httpClient.stop();
         } catch (Exception ex) {
 
         }
     }
-
 }
@@ -8,15 +8,28 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
 import java.net.URI;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 public class JerseyServerIT {
 
@@ -59,11 +72,11 @@ public class JerseyServerIT {
         payload.setValue("Hellow");
 
         Response result =
-            newClient(unixfile)
-                .target(unixfile)
-                .path("create")
-                .request()
-                .post(Entity.entity(payload, MediaType.APPLICATION_JSON));
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("create")
+                        .request()
+                        .post(Entity.entity(payload, MediaType.APPLICATION_JSON));
 
         assertThat(result.getStatus()).isEqualTo(201);
         assertThat(result.getLocation()).isNotNull();
@@ -87,13 +100,13 @@ public class JerseyServerIT {
         ClientConfig config = new ClientConfig();
         config.connectorProvider(new JerseyUnixSocketConnectorProvider());
         Response result =
-            newClient(unixfile)
-                .target(unixfile)
-                .path("sendraw")
-                .request()
-                .header("c11n-from", "/+UuD63zItL1EbjxkKUljMgG8Z1w0AJ8pNOR4iq2yQc=")
-                .header("c11n-to", "yGcjkFyZklTTXrn8+WIkYwicA2EGBn9wZFkctAad4X0=")
-                .post(Entity.entity("PAYLOAD".getBytes(), MediaType.APPLICATION_OCTET_STREAM_TYPE));
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("sendraw")
+                        .request()
+                        .header("c11n-from", "/+UuD63zItL1EbjxkKUljMgG8Z1w0AJ8pNOR4iq2yQc=")
+                        .header("c11n-to", "yGcjkFyZklTTXrn8+WIkYwicA2EGBn9wZFkctAad4X0=")
+                        .post(Entity.entity("PAYLOAD".getBytes(), MediaType.APPLICATION_OCTET_STREAM_TYPE));
 
         assertThat(result.getStatus()).isEqualTo(201);
     }
@@ -105,15 +118,132 @@ public class JerseyServerIT {
         config.connectorProvider(new JerseyUnixSocketConnectorProvider());
 
         Response result =
-            newClient(unixfile)
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("param")
+                        .queryParam("queryParam", "QueryParamValue")
+                        .request()
+                        .header("headerParam", "HeaderParamValue")
+                        .get();
+
+        assertThat(result.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    public void largeRequestEntity() {
+        byte[] payload = new byte[16 * 1024 * 1024];
+        new Random().nextBytes(payload);
+
+        Response result =
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("sendraw")
+                        .request()
+                        .post(Entity.entity(payload, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+
+        assertThat(result.getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    public void asyncGet() throws Exception {
+        Response result =
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("smallfile")
+                        .request()
+                        .async()
+                        .get()
+                        .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.getStatus()).isEqualTo(200);
+        assertThat(Base64.getDecoder().decode(result.readEntity(String.class))).hasSize(1024 * 10);
+    }
+
+    @Test
+    public void asyncPost() throws Exception {
+        SamplePayload payload = new SamplePayload();
+        payload.setValue("Hellow");
+
+        Response result =
+                newClient(unixfile)
+                        .target(unixfile)
+                        .path("create")
+                        .request()
+                        .async()
+                        .post(Entity.entity(payload, MediaType.APPLICATION_JSON))
+                        .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.getStatus()).isEqualTo(201);
+        assertThat(result.getLocation()).isNotNull();
+    }
+
+    @Test
+    public void asyncRequestToMissingSocketFails() {
+        URI missing = URI.create("unix:/tmp/missing.sock");
+
+        Future<Response> result = newClient(missing).target(missing).path("ping").request().async().get();
+
+        Throwable ex = catchThrowable(() -> result.get(10, TimeUnit.SECONDS));
+        assertThat(ex).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(ProcessingException.class);
+    }
+
+    @Test
+    public void asyncCallbackReadsStreamedEntity() throws Exception {
+        CompletableFuture<String> entity = new CompletableFuture<>();
+
+        newClient(unixfile)
                 .target(unixfile)
-                .path("param")
-                .queryParam("queryParam", "QueryParamValue")
+                .path("smallfile")
                 .request()
-                .header("headerParam", "HeaderParamValue")
-                .get();
+                .async()
+                .get(
+                        new InvocationCallback<String>() {
+                            @Override
+                            public void completed(String response) {
+                                entity.complete(response);
+                            }
+
+                            @Override
+                            public void failed(Throwable throwable) {
+                                entity.completeExceptionally(throwable);
+                            }
+                        });
+
+        assertThat(Base64.getDecoder().decode(entity.get(10, TimeUnit.SECONDS))).hasSize(1024 * 10);
+    }
 
-        assertThat(result.getStatus()).isEqualTo(200);
+    @Test
+    public void asyncRequestWithFailingEntityFailsOnce() throws Exception {
+        StreamingOutput failingEntity =
+                output -> {
+                    output.write(new byte[1024]);
+                    throw new IOException("entity failed");
+                };
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        newClient(unixfile)
+                .target(unixfile)
+                .path("sendraw")
+                .request()
+                .async()
+                .post(
+                        Entity.entity(failingEntity, MediaType.APPLICATION_OCTET_STREAM_TYPE),
+                        new InvocationCallback<Response>() {
+                            @Override
+                            public void completed(Response response) {}
+
+                            @Override
+                            public void failed(Throwable throwable) {
+                                failures.incrementAndGet();
+                                failed.countDown();
+                            }
+                        });
+
+        assertThat(failed.await(10, TimeUnit.SECONDS)).isTrue();
+        // give a second failure time to arrive
+        TimeUnit.MILLISECONDS.sleep(500);
+        assertThat(failures).hasValue(1);
     }
 
     private static Client newClient(URI unixfile) {
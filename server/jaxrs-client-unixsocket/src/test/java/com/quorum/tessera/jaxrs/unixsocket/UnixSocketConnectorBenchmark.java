@@ -0,0 +1,112 @@
+package com.quorum.tessera.jaxrs.unixsocket;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.server.JerseyServer;
+import org.glassfish.jersey.client.ClientConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of raw payloads posted to a server over a local socket file, one request at a time and as
+ * a batch of concurrent asynchronous requests.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.jaxrs.unixsocket.UnixSocketConnectorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UnixSocketConnectorBenchmark {
+
+    private static final int ASYNC_BATCH_SIZE = 16;
+
+    private final URI unixfile = URI.create("unix:/tmp/tessera-benchmark.sock");
+
+    @Param({"1024", "1048576"})
+    public int payloadSize;
+
+    private JerseyServer server;
+
+    private Client client;
+
+    private WebTarget target;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress(unixfile.toString());
+
+        server = new JerseyServer(serverConfig, new SampleApplication());
+        server.start();
+
+        final ClientConfig config = new ClientConfig();
+        config.connectorProvider(new JerseyUnixSocketConnectorProvider());
+        client = ClientBuilder.newClient(config).property("unixfile", unixfile);
+        target = client.target(unixfile).path("sendraw");
+
+        payload = new byte[payloadSize];
+        new Random().nextBytes(payload);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int send() {
+        final Response response = post().post(Entity.entity(payload, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        response.close();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ASYNC_BATCH_SIZE)
+    public int sendAsync() throws Exception {
+        final List<Future<Response>> responses = new ArrayList<>(ASYNC_BATCH_SIZE);
+        for (int i = 0; i < ASYNC_BATCH_SIZE; i++) {
+            responses.add(post().async().post(Entity.entity(payload, MediaType.APPLICATION_OCTET_STREAM_TYPE)));
+        }
+
+        int created = 0;
+        for (Future<Response> future : responses) {
+            final Response response = future.get();
+            response.close();
+            created += response.getStatus() == 201 ? 1 : 0;
+        }
+        return created;
+    }
+
+    private Invocation.Builder post() {
+        return target.request()
+                .header("c11n-from", "/+UuD63zItL1EbjxkKUljMgG8Z1w0AJ8pNOR4iq2yQc=")
+                .header("c11n-to", "yGcjkFyZklTTXrn8+WIkYwicA2EGBn9wZFkctAad4X0=");
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UnixSocketConnectorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
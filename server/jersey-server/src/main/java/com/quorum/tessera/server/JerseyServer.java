@@ -4,23 +4,29 @@ import com.jpmorgan.quorum.server.utils.ServerUtils;
 import com.quorum.tessera.config.AppType;
 import com.quorum.tessera.config.InfluxConfig;
 import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import com.quorum.tessera.server.jaxrs.CorsDomainResponseFilter;
 import com.quorum.tessera.server.jaxrs.LoggingFilter;
 import com.quorum.tessera.server.monitoring.InfluxDbClient;
 import com.quorum.tessera.server.monitoring.InfluxDbPublisher;
 import com.quorum.tessera.server.monitoring.MetricsResource;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.servlets.QoSFilter;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.servlet.ServletContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
+import javax.servlet.DispatcherType;
 import javax.ws.rs.core.Application;
 import java.net.URI;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -91,9 +97,20 @@ public class JerseyServer implements TesseraServer {
         ServletContextHandler context = new ServletContextHandler(server, "/");
         ServletContainer servletContainer = new ServletContainer(config);
         ServletHolder jerseyServlet = new ServletHolder(servletContainer);
+        // resources and the request limit suspend requests, so that they do not hold a thread while they wait
+        jerseyServlet.setAsyncSupported(true);
 
         context.addServlet(jerseyServlet, "/*");
 
+        Optional.ofNullable(serverConfig.getTuningConfig())
+                .filter(tuning -> Objects.nonNull(tuning.getMaxConcurrentRequests()))
+                .ifPresent(
+                        tuning ->
+                                context.addFilter(
+                                        requestLimitFilter(tuning),
+                                        "/*",
+                                        EnumSet.of(DispatcherType.REQUEST, DispatcherType.ASYNC)));
+
         LOGGER.info("Starting {}", uri);
 
         this.server.start();
@@ -106,6 +123,15 @@ public class JerseyServer implements TesseraServer {
         }
     }
 
+    private static FilterHolder requestLimitFilter(ServerTuningConfig tuning) {
+        final FilterHolder filter = new FilterHolder(QoSFilter.class);
+        filter.setAsyncSupported(true);
+        filter.setInitParameter("maxRequests", String.valueOf(tuning.getMaxConcurrentRequests()));
+        Optional.ofNullable(tuning.getMaxRequestWait())
+                .ifPresent(wait -> filter.setInitParameter("suspendMs", String.valueOf(wait)));
+        return filter;
+    }
+
     private void startInfluxMonitoring() {
         InfluxDbClient influxDbClient = new InfluxDbClient(uri, influxConfig, type);
         Runnable publisher = new InfluxDbPublisher(influxDbClient);
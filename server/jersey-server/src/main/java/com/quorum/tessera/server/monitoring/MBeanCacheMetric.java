@@ -0,0 +1,31 @@
+package com.quorum.tessera.server.monitoring;
+
+/** A gauge of a transaction cache, such as its number of hits */
+public class MBeanCacheMetric implements MBeanMetric {
+
+    private final String cacheName;
+
+    private final String name;
+
+    private final String value;
+
+    public MBeanCacheMetric(String cacheName, String name, String value) {
+        this.cacheName = cacheName;
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.quorum.tessera.server.monitoring;
+
+/** A gauge of a database connection pool, such as its number of active connections */
+public class MBeanPoolMetric implements MBeanMetric {
+
+    private final String poolName;
+
+    private final String name;
+
+    private final String value;
+
+    public MBeanPoolMetric(String poolName, String name, String value) {
+        this.poolName = poolName;
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+}
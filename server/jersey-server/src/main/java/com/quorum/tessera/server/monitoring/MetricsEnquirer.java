@@ -10,6 +10,12 @@ import java.util.Set;
 
 public class MetricsEnquirer {
 
+    // the connection pools register an MBean named after each pool
+    private static final String POOL_MBEANS = "com.zaxxer.hikari:type=Pool (*)";
+
+    // the transaction caches register an MBean each, named by a number
+    private static final String TRANSACTION_CACHE_MBEANS = "com.quorum.tessera:type=EncryptedTransactionCache,*";
+
     private MBeanServer mBeanServer;
 
     public MetricsEnquirer(MBeanServer mBeanServer) {
@@ -23,11 +29,11 @@ public class MetricsEnquirer {
         try {
             mBeanNames = getTesseraResourceMBeanNames(appType);
 
-            for(ObjectName mBeanName : mBeanNames) {
+            for (ObjectName mBeanName : mBeanNames) {
                 List<MBeanMetric> temp;
                 try {
                     temp = getMetricsForMBean(mBeanName);
-                } catch (AttributeNotFoundException | MBeanException | InstanceNotFoundException | ReflectionException | IntrospectionException e) {
+                } catch (JMException e) {
                     throw new RuntimeException(e);
                 }
                 mBeanMetrics.addAll(temp);
@@ -40,9 +46,48 @@ public class MetricsEnquirer {
         return Collections.unmodifiableList(mBeanMetrics);
     }
 
+    public List<MBeanMetric> getPoolMetrics() {
+        List<MBeanMetric> mBeanMetrics = new ArrayList<>();
+
+        try {
+            for (ObjectName mBeanName : this.mBeanServer.queryNames(new ObjectName(POOL_MBEANS), null)) {
+                String type = mBeanName.getKeyProperty("type");
+                String poolName = type.substring("Pool (".length(), type.length() - 1);
+
+                for (MBeanAttributeInfo mBeanAttribute : this.mBeanServer.getMBeanInfo(mBeanName).getAttributes()) {
+                    String value = mBeanServer.getAttribute(mBeanName, mBeanAttribute.getName()).toString();
+                    mBeanMetrics.add(new MBeanPoolMetric(poolName, mBeanAttribute.getName(), value));
+                }
+            }
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+
+        return Collections.unmodifiableList(mBeanMetrics);
+    }
+
+    public List<MBeanMetric> getTransactionCacheMetrics() {
+        List<MBeanMetric> mBeanMetrics = new ArrayList<>();
+
+        try {
+            for (ObjectName mBeanName : this.mBeanServer.queryNames(new ObjectName(TRANSACTION_CACHE_MBEANS), null)) {
+                String cacheName = mBeanName.getKeyProperty("name");
+
+                for (MBeanAttributeInfo mBeanAttribute : this.mBeanServer.getMBeanInfo(mBeanName).getAttributes()) {
+                    String value = mBeanServer.getAttribute(mBeanName, mBeanAttribute.getName()).toString();
+                    mBeanMetrics.add(new MBeanCacheMetric(cacheName, mBeanAttribute.getName(), value));
+                }
+            }
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+
+        return Collections.unmodifiableList(mBeanMetrics);
+    }
+
     private Set<ObjectName> getTesseraResourceMBeanNames(AppType appType) throws MalformedObjectNameException {
         final String type;
-        switch(appType) {
+        switch (appType) {
             case P2P:
                 type = "P2PRestApp";
                 break;
@@ -62,19 +107,24 @@ public class MetricsEnquirer {
                 throw new MonitoringNotSupportedException(appType);
         }
 
-        String pattern = String.format("org.glassfish.jersey:type=%s,subType=Resources,resource=com.quorum.tessera.*,executionTimes=RequestTimes,detail=methods,method=*", type);
+        String pattern =
+                String.format(
+                        "org.glassfish.jersey:type=%s,subType=Resources,resource=com.quorum.tessera.*,executionTimes=RequestTimes,detail=methods,method=*",
+                        type);
         return Collections.unmodifiableSet(this.mBeanServer.queryNames(new ObjectName(pattern), null));
     }
 
-    private List<MBeanMetric> getMetricsForMBean(ObjectName mBeanName) throws AttributeNotFoundException, MBeanException, ReflectionException, InstanceNotFoundException, IntrospectionException {
+    private List<MBeanMetric> getMetricsForMBean(ObjectName mBeanName)
+            throws AttributeNotFoundException, MBeanException, ReflectionException, InstanceNotFoundException,
+                    IntrospectionException {
         List<MBeanMetric> mBeanMetrics = new ArrayList<>();
 
         MBeanAttributeInfo[] mBeanAttributes = this.mBeanServer.getMBeanInfo(mBeanName).getAttributes();
 
-        for(MBeanAttributeInfo mBeanAttribute : mBeanAttributes) {
+        for (MBeanAttributeInfo mBeanAttribute : mBeanAttributes) {
             String attributeName = mBeanAttribute.getName();
 
-            if(attributeName.endsWith("total")) {
+            if (attributeName.endsWith("total")) {
                 String resourceMethod = mBeanName.getKeyProperty("method");
                 String value = mBeanServer.getAttribute(mBeanName, attributeName).toString();
                 MBeanResourceMetric metric = new MBeanResourceMetric(resourceMethod, attributeName, value);
@@ -12,24 +12,64 @@ public class PrometheusProtocolFormatter {
         for (final MBeanMetric metric : metrics) {
             final MBeanResourceMetric resourceMetric = (MBeanResourceMetric) metric;
 
-            formattedMetrics.append("tessera_")
-                .append(appType)
-                .append("_")
-                .append(sanitize(resourceMetric.getResourceMethod()))
-                .append("_")
-                .append(sanitize(resourceMetric.getName()))
-                .append(" ")
-                .append(resourceMetric.getValue())
-                .append("\n");
+            formattedMetrics
+                    .append("tessera_")
+                    .append(appType)
+                    .append("_")
+                    .append(sanitize(resourceMetric.getResourceMethod()))
+                    .append("_")
+                    .append(sanitize(resourceMetric.getName()))
+                    .append(" ")
+                    .append(resourceMetric.getValue())
+                    .append("\n");
         }
 
         return formattedMetrics.toString().trim();
     }
 
-    private String sanitize(final String input) {
-        return input
-            .replaceAll("(#.*)|(_total)|\\(\\)|\\)|\\[\\]|\\]|;", "")
-            .replaceAll("->|\\(|\\[", "_");
+    public String formatPoolMetrics(final List<MBeanMetric> metrics) {
+        StringBuilder formattedMetrics = new StringBuilder();
+
+        for (final MBeanMetric metric : metrics) {
+            final MBeanPoolMetric poolMetric = (MBeanPoolMetric) metric;
+
+            formattedMetrics
+                    .append("tessera_db_pool_")
+                    .append(toSnakeCase(poolMetric.getName()))
+                    .append("{pool=\"")
+                    .append(poolMetric.getPoolName())
+                    .append("\"} ")
+                    .append(poolMetric.getValue())
+                    .append("\n");
+        }
+
+        return formattedMetrics.toString().trim();
     }
 
+    public String formatTransactionCacheMetrics(final List<MBeanMetric> metrics) {
+        StringBuilder formattedMetrics = new StringBuilder();
+
+        for (final MBeanMetric metric : metrics) {
+            final MBeanCacheMetric cacheMetric = (MBeanCacheMetric) metric;
+
+            formattedMetrics
+                    .append("tessera_db_transaction_cache_")
+                    .append(toSnakeCase(cacheMetric.getName()))
+                    .append("{cache=\"")
+                    .append(cacheMetric.getCacheName())
+                    .append("\"} ")
+                    .append(cacheMetric.getValue())
+                    .append("\n");
+        }
+
+        return formattedMetrics.toString().trim();
+    }
+
+    private String toSnakeCase(final String input) {
+        return input.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    private String sanitize(final String input) {
+        return input.replaceAll("(#.*)|(_total)|\\(\\)|\\)|\\[\\]|\\]|;", "").replaceAll("->|\\(|\\[", "_");
+    }
 }
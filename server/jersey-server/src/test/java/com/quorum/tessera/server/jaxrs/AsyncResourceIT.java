@@ -0,0 +1,50 @@
+package com.quorum.tessera.server.jaxrs;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.server.JerseyServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Response;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncResourceIT {
+
+    private final URI serverUri = URI.create("http://localhost:8087");
+
+    private JerseyServer server;
+
+    private Client client;
+
+    @Before
+    public void onSetUp() throws Exception {
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress(serverUri.toString());
+
+        server = new JerseyServer(serverConfig, new SampleApplication());
+        server.start();
+
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void onTearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void suspendedRequestIsResumedWithoutTuningConfig() {
+        final Response response = client.target(serverUri).path("slowAsync").queryParam("millis", 50).request().get();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.readEntity(String.class)).isEqualTo("done");
+    }
+}
@@ -6,6 +6,8 @@ import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -13,6 +15,9 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -20,9 +25,9 @@ import javax.ws.rs.core.UriInfo;
 
 @Path("/")
 public class SampleResource {
-    
-    private Map<String,SamplePayload> store = new HashMap<>();
-    
+
+    private Map<String, SamplePayload> store = new HashMap<>();
+
     @Path("ping")
     @GET
     public String ping() {
@@ -30,19 +35,32 @@ public class SampleResource {
         return "HEllow";
     }
 
+    @Path("slow")
+    @GET
+    public String slow(@QueryParam("millis") long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return "done";
+    }
+
+    @Path("slowAsync")
+    @GET
+    public void slowAsync(@QueryParam("millis") long millis, @Suspended AsyncResponse asyncResponse) {
+        CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS).execute(() -> asyncResponse.resume("done"));
+    }
+
     @Produces(MediaType.APPLICATION_JSON)
     @GET
     @Path("find/{id}")
     public Response find(@PathParam("id") String id) {
-        System.out.println("FIND "+ id);
+        System.out.println("FIND " + id);
         SamplePayload payload = store.get(id);
         return Response.ok(payload, MediaType.APPLICATION_JSON).build();
     }
-    
+
     @Consumes(MediaType.APPLICATION_JSON)
     @Path("create")
     @POST
-    public Response create(SamplePayload payload,@Context UriInfo uriInfo) throws UnsupportedEncodingException {
+    public Response create(SamplePayload payload, @Context UriInfo uriInfo) throws UnsupportedEncodingException {
         System.out.println("CREATE" + payload);
         String id = UUID.randomUUID().toString();
         payload.setId(id);
@@ -51,15 +69,13 @@ public class SampleResource {
         URI location = uriInfo.getBaseUriBuilder().path("find").path(URLEncoder.encode(id, "UTF-8")).build();
         System.out.println("CREATE " + location);
         return Response.status(Response.Status.CREATED).location(location).build();
-                
     }
-    
+
     @Path("{id}")
     @DELETE
     public Response delete(@PathParam("id") String id) {
         SamplePayload deleted = store.remove(id);
-        
+
         return Response.ok(deleted).build();
     }
-    
 }
@@ -0,0 +1,83 @@
+package com.quorum.tessera.server.jaxrs;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
+import com.quorum.tessera.server.JerseyServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures request throughput when more clients call the server than it has threads for, with the default thread pool
+ * and with a bounded pool and a limit on concurrent requests. Each request spends a few milliseconds in the resource,
+ * standing in for the database and enclave work of a real request.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.server.jaxrs.ServerSaturationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(256)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class ServerSaturationBenchmark {
+
+    @Param({"default", "tuned"})
+    public String configuration;
+
+    private JerseyServer server;
+
+    private Client client;
+
+    private WebTarget target;
+
+    @Setup
+    public void setUp() throws Exception {
+        final ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress("http://localhost:8090");
+
+        if ("tuned".equals(configuration)) {
+            final ServerTuningConfig tuning = new ServerTuningConfig();
+            tuning.setMinThreads(32);
+            tuning.setMaxThreads(64);
+            tuning.setQueueCapacity(512);
+            tuning.setAcceptQueueSize(512);
+            tuning.setMaxConcurrentRequests(48);
+            tuning.setMaxRequestWait(30000);
+            serverConfig.setTuningConfig(tuning);
+        }
+
+        server = new JerseyServer(serverConfig, new SampleApplication());
+        server.start();
+
+        client = ClientBuilder.newClient();
+        target = client.target(serverConfig.getServerUri()).path("slow").queryParam("millis", 5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public int request() {
+        final Response response = target.request().get();
+        response.close();
+        return response.getStatus();
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServerSaturationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,112 @@
+package com.quorum.tessera.server.jaxrs;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
+import com.quorum.tessera.server.JerseyServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerTuningIT {
+
+    private static final int MAX_CONCURRENT_REQUESTS = 2;
+
+    private static final int CLIENTS = 10;
+
+    private final URI serverUri = URI.create("http://localhost:8089");
+
+    private JerseyServer server;
+
+    private ExecutorService executorService;
+
+    private Client client;
+
+    @Before
+    public void onSetUp() throws Exception {
+        ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setMinThreads(4);
+        tuning.setMaxThreads(16);
+        tuning.setQueueCapacity(64);
+        tuning.setAcceptors(1);
+        tuning.setSelectors(1);
+        tuning.setAcceptQueueSize(64);
+        tuning.setMaxConcurrentRequests(MAX_CONCURRENT_REQUESTS);
+        tuning.setMaxRequestWait(500);
+
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress(serverUri.toString());
+        serverConfig.setTuningConfig(tuning);
+
+        server = new JerseyServer(serverConfig, new SampleApplication());
+        server.start();
+
+        executorService = Executors.newFixedThreadPool(CLIENTS);
+        client = ClientBuilder.newClient();
+
+        // the first request initialises the application, which would otherwise count against the waiting requests
+        assertThat(client.target(serverUri).path("ping").request().get().getStatus()).isEqualTo(200);
+    }
+
+    @After
+    public void onTearDown() {
+        client.close();
+        executorService.shutdownNow();
+        server.stop();
+    }
+
+    @Test
+    public void requestsOverTheLimitAreRejectedOnceTheyHaveWaitedTooLong() throws Exception {
+        final Callable<Integer> slowRequest =
+                () -> client.target(serverUri).path("slow").queryParam("millis", 1000).request().get().getStatus();
+
+        final List<Future<Integer>> responses =
+                executorService.invokeAll(
+                        IntStream.range(0, CLIENTS).mapToObj(i -> slowRequest).collect(Collectors.toList()));
+
+        final Map<Integer, Long> statuses =
+                responses.stream()
+                        .map(ServerTuningIT::status)
+                        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        assertThat(statuses).containsOnlyKeys(200, 503);
+        assertThat(statuses.get(200)).isEqualTo(MAX_CONCURRENT_REQUESTS);
+        assertThat(statuses.get(503)).isEqualTo(CLIENTS - MAX_CONCURRENT_REQUESTS);
+    }
+
+    @Test
+    public void waitingRequestsAreServedOnceCapacityIsFree() throws Exception {
+        final Callable<Integer> quickRequest =
+                () -> client.target(serverUri).path("slow").queryParam("millis", 20).request().get().getStatus();
+
+        final List<Future<Integer>> responses =
+                executorService.invokeAll(
+                        IntStream.range(0, CLIENTS).mapToObj(i -> quickRequest).collect(Collectors.toList()));
+
+        assertThat(responses).extracting(ServerTuningIT::status).containsOnly(200);
+    }
+
+    private static int status(Future<Integer> response) {
+        try {
+            return response.get();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
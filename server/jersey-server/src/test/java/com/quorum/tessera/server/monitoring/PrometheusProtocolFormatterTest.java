@@ -34,7 +34,9 @@ public class PrometheusProtocolFormatterTest {
 
     @Test
     public void singleArgResourceResponseCorrectlyFormatted() {
-        mockMetrics.add(new MBeanResourceMetric("POST->resend(ResendRequest)#8ca0a760", "RequestRate[requestsPerSeconds]", "1.3"));
+        mockMetrics.add(
+                new MBeanResourceMetric(
+                        "POST->resend(ResendRequest)#8ca0a760", "RequestRate[requestsPerSeconds]", "1.3"));
 
         AppType type = AppType.P2P;
 
@@ -56,7 +58,8 @@ public class PrometheusProtocolFormatterTest {
 
     @Test
     public void multipleArgResourceResponseCorrectlyFormatted() {
-        mockMetrics.add(new MBeanResourceMetric("GET->receiveRaw(String;String)#fc8f8357", "AverageTime[ms]_total", "5.2"));
+        mockMetrics.add(
+                new MBeanResourceMetric("GET->receiveRaw(String;String)#fc8f8357", "AverageTime[ms]_total", "5.2"));
 
         AppType type = AppType.P2P;
 
@@ -68,12 +71,16 @@ public class PrometheusProtocolFormatterTest {
     @Test
     public void multipleMetricsResponseCorrectlyFormatted() {
         mockMetrics.add(new MBeanResourceMetric("GET->upCheck()#a10a4f8d", "AverageTime[ms]_total", "100"));
-        mockMetrics.add(new MBeanResourceMetric("POST->resend(ResendRequest)#8ca0a760", "RequestRate[requestsPerSeconds]", "1.3"));
+        mockMetrics.add(
+                new MBeanResourceMetric(
+                        "POST->resend(ResendRequest)#8ca0a760", "RequestRate[requestsPerSeconds]", "1.3"));
 
         AppType type = AppType.P2P;
 
-        String expectedResponse = "tessera_P2P_GET_upCheck_AverageTime_ms 100" + "\n" +
-            "tessera_P2P_POST_resend_ResendRequest_RequestRate_requestsPerSeconds 1.3";
+        String expectedResponse =
+                "tessera_P2P_GET_upCheck_AverageTime_ms 100"
+                        + "\n"
+                        + "tessera_P2P_POST_resend_ResendRequest_RequestRate_requestsPerSeconds 1.3";
 
         assertThat(protocolFormatter.format(mockMetrics, type)).isEqualTo(expectedResponse);
     }
@@ -84,4 +91,30 @@ public class PrometheusProtocolFormatterTest {
 
         assertThat(protocolFormatter.format(mockMetrics, type)).isEmpty();
     }
+
+    @Test
+    public void poolMetricsFormattedWithPoolLabel() {
+        mockMetrics.add(new MBeanPoolMetric("tessera-0", "ActiveConnections", "2"));
+        mockMetrics.add(new MBeanPoolMetric("tessera-0-replica-0", "ThreadsAwaitingConnection", "0"));
+
+        String expectedResponse =
+                "tessera_db_pool_active_connections{pool=\"tessera-0\"} 2"
+                        + "\n"
+                        + "tessera_db_pool_threads_awaiting_connection{pool=\"tessera-0-replica-0\"} 0";
+
+        assertThat(protocolFormatter.formatPoolMetrics(mockMetrics)).isEqualTo(expectedResponse);
+    }
+
+    @Test
+    public void transactionCacheMetricsFormattedWithCacheLabel() {
+        mockMetrics.add(new MBeanCacheMetric("0", "HitCount", "12"));
+        mockMetrics.add(new MBeanCacheMetric("1", "HitRatio", "0.8"));
+
+        String expectedResponse =
+                "tessera_db_transaction_cache_hit_count{cache=\"0\"} 12"
+                        + "\n"
+                        + "tessera_db_transaction_cache_hit_ratio{cache=\"1\"} 0.8";
+
+        assertThat(protocolFormatter.formatTransactionCacheMetrics(mockMetrics)).isEqualTo(expectedResponse);
+    }
 }
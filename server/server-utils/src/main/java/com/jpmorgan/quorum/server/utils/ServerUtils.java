@@ -1,11 +1,19 @@
 package com.jpmorgan.quorum.server.utils;
 
 import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import com.quorum.tessera.ssl.context.ServerSSLContextFactory;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
 import javax.net.ssl.SSLContext;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
+import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.HttpConfiguration;
 import org.eclipse.jetty.server.HttpConnectionFactory;
@@ -13,21 +21,33 @@ import org.eclipse.jetty.server.SecureRequestCustomizer;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.ServerConnector;
 import org.eclipse.jetty.server.SslConnectionFactory;
+import org.eclipse.jetty.util.BlockingArrayQueue;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.unixsocket.UnixSocketConnector;
 
 public class ServerUtils {
 
+    private static final int DEFAULT_UNIX_SOCKET_ACCEPT_QUEUE_SIZE = 128;
+
+    /** Lets Jetty choose the number of acceptor and selector threads */
+    private static final int JETTY_DEFAULT = -1;
+
     public static Server buildWebServer(ServerConfig serverConfig) {
-        Server server = new Server();
+        final ServerTuningConfig tuning =
+                Optional.ofNullable(serverConfig.getTuningConfig()).orElseGet(ServerTuningConfig::new);
+        final int acceptors = Optional.ofNullable(tuning.getAcceptors()).orElse(JETTY_DEFAULT);
+        final int selectors = Optional.ofNullable(tuning.getSelectors()).orElse(JETTY_DEFAULT);
+
+        Server server = new Server(buildThreadPool(tuning));
         URI uri = serverConfig.getBindingUri();
 
         if (serverConfig.isUnixSocket()) {
 
-            HttpConnectionFactory httpConnectionFactory = new HttpConnectionFactory();
-
-            UnixSocketConnector connector = new UnixSocketConnector(server, httpConnectionFactory);
-            connector.setAcceptQueueSize(128);
+            UnixSocketConnector connector =
+                    new UnixSocketConnector(server, selectors, cleartextConnectionFactories(serverConfig));
+            connector.setAcceptQueueSize(
+                    Optional.ofNullable(tuning.getAcceptQueueSize()).orElse(DEFAULT_UNIX_SOCKET_ACCEPT_QUEUE_SIZE));
 
             String path = Paths.get(serverConfig.getServerUri()).toAbsolutePath().toString();
             connector.setUnixSocket(path);
@@ -52,20 +72,74 @@ public class ServerUtils {
             if (Objects.nonNull(excludedCipherSuites)) {
                 sslContextFactory.addExcludeCipherSuites(excludedCipherSuites);
             }
-            ServerConnector connector =
-                    new ServerConnector(
-                            server,
-                            new SslConnectionFactory(sslContextFactory, "http/1.1"),
-                            new HttpConnectionFactory(https));
+            final ConnectionFactory[] connectionFactories;
+            if (serverConfig.isHttp2Enabled()) {
+                // HTTP/2 forbids a number of cipher suites, so prefer the ones it allows when choosing
+                sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+                sslContextFactory.setUseCipherSuitesOrder(true);
+
+                ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory("h2", "http/1.1");
+                alpn.setDefaultProtocol("http/1.1");
+
+                connectionFactories =
+                        new ConnectionFactory[] {
+                            new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                            alpn,
+                            new HTTP2ServerConnectionFactory(https),
+                            new HttpConnectionFactory(https)
+                        };
+            } else {
+                connectionFactories =
+                        new ConnectionFactory[] {
+                            new SslConnectionFactory(sslContextFactory, "http/1.1"), new HttpConnectionFactory(https)
+                        };
+            }
+
+            ServerConnector connector = new ServerConnector(server, acceptors, selectors, connectionFactories);
             connector.setPort(uri.getPort());
+            Optional.ofNullable(tuning.getAcceptQueueSize()).ifPresent(connector::setAcceptQueueSize);
             server.setConnectors(new Connector[] {connector});
             return server;
         }
 
-        ServerConnector connector = new ServerConnector(server);
+        ServerConnector connector =
+                new ServerConnector(server, acceptors, selectors, cleartextConnectionFactories(serverConfig));
         connector.setPort(uri.getPort());
+        Optional.ofNullable(tuning.getAcceptQueueSize()).ifPresent(connector::setAcceptQueueSize);
         server.setConnectors(new Connector[] {connector});
 
         return server;
     }
+
+    /**
+     * HTTP/1.1, plus h2c when HTTP/2 is enabled. Clients can then either upgrade an HTTP/1.1 connection or start with
+     * HTTP/2 straight away.
+     */
+    private static ConnectionFactory[] cleartextConnectionFactories(ServerConfig serverConfig) {
+        HttpConfiguration http = new HttpConfiguration();
+        if (serverConfig.isHttp2Enabled()) {
+            return new ConnectionFactory[] {new HttpConnectionFactory(http), new HTTP2CServerConnectionFactory(http)};
+        }
+        return new ConnectionFactory[] {new HttpConnectionFactory(http)};
+    }
+
+    /**
+     * Creates the request thread pool. With a queue capacity set, jobs that arrive while the queue is full are rejected
+     * and Jetty closes their connections, rather than letting the queue grow without limit under load.
+     */
+    private static QueuedThreadPool buildThreadPool(ServerTuningConfig tuning) {
+        final QueuedThreadPool defaults = new QueuedThreadPool();
+
+        final int maxThreads = Optional.ofNullable(tuning.getMaxThreads()).orElse(defaults.getMaxThreads());
+        final int minThreads = Optional.ofNullable(tuning.getMinThreads()).orElse(defaults.getMinThreads());
+        final int idleTimeout = Optional.ofNullable(tuning.getIdleTimeout()).orElse(defaults.getIdleTimeout());
+
+        // a null queue makes Jetty create its default unbounded queue
+        final BlockingQueue<Runnable> queue =
+                Optional.ofNullable(tuning.getQueueCapacity())
+                        .map(capacity -> new BlockingArrayQueue<Runnable>(capacity, capacity, capacity))
+                        .orElse(null);
+
+        return new QueuedThreadPool(maxThreads, minThreads, idleTimeout, queue);
+    }
 }
@@ -6,6 +6,9 @@ import java.util.Set;
 /** Creates a set of services that are configured */
 public interface ServiceLocator {
 
+    /** System property naming the {@link ServiceLocator} implementation to use instead of the default one */
+    String SERVICE_LOCATOR_KEY = "tessera.service.locator";
+
     /**
      * Retrieves all the services specified in the configuration file
      *
@@ -14,11 +17,20 @@ public interface ServiceLocator {
     Set<Object> getServices();
 
     /**
-     * Returns an implementation of the {@link ServiceLocator} from the service loader
+     * Returns an implementation of the {@link ServiceLocator} from the service loader. The implementation named by the
+     * {@value #SERVICE_LOCATOR_KEY} system property is used if set, otherwise the one annotated with {@link Default}.
      *
      * @return the {@link ServiceLocator} instance
      */
     static ServiceLocator create() {
+        final String requested = System.getProperty(SERVICE_LOCATOR_KEY);
+        if (requested != null) {
+            return ServiceLoaderUtil.loadAll(ServiceLocator.class)
+                    .filter(l -> l.getClass().getName().equals(requested))
+                    .findAny()
+                    .orElseThrow(() -> new IllegalStateException("Unable to find service locator " + requested));
+        }
+
         // TODO: return the stream and let the caller deal with it
         return ServiceLoaderUtil.loadAll(ServiceLocator.class)
                 .filter(l -> l.getClass().isAnnotationPresent(Default.class))
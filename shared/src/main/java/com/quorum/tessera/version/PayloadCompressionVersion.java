@@ -0,0 +1,11 @@
+package com.quorum.tessera.version;
+
+public class PayloadCompressionVersion implements ApiVersion {
+
+    public static final String API_VERSION_2_2 = "2.2";
+
+    @Override
+    public String getVersion() {
+        return API_VERSION_2_2;
+    }
+}
@@ -8,6 +8,6 @@ public class ApiVersionTest {
 
     @Test
     public void create() {
-        assertThat(ApiVersion.versions()).containsExactlyInAnyOrder("0.1", "1.0", "v1", "v2", "2.1");
+        assertThat(ApiVersion.versions()).containsExactlyInAnyOrder("0.1", "1.0", "v1", "v2", "2.1", "2.2");
     }
 }
@@ -1,9 +1,13 @@
 package com.quorum.tessera.transaction;
 
+import com.quorum.tessera.config.AppType;
 import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import com.quorum.tessera.data.EncryptedRawTransactionDAO;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.EntityManagerDAOFactory;
+import com.quorum.tessera.data.PrivacyMetadataBackfill;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EnclaveFactory;
 import com.quorum.tessera.transaction.publish.BatchPayloadPublisher;
@@ -13,9 +17,14 @@ import com.quorum.tessera.transaction.publish.PayloadPublisherFactory;
 import com.quorum.tessera.transaction.resend.ResendManager;
 import com.quorum.tessera.transaction.resend.ResendManagerImpl;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 enum DefaultTransactionManagerFactory implements TransactionManagerFactory {
     INSTANCE;
@@ -42,6 +51,14 @@ enum DefaultTransactionManagerFactory implements TransactionManagerFactory {
         boolean privacyEnabled = config.getFeatures().isEnablePrivacyEnhancements();
         PrivacyHelper privacyHelper = new PrivacyHelperImpl(encryptedTransactionDAO, privacyEnabled);
 
+        if (privacyEnabled) {
+            // transactions stored by earlier versions have no privacy metadata, add it without delaying startup
+            Thread backfill =
+                    new Thread(new PrivacyMetadataBackfill(encryptedTransactionDAO), "privacy-metadata-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        }
+
         TransactionManager transactionManager =
                 new TransactionManagerImpl(
                         encryptedTransactionDAO,
@@ -49,12 +66,59 @@ enum DefaultTransactionManagerFactory implements TransactionManagerFactory {
                         encryptedRawTransactionDAO,
                         resendManager,
                         batchPayloadPublisher,
-                        privacyHelper);
+                        privacyHelper,
+                        createSendExecutor(config),
+                        createStoreExecutor(config),
+                        config.getFeatures().isEnablePayloadCompression());
 
         REF.set(transactionManager);
         return transactionManager;
     }
 
+    // the servers sends come in through share one transaction manager, so its send threads are the sum of what each of
+    // them asks for
+    static ThreadPoolExecutor createSendExecutor(Config config) {
+        final List<ServerTuningConfig> tuningConfigs = tuningConfigs(config, app -> app != AppType.P2P);
+
+        final int threads =
+                sum(tuningConfigs, ServerTuningConfig::getAsyncThreads, TransactionManagerImpl.DEFAULT_SEND_THREADS);
+        final int queueCapacity =
+                sum(
+                        tuningConfigs,
+                        ServerTuningConfig::getAsyncQueueCapacity,
+                        TransactionManagerImpl.DEFAULT_SEND_QUEUE_CAPACITY);
+
+        return TransactionManagerImpl.createSendExecutor(threads, queueCapacity);
+    }
+
+    // pushes only come in through the p2p server, so its tuning sizes the store threads
+    static ThreadPoolExecutor createStoreExecutor(Config config) {
+        final List<ServerTuningConfig> tuningConfigs = tuningConfigs(config, app -> app == AppType.P2P);
+
+        final int threads =
+                sum(tuningConfigs, ServerTuningConfig::getAsyncThreads, TransactionManagerImpl.DEFAULT_SEND_THREADS);
+        final int queueCapacity =
+                sum(
+                        tuningConfigs,
+                        ServerTuningConfig::getAsyncQueueCapacity,
+                        TransactionManagerImpl.DEFAULT_SEND_QUEUE_CAPACITY);
+
+        return TransactionManagerImpl.createStoreExecutor(threads, queueCapacity);
+    }
+
+    private static List<ServerTuningConfig> tuningConfigs(Config config, Predicate<AppType> app) {
+        return Optional.ofNullable(config.getServerConfigs()).orElse(List.of()).stream()
+                .filter(serverConfig -> app.test(serverConfig.getApp()))
+                .map(ServerConfig::getTuningConfig)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static int sum(
+            List<ServerTuningConfig> tuningConfigs, Function<ServerTuningConfig, Integer> setting, int defaultValue) {
+        return tuningConfigs.stream().map(setting).filter(Objects::nonNull).reduce(Integer::sum).orElse(defaultValue);
+    }
+
     @Override
     public Optional<TransactionManager> transactionManager() {
         return Optional.ofNullable(REF.get());
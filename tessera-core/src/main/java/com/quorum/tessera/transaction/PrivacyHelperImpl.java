@@ -3,6 +3,7 @@ package com.quorum.tessera.transaction;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.TransactionPrivacyMetadata;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.EnhancedPrivacyNotSupportedException;
@@ -35,9 +36,10 @@ public class PrivacyHelperImpl implements PrivacyHelper {
             return Collections.emptyList();
         }
 
-        final List<EncryptedTransaction> encryptedTransactions = encryptedTransactionDAO.findByHashes(affectedHashes);
+        final List<TransactionPrivacyMetadata> privacyMetadata =
+                encryptedTransactionDAO.findPrivacyMetadataByHashes(affectedHashes);
         final Set<MessageHash> foundHashes =
-                encryptedTransactions.stream().map(EncryptedTransaction::getHash).collect(Collectors.toSet());
+                privacyMetadata.stream().map(TransactionPrivacyMetadata::getHash).collect(Collectors.toSet());
 
         affectedHashes.stream()
                 .filter(Predicate.not(foundHashes::contains))
@@ -48,14 +50,7 @@ public class PrivacyHelperImpl implements PrivacyHelper {
                                     "Unable to find affectedContractTransaction " + messageHash);
                         });
 
-        return encryptedTransactions.stream()
-                .map(
-                        et ->
-                                AffectedTransaction.Builder.create()
-                                        .withHash(et.getHash().getHashBytes())
-                                        .withPayload(PayloadEncoder.create().decode(et.getEncodedPayload()))
-                                        .build())
-                .collect(Collectors.toList());
+        return toAffectedTransactions(privacyMetadata);
     }
 
     @Override
@@ -70,20 +65,34 @@ public class PrivacyHelperImpl implements PrivacyHelper {
         final Set<MessageHash> hashesToFind =
                 affectedTxHashes.stream().map(TxHash::getBytes).map(MessageHash::new).collect(Collectors.toSet());
 
-        final List<EncryptedTransaction> encryptedTransactions = encryptedTransactionDAO.findByHashes(hashesToFind);
+        final List<TransactionPrivacyMetadata> privacyMetadata =
+                encryptedTransactionDAO.findPrivacyMetadataByHashes(hashesToFind);
         final Set<MessageHash> foundHashes =
-                encryptedTransactions.stream().map(EncryptedTransaction::getHash).collect(Collectors.toSet());
+                privacyMetadata.stream().map(TransactionPrivacyMetadata::getHash).collect(Collectors.toSet());
 
         hashesToFind.stream()
                 .filter(Predicate.not(foundHashes::contains))
                 .forEach(txHash -> LOGGER.debug("Unable to find affectedContractTransaction {}", txHash));
 
-        return encryptedTransactions.stream()
+        return toAffectedTransactions(privacyMetadata);
+    }
+
+    /*
+       The privacy checks only need the metadata, the payloads are loaded if the enclave needs them for security hashes
+    */
+    private List<AffectedTransaction> toAffectedTransactions(List<TransactionPrivacyMetadata> privacyMetadata) {
+        final AffectedPayloads payloads =
+                new AffectedPayloads(
+                        privacyMetadata.stream().map(TransactionPrivacyMetadata::getHash).collect(Collectors.toList()));
+
+        return privacyMetadata.stream()
                 .map(
-                        et ->
+                        metadata ->
                                 AffectedTransaction.Builder.create()
-                                        .withHash(et.getHash().getHashBytes())
-                                        .withPayload(PayloadEncoder.create().decode(et.getEncodedPayload()))
+                                        .withHash(metadata.getHash().getHashBytes())
+                                        .withPrivacyMode(metadata.getPrivacyMode())
+                                        .withRecipientKeys(metadata.getRecipientKeys())
+                                        .withPayload(() -> payloads.get(metadata.getHash()))
                                         .build())
                 .collect(Collectors.toList());
     }
@@ -108,7 +117,7 @@ public class PrivacyHelperImpl implements PrivacyHelper {
         }
 
         affectedTransactions.stream()
-                .filter(a -> a.getPayload().getPrivacyMode() != privacyMode)
+                .filter(a -> a.getPrivacyMode() != privacyMode)
                 .findFirst()
                 .ifPresent(
                         affectedTransaction -> {
@@ -134,11 +143,11 @@ public class PrivacyHelperImpl implements PrivacyHelper {
                 affectedTransactions.stream()
                         .anyMatch(
                                 a -> {
-                                    if (a.getPayload().getPrivacyMode() != privacyMode) {
+                                    if (a.getPrivacyMode() != privacyMode) {
                                         LOGGER.info(
                                                 "ACOTH {} has PrivacyMode={} for TX {} with PrivacyMode={}. Ignoring transaction.",
                                                 a.getHash(),
-                                                a.getPayload().getPrivacyMode(),
+                                                a.getPrivacyMode(),
                                                 txHash,
                                                 privacyMode.name());
                                         return true;
@@ -160,7 +169,7 @@ public class PrivacyHelperImpl implements PrivacyHelper {
             if (affectedTransactions.stream()
                     .anyMatch(
                             a -> {
-                                final List<PublicKey> recipients = a.getPayload().getRecipientKeys();
+                                final List<PublicKey> recipients = a.getRecipientKeys();
                                 if (!recipients.contains(senderKey)) {
                                     LOGGER.info(
                                             "Sender key {} for TX {} is not a recipient for ACOTH {}",
@@ -225,9 +234,9 @@ public class PrivacyHelperImpl implements PrivacyHelper {
             List<PublicKey> recipientList, List<AffectedTransaction> affectedContractTransactions) {
 
         Predicate<AffectedTransaction> payloadRecipientsHasAllRecipients =
-                a -> a.getPayload().getRecipientKeys().containsAll(recipientList);
+                a -> a.getRecipientKeys().containsAll(recipientList);
         Predicate<AffectedTransaction> recipientsHaveAllPayloadRecipients =
-                a -> recipientList.containsAll(a.getPayload().getRecipientKeys());
+                a -> recipientList.containsAll(a.getRecipientKeys());
         Predicate<AffectedTransaction> allRecipientsMatch =
                 payloadRecipientsHasAllRecipients.and(recipientsHaveAllPayloadRecipients);
 
@@ -242,4 +251,32 @@ public class PrivacyHelperImpl implements PrivacyHelper {
 
         return true;
     }
+
+    /** Loads and decodes the payloads of a set of affected transactions in one query, the first time one is needed */
+    private class AffectedPayloads {
+
+        private final List<MessageHash> hashes;
+
+        private Map<MessageHash, EncodedPayload> payloads;
+
+        AffectedPayloads(List<MessageHash> hashes) {
+            this.hashes = hashes;
+        }
+
+        synchronized EncodedPayload get(MessageHash hash) {
+            if (Objects.isNull(payloads)) {
+                final PayloadEncoder payloadEncoder = PayloadEncoder.create();
+                payloads =
+                        encryptedTransactionDAO.findByHashes(hashes).stream()
+                                .collect(
+                                        Collectors.toMap(
+                                                EncryptedTransaction::getHash,
+                                                et -> payloadEncoder.decode(et.getEncodedPayload())));
+            }
+
+            return Optional.ofNullable(payloads.get(hash))
+                    .orElseThrow(
+                            () -> new PrivacyViolationException("Unable to find affectedContractTransaction " + hash));
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.quorum.tessera.transaction;
+
+import com.quorum.tessera.data.MessageHash;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of one request in a batch of receive requests, holding either the decrypted transaction or the error
+ * that stopped it from being received.
+ */
+public interface ReceiveResult {
+
+    MessageHash getTransactionHash();
+
+    Optional<ReceiveResponse> getResponse();
+
+    Optional<RuntimeException> getError();
+
+    static ReceiveResult success(final MessageHash transactionHash, final ReceiveResponse response) {
+        Objects.requireNonNull(transactionHash, "Message hash is required");
+        Objects.requireNonNull(response, "Response is required");
+        return create(transactionHash, response, null);
+    }
+
+    static ReceiveResult failure(final MessageHash transactionHash, final RuntimeException error) {
+        Objects.requireNonNull(transactionHash, "Message hash is required");
+        Objects.requireNonNull(error, "Error is required");
+        return create(transactionHash, null, error);
+    }
+
+    private static ReceiveResult create(
+            final MessageHash transactionHash, final ReceiveResponse response, final RuntimeException error) {
+        return new ReceiveResult() {
+            @Override
+            public MessageHash getTransactionHash() {
+                return transactionHash;
+            }
+
+            @Override
+            public Optional<ReceiveResponse> getResponse() {
+                return Optional.ofNullable(response);
+            }
+
+            @Override
+            public Optional<RuntimeException> getError() {
+                return Optional.ofNullable(error);
+            }
+        };
+    }
+}
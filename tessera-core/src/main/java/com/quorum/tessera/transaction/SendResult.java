@@ -0,0 +1,39 @@
+package com.quorum.tessera.transaction;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of one request in a batch of send requests, holding either the response for the transaction that was
+ * sent or the error that stopped it from being sent.
+ */
+public interface SendResult {
+
+    Optional<SendResponse> getResponse();
+
+    Optional<RuntimeException> getError();
+
+    static SendResult success(final SendResponse response) {
+        Objects.requireNonNull(response, "Response is required");
+        return create(response, null);
+    }
+
+    static SendResult failure(final RuntimeException error) {
+        Objects.requireNonNull(error, "Error is required");
+        return create(null, error);
+    }
+
+    private static SendResult create(final SendResponse response, final RuntimeException error) {
+        return new SendResult() {
+            @Override
+            public Optional<SendResponse> getResponse() {
+                return Optional.ofNullable(response);
+            }
+
+            @Override
+            public Optional<RuntimeException> getError() {
+                return Optional.ofNullable(error);
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.quorum.tessera.transaction;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of one request in a batch of store raw requests, holding either the response for the transaction that
+ * was stored or the error that stopped it from being stored.
+ */
+public interface StoreRawResult {
+
+    Optional<StoreRawResponse> getResponse();
+
+    Optional<RuntimeException> getError();
+
+    static StoreRawResult success(final StoreRawResponse response) {
+        Objects.requireNonNull(response, "Response is required");
+        return create(response, null);
+    }
+
+    static StoreRawResult failure(final RuntimeException error) {
+        Objects.requireNonNull(error, "Error is required");
+        return create(null, error);
+    }
+
+    private static StoreRawResult create(final StoreRawResponse response, final RuntimeException error) {
+        return new StoreRawResult() {
+            @Override
+            public Optional<StoreRawResponse> getResponse() {
+                return Optional.ofNullable(response);
+            }
+
+            @Override
+            public Optional<RuntimeException> getError() {
+                return Optional.ofNullable(error);
+            }
+        };
+    }
+}
@@ -6,21 +6,89 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
 
 public interface TransactionManager {
 
     SendResponse send(SendRequest sendRequest);
 
+    /**
+     * Sends a transaction on a thread of the transaction manager, so the caller does not wait while it is encrypted,
+     * saved and published to its recipients.
+     *
+     * <p>The send runs to the end even if the returned stage is cancelled or times out, as interrupting it could leave
+     * its database work half done. If every thread of the transaction manager is busy and too many sends are already
+     * waiting for one, the stage fails with a {@link java.util.concurrent.RejectedExecutionException}.
+     *
+     * @param sendRequest the transaction to send
+     * @return the response, available once the transaction has been published to every recipient
+     */
+    CompletionStage<SendResponse> sendAsync(SendRequest sendRequest);
+
+    /**
+     * Sends a batch of transactions, saving all of them in one database transaction and pushing the payloads for each
+     * recipient node in one request.
+     *
+     * <p>A request that cannot be encrypted does not fail the batch, its result holds the error instead. If the
+     * transactions cannot be saved or published then none of them are kept, and every result holds that error.
+     *
+     * @param sendRequests the transactions to send
+     * @return a result for each request, in the same order as the requests
+     */
+    List<SendResult> sendBatch(List<SendRequest> sendRequests);
+
     SendResponse sendSignedTransaction(SendSignedRequest sendRequest);
 
+    /**
+     * Sends a signed transaction on a thread of the transaction manager, in the same way as {@link
+     * #sendAsync(SendRequest)}.
+     *
+     * @param sendRequest the signed transaction to send
+     * @return the response, available once the transaction has been published to every recipient
+     */
+    CompletionStage<SendResponse> sendSignedTransactionAsync(SendSignedRequest sendRequest);
+
     void delete(MessageHash messageHash);
 
     MessageHash storePayload(EncodedPayload transactionPayload);
 
+    /**
+     * Stores a payload pushed by another node on a thread of the transaction manager, in the same way as {@link
+     * #sendAsync(SendRequest)} but on threads of its own, so pushes are not held up by sends waiting on other nodes.
+     *
+     * @param transactionPayload the payload to store
+     * @return the hash of the stored payload
+     * @see #storePayload(EncodedPayload)
+     */
+    CompletionStage<MessageHash> storePayloadAsync(EncodedPayload transactionPayload);
+
     ReceiveResponse receive(ReceiveRequest request);
 
+    /**
+     * Receives a batch of transactions, looking up all of them at once and decrypting them in parallel.
+     *
+     * <p>A request that fails does not fail the batch, its result holds the error instead.
+     *
+     * @param requests the transactions to receive
+     * @return a result for each request, in the same order as the requests; each result is available as soon as its own
+     *     transaction has been decrypted
+     */
+    Stream<ReceiveResult> receiveAll(List<ReceiveRequest> requests);
+
     StoreRawResponse store(StoreRawRequest storeRequest);
 
+    /**
+     * Encrypts a batch of raw transactions and saves them in one database transaction.
+     *
+     * <p>A request that cannot be encrypted does not fail the batch, its result holds the error instead. If the
+     * transactions cannot be saved then none of them are kept, and every result holds that error.
+     *
+     * @param storeRequests the transactions to store
+     * @return a result for each request, in the same order as the requests
+     */
+    List<StoreRawResult> storeBatch(List<StoreRawRequest> storeRequests);
+
     boolean upcheck();
 
     boolean isSender(MessageHash transactionHash);
@@ -14,6 +14,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,15 +53,28 @@ public class TransactionManagerImpl implements TransactionManager {
 
     private final PrivacyHelper privacyHelper;
 
+    private final Executor receiveExecutor;
+
+    private final ExecutorService sendExecutor;
+
+    private final ExecutorService storeExecutor;
+
+    private final boolean compressionEnabled;
+
     private final MessageHashFactory messageHashFactory = MessageHashFactory.create();
 
+    private final Object[] storeLocks = Stream.generate(Object::new).limit(STORE_LOCK_STRIPES).toArray();
+
     public TransactionManagerImpl(
             EncryptedTransactionDAO encryptedTransactionDAO,
             Enclave enclave,
             EncryptedRawTransactionDAO encryptedRawTransactionDAO,
             ResendManager resendManager,
             BatchPayloadPublisher batchPayloadPublisher,
-            PrivacyHelper privacyHelper) {
+            PrivacyHelper privacyHelper,
+            ExecutorService sendExecutor,
+            ExecutorService storeExecutor,
+            boolean compressionEnabled) {
         this(
                 Base64Codec.create(),
                 PayloadEncoder.create(),
@@ -60,7 +83,11 @@ public class TransactionManagerImpl implements TransactionManager {
                 enclave,
                 encryptedRawTransactionDAO,
                 resendManager,
-                privacyHelper);
+                privacyHelper,
+                createReceiveExecutor(),
+                sendExecutor,
+                storeExecutor,
+                compressionEnabled);
     }
 
     // Only use for tests
@@ -73,6 +100,60 @@ public class TransactionManagerImpl implements TransactionManager {
             EncryptedRawTransactionDAO encryptedRawTransactionDAO,
             ResendManager resendManager,
             PrivacyHelper privacyHelper) {
+        this(
+                base64Decoder,
+                payloadEncoder,
+                encryptedTransactionDAO,
+                batchPayloadPublisher,
+                enclave,
+                encryptedRawTransactionDAO,
+                resendManager,
+                privacyHelper,
+                createReceiveExecutor(),
+                false);
+    }
+
+    // Only use for tests
+    public TransactionManagerImpl(
+            Base64Codec base64Decoder,
+            PayloadEncoder payloadEncoder,
+            EncryptedTransactionDAO encryptedTransactionDAO,
+            BatchPayloadPublisher batchPayloadPublisher,
+            Enclave enclave,
+            EncryptedRawTransactionDAO encryptedRawTransactionDAO,
+            ResendManager resendManager,
+            PrivacyHelper privacyHelper,
+            Executor receiveExecutor,
+            boolean compressionEnabled) {
+        this(
+                base64Decoder,
+                payloadEncoder,
+                encryptedTransactionDAO,
+                batchPayloadPublisher,
+                enclave,
+                encryptedRawTransactionDAO,
+                resendManager,
+                privacyHelper,
+                receiveExecutor,
+                createSendExecutor(DEFAULT_SEND_THREADS, DEFAULT_SEND_QUEUE_CAPACITY),
+                createStoreExecutor(DEFAULT_SEND_THREADS, DEFAULT_SEND_QUEUE_CAPACITY),
+                compressionEnabled);
+    }
+
+    // Only use for tests
+    public TransactionManagerImpl(
+            Base64Codec base64Decoder,
+            PayloadEncoder payloadEncoder,
+            EncryptedTransactionDAO encryptedTransactionDAO,
+            BatchPayloadPublisher batchPayloadPublisher,
+            Enclave enclave,
+            EncryptedRawTransactionDAO encryptedRawTransactionDAO,
+            ResendManager resendManager,
+            PrivacyHelper privacyHelper,
+            Executor receiveExecutor,
+            ExecutorService sendExecutor,
+            ExecutorService storeExecutor,
+            boolean compressionEnabled) {
 
         this.base64Codec = Objects.requireNonNull(base64Decoder, "base64Codec is required");
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder, "payloadEncoder is required");
@@ -84,11 +165,173 @@ public class TransactionManagerImpl implements TransactionManager {
                 Objects.requireNonNull(encryptedRawTransactionDAO, "encryptedRawTransactionDAO is required");
         this.resendManager = Objects.requireNonNull(resendManager, "resendManager is required");
         this.privacyHelper = Objects.requireNonNull(privacyHelper, "privacyHelper is required");
+        this.receiveExecutor = Objects.requireNonNull(receiveExecutor, "receiveExecutor is required");
+        this.sendExecutor = Objects.requireNonNull(sendExecutor, "sendExecutor is required");
+        this.storeExecutor = Objects.requireNonNull(storeExecutor, "storeExecutor is required");
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    // the most receives waiting for a receive thread, across all batches
+    static final int RECEIVE_QUEUE_CAPACITY = 1000;
+
+    // decryption is CPU bound, so batches are spread over at most one thread per processor. Once the queue is full the
+    // request thread decrypts the rest of its batch itself, so concurrent batches are slowed down rather than queued.
+    static ThreadPoolExecutor createReceiveExecutor() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(RECEIVE_QUEUE_CAPACITY),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "receive-batch");
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static final int DEFAULT_SEND_THREADS = 64;
+
+    static final int DEFAULT_SEND_QUEUE_CAPACITY = 1000;
+
+    // payloads pushed for the same transaction are merged into the one stored payload, so they are stored one at a
+    // time; payloads of other transactions only wait for each other when their hashes share a stripe
+    private static final int STORE_LOCK_STRIPES = 64;
+
+    /**
+     * Creates the executor that asynchronous sends run on. A send mostly waits for the database and the recipients'
+     * nodes rather than the processor, so there are more threads than processors, but both the threads and the sends
+     * waiting for one are bounded; once they are all taken further sends are rejected.
+     *
+     * @param threads the most sends run at once
+     * @param queueCapacity the most sends waiting for a thread
+     * @return the executor
+     */
+    public static ThreadPoolExecutor createSendExecutor(final int threads, final int queueCapacity) {
+        return createAsyncExecutor("send", threads, queueCapacity);
+    }
+
+    /**
+     * Creates the executor that payloads pushed by other nodes are stored on, bounded in the same way as the send
+     * executor. A send holds its thread until the recipients' nodes have stored the push, so if pushes waited for send
+     * threads, two nodes sending to each other could each fill their send threads with sends waiting on pushes queued
+     * behind them.
+     *
+     * @param threads the most pushes stored at once
+     * @param queueCapacity the most pushes waiting for a thread
+     * @return the executor
+     */
+    public static ThreadPoolExecutor createStoreExecutor(final int threads, final int queueCapacity) {
+        return createAsyncExecutor("store", threads, queueCapacity);
+    }
+
+    private static ThreadPoolExecutor createAsyncExecutor(
+            final String threadName, final int threads, final int queueCapacity) {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueCapacity),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, threadName);
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // runs the call on a thread of the executor. The call is not interrupted if its caller stops waiting, as that could
+    // abandon database work half done; it runs to the end and its result is dropped.
+    private static <T> CompletableFuture<T> submit(final Supplier<T> call, final ExecutorService executor) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warn("Every thread is busy and the queue is full, rejecting request");
+            return CompletableFuture.failedFuture(ex);
+        }
     }
 
     @Override
     public SendResponse send(SendRequest sendRequest) {
 
+        final EncryptedSend encryptedSend = encrypt(sendRequest);
+
+        this.encryptedTransactionDAO.save(
+                encryptedSend.transaction,
+                () -> {
+                    batchPayloadPublisher.publishPayload(encryptedSend.payload, encryptedSend.remoteRecipients);
+                    return null;
+                });
+
+        return encryptedSend.response;
+    }
+
+    @Override
+    public CompletionStage<SendResponse> sendAsync(final SendRequest sendRequest) {
+        return submit(() -> send(sendRequest), sendExecutor);
+    }
+
+    @Override
+    public List<SendResult> sendBatch(final List<SendRequest> sendRequests) {
+        LOGGER.info("Sending {} transactions", sendRequests.size());
+
+        final SendResult[] results = new SendResult[sendRequests.size()];
+        final Map<Integer, EncryptedSend> encryptedSends = new LinkedHashMap<>();
+        for (int i = 0; i < sendRequests.size(); i++) {
+            try {
+                encryptedSends.put(i, encrypt(sendRequests.get(i)));
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Unable to encrypt transaction {} of batch", i, ex);
+                results[i] = SendResult.failure(ex);
+            }
+        }
+
+        if (!encryptedSends.isEmpty()) {
+            try {
+                saveAndPublish(encryptedSends.values());
+                encryptedSends.forEach((i, encryptedSend) -> results[i] = SendResult.success(encryptedSend.response));
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Unable to save and publish batch", ex);
+                encryptedSends.keySet().forEach(i -> results[i] = SendResult.failure(ex));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // every payload for a recipient is listed under its key, so the publisher can push them to its node together
+    private void saveAndPublish(final Collection<EncryptedSend> encryptedSends) {
+        final Map<PublicKey, List<EncodedPayload>> payloadsByRecipient = new LinkedHashMap<>();
+        encryptedSends.forEach(
+                encryptedSend ->
+                        encryptedSend.remoteRecipients.forEach(
+                                recipient ->
+                                        payloadsByRecipient
+                                                .computeIfAbsent(recipient, k -> new ArrayList<>())
+                                                .add(encryptedSend.payload)));
+
+        final List<EncryptedTransaction> transactions =
+                encryptedSends.stream().map(encryptedSend -> encryptedSend.transaction).collect(Collectors.toList());
+
+        this.encryptedTransactionDAO.saveAll(
+                transactions,
+                () -> {
+                    batchPayloadPublisher.publishPayloads(payloadsByRecipient);
+                    return null;
+                });
+    }
+
+    private EncryptedSend encrypt(final SendRequest sendRequest) {
+
         final PublicKey senderPublicKey = sendRequest.getSender();
         final List<PublicKey> recipientList = new ArrayList<>();
         recipientList.addAll(sendRequest.getRecipients());
@@ -109,14 +352,33 @@ public class TransactionManagerImpl implements TransactionManager {
 
         privacyHelper.validateSendRequest(privacyMode, recipientList, affectedContractTransactions);
 
-        final EncodedPayload payload =
-                enclave.encryptPayload(
-                        raw,
-                        senderPublicKey,
-                        recipientListNoDuplicate,
-                        privacyMode,
-                        affectedContractTransactions,
-                        execHash);
+        final List<PublicKey> recipientListRemotesOnly =
+                recipientListNoDuplicate.stream()
+                        .filter(k -> !enclave.getPublicKeys().contains(k))
+                        .collect(Collectors.toList());
+
+        // the message is only compressed if every recipient's node is able to decompress it
+        final EncodedPayload payload;
+        if (compressionEnabled && batchPayloadPublisher.isCompressionSupported(recipientListRemotesOnly)) {
+            payload =
+                    enclave.encryptPayload(
+                            raw,
+                            senderPublicKey,
+                            recipientListNoDuplicate,
+                            privacyMode,
+                            affectedContractTransactions,
+                            execHash,
+                            PayloadCompression.DEFLATE);
+        } else {
+            payload =
+                    enclave.encryptPayload(
+                            raw,
+                            senderPublicKey,
+                            recipientListNoDuplicate,
+                            privacyMode,
+                            affectedContractTransactions,
+                            execHash);
+        }
 
         final MessageHash transactionHash =
                 Optional.of(payload)
@@ -125,19 +387,7 @@ public class TransactionManagerImpl implements TransactionManager {
                         .get();
 
         byte[] payloadData = this.payloadEncoder.encode(payload);
-        final EncryptedTransaction newTransaction = new EncryptedTransaction(transactionHash, payloadData);
-
-        final List<PublicKey> recipientListRemotesOnly =
-                recipientListNoDuplicate.stream()
-                        .filter(k -> !enclave.getPublicKeys().contains(k))
-                        .collect(Collectors.toList());
-
-        this.encryptedTransactionDAO.save(
-                newTransaction,
-                () -> {
-                    batchPayloadPublisher.publishPayload(payload, recipientListRemotesOnly);
-                    return null;
-                });
+        final EncryptedTransaction newTransaction = new EncryptedTransaction(transactionHash, payloadData, payload);
 
         final Set<PublicKey> managedPublicKeys = enclave.getPublicKeys();
         final Set<PublicKey> managedParties =
@@ -145,10 +395,36 @@ public class TransactionManagerImpl implements TransactionManager {
                         .filter(managedPublicKeys::contains)
                         .collect(Collectors.toSet());
 
-        return SendResponse.Builder.create()
-                .withMessageHash(transactionHash)
-                .withManagedParties(managedParties)
-                .build();
+        final SendResponse response =
+                SendResponse.Builder.create()
+                        .withMessageHash(transactionHash)
+                        .withManagedParties(managedParties)
+                        .build();
+
+        return new EncryptedSend(payload, newTransaction, recipientListRemotesOnly, response);
+    }
+
+    /** A transaction that has been encrypted, along with what is needed to save and publish it */
+    private static class EncryptedSend {
+
+        private final EncodedPayload payload;
+
+        private final EncryptedTransaction transaction;
+
+        private final List<PublicKey> remoteRecipients;
+
+        private final SendResponse response;
+
+        private EncryptedSend(
+                final EncodedPayload payload,
+                final EncryptedTransaction transaction,
+                final List<PublicKey> remoteRecipients,
+                final SendResponse response) {
+            this.payload = payload;
+            this.transaction = transaction;
+            this.remoteRecipients = remoteRecipients;
+            this.response = response;
+        }
     }
 
     @Override
@@ -191,7 +467,7 @@ public class TransactionManagerImpl implements TransactionManager {
                         execHash);
 
         final EncryptedTransaction newTransaction =
-                new EncryptedTransaction(messageHash, this.payloadEncoder.encode(payload));
+                new EncryptedTransaction(messageHash, this.payloadEncoder.encode(payload), payload);
 
         final List<PublicKey> recipientListRemotesOnly =
                 recipientListNoDuplicate.stream()
@@ -213,9 +489,19 @@ public class TransactionManagerImpl implements TransactionManager {
     }
 
     @Override
-    public synchronized MessageHash storePayload(final EncodedPayload payload) {
+    public CompletionStage<SendResponse> sendSignedTransactionAsync(final SendSignedRequest sendRequest) {
+        return submit(() -> sendSignedTransaction(sendRequest), sendExecutor);
+    }
+
+    @Override
+    public MessageHash storePayload(final EncodedPayload payload) {
         final MessageHash transactionHash = messageHashFactory.createFromCipherText(payload.getCipherText());
+        synchronized (storeLocks[Math.floorMod(transactionHash.hashCode(), STORE_LOCK_STRIPES)]) {
+            return storePayload(transactionHash, payload);
+        }
+    }
 
+    private MessageHash storePayload(final MessageHash transactionHash, final EncodedPayload payload) {
         final List<AffectedTransaction> affectedContractTransactions =
                 privacyHelper.findAffectedContractTransactionsFromPayload(payload);
 
@@ -249,11 +535,11 @@ public class TransactionManagerImpl implements TransactionManager {
 
         // This is a tran
         // saction with a different node as the sender
-        final Optional<EncryptedTransaction> tx = this.encryptedTransactionDAO.retrieveByHash(transactionHash);
+        final Optional<EncryptedTransaction> tx = this.encryptedTransactionDAO.retrieveByHashForUpdate(transactionHash);
         if (tx.isEmpty()) {
             // This is the first time we have seen the payload, so just save it to the database as is
             this.encryptedTransactionDAO.save(
-                    new EncryptedTransaction(transactionHash, payloadEncoder.encode(encodedPayload)));
+                    new EncryptedTransaction(transactionHash, payloadEncoder.encode(encodedPayload), encodedPayload));
             LOGGER.info("Stored new payload with hash {}", transactionHash);
             return transactionHash;
         }
@@ -270,6 +556,7 @@ public class TransactionManagerImpl implements TransactionManager {
                                 Objects.equals(existing.getRecipientNonce(), encodedPayload.getRecipientNonce()),
                                 Objects.equals(existing.getPrivacyMode(), encodedPayload.getPrivacyMode()),
                                 Arrays.equals(existing.getExecHash(), encodedPayload.getExecHash()),
+                                Objects.equals(existing.getCompression(), encodedPayload.getCompression()),
 
                                 // checks the affected contracts contents match
                                 Objects.equals(
@@ -330,13 +617,19 @@ public class TransactionManagerImpl implements TransactionManager {
             existingPayloadBuilder.withNewRecipientKeys(existingKeys);
         }
 
-        encryptedTransaction.setEncodedPayload(payloadEncoder.encode(existingPayloadBuilder.build()));
+        final EncodedPayload updatedPayload = existingPayloadBuilder.build();
+        encryptedTransaction.setEncodedPayload(payloadEncoder.encode(updatedPayload), updatedPayload);
         this.encryptedTransactionDAO.update(encryptedTransaction);
 
         LOGGER.info("Updated existing payload with hash {}", transactionHash);
         return transactionHash;
     }
 
+    @Override
+    public CompletionStage<MessageHash> storePayloadAsync(final EncodedPayload payload) {
+        return submit(() -> storePayload(payload), storeExecutor);
+    }
+
     @Override
     public void delete(MessageHash messageHash) {
         LOGGER.info("Received request to delete message with hash {}", messageHash);
@@ -350,36 +643,94 @@ public class TransactionManagerImpl implements TransactionManager {
         LOGGER.info("Lookup transaction {}", hash);
 
         if (request.isRaw()) {
-            final EncryptedRawTransaction encryptedRawTransaction =
-                    encryptedRawTransactionDAO
-                            .retrieveByHash(hash)
-                            .orElseThrow(
-                                    () ->
-                                            new TransactionNotFoundException(
-                                                    "Raw Message with hash " + hash + " was not found"));
-
-            final PublicKey senderKey = PublicKey.from(encryptedRawTransaction.getSender());
-
-            final RawTransaction rawTransaction =
-                    new RawTransaction(
-                            encryptedRawTransaction.getEncryptedPayload(),
-                            encryptedRawTransaction.getEncryptedKey(),
-                            new Nonce(encryptedRawTransaction.getNonce()),
-                            senderKey);
-
-            final byte[] response = enclave.unencryptRawPayload(rawTransaction);
-            return ReceiveResponse.Builder.create()
-                    .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
-                    .withUnencryptedTransactionData(response)
-                    .withManagedParties(Set.of(senderKey))
-                    .build();
+            return receiveRaw(hash, encryptedRawTransactionDAO.retrieveByHash(hash));
         }
+        return receive(request, encryptedTransactionDAO.retrieveByHash(hash));
+    }
+
+    @Override
+    public Stream<ReceiveResult> receiveAll(final List<ReceiveRequest> requests) {
+        LOGGER.info("Lookup {} transactions", requests.size());
+
+        final Map<MessageHash, EncryptedRawTransaction> rawTransactions =
+                findAll(requests, true, encryptedRawTransactionDAO::findByHashes, EncryptedRawTransaction::getHash);
+        final Map<MessageHash, EncryptedTransaction> transactions =
+                findAll(requests, false, encryptedTransactionDAO::findByHashes, EncryptedTransaction::getHash);
+
+        final List<CompletableFuture<ReceiveResult>> results =
+                requests.stream()
+                        .map(
+                                request ->
+                                        CompletableFuture.supplyAsync(
+                                                () -> tryReceive(request, rawTransactions, transactions),
+                                                receiveExecutor))
+                        .collect(Collectors.toList());
+
+        return results.stream().map(CompletableFuture::join);
+    }
+
+    private static <T> Map<MessageHash, T> findAll(
+            final List<ReceiveRequest> requests,
+            final boolean raw,
+            final Function<Collection<MessageHash>, List<T>> finder,
+            final Function<T, MessageHash> hash) {
+        final Set<MessageHash> hashes =
+                requests.stream()
+                        .filter(request -> request.isRaw() == raw)
+                        .map(ReceiveRequest::getTransactionHash)
+                        .collect(Collectors.toSet());
+        if (hashes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return finder.apply(hashes).stream().collect(Collectors.toMap(hash, Function.identity()));
+    }
+
+    private ReceiveResult tryReceive(
+            final ReceiveRequest request,
+            final Map<MessageHash, EncryptedRawTransaction> rawTransactions,
+            final Map<MessageHash, EncryptedTransaction> transactions) {
+        final MessageHash hash = request.getTransactionHash();
+        try {
+            if (request.isRaw()) {
+                return ReceiveResult.success(hash, receiveRaw(hash, Optional.ofNullable(rawTransactions.get(hash))));
+            }
+            return ReceiveResult.success(hash, receive(request, Optional.ofNullable(transactions.get(hash))));
+        } catch (RuntimeException ex) {
+            LOGGER.debug("Unable to receive transaction {}", hash, ex);
+            return ReceiveResult.failure(hash, ex);
+        }
+    }
+
+    private ReceiveResponse receiveRaw(
+            final MessageHash hash, final Optional<EncryptedRawTransaction> storedTransaction) {
+        final EncryptedRawTransaction encryptedRawTransaction =
+                storedTransaction.orElseThrow(
+                        () -> new TransactionNotFoundException("Raw Message with hash " + hash + " was not found"));
+
+        final PublicKey senderKey = PublicKey.from(encryptedRawTransaction.getSender());
+
+        final RawTransaction rawTransaction =
+                new RawTransaction(
+                        encryptedRawTransaction.getEncryptedPayload(),
+                        encryptedRawTransaction.getEncryptedKey(),
+                        new Nonce(encryptedRawTransaction.getNonce()),
+                        senderKey);
+
+        final byte[] response = enclave.unencryptRawPayload(rawTransaction);
+        return ReceiveResponse.Builder.create()
+                .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                .withUnencryptedTransactionData(response)
+                .withManagedParties(Set.of(senderKey))
+                .build();
+    }
+
+    private ReceiveResponse receive(
+            final ReceiveRequest request, final Optional<EncryptedTransaction> storedTransaction) {
+        final MessageHash hash = request.getTransactionHash();
 
         final EncryptedTransaction encryptedTransaction =
-                encryptedTransactionDAO
-                        .retrieveByHash(hash)
-                        .orElseThrow(
-                                () -> new TransactionNotFoundException("Message with hash " + hash + " was not found"));
+                storedTransaction.orElseThrow(
+                        () -> new TransactionNotFoundException("Message with hash " + hash + " was not found"));
 
         final EncodedPayload payload =
                 Optional.of(encryptedTransaction)
@@ -445,22 +796,58 @@ public class TransactionManagerImpl implements TransactionManager {
     @Override
     public StoreRawResponse store(StoreRawRequest storeRequest) {
 
-        RawTransaction rawTransaction = enclave.encryptRawPayload(storeRequest.getPayload(), storeRequest.getSender());
-        MessageHash hash = messageHashFactory.createFromCipherText(rawTransaction.getEncryptedPayload());
-
-        EncryptedRawTransaction encryptedRawTransaction =
-                new EncryptedRawTransaction(
-                        hash,
-                        rawTransaction.getEncryptedPayload(),
-                        rawTransaction.getEncryptedKey(),
-                        rawTransaction.getNonce().getNonceBytes(),
-                        rawTransaction.getFrom().getKeyBytes());
+        EncryptedRawTransaction encryptedRawTransaction = encryptRaw(storeRequest);
 
         encryptedRawTransactionDAO.save(encryptedRawTransaction);
 
         return StoreRawResponse.from(encryptedRawTransaction.getHash());
     }
 
+    @Override
+    public List<StoreRawResult> storeBatch(final List<StoreRawRequest> storeRequests) {
+        LOGGER.info("Storing {} raw transactions", storeRequests.size());
+
+        final StoreRawResult[] results = new StoreRawResult[storeRequests.size()];
+        final Map<Integer, EncryptedRawTransaction> encryptedRawTransactions = new LinkedHashMap<>();
+        for (int i = 0; i < storeRequests.size(); i++) {
+            try {
+                encryptedRawTransactions.put(i, encryptRaw(storeRequests.get(i)));
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Unable to encrypt raw transaction {} of batch", i, ex);
+                results[i] = StoreRawResult.failure(ex);
+            }
+        }
+
+        if (!encryptedRawTransactions.isEmpty()) {
+            try {
+                encryptedRawTransactionDAO.saveAll(encryptedRawTransactions.values());
+                encryptedRawTransactions.forEach(
+                        (i, encryptedRawTransaction) ->
+                                results[i] =
+                                        StoreRawResult.success(
+                                                StoreRawResponse.from(encryptedRawTransaction.getHash())));
+            } catch (RuntimeException ex) {
+                LOGGER.debug("Unable to save batch of raw transactions", ex);
+                encryptedRawTransactions.keySet().forEach(i -> results[i] = StoreRawResult.failure(ex));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private EncryptedRawTransaction encryptRaw(final StoreRawRequest storeRequest) {
+
+        RawTransaction rawTransaction = enclave.encryptRawPayload(storeRequest.getPayload(), storeRequest.getSender());
+        MessageHash hash = messageHashFactory.createFromCipherText(rawTransaction.getEncryptedPayload());
+
+        return new EncryptedRawTransaction(
+                hash,
+                rawTransaction.getEncryptedPayload(),
+                rawTransaction.getEncryptedKey(),
+                rawTransaction.getNonce().getNonceBytes(),
+                rawTransaction.getFrom().getKeyBytes());
+    }
+
     @Override
     public boolean upcheck() {
         if (!encryptedRawTransactionDAO.upcheck()) {
@@ -4,16 +4,33 @@ import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BatchPayloadPublisher {
 
     /**
-     * Strips (leaving data intended only for that particular recipient) and publishes the payload to
-     * each recipient identified by the provided keys.
+     * Strips (leaving data intended only for that particular recipient) and publishes the payload to each recipient
+     * identified by the provided keys.
      *
      * @param payload the payload object to be stripped and pushed
      * @param recipientKeys list of public keys identifying the target nodes
      */
     void publishPayload(EncodedPayload payload, List<PublicKey> recipientKeys);
 
+    /**
+     * Strips each payload for the recipient it is listed under and publishes them, pushing all the payloads bound for
+     * the same node together.
+     *
+     * @param payloads the payloads to be stripped and pushed, keyed by the public key of their recipient
+     */
+    void publishPayloads(Map<PublicKey, List<EncodedPayload>> payloads);
+
+    /**
+     * Whether the nodes of all the recipients identified by the provided keys are able to decrypt payloads whose
+     * message was compressed before it was encrypted.
+     *
+     * @param recipientKeys list of public keys identifying the target nodes
+     * @return true if compressed payloads can be published to every recipient
+     */
+    boolean isCompressionSupported(List<PublicKey> recipientKeys);
 }
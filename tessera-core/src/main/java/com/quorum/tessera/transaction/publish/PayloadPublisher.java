@@ -3,6 +3,9 @@ package com.quorum.tessera.transaction.publish;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 
+import java.util.List;
+import java.util.Map;
+
 /** Publishes messages from one node to another */
 public interface PayloadPublisher {
 
@@ -13,4 +16,40 @@ public interface PayloadPublisher {
      * @param recipientKey the public key identifying the target node
      */
     void publishPayload(EncodedPayload payload, PublicKey recipientKey);
+
+    /**
+     * Publishes EncodedPayloads to the recipients identified by the keys they are listed under. Implementations may
+     * push the payloads for all the recipients on one node in a single request; by default each is published on its
+     * own.
+     *
+     * @param payloads the payload objects to be pushed, keyed by the public key identifying their target node
+     */
+    default void publishPayloads(final Map<PublicKey, List<EncodedPayload>> payloads) {
+        payloads.forEach(
+                (recipientKey, recipientPayloads) ->
+                        recipientPayloads.forEach(payload -> publishPayload(payload, recipientKey)));
+    }
+
+    /**
+     * Identifies the node hosting the recipient identified by the provided key, so that the payloads for recipients
+     * sharing a node can be published together. Publishers that know nothing of the remote node take each recipient to
+     * be on a node of its own.
+     *
+     * @param recipientKey the public key identifying the target node
+     * @return an identifier that is the same for all the recipients on one node
+     */
+    default String nodeOf(final PublicKey recipientKey) {
+        return recipientKey.encodeToBase64();
+    }
+
+    /**
+     * Whether the node of the recipient identified by the provided key is able to decrypt payloads whose message was
+     * compressed before it was encrypted. Publishers that know nothing of the remote node report that it is not.
+     *
+     * @param recipientKey the public key identifying the target node
+     * @return true if compressed payloads can be published to the recipient
+     */
+    default boolean isCompressionSupported(final PublicKey recipientKey) {
+        return false;
+    }
 }
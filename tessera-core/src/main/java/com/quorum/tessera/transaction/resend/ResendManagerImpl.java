@@ -62,7 +62,7 @@ public class ResendManagerImpl implements ResendManager {
         }
 
         // this is a tx which we created
-        final Optional<EncryptedTransaction> tx = this.encryptedTransactionDAO.retrieveByHash(transactionHash);
+        final Optional<EncryptedTransaction> tx = this.encryptedTransactionDAO.retrieveByHashForUpdate(transactionHash);
 
         if (tx.isPresent()) {
 
@@ -101,7 +101,8 @@ public class ResendManagerImpl implements ResendManager {
 
                 EncryptedTransaction encryptedTransaction = tx.get();
 
-                encryptedTransaction.setEncodedPayload(payloadEncoder.encode(payloadBuilder.build()));
+                final EncodedPayload updatedPayload = payloadBuilder.build();
+                encryptedTransaction.setEncodedPayload(payloadEncoder.encode(updatedPayload), updatedPayload);
 
                 this.encryptedTransactionDAO.update(encryptedTransaction);
             }
@@ -124,9 +125,10 @@ public class ResendManagerImpl implements ResendManager {
                 payloadBuilder.withRecipientBox(newBox);
             }
 
-            final byte[] encoded = payloadEncoder.encode(payloadBuilder.build());
+            final EncodedPayload rebuiltPayload = payloadBuilder.build();
+            final byte[] encoded = payloadEncoder.encode(rebuiltPayload);
 
-            this.encryptedTransactionDAO.save(new EncryptedTransaction(transactionHash, encoded));
+            this.encryptedTransactionDAO.save(new EncryptedTransaction(transactionHash, encoded, rebuiltPayload));
         }
     }
 }
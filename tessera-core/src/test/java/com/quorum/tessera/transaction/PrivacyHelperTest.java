@@ -3,6 +3,7 @@ package com.quorum.tessera.transaction;
 import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.data.TransactionPrivacyMetadata;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.EnhancedPrivacyNotSupportedException;
@@ -38,25 +39,30 @@ public class PrivacyHelperTest {
     @Test
     public void findAffectedContractTransactionsFromSendRequestFound() {
 
-        final MessageHash hash1 = mock(MessageHash.class);
-        final MessageHash hash2 = mock(MessageHash.class);
+        final MessageHash hash1 = new MessageHash("hash1".getBytes());
+        final MessageHash hash2 = new MessageHash("hash2".getBytes());
+        final PublicKey recipient = PublicKey.from("recipient".getBytes());
 
-        EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-        when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-        when(et1.getHash()).thenReturn(hash1);
-        EncryptedTransaction et2 = mock(EncryptedTransaction.class);
-        when(et2.getEncodedPayload()).thenReturn("payload2".getBytes());
-        when(et2.getHash()).thenReturn(hash2);
+        TransactionPrivacyMetadata metadata1 = mock(TransactionPrivacyMetadata.class);
+        when(metadata1.getHash()).thenReturn(hash1);
+        when(metadata1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(metadata1.getRecipientKeys()).thenReturn(List.of(recipient));
+        TransactionPrivacyMetadata metadata2 = mock(TransactionPrivacyMetadata.class);
+        when(metadata2.getHash()).thenReturn(hash2);
 
-        when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of(et1, et2));
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(anyCollection()))
+                .thenReturn(List.of(metadata1, metadata2));
 
         List<AffectedTransaction> affectedTransactions =
                 privacyHelper.findAffectedContractTransactionsFromSendRequest(Set.of(hash1, hash2));
 
         assertThat(affectedTransactions).isNotNull();
         assertThat(affectedTransactions.size()).isEqualTo(2);
+        assertThat(affectedTransactions.get(0).getHash()).isEqualTo(TxHash.from(hash1.getHashBytes()));
+        assertThat(affectedTransactions.get(0).getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(affectedTransactions.get(0).getRecipientKeys()).containsExactly(recipient);
 
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
@@ -65,11 +71,10 @@ public class PrivacyHelperTest {
         final MessageHash hash1 = mock(MessageHash.class);
         final MessageHash hash2 = mock(MessageHash.class);
 
-        EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-        when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-        when(et1.getHash()).thenReturn(new MessageHash("hash1".getBytes()));
+        TransactionPrivacyMetadata metadata1 = mock(TransactionPrivacyMetadata.class);
+        when(metadata1.getHash()).thenReturn(new MessageHash("hash1".getBytes()));
 
-        when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of(et1));
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(anyCollection())).thenReturn(List.of(metadata1));
 
         assertThatExceptionOfType(PrivacyViolationException.class)
                 .isThrownBy(
@@ -79,17 +84,69 @@ public class PrivacyHelperTest {
                         })
                 .withMessageContaining("Unable to find affectedContractTransaction");
 
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
-    public void testValidateSendPartyProtection() {
+    public void affectedPayloadsAreLoadedTogetherWhenFirstNeeded() {
 
-        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
+        final MessageHash hash1 = new MessageHash("hash1".getBytes());
+        final MessageHash hash2 = new MessageHash("hash2".getBytes());
+
+        TransactionPrivacyMetadata metadata1 = mock(TransactionPrivacyMetadata.class);
+        when(metadata1.getHash()).thenReturn(hash1);
+        TransactionPrivacyMetadata metadata2 = mock(TransactionPrivacyMetadata.class);
+        when(metadata2.getHash()).thenReturn(hash2);
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(anyCollection()))
+                .thenReturn(List.of(metadata1, metadata2));
+
+        EncryptedTransaction et1 = mock(EncryptedTransaction.class);
+        when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
+        when(et1.getHash()).thenReturn(hash1);
+        EncryptedTransaction et2 = mock(EncryptedTransaction.class);
+        when(et2.getEncodedPayload()).thenReturn("payload2".getBytes());
+        when(et2.getHash()).thenReturn(hash2);
+        when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of(et1, et2));
+
+        List<AffectedTransaction> affectedTransactions =
+                privacyHelper.findAffectedContractTransactionsFromSendRequest(Set.of(hash1, hash2));
+
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
+        verify(encryptedTransactionDAO, never()).findByHashes(any());
+
+        assertThat(affectedTransactions).extracting(AffectedTransaction::getPayload).doesNotContainNull();
+
+        verify(encryptedTransactionDAO).findByHashes(List.of(hash1, hash2));
+    }
+
+    @Test
+    public void affectedPayloadRemovedSinceMetadataWasRead() {
+
+        final MessageHash hash = new MessageHash("hash1".getBytes());
+
+        TransactionPrivacyMetadata metadata = mock(TransactionPrivacyMetadata.class);
+        when(metadata.getHash()).thenReturn(hash);
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(anyCollection())).thenReturn(List.of(metadata));
+        when(encryptedTransactionDAO.findByHashes(anyCollection())).thenReturn(List.of());
+
+        List<AffectedTransaction> affectedTransactions =
+                privacyHelper.findAffectedContractTransactionsFromSendRequest(Set.of(hash));
+
+        final Throwable throwable = catchThrowable(() -> affectedTransactions.get(0).getPayload());
+
+        assertThat(throwable)
+                .isInstanceOf(PrivacyViolationException.class)
+                .hasMessage("Unable to find affectedContractTransaction " + hash);
+
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
+        verify(encryptedTransactionDAO).findByHashes(List.of(hash));
+    }
+
+    @Test
+    public void testValidateSendPartyProtection() {
 
         final AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(encodedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
 
         boolean isValid =
                 privacyHelper.validateSendRequest(
@@ -101,11 +158,8 @@ public class PrivacyHelperTest {
     @Test
     public void testValidateSendPartyProtectionFlagMismatched() {
 
-        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
-
         final AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(encodedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
         final TxHash hash = TxHash.from("someHash".getBytes());
         when(affectedTransaction.getHash()).thenReturn(hash);
 
@@ -125,12 +179,9 @@ public class PrivacyHelperTest {
         PublicKey recipient1 = mock(PublicKey.class);
         PublicKey recipient2 = mock(PublicKey.class);
 
-        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
-
         final AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(encodedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         final TxHash hash = TxHash.from("someHash".getBytes());
         when(affectedTransaction.getHash()).thenReturn(hash);
 
@@ -149,12 +200,9 @@ public class PrivacyHelperTest {
         PublicKey recipient1 = mock(PublicKey.class);
         PublicKey recipient2 = mock(PublicKey.class);
 
-        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
-
         final AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(encodedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         final TxHash hash = TxHash.from("someHash".getBytes());
         when(affectedTransaction.getHash()).thenReturn(hash);
 
@@ -174,12 +222,9 @@ public class PrivacyHelperTest {
         PublicKey recipient1 = mock(PublicKey.class);
         PublicKey recipient2 = mock(PublicKey.class);
 
-        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
-        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipient1));
-
         final AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(encodedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction.getRecipientKeys()).thenReturn(List.of(recipient1));
         final TxHash hash = TxHash.from("someHash".getBytes());
         when(affectedTransaction.getHash()).thenReturn(hash);
 
@@ -201,18 +246,17 @@ public class PrivacyHelperTest {
         affected.put(TxHash.from("Hash1".getBytes()), SecurityHash.from("secHash1".getBytes()));
         affected.put(TxHash.from("Hash2".getBytes()), SecurityHash.from("secHash2".getBytes()));
 
-        EncryptedTransaction et1 = mock(EncryptedTransaction.class);
-        when(et1.getEncodedPayload()).thenReturn("payload1".getBytes());
-        when(et1.getHash()).thenReturn(new MessageHash("Hash1".getBytes()));
+        TransactionPrivacyMetadata metadata1 = mock(TransactionPrivacyMetadata.class);
+        when(metadata1.getHash()).thenReturn(new MessageHash("Hash1".getBytes()));
 
         when(payload.getAffectedContractTransactions()).thenReturn(affected);
-        when(encryptedTransactionDAO.findByHashes(any())).thenReturn(singletonList(et1));
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(any())).thenReturn(singletonList(metadata1));
 
         List<AffectedTransaction> result = privacyHelper.findAffectedContractTransactionsFromPayload(payload);
 
         assertThat(result).hasSize(1);
 
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
@@ -222,15 +266,11 @@ public class PrivacyHelperTest {
         EncodedPayload payload = mock(EncodedPayload.class);
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
 
-        EncodedPayload affectedPayload1 = mock(EncodedPayload.class);
-        when(affectedPayload1.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
         AffectedTransaction affectedTransaction1 = mock(AffectedTransaction.class);
-        when(affectedTransaction1.getPayload()).thenReturn(affectedPayload1);
+        when(affectedTransaction1.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
 
-        EncodedPayload affectedPayload2 = mock(EncodedPayload.class);
-        when(affectedPayload2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
         AffectedTransaction affectedTransaction2 = mock(AffectedTransaction.class);
-        when(affectedTransaction2.getPayload()).thenReturn(affectedPayload2);
+        when(affectedTransaction2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
 
         boolean result =
                 privacyHelper.validatePayload(txHash, payload, List.of(affectedTransaction1, affectedTransaction2));
@@ -250,10 +290,8 @@ public class PrivacyHelperTest {
 
         when(payload.getAffectedContractTransactions()).thenReturn(affected);
 
-        EncodedPayload affectedPayload = mock(EncodedPayload.class);
-        when(affectedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
         AffectedTransaction affectedTransaction = mock(AffectedTransaction.class);
-        when(affectedTransaction.getPayload()).thenReturn(affectedPayload);
+        when(affectedTransaction.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
 
         boolean result = privacyHelper.validatePayload(txHash, payload, singletonList(affectedTransaction));
 
@@ -277,18 +315,14 @@ public class PrivacyHelperTest {
 
         when(payload.getAffectedContractTransactions()).thenReturn(affected);
 
-        EncodedPayload affectedPayload1 = mock(EncodedPayload.class);
-        when(affectedPayload1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload1.getRecipientKeys()).thenReturn(List.of(recipient1, fakeSender));
         AffectedTransaction affectedTransaction1 = mock(AffectedTransaction.class);
-        when(affectedTransaction1.getPayload()).thenReturn(affectedPayload1);
+        when(affectedTransaction1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction1.getRecipientKeys()).thenReturn(List.of(recipient1, fakeSender));
         when(affectedTransaction1.getHash()).thenReturn(TxHash.from("hash1".getBytes()));
 
-        EncodedPayload affectedPayload2 = mock(EncodedPayload.class);
-        when(affectedPayload2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload2.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         AffectedTransaction affectedTransaction2 = mock(AffectedTransaction.class);
-        when(affectedTransaction2.getPayload()).thenReturn(affectedPayload2);
+        when(affectedTransaction2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction2.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         when(affectedTransaction2.getHash()).thenReturn(TxHash.from("hash2".getBytes()));
 
         boolean result =
@@ -314,18 +348,14 @@ public class PrivacyHelperTest {
 
         when(payload.getAffectedContractTransactions()).thenReturn(affected);
 
-        EncodedPayload affectedPayload1 = mock(EncodedPayload.class);
-        when(affectedPayload1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload1.getRecipientKeys()).thenReturn(singletonList(recipient1));
         AffectedTransaction affectedTransaction1 = mock(AffectedTransaction.class);
-        when(affectedTransaction1.getPayload()).thenReturn(affectedPayload1);
+        when(affectedTransaction1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction1.getRecipientKeys()).thenReturn(singletonList(recipient1));
         when(affectedTransaction1.getHash()).thenReturn(TxHash.from("hash1".getBytes()));
 
-        EncodedPayload affectedPayload2 = mock(EncodedPayload.class);
-        when(affectedPayload2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload2.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         AffectedTransaction affectedTransaction2 = mock(AffectedTransaction.class);
-        when(affectedTransaction2.getPayload()).thenReturn(affectedPayload2);
+        when(affectedTransaction2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction2.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         when(affectedTransaction2.getHash()).thenReturn(TxHash.from("hash2".getBytes()));
 
         assertThatExceptionOfType(PrivacyViolationException.class)
@@ -355,18 +385,14 @@ public class PrivacyHelperTest {
 
         when(payload.getAffectedContractTransactions()).thenReturn(affected);
 
-        EncodedPayload affectedPayload1 = mock(EncodedPayload.class);
-        when(affectedPayload1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload1.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         AffectedTransaction affectedTransaction1 = mock(AffectedTransaction.class);
-        when(affectedTransaction1.getPayload()).thenReturn(affectedPayload1);
+        when(affectedTransaction1.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction1.getRecipientKeys()).thenReturn(List.of(recipient1, recipient2));
         when(affectedTransaction1.getHash()).thenReturn(TxHash.from("hash1".getBytes()));
 
-        EncodedPayload affectedPayload2 = mock(EncodedPayload.class);
-        when(affectedPayload2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedPayload2.getRecipientKeys()).thenReturn(List.of(recipient2, recipient1));
         AffectedTransaction affectedTransaction2 = mock(AffectedTransaction.class);
-        when(affectedTransaction2.getPayload()).thenReturn(affectedPayload2);
+        when(affectedTransaction2.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedTransaction2.getRecipientKeys()).thenReturn(List.of(recipient2, recipient1));
         when(affectedTransaction2.getHash()).thenReturn(TxHash.from("hash2".getBytes()));
 
         boolean result =
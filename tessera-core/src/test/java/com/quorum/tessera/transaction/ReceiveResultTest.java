@@ -0,0 +1,44 @@
+package com.quorum.tessera.transaction;
+
+import com.quorum.tessera.data.MessageHash;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+public class ReceiveResultTest {
+
+    private final MessageHash transactionHash = new MessageHash("hash".getBytes());
+
+    @Test
+    public void success() {
+        final ReceiveResponse response = mock(ReceiveResponse.class);
+
+        final ReceiveResult result = ReceiveResult.success(transactionHash, response);
+
+        assertThat(result.getTransactionHash()).isEqualTo(transactionHash);
+        assertThat(result.getResponse()).containsSame(response);
+        assertThat(result.getError()).isEmpty();
+    }
+
+    @Test
+    public void failure() {
+        final RuntimeException error = new RuntimeException("OUCH");
+
+        final ReceiveResult result = ReceiveResult.failure(transactionHash, error);
+
+        assertThat(result.getTransactionHash()).isEqualTo(transactionHash);
+        assertThat(result.getResponse()).isEmpty();
+        assertThat(result.getError()).containsSame(error);
+    }
+
+    @Test
+    public void hashIsRequired() {
+        final Throwable successThrowable = catchThrowable(() -> ReceiveResult.success(null, mock(ReceiveResponse.class)));
+        final Throwable failureThrowable = catchThrowable(() -> ReceiveResult.failure(null, new RuntimeException()));
+
+        assertThat(successThrowable).isInstanceOf(NullPointerException.class).hasMessage("Message hash is required");
+        assertThat(failureThrowable).isInstanceOf(NullPointerException.class).hasMessage("Message hash is required");
+    }
+}
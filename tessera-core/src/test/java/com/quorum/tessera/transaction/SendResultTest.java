@@ -0,0 +1,39 @@
+package com.quorum.tessera.transaction;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+public class SendResultTest {
+
+    @Test
+    public void success() {
+        final SendResponse response = mock(SendResponse.class);
+
+        final SendResult result = SendResult.success(response);
+
+        assertThat(result.getResponse()).containsSame(response);
+        assertThat(result.getError()).isEmpty();
+    }
+
+    @Test
+    public void failure() {
+        final RuntimeException error = new RuntimeException("OUCH");
+
+        final SendResult result = SendResult.failure(error);
+
+        assertThat(result.getResponse()).isEmpty();
+        assertThat(result.getError()).containsSame(error);
+    }
+
+    @Test
+    public void responseOrErrorIsRequired() {
+        final Throwable successThrowable = catchThrowable(() -> SendResult.success(null));
+        final Throwable failureThrowable = catchThrowable(() -> SendResult.failure(null));
+
+        assertThat(successThrowable).isInstanceOf(NullPointerException.class).hasMessage("Response is required");
+        assertThat(failureThrowable).isInstanceOf(NullPointerException.class).hasMessage("Error is required");
+    }
+}
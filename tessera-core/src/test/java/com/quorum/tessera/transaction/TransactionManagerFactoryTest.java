@@ -3,6 +3,9 @@ package com.quorum.tessera.transaction;
 import com.quorum.tessera.config.*;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -27,7 +30,7 @@ public class TransactionManagerFactoryTest {
         when(config.getJdbcConfig()).thenReturn(jdbcConfig);
 
         FeatureToggles features = mock(FeatureToggles.class);
-        when(features.isEnablePrivacyEnhancements()).thenReturn(false);
+        when(features.isEnablePrivacyEnhancements()).thenReturn(true);
         when(config.getFeatures()).thenReturn(features);
 
         TransactionManager transactionManager = result.create(config);
@@ -36,4 +39,73 @@ public class TransactionManagerFactoryTest {
         assertThat(result.create(config)).isSameAs(transactionManager);
         assertThat(result.transactionManager().get()).isSameAs(transactionManager);
     }
+
+    @Test
+    public void sendExecutorIsSizedBySumOfServerTuning() {
+        ServerTuningConfig q2tTuning = new ServerTuningConfig();
+        q2tTuning.setAsyncThreads(8);
+        q2tTuning.setAsyncQueueCapacity(100);
+        ServerConfig q2tServer = mock(ServerConfig.class);
+        when(q2tServer.getTuningConfig()).thenReturn(q2tTuning);
+
+        ServerTuningConfig p2pTuning = new ServerTuningConfig();
+        p2pTuning.setAsyncThreads(4);
+        ServerConfig p2pServer = mock(ServerConfig.class);
+        when(p2pServer.getTuningConfig()).thenReturn(p2pTuning);
+
+        Config config = mock(Config.class);
+        when(config.getServerConfigs()).thenReturn(List.of(q2tServer, p2pServer, mock(ServerConfig.class)));
+
+        ThreadPoolExecutor executor = DefaultTransactionManagerFactory.createSendExecutor(config);
+        try {
+            assertThat(executor.getMaximumPoolSize()).isEqualTo(12);
+            assertThat(executor.getQueue().remainingCapacity()).isEqualTo(100);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void storeExecutorIsSizedByP2PServerTuning() {
+        ServerTuningConfig q2tTuning = new ServerTuningConfig();
+        q2tTuning.setAsyncThreads(8);
+        q2tTuning.setAsyncQueueCapacity(100);
+        ServerConfig q2tServer = mock(ServerConfig.class);
+        when(q2tServer.getApp()).thenReturn(AppType.Q2T);
+        when(q2tServer.getTuningConfig()).thenReturn(q2tTuning);
+
+        ServerTuningConfig p2pTuning = new ServerTuningConfig();
+        p2pTuning.setAsyncThreads(4);
+        p2pTuning.setAsyncQueueCapacity(50);
+        ServerConfig p2pServer = mock(ServerConfig.class);
+        when(p2pServer.getApp()).thenReturn(AppType.P2P);
+        when(p2pServer.getTuningConfig()).thenReturn(p2pTuning);
+
+        Config config = mock(Config.class);
+        when(config.getServerConfigs()).thenReturn(List.of(q2tServer, p2pServer));
+
+        ThreadPoolExecutor sendExecutor = DefaultTransactionManagerFactory.createSendExecutor(config);
+        ThreadPoolExecutor storeExecutor = DefaultTransactionManagerFactory.createStoreExecutor(config);
+        try {
+            assertThat(sendExecutor.getMaximumPoolSize()).isEqualTo(8);
+            assertThat(sendExecutor.getQueue().remainingCapacity()).isEqualTo(100);
+            assertThat(storeExecutor.getMaximumPoolSize()).isEqualTo(4);
+            assertThat(storeExecutor.getQueue().remainingCapacity()).isEqualTo(50);
+        } finally {
+            sendExecutor.shutdown();
+            storeExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void sendExecutorHasDefaultSizeWithoutTuning() {
+        ThreadPoolExecutor executor = DefaultTransactionManagerFactory.createSendExecutor(mock(Config.class));
+        try {
+            assertThat(executor.getMaximumPoolSize()).isEqualTo(TransactionManagerImpl.DEFAULT_SEND_THREADS);
+            assertThat(executor.getQueue().remainingCapacity())
+                    .isEqualTo(TransactionManagerImpl.DEFAULT_SEND_QUEUE_CAPACITY);
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
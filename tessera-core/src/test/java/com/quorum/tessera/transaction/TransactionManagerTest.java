@@ -8,6 +8,7 @@ import com.quorum.tessera.config.ServerConfig;
 import com.quorum.tessera.data.*;
 import com.quorum.tessera.enclave.*;
 import com.quorum.tessera.encryption.EncryptorException;
+import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.Nonce;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.locator.ServiceLocator;
@@ -24,6 +25,13 @@ import org.mockito.ArgumentCaptor;
 
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static java.util.Collections.*;
 import static org.assertj.core.api.Assertions.*;
@@ -110,6 +118,277 @@ public class TransactionManagerTest {
         verify(enclave, times(3)).getPublicKeys();
     }
 
+    @Test
+    public void sendAsync() {
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenReturn(encodedPayload);
+
+        PublicKey sender = PublicKey.from("SENDER".getBytes());
+        PublicKey receiver = PublicKey.from("RECEIVER".getBytes());
+        when(enclave.getPublicKeys()).thenReturn(Set.of(receiver));
+
+        SendRequest sendRequest = mock(SendRequest.class);
+        when(sendRequest.getPayload()).thenReturn("PAYLOAD".getBytes());
+        when(sendRequest.getSender()).thenReturn(sender);
+        when(sendRequest.getRecipients()).thenReturn(List.of(receiver));
+
+        SendResponse result = transactionManager.sendAsync(sendRequest).toCompletableFuture().join();
+
+        assertThat(result.getTransactionHash().toString()).isEqualTo("Q0lQSEVSVEVYVA==");
+        assertThat(result.getManagedParties()).containsExactly(receiver);
+
+        verify(enclave).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(payloadEncoder).encode(encodedPayload);
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class), any(Callable.class));
+        verify(enclave).getForwardingKeys();
+        verify(enclave, times(3)).getPublicKeys();
+    }
+
+    @Test
+    public void cancellingSendAsyncLetsSendFinish() throws Exception {
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenReturn(encodedPayload);
+
+        doAnswer(
+                        invocation -> {
+                            Callable callable = invocation.getArgument(1);
+                            return callable.call();
+                        })
+                .when(encryptedTransactionDAO)
+                .save(any(EncryptedTransaction.class), any(Callable.class));
+
+        final CountDownLatch publishing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch published = new CountDownLatch(1);
+        doAnswer(
+                        invocation -> {
+                            publishing.countDown();
+                            release.await();
+                            published.countDown();
+                            return null;
+                        })
+                .when(batchPayloadPublisher)
+                .publishPayload(any(), anyList());
+
+        SendRequest sendRequest = mock(SendRequest.class);
+        when(sendRequest.getPayload()).thenReturn("PAYLOAD".getBytes());
+        when(sendRequest.getSender()).thenReturn(PublicKey.from("SENDER".getBytes()));
+        when(sendRequest.getRecipients()).thenReturn(List.of(PublicKey.from("RECEIVER".getBytes())));
+
+        final CompletableFuture<SendResponse> result = transactionManager.sendAsync(sendRequest).toCompletableFuture();
+        assertThat(publishing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        result.cancel(true);
+        release.countDown();
+
+        // the publish is not interrupted, so it completes
+        assertThat(published.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(result).isCancelled();
+
+        verify(enclave).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(payloadEncoder).encode(encodedPayload);
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class), any(Callable.class));
+        verify(enclave).getForwardingKeys();
+        verify(enclave, times(3)).getPublicKeys();
+        verify(batchPayloadPublisher).publishPayload(any(), anyList());
+    }
+
+    @Test
+    public void sendAsyncFailsWhenSendExecutorIsFull() {
+        final ExecutorService sendExecutor = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException("full")).when(sendExecutor).execute(any(Runnable.class));
+        transactionManager =
+                new TransactionManagerImpl(
+                        Base64Codec.create(),
+                        payloadEncoder,
+                        encryptedTransactionDAO,
+                        batchPayloadPublisher,
+                        enclave,
+                        encryptedRawTransactionDAO,
+                        resendManager,
+                        privacyHelper,
+                        TransactionManagerImpl.createReceiveExecutor(),
+                        sendExecutor,
+                        TransactionManagerImpl.createStoreExecutor(1, 1),
+                        false);
+
+        final CompletableFuture<SendResponse> result =
+                transactionManager.sendAsync(mock(SendRequest.class)).toCompletableFuture();
+
+        assertThatThrownBy(result::join).hasCauseExactlyInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void storePayloadAsyncCompletesWhileEverySendThreadIsBusy() {
+        final ThreadPoolExecutor sendExecutor = TransactionManagerImpl.createSendExecutor(1, 1);
+        final ThreadPoolExecutor storeExecutor = TransactionManagerImpl.createStoreExecutor(1, 1);
+        transactionManager =
+                new TransactionManagerImpl(
+                        Base64Codec.create(),
+                        payloadEncoder,
+                        encryptedTransactionDAO,
+                        batchPayloadPublisher,
+                        enclave,
+                        encryptedRawTransactionDAO,
+                        resendManager,
+                        privacyHelper,
+                        TransactionManagerImpl.createReceiveExecutor(),
+                        sendExecutor,
+                        storeExecutor,
+                        false);
+
+        // sends waiting on the recipients' nodes, which are waiting for the push to this node to be stored
+        final CountDownLatch pushStored = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                sendExecutor.execute(
+                        () -> {
+                            try {
+                                pushStored.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            }
+            assertThatThrownBy(transactionManager.sendAsync(mock(SendRequest.class)).toCompletableFuture()::join)
+                    .hasCauseExactlyInstanceOf(RejectedExecutionException.class);
+
+            final EncodedPayload payload = mock(EncodedPayload.class);
+            when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+            when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
+
+            final MessageHash result =
+                    transactionManager
+                            .storePayloadAsync(payload)
+                            .toCompletableFuture()
+                            .orTimeout(5, TimeUnit.SECONDS)
+                            .join();
+
+            assertThat(result).isEqualTo(new MessageHash("CIPHERTEXT".getBytes()));
+        } finally {
+            pushStored.countDown();
+            sendExecutor.shutdown();
+            storeExecutor.shutdown();
+        }
+
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
+        verify(payloadEncoder).encode(any(EncodedPayload.class));
+        verify(enclave).getPublicKeys();
+        verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+    }
+
+    @Test
+    public void sendExecutorRejectsOnceThreadsAndQueueAreTaken() throws Exception {
+        final ThreadPoolExecutor executor = TransactionManagerImpl.createSendExecutor(1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 2; i++) {
+                executor.execute(
+                        () -> {
+                            try {
+                                release.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            }
+
+            assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void sendCompressesPayloadWhenRecipientsSupportIt() {
+        transactionManager = compressingTransactionManager();
+
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any(), any())).thenReturn(encodedPayload);
+
+        PublicKey sender = PublicKey.from("SENDER".getBytes());
+        PublicKey receiver = PublicKey.from("RECEIVER".getBytes());
+
+        when(enclave.getPublicKeys()).thenReturn(Set.of(sender));
+        when(batchPayloadPublisher.isCompressionSupported(List.of(receiver))).thenReturn(true);
+
+        byte[] payload = "PAYLOAD".getBytes();
+
+        SendRequest sendRequest = mock(SendRequest.class);
+        when(sendRequest.getPayload()).thenReturn(payload);
+        when(sendRequest.getSender()).thenReturn(sender);
+        when(sendRequest.getRecipients()).thenReturn(List.of(receiver));
+
+        SendResponse result = transactionManager.send(sendRequest);
+
+        assertThat(result.getTransactionHash().toString()).isEqualTo("Q0lQSEVSVEVYVA==");
+
+        verify(enclave)
+                .encryptPayload(
+                        eq(payload),
+                        eq(sender),
+                        eq(List.of(receiver, sender)),
+                        any(),
+                        any(),
+                        any(),
+                        eq(PayloadCompression.DEFLATE));
+        verify(batchPayloadPublisher).isCompressionSupported(List.of(receiver));
+        verify(payloadEncoder).encode(encodedPayload);
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class), any(Callable.class));
+        verify(enclave).getForwardingKeys();
+        verify(enclave, times(3)).getPublicKeys();
+    }
+
+    @Test
+    public void sendDoesNotCompressPayloadWhenARecipientDoesNotSupportIt() {
+        transactionManager = compressingTransactionManager();
+
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenReturn(encodedPayload);
+
+        PublicKey sender = PublicKey.from("SENDER".getBytes());
+        PublicKey receiver = PublicKey.from("RECEIVER".getBytes());
+
+        when(enclave.getPublicKeys()).thenReturn(Set.of(sender));
+        when(batchPayloadPublisher.isCompressionSupported(List.of(receiver))).thenReturn(false);
+
+        SendRequest sendRequest = mock(SendRequest.class);
+        when(sendRequest.getPayload()).thenReturn("PAYLOAD".getBytes());
+        when(sendRequest.getSender()).thenReturn(sender);
+        when(sendRequest.getRecipients()).thenReturn(List.of(receiver));
+
+        transactionManager.send(sendRequest);
+
+        verify(enclave).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(batchPayloadPublisher).isCompressionSupported(List.of(receiver));
+        verify(payloadEncoder).encode(encodedPayload);
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class), any(Callable.class));
+        verify(enclave).getForwardingKeys();
+        verify(enclave, times(3)).getPublicKeys();
+    }
+
+    private TransactionManager compressingTransactionManager() {
+        return new TransactionManagerImpl(
+                Base64Codec.create(),
+                payloadEncoder,
+                encryptedTransactionDAO,
+                batchPayloadPublisher,
+                enclave,
+                encryptedRawTransactionDAO,
+                resendManager,
+                privacyHelper,
+                Runnable::run,
+                true);
+    }
+
     @Test
     public void sendAlsoWithPublishCallbackCoverage() {
 
@@ -186,6 +465,127 @@ public class TransactionManagerTest {
         verify(enclave, times(3)).getPublicKeys();
     }
 
+    @Test
+    public void sendBatch() {
+        final EncodedPayload firstPayload = mock(EncodedPayload.class);
+        when(firstPayload.getCipherText()).thenReturn("FIRST".getBytes());
+        final EncodedPayload secondPayload = mock(EncodedPayload.class);
+        when(secondPayload.getCipherText()).thenReturn("SECOND".getBytes());
+
+        final byte[] invalidPayload = "INVALID".getBytes();
+        final EnclaveException encryptionError = new EnclaveException("OUCH");
+
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenReturn(firstPayload, secondPayload);
+        doThrow(encryptionError).when(enclave).encryptPayload(eq(invalidPayload), any(), any(), any(), any(), any());
+
+        final PublicKey sender = PublicKey.from("SENDER".getBytes());
+        final PublicKey receiver = PublicKey.from("RECEIVER".getBytes());
+        when(enclave.getPublicKeys()).thenReturn(Set.of(sender));
+
+        doAnswer(
+                        invocation -> {
+                            final Callable callable = invocation.getArgument(1);
+                            callable.call();
+                            return null;
+                        })
+                .when(encryptedTransactionDAO)
+                .saveAll(anyCollection(), any(Callable.class));
+
+        final List<SendRequest> sendRequests =
+                List.of("FIRST".getBytes(), invalidPayload, "SECOND".getBytes()).stream()
+                        .map(
+                                payload ->
+                                        SendRequest.Builder.create()
+                                                .withSender(sender)
+                                                .withRecipients(List.of(receiver))
+                                                .withPayload(payload)
+                                                .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                                                .withAffectedContractTransactions(emptySet())
+                                                .withExecHash(new byte[0])
+                                                .build())
+                        .collect(Collectors.toList());
+
+        final List<SendResult> results = transactionManager.sendBatch(sendRequests);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getResponse().get().getTransactionHash())
+                .isEqualTo(messageHashFactory.createFromCipherText("FIRST".getBytes()));
+        assertThat(results.get(0).getResponse().get().getManagedParties()).containsExactly(sender);
+        assertThat(results.get(1).getError()).containsSame(encryptionError);
+        assertThat(results.get(2).getResponse().get().getTransactionHash())
+                .isEqualTo(messageHashFactory.createFromCipherText("SECOND".getBytes()));
+
+        final ArgumentCaptor<Collection<EncryptedTransaction>> savedCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(encryptedTransactionDAO).saveAll(savedCaptor.capture(), any(Callable.class));
+        assertThat(savedCaptor.getValue())
+                .extracting(EncryptedTransaction::getHash)
+                .containsExactly(
+                        messageHashFactory.createFromCipherText("FIRST".getBytes()),
+                        messageHashFactory.createFromCipherText("SECOND".getBytes()));
+
+        verify(batchPayloadPublisher).publishPayloads(Map.of(receiver, List.of(firstPayload, secondPayload)));
+        verify(enclave, times(3)).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(enclave, times(3)).getForwardingKeys();
+        verify(enclave, times(8)).getPublicKeys();
+        verify(payloadEncoder).encode(firstPayload);
+        verify(payloadEncoder).encode(secondPayload);
+    }
+
+    @Test
+    public void sendBatchFailsEveryResultIfSaveFails() {
+        final EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenReturn(encodedPayload);
+
+        final RuntimeException saveError = new RuntimeException("OUCH");
+        doThrow(saveError).when(encryptedTransactionDAO).saveAll(anyCollection(), any(Callable.class));
+
+        final SendRequest sendRequest =
+                SendRequest.Builder.create()
+                        .withSender(PublicKey.from("SENDER".getBytes()))
+                        .withRecipients(List.of(PublicKey.from("RECEIVER".getBytes())))
+                        .withPayload("PAYLOAD".getBytes())
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withAffectedContractTransactions(emptySet())
+                        .withExecHash(new byte[0])
+                        .build();
+
+        final List<SendResult> results = transactionManager.sendBatch(List.of(sendRequest, sendRequest));
+
+        assertThat(results).hasSize(2).allSatisfy(result -> assertThat(result.getError()).containsSame(saveError));
+
+        verify(encryptedTransactionDAO).saveAll(anyCollection(), any(Callable.class));
+        verify(enclave, times(2)).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(enclave, times(2)).getForwardingKeys();
+        verify(enclave, times(6)).getPublicKeys();
+        verify(payloadEncoder, times(2)).encode(encodedPayload);
+    }
+
+    @Test
+    public void sendBatchWithoutEncryptedTransactionsDoesNotSave() {
+        final EnclaveException encryptionError = new EnclaveException("OUCH");
+        when(enclave.encryptPayload(any(), any(), any(), any(), any(), any())).thenThrow(encryptionError);
+
+        final SendRequest sendRequest =
+                SendRequest.Builder.create()
+                        .withSender(PublicKey.from("SENDER".getBytes()))
+                        .withRecipients(List.of())
+                        .withPayload("PAYLOAD".getBytes())
+                        .withPrivacyMode(PrivacyMode.STANDARD_PRIVATE)
+                        .withAffectedContractTransactions(emptySet())
+                        .withExecHash(new byte[0])
+                        .build();
+
+        final List<SendResult> results = transactionManager.sendBatch(List.of(sendRequest));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getError()).containsSame(encryptionError);
+
+        verify(enclave).encryptPayload(any(), any(), any(), any(), any(), any());
+        verify(enclave).getForwardingKeys();
+        verify(enclave).getPublicKeys();
+    }
+
     @Test
     public void sendSignedTransaction() {
 
@@ -338,6 +738,55 @@ public class TransactionManagerTest {
         }
     }
 
+    @Test
+    public void sendSignedTransactionAsync() {
+        EncodedPayload payload = mock(EncodedPayload.class);
+
+        EncryptedRawTransaction encryptedRawTransaction =
+                new EncryptedRawTransaction(
+                        new MessageHash("HASH".getBytes()),
+                        "ENCRYPTED_PAYLOAD".getBytes(),
+                        "ENCRYPTED_KEY".getBytes(),
+                        "NONCE".getBytes(),
+                        "SENDER".getBytes());
+        when(encryptedRawTransactionDAO.retrieveByHash(any(MessageHash.class)))
+                .thenReturn(Optional.of(encryptedRawTransaction));
+        when(enclave.encryptPayload(any(RawTransaction.class), any(), any(), any(), any())).thenReturn(payload);
+
+        SendSignedRequest sendSignedRequest = mock(SendSignedRequest.class);
+        when(sendSignedRequest.getRecipients()).thenReturn(List.of(PublicKey.from("RECEIVER".getBytes())));
+        when(sendSignedRequest.getSignedData()).thenReturn("HASH".getBytes());
+
+        SendResponse result =
+                transactionManager.sendSignedTransactionAsync(sendSignedRequest).toCompletableFuture().join();
+
+        assertThat(result.getTransactionHash()).isEqualTo(new MessageHash("HASH".getBytes()));
+
+        verify(enclave).encryptPayload(any(RawTransaction.class), any(), any(), any(), any());
+        verify(payloadEncoder).encode(payload);
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class), any(Callable.class));
+        verify(encryptedRawTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(enclave).getForwardingKeys();
+        verify(enclave, times(3)).getPublicKeys();
+    }
+
+    @Test
+    public void sendSignedTransactionAsyncFailsWhenNoRawTransactionFound() {
+        when(encryptedRawTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.empty());
+
+        SendSignedRequest sendSignedRequest = mock(SendSignedRequest.class);
+        when(sendSignedRequest.getRecipients()).thenReturn(List.of(PublicKey.from("RECEIVER".getBytes())));
+        when(sendSignedRequest.getSignedData()).thenReturn("HASH".getBytes());
+
+        final CompletableFuture<SendResponse> result =
+                transactionManager.sendSignedTransactionAsync(sendSignedRequest).toCompletableFuture();
+
+        assertThatThrownBy(result::join).hasCauseExactlyInstanceOf(TransactionNotFoundException.class);
+
+        verify(encryptedRawTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(enclave).getForwardingKeys();
+    }
+
     @Test
     public void delete() {
 
@@ -353,12 +802,29 @@ public class TransactionManagerTest {
         EncodedPayload payload = mock(EncodedPayload.class);
 
         when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.empty());
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
 
         transactionManager.storePayload(payload);
 
         verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
+        verify(payloadEncoder).encode(payload);
+        verify(enclave).getPublicKeys();
+        verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+    }
+
+    @Test
+    public void storePayloadAsync() {
+        EncodedPayload payload = mock(EncodedPayload.class);
+
+        when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
+
+        MessageHash result = transactionManager.storePayloadAsync(payload).toCompletableFuture().join();
+
+        assertThat(result).isEqualTo(new MessageHash("CIPHERTEXT".getBytes()));
+        verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).encode(payload);
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
@@ -417,12 +883,12 @@ public class TransactionManagerTest {
         when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
 
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.empty());
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
 
         transactionManager.storePayload(payload);
 
         verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).encode(payload);
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(), any());
@@ -431,20 +897,16 @@ public class TransactionManagerTest {
     @Test
     public void storePayloadAsRecipientWithAffectedContractTxsButPsvFlagMismatched() {
 
-        final byte[] input = "SOMEDATA".getBytes();
-        final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
         final PublicKey senderKey = PublicKey.from("sender".getBytes());
 
         final EncodedPayload payload = mock(EncodedPayload.class);
-        final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
-        final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
+        final TransactionPrivacyMetadata affectedContractTx = mock(TransactionPrivacyMetadata.class);
 
         Map<TxHash, SecurityHash> affectedContractTransactionHashes = new HashMap<>();
         affectedContractTransactionHashes.put(
                 new TxHash("bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ=="),
                 SecurityHash.from("securityHash".getBytes()));
 
-        when(affectedContractTx.getEncodedPayload()).thenReturn(input);
         when(affectedContractTx.getHash())
                 .thenReturn(
                         new MessageHash(
@@ -453,29 +915,24 @@ public class TransactionManagerTest {
                                         .getBytes()));
         when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
-        when(affectedContractEncodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedContractTx.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
         when(payload.getAffectedContractTransactions()).thenReturn(affectedContractTransactionHashes);
         when(payload.getSenderKey()).thenReturn(senderKey);
-        when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(Arrays.asList(senderKey));
+        when(affectedContractTx.getRecipientKeys()).thenReturn(Arrays.asList(senderKey));
 
-        when(encryptedTransactionDAO.findByHashes(any())).thenReturn(List.of(affectedContractTx));
-        when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-        when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(any())).thenReturn(List.of(affectedContractTx));
 
         transactionManager.storePayload(payload);
         // Ignore transaction - not save
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
     public void storePayloadSenderNotGenuineACOTHNotFound() {
-        final byte[] input = "SOMEDATA".getBytes();
-        final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
         final PublicKey senderKey = PublicKey.from("sender".getBytes());
 
         final EncodedPayload payload = mock(EncodedPayload.class);
-        final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
-        final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
+        final TransactionPrivacyMetadata affectedContractTx = mock(TransactionPrivacyMetadata.class);
 
         final TxHash txHash =
                 new TxHash("bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ==");
@@ -486,35 +943,29 @@ public class TransactionManagerTest {
                 new TxHash("bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSr5J5hQ=="),
                 SecurityHash.from("bogus".getBytes()));
 
-        when(affectedContractTx.getEncodedPayload()).thenReturn(input);
         when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedContractEncodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedContractTx.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
         when(payload.getAffectedContractTransactions()).thenReturn(affectedContractTransactionHashes);
         when(payload.getSenderKey()).thenReturn(senderKey);
-        when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(Arrays.asList(senderKey));
+        when(affectedContractTx.getRecipientKeys()).thenReturn(Arrays.asList(senderKey));
 
-        when(encryptedTransactionDAO.findByHashes(List.of(new MessageHash(txHash.getBytes()))))
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(new MessageHash(txHash.getBytes()))))
                 .thenReturn(List.of(affectedContractTx));
-        when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-        when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
 
         transactionManager.storePayload(payload);
         // Ignore transaction - not save
         verify(encryptedTransactionDAO, times(0)).save(any(EncryptedTransaction.class));
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
     public void storePayloadSenderNotInRecipientList() {
-        final byte[] input = "SOMEDATA".getBytes();
-        final byte[] affectedContractPayload = "SOMEOTHERDATA".getBytes();
         final PublicKey senderKey = PublicKey.from("sender".getBytes());
         final PublicKey someOtherKey = PublicKey.from("otherKey".getBytes());
 
         final EncodedPayload payload = mock(EncodedPayload.class);
-        final EncryptedTransaction affectedContractTx = mock(EncryptedTransaction.class);
-        final EncodedPayload affectedContractEncodedPayload = mock(EncodedPayload.class);
+        final TransactionPrivacyMetadata affectedContractTx = mock(TransactionPrivacyMetadata.class);
 
         final TxHash txHash =
                 new TxHash("bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSw2J5hQ==");
@@ -525,23 +976,20 @@ public class TransactionManagerTest {
                 new TxHash("bfMIqWJ/QGQhkK4USxMBxduzfgo/SIGoCros5bWYfPKUBinlAUCqLVOUAP9q+BgLlsWni1M6rnzfmaqSr5J5hQ=="),
                 SecurityHash.from("bogus".getBytes()));
 
-        when(affectedContractTx.getEncodedPayload()).thenReturn(input);
         when(affectedContractTx.getHash()).thenReturn(new MessageHash(txHash.getBytes()));
         when(payload.getCipherText()).thenReturn("CIPHERTEXT".getBytes());
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
-        when(affectedContractEncodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(affectedContractTx.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
         when(payload.getAffectedContractTransactions()).thenReturn(affectedContractTransactionHashes);
         when(payload.getSenderKey()).thenReturn(senderKey);
-        when(affectedContractEncodedPayload.getRecipientKeys()).thenReturn(Arrays.asList(someOtherKey));
+        when(affectedContractTx.getRecipientKeys()).thenReturn(Arrays.asList(someOtherKey));
 
-        when(encryptedTransactionDAO.findByHashes(any())).thenReturn(List.of(affectedContractTx));
-        when(affectedContractTx.getEncodedPayload()).thenReturn(affectedContractPayload);
-        when(payloadEncoder.decode(affectedContractPayload)).thenReturn(affectedContractEncodedPayload);
+        when(encryptedTransactionDAO.findPrivacyMetadataByHashes(any())).thenReturn(List.of(affectedContractTx));
 
         transactionManager.storePayload(payload);
         // Ignore transaction - not save
         verify(encryptedTransactionDAO, times(0)).save(any(EncryptedTransaction.class));
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
     }
 
     @Test
@@ -578,7 +1026,7 @@ public class TransactionManagerTest {
         when(payload.getAffectedContractTransactions()).thenReturn(affectedTx);
         when(payload.getExecHash()).thenReturn("execHash".getBytes());
 
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.empty());
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
 
         ArgumentCaptor<EncodedPayload> payloadCaptor = ArgumentCaptor.forClass(EncodedPayload.class);
         when(enclave.findInvalidSecurityHashes(any(), any()))
@@ -593,9 +1041,9 @@ public class TransactionManagerTest {
         assertThat(sanitisedPayload.getAffectedContractTransactions().get(TxHash.from("invalidHash".getBytes())))
                 .isNull();
 
-        verify(encryptedTransactionDAO).findByHashes(any());
+        verify(encryptedTransactionDAO).findPrivacyMetadataByHashes(any());
         verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(), any());
     }
@@ -606,7 +1054,7 @@ public class TransactionManagerTest {
                 new EncryptedTransaction(new MessageHash(new byte[0]), new byte[0]);
         EncodedPayload existingPayload = EncodedPayload.Builder.create().withCipherText("ct1".getBytes()).build();
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore = EncodedPayload.Builder.create().withCipherText("ct2".getBytes()).build();
@@ -615,7 +1063,33 @@ public class TransactionManagerTest {
 
         assertThat(throwable).isInstanceOf(RuntimeException.class).hasMessage("Invalid existing transaction");
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
+        verify(payloadEncoder).decode(any());
+        verify(enclave).getPublicKeys();
+        verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
+    }
+
+    @Test
+    public void storePayloadWithExistingRecipientAndMismatchedCompression() {
+        EncryptedTransaction existingDatabaseEntry =
+                new EncryptedTransaction(new MessageHash(new byte[0]), new byte[0]);
+        EncodedPayload existingPayload =
+                EncodedPayload.Builder.create()
+                        .withCipherText("ct1".getBytes())
+                        .withCompression(PayloadCompression.DEFLATE)
+                        .build();
+        when(payloadEncoder.decode(any())).thenReturn(existingPayload);
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
+                .thenReturn(Optional.of(existingDatabaseEntry));
+
+        EncodedPayload payloadToStore =
+                EncodedPayload.Builder.from(existingPayload).withCompression(PayloadCompression.NONE).build();
+
+        final Throwable throwable = catchThrowable(() -> transactionManager.storePayload(payloadToStore));
+
+        assertThat(throwable).isInstanceOf(RuntimeException.class).hasMessage("Invalid existing transaction");
+
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
@@ -631,7 +1105,7 @@ public class TransactionManagerTest {
                         .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
                         .build();
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore =
@@ -646,7 +1120,7 @@ public class TransactionManagerTest {
 
         assertThat(throwable).isInstanceOf(RuntimeException.class).hasMessage("expected recipient not found");
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
@@ -681,7 +1155,7 @@ public class TransactionManagerTest {
                         .withRecipientKeys(List.of(recipient1, recipient2))
                         .build();
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore =
@@ -705,7 +1179,7 @@ public class TransactionManagerTest {
         assertThat(updatedTransaction.getRecipientBoxes())
                 .containsExactly(RecipientBox.from("recipient_box1".getBytes()));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(encryptedTransactionDAO).update(existingDatabaseEntry);
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
@@ -727,7 +1201,7 @@ public class TransactionManagerTest {
                         .withRecipientBox("recipient_box1".getBytes())
                         .build();
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore =
@@ -751,7 +1225,7 @@ public class TransactionManagerTest {
                 .containsExactly(
                         RecipientBox.from("recipient_box2".getBytes()), RecipientBox.from("recipient_box1".getBytes()));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(encryptedTransactionDAO).update(existingDatabaseEntry);
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
@@ -774,7 +1248,7 @@ public class TransactionManagerTest {
                         .build();
 
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore =
@@ -789,7 +1263,7 @@ public class TransactionManagerTest {
 
         assertThat(response.toString()).isEqualTo("Y3Qx");
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
         verify(enclave).findInvalidSecurityHashes(any(EncodedPayload.class), anyList());
@@ -806,7 +1280,7 @@ public class TransactionManagerTest {
                         .withRecipientBox("recipient_box1".getBytes())
                         .build();
         when(payloadEncoder.decode(any())).thenReturn(existingPayload);
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class)))
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class)))
                 .thenReturn(Optional.of(existingDatabaseEntry));
 
         EncodedPayload payloadToStore =
@@ -829,7 +1303,7 @@ public class TransactionManagerTest {
                 .containsExactly(
                         RecipientBox.from("recipient_box2".getBytes()), RecipientBox.from("recipient_box1".getBytes()));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(encryptedTransactionDAO).update(existingDatabaseEntry);
         verify(payloadEncoder).decode(any());
         verify(enclave).getPublicKeys();
@@ -1005,6 +1479,108 @@ public class TransactionManagerTest {
                 .isThrownBy(() -> transactionManager.receive(receiveRequest));
     }
 
+    @Test
+    public void receiveAll() {
+        final PublicKey recipient = PublicKey.from("recipient".getBytes());
+        final MessageHash foundHash = new MessageHash("found".getBytes());
+        final MessageHash missingHash = new MessageHash("missing".getBytes());
+        final MessageHash rawHash = new MessageHash("raw".getBytes());
+
+        final List<ReceiveRequest> requests =
+                List.of(
+                        ReceiveRequest.Builder.create()
+                                .withTransactionHash(missingHash)
+                                .withRecipient(recipient)
+                                .build(),
+                        ReceiveRequest.Builder.create().withTransactionHash(rawHash).withRaw(true).build(),
+                        ReceiveRequest.Builder.create()
+                                .withTransactionHash(foundHash)
+                                .withRecipient(recipient)
+                                .build());
+
+        when(encryptedTransactionDAO.findByHashes(any()))
+                .thenReturn(List.of(new EncryptedTransaction(foundHash, "data".getBytes())));
+        when(encryptedRawTransactionDAO.findByHashes(any()))
+                .thenReturn(
+                        List.of(
+                                new EncryptedRawTransaction(
+                                        rawHash,
+                                        "payload".getBytes(),
+                                        "key".getBytes(),
+                                        "nonce".getBytes(),
+                                        "sender".getBytes())));
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(payload.getRecipientKeys()).thenReturn(List.of(recipient));
+        when(payloadEncoder.decode("data".getBytes())).thenReturn(payload);
+        when(enclave.unencryptTransaction(payload, recipient)).thenReturn("decrypted".getBytes());
+        when(enclave.unencryptRawPayload(any(RawTransaction.class))).thenReturn("decrypted raw".getBytes());
+        when(enclave.getPublicKeys()).thenReturn(Set.of(recipient));
+
+        final List<ReceiveResult> results = transactionManager.receiveAll(requests).collect(Collectors.toList());
+
+        assertThat(results)
+                .extracting(ReceiveResult::getTransactionHash)
+                .containsExactly(missingHash, rawHash, foundHash);
+
+        assertThat(results.get(0).getResponse()).isEmpty();
+        assertThat(results.get(0).getError()).containsInstanceOf(TransactionNotFoundException.class);
+
+        assertThat(results.get(1).getError()).isEmpty();
+        assertThat(results.get(1).getResponse().get().getUnencryptedTransactionData())
+                .isEqualTo("decrypted raw".getBytes());
+
+        assertThat(results.get(2).getError()).isEmpty();
+        assertThat(results.get(2).getResponse().get().getUnencryptedTransactionData())
+                .isEqualTo("decrypted".getBytes());
+        assertThat(results.get(2).getResponse().get().getManagedParties()).containsExactly(recipient);
+
+        verify(encryptedTransactionDAO).findByHashes(Set.of(foundHash, missingHash));
+        verify(encryptedRawTransactionDAO).findByHashes(Set.of(rawHash));
+        verify(payloadEncoder).decode("data".getBytes());
+        verify(enclave, times(2)).unencryptTransaction(payload, recipient);
+        verify(enclave).unencryptRawPayload(any(RawTransaction.class));
+        verify(enclave, times(2)).getPublicKeys();
+    }
+
+    @Test
+    public void receiveExecutorRunsOnCallerOnceQueueIsFull() throws Exception {
+        final ThreadPoolExecutor executor = TransactionManagerImpl.createReceiveExecutor();
+        try {
+            assertThat(executor.getQueue().remainingCapacity())
+                    .isEqualTo(TransactionManagerImpl.RECEIVE_QUEUE_CAPACITY);
+            assertThat(executor.getRejectedExecutionHandler()).isInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class);
+
+            // every receive thread is kept busy and the queue filled, the next task runs on this thread
+            final CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < executor.getMaximumPoolSize() + TransactionManagerImpl.RECEIVE_QUEUE_CAPACITY; i++) {
+                executor.execute(
+                        () -> {
+                            try {
+                                release.await();
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            }
+            final Thread[] ranOn = new Thread[1];
+            executor.execute(() -> ranOn[0] = Thread.currentThread());
+            release.countDown();
+
+            assertThat(ranOn[0]).isSameAs(Thread.currentThread());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void receiveAllWithoutRequestsDoesNotLookUpTransactions() {
+        assertThat(transactionManager.receiveAll(List.of())).isEmpty();
+
+        verifyZeroInteractions(encryptedRawTransactionDAO);
+    }
+
     @Test
     public void receiveWithAffectedContractTransactions() {
 
@@ -1264,6 +1840,89 @@ public class TransactionManagerTest {
                                 }));
     }
 
+    @Test
+    public void storeBatch() {
+        final PublicKey sender = PublicKey.from("SENDER".getBytes());
+        final PublicKey unknownSender = PublicKey.from("UNKNOWN".getBytes());
+        final KeyNotFoundException keyNotFound = new KeyNotFoundException("OUCH");
+        when(enclave.encryptRawPayload(any(), eq(sender)))
+                .thenAnswer(
+                        invocation ->
+                                new RawTransaction(
+                                        invocation.getArgument(0),
+                                        "SomeKey".getBytes(),
+                                        new Nonce("nonce".getBytes()),
+                                        sender));
+        when(enclave.encryptRawPayload(any(), eq(unknownSender))).thenThrow(keyNotFound);
+
+        final List<StoreRawRequest> storeRequests =
+                List.of(
+                        StoreRawRequest.Builder.create().withSender(sender).withPayload("FIRST".getBytes()).build(),
+                        StoreRawRequest.Builder.create()
+                                .withSender(unknownSender)
+                                .withPayload("INVALID".getBytes())
+                                .build(),
+                        StoreRawRequest.Builder.create().withSender(sender).withPayload("SECOND".getBytes()).build());
+
+        final List<StoreRawResult> results = transactionManager.storeBatch(storeRequests);
+
+        final MessageHash firstHash = messageHashFactory.createFromCipherText("FIRST".getBytes());
+        final MessageHash secondHash = messageHashFactory.createFromCipherText("SECOND".getBytes());
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getResponse().get().getHash()).isEqualTo(firstHash);
+        assertThat(results.get(1).getError()).containsSame(keyNotFound);
+        assertThat(results.get(2).getResponse().get().getHash()).isEqualTo(secondHash);
+
+        final ArgumentCaptor<Collection<EncryptedRawTransaction>> savedCaptor =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(encryptedRawTransactionDAO).saveAll(savedCaptor.capture());
+        assertThat(savedCaptor.getValue())
+                .extracting(EncryptedRawTransaction::getHash)
+                .containsExactly(firstHash, secondHash);
+
+        verify(enclave, times(2)).encryptRawPayload(any(), eq(sender));
+        verify(enclave).encryptRawPayload(any(), eq(unknownSender));
+    }
+
+    @Test
+    public void storeBatchFailsEveryResultIfSaveFails() {
+        final PublicKey sender = PublicKey.from("SENDER".getBytes());
+        when(enclave.encryptRawPayload(any(), eq(sender)))
+                .thenReturn(
+                        new RawTransaction(
+                                "CIPHERTEXT".getBytes(), "SomeKey".getBytes(), new Nonce("nonce".getBytes()), sender));
+
+        final RuntimeException saveError = new RuntimeException("OUCH");
+        doThrow(saveError).when(encryptedRawTransactionDAO).saveAll(anyCollection());
+
+        final StoreRawRequest storeRequest =
+                StoreRawRequest.Builder.create().withSender(sender).withPayload("PAYLOAD".getBytes()).build();
+
+        final List<StoreRawResult> results = transactionManager.storeBatch(List.of(storeRequest, storeRequest));
+
+        assertThat(results).hasSize(2).allSatisfy(result -> assertThat(result.getError()).containsSame(saveError));
+
+        verify(encryptedRawTransactionDAO).saveAll(anyCollection());
+        verify(enclave, times(2)).encryptRawPayload(any(), eq(sender));
+    }
+
+    @Test
+    public void storeBatchWithoutEncryptedTransactionsDoesNotSave() {
+        final PublicKey unknownSender = PublicKey.from("UNKNOWN".getBytes());
+        final KeyNotFoundException keyNotFound = new KeyNotFoundException("OUCH");
+        when(enclave.encryptRawPayload(any(), eq(unknownSender))).thenThrow(keyNotFound);
+
+        final StoreRawRequest storeRequest =
+                StoreRawRequest.Builder.create().withSender(unknownSender).withPayload("PAYLOAD".getBytes()).build();
+
+        final List<StoreRawResult> results = transactionManager.storeBatch(List.of(storeRequest));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getError()).containsSame(keyNotFound);
+
+        verify(enclave).encryptRawPayload(any(), eq(unknownSender));
+    }
+
     @Test(expected = NullPointerException.class)
     public void storeRawWithEmptySender() {
         byte[] sender = "SENDER".getBytes();
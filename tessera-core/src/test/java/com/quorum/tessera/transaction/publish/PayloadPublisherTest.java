@@ -0,0 +1,50 @@
+package com.quorum.tessera.transaction.publish;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.encryption.PublicKey;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+public class PayloadPublisherTest {
+
+    @Test
+    public void publishPayloadsPublishesEachPayloadByDefault() {
+        final List<Map.Entry<EncodedPayload, PublicKey>> published = new ArrayList<>();
+        final PayloadPublisher publisher = (payload, recipientKey) -> published.add(Map.entry(payload, recipientKey));
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncodedPayload firstPayload = mock(EncodedPayload.class);
+        final EncodedPayload secondPayload = mock(EncodedPayload.class);
+
+        publisher.publishPayloads(Map.of(recipient, List.of(firstPayload, secondPayload)));
+
+        assertThat(published)
+                .extracting(Map.Entry::getKey, Map.Entry::getValue)
+                .containsExactly(tuple(firstPayload, recipient), tuple(secondPayload, recipient));
+    }
+
+    @Test
+    public void compressionIsNotSupportedByDefault() {
+        final PayloadPublisher publisher = (payload, recipientKey) -> {};
+
+        assertThat(publisher.isCompressionSupported(PublicKey.from("RECIPIENT".getBytes()))).isFalse();
+    }
+
+    @Test
+    public void eachRecipientIsOnItsOwnNodeByDefault() {
+        final PayloadPublisher publisher = (payload, recipientKey) -> {};
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+
+        assertThat(publisher.nodeOf(recipient)).isEqualTo(publisher.nodeOf(PublicKey.from("RECIPIENT".getBytes())));
+        assertThat(publisher.nodeOf(recipient)).isNotEqualTo(publisher.nodeOf(otherRecipient));
+    }
+}
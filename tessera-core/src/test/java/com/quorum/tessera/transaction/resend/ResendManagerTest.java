@@ -64,7 +64,7 @@ public class ResendManagerTest {
         final byte[] newEncryptedMasterKey = "newbox".getBytes();
 
         when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.empty());
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.empty());
         when(enclave.createNewRecipientBox(any(), any())).thenReturn(newEncryptedMasterKey);
 
         resendManager.acceptOwnMessage(encodedPayload);
@@ -84,7 +84,7 @@ public class ResendManagerTest {
 
         verify(encryptedTransactionDAO).save(any(EncryptedTransaction.class));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(enclave).getPublicKeys();
         verify(enclave).createNewRecipientBox(any(), any());
         verify(enclave).unencryptTransaction(encodedPayload, senderKey);
@@ -118,7 +118,7 @@ public class ResendManagerTest {
                         .build();
 
         when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(et));
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.of(et));
         when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
         when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
 
@@ -140,7 +140,7 @@ public class ResendManagerTest {
         assertThat(updated.getRecipientBoxes()).hasSize(2);
 
         verify(encryptedTransactionDAO).update(et);
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(storedData);
         verify(enclave).getPublicKeys();
         verify(enclave).unencryptTransaction(encodedPayload, senderKey);
@@ -176,7 +176,7 @@ public class ResendManagerTest {
                         .build();
 
         when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(et));
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.of(et));
         when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
         when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
 
@@ -193,7 +193,7 @@ public class ResendManagerTest {
         assertThat(updated.getRecipientBoxes()).hasSize(2);
 
         verify(encryptedTransactionDAO).update(et);
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(storedData);
         verify(enclave).getPublicKeys();
         verify(enclave, times(2)).unencryptTransaction(any(EncodedPayload.class), eq(senderKey));
@@ -227,7 +227,7 @@ public class ResendManagerTest {
                         .build();
 
         when(enclave.getPublicKeys()).thenReturn(Set.of(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(et));
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.of(et));
         when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
 
         resendManager.acceptOwnMessage(encodedPayload);
@@ -235,7 +235,7 @@ public class ResendManagerTest {
         assertThat(encodedPayload.getRecipientKeys()).containsExactly(recipientKey2);
         assertThat(encodedPayload.getRecipientBoxes()).containsExactly(RecipientBox.from(recipientBox2));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(storedData);
         verify(enclave).getPublicKeys();
         verify(enclave).unencryptTransaction(encodedPayload, senderKey);
@@ -259,7 +259,7 @@ public class ResendManagerTest {
                         .build();
 
         when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(et));
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.of(et));
         when(payloadEncoder.decode(storedData)).thenReturn(encodedPayload);
         when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
 
@@ -268,7 +268,7 @@ public class ResendManagerTest {
         assertThat(encodedPayload.getRecipientKeys()).containsExactly(recipientKey);
         assertThat(encodedPayload.getRecipientBoxes()).containsExactly(RecipientBox.from(recipientBox));
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(storedData);
         verify(enclave).getPublicKeys();
         verify(enclave).unencryptTransaction(encodedPayload, senderKey);
@@ -327,7 +327,7 @@ public class ResendManagerTest {
                         .build();
 
         when(enclave.getPublicKeys()).thenReturn(singleton(senderKey));
-        when(encryptedTransactionDAO.retrieveByHash(any(MessageHash.class))).thenReturn(Optional.of(et));
+        when(encryptedTransactionDAO.retrieveByHashForUpdate(any(MessageHash.class))).thenReturn(Optional.of(et));
         when(payloadEncoder.decode(storedData)).thenReturn(existingEncodedPayload);
         when(payloadEncoder.encode(any(EncodedPayload.class))).thenReturn("updated".getBytes());
         when(enclave.unencryptTransaction(existingEncodedPayload, senderKey)).thenReturn("payload1".getBytes());
@@ -336,7 +336,7 @@ public class ResendManagerTest {
 
         assertThat(throwable).isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid payload provided");
 
-        verify(encryptedTransactionDAO).retrieveByHash(any(MessageHash.class));
+        verify(encryptedTransactionDAO).retrieveByHashForUpdate(any(MessageHash.class));
         verify(payloadEncoder).decode(storedData);
         verify(enclave).getPublicKeys();
         verify(enclave).unencryptTransaction(encodedPayload, senderKey);
@@ -0,0 +1,141 @@
+package com.quorum.tessera.data;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EncryptedTransactionDAO} that serves repeated lookups by hash from an in-memory cache. Every successful
+ * write made through this DAO removes the affected transactions from every cache of the database, so DAOs for the same
+ * database must be given all of its caches. Failed writes are rolled back, so they leave the caches untouched. Reads
+ * made to update a transaction bypass the cache, and are not cached either.
+ */
+public class CachingEncryptedTransactionDAO implements EncryptedTransactionDAO {
+
+    private final EncryptedTransactionDAO delegate;
+
+    private final EncryptedTransactionCache cache;
+
+    private final Collection<EncryptedTransactionCache> databaseCaches;
+
+    CachingEncryptedTransactionDAO(final EncryptedTransactionDAO delegate, final EncryptedTransactionCache cache) {
+        this(delegate, cache, List.of(cache));
+    }
+
+    CachingEncryptedTransactionDAO(
+            final EncryptedTransactionDAO delegate,
+            final EncryptedTransactionCache cache,
+            final Collection<EncryptedTransactionCache> databaseCaches) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.cache = Objects.requireNonNull(cache);
+        this.databaseCaches = Objects.requireNonNull(databaseCaches);
+    }
+
+    @Override
+    public EncryptedTransaction save(final EncryptedTransaction entity) {
+        final EncryptedTransaction saved = delegate.save(entity);
+        invalidate(entity.getHash());
+        return saved;
+    }
+
+    @Override
+    public EncryptedTransaction update(final EncryptedTransaction entity) {
+        final EncryptedTransaction updated = delegate.update(entity);
+        invalidate(entity.getHash());
+        return updated;
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
+        final Optional<EncryptedTransaction> cached = cache.get(hash);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        final long invalidations = cache.startLoad(hash);
+        try {
+            final Optional<EncryptedTransaction> loaded = delegate.retrieveByHash(hash);
+            loaded.ifPresent(transaction -> cache.put(transaction, invalidations));
+            return loaded;
+        } finally {
+            cache.finishLoad(hash);
+        }
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHashForUpdate(final MessageHash hash) {
+        return delegate.retrieveByHashForUpdate(hash);
+    }
+
+    @Override
+    public List<EncryptedTransaction> findByHashes(final Collection<MessageHash> messageHashes) {
+        return delegate.findByHashes(messageHashes);
+    }
+
+    @Override
+    public List<TransactionPrivacyMetadata> findPrivacyMetadataByHashes(final Collection<MessageHash> messageHashes) {
+        return delegate.findPrivacyMetadataByHashes(messageHashes);
+    }
+
+    @Override
+    public Optional<MessageHash> backfillPrivacyMetadata(final MessageHash after, final int maxResult) {
+        return delegate.backfillPrivacyMetadata(after, maxResult);
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactions(final int offset, final int maxResult) {
+        return delegate.retrieveTransactions(offset, maxResult);
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactionsByHashRange(
+            final MessageHash after, final MessageHash upTo, final int maxResult) {
+        return delegate.retrieveTransactionsByHashRange(after, upTo, maxResult);
+    }
+
+    @Override
+    public long transactionCount() {
+        return delegate.transactionCount();
+    }
+
+    @Override
+    public void delete(final MessageHash hash) {
+        delegate.delete(hash);
+        invalidate(hash);
+    }
+
+    @Override
+    public <T> EncryptedTransaction save(final EncryptedTransaction transaction, final Callable<T> consumer) {
+        final EncryptedTransaction saved = delegate.save(transaction, consumer);
+        invalidate(transaction.getHash());
+        return saved;
+    }
+
+    @Override
+    public <T> void saveAll(final Collection<EncryptedTransaction> transactions, final Callable<T> consumer) {
+        delegate.saveAll(transactions, consumer);
+        transactions.stream().map(EncryptedTransaction::getHash).forEach(this::invalidate);
+    }
+
+    @Override
+    public void saveAll(
+            final Collection<EncryptedTransaction> newTransactions,
+            final Collection<EncryptedTransaction> updatedTransactions) {
+        delegate.saveAll(newTransactions, updatedTransactions);
+        Stream.concat(newTransactions.stream(), updatedTransactions.stream())
+                .map(EncryptedTransaction::getHash)
+                .forEach(this::invalidate);
+    }
+
+    @Override
+    public boolean upcheck() {
+        return delegate.upcheck();
+    }
+
+    private void invalidate(final MessageHash hash) {
+        databaseCaches.forEach(databaseCache -> databaseCache.invalidate(hash));
+    }
+}
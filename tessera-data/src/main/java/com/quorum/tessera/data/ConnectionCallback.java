@@ -0,0 +1,9 @@
+package com.quorum.tessera.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public interface ConnectionCallback<T> {
+
+    T execute(Connection connection) throws SQLException;
+}
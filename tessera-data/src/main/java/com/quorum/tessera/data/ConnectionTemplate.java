@@ -0,0 +1,42 @@
+package com.quorum.tessera.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/** Runs each callback in a database transaction of its own, the JDBC counterpart of {@link EntityManagerTemplate} */
+public class ConnectionTemplate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionTemplate.class);
+
+    private final DataSource dataSource;
+
+    public ConnectionTemplate(DataSource dataSource) {
+        this.dataSource = Objects.requireNonNull(dataSource);
+    }
+
+    public <T> T execute(ConnectionCallback<T> callback) {
+        LOGGER.debug("Enter callback");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                final T outcome = callback.execute(connection);
+                connection.commit();
+                LOGGER.debug("JDBC callback success {}", outcome);
+                return outcome;
+            } catch (SQLException | RuntimeException ex) {
+                LOGGER.warn("JDBC exception thrown during execution {}", ex.getMessage());
+                LOGGER.debug("", ex);
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException(ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.quorum.tessera.data;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,21 @@ public interface EncryptedRawTransactionDAO {
      */
     Optional<EncryptedRawTransaction> retrieveByHash(MessageHash hash);
 
+    /**
+     * Retrieve a list of transactions based on collection of hashes
+     *
+     * @param messageHashes the collection of hashes of the transactions to retrieve
+     * @return A list of encrypted raw transactions
+     */
+    List<EncryptedRawTransaction> findByHashes(Collection<MessageHash> messageHashes);
+
+    /**
+     * Save new transactions in a single database transaction
+     *
+     * @param entities the entities to be persisted
+     */
+    void saveAll(Collection<EncryptedRawTransaction> entities);
+
     /**
      * Deletes a transaction that has the given hash as its digest
      *
@@ -52,4 +68,15 @@ public interface EncryptedRawTransactionDAO {
      * @return The list of requested rows from the database
      */
     List<EncryptedRawTransaction> retrieveTransactions(int offset, int maxResult);
+
+    /**
+     * Retrieves a page of transactions in hash order, starting after the given hash. Passing the hash of the last
+     * transaction of one page as the start of the next allows a full scan without offset based paging.
+     *
+     * @param after the exclusive lower bound of the hash range, or null to start from the lowest hash
+     * @param upTo the inclusive upper bound of the hash range, or null for no upper bound
+     * @param maxResult the maximum number of records to return
+     * @return The list of requested rows from the database, ordered by hash
+     */
+    List<EncryptedRawTransaction> retrieveTransactionsByHashRange(MessageHash after, MessageHash upTo, int maxResult);
 }
@@ -4,12 +4,14 @@ import org.bouncycastle.util.encoders.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
-import java.util.List;
-import java.util.Optional;
+import javax.persistence.criteria.Root;
+import java.util.*;
 
 /** A JPA implementation of {@link EncryptedTransactionDAO} */
 public class EncryptedRawTransactionDAOImpl implements EncryptedRawTransactionDAO {
@@ -49,6 +51,37 @@ public class EncryptedRawTransactionDAOImpl implements EncryptedRawTransactionDA
         return Optional.ofNullable(encryptedRawTransaction);
     }
 
+    @Override
+    public List<EncryptedRawTransaction> findByHashes(final Collection<MessageHash> messageHashes) {
+        if (Objects.isNull(messageHashes) || messageHashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return entityManagerTemplate.execute(
+                entityManager -> {
+                    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+                    CriteriaQuery<EncryptedRawTransaction> query =
+                            criteriaBuilder.createQuery(EncryptedRawTransaction.class);
+
+                    Root<EncryptedRawTransaction> root = query.from(EncryptedRawTransaction.class);
+
+                    return entityManager
+                            .createQuery(query.select(root).where(root.get("hash").in(messageHashes)))
+                            .getResultList();
+                });
+    }
+
+    @Override
+    public void saveAll(final Collection<EncryptedRawTransaction> entities) {
+        LOGGER.debug("Persisting {} EncryptedRawTransaction entries", entities.size());
+
+        entityManagerTemplate.execute(
+                entityManager -> {
+                    entities.forEach(entityManager::persist);
+                    return entities;
+                });
+    }
+
     @Override
     public void delete(final MessageHash hash) {
         LOGGER.info("Deleting transaction with hash {}", hash);
@@ -110,6 +143,46 @@ public class EncryptedRawTransactionDAOImpl implements EncryptedRawTransactionDA
                                 .getResultList());
     }
 
+    @Override
+    public List<EncryptedRawTransaction> retrieveTransactionsByHashRange(
+            final MessageHash after, final MessageHash upTo, final int maxResult) {
+        LOGGER.debug(
+                "Fetching batch(after:{}, upTo:{}, maxResult:{}) of EncryptedRawTransaction entries",
+                after,
+                upTo,
+                maxResult);
+        return entityManagerTemplate.execute(
+                entityManager ->
+                        createHashRangeQuery(entityManager, after, upTo).setMaxResults(maxResult).getResultList());
+    }
+
+    private static TypedQuery<EncryptedRawTransaction> createHashRangeQuery(
+            final EntityManager entityManager, final MessageHash after, final MessageHash upTo) {
+        final List<String> conditions = new ArrayList<>();
+        if (Objects.nonNull(after)) {
+            conditions.add("ert.hash.hashBytes > :after");
+        }
+        if (Objects.nonNull(upTo)) {
+            conditions.add("ert.hash.hashBytes <= :upTo");
+        }
+
+        final StringBuilder jpql = new StringBuilder("select ert from EncryptedRawTransaction ert");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by ert.hash.hashBytes");
+
+        final TypedQuery<EncryptedRawTransaction> query =
+                entityManager.createQuery(jpql.toString(), EncryptedRawTransaction.class);
+        if (Objects.nonNull(after)) {
+            query.setParameter("after", after.getHashBytes());
+        }
+        if (Objects.nonNull(upTo)) {
+            query.setParameter("upTo", upTo.getHashBytes());
+        }
+        return query;
+    }
+
     private String toHexString(byte[] val) {
         if (null == val) {
             return "null";
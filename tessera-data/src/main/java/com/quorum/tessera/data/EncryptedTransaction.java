@@ -1,5 +1,7 @@
 package com.quorum.tessera.data;
 
+import com.quorum.tessera.enclave.EncodedPayload;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.util.Objects;
@@ -9,6 +11,12 @@ import java.util.Objects;
  *
  * <p>The key is the transaction hash, and the value an a fully encoded {@link
  * com.quorum.tessera.enclave.EncodedPayload}
+ *
+ * <p>The payload is only read from the database when it is first accessed, so queries that need no more than the hash
+ * do not transfer it. This relies on the entity being woven at build time.
+ *
+ * <p>A writer that has the payload the encoded bytes were made from can pass it along, so that its privacy details are
+ * stored with the transaction without decoding it again. The payload itself is not persisted.
  */
 @NamedQueries({
     @NamedQuery(
@@ -30,17 +38,25 @@ public class EncryptedTransaction implements Serializable {
     private MessageHash hash;
 
     @Lob
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "ENCODED_PAYLOAD", nullable = false)
     private byte[] encodedPayload;
 
     @Column(name = "TIMESTAMP", updatable = false)
     private long timestamp;
 
+    private transient EncodedPayload payload;
+
     public EncryptedTransaction(final MessageHash hash, final byte[] encodedPayload) {
         this.hash = hash;
         this.encodedPayload = encodedPayload;
     }
 
+    public EncryptedTransaction(final MessageHash hash, final byte[] encodedPayload, final EncodedPayload payload) {
+        this(hash, encodedPayload);
+        this.payload = payload;
+    }
+
     public EncryptedTransaction() {}
 
     @PrePersist
@@ -62,12 +78,27 @@ public class EncryptedTransaction implements Serializable {
 
     public void setEncodedPayload(final byte[] encodedPayload) {
         this.encodedPayload = encodedPayload;
+        this.payload = null;
+    }
+
+    public void setEncodedPayload(final byte[] encodedPayload, final EncodedPayload payload) {
+        this.encodedPayload = encodedPayload;
+        this.payload = payload;
+    }
+
+    /** The payload the encoded bytes were made from, or null if the writer did not pass it */
+    EncodedPayload getPayload() {
+        return this.payload;
     }
 
     public long getTimestamp() {
         return this.timestamp;
     }
 
+    public void setTimestamp(final long timestamp) {
+        this.timestamp = timestamp;
+    }
+
     @Override
     public int hashCode() {
         return 47 * 3 + Objects.hashCode(this.hash);
@@ -0,0 +1,208 @@
+package com.quorum.tessera.data;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * A least recently used cache of encrypted transactions, bounded by the total size of the cached payloads rather than
+ * the number of entries.
+ *
+ * <p>Transactions are spread by hash over segments that each hold an equal share of the budget and are locked on their
+ * own, so lookups of different transactions rarely wait for each other. Each segment evicts its own least recently
+ * used entries, and caches too small to hold several large payloads per segment use fewer segments.
+ *
+ * <p>Loads from the database race with writes, so a value is only added if its transaction has not been invalidated
+ * since the caller called {@link #startLoad} before loading it. This stops a stale value being cached after a
+ * concurrent update, while writes to other transactions leave the load to be cached. Invalidations are only counted
+ * for transactions that are being loaded, and forgotten once the last load calls {@link #finishLoad}.
+ */
+class EncryptedTransactionCache implements EncryptedTransactionCacheMXBean {
+
+    /** Approximate memory used by an entry besides its payload */
+    static final int ENTRY_OVERHEAD = 128;
+
+    static final int MAX_SEGMENTS = 16;
+
+    /** Smallest budget worth a segment of its own */
+    static final long MIN_SEGMENT_WEIGHT = 1024 * 1024;
+
+    private final long maxWeight;
+
+    private final Segment[] segments;
+
+    EncryptedTransactionCache(final long maxWeight) {
+        this.maxWeight = maxWeight;
+        final int segmentCount = (int) Math.max(1, Math.min(MAX_SEGMENTS, maxWeight / MIN_SEGMENT_WEIGHT));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxWeight / segmentCount);
+        }
+    }
+
+    Optional<EncryptedTransaction> get(final MessageHash hash) {
+        // cached entries are never changed, so they are copied without holding the lock
+        return segmentOf(hash).get(hash).map(EncryptedTransactionCache::copyOf);
+    }
+
+    long startLoad(final MessageHash hash) {
+        return segmentOf(hash).startLoad(hash);
+    }
+
+    void finishLoad(final MessageHash hash) {
+        segmentOf(hash).finishLoad(hash);
+    }
+
+    void put(final EncryptedTransaction transaction, final long invalidationsAtStart) {
+        final Segment segment = segmentOf(transaction.getHash());
+        if (weigh(transaction) <= segment.maxWeight) {
+            segment.put(copyOf(transaction), invalidationsAtStart);
+        }
+    }
+
+    void invalidate(final MessageHash hash) {
+        segmentOf(hash).invalidate(hash);
+    }
+
+    @Override
+    public long getHitCount() {
+        return sum(segment -> segment.hitCount);
+    }
+
+    @Override
+    public long getMissCount() {
+        return sum(segment -> segment.missCount);
+    }
+
+    @Override
+    public double getHitRatio() {
+        final long hits = getHitCount();
+        final long lookups = hits + getMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return sum(segment -> segment.evictionCount);
+    }
+
+    @Override
+    public long getEntryCount() {
+        return sum(segment -> segment.entries.size());
+    }
+
+    @Override
+    public long getWeight() {
+        return sum(segment -> segment.weight);
+    }
+
+    @Override
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    private Segment segmentOf(final MessageHash hash) {
+        final int h = hash.hashCode();
+        return segments[Math.floorMod(h ^ (h >>> 16), segments.length)];
+    }
+
+    private long sum(final ToLongFunction<Segment> statistic) {
+        long total = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                total += statistic.applyAsLong(segment);
+            }
+        }
+        return total;
+    }
+
+    private static long weigh(final EncryptedTransaction transaction) {
+        return transaction.getEncodedPayload().length + ENTRY_OVERHEAD;
+    }
+
+    // callers may change the entities and arrays they are given, so the cache never shares its own
+    private static EncryptedTransaction copyOf(final EncryptedTransaction transaction) {
+        final EncryptedTransaction copy =
+                new EncryptedTransaction(transaction.getHash(), transaction.getEncodedPayload().clone());
+        copy.setTimestamp(transaction.getTimestamp());
+        return copy;
+    }
+
+    private static final class Segment {
+
+        private final long maxWeight;
+
+        private final Map<MessageHash, EncryptedTransaction> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Map<MessageHash, Loads> loads = new HashMap<>();
+
+        private long weight;
+
+        private long hitCount;
+
+        private long missCount;
+
+        private long evictionCount;
+
+        private Segment(final long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Optional<EncryptedTransaction> get(final MessageHash hash) {
+            final EncryptedTransaction cached = entries.get(hash);
+            if (cached == null) {
+                missCount++;
+                return Optional.empty();
+            }
+            hitCount++;
+            return Optional.of(cached);
+        }
+
+        synchronized long startLoad(final MessageHash hash) {
+            final Loads started = loads.computeIfAbsent(hash, h -> new Loads());
+            started.count++;
+            return started.invalidations;
+        }
+
+        synchronized void finishLoad(final MessageHash hash) {
+            final Loads finished = loads.get(hash);
+            if (finished != null && --finished.count == 0) {
+                loads.remove(hash);
+            }
+        }
+
+        synchronized void put(final EncryptedTransaction transaction, final long invalidationsAtStart) {
+            final Loads inFlight = loads.get(transaction.getHash());
+            if (inFlight == null || inFlight.invalidations != invalidationsAtStart) {
+                return;
+            }
+
+            final EncryptedTransaction previous = entries.put(transaction.getHash(), transaction);
+            weight += weigh(transaction);
+            Optional.ofNullable(previous).ifPresent(replaced -> weight -= weigh(replaced));
+
+            final Iterator<EncryptedTransaction> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                weight -= weigh(eldest.next());
+                eldest.remove();
+                evictionCount++;
+            }
+        }
+
+        synchronized void invalidate(final MessageHash hash) {
+            Optional.ofNullable(loads.get(hash)).ifPresent(inFlight -> inFlight.invalidations++);
+            Optional.ofNullable(entries.remove(hash)).ifPresent(removed -> weight -= weigh(removed));
+        }
+    }
+
+    // the loads of a transaction in flight, and how often it has been invalidated since the first of them started
+    private static final class Loads {
+
+        private int count;
+
+        private long invalidations;
+    }
+}
@@ -0,0 +1,28 @@
+package com.quorum.tessera.data;
+
+/** Statistics of the in-memory cache of encrypted transactions, exported over JMX */
+public interface EncryptedTransactionCacheMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    /**
+     * @return the fraction of lookups that were served from the cache, or 0 if there have been no lookups
+     */
+    double getHitRatio();
+
+    long getEvictionCount();
+
+    long getEntryCount();
+
+    /**
+     * @return the number of bytes held by the cached transactions
+     */
+    long getWeight();
+
+    /**
+     * @return the maximum number of bytes the cached transactions may hold
+     */
+    long getMaxWeight();
+}
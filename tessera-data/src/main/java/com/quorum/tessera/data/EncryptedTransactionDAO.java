@@ -32,6 +32,15 @@ public interface EncryptedTransactionDAO {
      */
     Optional<EncryptedTransaction> retrieveByHash(MessageHash hash);
 
+    /**
+     * Retrieve a transaction that is about to be updated from the primary database. Reads served by a read replica or
+     * a cache may lag behind writes, and an update made from such a read would drop whatever it missed.
+     *
+     * @param hash the hash of the transaction to retrieve
+     * @return the encrypted transaction with the given hash
+     */
+    Optional<EncryptedTransaction> retrieveByHashForUpdate(MessageHash hash);
+
     /**
      * Retrieve a list of transactions based on collection of hashes
      *
@@ -40,6 +49,27 @@ public interface EncryptedTransactionDAO {
      */
     List<EncryptedTransaction> findByHashes(Collection<MessageHash> messageHashes);
 
+    /**
+     * Retrieve the privacy details of a collection of transactions, without loading their payloads where the details
+     * have been stored separately. Transactions stored without their details, such as those stored before the details
+     * were kept or written without the decoded payload, are read from their payloads.
+     *
+     * @param messageHashes the collection of hashes of the transactions to retrieve
+     * @return the privacy details of the transactions that were found
+     * @throws RuntimeException if a payload that has to be read cannot be decoded
+     */
+    List<TransactionPrivacyMetadata> findPrivacyMetadataByHashes(Collection<MessageHash> messageHashes);
+
+    /**
+     * Stores the privacy details of transactions that were saved before they were kept, reading a page of transactions
+     * in hash order on each call.
+     *
+     * @param after the exclusive lower bound of the hash range, or null to start from the lowest hash
+     * @param maxResult the maximum number of transactions to read
+     * @return the hash of the last transaction read, to pass to the next call, or empty if there were none left
+     */
+    Optional<MessageHash> backfillPrivacyMetadata(MessageHash after, int maxResult);
+
     /**
      * Retrieves a list of transactions stored in the database
      *
@@ -49,6 +79,17 @@ public interface EncryptedTransactionDAO {
      */
     List<EncryptedTransaction> retrieveTransactions(int offset, int maxResult);
 
+    /**
+     * Retrieves a page of transactions in hash order, starting after the given hash. Passing the hash of the last
+     * transaction of one page as the start of the next allows a full scan without offset based paging.
+     *
+     * @param after the exclusive lower bound of the hash range, or null to start from the lowest hash
+     * @param upTo the inclusive upper bound of the hash range, or null for no upper bound
+     * @param maxResult the maximum number of records to return
+     * @return The list of requested rows from the database, ordered by hash
+     */
+    List<EncryptedTransaction> retrieveTransactionsByHashRange(MessageHash after, MessageHash upTo, int maxResult);
+
     /**
      * Retrieve the total transaction count.
      *
@@ -74,6 +115,26 @@ public interface EncryptedTransactionDAO {
      */
     <T> EncryptedTransaction save(EncryptedTransaction transaction, Callable<T> consumer);
 
+    /**
+     * Perform a save of several new encrypted transactions in a single database transaction with a callback. The
+     * callback is run once, after all the transactions have been written, and none of them are kept if it fails.
+     *
+     * @param transactions the entities to be persisted
+     * @param consumer action that needs to be executed together
+     * @throws RuntimeException if the callback fails
+     */
+    <T> void saveAll(Collection<EncryptedTransaction> transactions, Callable<T> consumer);
+
+    /**
+     * Save new transactions and update the payloads of existing transactions in a single database transaction. The
+     * updates are sent to the database as one JDBC batch.
+     *
+     * @param newTransactions the entities to be persisted
+     * @param updatedTransactions the existing entities whose encoded payloads are to be updated
+     */
+    void saveAll(
+            Collection<EncryptedTransaction> newTransactions, Collection<EncryptedTransaction> updatedTransactions);
+
     /**
      * Check whether data store is available
      *
@@ -3,24 +3,49 @@ package com.quorum.tessera.data;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /** A JPA implementation of {@link EncryptedTransactionDAO} */
 public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EncryptedTransactionDAOImpl.class);
 
+    // The payload is fetched lazily, this loads it with the rest of the row. It is only set on queries whose callers
+    // decode every transaction they are given, which would otherwise select each payload on its own.
+    private static final String FETCH_PAYLOAD = "eclipselink.fetch-group.default";
+
+    // oracle allows no more than a thousand values in an IN list, so longer lists are queried in parts
+    private static final int MAX_HASHES_PER_QUERY = 1000;
+
     private EntityManagerTemplate entityManagerTemplate;
 
+    // false when the database has no privacy metadata table, the details are then always read from the payloads
+    private final boolean storePrivacyMetadata;
+
     public EncryptedTransactionDAOImpl(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, true);
+    }
+
+    public EncryptedTransactionDAOImpl(EntityManagerFactory entityManagerFactory, boolean storePrivacyMetadata) {
         this.entityManagerTemplate = new EntityManagerTemplate(entityManagerFactory);
+        this.storePrivacyMetadata = storePrivacyMetadata;
     }
 
     @Override
@@ -28,6 +53,7 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         return entityManagerTemplate.execute(
                 entityManager -> {
                     entityManager.persist(entity);
+                    privacyMetadataToStore(entity).ifPresent(entityManager::persist);
                     LOGGER.debug("Stored transaction {}", entity.getHash());
                     return entity;
                 });
@@ -38,6 +64,19 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         return entityManagerTemplate.execute(
                 entityManager -> {
                     entityManager.merge(entity);
+                    if (storePrivacyMetadata) {
+                        final Optional<TransactionPrivacyMetadata> metadata =
+                                TransactionPrivacyMetadata.ofWritten(entity);
+                        if (metadata.isPresent()) {
+                            entityManager.merge(metadata.get());
+                        } else {
+                            // the stored details may no longer match the payload, lookups read the payload instead
+                            entityManager
+                                    .createQuery("delete from TransactionPrivacyMetadata m where m.hash = :hash")
+                                    .setParameter("hash", entity.getHash())
+                                    .executeUpdate();
+                        }
+                    }
                     LOGGER.debug("Updated transaction {}", entity.getHash());
                     return entity;
                 });
@@ -51,10 +90,16 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                         entityManager
                                 .createNamedQuery("EncryptedTransaction.FindByHash", EncryptedTransaction.class)
                                 .setParameter("hash", hash.getHashBytes())
+                                .setHint(FETCH_PAYLOAD, false)
                                 .getResultStream()
                                 .findAny());
     }
 
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHashForUpdate(final MessageHash hash) {
+        return retrieveByHash(hash);
+    }
+
     @Override
     public List<EncryptedTransaction> retrieveTransactions(int offset, int maxResult) {
         LOGGER.debug("Fetching batch(offset:{},maxResult:{}) EncryptedTransaction database rows", offset, maxResult);
@@ -62,21 +107,111 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                 entityManager ->
                         entityManager
                                 .createNamedQuery("EncryptedTransaction.FindAll", EncryptedTransaction.class)
+                                .setHint(FETCH_PAYLOAD, false)
                                 .setFirstResult(offset)
                                 .setMaxResults(maxResult)
                                 .getResultList());
     }
 
     @Override
-    public long transactionCount() {
+    public List<EncryptedTransaction> retrieveTransactionsByHashRange(
+            final MessageHash after, final MessageHash upTo, final int maxResult) {
+        LOGGER.debug(
+                "Fetching batch(after:{},upTo:{},maxResult:{}) EncryptedTransaction database rows",
+                after,
+                upTo,
+                maxResult);
         return entityManagerTemplate.execute(
                 entityManager -> {
-                    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+                    final TransactionTables tables = TransactionTables.from(entityManager);
+                    if (!tables.isSplit()) {
+                        return createHashRangeQuery(entityManager, after, upTo)
+                                .setMaxResults(maxResult)
+                                .getResultList();
+                    }
+
+                    // page through the narrow index table first, only the rows of the page are joined to their payload
+                    final List<MessageHash> hashes =
+                            findHashRange(entityManager, tables.getIndexTable(), after, upTo, maxResult);
+                    if (hashes.isEmpty()) {
+                        return Collections.emptyList();
+                    }
+                    final Map<MessageHash, EncryptedTransaction> transactions =
+                            findAllByHash(entityManager, EncryptedTransaction.class, hashes, true).stream()
+                                    .collect(Collectors.toMap(EncryptedTransaction::getHash, Function.identity()));
+                    return hashes.stream().map(transactions::get).filter(Objects::nonNull).collect(Collectors.toList());
+                });
+    }
+
+    private static List<MessageHash> findHashRange(
+            final EntityManager entityManager,
+            final String indexTable,
+            final MessageHash after,
+            final MessageHash upTo,
+            final int maxResult) {
+        final List<String> conditions = new ArrayList<>();
+        if (Objects.nonNull(after)) {
+            conditions.add("HASH > ?" + (conditions.size() + 1));
+        }
+        if (Objects.nonNull(upTo)) {
+            conditions.add("HASH <= ?" + (conditions.size() + 1));
+        }
+
+        final StringBuilder sql = new StringBuilder("SELECT HASH FROM ").append(indexTable);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY HASH");
+
+        final Query query = entityManager.createNativeQuery(sql.toString());
+        final List<MessageHash> bounds = Stream.of(after, upTo).filter(Objects::nonNull).collect(Collectors.toList());
+        for (int i = 0; i < bounds.size(); i++) {
+            query.setParameter(i + 1, bounds.get(i).getHashBytes());
+        }
 
-                    CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
-                    countQuery.select(criteriaBuilder.count(countQuery.from(EncryptedTransaction.class)));
+        final List<?> hashes = query.setMaxResults(maxResult).getResultList();
+        return hashes.stream().map(byte[].class::cast).map(MessageHash::new).collect(Collectors.toList());
+    }
+
+    private static TypedQuery<EncryptedTransaction> createHashRangeQuery(
+            final EntityManager entityManager, final MessageHash after, final MessageHash upTo) {
+        final List<String> conditions = new ArrayList<>();
+        if (Objects.nonNull(after)) {
+            conditions.add("et.hash.hashBytes > :after");
+        }
+        if (Objects.nonNull(upTo)) {
+            conditions.add("et.hash.hashBytes <= :upTo");
+        }
 
-                    return entityManager.createQuery(countQuery).getSingleResult();
+        final StringBuilder jpql = new StringBuilder("select et from EncryptedTransaction et");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by et.hash.hashBytes");
+
+        final TypedQuery<EncryptedTransaction> query =
+                entityManager.createQuery(jpql.toString(), EncryptedTransaction.class).setHint(FETCH_PAYLOAD, false);
+        if (Objects.nonNull(after)) {
+            query.setParameter("after", after.getHashBytes());
+        }
+        if (Objects.nonNull(upTo)) {
+            query.setParameter("upTo", upTo.getHashBytes());
+        }
+        return query;
+    }
+
+    @Override
+    public long transactionCount() {
+        return entityManagerTemplate.execute(
+                entityManager -> {
+                    // counted on the index table alone, a JPA count would join the payload table too
+                    final String indexTable = TransactionTables.from(entityManager).getIndexTable();
+                    final Number count =
+                            (Number)
+                                    entityManager
+                                            .createNativeQuery("SELECT COUNT(*) FROM " + indexTable)
+                                            .getSingleResult();
+                    return count.longValue();
                 });
     }
 
@@ -95,6 +230,10 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                                     .findAny()
                                     .orElseThrow(EntityNotFoundException::new);
 
+                    if (storePrivacyMetadata) {
+                        Optional.ofNullable(entityManager.find(TransactionPrivacyMetadata.class, hash))
+                                .ifPresent(entityManager::remove);
+                    }
                     entityManager.remove(message);
                     return message;
                 });
@@ -106,6 +245,7 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         return entityManagerTemplate.execute(
                 entityManager -> {
                     entityManager.persist(transaction);
+                    privacyMetadataToStore(transaction).ifPresent(entityManager::persist);
                     try {
                         entityManager.flush();
                         consumer.call();
@@ -118,6 +258,211 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
                 });
     }
 
+    @Override
+    public <T> void saveAll(final Collection<EncryptedTransaction> transactions, final Callable<T> consumer) {
+        LOGGER.debug("Saving {} transactions", transactions.size());
+
+        entityManagerTemplate.execute(
+                entityManager -> {
+                    transactions.forEach(
+                            transaction -> {
+                                entityManager.persist(transaction);
+                                privacyMetadataToStore(transaction).ifPresent(entityManager::persist);
+                            });
+                    try {
+                        entityManager.flush();
+                        consumer.call();
+                        return null;
+                    } catch (RuntimeException ex) {
+                        throw ex;
+                    } catch (Exception e) {
+                        throw new PersistenceException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void saveAll(
+            final Collection<EncryptedTransaction> newTransactions,
+            final Collection<EncryptedTransaction> updatedTransactions) {
+        LOGGER.debug("Saving {} and updating {} transactions", newTransactions.size(), updatedTransactions.size());
+
+        entityManagerTemplate.execute(
+                entityManager -> {
+                    newTransactions.forEach(
+                            transaction -> {
+                                entityManager.persist(transaction);
+                                privacyMetadataToStore(transaction).ifPresent(entityManager::persist);
+                            });
+                    entityManager.flush();
+
+                    if (updatedTransactions.isEmpty()) {
+                        return null;
+                    }
+
+                    final List<TransactionPrivacyMetadata> updatedMetadata = new ArrayList<>();
+                    final List<MessageHash> staleMetadata = new ArrayList<>();
+                    for (final EncryptedTransaction transaction : updatedTransactions) {
+                        final Optional<TransactionPrivacyMetadata> metadata = privacyMetadataToStore(transaction);
+                        if (metadata.isPresent()) {
+                            updatedMetadata.add(metadata.get());
+                        } else if (storePrivacyMetadata) {
+                            staleMetadata.add(transaction.getHash());
+                        }
+                    }
+
+                    // Merging detached entities would select each row again, so write the payloads directly.
+                    // Rows without metadata are left to the backfill, reads fall back to the payload until then.
+                    // Updates whose writer did not pass the payload drop the stored details, which may no longer match.
+                    final TransactionTables tables = TransactionTables.from(entityManager);
+                    final Connection connection = entityManager.unwrap(Connection.class);
+                    try (PreparedStatement statement =
+                                    connection.prepareStatement(
+                                            "UPDATE "
+                                                    + tables.getPayloadTable()
+                                                    + " SET "
+                                                    + tables.getPayloadColumn()
+                                                    + " = ? WHERE HASH = ?");
+                            PreparedStatement metadataStatement =
+                                    connection.prepareStatement(
+                                            "UPDATE TRANSACTION_PRIVACY_METADATA SET PRIVACY_MODE = ?,"
+                                                    + " RECIPIENT_KEYS = ?, EXEC_HASH = ? WHERE HASH = ?");
+                            PreparedStatement deleteMetadataStatement =
+                                    connection.prepareStatement(
+                                            "DELETE FROM TRANSACTION_PRIVACY_METADATA WHERE HASH = ?")) {
+                        for (final EncryptedTransaction transaction : updatedTransactions) {
+                            statement.setBytes(1, transaction.getEncodedPayload());
+                            statement.setBytes(2, transaction.getHash().getHashBytes());
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+
+                        for (final TransactionPrivacyMetadata metadata : updatedMetadata) {
+                            metadataStatement.setInt(1, metadata.getPrivacyMode().getPrivacyFlag());
+                            metadataStatement.setBytes(2, metadata.getEncodedRecipientKeys());
+                            metadataStatement.setBytes(3, metadata.getExecHash());
+                            metadataStatement.setBytes(4, metadata.getHash().getHashBytes());
+                            metadataStatement.addBatch();
+                        }
+                        if (!updatedMetadata.isEmpty()) {
+                            metadataStatement.executeBatch();
+                        }
+
+                        for (final MessageHash hash : staleMetadata) {
+                            deleteMetadataStatement.setBytes(1, hash.getHashBytes());
+                            deleteMetadataStatement.addBatch();
+                        }
+                        if (!staleMetadata.isEmpty()) {
+                            deleteMetadataStatement.executeBatch();
+                        }
+                    } catch (SQLException ex) {
+                        throw new PersistenceException(ex);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public List<TransactionPrivacyMetadata> findPrivacyMetadataByHashes(final Collection<MessageHash> messageHashes) {
+        if (Objects.isNull(messageHashes) || messageHashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return entityManagerTemplate.execute(
+                entityManager -> {
+                    final List<TransactionPrivacyMetadata> stored = new ArrayList<>();
+                    if (storePrivacyMetadata) {
+                        stored.addAll(
+                                findAllByHash(
+                                        entityManager, TransactionPrivacyMetadata.class, messageHashes, false));
+                    }
+
+                    final Set<MessageHash> storedHashes =
+                            stored.stream().map(TransactionPrivacyMetadata::getHash).collect(Collectors.toSet());
+                    final List<MessageHash> missingHashes =
+                            messageHashes.stream()
+                                    .filter(Predicate.not(storedHashes::contains))
+                                    .collect(Collectors.toList());
+
+                    if (missingHashes.isEmpty()) {
+                        return stored;
+                    }
+
+                    LOGGER.debug("Reading privacy metadata of {} transactions from payloads", missingHashes.size());
+                    final Stream<TransactionPrivacyMetadata> decoded =
+                            findAllByHash(entityManager, EncryptedTransaction.class, missingHashes, true).stream()
+                                    .map(TransactionPrivacyMetadata::from);
+
+                    return Stream.concat(stored.stream(), decoded).collect(Collectors.toList());
+                });
+    }
+
+    @Override
+    public Optional<MessageHash> backfillPrivacyMetadata(final MessageHash after, final int maxResult) {
+        if (!storePrivacyMetadata) {
+            return Optional.empty();
+        }
+
+        return entityManagerTemplate.execute(
+                entityManager -> {
+                    final StringBuilder jpql =
+                            new StringBuilder("select et from EncryptedTransaction et where not exists")
+                                    .append(" (select m from TransactionPrivacyMetadata m")
+                                    .append(" where m.hash.hashBytes = et.hash.hashBytes)");
+                    if (Objects.nonNull(after)) {
+                        jpql.append(" and et.hash.hashBytes > :after");
+                    }
+                    jpql.append(" order by et.hash.hashBytes");
+
+                    final TypedQuery<EncryptedTransaction> query =
+                            entityManager
+                                    .createQuery(jpql.toString(), EncryptedTransaction.class)
+                                    .setHint(FETCH_PAYLOAD, false);
+                    if (Objects.nonNull(after)) {
+                        query.setParameter("after", after.getHashBytes());
+                    }
+
+                    final List<EncryptedTransaction> transactions = query.setMaxResults(maxResult).getResultList();
+                    transactions.stream()
+                            .map(TransactionPrivacyMetadata::backfill)
+                            .flatMap(Optional::stream)
+                            .forEach(entityManager::persist);
+
+                    LOGGER.debug("Backfilled privacy metadata for {} transactions", transactions.size());
+                    return transactions.stream().reduce((first, second) -> second).map(EncryptedTransaction::getHash);
+                });
+    }
+
+    private Optional<TransactionPrivacyMetadata> privacyMetadataToStore(final EncryptedTransaction transaction) {
+        if (!storePrivacyMetadata) {
+            return Optional.empty();
+        }
+        return TransactionPrivacyMetadata.ofWritten(transaction);
+    }
+
+    private static <T> List<T> findAllByHash(
+            final EntityManager entityManager,
+            final Class<T> type,
+            final Collection<MessageHash> messageHashes,
+            final boolean fetchPayload) {
+        final CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<T> query = criteriaBuilder.createQuery(type);
+        final Root<T> root = query.from(type);
+
+        final List<MessageHash> hashes = List.copyOf(messageHashes);
+        final List<T> results = new ArrayList<>();
+        for (int from = 0; from < hashes.size(); from += MAX_HASHES_PER_QUERY) {
+            final int to = Math.min(from + MAX_HASHES_PER_QUERY, hashes.size());
+            final TypedQuery<T> part =
+                    entityManager.createQuery(query.select(root).where(root.get("hash").in(hashes.subList(from, to))));
+            if (fetchPayload) {
+                part.setHint(FETCH_PAYLOAD, false);
+            }
+            results.addAll(part.getResultList());
+        }
+        return results;
+    }
+
     @Override
     public boolean upcheck() {
         // if query succeeds then DB is up and running (else get exception)
@@ -141,15 +486,6 @@ public class EncryptedTransactionDAOImpl implements EncryptedTransactionDAO {
         }
 
         return entityManagerTemplate.execute(
-                entityManager -> {
-                    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-                    CriteriaQuery<EncryptedTransaction> query = criteriaBuilder.createQuery(EncryptedTransaction.class);
-
-                    Root<EncryptedTransaction> root = query.from(EncryptedTransaction.class);
-
-                    return entityManager
-                            .createQuery(query.select(root).where(root.get("hash").in(messageHashes)))
-                            .getResultList();
-                });
+                entityManager -> findAllByHash(entityManager, EncryptedTransaction.class, messageHashes, true));
     }
 }
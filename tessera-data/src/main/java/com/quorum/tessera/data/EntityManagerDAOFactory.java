@@ -1,13 +1,29 @@
 package com.quorum.tessera.data;
 
 import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.config.JdbcPoolConfig;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.quorum.tessera.config.util.EncryptedStringResolver;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
@@ -25,10 +41,54 @@ public class EntityManagerDAOFactory {
 
     private final EntityManagerFactory stagingEntityManagerFactory;
 
+    // several factories may be created for the same database, each gets the cache of its own size and every write
+    // invalidates all the caches of the database, so they see each other's writes
+    private static final Map<String, Map<Long, EncryptedTransactionCache>> TRANSACTION_CACHES =
+            new ConcurrentHashMap<>();
+
+    private static final AtomicInteger TRANSACTION_CACHE_COUNT = new AtomicInteger();
+
+    // pools register their metrics under their name, so every pool in the JVM needs a different one
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    // schema version 2 maps the transaction entity onto the split index and payload tables
+    private static final String SPLIT_PAYLOAD_UNIT = "tessera-v2";
+
+    private final EncryptedTransactionCache transactionCache;
+
+    private final Collection<EncryptedTransactionCache> databaseTransactionCaches;
+
+    private final DataSource dataSource;
+
+    private final JdbcConfig jdbcConfig;
+
+    // both null unless read replicas are configured, shared by all DAOs of this factory
+    private final ReplicaRoutingDataSource replicaRouting;
+
+    private final RecentWrites recentWrites;
+
+    // nodes that have not added the privacy metadata table read the details from the payloads instead
+    private final boolean storePrivacyMetadata;
+
     private EntityManagerDAOFactory(
-            EntityManagerFactory entityManagerFactory, EntityManagerFactory stagingEntityManagerFactory) {
+            EntityManagerFactory entityManagerFactory,
+            EntityManagerFactory stagingEntityManagerFactory,
+            EncryptedTransactionCache transactionCache,
+            Collection<EncryptedTransactionCache> databaseTransactionCaches,
+            DataSource dataSource,
+            JdbcConfig jdbcConfig,
+            ReplicaRoutingDataSource replicaRouting,
+            RecentWrites recentWrites,
+            boolean storePrivacyMetadata) {
         this.entityManagerFactory = Objects.requireNonNull(entityManagerFactory);
         this.stagingEntityManagerFactory = Objects.requireNonNull(stagingEntityManagerFactory);
+        this.transactionCache = transactionCache;
+        this.databaseTransactionCaches = Objects.requireNonNull(databaseTransactionCaches);
+        this.dataSource = Objects.requireNonNull(dataSource);
+        this.jdbcConfig = Objects.requireNonNull(jdbcConfig);
+        this.replicaRouting = replicaRouting;
+        this.recentWrites = recentWrites;
+        this.storePrivacyMetadata = storePrivacyMetadata;
     }
 
     public static EntityManagerDAOFactory newFactory(Config config) {
@@ -39,27 +99,63 @@ public class EntityManagerDAOFactory {
         final EncryptedStringResolver resolver = new EncryptedStringResolver();
         final String url = resolver.resolve(config.getJdbcConfig().getUrl());
 
-        final HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(url);
-        hikariConfig.setUsername(username);
-        hikariConfig.setPassword(password);
+        final JdbcPoolConfig poolConfig =
+                Optional.ofNullable(config.getJdbcConfig().getPoolConfig()).orElseGet(JdbcPoolConfig::new);
+        final String poolName = "tessera-" + POOL_COUNT.getAndIncrement();
+
+        final DataSource primary = createDataSource(url, username, password, poolConfig, poolName);
 
-        final DataSource dataSource = new HikariDataSource(hikariConfig);
+        final List<String> replicaUrls = config.getJdbcConfig().getReplicaUrls();
+        final List<DataSource> replicas =
+                IntStream.range(0, replicaUrls.size())
+                        .mapToObj(
+                                i ->
+                                        createDataSource(
+                                                resolver.resolve(replicaUrls.get(i)),
+                                                username,
+                                                password,
+                                                poolConfig,
+                                                poolName + "-replica-" + i))
+                        .collect(Collectors.toList());
+
+        final DataSource dataSource;
+        final ReplicaRoutingDataSource replicaRouting;
+        final RecentWrites recentWrites;
+        if (replicas.isEmpty()) {
+            dataSource = primary;
+            replicaRouting = null;
+            recentWrites = null;
+        } else {
+            LOGGER.info("Reading transactions from {} replicas", replicas.size());
+            replicaRouting = new ReplicaRoutingDataSource(primary, replicas);
+            dataSource = replicaRouting;
+            recentWrites = new RecentWrites(config.getJdbcConfig().getReplicaLagMillis());
+        }
 
         Map properties = new HashMap();
 
         properties.put("javax.persistence.nonJtaDataSource", dataSource);
 
         properties.put("eclipselink.logging.logger", "org.eclipse.persistence.logging.slf4j.SLF4JLogger");
-        properties.put("eclipselink.logging.level", "FINE");
+        final String loggingLevel = Optional.ofNullable(poolConfig.getLoggingLevel()).orElse("FINE");
+        properties.put("eclipselink.logging.level", loggingLevel);
         properties.put("eclipselink.logging.parameters", "true");
-        properties.put("eclipselink.logging.level.sql", "FINE");
+        properties.put("eclipselink.logging.level.sql", loggingLevel);
+        Optional.ofNullable(poolConfig.getBatchWriting())
+                .ifPresent(
+                        batchWriting ->
+                                properties.put("eclipselink.jdbc.batch-writing", batchWriting ? "JDBC" : "None"));
+        Optional.ofNullable(poolConfig.getBatchWritingSize())
+                .ifPresent(size -> properties.put("eclipselink.jdbc.batch-writing.size", String.valueOf(size)));
         properties.put(
                 "javax.persistence.schema-generation.database.action",
                 config.getJdbcConfig().isAutoCreateTables() ? "create" : "none");
 
-        LOGGER.debug("Creating EntityManagerFactory from {}", properties);
-        final EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
+        final String persistenceUnit = config.getJdbcConfig().getSchemaVersion() == 2 ? SPLIT_PAYLOAD_UNIT : "tessera";
+
+        LOGGER.debug("Creating EntityManagerFactory for {} from {}", persistenceUnit, properties);
+        final EntityManagerFactory entityManagerFactory =
+                Persistence.createEntityManagerFactory(persistenceUnit, properties);
         LOGGER.debug("Created EntityManagerFactory from {}", properties);
 
         final Map stagingProperties = new HashMap(properties);
@@ -69,12 +165,106 @@ public class EntityManagerDAOFactory {
         final EntityManagerFactory stagingEntityManagerFactory =
                 Persistence.createEntityManagerFactory("tessera-recover", stagingProperties);
 
-        return new EntityManagerDAOFactory(entityManagerFactory, stagingEntityManagerFactory);
+        final Map<Long, EncryptedTransactionCache> databaseTransactionCaches =
+                TRANSACTION_CACHES.computeIfAbsent(url, u -> new ConcurrentHashMap<>());
+        final EncryptedTransactionCache transactionCache =
+                Optional.of(config.getJdbcConfig().getTransactionCacheSize())
+                        .filter(size -> size > 0)
+                        .map(
+                                size ->
+                                        databaseTransactionCaches.computeIfAbsent(
+                                                size, EntityManagerDAOFactory::createTransactionCache))
+                        .orElse(null);
+
+        // auto created tables already exist once the entity manager factory has been created
+        final boolean storePrivacyMetadata = hasPrivacyMetadataTable(primary);
+        if (!storePrivacyMetadata) {
+            LOGGER.info("No TRANSACTION_PRIVACY_METADATA table, privacy metadata is read from transaction payloads");
+        }
+
+        return new EntityManagerDAOFactory(
+                entityManagerFactory,
+                stagingEntityManagerFactory,
+                transactionCache,
+                databaseTransactionCaches.values(),
+                dataSource,
+                config.getJdbcConfig(),
+                replicaRouting,
+                recentWrites,
+                storePrivacyMetadata);
+    }
+
+    private static DataSource createDataSource(
+            String url, String username, String password, JdbcPoolConfig poolConfig, String poolName) {
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(url);
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
+        hikariConfig.setPoolName(poolName);
+        // the pool metrics are read from its MBean
+        hikariConfig.setRegisterMbeans(true);
+
+        Optional.ofNullable(poolConfig.getMaxPoolSize()).ifPresent(hikariConfig::setMaximumPoolSize);
+        Optional.ofNullable(poolConfig.getMinIdle()).ifPresent(hikariConfig::setMinimumIdle);
+        Optional.ofNullable(poolConfig.getConnectionTimeout()).ifPresent(hikariConfig::setConnectionTimeout);
+        Optional.ofNullable(poolConfig.getLeakDetectionThreshold()).ifPresent(hikariConfig::setLeakDetectionThreshold);
+        Optional.ofNullable(poolConfig.getDriverProperties())
+                .ifPresent(driverProperties -> driverProperties.forEach(hikariConfig::addDataSourceProperty));
+
+        return new HikariDataSource(hikariConfig);
+    }
+
+    static boolean hasPrivacyMetadataTable(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM TRANSACTION_PRIVACY_METADATA WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException ex) {
+            LOGGER.debug("Unable to query TRANSACTION_PRIVACY_METADATA", ex);
+            return false;
+        }
+    }
+
+    private static EncryptedTransactionCache createTransactionCache(long maxWeight) {
+        final EncryptedTransactionCache transactionCache = new EncryptedTransactionCache(maxWeight);
+        registerMBean(
+                ManagementFactory.getPlatformMBeanServer(),
+                transactionCache,
+                "com.quorum.tessera:type=EncryptedTransactionCache,name=" + TRANSACTION_CACHE_COUNT.getAndIncrement());
+        return transactionCache;
+    }
+
+    static void registerMBean(MBeanServer mBeanServer, Object mBean, String name) {
+        try {
+            mBeanServer.registerMBean(mBean, new ObjectName(name));
+        } catch (JMException ex) {
+            // metrics are not worth failing startup for
+            LOGGER.warn("Unable to register MBean {}", name, ex);
+        }
     }
 
     public EncryptedTransactionDAO createEncryptedTransactionDAO() {
         LOGGER.debug("Create EncryptedTransactionDAO");
-        return new EncryptedTransactionDAOImpl(entityManagerFactory);
+        final EncryptedTransactionDAO encryptedTransactionDAO;
+        if (jdbcConfig.isBypassJpa()) {
+            encryptedTransactionDAO =
+                    new JdbcEncryptedTransactionDAO(dataSource, jdbcConfig.getSchemaVersion(), storePrivacyMetadata);
+        } else {
+            encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory, storePrivacyMetadata);
+        }
+        final EncryptedTransactionDAO routedTransactionDAO =
+                Optional.ofNullable(replicaRouting)
+                        .<EncryptedTransactionDAO>map(
+                                routing ->
+                                        new ReplicaReadingEncryptedTransactionDAO(
+                                                encryptedTransactionDAO, routing, recentWrites))
+                        .orElse(encryptedTransactionDAO);
+        return Optional.ofNullable(transactionCache)
+                .<EncryptedTransactionDAO>map(
+                        cache ->
+                                new CachingEncryptedTransactionDAO(
+                                        routedTransactionDAO, cache, databaseTransactionCaches))
+                .orElse(routedTransactionDAO);
     }
 
     public EncryptedRawTransactionDAO createEncryptedRawTransactionDAO() {
@@ -86,4 +276,9 @@ public class EntityManagerDAOFactory {
         LOGGER.debug("Create StagingEntityDAO");
         return new StagingEntityDAOImpl(stagingEntityManagerFactory);
     }
+
+    public SplitPayloadMigration createSplitPayloadMigration(int pageSize) {
+        LOGGER.debug("Create SplitPayloadMigration");
+        return new SplitPayloadMigration(dataSource, pageSize);
+    }
 }
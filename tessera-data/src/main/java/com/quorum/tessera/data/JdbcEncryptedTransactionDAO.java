@@ -0,0 +1,640 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.io.IOCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * An implementation of {@link EncryptedTransactionDAO} issuing its statements directly on pooled connections.
+ *
+ * <p>It reads and writes the same tables as {@link EncryptedTransactionDAOImpl}, without the unit of work, change
+ * tracking and entity copies of the JPA provider. Payloads are streamed to and from the database, and statements over
+ * several transactions are sent as a single batch.
+ */
+public class JdbcEncryptedTransactionDAO implements EncryptedTransactionDAO {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcEncryptedTransactionDAO.class);
+
+    private static final String INSERT_METADATA =
+            "INSERT INTO TRANSACTION_PRIVACY_METADATA (HASH, PRIVACY_MODE, RECIPIENT_KEYS, EXEC_HASH) VALUES (?, ?, ?, ?)";
+
+    private static final String UPDATE_METADATA =
+            "UPDATE TRANSACTION_PRIVACY_METADATA SET PRIVACY_MODE = ?, RECIPIENT_KEYS = ?, EXEC_HASH = ? WHERE HASH = ?";
+
+    private static final String SELECT_METADATA =
+            "SELECT HASH, PRIVACY_MODE, RECIPIENT_KEYS, EXEC_HASH FROM TRANSACTION_PRIVACY_METADATA WHERE HASH IN ";
+
+    private static final String DELETE_METADATA = "DELETE FROM TRANSACTION_PRIVACY_METADATA WHERE HASH = ?";
+
+    // oracle allows no more than a thousand values in an IN list, so longer lists are queried in parts
+    private static final int MAX_HASHES_PER_QUERY = 1000;
+
+    private final ConnectionTemplate connectionTemplate;
+
+    private final TransactionTables tables;
+
+    // false when the database has no privacy metadata table, the details are then always read from the payloads
+    private final boolean storePrivacyMetadata;
+
+    private final String selectTransactions;
+
+    private final String updatePayload;
+
+    // hash columns a range condition is applied to, both tables when split so the database can drive from either
+    private final List<String> hashColumns;
+
+    public JdbcEncryptedTransactionDAO(final DataSource dataSource, final int schemaVersion) {
+        this(dataSource, schemaVersion, true);
+    }
+
+    public JdbcEncryptedTransactionDAO(
+            final DataSource dataSource, final int schemaVersion, final boolean storePrivacyMetadata) {
+        this.connectionTemplate = new ConnectionTemplate(dataSource);
+        this.tables = TransactionTables.forSchemaVersion(schemaVersion);
+        this.storePrivacyMetadata = storePrivacyMetadata;
+
+        this.updatePayload =
+                "UPDATE " + tables.getPayloadTable() + " SET " + tables.getPayloadColumn() + " = ? WHERE HASH = ?";
+
+        if (tables.isSplit()) {
+            this.selectTransactions =
+                    "SELECT t.HASH, t.TIMESTAMP, p."
+                            + tables.getPayloadColumn()
+                            + " FROM "
+                            + tables.getIndexTable()
+                            + " t JOIN "
+                            + tables.getPayloadTable()
+                            + " p ON p.HASH = t.HASH";
+            this.hashColumns = List.of("t.HASH", "p.HASH");
+        } else {
+            this.selectTransactions =
+                    "SELECT t.HASH, t.TIMESTAMP, t."
+                            + tables.getPayloadColumn()
+                            + " FROM "
+                            + tables.getIndexTable()
+                            + " t";
+            this.hashColumns = List.of("t.HASH");
+        }
+    }
+
+    @Override
+    public EncryptedTransaction save(final EncryptedTransaction entity) {
+        return connectionTemplate.execute(
+                connection -> {
+                    insert(connection, List.of(entity));
+                    LOGGER.debug("Stored transaction {}", entity.getHash());
+                    return entity;
+                });
+    }
+
+    @Override
+    public EncryptedTransaction update(final EncryptedTransaction entity) {
+        return connectionTemplate.execute(
+                connection -> {
+                    // like a merge, a transaction that is not stored yet is inserted
+                    try (PreparedStatement statement = connection.prepareStatement(updatePayload)) {
+                        setPayload(statement, 1, entity.getEncodedPayload());
+                        statement.setBytes(2, hashBytes(entity));
+                        if (statement.executeUpdate() == 0) {
+                            insert(connection, List.of(entity));
+                            return entity;
+                        }
+                    }
+
+                    if (storePrivacyMetadata) {
+                        final Optional<TransactionPrivacyMetadata> metadata =
+                                TransactionPrivacyMetadata.ofWritten(entity);
+                        if (metadata.isPresent()) {
+                            try (PreparedStatement statement = connection.prepareStatement(UPDATE_METADATA)) {
+                                setMetadata(statement, metadata.get());
+                                if (statement.executeUpdate() == 0) {
+                                    insertMetadata(connection, List.of(metadata.get()));
+                                }
+                            }
+                        } else {
+                            // the stored details may no longer match the payload, lookups read the payload instead
+                            executeForHash(connection, DELETE_METADATA, entity.getHash());
+                        }
+                    }
+                    LOGGER.debug("Updated transaction {}", entity.getHash());
+                    return entity;
+                });
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
+        LOGGER.debug("Retrieving payload with hash {}", hash);
+        return connectionTemplate.execute(connection -> findAllByHash(connection, List.of(hash))).stream().findAny();
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHashForUpdate(final MessageHash hash) {
+        return retrieveByHash(hash);
+    }
+
+    @Override
+    public List<EncryptedTransaction> findByHashes(final Collection<MessageHash> messageHashes) {
+        if (Objects.isNull(messageHashes) || messageHashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return connectionTemplate.execute(connection -> findAllByHash(connection, messageHashes));
+    }
+
+    @Override
+    public List<TransactionPrivacyMetadata> findPrivacyMetadataByHashes(final Collection<MessageHash> messageHashes) {
+        if (Objects.isNull(messageHashes) || messageHashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return connectionTemplate.execute(
+                connection -> {
+                    final List<TransactionPrivacyMetadata> stored = new ArrayList<>();
+                    if (storePrivacyMetadata) {
+                        stored.addAll(findStoredMetadata(connection, messageHashes));
+                    }
+
+                    final Set<MessageHash> storedHashes =
+                            stored.stream().map(TransactionPrivacyMetadata::getHash).collect(Collectors.toSet());
+                    final List<MessageHash> missingHashes =
+                            messageHashes.stream()
+                                    .filter(Predicate.not(storedHashes::contains))
+                                    .collect(Collectors.toList());
+
+                    if (missingHashes.isEmpty()) {
+                        return stored;
+                    }
+
+                    LOGGER.debug("Reading privacy metadata of {} transactions from payloads", missingHashes.size());
+                    findAllByHash(connection, missingHashes).stream()
+                            .map(TransactionPrivacyMetadata::from)
+                            .forEach(stored::add);
+                    return stored;
+                });
+    }
+
+    @Override
+    public Optional<MessageHash> backfillPrivacyMetadata(final MessageHash after, final int maxResult) {
+        if (!storePrivacyMetadata) {
+            return Optional.empty();
+        }
+
+        return connectionTemplate.execute(
+                connection -> {
+                    final StringBuilder sql =
+                            new StringBuilder(selectTransactions)
+                                    .append(" WHERE NOT EXISTS (SELECT 1 FROM TRANSACTION_PRIVACY_METADATA m")
+                                    .append(" WHERE m.HASH = t.HASH)");
+                    if (Objects.nonNull(after)) {
+                        sql.append(" AND t.HASH > ?");
+                    }
+                    sql.append(" ORDER BY t.HASH");
+
+                    final List<EncryptedTransaction> transactions;
+                    try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+                        statement.setMaxRows(maxResult);
+                        if (Objects.nonNull(after)) {
+                            statement.setBytes(1, after.getHashBytes());
+                        }
+                        transactions = readTransactions(statement);
+                    }
+
+                    final List<TransactionPrivacyMetadata> metadata =
+                            transactions.stream()
+                                    .map(TransactionPrivacyMetadata::backfill)
+                                    .flatMap(Optional::stream)
+                                    .collect(Collectors.toList());
+                    insertMetadata(connection, metadata);
+
+                    LOGGER.debug("Backfilled privacy metadata for {} transactions", transactions.size());
+                    return transactions.stream().reduce((first, second) -> second).map(EncryptedTransaction::getHash);
+                });
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactions(final int offset, final int maxResult) {
+        LOGGER.debug("Fetching batch(offset:{},maxResult:{}) EncryptedTransaction database rows", offset, maxResult);
+        return connectionTemplate.execute(
+                connection -> {
+                    try (PreparedStatement statement =
+                            connection.prepareStatement(selectTransactions + " ORDER BY t.TIMESTAMP, t.HASH")) {
+                        // not every database has the same paging syntax, so the offset rows are stepped over without
+                        // reading their payloads
+                        final long lastRow = (long) offset + maxResult;
+                        statement.setMaxRows(lastRow > Integer.MAX_VALUE ? 0 : (int) lastRow);
+                        return readTransactions(statement, offset);
+                    }
+                });
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactionsByHashRange(
+            final MessageHash after, final MessageHash upTo, final int maxResult) {
+        LOGGER.debug(
+                "Fetching batch(after:{},upTo:{},maxResult:{}) EncryptedTransaction database rows",
+                after,
+                upTo,
+                maxResult);
+
+        final List<String> conditions = new ArrayList<>();
+        final List<byte[]> parameters = new ArrayList<>();
+        for (final String column : hashColumns) {
+            if (Objects.nonNull(after)) {
+                conditions.add(column + " > ?");
+                parameters.add(after.getHashBytes());
+            }
+            if (Objects.nonNull(upTo)) {
+                conditions.add(column + " <= ?");
+                parameters.add(upTo.getHashBytes());
+            }
+        }
+
+        final StringBuilder sql = new StringBuilder(selectTransactions);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY t.HASH");
+
+        return connectionTemplate.execute(
+                connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+                        statement.setMaxRows(maxResult);
+                        for (int i = 0; i < parameters.size(); i++) {
+                            statement.setBytes(i + 1, parameters.get(i));
+                        }
+                        return readTransactions(statement);
+                    }
+                });
+    }
+
+    @Override
+    public long transactionCount() {
+        return connectionTemplate.execute(
+                connection -> {
+                    try (PreparedStatement statement =
+                                    connection.prepareStatement("SELECT COUNT(*) FROM " + tables.getIndexTable());
+                            ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        return resultSet.getLong(1);
+                    }
+                });
+    }
+
+    @Override
+    public void delete(final MessageHash hash) {
+        LOGGER.info("Deleting transaction with hash {}", hash);
+
+        connectionTemplate.execute(
+                connection -> {
+                    if (storePrivacyMetadata) {
+                        executeForHash(connection, DELETE_METADATA, hash);
+                    }
+                    if (tables.isSplit()) {
+                        executeForHash(connection, "DELETE FROM " + tables.getPayloadTable() + " WHERE HASH = ?", hash);
+                    }
+                    final int deleted =
+                            executeForHash(
+                                    connection, "DELETE FROM " + tables.getIndexTable() + " WHERE HASH = ?", hash);
+                    if (deleted == 0) {
+                        throw new EntityNotFoundException();
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public <T> EncryptedTransaction save(final EncryptedTransaction transaction, final Callable<T> consumer) {
+        return connectionTemplate.execute(
+                connection -> {
+                    insert(connection, List.of(transaction));
+                    call(consumer);
+                    return transaction;
+                });
+    }
+
+    @Override
+    public <T> void saveAll(final Collection<EncryptedTransaction> transactions, final Callable<T> consumer) {
+        LOGGER.debug("Saving {} transactions", transactions.size());
+
+        connectionTemplate.execute(
+                connection -> {
+                    insert(connection, transactions);
+                    call(consumer);
+                    return null;
+                });
+    }
+
+    @Override
+    public void saveAll(
+            final Collection<EncryptedTransaction> newTransactions,
+            final Collection<EncryptedTransaction> updatedTransactions) {
+        LOGGER.debug("Saving {} and updating {} transactions", newTransactions.size(), updatedTransactions.size());
+
+        connectionTemplate.execute(
+                connection -> {
+                    insert(connection, newTransactions);
+
+                    // rows without metadata are left to the backfill, reads fall back to the payload until then
+                    updatePayloads(connection, updatedTransactions);
+                    if (!storePrivacyMetadata) {
+                        return null;
+                    }
+
+                    final List<TransactionPrivacyMetadata> updatedMetadata = new ArrayList<>();
+                    final List<MessageHash> staleMetadata = new ArrayList<>();
+                    for (final EncryptedTransaction transaction : updatedTransactions) {
+                        final Optional<TransactionPrivacyMetadata> metadata =
+                                TransactionPrivacyMetadata.ofWritten(transaction);
+                        if (metadata.isPresent()) {
+                            updatedMetadata.add(metadata.get());
+                        } else {
+                            staleMetadata.add(transaction.getHash());
+                        }
+                    }
+                    updateMetadata(connection, updatedMetadata);
+                    // updates whose writer did not pass the payload drop the stored details, which may no longer match
+                    deleteMetadata(connection, staleMetadata);
+                    return null;
+                });
+    }
+
+    @Override
+    public boolean upcheck() {
+        // if query succeeds then DB is up and running (else get exception)
+        try {
+            return connectionTemplate.execute(
+                    connection -> {
+                        try (PreparedStatement statement =
+                                connection.prepareStatement(
+                                        "SELECT 1 FROM " + tables.getIndexTable() + " WHERE 1 = 0")) {
+                            statement.executeQuery().close();
+                        }
+                        return true;
+                    });
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void insert(final Connection connection, final Collection<EncryptedTransaction> transactions)
+            throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        transactions.forEach(EncryptedTransaction::onPersist);
+
+        if (tables.isSplit()) {
+            try (PreparedStatement index =
+                            connection.prepareStatement(
+                                    "INSERT INTO " + tables.getIndexTable() + " (HASH, TIMESTAMP) VALUES (?, ?)");
+                    PreparedStatement payload =
+                            connection.prepareStatement(
+                                    "INSERT INTO "
+                                            + tables.getPayloadTable()
+                                            + " (HASH, "
+                                            + tables.getPayloadColumn()
+                                            + ") VALUES (?, ?)")) {
+                for (final EncryptedTransaction transaction : transactions) {
+                    index.setBytes(1, hashBytes(transaction));
+                    index.setLong(2, transaction.getTimestamp());
+                    index.addBatch();
+                    payload.setBytes(1, hashBytes(transaction));
+                    setPayload(payload, 2, transaction.getEncodedPayload());
+                    payload.addBatch();
+                }
+                index.executeBatch();
+                payload.executeBatch();
+            }
+        } else {
+            try (PreparedStatement statement =
+                    connection.prepareStatement(
+                            "INSERT INTO "
+                                    + tables.getIndexTable()
+                                    + " (HASH, TIMESTAMP, "
+                                    + tables.getPayloadColumn()
+                                    + ") VALUES (?, ?, ?)")) {
+                for (final EncryptedTransaction transaction : transactions) {
+                    statement.setBytes(1, hashBytes(transaction));
+                    statement.setLong(2, transaction.getTimestamp());
+                    setPayload(statement, 3, transaction.getEncodedPayload());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+
+        if (storePrivacyMetadata) {
+            insertMetadata(
+                    connection,
+                    transactions.stream()
+                            .map(TransactionPrivacyMetadata::ofWritten)
+                            .flatMap(Optional::stream)
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    private void updatePayloads(final Connection connection, final Collection<EncryptedTransaction> transactions)
+            throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(updatePayload)) {
+            for (final EncryptedTransaction transaction : transactions) {
+                setPayload(statement, 1, transaction.getEncodedPayload());
+                statement.setBytes(2, hashBytes(transaction));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void insertMetadata(final Connection connection, final List<TransactionPrivacyMetadata> metadata)
+            throws SQLException {
+        if (metadata.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_METADATA)) {
+            for (final TransactionPrivacyMetadata item : metadata) {
+                statement.setBytes(1, item.getHash().getHashBytes());
+                statement.setInt(2, item.getPrivacyMode().getPrivacyFlag());
+                statement.setBytes(3, item.getEncodedRecipientKeys());
+                statement.setBytes(4, item.getExecHash());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void updateMetadata(final Connection connection, final List<TransactionPrivacyMetadata> metadata)
+            throws SQLException {
+        if (metadata.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_METADATA)) {
+            for (final TransactionPrivacyMetadata item : metadata) {
+                setMetadata(statement, item);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void deleteMetadata(final Connection connection, final List<MessageHash> hashes)
+            throws SQLException {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_METADATA)) {
+            for (final MessageHash hash : hashes) {
+                statement.setBytes(1, hash.getHashBytes());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static List<TransactionPrivacyMetadata> findStoredMetadata(
+            final Connection connection, final Collection<MessageHash> messageHashes) throws SQLException {
+        final List<TransactionPrivacyMetadata> stored = new ArrayList<>();
+        for (final List<MessageHash> hashes : partition(messageHashes)) {
+            try (PreparedStatement statement =
+                    connection.prepareStatement(SELECT_METADATA + placeholders(hashes.size()))) {
+                setHashes(statement, 1, hashes);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        stored.add(
+                                new TransactionPrivacyMetadata(
+                                        new MessageHash(resultSet.getBytes(1)),
+                                        resultSet.getInt(2),
+                                        resultSet.getBytes(3),
+                                        resultSet.getBytes(4)));
+                    }
+                }
+            }
+        }
+        return stored;
+    }
+
+    private static void setMetadata(final PreparedStatement statement, final TransactionPrivacyMetadata metadata)
+            throws SQLException {
+        statement.setInt(1, metadata.getPrivacyMode().getPrivacyFlag());
+        statement.setBytes(2, metadata.getEncodedRecipientKeys());
+        statement.setBytes(3, metadata.getExecHash());
+        statement.setBytes(4, metadata.getHash().getHashBytes());
+    }
+
+    private List<EncryptedTransaction> findAllByHash(
+            final Connection connection, final Collection<MessageHash> messageHashes) throws SQLException {
+        final List<EncryptedTransaction> transactions = new ArrayList<>();
+        for (final List<MessageHash> hashes : partition(messageHashes)) {
+            try (PreparedStatement statement =
+                    connection.prepareStatement(
+                            selectTransactions + " WHERE t.HASH IN " + placeholders(hashes.size()))) {
+                setHashes(statement, 1, hashes);
+                transactions.addAll(readTransactions(statement));
+            }
+        }
+        return transactions;
+    }
+
+    private static List<EncryptedTransaction> readTransactions(final PreparedStatement statement) throws SQLException {
+        return readTransactions(statement, 0);
+    }
+
+    // reads the rows after the given number of leading rows, which are stepped over without fetching their payloads
+    private static List<EncryptedTransaction> readTransactions(final PreparedStatement statement, final int skip)
+            throws SQLException {
+        final List<EncryptedTransaction> transactions = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            for (int skipped = 0; skipped < skip; skipped++) {
+                if (!resultSet.next()) {
+                    return transactions;
+                }
+            }
+            while (resultSet.next()) {
+                final EncryptedTransaction transaction =
+                        new EncryptedTransaction(new MessageHash(resultSet.getBytes(1)), readPayload(resultSet, 3));
+                transaction.setTimestamp(resultSet.getLong(2));
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    private static byte[] readPayload(final ResultSet resultSet, final int column) throws SQLException {
+        final InputStream payload = resultSet.getBinaryStream(column);
+        return IOCallback.execute(
+                () -> {
+                    try (payload) {
+                        return payload.readAllBytes();
+                    }
+                });
+    }
+
+    private static void setPayload(final PreparedStatement statement, final int index, final byte[] payload)
+            throws SQLException {
+        if (Objects.isNull(payload)) {
+            statement.setBytes(index, null);
+        } else {
+            statement.setBinaryStream(index, new ByteArrayInputStream(payload), payload.length);
+        }
+    }
+
+    private static byte[] hashBytes(final EncryptedTransaction transaction) {
+        return Optional.ofNullable(transaction.getHash()).map(MessageHash::getHashBytes).orElse(null);
+    }
+
+    private static int executeForHash(final Connection connection, final String sql, final MessageHash hash)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setBytes(1, hash.getHashBytes());
+            return statement.executeUpdate();
+        }
+    }
+
+    private static void setHashes(
+            final PreparedStatement statement, final int firstIndex, final Collection<MessageHash> hashes)
+            throws SQLException {
+        int index = firstIndex;
+        for (final MessageHash hash : hashes) {
+            statement.setBytes(index++, hash.getHashBytes());
+        }
+    }
+
+    private static List<List<MessageHash>> partition(final Collection<MessageHash> messageHashes) {
+        final List<MessageHash> hashes = List.copyOf(messageHashes);
+        final List<List<MessageHash>> parts = new ArrayList<>();
+        for (int from = 0; from < hashes.size(); from += MAX_HASHES_PER_QUERY) {
+            parts.add(hashes.subList(from, Math.min(from + MAX_HASHES_PER_QUERY, hashes.size())));
+        }
+        return parts;
+    }
+
+    private static String placeholders(final int count) {
+        return Collections.nCopies(count, "?").stream().collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static <T> void call(final Callable<T> consumer) {
+        try {
+            consumer.call();
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+}
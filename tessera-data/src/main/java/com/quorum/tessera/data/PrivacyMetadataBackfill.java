@@ -0,0 +1,38 @@
+package com.quorum.tessera.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Stores the privacy metadata of every transaction that was saved before the metadata was kept, a page at a time.
+ * Lookups of those transactions read the details from their payloads until it has finished, so it can safely be run
+ * in the background while the node is serving requests.
+ */
+public class PrivacyMetadataBackfill implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrivacyMetadataBackfill.class);
+
+    static final int PAGE_SIZE = 100;
+
+    private final EncryptedTransactionDAO encryptedTransactionDAO;
+
+    public PrivacyMetadataBackfill(final EncryptedTransactionDAO encryptedTransactionDAO) {
+        this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
+    }
+
+    @Override
+    public void run() {
+        try {
+            Optional<MessageHash> last = encryptedTransactionDAO.backfillPrivacyMetadata(null, PAGE_SIZE);
+            while (last.isPresent()) {
+                last = encryptedTransactionDAO.backfillPrivacyMetadata(last.get(), PAGE_SIZE);
+            }
+            LOGGER.debug("Privacy metadata backfill complete");
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Unable to backfill privacy metadata, it will be read from transaction payloads", ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.quorum.tessera.data;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * The hashes of the transactions written in the last few milliseconds. Writes are kept in the order they were made, so
+ * expired ones are dropped from the front without scanning the rest.
+ */
+class RecentWrites {
+
+    private final long windowMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<MessageHash, Long> writtenAt = new ConcurrentHashMap<>();
+
+    private final Queue<Map.Entry<MessageHash, Long>> writes = new ConcurrentLinkedQueue<>();
+
+    RecentWrites(final long windowMillis) {
+        this(windowMillis, System::currentTimeMillis);
+    }
+
+    RecentWrites(final long windowMillis, final LongSupplier clock) {
+        this.windowMillis = windowMillis;
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    void record(final MessageHash hash) {
+        final long now = clock.getAsLong();
+        writtenAt.put(hash, now);
+        writes.add(Map.entry(hash, now));
+        expire(now);
+    }
+
+    boolean contains(final MessageHash hash) {
+        expire(clock.getAsLong());
+        return writtenAt.containsKey(hash);
+    }
+
+    private void expire(final long now) {
+        Map.Entry<MessageHash, Long> oldest;
+        while (Objects.nonNull(oldest = writes.peek()) && now - oldest.getValue() >= windowMillis) {
+            // another thread may have dropped it first, and a later write of the same hash must be kept
+            if (writes.remove(oldest)) {
+                writtenAt.remove(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.quorum.tessera.data;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An {@link EncryptedTransactionDAO} that sends reads to the read replicas of the database and writes to the primary.
+ *
+ * <p>Replicas lag behind the primary, so lookups of transactions written through this DAO in the last few moments go to
+ * the primary, and so do lookups of transactions a replica does not have yet, which may have been written by another
+ * node sharing the database. A replica may still hold an older version of a transaction, so reads made to update one
+ * always go to the primary. Counts and scans tolerate the lag and are always served by a replica. DAOs for the same
+ * database should share one {@link RecentWrites}.
+ */
+public class ReplicaReadingEncryptedTransactionDAO implements EncryptedTransactionDAO {
+
+    private final EncryptedTransactionDAO delegate;
+
+    private final ReplicaRoutingDataSource dataSource;
+
+    private final RecentWrites recentWrites;
+
+    ReplicaReadingEncryptedTransactionDAO(
+            final EncryptedTransactionDAO delegate,
+            final ReplicaRoutingDataSource dataSource,
+            final RecentWrites recentWrites) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.dataSource = Objects.requireNonNull(dataSource);
+        this.recentWrites = Objects.requireNonNull(recentWrites);
+    }
+
+    @Override
+    public EncryptedTransaction save(final EncryptedTransaction entity) {
+        final EncryptedTransaction saved = delegate.save(entity);
+        recentWrites.record(entity.getHash());
+        return saved;
+    }
+
+    @Override
+    public EncryptedTransaction update(final EncryptedTransaction entity) {
+        final EncryptedTransaction updated = delegate.update(entity);
+        recentWrites.record(entity.getHash());
+        return updated;
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHash(final MessageHash hash) {
+        if (recentWrites.contains(hash)) {
+            return delegate.retrieveByHash(hash);
+        }
+        final Optional<EncryptedTransaction> replicated = dataSource.readOnly(() -> delegate.retrieveByHash(hash));
+        if (replicated.isPresent()) {
+            return replicated;
+        }
+        return delegate.retrieveByHash(hash);
+    }
+
+    @Override
+    public Optional<EncryptedTransaction> retrieveByHashForUpdate(final MessageHash hash) {
+        return delegate.retrieveByHashForUpdate(hash);
+    }
+
+    @Override
+    public List<EncryptedTransaction> findByHashes(final Collection<MessageHash> messageHashes) {
+        return readByHashes(messageHashes, delegate::findByHashes, EncryptedTransaction::getHash);
+    }
+
+    @Override
+    public List<TransactionPrivacyMetadata> findPrivacyMetadataByHashes(final Collection<MessageHash> messageHashes) {
+        return readByHashes(
+                messageHashes, delegate::findPrivacyMetadataByHashes, TransactionPrivacyMetadata::getHash);
+    }
+
+    private <T> List<T> readByHashes(
+            final Collection<MessageHash> messageHashes,
+            final Function<Collection<MessageHash>, List<T>> find,
+            final Function<T, MessageHash> hashOf) {
+        if (Objects.isNull(messageHashes) || messageHashes.stream().anyMatch(recentWrites::contains)) {
+            return find.apply(messageHashes);
+        }
+
+        final List<T> replicated = dataSource.readOnly(() -> find.apply(messageHashes));
+
+        final Set<MessageHash> found = replicated.stream().map(hashOf).collect(Collectors.toSet());
+        final List<MessageHash> missing =
+                messageHashes.stream().filter(hash -> !found.contains(hash)).distinct().collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return replicated;
+        }
+        return Stream.concat(replicated.stream(), find.apply(missing).stream()).collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<MessageHash> backfillPrivacyMetadata(final MessageHash after, final int maxResult) {
+        return delegate.backfillPrivacyMetadata(after, maxResult);
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactions(final int offset, final int maxResult) {
+        return dataSource.readOnly(() -> delegate.retrieveTransactions(offset, maxResult));
+    }
+
+    @Override
+    public List<EncryptedTransaction> retrieveTransactionsByHashRange(
+            final MessageHash after, final MessageHash upTo, final int maxResult) {
+        return dataSource.readOnly(() -> delegate.retrieveTransactionsByHashRange(after, upTo, maxResult));
+    }
+
+    @Override
+    public long transactionCount() {
+        return dataSource.readOnly(delegate::transactionCount);
+    }
+
+    @Override
+    public void delete(final MessageHash hash) {
+        delegate.delete(hash);
+        recentWrites.record(hash);
+    }
+
+    @Override
+    public <T> EncryptedTransaction save(final EncryptedTransaction transaction, final Callable<T> consumer) {
+        final EncryptedTransaction saved = delegate.save(transaction, consumer);
+        recentWrites.record(transaction.getHash());
+        return saved;
+    }
+
+    @Override
+    public <T> void saveAll(final Collection<EncryptedTransaction> transactions, final Callable<T> consumer) {
+        delegate.saveAll(transactions, consumer);
+        transactions.stream().map(EncryptedTransaction::getHash).forEach(recentWrites::record);
+    }
+
+    @Override
+    public void saveAll(
+            final Collection<EncryptedTransaction> newTransactions,
+            final Collection<EncryptedTransaction> updatedTransactions) {
+        delegate.saveAll(newTransactions, updatedTransactions);
+        Stream.concat(newTransactions.stream(), updatedTransactions.stream())
+                .map(EncryptedTransaction::getHash)
+                .forEach(recentWrites::record);
+    }
+
+    @Override
+    public boolean upcheck() {
+        return delegate.upcheck();
+    }
+}
@@ -0,0 +1,98 @@
+package com.quorum.tessera.data;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} that hands out connections to the primary database, except while the current thread runs a read
+ * through {@link #readOnly(Supplier)}, when it hands out connections to the read replicas in turn.
+ *
+ * <p>JPA and the JDBC DAO both ask for a connection on the thread that runs the DAO method, so the routing needs no
+ * support from either of them.
+ */
+class ReplicaRoutingDataSource implements DataSource {
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final ThreadLocal<Boolean> readOnly = ThreadLocal.withInitial(() -> false);
+
+    ReplicaRoutingDataSource(final DataSource primary, final List<DataSource> replicas) {
+        this.primary = Objects.requireNonNull(primary);
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /** Runs a read, with any connection it asks for on this thread coming from a replica */
+    <T> T readOnly(final Supplier<T> read) {
+        final boolean outer = readOnly.get();
+        readOnly.set(true);
+        try {
+            return read.get();
+        } finally {
+            readOnly.set(outer);
+        }
+    }
+
+    private DataSource route() {
+        if (replicas.isEmpty() || !readOnly.get()) {
+            return primary;
+        }
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return primary.isWrapperFor(iface);
+    }
+}
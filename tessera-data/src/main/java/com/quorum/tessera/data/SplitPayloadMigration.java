@@ -0,0 +1,233 @@
+package com.quorum.tessera.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Copies transactions from the schema version 1 table ENCRYPTED_TRANSACTION into the version 2 tables TX_INDEX and
+ * TX_PAYLOAD, while nodes keep running on version 1.
+ *
+ * <p>Rows are copied a page of hashes at a time, each page in its own database transaction, and rows already present
+ * in the new tables are skipped. Payloads of rows already copied are compared with their source, by length first,
+ * and are rewritten where a node has updated the transaction since. Copies whose source row a node has deleted are
+ * deleted as well, so the transaction does not come back once nodes switch to version 2. The copy is done by the
+ * database, so payloads never pass through this process, and an interrupted migration can simply be run again. A
+ * running node may store or update transactions behind the current page, so the table is scanned again until a pass
+ * finds nothing left to copy, refresh or delete. Once the nodes are stopped, a last run carries over whatever they
+ * stored, updated or deleted since.
+ */
+public class SplitPayloadMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SplitPayloadMigration.class);
+
+    private static final String MISSING_FROM =
+            " FROM ENCRYPTED_TRANSACTION s WHERE NOT EXISTS (SELECT 1 FROM %s t WHERE t.HASH = s.HASH)";
+
+    private static final String COPY_INDEX =
+            "INSERT INTO TX_INDEX (HASH, TIMESTAMP) SELECT s.HASH, s.TIMESTAMP"
+                    + String.format(MISSING_FROM, "TX_INDEX");
+
+    private static final String COPY_PAYLOAD =
+            "INSERT INTO TX_PAYLOAD (HASH, PAYLOAD) SELECT s.HASH, s.ENCODED_PAYLOAD"
+                    + String.format(MISSING_FROM, "TX_PAYLOAD");
+
+    // rewrites the payloads of the page whose source has changed since they were copied
+    private static final String REFRESH_PAYLOAD =
+            "UPDATE TX_PAYLOAD SET PAYLOAD = (SELECT s.ENCODED_PAYLOAD FROM ENCRYPTED_TRANSACTION s WHERE s.HASH ="
+                    + " TX_PAYLOAD.HASH) WHERE EXISTS (SELECT 1 FROM ENCRYPTED_TRANSACTION s WHERE s.HASH ="
+                    + " TX_PAYLOAD.HASH AND %s)";
+
+    // removes the copies of transactions a node has deleted since they were copied
+    private static final String DELETE_REMOVED =
+            "DELETE FROM %1$s WHERE NOT EXISTS (SELECT 1 FROM ENCRYPTED_TRANSACTION s WHERE s.HASH = %1$s.HASH)";
+
+    private static final String DELETE_REMOVED_INDEX = String.format(DELETE_REMOVED, "TX_INDEX");
+
+    private static final String DELETE_REMOVED_PAYLOAD = String.format(DELETE_REMOVED, "TX_PAYLOAD");
+
+    // updates mostly add recipient boxes, so the stored lengths are compared before the payloads are read
+    private static final String PAYLOAD_CHANGED =
+            "CASE WHEN %1$s(s.ENCODED_PAYLOAD) <> %1$s(TX_PAYLOAD.PAYLOAD) THEN 1"
+                    + " WHEN s.ENCODED_PAYLOAD <> TX_PAYLOAD.PAYLOAD THEN 1 ELSE 0 END = 1";
+
+    // sqlite has no OCTET_LENGTH before 3.43, its LENGTH counts the bytes of a blob
+    private static final String SQLITE_PAYLOAD_CHANGED = String.format(PAYLOAD_CHANGED, "LENGTH");
+
+    private static final String STANDARD_PAYLOAD_CHANGED = String.format(PAYLOAD_CHANGED, "OCTET_LENGTH");
+
+    // oracle cannot compare blobs with operators
+    private static final String ORACLE_PAYLOAD_CHANGED =
+            "CASE WHEN DBMS_LOB.GETLENGTH(s.ENCODED_PAYLOAD) <> DBMS_LOB.GETLENGTH(TX_PAYLOAD.PAYLOAD) THEN 1"
+                    + " ELSE DBMS_LOB.COMPARE(s.ENCODED_PAYLOAD, TX_PAYLOAD.PAYLOAD) END <> 0";
+
+    private static final String FIRST_PAGE = "SELECT HASH FROM ENCRYPTED_TRANSACTION ORDER BY HASH";
+
+    private static final String NEXT_PAGE = "SELECT HASH FROM ENCRYPTED_TRANSACTION WHERE HASH > ? ORDER BY HASH";
+
+    private final DataSource dataSource;
+
+    private final int pageSize;
+
+    public SplitPayloadMigration(final DataSource dataSource, final int pageSize) {
+        this.dataSource = Objects.requireNonNull(dataSource);
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Scans the old table until a pass copies, refreshes and deletes nothing, or until the given number of passes is
+     * reached
+     *
+     * @return the number of transactions copied, refreshed and deleted over all passes
+     */
+    public Result migrate(final int maxPasses) {
+        Result total = new Result(0, 0, 0);
+        for (int pass = 1; pass <= maxPasses; pass++) {
+            final Result migrated = migratePass(pass);
+            total = total.add(migrated);
+            if (migrated.total() == 0) {
+                return total;
+            }
+        }
+        LOGGER.warn("Transactions were still being copied after {} passes, run the migration again", maxPasses);
+        return total;
+    }
+
+    private Result migratePass(final int pass) {
+        long copied = 0;
+        long refreshed = 0;
+        long deleted = 0;
+        byte[] after = null;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                final String refreshPayload = String.format(REFRESH_PAYLOAD, payloadChanged(connection));
+                for (byte[] upTo = lastHashOfPage(connection, after);
+                        Objects.nonNull(upTo);
+                        upTo = lastHashOfPage(connection, after)) {
+                    deleted += deleteRemoved(connection, after, upTo);
+                    refreshed += executeOnPage(connection, refreshPayload, "TX_PAYLOAD.HASH", after, upTo);
+                    copied += executeOnPage(connection, COPY_INDEX, "s.HASH", after, upTo);
+                    executeOnPage(connection, COPY_PAYLOAD, "s.HASH", after, upTo);
+                    connection.commit();
+                    after = upTo;
+                }
+                // copies after the last hash of the old table are all of deleted transactions
+                deleted += deleteRemoved(connection, after, null);
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new PersistenceException(ex);
+        }
+        LOGGER.info(
+                "Migration pass {} copied {}, refreshed {} and deleted {} transactions",
+                pass,
+                copied,
+                refreshed,
+                deleted);
+        return new Result(copied, refreshed, deleted);
+    }
+
+    private static int deleteRemoved(final Connection connection, final byte[] after, final byte[] upTo)
+            throws SQLException {
+        executeOnPage(connection, DELETE_REMOVED_PAYLOAD, "TX_PAYLOAD.HASH", after, upTo);
+        return executeOnPage(connection, DELETE_REMOVED_INDEX, "TX_INDEX.HASH", after, upTo);
+    }
+
+    private static String payloadChanged(final Connection connection) throws SQLException {
+        final String productName = connection.getMetaData().getDatabaseProductName();
+        if ("Oracle".equalsIgnoreCase(productName)) {
+            return ORACLE_PAYLOAD_CHANGED;
+        }
+        if ("SQLite".equalsIgnoreCase(productName)) {
+            return SQLITE_PAYLOAD_CHANGED;
+        }
+        return STANDARD_PAYLOAD_CHANGED;
+    }
+
+    private byte[] lastHashOfPage(final Connection connection, final byte[] after) throws SQLException {
+        final String sql = Objects.isNull(after) ? FIRST_PAGE : NEXT_PAGE;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setMaxRows(pageSize);
+            if (Objects.nonNull(after)) {
+                statement.setBytes(1, after);
+            }
+            byte[] last = null;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    last = resultSet.getBytes(1);
+                }
+            }
+            return last;
+        }
+    }
+
+    // runs a statement on the hashes after the last page, up to the given hash if there is one
+    private static int executeOnPage(
+            final Connection connection, final String sql, final String hash, final byte[] after, final byte[] upTo)
+            throws SQLException {
+        final StringBuilder page = new StringBuilder(sql);
+        if (Objects.nonNull(upTo)) {
+            page.append(" AND ").append(hash).append(" <= ?");
+        }
+        if (Objects.nonNull(after)) {
+            page.append(" AND ").append(hash).append(" > ?");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(page.toString())) {
+            int index = 1;
+            if (Objects.nonNull(upTo)) {
+                statement.setBytes(index++, upTo);
+            }
+            if (Objects.nonNull(after)) {
+                statement.setBytes(index, after);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    /** The number of transactions a migration copied, refreshed and deleted */
+    public static final class Result {
+
+        private final long copied;
+
+        private final long refreshed;
+
+        private final long deleted;
+
+        public Result(final long copied, final long refreshed, final long deleted) {
+            this.copied = copied;
+            this.refreshed = refreshed;
+            this.deleted = deleted;
+        }
+
+        public long getCopied() {
+            return copied;
+        }
+
+        public long getRefreshed() {
+            return refreshed;
+        }
+
+        public long getDeleted() {
+            return deleted;
+        }
+
+        public long total() {
+            return copied + refreshed + deleted;
+        }
+
+        Result add(final Result other) {
+            return new Result(copied + other.copied, refreshed + other.refreshed, deleted + other.deleted);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The JPA entity that holds the privacy details of a stored transaction, so that they can be checked without loading
+ * and decoding the whole payload.
+ *
+ * <p>The key is the transaction hash, shared with its {@link EncryptedTransaction}
+ */
+@Entity
+@Table(name = "TRANSACTION_PRIVACY_METADATA")
+public class TransactionPrivacyMetadata implements Serializable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionPrivacyMetadata.class);
+
+    private static final PayloadEncoder PAYLOAD_ENCODER = PayloadEncoder.create();
+
+    @EmbeddedId
+    @AttributeOverride(
+            name = "hashBytes",
+            column = @Column(name = "HASH", nullable = false, unique = true, updatable = false))
+    private MessageHash hash;
+
+    @Column(name = "PRIVACY_MODE", nullable = false)
+    private int privacyMode;
+
+    @Lob
+    @Column(name = "RECIPIENT_KEYS", nullable = false)
+    private byte[] recipientKeys;
+
+    @Lob
+    @Column(name = "EXEC_HASH")
+    private byte[] execHash;
+
+    public TransactionPrivacyMetadata(final MessageHash hash, final EncodedPayload payload) {
+        this.hash = hash;
+        this.privacyMode =
+                Optional.ofNullable(payload.getPrivacyMode()).orElse(PrivacyMode.STANDARD_PRIVATE).getPrivacyFlag();
+        this.recipientKeys = encodeKeys(payload.getRecipientKeys());
+        this.execHash = payload.getExecHash();
+    }
+
+    public TransactionPrivacyMetadata() {}
+
+    TransactionPrivacyMetadata(
+            final MessageHash hash, final int privacyMode, final byte[] recipientKeys, final byte[] execHash) {
+        this.hash = hash;
+        this.privacyMode = privacyMode;
+        this.recipientKeys = recipientKeys;
+        this.execHash = execHash;
+    }
+
+    /**
+     * Reads the privacy details from the payload of a transaction.
+     *
+     * @param transaction the transaction to read
+     * @return the privacy details of the payload
+     * @throws RuntimeException if the payload could not be decoded
+     */
+    static TransactionPrivacyMetadata from(final EncryptedTransaction transaction) {
+        final EncodedPayload payload = PAYLOAD_ENCODER.decode(transaction.getEncodedPayload());
+        return new TransactionPrivacyMetadata(transaction.getHash(), payload);
+    }
+
+    /**
+     * The privacy details of a transaction being written, if its writer passed along the payload it encoded. The
+     * payload is not decoded again on the write path, transactions written without it have their details read from the
+     * payload when they are looked up.
+     */
+    static Optional<TransactionPrivacyMetadata> ofWritten(final EncryptedTransaction transaction) {
+        return Optional.ofNullable(transaction.getPayload())
+                .map(payload -> new TransactionPrivacyMetadata(transaction.getHash(), payload));
+    }
+
+    /**
+     * Reads the privacy details of a transaction stored before they were kept. A payload that cannot be decoded is
+     * reported and left without details, lookups of it fail when they decode it.
+     */
+    static Optional<TransactionPrivacyMetadata> backfill(final EncryptedTransaction transaction) {
+        try {
+            return Optional.of(from(transaction));
+        } catch (RuntimeException ex) {
+            LOGGER.warn(
+                    "Unable to decode payload of transaction {} to store its privacy metadata",
+                    transaction.getHash(),
+                    ex);
+            return Optional.empty();
+        }
+    }
+
+    public MessageHash getHash() {
+        return hash;
+    }
+
+    public PrivacyMode getPrivacyMode() {
+        return PrivacyMode.fromFlag(privacyMode);
+    }
+
+    public List<PublicKey> getRecipientKeys() {
+        return decodeKeys(recipientKeys);
+    }
+
+    public byte[] getExecHash() {
+        return execHash;
+    }
+
+    byte[] getEncodedRecipientKeys() {
+        return recipientKeys;
+    }
+
+    private static byte[] encodeKeys(final List<PublicKey> keys) {
+        final int length = keys.stream().mapToInt(key -> Integer.BYTES + key.getKeyBytes().length).sum();
+
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        keys.stream().map(PublicKey::getKeyBytes).forEach(key -> buffer.putInt(key.length).put(key));
+        return buffer.array();
+    }
+
+    private static List<PublicKey> decodeKeys(final byte[] encoded) {
+        if (Objects.isNull(encoded)) {
+            return Collections.emptyList();
+        }
+
+        final List<PublicKey> keys = new ArrayList<>();
+        final ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        while (buffer.hasRemaining()) {
+            final byte[] key = new byte[buffer.getInt()];
+            buffer.get(key);
+            keys.add(PublicKey.from(key));
+        }
+        return Collections.unmodifiableList(keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 47 * 3 + Objects.hashCode(this.hash);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+
+        return (obj instanceof TransactionPrivacyMetadata)
+                && Objects.equals(this.hash, ((TransactionPrivacyMetadata) obj).hash);
+    }
+}
@@ -0,0 +1,64 @@
+package com.quorum.tessera.data;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.jpa.JpaEntityManager;
+
+import javax.persistence.EntityManager;
+
+/**
+ * The tables {@link EncryptedTransaction} is mapped onto by the persistence unit of an entity manager. Schema version 1
+ * keeps the whole transaction in one table, version 2 keeps the payload in a table of its own. EclipseLink joins every
+ * table of an entity in its queries, so statements that only need the hash go to the index table directly.
+ */
+class TransactionTables {
+
+    private final String indexTable;
+
+    private final String payloadTable;
+
+    private final String payloadColumn;
+
+    private TransactionTables(final String indexTable, final String payloadTable, final String payloadColumn) {
+        this.indexTable = indexTable;
+        this.payloadTable = payloadTable;
+        this.payloadColumn = payloadColumn;
+    }
+
+    /** The tables of a schema version, for code that does not go through JPA */
+    static TransactionTables forSchemaVersion(final int schemaVersion) {
+        if (schemaVersion == 2) {
+            return new TransactionTables("TX_INDEX", "TX_PAYLOAD", "PAYLOAD");
+        }
+        return new TransactionTables("ENCRYPTED_TRANSACTION", "ENCRYPTED_TRANSACTION", "ENCODED_PAYLOAD");
+    }
+
+    static TransactionTables from(final EntityManager entityManager) {
+        final ClassDescriptor descriptor =
+                entityManager
+                        .unwrap(JpaEntityManager.class)
+                        .getServerSession()
+                        .getDescriptor(EncryptedTransaction.class);
+        final DatabaseField payloadField = descriptor.getMappingForAttributeName("encodedPayload").getField();
+
+        return new TransactionTables(descriptor.getTableName(), payloadField.getTableName(), payloadField.getName());
+    }
+
+    /** The table holding the hash and timestamp of each transaction */
+    String getIndexTable() {
+        return indexTable;
+    }
+
+    /** Whether the payload is kept apart from the index, in a table of its own */
+    boolean isSplit() {
+        return !indexTable.equals(payloadTable);
+    }
+
+    String getPayloadTable() {
+        return payloadTable;
+    }
+
+    String getPayloadColumn() {
+        return payloadColumn;
+    }
+}
@@ -0,0 +1,234 @@
+package com.quorum.tessera.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingEncryptedTransactionDAOTest {
+
+    private EncryptedTransactionDAO delegate;
+
+    private EncryptedTransactionCache cache;
+
+    private CachingEncryptedTransactionDAO dao;
+
+    private final MessageHash hash = new MessageHash("HASH".getBytes());
+
+    private final EncryptedTransaction transaction = new EncryptedTransaction(hash, "PAYLOAD".getBytes());
+
+    @Before
+    public void onSetUp() {
+        delegate = mock(EncryptedTransactionDAO.class);
+        cache = new EncryptedTransactionCache(1024);
+        dao = new CachingEncryptedTransactionDAO(delegate, cache);
+
+        when(delegate.retrieveByHash(hash)).thenReturn(Optional.of(transaction));
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(delegate);
+    }
+
+    @Test
+    public void repeatedLookupIsServedFromCache() {
+        assertThat(dao.retrieveByHash(hash)).isPresent();
+        assertThat(dao.retrieveByHash(hash).get().getEncodedPayload()).isEqualTo("PAYLOAD".getBytes());
+
+        verify(delegate).retrieveByHash(hash);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void readForUpdateBypassesCache() {
+        when(delegate.retrieveByHashForUpdate(hash)).thenReturn(Optional.of(transaction));
+        dao.retrieveByHash(hash);
+
+        assertThat(dao.retrieveByHashForUpdate(hash)).containsSame(transaction);
+        assertThat(dao.retrieveByHashForUpdate(hash)).containsSame(transaction);
+
+        verify(delegate).retrieveByHash(hash);
+        verify(delegate, times(2)).retrieveByHashForUpdate(hash);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    public void missingTransactionIsNotCached() {
+        final MessageHash unknown = new MessageHash("UNKNOWN".getBytes());
+        when(delegate.retrieveByHash(unknown)).thenReturn(Optional.empty());
+
+        assertThat(dao.retrieveByHash(unknown)).isEmpty();
+        assertThat(dao.retrieveByHash(unknown)).isEmpty();
+
+        verify(delegate, times(2)).retrieveByHash(unknown);
+    }
+
+    @Test
+    public void updateInvalidatesCachedTransaction() {
+        when(delegate.update(transaction)).thenReturn(transaction);
+        dao.retrieveByHash(hash);
+
+        assertThat(dao.update(transaction)).isSameAs(transaction);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).update(transaction);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void deleteInvalidatesCachedTransaction() {
+        dao.retrieveByHash(hash);
+
+        dao.delete(hash);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).delete(hash);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void saveInvalidatesCachedTransaction() {
+        when(delegate.save(transaction)).thenReturn(transaction);
+        dao.retrieveByHash(hash);
+
+        assertThat(dao.save(transaction)).isSameAs(transaction);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).save(transaction);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void saveWithCallbackInvalidatesCachedTransaction() throws Exception {
+        final Callable<Object> callback = mock(Callable.class);
+        when(delegate.save(transaction, callback)).thenReturn(transaction);
+        dao.retrieveByHash(hash);
+
+        assertThat(dao.save(transaction, callback)).isSameAs(transaction);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).save(transaction, callback);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void saveAllWithCallbackInvalidatesCachedTransactions() {
+        final Callable<Object> callback = mock(Callable.class);
+        dao.retrieveByHash(hash);
+
+        dao.saveAll(List.of(transaction), callback);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).saveAll(List.of(transaction), callback);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void saveAllInvalidatesCachedTransactions() {
+        dao.retrieveByHash(hash);
+
+        dao.saveAll(List.of(), List.of(transaction));
+        dao.retrieveByHash(hash);
+
+        verify(delegate).saveAll(List.of(), List.of(transaction));
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void writeOfOtherTransactionDuringLoadLeavesLoadToBeCached() {
+        final EncryptedTransaction other = new EncryptedTransaction(new MessageHash("OTHER".getBytes()), new byte[0]);
+        when(delegate.save(other)).thenReturn(other);
+        when(delegate.retrieveByHash(hash))
+                .thenAnswer(
+                        invocation -> {
+                            dao.save(other);
+                            return Optional.of(transaction);
+                        });
+
+        dao.retrieveByHash(hash);
+        dao.retrieveByHash(hash);
+
+        verify(delegate).save(other);
+        verify(delegate).retrieveByHash(hash);
+    }
+
+    @Test
+    public void writeOfTransactionDuringLoadStopsItBeingCached() {
+        when(delegate.update(transaction)).thenReturn(transaction);
+        when(delegate.retrieveByHash(hash))
+                .thenAnswer(
+                        invocation -> {
+                            dao.update(transaction);
+                            return Optional.of(transaction);
+                        });
+
+        dao.retrieveByHash(hash);
+
+        assertThat(cache.getEntryCount()).isZero();
+        verify(delegate).update(transaction);
+        verify(delegate).retrieveByHash(hash);
+    }
+
+    @Test
+    public void writeInvalidatesEveryCacheOfTheDatabase() {
+        final EncryptedTransactionCache otherCache = new EncryptedTransactionCache(2048);
+        final List<EncryptedTransactionCache> databaseCaches = List.of(cache, otherCache);
+        final CachingEncryptedTransactionDAO writer =
+                new CachingEncryptedTransactionDAO(delegate, cache, databaseCaches);
+        final CachingEncryptedTransactionDAO reader =
+                new CachingEncryptedTransactionDAO(delegate, otherCache, databaseCaches);
+        when(delegate.update(transaction)).thenReturn(transaction);
+        reader.retrieveByHash(hash);
+
+        writer.update(transaction);
+        reader.retrieveByHash(hash);
+
+        assertThat(otherCache.getMissCount()).isEqualTo(2);
+        verify(delegate).update(transaction);
+        verify(delegate, times(2)).retrieveByHash(hash);
+    }
+
+    @Test
+    public void readsAreDelegated() {
+        dao.findByHashes(List.of(hash));
+        dao.retrieveTransactions(0, 10);
+        dao.retrieveTransactionsByHashRange(null, hash, 10);
+        dao.transactionCount();
+        dao.upcheck();
+        dao.findPrivacyMetadataByHashes(List.of(hash));
+        dao.backfillPrivacyMetadata(hash, 10);
+
+        verify(delegate).findByHashes(List.of(hash));
+        verify(delegate).retrieveTransactions(0, 10);
+        verify(delegate).retrieveTransactionsByHashRange(null, hash, 10);
+        verify(delegate).transactionCount();
+        verify(delegate).upcheck();
+        verify(delegate).findPrivacyMetadataByHashes(List.of(hash));
+        verify(delegate).backfillPrivacyMetadata(hash, 10);
+    }
+
+    @Test
+    public void failedWriteLeavesCacheUntouched() {
+        when(delegate.update(any(EncryptedTransaction.class))).thenThrow(new IllegalStateException());
+        dao.retrieveByHash(hash);
+        final long invalidations = cache.startLoad(hash);
+
+        final Throwable ex = catchThrowable(() -> dao.update(transaction));
+
+        assertThat(ex).isExactlyInstanceOf(IllegalStateException.class);
+        assertThat(cache.startLoad(hash)).isEqualTo(invalidations);
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+        verify(delegate).retrieveByHash(hash);
+        verify(delegate).update(transaction);
+    }
+}
@@ -188,7 +188,16 @@ public class EncryptedRawTransactionDAOTest {
 
         final EncryptedRawTransaction retrieved = entityManager.find(EncryptedRawTransaction.class, messageHash);
 
-        assertThat(retrieved).isNotNull().isEqualToComparingFieldByField(encryptedRawTransaction);
+        assertThat(retrieved)
+                .isNotNull()
+                .isEqualToComparingOnlyGivenFields(
+                        encryptedRawTransaction,
+                        "hash",
+                        "encryptedPayload",
+                        "encryptedKey",
+                        "nonce",
+                        "sender",
+                        "timestamp");
     }
 
     @Test
@@ -260,6 +269,63 @@ public class EncryptedRawTransactionDAOTest {
         assertThat(retrievedList).hasSameElementsAs(payloads);
     }
 
+    @Test
+    public void retrieveTransactionsByHashRangePagesInHashOrder() {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        final List<EncryptedRawTransaction> transactions =
+                IntStream.rangeClosed(1, 9)
+                        .mapToObj(i -> new MessageHash(new byte[] {(byte) i}))
+                        .map(hash -> createRawTransaction(hash))
+                        .peek(entityManager::persist)
+                        .collect(Collectors.toList());
+        entityManager.getTransaction().commit();
+
+        final List<EncryptedRawTransaction> firstPage =
+                encryptedRawTransactionDAO.retrieveTransactionsByHashRange(null, null, 4);
+        assertThat(firstPage).containsExactlyElementsOf(transactions.subList(0, 4));
+
+        final List<EncryptedRawTransaction> secondPage =
+                encryptedRawTransactionDAO.retrieveTransactionsByHashRange(firstPage.get(3).getHash(), null, 4);
+        assertThat(secondPage).containsExactlyElementsOf(transactions.subList(4, 8));
+
+        final List<EncryptedRawTransaction> bounded =
+                encryptedRawTransactionDAO.retrieveTransactionsByHashRange(
+                        new MessageHash(new byte[] {2}), new MessageHash(new byte[] {5}), 10);
+        assertThat(bounded).containsExactlyElementsOf(transactions.subList(2, 5));
+    }
+
+    @Test
+    public void saveAllAndFindByHashes() {
+
+        final List<EncryptedRawTransaction> transactions =
+                IntStream.range(0, 10)
+                        .mapToObj(i -> new MessageHash(UUID.randomUUID().toString().getBytes()))
+                        .map(hash -> createRawTransaction(hash))
+                        .collect(Collectors.toList());
+
+        encryptedRawTransactionDAO.saveAll(transactions);
+
+        final List<MessageHash> hashes =
+                transactions.stream().map(EncryptedRawTransaction::getHash).collect(Collectors.toList());
+
+        assertThat(encryptedRawTransactionDAO.findByHashes(hashes)).containsExactlyInAnyOrderElementsOf(transactions);
+        assertThat(encryptedRawTransactionDAO.findByHashes(hashes.subList(0, 3)))
+                .containsExactlyInAnyOrderElementsOf(transactions.subList(0, 3));
+    }
+
+    @Test
+    public void findByHashesEmpty() {
+        assertThat(encryptedRawTransactionDAO.findByHashes(Collections.emptyList())).isEmpty();
+        assertThat(encryptedRawTransactionDAO.findByHashes(null)).isEmpty();
+    }
+
+    private static EncryptedRawTransaction createRawTransaction(final MessageHash hash) {
+        return new EncryptedRawTransaction(
+                hash, "payload".getBytes(), "key".getBytes(), "nonce".getBytes(), "from".getBytes());
+    }
+
     @Test
     public void retrieveByHashFindsTransactionThatIsPresent() {
         // put a transaction in the database
@@ -280,7 +346,15 @@ public class EncryptedRawTransactionDAOTest {
         final Optional<EncryptedRawTransaction> retrieved = encryptedRawTransactionDAO.retrieveByHash(messageHash);
 
         assertThat(retrieved).isPresent();
-        assertThat(retrieved.get()).isEqualToComparingFieldByField(encryptedRawTransaction);
+        assertThat(retrieved.get())
+                .isEqualToComparingOnlyGivenFields(
+                        encryptedRawTransaction,
+                        "hash",
+                        "encryptedPayload",
+                        "encryptedKey",
+                        "nonce",
+                        "sender",
+                        "timestamp");
     }
 
     @Test
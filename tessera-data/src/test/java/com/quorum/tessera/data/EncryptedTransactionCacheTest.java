@@ -0,0 +1,239 @@
+package com.quorum.tessera.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EncryptedTransactionCacheTest {
+
+    private static final int PAYLOAD_SIZE = 100;
+
+    private static final long ENTRY_WEIGHT = PAYLOAD_SIZE + EncryptedTransactionCache.ENTRY_OVERHEAD;
+
+    private EncryptedTransactionCache cache;
+
+    @Before
+    public void onSetUp() {
+        cache = new EncryptedTransactionCache(3 * ENTRY_WEIGHT);
+    }
+
+    @Test
+    public void missIsCounted() {
+        assertThat(cache.get(hash(1))).isEmpty();
+
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.getHitRatio()).isZero();
+    }
+
+    @Test
+    public void hitReturnsCopyOfCachedTransaction() {
+        final EncryptedTransaction transaction = transaction(1);
+        transaction.setTimestamp(123L);
+        load(transaction);
+
+        final Optional<EncryptedTransaction> first = cache.get(hash(1));
+        final Optional<EncryptedTransaction> second = cache.get(hash(1));
+
+        assertThat(first).isPresent();
+        assertThat(first.get()).isNotSameAs(transaction).isNotSameAs(second.get());
+        assertThat(first.get().getHash()).isEqualTo(hash(1));
+        assertThat(first.get().getEncodedPayload()).isEqualTo(transaction.getEncodedPayload());
+        assertThat(first.get().getTimestamp()).isEqualTo(123L);
+
+        first.get().setEncodedPayload(new byte[0]);
+        assertThat(cache.get(hash(1)).get().getEncodedPayload()).hasSize(PAYLOAD_SIZE);
+
+        assertThat(cache.getHitCount()).isEqualTo(3);
+        assertThat(cache.getHitRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void payloadArraysAreNotShared() {
+        final EncryptedTransaction transaction = transaction(1);
+        load(transaction);
+
+        transaction.getEncodedPayload()[0] = 1;
+        final EncryptedTransaction first = cache.get(hash(1)).get();
+        first.getEncodedPayload()[1] = 1;
+        final EncryptedTransaction second = cache.get(hash(1)).get();
+
+        assertThat(first.getEncodedPayload()).isNotSameAs(transaction.getEncodedPayload());
+        assertThat(second.getEncodedPayload()).isNotSameAs(first.getEncodedPayload()).isEqualTo(new byte[PAYLOAD_SIZE]);
+    }
+
+    @Test
+    public void largeCacheSpreadsTransactionsOverSegmentsWithinBudget() {
+        final long maxWeight = EncryptedTransactionCache.MAX_SEGMENTS * EncryptedTransactionCache.MIN_SEGMENT_WEIGHT;
+        final EncryptedTransactionCache large = new EncryptedTransactionCache(maxWeight);
+        final int payloadSize = 64 * 1024;
+
+        for (int i = 0; i < 1000; i++) {
+            final EncryptedTransaction transaction =
+                    new EncryptedTransaction(new MessageHash(("HASH" + i).getBytes()), new byte[payloadSize]);
+            final long invalidations = large.startLoad(transaction.getHash());
+            large.put(transaction, invalidations);
+            large.finishLoad(transaction.getHash());
+        }
+
+        assertThat(large.getWeight()).isLessThanOrEqualTo(maxWeight);
+        assertThat(large.getEntryCount()).isGreaterThan(EncryptedTransactionCache.MAX_SEGMENTS);
+        assertThat(large.getEntryCount() + large.getEvictionCount()).isEqualTo(1000);
+        assertThat(large.get(new MessageHash("HASH999".getBytes()))).isPresent();
+    }
+
+    @Test
+    public void transactionLargerThanSegmentBudgetIsNotCached() {
+        final long maxWeight = 2 * EncryptedTransactionCache.MIN_SEGMENT_WEIGHT;
+        final EncryptedTransactionCache segmented = new EncryptedTransactionCache(maxWeight);
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(hash(1), new byte[(int) EncryptedTransactionCache.MIN_SEGMENT_WEIGHT]);
+
+        final long invalidations = segmented.startLoad(hash(1));
+        segmented.put(transaction, invalidations);
+        segmented.finishLoad(hash(1));
+
+        assertThat(segmented.getEntryCount()).isZero();
+        assertThat(segmented.getMaxWeight()).isEqualTo(maxWeight);
+    }
+
+    @Test
+    public void hitRatioIsFractionOfLookups() {
+        load(transaction(1));
+
+        cache.get(hash(1));
+        cache.get(hash(2));
+        cache.get(hash(1));
+        cache.get(hash(3));
+
+        assertThat(cache.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void leastRecentlyUsedTransactionIsEvictedWhenOverBudget() {
+        load(transaction(1));
+        load(transaction(2));
+        load(transaction(3));
+
+        cache.get(hash(1));
+        load(transaction(4));
+
+        assertThat(cache.getEntryCount()).isEqualTo(3);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getWeight()).isEqualTo(3 * ENTRY_WEIGHT);
+        assertThat(cache.get(hash(2))).isEmpty();
+        assertThat(cache.get(hash(1))).isPresent();
+        assertThat(cache.get(hash(4))).isPresent();
+    }
+
+    @Test
+    public void replacingTransactionKeepsWeightAccurate() {
+        load(transaction(1));
+        load(transaction(1));
+
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+        assertThat(cache.getWeight()).isEqualTo(ENTRY_WEIGHT);
+    }
+
+    @Test
+    public void transactionLargerThanBudgetIsNotCached() {
+        final EncryptedTransaction large = new EncryptedTransaction(hash(1), new byte[(int) (3 * ENTRY_WEIGHT)]);
+
+        load(large);
+
+        assertThat(cache.getEntryCount()).isZero();
+        assertThat(cache.getWeight()).isZero();
+    }
+
+    @Test
+    public void transactionLoadedBeforeInvalidationIsNotCached() {
+        final long invalidations = cache.startLoad(hash(1));
+
+        cache.invalidate(hash(1));
+        cache.put(transaction(1), invalidations);
+        cache.finishLoad(hash(1));
+
+        assertThat(cache.get(hash(1))).isEmpty();
+    }
+
+    @Test
+    public void invalidationOfOtherTransactionDuringLoadDoesNotStopItBeingCached() {
+        final long invalidations = cache.startLoad(hash(1));
+
+        cache.invalidate(hash(2));
+        cache.put(transaction(1), invalidations);
+        cache.finishLoad(hash(1));
+
+        assertThat(cache.get(hash(1))).isPresent();
+    }
+
+    @Test
+    public void loadStartedAfterInvalidationIsCachedWhileEarlierLoadIsNot() {
+        final long first = cache.startLoad(hash(1));
+        cache.invalidate(hash(1));
+        final long second = cache.startLoad(hash(1));
+
+        cache.put(transaction(1), first);
+        assertThat(cache.get(hash(1))).isEmpty();
+
+        cache.put(transaction(1), second);
+        assertThat(cache.get(hash(1))).isPresent();
+
+        cache.finishLoad(hash(1));
+        cache.finishLoad(hash(1));
+    }
+
+    @Test
+    public void invalidationBeforeLoadStartsDoesNotStopItBeingCached() {
+        cache.startLoad(hash(1));
+        cache.invalidate(hash(1));
+        cache.finishLoad(hash(1));
+
+        load(transaction(1));
+
+        assertThat(cache.get(hash(1))).isPresent();
+    }
+
+    @Test
+    public void transactionPutWithoutLoadIsNotCached() {
+        cache.put(transaction(1), 0);
+
+        assertThat(cache.get(hash(1))).isEmpty();
+    }
+
+    @Test
+    public void invalidateRemovesTransaction() {
+        load(transaction(1));
+        load(transaction(2));
+
+        cache.invalidate(hash(1));
+
+        assertThat(cache.get(hash(1))).isEmpty();
+        assertThat(cache.get(hash(2))).isPresent();
+        assertThat(cache.getWeight()).isEqualTo(ENTRY_WEIGHT);
+    }
+
+    @Test
+    public void statisticsOfUnusedCache() {
+        assertThat(cache.getMaxWeight()).isEqualTo(3 * ENTRY_WEIGHT);
+        assertThat(cache.getWeight()).isZero();
+        assertThat(cache.getHitRatio()).isZero();
+    }
+
+    private void load(EncryptedTransaction transaction) {
+        final long invalidations = cache.startLoad(transaction.getHash());
+        cache.put(transaction, invalidations);
+        cache.finishLoad(transaction.getHash());
+    }
+
+    private static MessageHash hash(int id) {
+        return new MessageHash(new byte[] {(byte) id});
+    }
+
+    private static EncryptedTransaction transaction(int id) {
+        return new EncryptedTransaction(hash(id), new byte[PAYLOAD_SIZE]);
+    }
+}
@@ -1,5 +1,11 @@
 package com.quorum.tessera.data;
 
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -7,13 +13,17 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import javax.persistence.*;
+import javax.sql.DataSource;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.*;
 
 @RunWith(Parameterized.class)
@@ -25,8 +35,13 @@ public class EncryptedTransactionDAOTest {
 
     private TestConfig testConfig;
 
-    public EncryptedTransactionDAOTest(TestConfig testConfig) {
+    private boolean bypassJpa;
+
+    private HikariDataSource dataSource;
+
+    public EncryptedTransactionDAOTest(TestConfig testConfig, String implementation) {
         this.testConfig = testConfig;
+        this.bypassJpa = "JDBC".equals(implementation);
     }
 
     @Before
@@ -45,14 +60,28 @@ public class EncryptedTransactionDAOTest {
 
         entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
         encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+        if (bypassJpa) {
+            final HikariConfig hikariConfig = new HikariConfig();
+            hikariConfig.setJdbcUrl(testConfig.getUrl());
+            hikariConfig.setUsername("junit");
+            hikariConfig.setPassword("");
+            dataSource = new HikariDataSource(hikariConfig);
+            encryptedTransactionDAO = new JdbcEncryptedTransactionDAO(dataSource, 1);
+        }
     }
 
     @After
     public void onTearDown() {
         EntityManager entityManager = entityManagerFactory.createEntityManager();
         entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from TransactionPrivacyMetadata").executeUpdate();
         entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
         entityManager.getTransaction().commit();
+
+        if (bypassJpa) {
+            dataSource.close();
+        }
     }
 
     @Test
@@ -106,7 +135,9 @@ public class EncryptedTransactionDAOTest {
         final EncryptedTransaction retrieved =
                 entityManager.find(EncryptedTransaction.class, encryptedTransaction.getHash());
 
-        assertThat(retrieved).isNotNull().isEqualToComparingFieldByField(encryptedTransaction);
+        assertThat(retrieved)
+                .isNotNull()
+                .isEqualToComparingOnlyGivenFields(encryptedTransaction, "hash", "encodedPayload", "timestamp");
 
         encryptedTransaction.setEncodedPayload(new byte[] {6});
         encryptedTransactionDAO.update(encryptedTransaction);
@@ -118,7 +149,8 @@ public class EncryptedTransactionDAOTest {
         final EncryptedTransaction after =
                 entityManager.find(EncryptedTransaction.class, encryptedTransaction.getHash());
 
-        assertThat(after).isEqualToComparingFieldByField(encryptedTransaction);
+        assertThat(after)
+                .isEqualToComparingOnlyGivenFields(encryptedTransaction, "hash", "encodedPayload", "timestamp");
 
         entityManager.getTransaction().rollback();
     }
@@ -162,7 +194,9 @@ public class EncryptedTransactionDAOTest {
         final EncryptedTransaction retrieved =
                 entityManager.find(EncryptedTransaction.class, encryptedTransaction.getHash());
 
-        assertThat(retrieved).isNotNull().isEqualToComparingFieldByField(encryptedTransaction);
+        assertThat(retrieved)
+                .isNotNull()
+                .isEqualToComparingOnlyGivenFields(encryptedTransaction, "hash", "encodedPayload", "timestamp");
         entityManager.getTransaction().rollback();
     }
 
@@ -189,6 +223,97 @@ public class EncryptedTransactionDAOTest {
         assertThat(retrievedList).hasSameElementsAs(payloads);
     }
 
+    @Test
+    public void fetchingWithOffsetAndUnboundedMaxResultSkipsOffset() {
+        // EclipseLink pages on SQLite with a scrollable cursor, which the driver does not support
+        assumeTrue(bypassJpa);
+
+        final List<EncryptedTransaction> transactions =
+                IntStream.rangeClosed(1, 3)
+                        .mapToObj(i -> new EncryptedTransaction(new MessageHash(new byte[] {(byte) i}), new byte[] {5}))
+                        .collect(Collectors.toList());
+        encryptedTransactionDAO.saveAll(transactions, List.of());
+
+        assertThat(encryptedTransactionDAO.retrieveTransactions(1, Integer.MAX_VALUE)).hasSize(2);
+        assertThat(encryptedTransactionDAO.retrieveTransactions(1, 1)).containsExactly(transactions.get(1));
+        assertThat(encryptedTransactionDAO.retrieveTransactions(5, 1)).isEmpty();
+    }
+
+    @Test
+    public void retrieveTransactionsByHashRangePagesInHashOrder() {
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        final List<EncryptedTransaction> transactions =
+                IntStream.rangeClosed(1, 9)
+                        .mapToObj(i -> new MessageHash(new byte[] {(byte) i}))
+                        .map(hash -> new EncryptedTransaction(hash, hash.getHashBytes()))
+                        .peek(entityManager::persist)
+                        .collect(Collectors.toList());
+        entityManager.getTransaction().commit();
+
+        final List<EncryptedTransaction> firstPage =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(null, null, 4);
+        assertThat(firstPage).containsExactlyElementsOf(transactions.subList(0, 4));
+
+        final List<EncryptedTransaction> secondPage =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(firstPage.get(3).getHash(), null, 4);
+        assertThat(secondPage).containsExactlyElementsOf(transactions.subList(4, 8));
+
+        final List<EncryptedTransaction> bounded =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(
+                        new MessageHash(new byte[] {2}), new MessageHash(new byte[] {5}), 10);
+        assertThat(bounded).containsExactlyElementsOf(transactions.subList(2, 5));
+    }
+
+    @Test
+    public void saveAllPersistsNewAndUpdatesExistingTransactions() {
+
+        final EncryptedTransaction existing = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(existing);
+
+        final EncryptedTransaction newTransaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        existing.setEncodedPayload(new byte[] {7});
+
+        encryptedTransactionDAO.saveAll(List.of(newTransaction), List.of(existing));
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(newTransaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {6});
+        assertThat(encryptedTransactionDAO.retrieveByHash(existing.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {7});
+    }
+
+    @Test
+    public void saveAllWithoutUpdates() {
+
+        final EncryptedTransaction newTransaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+
+        encryptedTransactionDAO.saveAll(List.of(newTransaction), List.of());
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(newTransaction.getHash())).isPresent();
+    }
+
+    @Test
+    public void saveAllRollsBackWhenBatchUpdateFails() {
+
+        final EncryptedTransaction existing = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(existing);
+
+        final EncryptedTransaction newTransaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        final EncryptedTransaction invalidUpdate = new EncryptedTransaction(existing.getHash(), null);
+
+        final Throwable throwable =
+                catchThrowable(() -> encryptedTransactionDAO.saveAll(List.of(newTransaction), List.of(invalidUpdate)));
+
+        assertThat(throwable).isInstanceOf(PersistenceException.class);
+        assertThat(encryptedTransactionDAO.retrieveByHash(newTransaction.getHash())).isNotPresent();
+        assertThat(encryptedTransactionDAO.retrieveByHash(existing.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {5});
+    }
+
     @Test
     public void deleteTransactionRemovesFromDatabaseAndReturnsTrue() {
 
@@ -242,7 +367,8 @@ public class EncryptedTransactionDAOTest {
         final Optional<EncryptedTransaction> retrieved = encryptedTransactionDAO.retrieveByHash(messageHash);
 
         assertThat(retrieved.isPresent()).isTrue();
-        assertThat(retrieved.get()).isEqualToComparingFieldByField(encryptedTransaction);
+        assertThat(retrieved.get())
+                .isEqualToComparingOnlyGivenFields(encryptedTransaction, "hash", "encodedPayload", "timestamp");
     }
 
     @Test
@@ -301,6 +427,25 @@ public class EncryptedTransactionDAOTest {
         assertThat(results).isNotEmpty().containsExactlyInAnyOrderElementsOf(transactions);
     }
 
+    @Test
+    public void findByHashesQueriesLongListsInParts() {
+        final List<EncryptedTransaction> transactions =
+                IntStream.range(0, 2500)
+                        .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+                        .map(MessageHash::new)
+                        .map(hash -> new EncryptedTransaction(hash, encode(PrivacyMode.STANDARD_PRIVATE)))
+                        .collect(Collectors.toList());
+        encryptedTransactionDAO.saveAll(transactions, List.of());
+
+        final List<MessageHash> hashes =
+                transactions.stream().map(EncryptedTransaction::getHash).collect(Collectors.toList());
+
+        assertThat(encryptedTransactionDAO.findByHashes(hashes)).containsExactlyInAnyOrderElementsOf(transactions);
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(hashes))
+                .extracting(TransactionPrivacyMetadata::getHash)
+                .containsExactlyInAnyOrderElementsOf(hashes);
+    }
+
     @Test
     public void findByHashesEmpty() {
 
@@ -378,6 +523,66 @@ public class EncryptedTransactionDAOTest {
         verify(callback).call();
     }
 
+    @Test
+    public void saveAllWithCallback() throws Exception {
+        final List<EncryptedTransaction> transactions =
+                IntStream.range(0, 3)
+                        .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+                        .map(bytes -> new EncryptedTransaction(new MessageHash(bytes), bytes))
+                        .collect(Collectors.toList());
+
+        final Callable<Void> callback = mock(Callable.class);
+
+        encryptedTransactionDAO.saveAll(transactions, callback);
+
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        transactions.forEach(
+                transaction ->
+                        assertThat(entityManager.find(EncryptedTransaction.class, transaction.getHash())).isNotNull());
+
+        verify(callback).call();
+    }
+
+    @Test
+    public void saveAllWithCallbackExceptionKeepsNoTransactions() throws Exception {
+        final List<EncryptedTransaction> transactions =
+                IntStream.range(0, 3)
+                        .mapToObj(i -> UUID.randomUUID().toString().getBytes())
+                        .map(bytes -> new EncryptedTransaction(new MessageHash(bytes), bytes))
+                        .collect(Collectors.toList());
+
+        final Callable<Void> callback = mock(Callable.class);
+        when(callback.call()).thenThrow(new Exception("OUCH"));
+
+        final Throwable throwable = catchThrowable(() -> encryptedTransactionDAO.saveAll(transactions, callback));
+
+        assertThat(throwable).isInstanceOf(PersistenceException.class).hasMessageContaining("OUCH");
+
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        transactions.forEach(
+                transaction ->
+                        assertThat(entityManager.find(EncryptedTransaction.class, transaction.getHash())).isNull());
+
+        verify(callback).call();
+    }
+
+    @Test
+    public void saveAllWithCallbackRuntimeException() throws Exception {
+        final byte[] bytes = UUID.randomUUID().toString().getBytes();
+        final EncryptedTransaction transaction = new EncryptedTransaction(new MessageHash(bytes), bytes);
+
+        final Callable<Void> callback = mock(Callable.class);
+        when(callback.call()).thenThrow(new IllegalStateException("OUCH"));
+
+        final Throwable throwable =
+                catchThrowable(() -> encryptedTransactionDAO.saveAll(List.of(transaction), callback));
+
+        assertThat(throwable).isExactlyInstanceOf(IllegalStateException.class).hasMessage("OUCH");
+
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        assertThat(entityManager.find(EncryptedTransaction.class, transaction.getHash())).isNull();
+    }
+
     @Test
     public void callBackShouldNotBeExecutedIfSaveFails() {
         final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
@@ -408,9 +613,322 @@ public class EncryptedTransactionDAOTest {
         }
     }
 
-    @Parameterized.Parameters(name = "DB {0}")
-    public static Collection<TestConfig> connectionDetails() {
-        return List.of(TestConfig.values());
+    @Test
+    public void savingTransactionStoresPrivacyMetadata() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncryptedTransaction transaction =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PRIVATE_STATE_VALIDATION, recipient);
+
+        encryptedTransactionDAO.save(transaction);
+
+        final TransactionPrivacyMetadata metadata = findStoredMetadata(transaction.getHash());
+        assertThat(metadata).isNotNull();
+        assertThat(metadata.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(metadata.getRecipientKeys()).containsExactly(recipient);
+        assertThat(metadata.getExecHash()).isEqualTo("EXEC_HASH".getBytes());
+    }
+
+    @Test
+    public void savingTransactionWithoutItsPayloadLeavesMetadataToBeReadFromPayload() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(
+                        new MessageHash(new byte[] {1}), encode(PrivacyMode.PARTY_PROTECTION, recipient));
+
+        encryptedTransactionDAO.save(transaction);
+
+        assertThat(findStoredMetadata(transaction.getHash())).isNull();
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(transaction.getHash())))
+                .flatExtracting(TransactionPrivacyMetadata::getRecipientKeys)
+                .containsExactly(recipient);
+    }
+
+    @Test
+    public void savingTransactionWithCallbackStoresPrivacyMetadata() {
+
+        final EncryptedTransaction transaction = written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION);
+
+        encryptedTransactionDAO.save(transaction, () -> null);
+
+        assertThat(findStoredMetadata(transaction.getHash())).isNotNull();
+    }
+
+    @Test
+    public void updatingTransactionUpdatesPrivacyMetadata() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey newRecipient = PublicKey.from("NEW_RECIPIENT".getBytes());
+        final EncryptedTransaction transaction =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION, recipient);
+        encryptedTransactionDAO.save(transaction);
+
+        setPayload(transaction, PrivacyMode.PARTY_PROTECTION, recipient, newRecipient);
+        encryptedTransactionDAO.update(transaction);
+
+        assertThat(findStoredMetadata(transaction.getHash()).getRecipientKeys())
+                .containsExactly(recipient, newRecipient);
+    }
+
+    @Test
+    public void updatingTransactionWithoutItsPayloadDropsStoredMetadata() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey newRecipient = PublicKey.from("NEW_RECIPIENT".getBytes());
+        final EncryptedTransaction transaction =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION, recipient);
+        encryptedTransactionDAO.save(transaction);
+
+        transaction.setEncodedPayload(encode(PrivacyMode.PARTY_PROTECTION, recipient, newRecipient));
+        encryptedTransactionDAO.update(transaction);
+
+        assertThat(findStoredMetadata(transaction.getHash())).isNull();
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(transaction.getHash())))
+                .flatExtracting(TransactionPrivacyMetadata::getRecipientKeys)
+                .containsExactly(recipient, newRecipient);
+    }
+
+    @Test
+    public void updatingUnknownTransactionStoresIt() {
+
+        final EncryptedTransaction transaction = written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION);
+
+        encryptedTransactionDAO.update(transaction);
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash())).isPresent();
+        assertThat(findStoredMetadata(transaction.getHash())).isNotNull();
+    }
+
+    @Test
+    public void updatingTransactionWithoutMetadataStoresIt() {
+
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), encode(PrivacyMode.PARTY_PROTECTION));
+        persistWithoutMetadata(transaction);
+
+        setPayload(transaction, PrivacyMode.STANDARD_PRIVATE);
+        encryptedTransactionDAO.update(transaction);
+
+        assertThat(findStoredMetadata(transaction.getHash()).getPrivacyMode()).isEqualTo(PrivacyMode.STANDARD_PRIVATE);
+    }
+
+    @Test
+    public void saveAllWithUpdatesOnly() {
+
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+        transaction.setEncodedPayload(new byte[] {6});
+
+        encryptedTransactionDAO.saveAll(List.of(), List.of(transaction));
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {6});
+    }
+
+    @Test
+    public void saveAllStoresAndUpdatesPrivacyMetadata() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey newRecipient = PublicKey.from("NEW_RECIPIENT".getBytes());
+        final EncryptedTransaction existing =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION, recipient);
+        final EncryptedTransaction updatedWithoutPayload =
+                written(new MessageHash(new byte[] {4}), PrivacyMode.PARTY_PROTECTION, recipient);
+        encryptedTransactionDAO.saveAll(List.of(existing, updatedWithoutPayload), List.of());
+
+        final EncryptedTransaction newTransaction =
+                written(new MessageHash(new byte[] {2}), PrivacyMode.STANDARD_PRIVATE);
+        final EncryptedTransaction undecodable =
+                new EncryptedTransaction(new MessageHash(new byte[] {3}), new byte[] {5});
+        encryptedTransactionDAO.saveAll(List.of(undecodable), List.of());
+        setPayload(existing, PrivacyMode.PARTY_PROTECTION, recipient, newRecipient);
+        updatedWithoutPayload.setEncodedPayload(encode(PrivacyMode.PARTY_PROTECTION, recipient, newRecipient));
+        undecodable.setEncodedPayload(new byte[] {6});
+
+        encryptedTransactionDAO.saveAll(List.of(newTransaction), List.of(existing, updatedWithoutPayload, undecodable));
+
+        assertThat(findStoredMetadata(newTransaction.getHash()).getPrivacyMode())
+                .isEqualTo(PrivacyMode.STANDARD_PRIVATE);
+        assertThat(findStoredMetadata(existing.getHash()).getRecipientKeys()).containsExactly(recipient, newRecipient);
+        assertThat(findStoredMetadata(updatedWithoutPayload.getHash())).isNull();
+        assertThat(findStoredMetadata(undecodable.getHash())).isNull();
+    }
+
+    @Test
+    public void deletingTransactionRemovesPrivacyMetadata() {
+
+        final EncryptedTransaction transaction = written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION);
+        encryptedTransactionDAO.save(transaction);
+
+        encryptedTransactionDAO.delete(transaction.getHash());
+
+        assertThat(findStoredMetadata(transaction.getHash())).isNull();
+    }
+
+    @Test
+    public void findPrivacyMetadataReadsPayloadsOfTransactionsWithoutMetadata() {
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncryptedTransaction stored =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION, recipient);
+        encryptedTransactionDAO.save(stored);
+
+        final EncryptedTransaction legacy =
+                new EncryptedTransaction(
+                        new MessageHash(new byte[] {2}), encode(PrivacyMode.PRIVATE_STATE_VALIDATION, recipient));
+        persistWithoutMetadata(legacy);
+
+        final List<TransactionPrivacyMetadata> metadata =
+                encryptedTransactionDAO.findPrivacyMetadataByHashes(
+                        List.of(stored.getHash(), legacy.getHash(), new MessageHash(new byte[] {3})));
+
+        assertThat(metadata)
+                .extracting(TransactionPrivacyMetadata::getHash)
+                .containsExactlyInAnyOrder(stored.getHash(), legacy.getHash());
+        assertThat(metadata)
+                .filteredOn(m -> m.getHash().equals(legacy.getHash()))
+                .extracting(TransactionPrivacyMetadata::getPrivacyMode)
+                .containsExactly(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(findStoredMetadata(legacy.getHash())).isNull();
+    }
+
+    @Test
+    public void findPrivacyMetadataWithStoredMetadataOnly() {
+
+        final EncryptedTransaction stored = written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION);
+        encryptedTransactionDAO.save(stored);
+
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(stored.getHash())))
+                .extracting(TransactionPrivacyMetadata::getHash)
+                .containsExactly(stored.getHash());
+    }
+
+    @Test
+    public void findPrivacyMetadataReportsPayloadThatCannotBeDecoded() {
+
+        final EncryptedTransaction undecodable =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        persistWithoutMetadata(undecodable);
+
+        assertThatThrownBy(() -> encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(undecodable.getHash())))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void withoutPrivacyMetadataTableDetailsAreReadFromPayloads() {
+        final EncryptedTransactionDAO withoutMetadata;
+        if (bypassJpa) {
+            withoutMetadata = new JdbcEncryptedTransactionDAO(dataSource, 1, false);
+        } else {
+            withoutMetadata = new EncryptedTransactionDAOImpl(entityManagerFactory, false);
+        }
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final EncryptedTransaction transaction =
+                written(new MessageHash(new byte[] {1}), PrivacyMode.PARTY_PROTECTION, recipient);
+        final EncryptedTransaction other = written(new MessageHash(new byte[] {2}), PrivacyMode.STANDARD_PRIVATE);
+        withoutMetadata.save(transaction);
+        withoutMetadata.saveAll(List.of(other), () -> null);
+        setPayload(transaction, PrivacyMode.PRIVATE_STATE_VALIDATION, recipient);
+        withoutMetadata.update(transaction);
+        setPayload(other, PrivacyMode.PARTY_PROTECTION);
+        withoutMetadata.saveAll(List.of(), List.of(other));
+
+        assertThat(findStoredMetadata(transaction.getHash())).isNull();
+        assertThat(findStoredMetadata(other.getHash())).isNull();
+        assertThat(withoutMetadata.findPrivacyMetadataByHashes(List.of(transaction.getHash(), other.getHash())))
+                .extracting(TransactionPrivacyMetadata::getPrivacyMode)
+                .containsExactlyInAnyOrder(PrivacyMode.PRIVATE_STATE_VALIDATION, PrivacyMode.PARTY_PROTECTION);
+        assertThat(withoutMetadata.backfillPrivacyMetadata(null, 10)).isEmpty();
+
+        withoutMetadata.delete(transaction.getHash());
+        assertThat(withoutMetadata.retrieveByHash(transaction.getHash())).isEmpty();
+    }
+
+    @Test
+    public void findPrivacyMetadataEmpty() {
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(null)).isEmpty();
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of())).isEmpty();
+    }
+
+    @Test
+    public void backfillStoresMetadataOfTransactionsWithoutIt() {
+
+        final List<EncryptedTransaction> legacy =
+                IntStream.rangeClosed(1, 5)
+                        .mapToObj(i -> new MessageHash(new byte[] {(byte) i}))
+                        .map(hash -> new EncryptedTransaction(hash, encode(PrivacyMode.PARTY_PROTECTION)))
+                        .collect(Collectors.toList());
+        legacy.forEach(this::persistWithoutMetadata);
+        persistWithoutMetadata(new EncryptedTransaction(new MessageHash(new byte[] {6}), new byte[] {5}));
+
+        final Optional<MessageHash> firstPage = encryptedTransactionDAO.backfillPrivacyMetadata(null, 3);
+        assertThat(firstPage).contains(legacy.get(2).getHash());
+
+        final Optional<MessageHash> secondPage = encryptedTransactionDAO.backfillPrivacyMetadata(firstPage.get(), 3);
+        assertThat(secondPage).contains(new MessageHash(new byte[] {6}));
+
+        assertThat(encryptedTransactionDAO.backfillPrivacyMetadata(secondPage.get(), 3)).isEmpty();
+
+        legacy.forEach(transaction -> assertThat(findStoredMetadata(transaction.getHash())).isNotNull());
+        assertThat(findStoredMetadata(new MessageHash(new byte[] {6}))).isNull();
+
+        // only the transaction that could not be decoded is still without metadata
+        assertThat(encryptedTransactionDAO.backfillPrivacyMetadata(null, 3)).contains(new MessageHash(new byte[] {6}));
+    }
+
+    private TransactionPrivacyMetadata findStoredMetadata(MessageHash hash) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(TransactionPrivacyMetadata.class, hash);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void persistWithoutMetadata(EncryptedTransaction transaction) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.persist(transaction);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    // a transaction whose writer passes along the payload it encoded, as the transaction manager does
+    private static EncryptedTransaction written(MessageHash hash, PrivacyMode privacyMode, PublicKey... recipients) {
+        final EncodedPayload payload = payload(privacyMode, recipients);
+        return new EncryptedTransaction(hash, PayloadEncoder.create().encode(payload), payload);
+    }
+
+    private static void setPayload(EncryptedTransaction transaction, PrivacyMode privacyMode, PublicKey... recipients) {
+        final EncodedPayload payload = payload(privacyMode, recipients);
+        transaction.setEncodedPayload(PayloadEncoder.create().encode(payload), payload);
+    }
+
+    private static byte[] encode(PrivacyMode privacyMode, PublicKey... recipients) {
+        return PayloadEncoder.create().encode(payload(privacyMode, recipients));
+    }
+
+    private static EncodedPayload payload(PrivacyMode privacyMode, PublicKey... recipients) {
+        return EncodedPayload.Builder.create()
+                .withSenderKey(PublicKey.from("SENDER".getBytes()))
+                .withCipherText("CIPHER_TEXT".getBytes())
+                .withCipherTextNonce(new byte[24])
+                .withRecipientNonce(new byte[24])
+                .withRecipientBoxes(List.of("BOX".getBytes()))
+                .withRecipientKeys(List.of(recipients))
+                .withPrivacyMode(privacyMode)
+                .withExecHash("EXEC_HASH".getBytes())
+                .build();
+    }
+
+    @Parameterized.Parameters(name = "DB {0} {1}")
+    public static Collection<Object[]> connectionDetails() {
+        return Arrays.stream(TestConfig.values())
+                .flatMap(testConfig -> Stream.of(new Object[] {testConfig, "JPA"}, new Object[] {testConfig, "JDBC"}))
+                .collect(Collectors.toList());
     }
 
     @Test
@@ -433,4 +951,12 @@ public class EncryptedTransactionDAOTest {
 
         assertThat(encryptedTransactionDAO.upcheck()).isFalse();
     }
+
+    @Test
+    public void upcheckFailsWhenDataSourceFails() throws Exception {
+        final DataSource failingDataSource = mock(DataSource.class);
+        when(failingDataSource.getConnection()).thenThrow(new SQLException("down"));
+
+        assertThat(new JdbcEncryptedTransactionDAO(failingDataSource, 1).upcheck()).isFalse();
+    }
 }
@@ -0,0 +1,154 @@
+package com.quorum.tessera.data;
+
+import org.eclipse.persistence.internal.weaving.PersistenceWeaved;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class EncryptedTransactionLazyPayloadTest {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private TestConfig testConfig;
+
+    private MessageHash storedHash;
+
+    private byte[] storedPayload;
+
+    public EncryptedTransactionLazyPayloadTest(TestConfig testConfig) {
+        this.testConfig = testConfig;
+    }
+
+    @Before
+    public void onSetUp() {
+        Map properties = new HashMap();
+        properties.put("javax.persistence.jdbc.url", testConfig.getUrl());
+        properties.put("javax.persistence.jdbc.user", "junit");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("eclipselink.cache.shared.default", "false");
+        properties.put("eclipselink.session-name", "lazy-payload-" + testConfig);
+        properties.put("eclipselink.session-event-listener", StatementCapture.class.getName());
+        properties.put("javax.persistence.schema-generation.database.action", "create");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("tessera", properties);
+        encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+        storedHash = Utils.createHash();
+        storedPayload = Utils.randomBytes();
+        encryptedTransactionDAO.save(new EncryptedTransaction(storedHash, storedPayload));
+
+        StatementCapture.clear();
+    }
+
+    @After
+    public void onTearDown() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from TransactionPrivacyMetadata").executeUpdate();
+        entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
+        entityManager.getTransaction().commit();
+    }
+
+    @Test
+    public void entityIsWovenAtBuildTime() {
+        assertThat(new EncryptedTransaction()).isInstanceOf(PersistenceWeaved.class);
+    }
+
+    @Test
+    public void deleteDoesNotSelectPayload() {
+        encryptedTransactionDAO.delete(storedHash);
+
+        assertThat(StatementCapture.selects()).isNotEmpty().noneMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+        assertThat(encryptedTransactionDAO.retrieveByHash(storedHash)).isNotPresent();
+    }
+
+    @Test
+    public void transactionCountDoesNotSelectPayload() {
+        assertThat(encryptedTransactionDAO.transactionCount()).isEqualTo(1);
+
+        assertThat(StatementCapture.selects()).hasSize(1).noneMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Test
+    public void upcheckDoesNotSelectPayload() {
+        assertThat(encryptedTransactionDAO.upcheck()).isTrue();
+
+        assertThat(StatementCapture.selects()).hasSize(1).noneMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Test
+    public void retrieveByHashSelectsPayloadWithRow() {
+        final EncryptedTransaction transaction = encryptedTransactionDAO.retrieveByHash(storedHash).get();
+
+        assertThat(transaction.getEncodedPayload()).isEqualTo(storedPayload);
+        assertThat(StatementCapture.selects()).hasSize(1).allMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Test
+    public void findByHashesSelectsPayloadWithRows() {
+        final List<EncryptedTransaction> transactions = encryptedTransactionDAO.findByHashes(List.of(storedHash));
+
+        assertThat(transactions).extracting(EncryptedTransaction::getEncodedPayload).containsExactly(storedPayload);
+        assertThat(StatementCapture.selects()).hasSize(1).allMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Test
+    public void retrieveTransactionsSelectsPayloadWithRows() {
+        final List<EncryptedTransaction> transactions = encryptedTransactionDAO.retrieveTransactions(0, 10);
+
+        assertThat(transactions).extracting(EncryptedTransaction::getEncodedPayload).containsExactly(storedPayload);
+        assertThat(StatementCapture.selects()).hasSize(1).allMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Test
+    public void retrieveTransactionsByHashRangeSelectsPayloadWithRows() {
+        final List<EncryptedTransaction> transactions =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(null, null, 10);
+
+        assertThat(transactions).extracting(EncryptedTransaction::getEncodedPayload).containsExactly(storedPayload);
+        assertThat(StatementCapture.selects()).hasSize(1).allMatch(sql -> sql.contains("ENCODED_PAYLOAD"));
+    }
+
+    @Parameterized.Parameters(name = "DB {0}")
+    public static Collection<TestConfig> connectionDetails() {
+        return List.of(TestConfig.values());
+    }
+
+    /** Records the SQL of every statement the session executes, created by EclipseLink from its class name. */
+    public static class StatementCapture extends SessionEventAdapter {
+
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void postExecuteQuery(final SessionEvent event) {
+            Optional.ofNullable(event.getQuery().getSQLStrings()).ifPresent(STATEMENTS::addAll);
+        }
+
+        static List<String> selects() {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream()
+                        .filter(sql -> sql.trim().toUpperCase().startsWith("SELECT"))
+                        .collect(Collectors.toList());
+            }
+        }
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+    }
+}
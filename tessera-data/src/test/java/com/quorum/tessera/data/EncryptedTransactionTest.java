@@ -1,5 +1,6 @@
 package com.quorum.tessera.data;
 
+import com.quorum.tessera.enclave.EncodedPayload;
 import org.junit.Test;
 
 import java.util.Objects;
@@ -23,6 +24,14 @@ public class EncryptedTransactionTest {
         assertThat(encryptedTransaction.getEncodedPayload()).isSameAs(payload);
     }
 
+    @Test
+    public void setTimestamp() {
+        EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+        encryptedTransaction.setTimestamp(1000L);
+
+        assertThat(encryptedTransaction.getTimestamp()).isEqualTo(1000L);
+    }
+
     @Test
     public void createInstanceWithConstructorArgs() {
 
@@ -34,6 +43,22 @@ public class EncryptedTransactionTest {
         assertThat(encryptedTransaction.getEncodedPayload()).isSameAs(payload);
     }
 
+    @Test
+    public void payloadPassedWithEncodedPayloadIsKeptUntilItIsReplaced() {
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        final EncryptedTransaction encryptedTransaction =
+                new EncryptedTransaction(mock(MessageHash.class), "PAYLOAD".getBytes(), payload);
+        assertThat(encryptedTransaction.getPayload()).isSameAs(payload);
+
+        final EncodedPayload updated = mock(EncodedPayload.class);
+        encryptedTransaction.setEncodedPayload("UPDATED".getBytes(), updated);
+        assertThat(encryptedTransaction.getPayload()).isSameAs(updated);
+
+        encryptedTransaction.setEncodedPayload("OTHER".getBytes());
+        assertThat(encryptedTransaction.getPayload()).isNull();
+    }
+
     @Test
     public void subclassesEqual() {
 
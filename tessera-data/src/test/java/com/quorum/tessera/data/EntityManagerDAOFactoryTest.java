@@ -2,12 +2,27 @@ package com.quorum.tessera.data;
 
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.config.JdbcPoolConfig;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class EntityManagerDAOFactoryTest {
@@ -43,13 +58,160 @@ public class EntityManagerDAOFactoryTest {
     public void createEncryptedTransactionDAO() {
         EncryptedTransactionDAO encryptedTransactionDAO = entityManagerDAOFactory.createEncryptedTransactionDAO();
         assertThat(encryptedTransactionDAO).isNotNull();
+    }
+
+    @Test
+    public void createCachingEncryptedTransactionDAOSharingOneCachePerDatabase() throws Exception {
+        Config config = mock(Config.class);
+        JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+        when(jdbcConfig.getUrl()).thenReturn("jdbc:h2:mem:junitcache");
+        when(jdbcConfig.getTransactionCacheSize()).thenReturn(1024L);
+        when(config.getJdbcConfig()).thenReturn(jdbcConfig);
+
+        final EncryptedTransactionDAO first =
+                EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+        final EncryptedTransactionDAO second =
+                EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+
+        assertThat(first).isExactlyInstanceOf(CachingEncryptedTransactionDAO.class);
+        assertThat(second).isExactlyInstanceOf(CachingEncryptedTransactionDAO.class);
+
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final Set<ObjectName> caches =
+                mBeanServer.queryNames(new ObjectName("com.quorum.tessera:type=EncryptedTransactionCache,*"), null);
+        assertThat(caches).filteredOn(name -> 1024L == (long) getAttribute(mBeanServer, name, "MaxWeight")).hasSize(1);
+    }
+
+    @Test
+    public void factoriesWithDifferentCacheSizesSeeEachOthersWrites() throws Exception {
+        final EncryptedTransactionDAO small = cachingDAO("jdbc:h2:mem:junitcachesizes;DB_CLOSE_DELAY=-1", 2048L);
+        final EncryptedTransactionDAO large = cachingDAO("jdbc:h2:mem:junitcachesizes;DB_CLOSE_DELAY=-1", 4096L);
+
+        final EncryptedTransaction transaction = new EncryptedTransaction(Utils.createHash(), new byte[] {5});
+        small.save(transaction);
+        assertThat(large.retrieveByHash(transaction.getHash()).get().getEncodedPayload()).containsExactly(5);
+
+        transaction.setEncodedPayload(new byte[] {6});
+        small.update(transaction);
+        assertThat(large.retrieveByHash(transaction.getHash()).get().getEncodedPayload()).containsExactly(6);
+
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final Set<ObjectName> caches =
+                mBeanServer.queryNames(new ObjectName("com.quorum.tessera:type=EncryptedTransactionCache,*"), null);
+        assertThat(caches)
+                .extracting(name -> (long) getAttribute(mBeanServer, name, "MaxWeight"))
+                .contains(2048L, 4096L);
+    }
+
+    private static EncryptedTransactionDAO cachingDAO(String url, long cacheSize) {
+        final JdbcConfig jdbcConfig = new JdbcConfig("junit", "", url);
+        jdbcConfig.setAutoCreateTables(true);
+        jdbcConfig.setTransactionCacheSize(cacheSize);
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+        return EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+    }
+
+    @Test
+    public void schemaVersionTwoStoresTransactionsInSplitTables() {
+        Config config = mock(Config.class);
+        JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+        when(jdbcConfig.getUrl()).thenReturn("jdbc:h2:mem:junitv2;DB_CLOSE_DELAY=-1");
+        when(jdbcConfig.isAutoCreateTables()).thenReturn(true);
+        when(jdbcConfig.getSchemaVersion()).thenReturn(2);
+        when(config.getJdbcConfig()).thenReturn(jdbcConfig);
+
+        final EntityManagerDAOFactory factory = EntityManagerDAOFactory.newFactory(config);
+        final EncryptedTransaction transaction = new EncryptedTransaction(Utils.createHash(), new byte[] {5});
+        factory.createEncryptedTransactionDAO().save(transaction);
+
+        assertThat(factory.createEncryptedTransactionDAO().retrieveByHash(transaction.getHash())).isPresent();
+        assertThat(factory.createSplitPayloadMigration(10)).isNotNull();
+    }
+
+    @Test
+    public void bypassJpaCreatesJdbcEncryptedTransactionDAO() {
+        Config config = mock(Config.class);
+        JdbcConfig jdbcConfig = mock(JdbcConfig.class);
+        when(jdbcConfig.getUrl()).thenReturn("jdbc:h2:mem:junitjdbc");
+        when(jdbcConfig.isBypassJpa()).thenReturn(true);
+        when(config.getJdbcConfig()).thenReturn(jdbcConfig);
+
+        final EncryptedTransactionDAO encryptedTransactionDAO =
+                EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+
+        assertThat(encryptedTransactionDAO).isExactlyInstanceOf(JdbcEncryptedTransactionDAO.class);
+    }
+
+    @Test
+    public void poolConfigIsAppliedAndPoolMetricsAreRegistered() throws Exception {
+        final JdbcPoolConfig poolConfig = new JdbcPoolConfig();
+        poolConfig.setMaxPoolSize(3);
+        poolConfig.setMinIdle(1);
+        poolConfig.setConnectionTimeout(1234L);
+        poolConfig.setLeakDetectionThreshold(60000L);
+        poolConfig.setDriverProperties(Map.of("QUERY_CACHE_SIZE", "16"));
+        poolConfig.setBatchWriting(false);
+        poolConfig.setBatchWritingSize(50);
+        poolConfig.setLoggingLevel("WARNING");
+
+        final JdbcConfig jdbcConfig = new JdbcConfig("junit", "", "jdbc:h2:mem:junitpool");
+        jdbcConfig.setAutoCreateTables(true);
+        jdbcConfig.setPoolConfig(poolConfig);
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+
+        final EncryptedTransaction transaction = new EncryptedTransaction(Utils.createHash(), new byte[] {5});
+        EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO().save(transaction);
 
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final Set<ObjectName> poolConfigs =
+                mBeanServer.queryNames(new ObjectName("com.zaxxer.hikari:type=PoolConfig (*)"), null);
+        assertThat(poolConfigs)
+                .filteredOn(name -> 1234L == (long) getAttribute(mBeanServer, name, "ConnectionTimeout"))
+                .hasSize(1)
+                .allMatch(name -> 3 == (int) getAttribute(mBeanServer, name, "MaximumPoolSize"));
+        assertThat(mBeanServer.queryNames(new ObjectName("com.zaxxer.hikari:type=Pool (*)"), null)).isNotEmpty();
+    }
+
+    private static Object getAttribute(MBeanServer mBeanServer, ObjectName name, String attribute) {
+        try {
+            return mBeanServer.getAttribute(name, attribute);
+        } catch (JMException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Test
+    public void privacyMetadataTableIsFoundOnlyWhenCreated() throws Exception {
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl("jdbc:h2:mem:junitmetadata");
+        try (HikariDataSource dataSource = new HikariDataSource(hikariConfig)) {
+            assertThat(EntityManagerDAOFactory.hasPrivacyMetadataTable(dataSource)).isFalse();
+
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE TRANSACTION_PRIVACY_METADATA (HASH VARBINARY(100) NOT NULL)");
+            }
+
+            assertThat(EntityManagerDAOFactory.hasPrivacyMetadataTable(dataSource)).isTrue();
+        }
+    }
+
+    @Test
+    public void failureToRegisterMBeanIsIgnored() throws Exception {
+        final MBeanServer mBeanServer = mock(MBeanServer.class);
+        final Object mBean = new Object();
+        when(mBeanServer.registerMBean(any(), any(ObjectName.class))).thenThrow(new InstanceAlreadyExistsException());
+
+        EntityManagerDAOFactory.registerMBean(mBeanServer, mBean, "com.quorum.tessera:type=Test");
+
+        verify(mBeanServer).registerMBean(mBean, new ObjectName("com.quorum.tessera:type=Test"));
     }
 
     @Test
     public void createStagingEntityDAO() {
         StagingEntityDAO stagingEntityDAO = entityManagerDAOFactory.createStagingEntityDAO();
         assertThat(stagingEntityDAO).isNotNull();
-
     }
 }
@@ -0,0 +1,56 @@
+package com.quorum.tessera.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+public class PrivacyMetadataBackfillTest {
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private PrivacyMetadataBackfill backfill;
+
+    @Before
+    public void onSetUp() {
+        encryptedTransactionDAO = mock(EncryptedTransactionDAO.class);
+        backfill = new PrivacyMetadataBackfill(encryptedTransactionDAO);
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(encryptedTransactionDAO);
+    }
+
+    @Test
+    public void pagesUntilNoTransactionsRemain() {
+        final MessageHash first = new MessageHash(new byte[] {1});
+        final MessageHash second = new MessageHash(new byte[] {2});
+
+        when(encryptedTransactionDAO.backfillPrivacyMetadata(null, PrivacyMetadataBackfill.PAGE_SIZE))
+                .thenReturn(Optional.of(first));
+        when(encryptedTransactionDAO.backfillPrivacyMetadata(first, PrivacyMetadataBackfill.PAGE_SIZE))
+                .thenReturn(Optional.of(second));
+        when(encryptedTransactionDAO.backfillPrivacyMetadata(second, PrivacyMetadataBackfill.PAGE_SIZE))
+                .thenReturn(Optional.empty());
+
+        backfill.run();
+
+        verify(encryptedTransactionDAO).backfillPrivacyMetadata(null, PrivacyMetadataBackfill.PAGE_SIZE);
+        verify(encryptedTransactionDAO).backfillPrivacyMetadata(first, PrivacyMetadataBackfill.PAGE_SIZE);
+        verify(encryptedTransactionDAO).backfillPrivacyMetadata(second, PrivacyMetadataBackfill.PAGE_SIZE);
+    }
+
+    @Test
+    public void failureStopsBackfill() {
+        when(encryptedTransactionDAO.backfillPrivacyMetadata(null, PrivacyMetadataBackfill.PAGE_SIZE))
+                .thenThrow(new IllegalStateException("no table"));
+
+        backfill.run();
+
+        verify(encryptedTransactionDAO).backfillPrivacyMetadata(null, PrivacyMetadataBackfill.PAGE_SIZE);
+    }
+}
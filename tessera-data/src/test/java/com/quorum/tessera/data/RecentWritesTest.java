@@ -0,0 +1,63 @@
+package com.quorum.tessera.data;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecentWritesTest {
+
+    private AtomicLong now;
+
+    private RecentWrites recentWrites;
+
+    @Before
+    public void onSetUp() {
+        now = new AtomicLong(1000);
+        recentWrites = new RecentWrites(100, now::get);
+    }
+
+    @Test
+    public void writeIsRecentUntilWindowHasPassed() {
+        final MessageHash hash = new MessageHash(new byte[] {1});
+        recentWrites.record(hash);
+
+        now.addAndGet(99);
+        assertThat(recentWrites.contains(hash)).isTrue();
+
+        now.addAndGet(1);
+        assertThat(recentWrites.contains(hash)).isFalse();
+    }
+
+    @Test
+    public void rewriteKeepsHashRecent() {
+        final MessageHash hash = new MessageHash(new byte[] {1});
+        recentWrites.record(hash);
+        now.addAndGet(50);
+        recentWrites.record(hash);
+
+        now.addAndGet(50);
+        assertThat(recentWrites.contains(hash)).isTrue();
+
+        now.addAndGet(50);
+        assertThat(recentWrites.contains(hash)).isFalse();
+    }
+
+    @Test
+    public void unknownHashIsNotRecent() {
+        recentWrites.record(new MessageHash(new byte[] {1}));
+
+        assertThat(recentWrites.contains(new MessageHash(new byte[] {2}))).isFalse();
+    }
+
+    @Test
+    public void emptyWindowKeepsNothing() {
+        final RecentWrites noWindow = new RecentWrites(0);
+        final MessageHash hash = new MessageHash(new byte[] {1});
+        noWindow.record(hash);
+
+        assertThat(noWindow.contains(hash)).isFalse();
+    }
+}
@@ -0,0 +1,221 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against two H2 file databases, a primary and its replica. The test replicates by copying the whole primary over
+ * the replica, so until it does the replica lags behind.
+ */
+@RunWith(Parameterized.class)
+public class ReplicaReadingEncryptedTransactionDAOTest {
+
+    private static final Path DATABASES = Paths.get("target", "replicas");
+
+    private final boolean bypassJpa;
+
+    private String primaryUrl;
+
+    private String replicaUrl;
+
+    private Path script;
+
+    public ReplicaReadingEncryptedTransactionDAOTest(final String implementation) {
+        this.bypassJpa = "JDBC".equals(implementation);
+    }
+
+    @Before
+    public void onSetUp() {
+        // the databases outlive the test, so each test gets new ones
+        final String name = UUID.randomUUID().toString();
+        primaryUrl = "jdbc:h2:file:./" + DATABASES.resolve(name + "-primary");
+        replicaUrl = "jdbc:h2:file:./" + DATABASES.resolve(name + "-replica");
+        script = DATABASES.resolve(name + ".sql");
+    }
+
+    private EncryptedTransactionDAO createDAO(final long replicaLagMillis) throws SQLException {
+        final JdbcConfig jdbcConfig = new JdbcConfig("junit", "", primaryUrl);
+        jdbcConfig.setAutoCreateTables(true);
+        jdbcConfig.setBypassJpa(bypassJpa);
+        jdbcConfig.setReplicaUrls(List.of(replicaUrl));
+        jdbcConfig.setReplicaLagMillis(replicaLagMillis);
+
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+
+        final EncryptedTransactionDAO encryptedTransactionDAO =
+                EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+        replicate();
+        return encryptedTransactionDAO;
+    }
+
+    private void replicate() throws SQLException {
+        try (Connection primary = DriverManager.getConnection(primaryUrl, "junit", "");
+                Statement statement = primary.createStatement()) {
+            statement.execute("SCRIPT TO '" + script + "'");
+        }
+        try (Connection replica = DriverManager.getConnection(replicaUrl, "junit", "");
+                Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+        }
+    }
+
+    private void updatePrimaryPayload(final MessageHash hash, final byte[] payload) throws SQLException {
+        try (Connection primary = DriverManager.getConnection(primaryUrl, "junit", "");
+                PreparedStatement statement =
+                        primary.prepareStatement(
+                                "UPDATE ENCRYPTED_TRANSACTION SET ENCODED_PAYLOAD = ? WHERE HASH = ?")) {
+            statement.setBytes(1, payload);
+            statement.setBytes(2, hash.getHashBytes());
+            statement.executeUpdate();
+        }
+    }
+
+    @Test
+    public void readsAreServedByReplica() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(0);
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+        replicate();
+
+        updatePrimaryPayload(transaction.getHash(), new byte[] {6});
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {5});
+        assertThat(encryptedTransactionDAO.findByHashes(List.of(transaction.getHash())))
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactly(new byte[] {5});
+        assertThat(encryptedTransactionDAO.retrieveTransactions(0, 10))
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactly(new byte[] {5});
+        assertThat(encryptedTransactionDAO.retrieveTransactionsByHashRange(null, null, 10))
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactly(new byte[] {5});
+    }
+
+    @Test
+    public void readsForUpdateAreServedByPrimary() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(0);
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+        replicate();
+
+        // another node sharing the database updates the transaction, and the replica has not caught up yet
+        updatePrimaryPayload(transaction.getHash(), new byte[] {6});
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {5});
+        assertThat(encryptedTransactionDAO.retrieveByHashForUpdate(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {6});
+        assertThat(encryptedTransactionDAO.retrieveByHashForUpdate(new MessageHash(new byte[] {2}))).isEmpty();
+    }
+
+    @Test
+    public void countAndScansTolerateReplicaLag() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(60000);
+        encryptedTransactionDAO.save(new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5}));
+        replicate();
+        encryptedTransactionDAO.save(new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6}));
+
+        assertThat(encryptedTransactionDAO.transactionCount()).isEqualTo(1);
+        assertThat(encryptedTransactionDAO.retrieveTransactions(0, 10)).hasSize(1);
+    }
+
+    @Test
+    public void recentlyWrittenTransactionsAreReadFromPrimary() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(60000);
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+        replicate();
+
+        transaction.setEncodedPayload(new byte[] {6});
+        encryptedTransactionDAO.update(transaction);
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {6});
+        assertThat(encryptedTransactionDAO.findByHashes(List.of(transaction.getHash())))
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactly(new byte[] {6});
+
+        encryptedTransactionDAO.delete(transaction.getHash());
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash())).isEmpty();
+    }
+
+    @Test
+    public void transactionsMissingFromReplicaAreReadFromPrimary() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(0);
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(PublicKey.from("SENDER".getBytes()))
+                        .withCipherText("CIPHER_TEXT".getBytes())
+                        .withCipherTextNonce(new byte[24])
+                        .withRecipientNonce(new byte[24])
+                        .withRecipientBoxes(List.of("BOX".getBytes()))
+                        .withRecipientKeys(List.of(PublicKey.from("RECIPIENT".getBytes())))
+                        .build();
+        final EncryptedTransaction replicated =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), PayloadEncoder.create().encode(payload));
+        encryptedTransactionDAO.save(replicated);
+        replicate();
+
+        final EncryptedTransaction notReplicated =
+                new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        encryptedTransactionDAO.saveAll(List.of(notReplicated), () -> null);
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(notReplicated.getHash())).isPresent();
+        assertThat(encryptedTransactionDAO.retrieveByHash(new MessageHash(new byte[] {3}))).isEmpty();
+        assertThat(encryptedTransactionDAO.findByHashes(List.of(replicated.getHash(), notReplicated.getHash())))
+                .extracting(EncryptedTransaction::getHash)
+                .containsExactlyInAnyOrder(replicated.getHash(), notReplicated.getHash());
+        assertThat(encryptedTransactionDAO.findPrivacyMetadataByHashes(List.of(replicated.getHash())))
+                .extracting(TransactionPrivacyMetadata::getHash)
+                .containsExactly(replicated.getHash());
+        assertThat(encryptedTransactionDAO.findByHashes(null)).isEmpty();
+    }
+
+    @Test
+    public void writesGoToPrimary() throws SQLException {
+        final EncryptedTransactionDAO encryptedTransactionDAO = createDAO(60000);
+        final EncryptedTransaction first = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        final EncryptedTransaction second = new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+
+        encryptedTransactionDAO.save(first, () -> null);
+        second.setEncodedPayload(new byte[] {7});
+        encryptedTransactionDAO.saveAll(List.of(second), List.of(first));
+
+        assertThat(encryptedTransactionDAO.findByHashes(List.of(first.getHash(), second.getHash()))).hasSize(2);
+        assertThat(encryptedTransactionDAO.backfillPrivacyMetadata(null, 10)).isPresent();
+        assertThat(encryptedTransactionDAO.upcheck()).isTrue();
+        assertThat(encryptedTransactionDAO.transactionCount()).isZero();
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<String> implementations() {
+        return List.of("JPA", "JDBC");
+    }
+}
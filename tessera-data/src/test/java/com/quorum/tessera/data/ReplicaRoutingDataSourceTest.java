@@ -0,0 +1,144 @@
+package com.quorum.tessera.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private DataSource firstReplica;
+
+    private DataSource secondReplica;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @Before
+    public void onSetUp() {
+        primary = mock(DataSource.class);
+        firstReplica = mock(DataSource.class);
+        secondReplica = mock(DataSource.class);
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica));
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(primary, firstReplica, secondReplica);
+    }
+
+    @Test
+    public void connectionsComeFromPrimaryOutsideReads() throws Exception {
+        final Connection connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(connection);
+        when(primary.getConnection("junit", "")).thenReturn(connection);
+
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+        assertThat(dataSource.getConnection("junit", "")).isSameAs(connection);
+
+        verify(primary).getConnection();
+        verify(primary).getConnection("junit", "");
+    }
+
+    @Test
+    public void readsTakeConnectionsFromReplicasInTurn() throws Exception {
+        final Connection first = mock(Connection.class);
+        final Connection second = mock(Connection.class);
+        when(firstReplica.getConnection()).thenReturn(first);
+        when(secondReplica.getConnection("junit", "")).thenReturn(second);
+
+        final List<Connection> connections =
+                dataSource.readOnly(
+                        () -> {
+                            try {
+                                return List.of(dataSource.getConnection(), dataSource.getConnection("junit", ""));
+                            } catch (Exception ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+
+        assertThat(connections).containsExactly(first, second);
+
+        verify(firstReplica).getConnection();
+        verify(secondReplica).getConnection("junit", "");
+    }
+
+    @Test
+    public void nestedReadRestoresReadOnlyRouting() throws Exception {
+        final Connection connection = mock(Connection.class);
+        when(firstReplica.getConnection()).thenReturn(connection);
+
+        final Connection afterNestedRead =
+                dataSource.readOnly(
+                        () -> {
+                            dataSource.readOnly(() -> null);
+                            try {
+                                return dataSource.getConnection();
+                            } catch (Exception ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+
+        assertThat(afterNestedRead).isSameAs(connection);
+
+        verify(firstReplica).getConnection();
+    }
+
+    @Test
+    public void readsUsePrimaryWithoutReplicas() throws Exception {
+        final Connection connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(connection);
+        final ReplicaRoutingDataSource primaryOnly = new ReplicaRoutingDataSource(primary, List.of());
+
+        final Connection read =
+                primaryOnly.readOnly(
+                        () -> {
+                            try {
+                                return primaryOnly.getConnection();
+                            } catch (Exception ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+
+        assertThat(read).isSameAs(connection);
+
+        verify(primary).getConnection();
+    }
+
+    @Test
+    public void otherMethodsDelegateToPrimary() throws Exception {
+        final PrintWriter printWriter = mock(PrintWriter.class);
+        final Logger logger = Logger.getAnonymousLogger();
+        when(primary.getLogWriter()).thenReturn(printWriter);
+        when(primary.getLoginTimeout()).thenReturn(10);
+        when(primary.getParentLogger()).thenReturn(logger);
+        when(primary.unwrap(DataSource.class)).thenReturn(primary);
+        when(primary.isWrapperFor(DataSource.class)).thenReturn(true);
+
+        dataSource.setLogWriter(printWriter);
+        dataSource.setLoginTimeout(10);
+
+        assertThat(dataSource.getLogWriter()).isSameAs(printWriter);
+        assertThat(dataSource.getLoginTimeout()).isEqualTo(10);
+        assertThat(dataSource.getParentLogger()).isSameAs(logger);
+        assertThat(dataSource.unwrap(DataSource.class)).isSameAs(primary);
+        assertThat(dataSource.isWrapperFor(DataSource.class)).isTrue();
+
+        verify(primary).setLogWriter(printWriter);
+        verify(primary).setLoginTimeout(10);
+        verify(primary).getLogWriter();
+        verify(primary).getLoginTimeout();
+        verify(primary).getParentLogger();
+        verify(primary).unwrap(DataSource.class);
+        verify(primary).isWrapperFor(DataSource.class);
+    }
+}
@@ -0,0 +1,228 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.PersistenceException;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@RunWith(Parameterized.class)
+public class SplitPayloadMigrationTest {
+
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private final String urlTemplate;
+
+    private String url;
+
+    private EntityManagerDAOFactory legacyFactory;
+
+    private EntityManagerDAOFactory splitFactory;
+
+    public SplitPayloadMigrationTest(final String name, final String urlTemplate) {
+        this.urlTemplate = urlTemplate;
+    }
+
+    @Before
+    public void onSetUp() {
+        // the migration uses connections of its own, so each test gets a named database that outlives any connection
+        url = String.format(urlTemplate, DATABASE_COUNT.incrementAndGet());
+        legacyFactory = EntityManagerDAOFactory.newFactory(config(1));
+        splitFactory = EntityManagerDAOFactory.newFactory(config(2));
+    }
+
+    private Config config(final int schemaVersion) {
+        final JdbcConfig jdbcConfig = new JdbcConfig("junit", "", url);
+        jdbcConfig.setAutoCreateTables(true);
+        jdbcConfig.setSchemaVersion(schemaVersion);
+
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+        return config;
+    }
+
+    @Test
+    public void copiesAllPagesAndSkipsMigratedRows() {
+        final List<EncryptedTransaction> transactions =
+                IntStream.range(0, 5)
+                        .mapToObj(i -> new EncryptedTransaction(Utils.createHash(), new byte[] {(byte) i}))
+                        .collect(Collectors.toList());
+        final EncryptedTransactionDAO legacyDAO = legacyFactory.createEncryptedTransactionDAO();
+        legacyDAO.saveAll(transactions.subList(0, 2), List.of());
+
+        final EncryptedTransactionDAO splitDAO = splitFactory.createEncryptedTransactionDAO();
+        splitDAO.save(transactions.get(0));
+
+        legacyDAO.saveAll(transactions.subList(2, 5), List.of());
+
+        final SplitPayloadMigration.Result result = splitFactory.createSplitPayloadMigration(2).migrate(3);
+
+        assertThat(result.getCopied()).isEqualTo(4);
+        assertThat(result.getRefreshed()).isZero();
+        assertThat(result.getDeleted()).isZero();
+        assertThat(splitDAO.transactionCount()).isEqualTo(5);
+        transactions.forEach(
+                transaction ->
+                        assertThat(splitDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                                .isEqualTo(transaction.getEncodedPayload()));
+
+        assertThat(splitFactory.createSplitPayloadMigration(2).migrate(3).total()).isZero();
+    }
+
+    @Test
+    public void stopsAfterMaxPasses() {
+        legacyFactory
+                .createEncryptedTransactionDAO()
+                .save(new EncryptedTransaction(Utils.createHash(), new byte[] {1}));
+
+        assertThat(splitFactory.createSplitPayloadMigration(10).migrate(1).getCopied()).isEqualTo(1);
+        assertThat(splitFactory.createEncryptedTransactionDAO().transactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void refreshesPayloadsUpdatedAfterTheyWereCopied() {
+        final MessageHash hash = Utils.createHash();
+        final MessageHash otherHash = Utils.createHash();
+        final EncryptedTransactionDAO legacyDAO = legacyFactory.createEncryptedTransactionDAO();
+        legacyDAO.saveAll(
+                List.of(
+                        new EncryptedTransaction(hash, new byte[] {1}),
+                        new EncryptedTransaction(otherHash, new byte[] {2})),
+                List.of());
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).getCopied()).isEqualTo(2);
+
+        // a node adds to the payload after it was copied
+        final EncryptedTransaction updated = legacyDAO.retrieveByHash(hash).get();
+        updated.setEncodedPayload(new byte[] {1, 2});
+        legacyDAO.update(updated);
+
+        final SplitPayloadMigration.Result result = splitFactory.createSplitPayloadMigration(1).migrate(3);
+        assertThat(result.getRefreshed()).isEqualTo(1);
+        assertThat(result.total()).isEqualTo(1);
+
+        final EncryptedTransactionDAO splitDAO = splitFactory.createEncryptedTransactionDAO();
+        assertThat(splitDAO.retrieveByHash(hash).get().getEncodedPayload()).containsExactly(1, 2);
+        assertThat(splitDAO.retrieveByHash(otherHash).get().getEncodedPayload()).containsExactly(2);
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).total()).isZero();
+    }
+
+    @Test
+    public void refreshesPayloadsUpdatedWithoutChangingLength() {
+        final MessageHash hash = Utils.createHash();
+        final EncryptedTransactionDAO legacyDAO = legacyFactory.createEncryptedTransactionDAO();
+        legacyDAO.save(new EncryptedTransaction(hash, new byte[] {1, 2}));
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).getCopied()).isEqualTo(1);
+
+        // reordering the recipients of a transaction keeps the length of its payload
+        final EncryptedTransaction updated = legacyDAO.retrieveByHash(hash).get();
+        updated.setEncodedPayload(new byte[] {2, 1});
+        legacyDAO.update(updated);
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).getRefreshed()).isEqualTo(1);
+        assertThat(splitFactory.createEncryptedTransactionDAO().retrieveByHash(hash).get().getEncodedPayload())
+                .containsExactly(2, 1);
+    }
+
+    @Test
+    public void deletesCopiesOfTransactionsDeletedAfterTheyWereCopied() {
+        final List<EncryptedTransaction> transactions =
+                IntStream.range(0, 3)
+                        .mapToObj(i -> new EncryptedTransaction(Utils.createHash(), new byte[] {(byte) i}))
+                        .collect(Collectors.toList());
+        final EncryptedTransactionDAO legacyDAO = legacyFactory.createEncryptedTransactionDAO();
+        legacyDAO.saveAll(transactions, List.of());
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).getCopied()).isEqualTo(3);
+
+        // a node deletes a transaction between passes
+        legacyDAO.delete(transactions.get(1).getHash());
+
+        final SplitPayloadMigration.Result result = splitFactory.createSplitPayloadMigration(1).migrate(3);
+        assertThat(result.getDeleted()).isEqualTo(1);
+        assertThat(result.total()).isEqualTo(1);
+
+        final EncryptedTransactionDAO splitDAO = splitFactory.createEncryptedTransactionDAO();
+        assertThat(splitDAO.transactionCount()).isEqualTo(2);
+        assertThat(splitDAO.retrieveByHash(transactions.get(1).getHash())).isEmpty();
+        assertThat(splitDAO.retrieveByHash(transactions.get(0).getHash())).isPresent();
+        assertThat(splitDAO.retrieveByHash(transactions.get(2).getHash())).isPresent();
+
+        // with the old table empty, every copy is of a deleted transaction
+        legacyDAO.delete(transactions.get(0).getHash());
+        legacyDAO.delete(transactions.get(2).getHash());
+
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).getDeleted()).isEqualTo(2);
+        assertThat(splitDAO.transactionCount()).isZero();
+        assertThat(splitFactory.createSplitPayloadMigration(1).migrate(3).total()).isZero();
+    }
+
+    @Test
+    public void comparesPayloadsAsLobsOnOracle() throws SQLException {
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("Oracle");
+        final Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        final PreparedStatement pageStatement = mock(PreparedStatement.class);
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getBytes(1)).thenReturn(new byte[] {1});
+        when(pageStatement.executeQuery()).thenReturn(resultSet);
+        when(connection.prepareStatement(anyString())).thenReturn(pageStatement);
+        final DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        assertThat(new SplitPayloadMigration(dataSource, 10).migrate(1).total()).isZero();
+
+        verify(connection)
+                .prepareStatement(contains("DBMS_LOB.COMPARE(s.ENCODED_PAYLOAD, TX_PAYLOAD.PAYLOAD) END <> 0"));
+        verify(connection, times(2)).commit();
+    }
+
+    @Test
+    public void failedPageIsRolledBack() throws SQLException {
+        final DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        final Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("no table"));
+        final DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        final Throwable throwable = catchThrowable(() -> new SplitPayloadMigration(dataSource, 10).migrate(1));
+
+        assertThat(throwable).isInstanceOf(PersistenceException.class).hasMessageContaining("no table");
+        verify(connection).setAutoCommit(false);
+        verify(connection).rollback();
+        verify(connection).close();
+    }
+
+    @Parameterized.Parameters(name = "DB {0}")
+    public static Collection<Object[]> connectionDetails() {
+        return List.of(
+                new Object[] {"H2", "jdbc:h2:mem:splitpayload%d;DB_CLOSE_DELAY=-1"},
+                new Object[] {"HSQL", "jdbc:hsqldb:mem:splitpayload%d"},
+                new Object[] {"SQLITE", "jdbc:sqlite:file:splitpayload%d?mode=memory&cache=shared"});
+    }
+}
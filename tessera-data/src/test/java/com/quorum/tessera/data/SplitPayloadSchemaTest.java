@@ -0,0 +1,204 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.data.EncryptedTransactionLazyPayloadTest.StatementCapture;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeFalse;
+
+@RunWith(Parameterized.class)
+public class SplitPayloadSchemaTest {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private TestConfig testConfig;
+
+    private boolean bypassJpa;
+
+    private HikariDataSource dataSource;
+
+    public SplitPayloadSchemaTest(TestConfig testConfig, String implementation) {
+        this.testConfig = testConfig;
+        this.bypassJpa = "JDBC".equals(implementation);
+    }
+
+    @Before
+    public void onSetUp() {
+        Map properties = new HashMap();
+        properties.put("javax.persistence.jdbc.url", testConfig.getUrl());
+        properties.put("javax.persistence.jdbc.user", "junit");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("eclipselink.cache.shared.default", "false");
+        properties.put("eclipselink.session-name", "split-payload-" + testConfig);
+        properties.put("eclipselink.session-event-listener", StatementCapture.class.getName());
+        properties.put("javax.persistence.schema-generation.database.action", "create");
+
+        entityManagerFactory = Persistence.createEntityManagerFactory("tessera-v2", properties);
+        encryptedTransactionDAO = new EncryptedTransactionDAOImpl(entityManagerFactory);
+
+        if (bypassJpa) {
+            final HikariConfig hikariConfig = new HikariConfig();
+            hikariConfig.setJdbcUrl(testConfig.getUrl());
+            hikariConfig.setUsername("junit");
+            hikariConfig.setPassword("");
+            dataSource = new HikariDataSource(hikariConfig);
+            encryptedTransactionDAO = new JdbcEncryptedTransactionDAO(dataSource, 2);
+        }
+    }
+
+    @After
+    public void onTearDown() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createQuery("delete from TransactionPrivacyMetadata").executeUpdate();
+        entityManager.createQuery("delete from EncryptedTransaction").executeUpdate();
+        entityManager.getTransaction().commit();
+
+        if (bypassJpa) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void saveStoresIndexAndPayloadRows() {
+        final EncryptedTransaction transaction = new EncryptedTransaction(Utils.createHash(), new byte[] {5});
+
+        encryptedTransactionDAO.save(transaction);
+
+        assertThat(countRows("TX_INDEX")).isEqualTo(1);
+        assertThat(countRows("TX_PAYLOAD")).isEqualTo(1);
+        assertThat(encryptedTransactionDAO.retrieveByHash(transaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {5});
+    }
+
+    @Test
+    public void transactionCountReadsOnlyIndexTable() {
+        assumeFalse(bypassJpa);
+        encryptedTransactionDAO.save(new EncryptedTransaction(Utils.createHash(), new byte[] {5}));
+        encryptedTransactionDAO.save(new EncryptedTransaction(Utils.createHash(), new byte[] {6}));
+        StatementCapture.clear();
+
+        assertThat(encryptedTransactionDAO.transactionCount()).isEqualTo(2);
+
+        assertThat(StatementCapture.selects()).hasSize(1).noneMatch(sql -> sql.contains("TX_PAYLOAD"));
+    }
+
+    @Test
+    public void saveAllUpdatesPayloadTable() {
+        final EncryptedTransaction existing = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(existing);
+
+        final EncryptedTransaction newTransaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        existing.setEncodedPayload(new byte[] {7});
+
+        encryptedTransactionDAO.saveAll(List.of(newTransaction), List.of(existing));
+
+        assertThat(encryptedTransactionDAO.retrieveByHash(newTransaction.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {6});
+        assertThat(encryptedTransactionDAO.retrieveByHash(existing.getHash()).get().getEncodedPayload())
+                .isEqualTo(new byte[] {7});
+    }
+
+    @Test
+    public void deleteRemovesIndexAndPayloadRows() {
+        final EncryptedTransaction transaction = new EncryptedTransaction(Utils.createHash(), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+
+        encryptedTransactionDAO.delete(transaction.getHash());
+
+        assertThat(countRows("TX_INDEX")).isZero();
+        assertThat(countRows("TX_PAYLOAD")).isZero();
+    }
+
+    @Test
+    public void retrieveTransactionsByHashRangeReadsPayloads() {
+        final EncryptedTransaction first = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        final EncryptedTransaction second = new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        encryptedTransactionDAO.saveAll(List.of(first, second), List.of());
+
+        final List<EncryptedTransaction> transactions =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(first.getHash(), null, 10);
+
+        assertThat(transactions).extracting(EncryptedTransaction::getEncodedPayload).containsExactly(new byte[] {6});
+    }
+
+    @Test
+    public void retrieveTransactionsByHashRangeJoinsPayloadsOfPageOnly() {
+        assumeFalse(bypassJpa);
+        final List<EncryptedTransaction> transactions =
+                List.of(
+                        new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5}),
+                        new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6}),
+                        new EncryptedTransaction(new MessageHash(new byte[] {3}), new byte[] {7}),
+                        new EncryptedTransaction(new MessageHash(new byte[] {4}), new byte[] {8}));
+        encryptedTransactionDAO.saveAll(transactions, List.of());
+        StatementCapture.clear();
+
+        final List<EncryptedTransaction> page =
+                encryptedTransactionDAO.retrieveTransactionsByHashRange(
+                        transactions.get(0).getHash(), transactions.get(3).getHash(), 2);
+
+        assertThat(page)
+                .extracting(EncryptedTransaction::getHash)
+                .containsExactly(transactions.get(1).getHash(), transactions.get(2).getHash());
+        assertThat(page)
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactly(new byte[] {6}, new byte[] {7});
+        assertThat(StatementCapture.selects()).hasSize(2);
+        assertThat(StatementCapture.selects().get(0)).doesNotContain("TX_PAYLOAD");
+    }
+
+    @Test
+    public void retrieveTransactionsByHashRangePastLastHashIsEmpty() {
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        encryptedTransactionDAO.save(transaction);
+
+        assertThat(encryptedTransactionDAO.retrieveTransactionsByHashRange(transaction.getHash(), null, 10)).isEmpty();
+    }
+
+    private long countRows(final String table) {
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult())
+                    .longValue();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    public void transactionCountAndRetrieveTransactions() {
+        final EncryptedTransaction first = new EncryptedTransaction(new MessageHash(new byte[] {1}), new byte[] {5});
+        final EncryptedTransaction second = new EncryptedTransaction(new MessageHash(new byte[] {2}), new byte[] {6});
+        encryptedTransactionDAO.saveAll(List.of(first, second), List.of());
+
+        assertThat(encryptedTransactionDAO.transactionCount()).isEqualTo(2);
+        assertThat(encryptedTransactionDAO.retrieveTransactions(0, 10))
+                .extracting(EncryptedTransaction::getEncodedPayload)
+                .containsExactlyInAnyOrder(new byte[] {5}, new byte[] {6});
+    }
+
+    @Parameterized.Parameters(name = "DB {0} {1}")
+    public static Collection<Object[]> connectionDetails() {
+        return Arrays.stream(TestConfig.values())
+                .flatMap(testConfig -> Stream.of(new Object[] {testConfig, "JPA"}, new Object[] {testConfig, "JDBC"}))
+                .collect(Collectors.toList());
+    }
+}
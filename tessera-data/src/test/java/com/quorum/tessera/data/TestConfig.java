@@ -6,7 +6,8 @@ public enum TestConfig {
             "jdbc:hsqldb:mem:test",
             "integrity constraint violation: NOT NULL check constraint",
             "unique constraint or index violation"),
-    SQLITE("jdbc:sqlite:", "NOT NULL constraint failed", "UNIQUE constraint failed");
+    // a named in-memory database, so every connection of a pool sees the same tables
+    SQLITE("jdbc:sqlite:file:test?mode=memory&cache=shared", "NOT NULL constraint failed", "UNIQUE constraint failed");
 
     private String url;
 
@@ -0,0 +1,132 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.PublicKey;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TransactionPrivacyMetadataTest {
+
+    private static final PublicKey RECIPIENT = PublicKey.from("RECIPIENT".getBytes());
+
+    private static final PublicKey OTHER_RECIPIENT = PublicKey.from("OTHER_RECIPIENT_KEY".getBytes());
+
+    @Test
+    public void createFromPayload() {
+
+        final MessageHash hash = new MessageHash("HASH".getBytes());
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .withRecipientKeys(List.of(RECIPIENT, OTHER_RECIPIENT))
+                        .withExecHash("EXEC_HASH".getBytes())
+                        .build();
+
+        final TransactionPrivacyMetadata metadata = new TransactionPrivacyMetadata(hash, payload);
+
+        assertThat(metadata.getHash()).isSameAs(hash);
+        assertThat(metadata.getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(metadata.getRecipientKeys()).containsExactly(RECIPIENT, OTHER_RECIPIENT);
+        assertThat(metadata.getExecHash()).isEqualTo("EXEC_HASH".getBytes());
+    }
+
+    @Test
+    public void missingPrivacyModeIsStandardPrivate() {
+
+        final EncodedPayload payload = EncodedPayload.Builder.create().withPrivacyMode(null).build();
+
+        final TransactionPrivacyMetadata metadata =
+                new TransactionPrivacyMetadata(new MessageHash("HASH".getBytes()), payload);
+
+        assertThat(metadata.getPrivacyMode()).isEqualTo(PrivacyMode.STANDARD_PRIVATE);
+        assertThat(metadata.getRecipientKeys()).isEmpty();
+    }
+
+    @Test
+    public void emptyInstanceHasNoRecipients() {
+        assertThat(new TransactionPrivacyMetadata().getRecipientKeys()).isEmpty();
+    }
+
+    @Test
+    public void createFromEncryptedTransaction() {
+
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(PublicKey.from("SENDER".getBytes()))
+                        .withCipherText("CIPHER_TEXT".getBytes())
+                        .withCipherTextNonce(new byte[24])
+                        .withRecipientNonce(new byte[24])
+                        .withRecipientBoxes(List.of("BOX".getBytes()))
+                        .withRecipientKeys(List.of(RECIPIENT))
+                        .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+                        .build();
+        final MessageHash hash = new MessageHash("HASH".getBytes());
+
+        final TransactionPrivacyMetadata metadata =
+                TransactionPrivacyMetadata.from(
+                        new EncryptedTransaction(hash, PayloadEncoder.create().encode(payload)));
+
+        assertThat(metadata.getHash()).isEqualTo(hash);
+        assertThat(metadata.getPrivacyMode()).isEqualTo(PrivacyMode.PARTY_PROTECTION);
+        assertThat(metadata.getRecipientKeys()).containsExactly(RECIPIENT);
+        assertThat(
+                        TransactionPrivacyMetadata.backfill(
+                                new EncryptedTransaction(hash, PayloadEncoder.create().encode(payload))))
+                .contains(metadata);
+    }
+
+    @Test
+    public void payloadThatCannotBeDecodedIsReported() {
+
+        final EncryptedTransaction transaction =
+                new EncryptedTransaction(new MessageHash("HASH".getBytes()), new byte[] {5});
+
+        assertThatThrownBy(() -> TransactionPrivacyMetadata.from(transaction)).isInstanceOf(RuntimeException.class);
+        assertThat(TransactionPrivacyMetadata.backfill(transaction)).isEmpty();
+    }
+
+    @Test
+    public void writtenTransactionHasMetadataOfPayloadPassedWithIt() {
+
+        final EncodedPayload payload =
+                EncodedPayload.Builder.create()
+                        .withRecipientKeys(List.of(RECIPIENT))
+                        .withPrivacyMode(PrivacyMode.PRIVATE_STATE_VALIDATION)
+                        .build();
+        final MessageHash hash = new MessageHash("HASH".getBytes());
+
+        // the encoded bytes are never decoded, the payload passed along is used
+        final Optional<TransactionPrivacyMetadata> metadata =
+                TransactionPrivacyMetadata.ofWritten(new EncryptedTransaction(hash, new byte[] {5}, payload));
+
+        assertThat(metadata).isPresent();
+        assertThat(metadata.get().getPrivacyMode()).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        assertThat(metadata.get().getRecipientKeys()).containsExactly(RECIPIENT);
+        assertThat(TransactionPrivacyMetadata.ofWritten(new EncryptedTransaction(hash, new byte[] {5}))).isEmpty();
+    }
+
+    @Test
+    public void equalityIsByHash() {
+
+        final EncodedPayload payload = EncodedPayload.Builder.create().build();
+        final TransactionPrivacyMetadata metadata =
+                new TransactionPrivacyMetadata(new MessageHash("HASH".getBytes()), payload);
+        final TransactionPrivacyMetadata same =
+                new TransactionPrivacyMetadata(
+                        new MessageHash("HASH".getBytes()),
+                        EncodedPayload.Builder.create().withPrivacyMode(PrivacyMode.PARTY_PROTECTION).build());
+        final TransactionPrivacyMetadata other =
+                new TransactionPrivacyMetadata(new MessageHash("OTHER".getBytes()), payload);
+
+        assertThat(metadata).isEqualTo(same).hasSameHashCodeAs(same).isNotEqualTo(other);
+        assertThat(Objects.equals(metadata, "HASH")).isFalse();
+    }
+}
@@ -0,0 +1,101 @@
+package com.quorum.tessera.data;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the scans resend and recovery make over the transaction table, with the single table of schema version 1
+ * and the split index and payload tables of version 2. Each database is filled with transactions of a few kilobytes,
+ * then counted and read back in hash order a page at a time.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.data.TransactionScanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class TransactionScanBenchmark {
+
+    private static final int TRANSACTIONS = 5000;
+
+    private static final int PAYLOAD_SIZE = 4096;
+
+    private static final int PAGE_SIZE = 100;
+
+    // file databases, so the scans go through each database's page cache as they would on a node
+    private static final Map<String, String> URLS =
+            Map.of(
+                    "H2", "jdbc:h2:./target/benchmark/h2-%d-%d",
+                    "HSQL", "jdbc:hsqldb:file:./target/benchmark/hsql-%d-%d",
+                    "SQLITE", "jdbc:sqlite:./target/benchmark/sqlite-%d-%d.db");
+
+    @Param({"H2", "HSQL", "SQLITE"})
+    public String database;
+
+    @Param({"1", "2"})
+    public int schemaVersion;
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    @Setup
+    public void setUp() {
+        final String url = String.format(URLS.get(database), schemaVersion, System.nanoTime());
+        final JdbcConfig jdbcConfig = new JdbcConfig("junit", "", url);
+        jdbcConfig.setAutoCreateTables(true);
+        jdbcConfig.setSchemaVersion(schemaVersion);
+
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+
+        encryptedTransactionDAO = EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+
+        for (int i = 0; i < TRANSACTIONS; i += PAGE_SIZE) {
+            final List<EncryptedTransaction> page =
+                    IntStream.range(0, PAGE_SIZE)
+                            .mapToObj(j -> new EncryptedTransaction(Utils.createHash(), payload()))
+                            .collect(Collectors.toList());
+            encryptedTransactionDAO.saveAll(page, List.of());
+        }
+    }
+
+    private static byte[] payload() {
+        final byte[] payload = new byte[PAYLOAD_SIZE];
+        ThreadLocalRandom.current().nextBytes(payload);
+        return payload;
+    }
+
+    @Benchmark
+    public long count() {
+        return encryptedTransactionDAO.transactionCount();
+    }
+
+    @Benchmark
+    public int scanByHashRange() {
+        int read = 0;
+        MessageHash after = null;
+        for (List<EncryptedTransaction> page = encryptedTransactionDAO.retrieveTransactionsByHashRange(after, null, PAGE_SIZE);
+                !page.isEmpty();
+                page = encryptedTransactionDAO.retrieveTransactionsByHashRange(after, null, PAGE_SIZE)) {
+            read += page.size();
+            after = page.get(page.size() - 1).getHash();
+        }
+        return read;
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionScanBenchmark.class.getSimpleName()).build()).run();
+    }
+}
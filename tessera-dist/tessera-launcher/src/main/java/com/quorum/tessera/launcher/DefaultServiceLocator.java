@@ -0,0 +1,125 @@
+package com.quorum.tessera.launcher;
+
+import com.quorum.tessera.cli.CliDelegate;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.util.EncryptedStringResolver;
+import com.quorum.tessera.config.util.IntervalPropertyHelper;
+import com.quorum.tessera.discovery.EnclaveKeySynchroniser;
+import com.quorum.tessera.discovery.EnclaveKeySynchroniserFactory;
+import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.enclave.EnclaveFactory;
+import com.quorum.tessera.p2p.partyinfo.PartyInfoBroadcaster;
+import com.quorum.tessera.p2p.resend.ResendClient;
+import com.quorum.tessera.p2p.resend.ResendClientFactory;
+import com.quorum.tessera.partyinfo.P2pClient;
+import com.quorum.tessera.partyinfo.P2pClientFactory;
+import com.quorum.tessera.service.ServiceContainer;
+import com.quorum.tessera.service.locator.Default;
+import com.quorum.tessera.service.locator.ServiceLocator;
+import com.quorum.tessera.threading.TesseraScheduledExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the application services directly from their factories, so no classpath scanning or reflective bean
+ * definitions are needed at startup. The services are the same as those defined in {@code tessera-spring.xml}, which
+ * remains usable through the optional {@code service-locator-spring} module.
+ *
+ * <p>The services are created once, on first use, and shared between all instances. The services that run in the
+ * background are stopped when the JVM shuts down, or earlier by {@link #close()}.
+ */
+@Default
+public class DefaultServiceLocator implements ServiceLocator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultServiceLocator.class);
+
+    private static final long SCHEDULED_TASK_INITIAL_DELAY = 5000L;
+
+    private static Set<Object> services;
+
+    private static StartedServices startedServices;
+
+    @Override
+    public Set<Object> getServices() {
+        synchronized (DefaultServiceLocator.class) {
+            if (services == null) {
+                LOGGER.trace("Creating services");
+                final StartedServices started = new StartedServices();
+                try {
+                    services = createServices(CliDelegate.instance(), started);
+                } catch (RuntimeException ex) {
+                    started.stop();
+                    throw ex;
+                }
+                startedServices = started;
+                Runtime.getRuntime().addShutdownHook(new Thread(started::stop, "stop-services"));
+                LOGGER.trace("Created services");
+            }
+            return services;
+        }
+    }
+
+    /**
+     * Stops the services that run in the background, in the reverse of the order they were started in, and forgets
+     * the services so that the next lookup creates them again.
+     */
+    public static void close() {
+        synchronized (DefaultServiceLocator.class) {
+            if (startedServices != null) {
+                startedServices.stop();
+            }
+            startedServices = null;
+            services = null;
+        }
+    }
+
+    private static Set<Object> createServices(CliDelegate cliDelegate, StartedServices started) {
+        final Config config = cliDelegate.getConfig();
+
+        final EnclaveFactory enclaveFactory = EnclaveFactory.create();
+        final Enclave enclave = enclaveFactory.create(config);
+        final ServiceContainer enclaveServiceContainer = new ServiceContainer(enclave);
+
+        final P2pClient p2pClient = P2pClientFactory.newFactory(config).create(config);
+        final ResendClient resendClient = ResendClientFactory.newFactory(config).create(config);
+
+        final IntervalPropertyHelper propertyHelper =
+                new IntervalPropertyHelper(config.getP2PServerConfig().getProperties());
+
+        final TesseraScheduledExecutor partyInfoPollExecutor =
+                new TesseraScheduledExecutor(
+                        Executors.newSingleThreadScheduledExecutor(),
+                        new PartyInfoBroadcaster(p2pClient),
+                        propertyHelper.partyInfoInterval(),
+                        SCHEDULED_TASK_INITIAL_DELAY);
+
+        final EnclaveKeySynchroniser enclaveKeySynchroniser = new EnclaveKeySynchroniserFactory();
+        final TesseraScheduledExecutor enclaveKeySynchroniserExecutor =
+                new TesseraScheduledExecutor(
+                        Executors.newSingleThreadScheduledExecutor(),
+                        enclaveKeySynchroniser,
+                        propertyHelper.enclaveKeySyncInterval(),
+                        SCHEDULED_TASK_INITIAL_DELAY);
+
+        started.start(enclaveServiceContainer::start, enclaveServiceContainer::stop);
+        started.start(partyInfoPollExecutor::start, partyInfoPollExecutor::stop);
+        started.start(enclaveKeySynchroniserExecutor::start, enclaveKeySynchroniserExecutor::stop);
+
+        return Set.of(
+                cliDelegate,
+                config,
+                new EncryptedStringResolver(),
+                enclaveFactory,
+                enclave,
+                enclaveServiceContainer,
+                p2pClient,
+                resendClient,
+                propertyHelper,
+                partyInfoPollExecutor,
+                enclaveKeySynchroniser,
+                enclaveKeySynchroniserExecutor);
+    }
+}
@@ -0,0 +1,34 @@
+package com.quorum.tessera.launcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Starts services and remembers how to stop them, so they can be stopped in the reverse of the order they were started
+ * in. This takes the place of the {@code @PreDestroy} methods a Spring context would call when it is closed.
+ */
+class StartedServices {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartedServices.class);
+
+    private final Deque<Runnable> stops = new ArrayDeque<>();
+
+    synchronized void start(final Runnable start, final Runnable stop) {
+        start.run();
+        stops.push(stop);
+    }
+
+    /** Stops every started service, carrying on past any that fail to stop. Services are only stopped once. */
+    synchronized void stop() {
+        while (!stops.isEmpty()) {
+            try {
+                stops.pop().run();
+            } catch (RuntimeException ex) {
+                LOGGER.error("Unable to stop service", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.quorum.tessera.launcher;
+
+import com.quorum.tessera.cli.CliDelegate;
+import com.quorum.tessera.config.*;
+import com.quorum.tessera.context.RuntimeContextFactory;
+import com.quorum.tessera.service.ServiceContainer;
+import com.quorum.tessera.service.locator.SpringServiceLocator;
+import com.quorum.tessera.threading.TesseraScheduledExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start time of creating the application services, with the explicitly wired locator and with the
+ * Spring context. Each measurement runs in a fresh JVM, as the services are only created once per JVM.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.launcher.ServiceLocatorStartupBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class ServiceLocatorStartupBenchmark {
+
+    private Set<Object> services = Set.of();
+
+    @Setup
+    public void setUp() {
+        final ServerConfig p2pConfig = new ServerConfig();
+        p2pConfig.setApp(AppType.P2P);
+        p2pConfig.setCommunicationType(CommunicationType.REST);
+        p2pConfig.setServerAddress("http://localhost:9001/");
+
+        final KeyData keyData = new KeyData();
+        keyData.setPublicKey("/+UuD63zItL1EbjxkKKcT1Hx5IcBtHfkJoy1vsbvSm0=");
+        keyData.setPrivateKey("yAWAJjwPqUtNVlqGjSrBmr1/iIkghuOh1803Yzx9jLM=");
+
+        final Config config = new Config();
+        config.setEncryptor(EncryptorConfig.getDefault());
+        config.setKeys(new KeyConfiguration(null, null, List.of(keyData), null, null));
+        config.setServerConfigs(List.of(p2pConfig));
+        config.setPeers(List.of());
+
+        CliDelegate.instance().setConfig(config);
+        RuntimeContextFactory.newFactory().create(config);
+    }
+
+    @TearDown
+    public void tearDown() {
+        // stop the scheduled tasks so the forked JVM can exit
+        services.stream()
+                .filter(TesseraScheduledExecutor.class::isInstance)
+                .map(TesseraScheduledExecutor.class::cast)
+                .forEach(TesseraScheduledExecutor::stop);
+        services.stream()
+                .filter(ServiceContainer.class::isInstance)
+                .map(ServiceContainer.class::cast)
+                .forEach(ServiceContainer::stop);
+    }
+
+    @Benchmark
+    public Set<Object> explicitWiring() {
+        services = new DefaultServiceLocator().getServices();
+        return services;
+    }
+
+    @Benchmark
+    public Set<Object> springContext() {
+        services = new SpringServiceLocator().getServices();
+        return services;
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServiceLocatorStartupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
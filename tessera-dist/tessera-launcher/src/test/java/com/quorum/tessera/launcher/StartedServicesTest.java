@@ -0,0 +1,74 @@
+package com.quorum.tessera.launcher;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartedServicesTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    private final StartedServices startedServices = new StartedServices();
+
+    @Test
+    public void servicesAreStoppedInReverseOrder() {
+        startedServices.start(() -> calls.add("start enclave"), () -> calls.add("stop enclave"));
+        startedServices.start(() -> calls.add("start party info"), () -> calls.add("stop party info"));
+        startedServices.start(() -> calls.add("start key sync"), () -> calls.add("stop key sync"));
+
+        startedServices.stop();
+
+        assertThat(calls)
+                .containsExactly(
+                        "start enclave",
+                        "start party info",
+                        "start key sync",
+                        "stop key sync",
+                        "stop party info",
+                        "stop enclave");
+    }
+
+    @Test
+    public void servicesAreOnlyStoppedOnce() {
+        startedServices.start(() -> {}, () -> calls.add("stop"));
+
+        startedServices.stop();
+        startedServices.stop();
+
+        assertThat(calls).containsExactly("stop");
+    }
+
+    @Test
+    public void failureToStopOneServiceStillStopsTheRest() {
+        startedServices.start(() -> {}, () -> calls.add("stop first"));
+        startedServices.start(
+                () -> {},
+                () -> {
+                    throw new IllegalStateException("stop failed");
+                });
+
+        startedServices.stop();
+
+        assertThat(calls).containsExactly("stop first");
+    }
+
+    @Test
+    public void serviceThatFailsToStartIsNotStopped() {
+        try {
+            startedServices.start(
+                    () -> {
+                        throw new IllegalStateException("start failed");
+                    },
+                    () -> calls.add("stop"));
+        } catch (IllegalStateException ex) {
+            assertThat(ex).hasMessage("start failed");
+        }
+
+        startedServices.stop();
+
+        assertThat(calls).isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Contains the details of several payloads to retrieve and decrypt in one request
+ */
+public class BatchReceiveRequest {
+
+    /** The most payloads or transactions one batch request may hold, larger batches are rejected */
+    public static final int MAX_REQUESTS = 1000;
+
+    @ArraySchema(
+            arraySchema =
+                    @Schema(
+                            description =
+                                    "payloads to retrieve, at most "
+                                            + MAX_REQUESTS
+                                            + ", a result is returned for each in the same order"),
+            schema = @Schema(implementation = ReceiveRequest.class))
+    @Size(min = 1, max = MAX_REQUESTS)
+    @NotNull
+    @Valid
+    private ReceiveRequest[] requests;
+
+    public ReceiveRequest[] getRequests() {
+        return requests;
+    }
+
+    public void setRequests(final ReceiveRequest[] requests) {
+        this.requests = requests;
+    }
+}
@@ -0,0 +1,45 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of one element of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the decrypted payload of one transaction of a batch receive request, or the reason it could not be
+ * retrieved
+ */
+public class BatchReceiveResult extends ReceiveResponse {
+
+    @Schema(description = "hash of the requested payload", format = "base64")
+    private String key;
+
+    @Schema(description = "HTTP status the request would have had if made on its own")
+    private int status;
+
+    @Schema(description = "(only present if the payload could not be retrieved) the reason it could not be retrieved")
+    private String error;
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(final String key) {
+        this.key = key;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,37 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Contains the details of several new transactions to be sent in one request
+ */
+public class BatchSendRequest {
+
+    @ArraySchema(
+            arraySchema =
+                    @Schema(
+                            description =
+                                    "transactions to send, at most "
+                                            + BatchReceiveRequest.MAX_REQUESTS
+                                            + ", a result is returned for each in the same order"),
+            schema = @Schema(implementation = SendRequest.class))
+    @Size(min = 1, max = BatchReceiveRequest.MAX_REQUESTS)
+    @NotNull
+    @Valid
+    private SendRequest[] requests;
+
+    public SendRequest[] getRequests() {
+        return requests;
+    }
+
+    public void setRequests(final SendRequest[] requests) {
+        this.requests = requests;
+    }
+}
@@ -0,0 +1,33 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Model representation of one element of a JSON body on outgoing HTTP requests
+ *
+ * <p>Contains the hash of one transaction of a batch send request, or the reason it could not be sent
+ */
+public class BatchSendResult extends SendResponse {
+
+    @Schema(description = "HTTP status the request would have had if made on its own")
+    private int status;
+
+    @Schema(description = "(only present if the transaction could not be sent) the reason it could not be sent")
+    private String error;
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
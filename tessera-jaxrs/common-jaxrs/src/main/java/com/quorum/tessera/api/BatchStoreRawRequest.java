@@ -0,0 +1,37 @@
+package com.quorum.tessera.api;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * Model representation of a JSON body on incoming HTTP requests
+ *
+ * <p>Contains the details of several raw transactions to be stored in one request
+ */
+public class BatchStoreRawRequest {
+
+    @ArraySchema(
+            arraySchema =
+                    @Schema(
+                            description =
+                                    "transactions to store, at most "
+                                            + BatchReceiveRequest.MAX_REQUESTS
+                                            + ", a result is returned for each in the same order"),
+            schema = @Schema(implementation = StoreRawRequest.class))
+    @Size(min = 1, max = BatchReceiveRequest.MAX_REQUESTS)
+    @NotNull
+    @Valid
+    private StoreRawRequest[] requests;
+
+    public StoreRawRequest[] getRequests() {
+        return requests;
+    }
+
+    public void setRequests(final StoreRawRequest[] requests) {
+        this.requests = requests;
+    }
+}
@@ -0,0 +1,67 @@
+package com.quorum.tessera.api.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Completes suspended requests with the result of work done off the request thread, so the server's thread is free to
+ * handle other requests while it waits.
+ */
+public interface AsyncResponses {
+
+    Logger LOGGER = LoggerFactory.getLogger(AsyncResponses.class);
+
+    /**
+     * Resumes the request once the result is available. A failed result is resumed with its cause, so that the
+     * exception mappers respond to it as if it had been thrown by the resource.
+     *
+     * <p>If the request times out first it is rejected as unavailable. The work is not cancelled, as interrupting it
+     * could leave it half done; it runs to the end and its result is dropped.
+     *
+     * @param asyncResponse the suspended request
+     * @param result the work the request waits for
+     * @param toResponse creates the response from the result
+     * @param timeout the time in milliseconds the request may wait, or {@link AsyncResponse#NO_TIMEOUT}
+     * @param <T> the type of the result
+     */
+    static <T> void resume(
+            final AsyncResponse asyncResponse,
+            final CompletionStage<T> result,
+            final Function<T, Response> toResponse,
+            final long timeout) {
+
+        final CompletableFuture<T> future = result.toCompletableFuture();
+
+        if (timeout > AsyncResponse.NO_TIMEOUT) {
+            asyncResponse.setTimeout(timeout, TimeUnit.MILLISECONDS);
+            asyncResponse.setTimeoutHandler(
+                    timedOut -> {
+                        LOGGER.warn("Request did not complete within {} ms, rejecting it", timeout);
+                        timedOut.resume(
+                                Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                                        .entity("Request did not complete within " + timeout + " ms")
+                                        .type(MediaType.TEXT_PLAIN)
+                                        .build());
+                    });
+        }
+
+        future.thenApply(toResponse)
+                .whenComplete(
+                        (response, ex) -> {
+                            if (ex == null) {
+                                asyncResponse.resume(response);
+                            } else {
+                                // a dependent stage always wraps the failure in a CompletionException
+                                asyncResponse.resume(ex.getCause());
+                            }
+                        });
+    }
+}
@@ -1,11 +1,15 @@
 package com.quorum.tessera.api.common;
 
+import com.quorum.tessera.api.BatchStoreRawRequest;
+import com.quorum.tessera.api.BatchStoreRawResult;
 import com.quorum.tessera.api.StoreRawRequest;
 import com.quorum.tessera.api.StoreRawResponse;
 import com.quorum.tessera.core.api.ServiceFactory;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.transaction.StoreRawResult;
 import com.quorum.tessera.transaction.TransactionManager;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
@@ -19,8 +23,15 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Providers;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.quorum.tessera.version.MultiTenancyVersion.MIME_TYPE_JSON_2_1;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -32,6 +43,8 @@ public class RawTransactionResource {
 
     public static final String ENDPOINT_STORE_RAW = "storeraw";
 
+    public static final String ENDPOINT_STORE_RAW_BATCH = "storeraw/batch";
+
     private final TransactionManager transactionManager;
 
     public RawTransactionResource() {
@@ -86,20 +99,86 @@ public class RawTransactionResource {
         return Response.ok().type(MIME_TYPE_JSON_2_1).entity(storeRawResponse).build();
     }
 
-    private StoreRawResponse forwardRequest(final StoreRawRequest request) {
-        final PublicKey sender = request.getFrom().map(PublicKey::from).orElseGet(transactionManager::defaultPublicKey);
+    @Operation(
+            summary = "/storeraw/batch",
+            operationId = "encryptAndStoreBatch",
+            description =
+                    "encrypts several payloads and stores the results in the \"raw\" database in one database transaction")
+    @ApiResponse(
+            responseCode = "200",
+            description =
+                    "result of each request in the order requested, holding the hash of the encrypted payload or the reason it could not be stored",
+            content =
+                    @Content(
+                            mediaType = APPLICATION_JSON,
+                            array = @ArraySchema(schema = @Schema(implementation = BatchStoreRawResult.class))))
+    @POST
+    @Path(ENDPOINT_STORE_RAW_BATCH)
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public Response storeBatch(
+            @NotNull @Valid final BatchStoreRawRequest request, @Context final Providers providers) {
+        final List<com.quorum.tessera.transaction.StoreRawRequest> storeRawRequests =
+                Stream.of(request.getRequests()).map(this::toStoreRawRequest).collect(Collectors.toList());
+
+        final BatchStoreRawResult[] results =
+                transactionManager.storeBatch(storeRawRequests).stream()
+                        .map(result -> toBatchStoreRawResult(result, providers))
+                        .toArray(BatchStoreRawResult[]::new);
+
+        return Response.ok().type(APPLICATION_JSON).entity(results).build();
+    }
 
-        final com.quorum.tessera.transaction.StoreRawRequest storeRawRequest =
-                com.quorum.tessera.transaction.StoreRawRequest.Builder.create()
-                        .withSender(sender)
-                        .withPayload(request.getPayload())
-                        .build();
+    private static BatchStoreRawResult toBatchStoreRawResult(
+            final StoreRawResult result, final Providers providers) {
 
-        final com.quorum.tessera.transaction.StoreRawResponse response = transactionManager.store(storeRawRequest);
+        final BatchStoreRawResult batchStoreRawResult = new BatchStoreRawResult();
+
+        result.getResponse()
+                .map(com.quorum.tessera.transaction.StoreRawResponse::getHash)
+                .ifPresent(
+                        hash -> {
+                            batchStoreRawResult.setStatus(Response.Status.OK.getStatusCode());
+                            batchStoreRawResult.setKey(hash.getHashBytes());
+                        });
+
+        result.getError()
+                .map(error -> toErrorResponse(error, providers))
+                .ifPresent(
+                        errorResponse -> {
+                            batchStoreRawResult.setStatus(errorResponse.getStatus());
+                            batchStoreRawResult.setError(Objects.toString(errorResponse.getEntity(), ""));
+                        });
+
+        return batchStoreRawResult;
+    }
+
+    // failed requests in a batch get the status and message they would have had if requested on their own
+    private static Response toErrorResponse(final RuntimeException error, final Providers providers) {
+        @SuppressWarnings("unchecked")
+        final ExceptionMapper<RuntimeException> mapper =
+                providers.getExceptionMapper((Class<RuntimeException>) error.getClass());
+        return Optional.ofNullable(mapper)
+                .map(m -> m.toResponse(error))
+                .orElseGet(() -> Response.serverError().entity(error.getMessage()).build());
+    }
+
+    private StoreRawResponse forwardRequest(final StoreRawRequest request) {
+        final com.quorum.tessera.transaction.StoreRawResponse response =
+                transactionManager.store(toStoreRawRequest(request));
 
         final StoreRawResponse storeRawResponse = new StoreRawResponse();
         storeRawResponse.setKey(response.getHash().getHashBytes());
 
         return storeRawResponse;
     }
+
+    private com.quorum.tessera.transaction.StoreRawRequest toStoreRawRequest(final StoreRawRequest request) {
+        final PublicKey sender = request.getFrom().map(PublicKey::from).orElseGet(transactionManager::defaultPublicKey);
+
+        return com.quorum.tessera.transaction.StoreRawRequest.Builder.create()
+                .withSender(sender)
+                .withPayload(request.getPayload())
+                .build();
+    }
 }
@@ -1,5 +1,6 @@
 package com.quorum.tessera.api.constraint;
 
+import com.quorum.tessera.api.BatchSendRequest;
 import com.quorum.tessera.api.SendRequest;
 import com.quorum.tessera.api.SendSignedRequest;
 import com.quorum.tessera.enclave.PrivacyMode;
@@ -7,6 +8,7 @@ import com.quorum.tessera.enclave.PrivacyMode;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 public class RequestPrivacyValidator implements ConstraintValidator<PrivacyValid, Object> {
 
@@ -14,7 +16,11 @@ public class RequestPrivacyValidator implements ConstraintValidator<PrivacyValid
     public boolean isValid(Object request, ConstraintValidatorContext context) {
         PrivacyMode privacyMode;
         String execHash;
-        if (request instanceof SendRequest) {
+        if (request instanceof BatchSendRequest) {
+            return Stream.ofNullable(((BatchSendRequest) request).getRequests())
+                    .flatMap(Stream::of)
+                    .allMatch(sendRequest -> isValid(sendRequest, context));
+        } else if (request instanceof SendRequest) {
             privacyMode = PrivacyMode.fromFlag(((SendRequest) request).getPrivacyFlag());
             execHash = ((SendRequest) request).getExecHash();
         } else if (request instanceof SendSignedRequest) {
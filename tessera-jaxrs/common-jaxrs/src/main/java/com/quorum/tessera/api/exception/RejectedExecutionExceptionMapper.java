@@ -0,0 +1,29 @@
+package com.quorum.tessera.api.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+import java.util.concurrent.RejectedExecutionException;
+
+/** Rejects a request as unavailable when there is no room left for its work, so the client can retry it later */
+@Provider
+public class RejectedExecutionExceptionMapper implements ExceptionMapper<RejectedExecutionException> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RejectedExecutionExceptionMapper.class);
+
+    @Override
+    public Response toResponse(final RejectedExecutionException ex) {
+        LOGGER.warn("Request rejected: {}", ex.getMessage());
+        LOGGER.debug(null, ex);
+
+        return Response.status(Status.SERVICE_UNAVAILABLE)
+                .entity("Too many requests in progress, try again later")
+                .type(MediaType.TEXT_PLAIN)
+                .build();
+    }
+}
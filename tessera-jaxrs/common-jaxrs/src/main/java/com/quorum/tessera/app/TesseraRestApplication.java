@@ -4,9 +4,14 @@ import com.quorum.tessera.api.common.BaseResource;
 import com.quorum.tessera.api.common.VersionResource;
 import com.quorum.tessera.api.exception.*;
 import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import com.quorum.tessera.config.apps.TesseraApp;
 
+import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Application;
+import java.util.Objects;
 import java.util.Set;
 
 public abstract class TesseraRestApplication extends Application implements TesseraApp {
@@ -27,6 +32,7 @@ public abstract class TesseraRestApplication extends Application implements Tess
                 TransactionNotFoundExceptionMapper.class,
                 WebApplicationExceptionMapper.class,
                 NodeOfflineExceptionMapper.class,
+                RejectedExecutionExceptionMapper.class,
                 VersionResource.class,
                 BaseResource.class);
     }
@@ -35,4 +41,22 @@ public abstract class TesseraRestApplication extends Application implements Tess
     public CommunicationType getCommunicationType() {
         return CommunicationType.REST;
     }
+
+    /**
+     * Finds the time an asynchronous request to this application may take, as tuned on the server running it.
+     *
+     * @param config the configuration of the node
+     * @return the timeout in milliseconds, or {@link AsyncResponse#NO_TIMEOUT} if none is configured
+     */
+    protected long getAsyncTimeout(Config config) {
+        return config.getServerConfigs().stream()
+                .filter(serverConfig -> serverConfig.getApp() == getAppType())
+                .map(ServerConfig::getTuningConfig)
+                .filter(Objects::nonNull)
+                .map(ServerTuningConfig::getAsyncTimeout)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(Integer::longValue)
+                .orElse(AsyncResponse.NO_TIMEOUT);
+    }
 }
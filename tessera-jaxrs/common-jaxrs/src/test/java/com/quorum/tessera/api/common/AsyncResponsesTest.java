@@ -0,0 +1,81 @@
+package com.quorum.tessera.api.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AsyncResponsesTest {
+
+    private AsyncResponse asyncResponse;
+
+    @Before
+    public void onSetUp() {
+        asyncResponse = mock(AsyncResponse.class);
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(asyncResponse);
+    }
+
+    @Test
+    public void resumesWithResponseOfResult() {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        AsyncResponses.resume(asyncResponse, result, value -> Response.ok(value).build(), AsyncResponse.NO_TIMEOUT);
+        verifyNoInteractions(asyncResponse);
+
+        result.complete("DONE");
+
+        final ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus()).isEqualTo(200);
+        assertThat(response.getValue().getEntity()).isEqualTo("DONE");
+    }
+
+    @Test
+    public void resumesWithCauseOfFailure() {
+        final IllegalStateException failure = new IllegalStateException("FAILED");
+
+        AsyncResponses.resume(
+                asyncResponse,
+                CompletableFuture.failedFuture(failure),
+                value -> Response.ok(value).build(),
+                AsyncResponse.NO_TIMEOUT);
+
+        verify(asyncResponse).resume(failure);
+    }
+
+    @Test
+    public void timeoutRejectsRequestAndLeavesResultRunning() {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        AsyncResponses.resume(asyncResponse, result, value -> Response.ok(value).build(), 1000L);
+
+        verify(asyncResponse).setTimeout(1000L, TimeUnit.MILLISECONDS);
+        final ArgumentCaptor<TimeoutHandler> timeoutHandler = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(asyncResponse).setTimeoutHandler(timeoutHandler.capture());
+
+        timeoutHandler.getValue().handleTimeout(asyncResponse);
+
+        assertThat(result).isNotDone();
+        final ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(response.capture());
+        assertThat(response.getValue().getStatus()).isEqualTo(503);
+
+        // the late result also resumes the request, which is ignored as it has already been resumed
+        result.complete("DONE");
+        verify(asyncResponse, times(2)).resume(any(Response.class));
+    }
+}
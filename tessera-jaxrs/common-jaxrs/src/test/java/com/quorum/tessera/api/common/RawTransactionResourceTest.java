@@ -1,18 +1,26 @@
 package com.quorum.tessera.api.common;
 
 import com.jpmorgan.quorum.mock.servicelocator.MockServiceLocator;
+import com.quorum.tessera.api.BatchStoreRawRequest;
+import com.quorum.tessera.api.BatchStoreRawResult;
 import com.quorum.tessera.api.StoreRawRequest;
+import com.quorum.tessera.api.StoreRawResponse;
 import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.service.locator.ServiceLocator;
+import com.quorum.tessera.transaction.StoreRawResult;
 import com.quorum.tessera.transaction.TransactionManager;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Providers;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -124,4 +132,63 @@ public class RawTransactionResourceTest {
         RawTransactionResource tr = new RawTransactionResource();
         assertThat(tr).isNotNull();
     }
+
+    @Test
+    public void storeBatch() {
+        final PublicKey sender = PublicKey.from("SENDER".getBytes());
+        final KeyNotFoundException keyNotFound = new KeyNotFoundException("Not found");
+        when(transactionManager.defaultPublicKey()).thenReturn(sender);
+        when(transactionManager.storeBatch(any()))
+                .thenReturn(
+                        List.of(
+                                StoreRawResult.success(
+                                        com.quorum.tessera.transaction.StoreRawResponse.from(
+                                                new MessageHash("FIRST".getBytes()))),
+                                StoreRawResult.failure(keyNotFound),
+                                StoreRawResult.failure(new IllegalStateException("Failed"))));
+
+        final ExceptionMapper<KeyNotFoundException> keyNotFoundMapper = mock(ExceptionMapper.class);
+        when(keyNotFoundMapper.toResponse(keyNotFound)).thenReturn(Response.status(404).entity("Not found").build());
+        final Providers providers = mock(Providers.class);
+        when(providers.getExceptionMapper(KeyNotFoundException.class)).thenReturn(keyNotFoundMapper);
+
+        final StoreRawRequest first = new StoreRawRequest();
+        first.setPayload("FIRST".getBytes());
+        first.setFrom("Sender".getBytes());
+        final StoreRawRequest second = new StoreRawRequest();
+        second.setPayload("SECOND".getBytes());
+        final BatchStoreRawRequest batchStoreRawRequest = new BatchStoreRawRequest();
+        batchStoreRawRequest.setRequests(new StoreRawRequest[] {first, second, second});
+
+        final Response result = transactionResource.storeBatch(batchStoreRawRequest, providers);
+
+        assertThat(result.getStatus()).isEqualTo(200);
+        final BatchStoreRawResult[] results = (BatchStoreRawResult[]) result.getEntity();
+        assertThat(results).hasSize(3);
+
+        assertThat(results[0].getKey()).isEqualTo("FIRST".getBytes());
+        assertThat(results[0].getStatus()).isEqualTo(200);
+        assertThat(results[0].getError()).isNull();
+
+        assertThat(results[1].getKey()).isNull();
+        assertThat(results[1].getStatus()).isEqualTo(404);
+        assertThat(results[1].getError()).isEqualTo("Not found");
+
+        assertThat(results[2].getStatus()).isEqualTo(500);
+        assertThat(results[2].getError()).isEqualTo("Failed");
+
+        verify(transactionManager)
+                .storeBatch(
+                        argThat(
+                                requests -> {
+                                    assertThat(requests).hasSize(3);
+                                    assertThat(requests.get(0).getSender())
+                                            .isEqualTo(PublicKey.from("Sender".getBytes()));
+                                    assertThat(requests.get(0).getPayload()).isEqualTo("FIRST".getBytes());
+                                    assertThat(requests.get(1).getSender()).isEqualTo(sender);
+                                    assertThat(requests.get(1).getPayload()).isEqualTo("SECOND".getBytes());
+                                    return true;
+                                }));
+        verify(transactionManager, times(2)).defaultPublicKey();
+    }
 }
@@ -1,5 +1,6 @@
 package com.quorum.tessera.api.constraint;
 
+import com.quorum.tessera.api.BatchSendRequest;
 import com.quorum.tessera.api.SendRequest;
 import com.quorum.tessera.api.SendSignedRequest;
 import org.junit.After;
@@ -84,6 +85,26 @@ public class RequestPrivacyValidatorTest {
         assertThat(validator.isValid(request, context)).isTrue();
     }
 
+    @Test
+    public void testPrivacyValidationOnBatchSendRequest() {
+
+        BatchSendRequest request = new BatchSendRequest();
+        assertThat(validator.isValid(request, context)).isTrue();
+
+        SendRequest standardPrivate = new SendRequest();
+        standardPrivate.setPrivacyFlag(0);
+        SendRequest privateStateValidation = new SendRequest();
+        privateStateValidation.setPrivacyFlag(3);
+        request.setRequests(new SendRequest[] {standardPrivate, privateStateValidation});
+
+        assertThat(validator.isValid(request, context)).isFalse();
+        verify(context).buildConstraintViolationWithTemplate("Exec hash missing");
+        verify(builder).addConstraintViolation();
+
+        privateStateValidation.setExecHash("execHash");
+        assertThat(validator.isValid(request, context)).isTrue();
+    }
+
     @Test
     public void testWrongUsage() {
         Object someObject = new Object();
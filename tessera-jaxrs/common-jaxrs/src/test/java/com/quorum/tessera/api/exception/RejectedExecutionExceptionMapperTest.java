@@ -0,0 +1,24 @@
+package com.quorum.tessera.api.exception;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RejectedExecutionExceptionMapperTest {
+
+    private RejectedExecutionExceptionMapper instance = new RejectedExecutionExceptionMapper();
+
+    @Test
+    public void toResponse() {
+        final RejectedExecutionException exception = new RejectedExecutionException("Queue full");
+
+        final Response result = instance.toResponse(exception);
+
+        assertThat(result).isNotNull();
+        assertThat(result.getStatus()).isEqualTo(503);
+        assertThat(result.getEntity()).isEqualTo("Too many requests in progress, try again later");
+    }
+}
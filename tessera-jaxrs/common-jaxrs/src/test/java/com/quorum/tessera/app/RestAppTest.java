@@ -1,10 +1,17 @@
 package com.quorum.tessera.app;
 
+import com.quorum.tessera.config.AppType;
 import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
 import static org.assertj.core.api.Assertions.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.ws.rs.container.AsyncResponse;
+import java.util.List;
+
 public class RestAppTest {
 
     private SampleApp sampleApp;
@@ -20,4 +27,35 @@ public class RestAppTest {
         assertThat(sampleApp.getAppType()).isNotNull();
         assertThat(sampleApp.getCommunicationType()).isEqualTo(CommunicationType.REST);
     }
+
+    @Test
+    public void asyncTimeoutIsReadFromTheServerOfTheApp() {
+        final ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setAsyncTimeout(30000);
+        final ServerConfig q2tServer = new ServerConfig();
+        q2tServer.setApp(AppType.Q2T);
+        q2tServer.setTuningConfig(tuning);
+        final ServerConfig p2pServer = new ServerConfig();
+        p2pServer.setApp(AppType.P2P);
+        p2pServer.setTuningConfig(new ServerTuningConfig());
+
+        final Config config = new Config();
+        config.setServerConfigs(List.of(p2pServer, q2tServer));
+
+        assertThat(sampleApp.getAsyncTimeout(config)).isEqualTo(30000L);
+    }
+
+    @Test
+    public void noAsyncTimeoutWithoutTuning() {
+        final ServerConfig q2tServer = new ServerConfig();
+        q2tServer.setApp(AppType.Q2T);
+        final ServerConfig tunedQ2tServer = new ServerConfig();
+        tunedQ2tServer.setApp(AppType.Q2T);
+        tunedQ2tServer.setTuningConfig(new ServerTuningConfig());
+
+        final Config config = new Config();
+        config.setServerConfigs(List.of(q2tServer, tunedQ2tServer));
+
+        assertThat(sampleApp.getAsyncTimeout(config)).isEqualTo(AsyncResponse.NO_TIMEOUT);
+    }
 }
@@ -0,0 +1,175 @@
+package com.quorum.tessera.jaxrs.client;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.SslAuthenticationMode;
+import com.quorum.tessera.config.SslConfig;
+import com.quorum.tessera.config.SslTrustMode;
+import com.quorum.tessera.server.JerseyServer;
+import com.quorum.tessera.ssl.util.TlsUtils;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Application;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.security.KeyStore;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Http2InteropTest {
+
+    private static final char[] PASSWORD = "password".toCharArray();
+
+    @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private JerseyServer server;
+
+    @After
+    public void onTearDown() throws Exception {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void http2IsNegotiatedOverTls() throws Exception {
+        final java.nio.file.Path keyStore = generateKeyStore();
+        final URI serverUri = start("https", keyStore, true);
+
+        final HttpResponse<String> response = ping(tlsClient(keyStore), serverUri);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("pong");
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+
+    @Test
+    public void tlsFallsBackToHttp1WhenHttp2IsDisabled() throws Exception {
+        final java.nio.file.Path keyStore = generateKeyStore();
+        final URI serverUri = start("https", keyStore, false);
+
+        final HttpResponse<String> response = ping(tlsClient(keyStore), serverUri);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+    }
+
+    @Test
+    public void plainConnectionsUpgradeToH2c() throws Exception {
+        final URI serverUri = start("http", null, true);
+
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        final HttpResponse<String> response = ping(client, serverUri);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("pong");
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_2);
+    }
+
+    @Test
+    public void http1ClientsAreStillServedWhenHttp2IsEnabled() throws Exception {
+        final java.nio.file.Path keyStore = generateKeyStore();
+        final URI serverUri = start("https", keyStore, true);
+
+        final HttpClient client =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .sslContext(tlsClient(keyStore).sslContext())
+                        .build();
+        final HttpResponse<String> response = ping(client, serverUri);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("pong");
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+    }
+
+    private java.nio.file.Path generateKeyStore() throws Exception {
+        final java.nio.file.Path keyStore = tempFolder.getRoot().toPath().resolve("keystore.jks");
+        TlsUtils.create().generateKeyStoreWithSelfSignedCertificate("localhost", keyStore, PASSWORD);
+        return keyStore;
+    }
+
+    private URI start(String scheme, java.nio.file.Path keyStore, boolean http2Enabled) throws Exception {
+        final URI serverUri = URI.create(scheme + "://localhost:" + freePort());
+
+        final ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress(serverUri.toString());
+        serverConfig.setHttp2Enabled(http2Enabled);
+
+        if (keyStore != null) {
+            final SslConfig sslConfig = new SslConfig();
+            sslConfig.setTls(SslAuthenticationMode.STRICT);
+            sslConfig.setServerKeyStore(keyStore);
+            sslConfig.setServerKeyStorePassword(PASSWORD);
+            sslConfig.setServerTrustMode(SslTrustMode.NONE);
+            serverConfig.setSslConfig(sslConfig);
+        }
+
+        server = new JerseyServer(serverConfig, new PingApplication());
+        server.start();
+        return serverUri;
+    }
+
+    // the server requires a client certificate, so the client presents the server's own self signed one
+    private static HttpClient tlsClient(java.nio.file.Path keyStorePath) throws Exception {
+        final KeyStore keyStore = KeyStore.getInstance(TlsUtils.KEYSTORE_TYPE);
+        try (InputStream in = Files.newInputStream(keyStorePath)) {
+            keyStore.load(in, PASSWORD);
+        }
+
+        final KeyManagerFactory keyManagerFactory =
+                KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, PASSWORD);
+
+        final TrustManagerFactory trustManagerFactory =
+                TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(keyStore);
+
+        final SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), trustManagerFactory.getTrustManagers(), null);
+
+        return HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).sslContext(sslContext).build();
+    }
+
+    private static HttpResponse<String> ping(HttpClient client, URI serverUri) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(serverUri.resolve("/ping")).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public static class PingApplication extends Application {
+        @Override
+        public Set<Object> getSingletons() {
+            return Set.of(new PingResource());
+        }
+    }
+
+    @Path("/")
+    public static class PingResource {
+        @GET
+        @Path("ping")
+        public String ping() {
+            return "pong";
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.quorum.tessera.p2p;
 
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
@@ -63,6 +64,8 @@ public class PartyInfoResource {
 
     private final PartyStore partyStore;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public PartyInfoResource(
             final Discovery discovery,
             final PartyInfoParser partyInfoParser,
@@ -71,6 +74,26 @@ public class PartyInfoResource {
             final PayloadEncoder payloadEncoder,
             final boolean enableKeyValidation,
             final PartyStore partyStore) {
+        this(
+                discovery,
+                partyInfoParser,
+                restClient,
+                enclave,
+                payloadEncoder,
+                enableKeyValidation,
+                partyStore,
+                PeerHealthRegistry.getInstance());
+    }
+
+    public PartyInfoResource(
+            final Discovery discovery,
+            final PartyInfoParser partyInfoParser,
+            final Client restClient,
+            final Enclave enclave,
+            final PayloadEncoder payloadEncoder,
+            final boolean enableKeyValidation,
+            final PartyStore partyStore,
+            final PeerHealthRegistry peerHealthRegistry) {
         this.discovery = requireNonNull(discovery, "discovery must not be null");
         this.partyInfoParser = requireNonNull(partyInfoParser, "partyInfoParser must not be null");
         this.restClient = requireNonNull(restClient);
@@ -78,6 +101,7 @@ public class PartyInfoResource {
         this.payloadEncoder = requireNonNull(payloadEncoder);
         this.enableKeyValidation = enableKeyValidation;
         this.partyStore = requireNonNull(partyStore);
+        this.peerHealthRegistry = requireNonNull(peerHealthRegistry);
     }
 
     public PartyInfoResource(
@@ -104,25 +128,41 @@ public class PartyInfoResource {
      *     encoded partyinfo that contains only the local node's URL if not using remote key validation; a 500 Internal
      *     Server Error if remote key validation fails
      */
-    @Operation(summary = "/partyinfo", operationId = "broadcastPartyInfo", description = "broadcast partyinfo information to server")
-    @ApiResponse(responseCode = "200",
-        description = "server successfully updated its party info",
-        content = @Content(array = @ArraySchema(schema = @Schema(description = "empty if server is using remote key validation, else is encoded partyinfo object containing only the server's URL", type = "string", format = "byte"))))
+    @Operation(
+            summary = "/partyinfo",
+            operationId = "broadcastPartyInfo",
+            description = "broadcast partyinfo information to server")
+    @ApiResponse(
+            responseCode = "200",
+            description = "server successfully updated its party info",
+            content =
+                    @Content(
+                            array =
+                                    @ArraySchema(
+                                            schema =
+                                                    @Schema(
+                                                            description =
+                                                                    "empty if server is using remote key validation, else is encoded partyinfo object containing only the server's URL",
+                                                            type = "string",
+                                                            format = "byte"))))
     @ApiResponse(responseCode = "500", description = "Validation failed (if server is using remote key validation)")
     @POST
     @Consumes(MediaType.APPLICATION_OCTET_STREAM)
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     public Response partyInfo(
-        @RequestBody(required = true, description = "partyinfo object")
-        final byte[] payload,
-        @HeaderParam(Constants.API_VERSION_HEADER) @Parameter(description = "client's supported API versions", array = @ArraySchema(schema = @Schema(type = "string"))) final List<String> headers) {
+            @RequestBody(required = true, description = "partyinfo object") final byte[] payload,
+            @HeaderParam(Constants.API_VERSION_HEADER)
+                    @Parameter(
+                            description = "client's supported API versions",
+                            array = @ArraySchema(schema = @Schema(type = "string")))
+                    final List<String> headers) {
 
         final PartyInfo partyInfo = partyInfoParser.from(payload);
         final Set<String> versions =
-            Optional.ofNullable(headers).orElse(emptyList()).stream()
-                .filter(Objects::nonNull)
-                .flatMap(v -> Arrays.stream(v.split(",")))
-                .collect(Collectors.toSet());
+                Optional.ofNullable(headers).orElse(emptyList()).stream()
+                        .filter(Objects::nonNull)
+                        .flatMap(v -> Arrays.stream(v.split(",")))
+                        .collect(Collectors.toSet());
 
         final NodeInfo nodeInfo = NodeInfoUtil.from(partyInfo, versions);
 
@@ -133,10 +173,10 @@ public class PartyInfoResource {
 
             discovery.onUpdate(nodeInfo);
             partyInfo.getParties().stream()
-                .map(Party::getUrl)
-                .map(NodeUri::create)
-                .map(NodeUri::asURI)
-                .forEach(partyStore::store);
+                    .map(Party::getUrl)
+                    .map(NodeUri::create)
+                    .map(NodeUri::asURI)
+                    .forEach(partyStore::store);
 
             // create an empty party info object with our URL to send back
             // this is used by older versions (before 0.10.0), but we don't want to give any info back
@@ -148,62 +188,73 @@ public class PartyInfoResource {
         final PublicKey localPublicKey = enclave.defaultPublicKey();
 
         final Predicate<Recipient> isValidRecipient =
-            r -> {
-                try {
-                    LOGGER.debug("Validating key {} for peer {}", r.getKey(), r.getUrl());
-
-                    final String dataToEncrypt = UUID.randomUUID().toString();
-                    final EncodedPayload encodedPayload =
-                        enclave.encryptPayload(
-                            dataToEncrypt.getBytes(),
-                            localPublicKey,
-                            Arrays.asList(r.getKey()),
-                            PrivacyMode.STANDARD_PRIVATE,
-                            emptyList(),
-                            new byte[0]);
-
-                    final byte[] encodedPayloadBytes = payloadEncoder.encode(encodedPayload);
-
-                    try (Response response =
-                             restClient
-                                 .target(r.getUrl())
-                                 .path("partyinfo")
-                                 .path("validate")
-                                 .request()
-                                 .post(Entity.entity(encodedPayloadBytes, MediaType.APPLICATION_OCTET_STREAM))) {
-
-                        LOGGER.debug("Response code {} from peer {}", response.getStatus(), r.getUrl());
-
-                        final String responseData = response.readEntity(String.class);
+                r -> {
+                    try {
+                        LOGGER.debug("Validating key {} for peer {}", r.getKey(), r.getUrl());
+
+                        final String dataToEncrypt = UUID.randomUUID().toString();
+                        final EncodedPayload encodedPayload =
+                                enclave.encryptPayload(
+                                        dataToEncrypt.getBytes(),
+                                        localPublicKey,
+                                        Arrays.asList(r.getKey()),
+                                        PrivacyMode.STANDARD_PRIVATE,
+                                        emptyList(),
+                                        new byte[0]);
+
+                        final byte[] encodedPayloadBytes = payloadEncoder.encode(encodedPayload);
+
+                        final String responseData =
+                                peerHealthRegistry.record(
+                                        NodeUri.create(r.getUrl()),
+                                        () -> {
+                                            try (Response response =
+                                                    restClient
+                                                            .target(r.getUrl())
+                                                            .path("partyinfo")
+                                                            .path("validate")
+                                                            .request()
+                                                            .post(
+                                                                    Entity.entity(
+                                                                            encodedPayloadBytes,
+                                                                            MediaType.APPLICATION_OCTET_STREAM))) {
+
+                                                LOGGER.debug(
+                                                        "Response code {} from peer {}",
+                                                        response.getStatus(),
+                                                        r.getUrl());
+
+                                                return response.readEntity(String.class);
+                                            }
+                                        });
 
                         final boolean isValid = Objects.equals(responseData, dataToEncrypt);
                         if (!isValid) {
                             LOGGER.warn(
-                                "Validation of key {} for peer {} failed.  Key and peer will not be added to local partyinfo.",
-                                r.getKey(),
-                                r.getUrl());
+                                    "Validation of key {} for peer {} failed.  Key and peer will not be added to local partyinfo.",
+                                    r.getKey(),
+                                    r.getUrl());
                             LOGGER.debug("Response from {} was {}", r.getUrl(), responseData);
                         }
 
                         return isValid;
+                        // Assume any and all exceptions to mean invalid. enclave bubbles up nacl array out of
+                        // bounds when calculating shared key from invalid data
+                    } catch (Exception ex) {
+                        LOGGER.debug(null, ex);
+                        return false;
                     }
-                    // Assume any and all exceptions to mean invalid. enclave bubbles up nacl array out of
-                    // bounds when calculating shared key from invalid data
-                } catch (Exception ex) {
-                    LOGGER.debug(null, ex);
-                    return false;
-                }
-            };
+                };
 
         final String partyInfoSender = partyInfo.getUrl();
         final Predicate<Recipient> isSender = r -> NodeUri.create(r.getUrl()).equals(NodeUri.create(partyInfoSender));
 
         // Validate caller and treat no valid certs as security issue.
         final Set<com.quorum.tessera.partyinfo.node.Recipient> validatedSendersKeys =
-            partyInfo.getRecipients().stream()
-                .filter(isSender.and(isValidRecipient))
-                .map(r -> com.quorum.tessera.partyinfo.node.Recipient.of(r.getKey(), r.getUrl()))
-                .collect(Collectors.toSet());
+                partyInfo.getRecipients().stream()
+                        .filter(isSender.and(isValidRecipient))
+                        .map(r -> com.quorum.tessera.partyinfo.node.Recipient.of(r.getKey(), r.getUrl()))
+                        .collect(Collectors.toSet());
 
         LOGGER.debug("Validated keys for peer {}: {}", partyInfoSender, validatedSendersKeys);
         if (validatedSendersKeys.isEmpty()) {
@@ -212,25 +263,28 @@ public class PartyInfoResource {
 
         // End validation stuff
         final NodeInfo reducedNodeInfo =
-            NodeInfo.Builder.create()
-                .withUrl(partyInfoSender)
-                .withSupportedApiVersions(versions)
-                .withRecipients(validatedSendersKeys)
-                .build();
+                NodeInfo.Builder.create()
+                        .withUrl(partyInfoSender)
+                        .withSupportedApiVersions(versions)
+                        .withRecipients(validatedSendersKeys)
+                        .build();
 
         discovery.onUpdate(reducedNodeInfo);
 
         partyInfo.getParties().stream()
-            .map(Party::getUrl)
-            .map(NodeUri::create)
-            .map(NodeUri::asURI)
-            .forEach(partyStore::store);
+                .map(Party::getUrl)
+                .map(NodeUri::create)
+                .map(NodeUri::asURI)
+                .forEach(partyStore::store);
 
         return Response.ok().build();
     }
 
     @Operation(summary = "/partyinfo", description = "fetch network/peer information")
-    @ApiResponse(responseCode = "200", description = "server's partyinfo data", content = @Content(schema = @Schema(implementation = GetPartyInfoResponse.class)))
+    @ApiResponse(
+            responseCode = "200",
+            description = "server's partyinfo data",
+            content = @Content(schema = @Schema(implementation = GetPartyInfoResponse.class)))
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getPartyInfo() {
@@ -266,8 +320,14 @@ public class PartyInfoResource {
         return Response.status(Response.Status.OK).entity(output).build();
     }
 
-    @Operation(summary = "/partyinfo/validate", operationId = "validateParty", description = "decrypt a UUID payload (used to validate ownership of an asymmetric key pair)")
-    @ApiResponse(responseCode = "200", description = "successfully decrypted payload", content = @Content(schema = @Schema(description = "decrypted UUID", type = "string")))
+    @Operation(
+            summary = "/partyinfo/validate",
+            operationId = "validateParty",
+            description = "decrypt a UUID payload (used to validate ownership of an asymmetric key pair)")
+    @ApiResponse(
+            responseCode = "200",
+            description = "successfully decrypted payload",
+            content = @Content(schema = @Schema(description = "decrypted UUID", type = "string")))
     @ApiResponse(responseCode = "400", description = "decrypted payload is not a valid UUID")
     @POST
     @Path("validate")
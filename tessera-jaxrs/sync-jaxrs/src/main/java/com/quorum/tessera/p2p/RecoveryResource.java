@@ -46,7 +46,11 @@ public class RecoveryResource {
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
     }
 
-    @Operation(summary = "/pushBatch", operationId = "pushPayloadBatch", description = "store batch of encoded payloads to the server's database (available only when the server is in recovery mode)")
+    @Operation(
+            summary = "/pushBatch",
+            operationId = "pushPayloadBatch",
+            description =
+                    "store batch of encoded payloads to the server's database (available only when the server is in recovery mode)")
     @ApiResponse(responseCode = "200", description = "batch successfully stored")
     @POST
     @Path("pushBatch")
@@ -64,7 +68,9 @@ public class RecoveryResource {
         return Response.status(Response.Status.OK).build();
     }
 
-    // path /push with application/octet-stream is overloaded (RecoveryResource & TransactionResource); swagger annotations cannot handle situations like this so hide this operation and use TransactionResource::push to document both
+    // path /push with application/octet-stream is overloaded (RecoveryResource & TransactionResource); swagger
+    // annotations cannot handle situations like this so hide this operation and use TransactionResource::push to
+    // document both
     @Hidden
     @POST
     @Path("push")
@@ -1,10 +1,12 @@
 package com.quorum.tessera.p2p;
 
+import com.quorum.tessera.api.BatchReceiveRequest;
+import com.quorum.tessera.api.common.AsyncResponses;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.p2p.recovery.PushBatchRequest;
 import com.quorum.tessera.p2p.recovery.ResendBatchRequest;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.data.MessageHash;
-import com.quorum.tessera.recovery.resend.ResendBatchResponse;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.p2p.resend.ResendRequest;
 import com.quorum.tessera.recovery.workflow.LegacyResendManager;
@@ -25,8 +27,11 @@ import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 import java.util.Base64;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -52,23 +57,53 @@ public class TransactionResource {
 
     private final LegacyResendManager legacyResendManager;
 
-    public TransactionResource(final TransactionManager transactionManager,
-                               final BatchResendManager batchResendManager,
-                               final PayloadEncoder payloadEncoder,
-                               final LegacyResendManager legacyResendManager) {
+    private final long asyncTimeout;
+
+    public TransactionResource(
+            final TransactionManager transactionManager,
+            final BatchResendManager batchResendManager,
+            final PayloadEncoder payloadEncoder,
+            final LegacyResendManager legacyResendManager) {
+        this(transactionManager, batchResendManager, payloadEncoder, legacyResendManager, AsyncResponse.NO_TIMEOUT);
+    }
+
+    public TransactionResource(
+            final TransactionManager transactionManager,
+            final BatchResendManager batchResendManager,
+            final PayloadEncoder payloadEncoder,
+            final LegacyResendManager legacyResendManager,
+            final long asyncTimeout) {
         this.transactionManager = Objects.requireNonNull(transactionManager);
         this.batchResendManager = Objects.requireNonNull(batchResendManager);
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
         this.legacyResendManager = Objects.requireNonNull(legacyResendManager);
+        this.asyncTimeout = asyncTimeout;
     }
 
-    @Operation(summary = "/resend", operationId = "requestPayloadResend", description = "initiate resend of either an INDIVIDUAL transaction or ALL transactions involving a given public key")
-    @ApiResponse(responseCode = "200", description = "resent payload", content = @Content(array = @ArraySchema(schema = @Schema(description = "empty if request was for ALL; else the encoded INDIVIDUAL transaction", type = "string", format = "byte"))))
+    @Operation(
+            summary = "/resend",
+            operationId = "requestPayloadResend",
+            description =
+                    "initiate resend of either an INDIVIDUAL transaction or ALL transactions involving a given public key")
+    @ApiResponse(
+            responseCode = "200",
+            description = "resent payload",
+            content =
+                    @Content(
+                            array =
+                                    @ArraySchema(
+                                            schema =
+                                                    @Schema(
+                                                            description =
+                                                                    "empty if request was for ALL; else the encoded INDIVIDUAL transaction",
+                                                            type = "string",
+                                                            format = "byte"))))
     @POST
     @Path("resend")
     @Consumes(APPLICATION_JSON)
     @Produces(TEXT_PLAIN)
-    public Response resend(@Valid @NotNull final ResendRequest resendRequest) {
+    public void resend(
+            @Valid @NotNull final ResendRequest resendRequest, @Suspended final AsyncResponse asyncResponse) {
 
         LOGGER.debug("Received resend request");
 
@@ -87,28 +122,44 @@ public class TransactionResource {
                         .orElse(null);
 
         com.quorum.tessera.recovery.resend.ResendRequest request =
-            com.quorum.tessera.recovery.resend.ResendRequest.Builder.create()
+                com.quorum.tessera.recovery.resend.ResendRequest.Builder.create()
                         .withType(
-                            com.quorum.tessera.recovery.resend.ResendRequest.ResendRequestType.valueOf(
+                                com.quorum.tessera.recovery.resend.ResendRequest.ResendRequestType.valueOf(
                                         resendRequest.getType().name()))
                         .withRecipient(recipient)
                         .withHash(transactionHash)
                         .build();
 
-        com.quorum.tessera.recovery.resend.ResendResponse response = legacyResendManager.resend(request);
-
-        Response.ResponseBuilder builder = Response.ok();
-        Optional.ofNullable(response.getPayload()).map(payloadEncoder::encode).ifPresent(builder::entity);
-        return builder.build();
+        AsyncResponses.resume(
+                asyncResponse,
+                legacyResendManager.resendAsync(request),
+                response -> {
+                    Response.ResponseBuilder builder = Response.ok();
+                    Optional.ofNullable(response.getPayload()).map(payloadEncoder::encode).ifPresent(builder::entity);
+                    return builder.build();
+                },
+                asyncTimeout);
     }
 
-    @Operation(summary = "/resendBatch", operationId = "requestPayloadBatchResend", description = "initiate resend of all transactions for a given public key in batches")
-    @ApiResponse(responseCode = "200", description = "count of total transactions being resent", content = @Content(schema = @Schema(implementation = com.quorum.tessera.p2p.recovery.ResendBatchResponse.class)))
+    @Operation(
+            summary = "/resendBatch",
+            operationId = "requestPayloadBatchResend",
+            description = "initiate resend of all transactions for a given public key in batches")
+    @ApiResponse(
+            responseCode = "200",
+            description = "count of total transactions being resent",
+            content =
+                    @Content(
+                            schema =
+                                    @Schema(
+                                            implementation =
+                                                    com.quorum.tessera.p2p.recovery.ResendBatchResponse.class)))
     @POST
     @Path("resendBatch")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response resendBatch(@Valid @NotNull final ResendBatchRequest resendBatchRequest) {
+    public void resendBatch(
+            @Valid @NotNull final ResendBatchRequest resendBatchRequest, @Suspended final AsyncResponse asyncResponse) {
 
         LOGGER.debug("Received resend request");
 
@@ -118,31 +169,90 @@ public class TransactionResource {
                         .withBatchSize(resendBatchRequest.getBatchSize())
                         .build();
 
-        ResendBatchResponse response = batchResendManager.resendBatch(request);
+        AsyncResponses.resume(
+                asyncResponse,
+                batchResendManager.resendBatchAsync(request),
+                response -> {
+                    com.quorum.tessera.p2p.recovery.ResendBatchResponse responseEntity =
+                            new com.quorum.tessera.p2p.recovery.ResendBatchResponse();
+                    responseEntity.setTotal(response.getTotal());
 
-        com.quorum.tessera.p2p.recovery.ResendBatchResponse responseEntity =
-                new com.quorum.tessera.p2p.recovery.ResendBatchResponse();
-        responseEntity.setTotal(response.getTotal());
-
-        Response.ResponseBuilder builder = Response.status(Response.Status.OK);
-        builder.entity(responseEntity);
-        return builder.build();
+                    Response.ResponseBuilder builder = Response.status(Response.Status.OK);
+                    builder.entity(responseEntity);
+                    return builder.build();
+                },
+                asyncTimeout);
     }
 
-    // path push is overloaded (RecoveryResource & TransactionResource); swagger cannot handle situations like this so this operation documents both
-    @Operation(summary = "/push", operationId = "pushPayload", description = "store encoded payload to the server's database")
-    @ApiResponse(responseCode = "201", description = "hash of encoded payload", content = @Content(mediaType = TEXT_PLAIN, schema = @Schema(description = "hash of encrypted payload", type = "string", format = "base64")))
-    @ApiResponse(responseCode = "403", description = "server is in recovery mode and encoded payload is not a Standard Private transaction")
+    // path push is overloaded (RecoveryResource & TransactionResource); swagger cannot handle situations like this so
+    // this operation documents both
+    @Operation(
+            summary = "/push",
+            operationId = "pushPayload",
+            description = "store encoded payload to the server's database")
+    @ApiResponse(
+            responseCode = "201",
+            description = "hash of encoded payload",
+            content =
+                    @Content(
+                            mediaType = TEXT_PLAIN,
+                            schema =
+                                    @Schema(
+                                            description = "hash of encrypted payload",
+                                            type = "string",
+                                            format = "base64")))
+    @ApiResponse(
+            responseCode = "403",
+            description = "server is in recovery mode and encoded payload is not a Standard Private transaction")
     @POST
     @Path("push")
     @Consumes(APPLICATION_OCTET_STREAM)
-    public Response push(@Schema(description = "encoded payload") final byte[] payload) {
+    public void push(
+            @Schema(description = "encoded payload") final byte[] payload,
+            @Suspended final AsyncResponse asyncResponse) {
 
         LOGGER.debug("Received push request");
 
-        final MessageHash messageHash = transactionManager.storePayload(payloadEncoder.decode(payload));
-        LOGGER.debug("Push request generated hash {}", messageHash);
-        // TODO: Return the query url not the string of the messageHash
-        return Response.status(Response.Status.CREATED).entity(Objects.toString(messageHash)).build();
+        AsyncResponses.resume(
+                asyncResponse,
+                transactionManager.storePayloadAsync(payloadEncoder.decode(payload)),
+                messageHash -> {
+                    LOGGER.debug("Push request generated hash {}", messageHash);
+                    // TODO: Return the query url not the string of the messageHash
+                    return Response.status(Response.Status.CREATED).entity(Objects.toString(messageHash)).build();
+                },
+                asyncTimeout);
+    }
+
+    // recovery mode serves its own pushBatch, which stages resent payloads, and does not serve this path; peers in
+    // recovery mode answer 404 and are pushed each payload to /push instead, so they can refuse enhanced privacy ones
+    @Operation(
+            summary = "/push/batch",
+            operationId = "pushPayloads",
+            description = "store batch of encoded payloads to the server's database (not available in recovery mode)")
+    @ApiResponse(responseCode = "200", description = "batch successfully stored")
+    @ApiResponse(
+            responseCode = "400",
+            description = "batch holds more than " + BatchReceiveRequest.MAX_REQUESTS + " payloads, none are stored")
+    @POST
+    @Path("push/batch")
+    @Consumes(APPLICATION_JSON)
+    public Response pushBatch(@Valid @NotNull final PushBatchRequest pushBatchRequest) {
+
+        LOGGER.debug("Received push batch request");
+
+        final List<byte[]> encodedPayloads =
+                Optional.ofNullable(pushBatchRequest.getEncodedPayloads()).orElse(List.of());
+        if (encodedPayloads.size() > BatchReceiveRequest.MAX_REQUESTS) {
+            LOGGER.debug("Refusing push batch of {} payloads", encodedPayloads.size());
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        encodedPayloads.stream()
+                .map(payloadEncoder::decode)
+                .map(transactionManager::storePayload)
+                .forEach(messageHash -> LOGGER.debug("Push batch request generated hash {}", messageHash));
+
+        return Response.status(Response.Status.OK).build();
     }
 }
@@ -1,7 +1,10 @@
 package com.quorum.tessera.p2p.partyinfo;
 
+import com.quorum.tessera.discovery.CircuitState;
 import com.quorum.tessera.discovery.Discovery;
 import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealth;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.model.PartyInfoBuilder;
@@ -35,26 +38,31 @@ public class PartyInfoBroadcaster implements Runnable {
 
     private final PartyStore partyStore;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public PartyInfoBroadcaster(final P2pClient p2pClient) {
         this(
-            Discovery.getInstance(),
-            PartyInfoParser.create(),
-            p2pClient,
-            Executors.newCachedThreadPool(),
-            PartyStore.getInstance());
+                Discovery.getInstance(),
+                PartyInfoParser.create(),
+                p2pClient,
+                Executors.newCachedThreadPool(),
+                PartyStore.getInstance(),
+                PeerHealthRegistry.getInstance());
     }
 
     public PartyInfoBroadcaster(
-        final Discovery discovery,
-        final PartyInfoParser partyInfoParser,
-        final P2pClient p2pClient,
-        final Executor executor,
-        final PartyStore partyStore) {
+            final Discovery discovery,
+            final PartyInfoParser partyInfoParser,
+            final P2pClient p2pClient,
+            final Executor executor,
+            final PartyStore partyStore,
+            final PeerHealthRegistry peerHealthRegistry) {
         this.discovery = Objects.requireNonNull(discovery);
         this.partyInfoParser = Objects.requireNonNull(partyInfoParser);
         this.p2pClient = Objects.requireNonNull(p2pClient);
         this.executor = Objects.requireNonNull(executor);
         this.partyStore = Objects.requireNonNull(partyStore);
+        this.peerHealthRegistry = Objects.requireNonNull(peerHealthRegistry);
     }
 
     /**
@@ -80,10 +88,10 @@ public class PartyInfoBroadcaster implements Runnable {
         final NodeUri ourUrl = NodeUri.create(nodeInfo.getUrl());
 
         final PartyInfo partyInfo =
-            PartyInfoBuilder.create()
-                .withUri(nodeInfo.getUrl())
-                .withRecipients(nodeInfo.getRecipientsAsMap())
-                .build();
+                PartyInfoBuilder.create()
+                        .withUri(nodeInfo.getUrl())
+                        .withRecipients(nodeInfo.getRecipientsAsMap())
+                        .build();
 
         final byte[] encodedPartyInfo = partyInfoParser.to(partyInfo);
 
@@ -91,9 +99,9 @@ public class PartyInfoBroadcaster implements Runnable {
 
         LOGGER.debug("Sending party info {}", nodeInfo);
         partyStore.getParties().stream()
-            .map(NodeUri::create)
-            .filter(url -> !ourUrl.equals(url))
-            .forEach(url -> pollSingleParty(url.asString(), encodedPartyInfo));
+                .map(NodeUri::create)
+                .filter(url -> !ourUrl.equals(url))
+                .forEach(url -> pollSingleParty(url.asString(), encodedPartyInfo));
 
         LOGGER.info("Finished PartyInfo polling round");
     }
@@ -107,23 +115,34 @@ public class PartyInfoBroadcaster implements Runnable {
     protected void pollSingleParty(final String url, final byte[] encodedPartyInfo) {
         final NodeUri nodeUri = NodeUri.create(url);
         CompletableFuture.runAsync(
-            () -> {
-                LOGGER.debug("Sending party info to {}", nodeUri.asString());
-                p2pClient.sendPartyInfo(url, encodedPartyInfo);
-                LOGGER.debug("Sent party info to {}", nodeUri.asString());
-            },
-            executor)
-            .exceptionally(
-                ex -> {
-                    Throwable cause = Optional.of(ex).map(Throwable::getCause).orElse(ex);
-
-                    LOGGER.warn("Failed to connect to node {}, due to {}", url, cause.getMessage());
-                    LOGGER.debug("Send failure exception", cause);
-                    if (ProcessingException.class.isInstance(cause)) {
-                        discovery.onDisconnect(URI.create(url));
-                        partyStore.remove(URI.create(url));
-                    }
-                    return null;
-                });
+                        () -> {
+                            LOGGER.debug("Sending party info to {}", nodeUri.asString());
+                            p2pClient.sendPartyInfo(url, encodedPartyInfo);
+                            LOGGER.debug("Sent party info to {}", nodeUri.asString());
+                        },
+                        executor)
+                .exceptionally(
+                        ex -> {
+                            Throwable cause = Optional.of(ex).map(Throwable::getCause).orElse(ex);
+
+                            LOGGER.warn("Failed to connect to node {}, due to {}", url, cause.getMessage());
+                            LOGGER.debug("Send failure exception", cause);
+                            // a node that cannot be reached once may just be restarting, so it is only dropped
+                            // once enough of its recent calls have failed to open its circuit
+                            if (ProcessingException.class.isInstance(cause) && isCircuitOpen(nodeUri)) {
+                                discovery.onDisconnect(URI.create(url));
+                                partyStore.remove(URI.create(url));
+                                peerHealthRegistry.remove(nodeUri);
+                            }
+                            return null;
+                        });
+    }
+
+    private boolean isCircuitOpen(final NodeUri nodeUri) {
+        return peerHealthRegistry
+                .getHealth(nodeUri)
+                .map(PeerHealth::getState)
+                .filter(CircuitState.OPEN::equals)
+                .isPresent();
     }
 }
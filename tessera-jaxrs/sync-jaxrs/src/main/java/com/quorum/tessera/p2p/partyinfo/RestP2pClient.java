@@ -1,5 +1,7 @@
 package com.quorum.tessera.p2p.partyinfo;
 
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.partyinfo.P2pClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,23 +19,33 @@ public class RestP2pClient implements P2pClient {
 
     private final Client client;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public RestP2pClient(final Client client) {
+        this(client, PeerHealthRegistry.getInstance());
+    }
+
+    public RestP2pClient(final Client client, final PeerHealthRegistry peerHealthRegistry) {
         this.client = Objects.requireNonNull(client);
+        this.peerHealthRegistry = Objects.requireNonNull(peerHealthRegistry);
     }
 
     @Override
     public boolean sendPartyInfo(final String targetUrl, final byte[] data) {
         LOGGER.debug("Sending PartyInfo to peer {}", targetUrl);
 
+        return peerHealthRegistry.record(NodeUri.create(targetUrl), () -> post(targetUrl, data));
+    }
+
+    private boolean post(final String targetUrl, final byte[] data) {
         try (Response response =
-                 client.target(targetUrl)
-                     .path("/partyinfo")
-                     .request()
-                     .post(Entity.entity(data, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
+                client.target(targetUrl)
+                        .path("/partyinfo")
+                        .request()
+                        .post(Entity.entity(data, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
 
             final int returnStatusCode = response.getStatus();
-            if (Status.OK.getStatusCode() != returnStatusCode
-                && Status.CREATED.getStatusCode() != returnStatusCode) {
+            if (Status.OK.getStatusCode() != returnStatusCode && Status.CREATED.getStatusCode() != returnStatusCode) {
                 LOGGER.warn("PartyInfo returned status code for peer {} was {}", targetUrl, returnStatusCode);
                 return false;
             }
@@ -42,6 +54,4 @@ public class RestP2pClient implements P2pClient {
             return Objects.nonNull(response.readEntity(byte[].class));
         }
     }
-
-
 }
@@ -1,5 +1,7 @@
 package com.quorum.tessera.p2p.recovery;
 
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.p2p.resend.ResendRequest;
 
 import javax.ws.rs.client.Client;
@@ -12,27 +14,41 @@ public class RestRecoveryClient implements RecoveryClient {
 
     private final Client client;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public RestRecoveryClient(final Client client) {
+        this(client, PeerHealthRegistry.getInstance());
+    }
+
+    public RestRecoveryClient(final Client client, final PeerHealthRegistry peerHealthRegistry) {
         this.client = Objects.requireNonNull(client);
+        this.peerHealthRegistry = Objects.requireNonNull(peerHealthRegistry);
     }
 
     @Override
     public boolean makeResendRequest(final String targetUrl, final ResendRequest request) {
         final Entity<ResendRequest> outboundEntity = Entity.entity(request, MediaType.APPLICATION_JSON);
 
-        try (Response response = client.target(targetUrl).path("/resend").request().post(outboundEntity)) {
-            return Response.Status.OK.getStatusCode() == response.getStatus();
-        }
+        return peerHealthRegistry.record(
+                NodeUri.create(targetUrl),
+                () -> {
+                    try (Response response = client.target(targetUrl).path("/resend").request().post(outboundEntity)) {
+                        return Response.Status.OK.getStatusCode() == response.getStatus();
+                    }
+                });
     }
 
     @Override
     public boolean pushBatch(String targetUrl, PushBatchRequest pushBatchRequest) {
 
         final Response response =
-                client.target(targetUrl)
-                        .path("/pushBatch")
-                        .request()
-                        .post(Entity.entity(pushBatchRequest, MediaType.APPLICATION_JSON));
+                peerHealthRegistry.record(
+                        NodeUri.create(targetUrl),
+                        () ->
+                                client.target(targetUrl)
+                                        .path("/pushBatch")
+                                        .request()
+                                        .post(Entity.entity(pushBatchRequest, MediaType.APPLICATION_JSON)));
 
         return Response.Status.OK.getStatusCode() == response.getStatus();
     }
@@ -40,10 +56,13 @@ public class RestRecoveryClient implements RecoveryClient {
     @Override
     public ResendBatchResponse makeBatchResendRequest(String targetUrl, ResendBatchRequest request) {
         final Response response =
-                client.target(targetUrl)
-                        .path("/resendBatch")
-                        .request()
-                        .post(Entity.entity(request, MediaType.APPLICATION_JSON));
+                peerHealthRegistry.record(
+                        NodeUri.create(targetUrl),
+                        () ->
+                                client.target(targetUrl)
+                                        .path("/resendBatch")
+                                        .request()
+                                        .post(Entity.entity(request, MediaType.APPLICATION_JSON)));
 
         if (Response.Status.OK.getStatusCode() == response.getStatus()) {
             return response.readEntity(ResendBatchResponse.class);
@@ -1,5 +1,8 @@
 package com.quorum.tessera.p2p.resend;
 
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
+
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
@@ -10,16 +13,27 @@ public class RestResendClient implements ResendClient {
 
     private final Client client;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public RestResendClient(final Client client) {
+        this(client, PeerHealthRegistry.getInstance());
+    }
+
+    public RestResendClient(final Client client, final PeerHealthRegistry peerHealthRegistry) {
         this.client = Objects.requireNonNull(client);
+        this.peerHealthRegistry = Objects.requireNonNull(peerHealthRegistry);
     }
 
     @Override
     public boolean makeResendRequest(final String targetUrl, final ResendRequest request) {
         final Entity<ResendRequest> outboundEntity = Entity.entity(request, MediaType.APPLICATION_JSON);
 
-        try (Response response = client.target(targetUrl).path("/resend").request().post(outboundEntity)) {
-            return Response.Status.OK.getStatusCode() == response.getStatus();
-        }
+        return peerHealthRegistry.record(
+                NodeUri.create(targetUrl),
+                () -> {
+                    try (Response response = client.target(targetUrl).path("/resend").request().post(outboundEntity)) {
+                        return Response.Status.OK.getStatusCode() == response.getStatus();
+                    }
+                });
     }
 }
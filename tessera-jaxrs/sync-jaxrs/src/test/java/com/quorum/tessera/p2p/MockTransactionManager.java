@@ -1,6 +1,5 @@
 package com.quorum.tessera.p2p;
 
-
 import com.quorum.tessera.config.Config;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.EncodedPayload;
@@ -9,6 +8,9 @@ import com.quorum.tessera.transaction.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
 
 public class MockTransactionManager implements TransactionManager, TransactionManagerFactory {
 
@@ -17,11 +19,26 @@ public class MockTransactionManager implements TransactionManager, TransactionMa
         return null;
     }
 
+    @Override
+    public CompletionStage<SendResponse> sendAsync(SendRequest sendRequest) {
+        return CompletableFuture.completedFuture(send(sendRequest));
+    }
+
+    @Override
+    public List<SendResult> sendBatch(List<SendRequest> sendRequests) {
+        return List.of();
+    }
+
     @Override
     public SendResponse sendSignedTransaction(SendSignedRequest sendRequest) {
         return null;
     }
 
+    @Override
+    public CompletionStage<SendResponse> sendSignedTransactionAsync(SendSignedRequest sendRequest) {
+        return CompletableFuture.completedFuture(sendSignedTransaction(sendRequest));
+    }
+
     @Override
     public void delete(MessageHash messageHash) {}
 
@@ -30,16 +47,31 @@ public class MockTransactionManager implements TransactionManager, TransactionMa
         return null;
     }
 
+    @Override
+    public CompletionStage<MessageHash> storePayloadAsync(EncodedPayload transactionPayload) {
+        return CompletableFuture.completedFuture(storePayload(transactionPayload));
+    }
+
     @Override
     public ReceiveResponse receive(ReceiveRequest request) {
         return null;
     }
 
+    @Override
+    public Stream<ReceiveResult> receiveAll(List<ReceiveRequest> requests) {
+        return Stream.empty();
+    }
+
     @Override
     public StoreRawResponse store(StoreRawRequest storeRequest) {
         return null;
     }
 
+    @Override
+    public List<StoreRawResult> storeBatch(List<StoreRawRequest> storeRequests) {
+        return List.of();
+    }
+
     @Override
     public boolean upcheck() {
         return true;
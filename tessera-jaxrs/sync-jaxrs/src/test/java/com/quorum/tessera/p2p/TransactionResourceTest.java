@@ -1,7 +1,10 @@
 package com.quorum.tessera.p2p;
 
+import com.quorum.tessera.api.BatchReceiveRequest;
+import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.p2p.recovery.PushBatchRequest;
 import com.quorum.tessera.p2p.recovery.ResendBatchRequest;
 import com.quorum.tessera.p2p.resend.ResendRequest;
 import com.quorum.tessera.p2p.resend.ResendRequestType;
@@ -9,14 +12,25 @@ import com.quorum.tessera.recovery.resend.ResendBatchResponse;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 import com.quorum.tessera.recovery.workflow.LegacyResendManager;
 import com.quorum.tessera.transaction.TransactionManager;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.glassfish.jersey.test.TestProperties;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import javax.json.Json;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -40,8 +54,8 @@ public class TransactionResourceTest {
         payloadEncoder = mock(PayloadEncoder.class);
         legacyResendManager = mock(LegacyResendManager.class);
 
-        transactionResource
-            = new TransactionResource(transactionManager, batchResendManager, payloadEncoder, legacyResendManager);
+        transactionResource =
+                new TransactionResource(transactionManager, batchResendManager, payloadEncoder, legacyResendManager);
     }
 
     @After
@@ -54,11 +68,81 @@ public class TransactionResourceTest {
         final byte[] someData = "SomeData".getBytes();
         final EncodedPayload payload = mock(EncodedPayload.class);
         when(payloadEncoder.decode(someData)).thenReturn(payload);
+        when(transactionManager.storePayloadAsync(payload))
+                .thenReturn(CompletableFuture.completedFuture(new MessageHash("HASH".getBytes())));
+        final AsyncResponse asyncResponse = mock(AsyncResponse.class);
 
-        final Response result = transactionResource.push(someData);
+        transactionResource.push(someData, asyncResponse);
+
+        final ArgumentCaptor<Response> result = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(result.capture());
+        assertThat(result.getValue().getStatus()).isEqualTo(201);
+        assertThat(result.getValue().hasEntity()).isTrue();
+        verify(transactionManager).storePayloadAsync(payload);
+        verify(payloadEncoder).decode(someData);
+    }
+
+    @Test
+    public void pushBatch() {
+        final byte[] someData = "SomeData".getBytes();
+        final byte[] otherData = "OtherData".getBytes();
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        final EncodedPayload otherPayload = mock(EncodedPayload.class);
+        when(payloadEncoder.decode(someData)).thenReturn(payload);
+        when(payloadEncoder.decode(otherData)).thenReturn(otherPayload);
+
+        final Response result = transactionResource.pushBatch(new PushBatchRequest(List.of(someData, otherData)));
+
+        assertThat(result.getStatus()).isEqualTo(200);
+        verify(transactionManager).storePayload(payload);
+        verify(transactionManager).storePayload(otherPayload);
+        verify(payloadEncoder).decode(someData);
+        verify(payloadEncoder).decode(otherData);
+    }
+
+    @Test
+    public void pushBatchLargerThanMaximumIsRefused() {
+        final List<byte[]> encodedPayloads =
+                Collections.nCopies(BatchReceiveRequest.MAX_REQUESTS + 1, "SomeData".getBytes());
+
+        final Response result = transactionResource.pushBatch(new PushBatchRequest(encodedPayloads));
+
+        assertThat(result.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    public void pushBatchAcceptsBase64EncodedPayloads() throws Exception {
+        final byte[] someData = "SomeData".getBytes();
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payloadEncoder.decode(someData)).thenReturn(payload);
+
+        final JerseyTest jersey =
+                new JerseyTest() {
+                    @Override
+                    protected Application configure() {
+                        forceSet(TestProperties.CONTAINER_PORT, "0");
+                        return new ResourceConfig().register(transactionResource);
+                    }
+                };
+        jersey.setUp();
+
+        final String body =
+                Json.createObjectBuilder()
+                        .add(
+                                "encodedPayloads",
+                                Json.createArrayBuilder().add(Base64.getEncoder().encodeToString(someData)))
+                        .build()
+                        .toString();
+
+        try {
+            final Response result =
+                    jersey.target("push").path("batch").request().post(Entity.entity(body, MediaType.APPLICATION_JSON));
+
+            assertThat(result.getStatus()).isEqualTo(200);
+        } finally {
+            jersey.tearDown();
+        }
 
-        assertThat(result.getStatus()).isEqualTo(201);
-        assertThat(result.hasEntity()).isTrue();
         verify(transactionManager).storePayload(payload);
         verify(payloadEncoder).decode(someData);
     }
@@ -74,18 +158,21 @@ public class TransactionResourceTest {
                 mock(com.quorum.tessera.recovery.resend.ResendResponse.class);
         when(resendResponse.getPayload()).thenReturn(payload);
 
-        when(legacyResendManager.resend(any(com.quorum.tessera.recovery.resend.ResendRequest.class)))
-                .thenReturn(resendResponse);
+        when(legacyResendManager.resendAsync(any(com.quorum.tessera.recovery.resend.ResendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(resendResponse));
 
         when(payloadEncoder.encode(payload)).thenReturn("SUCCESS".getBytes());
+        final AsyncResponse asyncResponse = mock(AsyncResponse.class);
 
-        Response result = transactionResource.resend(resendRequest);
+        transactionResource.resend(resendRequest, asyncResponse);
 
-        assertThat(result.getStatus()).isEqualTo(200);
-        assertThat(result.getEntity()).isEqualTo("SUCCESS".getBytes());
+        final ArgumentCaptor<Response> result = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(result.capture());
+        assertThat(result.getValue().getStatus()).isEqualTo(200);
+        assertThat(result.getValue().getEntity()).isEqualTo("SUCCESS".getBytes());
 
         verify(payloadEncoder).encode(payload);
-        verify(legacyResendManager).resend(any(com.quorum.tessera.recovery.resend.ResendRequest.class));
+        verify(legacyResendManager).resendAsync(any(com.quorum.tessera.recovery.resend.ResendRequest.class));
     }
 
     @Test
@@ -96,19 +183,23 @@ public class TransactionResourceTest {
         incoming.setBatchSize(1);
 
         ResendBatchResponse resendResponse = ResendBatchResponse.from(1);
-        when(batchResendManager.resendBatch(any())).thenReturn(resendResponse);
+        when(batchResendManager.resendBatchAsync(any())).thenReturn(CompletableFuture.completedFuture(resendResponse));
+        final AsyncResponse asyncResponse = mock(AsyncResponse.class);
 
-        Response result = transactionResource.resendBatch(incoming);
-        assertThat(result.getStatus()).isEqualTo(200);
+        transactionResource.resendBatch(incoming, asyncResponse);
+
+        final ArgumentCaptor<Response> result = ArgumentCaptor.forClass(Response.class);
+        verify(asyncResponse).resume(result.capture());
+        assertThat(result.getValue().getStatus()).isEqualTo(200);
         com.quorum.tessera.p2p.recovery.ResendBatchResponse convertedResponse =
-                (com.quorum.tessera.p2p.recovery.ResendBatchResponse) result.getEntity();
+                (com.quorum.tessera.p2p.recovery.ResendBatchResponse) result.getValue().getEntity();
 
         assertThat(convertedResponse.getTotal()).isEqualTo(1);
 
         ArgumentCaptor<com.quorum.tessera.recovery.resend.ResendBatchRequest> captor =
                 ArgumentCaptor.forClass(com.quorum.tessera.recovery.resend.ResendBatchRequest.class);
 
-        verify(batchResendManager).resendBatch(captor.capture());
+        verify(batchResendManager).resendBatchAsync(captor.capture());
 
         com.quorum.tessera.recovery.resend.ResendBatchRequest convertedRequest = captor.getValue();
 
@@ -1,6 +1,10 @@
 package com.quorum.tessera.p2p.partyinfo;
 
+import com.quorum.tessera.discovery.CircuitState;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealth;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.partyinfo.P2pClient;
 import com.quorum.tessera.partyinfo.model.PartyInfo;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
@@ -11,6 +15,7 @@ import org.mockito.invocation.InvocationOnMock;
 
 import javax.ws.rs.ProcessingException;
 import java.net.URI;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
@@ -41,6 +46,8 @@ public class PartyInfoBroadcasterTest {
 
     private PartyStore partyStore;
 
+    private PeerHealthRegistry peerHealthRegistry;
+
     @Before
     public void setUp() {
         this.discovery = mock(Discovery.class);
@@ -48,6 +55,7 @@ public class PartyInfoBroadcasterTest {
         this.p2pClient = mock(P2pClient.class);
         this.executor = mock(Executor.class);
         this.partyStore = mock(PartyStore.class);
+        this.peerHealthRegistry = mock(PeerHealthRegistry.class);
 
         doAnswer(
                         (InvocationOnMock invocation) -> {
@@ -60,7 +68,8 @@ public class PartyInfoBroadcasterTest {
         when(partyInfoParser.to(any(PartyInfo.class))).thenReturn(DATA);
 
         this.partyInfoBroadcaster =
-                new PartyInfoBroadcaster(discovery, partyInfoParser, p2pClient, executor, partyStore);
+                new PartyInfoBroadcaster(
+                        discovery, partyInfoParser, p2pClient, executor, partyStore, peerHealthRegistry);
     }
 
     @After
@@ -130,7 +139,7 @@ public class PartyInfoBroadcasterTest {
     }
 
     @Test
-    public void jaxRsProcessingExceptionRemovesNode() {
+    public void jaxRsProcessingExceptionRemovesNodeWithOpenCircuit() {
         ProcessingException processingException = new ProcessingException("OUCH");
         CompletionException completionException = new CompletionException(processingException);
 
@@ -139,11 +148,31 @@ public class PartyInfoBroadcasterTest {
         String uriData = "http://georgecowley.com/";
 
         when(partyStore.getParties()).thenReturn(Set.of(URI.create(uriData)));
+        when(peerHealthRegistry.getHealth(NodeUri.create(uriData)))
+                .thenReturn(Optional.of(new PeerHealth(NodeUri.create(uriData), CircuitState.OPEN, 5, 5, 10L, 20L)));
 
         partyInfoBroadcaster.pollSingleParty(uriData, "somebytes".getBytes());
 
         verify(discovery).onDisconnect(URI.create(uriData));
         verify(partyStore).remove(URI.create(uriData));
+        verify(peerHealthRegistry).remove(NodeUri.create(uriData));
+        verify(p2pClient).sendPartyInfo(anyString(), any(byte[].class));
+    }
+
+    @Test
+    public void jaxRsProcessingExceptionKeepsNodeWithClosedCircuit() {
+        ProcessingException processingException = new ProcessingException("OUCH");
+        CompletionException completionException = new CompletionException(processingException);
+
+        when(p2pClient.sendPartyInfo(anyString(), any(byte[].class))).thenThrow(completionException);
+
+        String uriData = "http://georgecowley.com/";
+
+        when(peerHealthRegistry.getHealth(NodeUri.create(uriData)))
+                .thenReturn(Optional.of(new PeerHealth(NodeUri.create(uriData), CircuitState.CLOSED, 1, 1, 10L, 10L)));
+
+        partyInfoBroadcaster.pollSingleParty(uriData, "somebytes".getBytes());
+
         verify(p2pClient).sendPartyInfo(anyString(), any(byte[].class));
     }
 }
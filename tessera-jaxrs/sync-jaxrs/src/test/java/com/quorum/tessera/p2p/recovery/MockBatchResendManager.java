@@ -5,6 +5,8 @@ import com.quorum.tessera.recovery.resend.ResendBatchRequest;
 import com.quorum.tessera.recovery.resend.ResendBatchResponse;
 import com.quorum.tessera.recovery.workflow.BatchResendManager;
 
+import java.util.concurrent.CompletionStage;
+
 public class MockBatchResendManager implements BatchResendManager {
 
     @Override
@@ -14,4 +16,9 @@ public class MockBatchResendManager implements BatchResendManager {
 
     @Override
     public void storeResendBatch(PushBatchRequest resendPushBatchRequest) {}
+
+    @Override
+    public CompletionStage<ResendBatchResponse> resendBatchAsync(ResendBatchRequest request) {
+        return null;
+    }
 }
@@ -4,10 +4,17 @@ import com.quorum.tessera.recovery.resend.ResendRequest;
 import com.quorum.tessera.recovery.resend.ResendResponse;
 import com.quorum.tessera.recovery.workflow.LegacyResendManager;
 
+import java.util.concurrent.CompletionStage;
+
 public class MockLegacyResendManager implements LegacyResendManager {
 
     @Override
     public ResendResponse resend(final ResendRequest request) {
         return null;
     }
+
+    @Override
+    public CompletionStage<ResendResponse> resendAsync(final ResendRequest request) {
+        return null;
+    }
 }
@@ -1,7 +1,9 @@
 package com.quorum.tessera.thirdparty;
 
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.thirdparty.model.GetPeerHealthResponse;
 import com.quorum.tessera.thirdparty.model.GetPublicKeysResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -25,12 +27,25 @@ public class PartyInfoResource {
 
     private final Discovery discovery;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public PartyInfoResource(final Discovery discovery) {
+        this(discovery, PeerHealthRegistry.getInstance());
+    }
+
+    public PartyInfoResource(final Discovery discovery, final PeerHealthRegistry peerHealthRegistry) {
         this.discovery = requireNonNull(discovery, "discovery must not be null");
+        this.peerHealthRegistry = requireNonNull(peerHealthRegistry, "peerHealthRegistry must not be null");
     }
 
-    @Operation(summary = "/partyinfo/keys", operationId = "getPartiesPublicKeys", description = "get public keys of all known nodes in the network, including the server's own keys")
-    @ApiResponse(responseCode = "200", description = "known nodes' public keys", content = @Content(schema = @Schema(implementation = GetPublicKeysResponse.class)))
+    @Operation(
+            summary = "/partyinfo/keys",
+            operationId = "getPartiesPublicKeys",
+            description = "get public keys of all known nodes in the network, including the server's own keys")
+    @ApiResponse(
+            responseCode = "200",
+            description = "known nodes' public keys",
+            content = @Content(schema = @Schema(implementation = GetPublicKeysResponse.class)))
     @GET
     @Path("/keys")
     @Produces(MediaType.APPLICATION_JSON)
@@ -47,4 +62,38 @@ public class PartyInfoResource {
 
         return Response.status(Response.Status.OK).entity(output).build();
     }
+
+    @Operation(
+            summary = "/partyinfo/health",
+            operationId = "getPeerHealth",
+            description =
+                    "get how reliably and how quickly each peer the server has called answered its recent calls, and whether calls to it are failing fast")
+    @ApiResponse(
+            responseCode = "200",
+            description = "health of the called peers",
+            content = @Content(schema = @Schema(implementation = GetPeerHealthResponse.class)))
+    @GET
+    @Path("/health")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPeerHealth() {
+
+        final JsonArrayBuilder peerBuilder = Json.createArrayBuilder();
+        peerHealthRegistry.getPeerHealth().stream()
+                .map(
+                        health ->
+                                Json.createObjectBuilder()
+                                        .add("url", health.getUri().asString())
+                                        .add("state", health.getState().name())
+                                        .add("score", health.getScore())
+                                        .add("calls", health.getCalls())
+                                        .add("failures", health.getFailures())
+                                        .add("averageLatency", health.getAverageLatency())
+                                        .add("maxLatency", health.getMaxLatency())
+                                        .build())
+                .forEach(peerBuilder::add);
+
+        final String output = Json.createObjectBuilder().add("peers", peerBuilder.build()).build().toString();
+
+        return Response.status(Response.Status.OK).entity(output).build();
+    }
 }
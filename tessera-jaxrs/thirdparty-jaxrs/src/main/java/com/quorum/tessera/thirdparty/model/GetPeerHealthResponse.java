@@ -0,0 +1,17 @@
+package com.quorum.tessera.thirdparty.model;
+
+import java.util.List;
+
+// just used for swagger generation
+public class GetPeerHealthResponse {
+
+    private List<PeerHealth> peers;
+
+    public List<PeerHealth> getPeers() {
+        return peers;
+    }
+
+    public void setPeers(List<PeerHealth> peers) {
+        this.peers = peers;
+    }
+}
@@ -0,0 +1,87 @@
+package com.quorum.tessera.thirdparty.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// just used for swagger generation
+public class PeerHealth {
+
+    @Schema(description = "url of the peer's node")
+    private String url;
+
+    @Schema(
+            description =
+                    "CLOSED if calls are made as usual, OPEN if they fail fast as too many recent calls failed, HALF_OPEN while a trial call is made",
+            allowableValues = {"CLOSED", "OPEN", "HALF_OPEN"})
+    private String state;
+
+    @Schema(description = "share of recent calls that succeeded, from 0 to 1; 0 unless the state is CLOSED")
+    private double score;
+
+    @Schema(description = "number of recent calls the other figures are taken from")
+    private int calls;
+
+    @Schema(description = "number of recent calls that failed")
+    private int failures;
+
+    @Schema(description = "average time in milliseconds the recent calls took")
+    private long averageLatency;
+
+    @Schema(description = "longest time in milliseconds a recent call took")
+    private long maxLatency;
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public int getCalls() {
+        return calls;
+    }
+
+    public void setCalls(int calls) {
+        this.calls = calls;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    public void setFailures(int failures) {
+        this.failures = failures;
+    }
+
+    public long getAverageLatency() {
+        return averageLatency;
+    }
+
+    public void setAverageLatency(long averageLatency) {
+        this.averageLatency = averageLatency;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    public void setMaxLatency(long maxLatency) {
+        this.maxLatency = maxLatency;
+    }
+}
@@ -1,6 +1,10 @@
 package com.quorum.tessera.thirdparty;
 
+import com.quorum.tessera.discovery.CircuitState;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealth;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
 import com.quorum.tessera.partyinfo.node.Recipient;
@@ -23,42 +27,75 @@ public class PartyInfoResourceTest {
 
     private Discovery discovery;
 
+    private PeerHealthRegistry peerHealthRegistry;
+
     private PartyInfoResource partyInfoResource;
 
     @Before
     public void onSetup() {
         this.discovery = mock(Discovery.class);
+        this.peerHealthRegistry = mock(PeerHealthRegistry.class);
 
-        this.partyInfoResource = new PartyInfoResource(discovery);
+        this.partyInfoResource = new PartyInfoResource(discovery, peerHealthRegistry);
     }
 
     @After
     public void onTearDown() {
-        verifyNoMoreInteractions(discovery);
+        verifyNoMoreInteractions(discovery, peerHealthRegistry);
+    }
+
+    @Test
+    public void getPeerHealth() {
+        final PeerHealth health =
+                new PeerHealth(NodeUri.create("http://localhost:9002/"), CircuitState.CLOSED, 4, 1, 15L, 40L);
+        when(peerHealthRegistry.getPeerHealth()).thenReturn(List.of(health));
+
+        final Response response = partyInfoResource.getPeerHealth();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        final JsonObject output = Json.createReader(new StringReader(response.getEntity().toString())).readObject();
+        assertThat(output.getJsonArray("peers")).hasSize(1);
+        final JsonObject peer = output.getJsonArray("peers").getJsonObject(0);
+        assertThat(peer.getString("url")).isEqualTo("http://localhost:9002/");
+        assertThat(peer.getString("state")).isEqualTo("CLOSED");
+        assertThat(peer.getJsonNumber("score").doubleValue()).isEqualTo(0.75);
+        assertThat(peer.getInt("calls")).isEqualTo(4);
+        assertThat(peer.getInt("failures")).isEqualTo(1);
+        assertThat(peer.getJsonNumber("averageLatency").longValue()).isEqualTo(15L);
+        assertThat(peer.getJsonNumber("maxLatency").longValue()).isEqualTo(40L);
+
+        verify(peerHealthRegistry).getPeerHealth();
+    }
+
+    @Test
+    public void constructWithDefaultRegistry() {
+        assertThat(new PartyInfoResource(discovery)).isNotNull();
     }
 
     @Test
     public void getPartyInfoKeys() {
 
         final String partyInfoJson =
-            "{\"keys\":[{\"key\":\"BULeR8JyUWhiuuCMU/HLA0Q5pzkYT+cHII3ZKBey3Bo=\"},{\"key\":\"QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=\"}]}";
-
-        final NodeInfo nodeInfo = NodeInfo.Builder.create()
-            .withUrl("http://localhost:9001/")
-            .withRecipients(List.of(
-                Recipient.of(
-                    PublicKey.from(
-                        Base64.getDecoder()
-                            .decode(
-                                "QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=")),
-                    "http://localhost:9002/"),
-                Recipient.of(
-                    PublicKey.from(
-                        Base64.getDecoder()
-                            .decode(
-                                "BULeR8JyUWhiuuCMU/HLA0Q5pzkYT+cHII3ZKBey3Bo=")),
-                    "http://localhost:9001/")))
-            .build();
+                "{\"keys\":[{\"key\":\"BULeR8JyUWhiuuCMU/HLA0Q5pzkYT+cHII3ZKBey3Bo=\"},{\"key\":\"QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=\"}]}";
+
+        final NodeInfo nodeInfo =
+                NodeInfo.Builder.create()
+                        .withUrl("http://localhost:9001/")
+                        .withRecipients(
+                                List.of(
+                                        Recipient.of(
+                                                PublicKey.from(
+                                                        Base64.getDecoder()
+                                                                .decode(
+                                                                        "QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=")),
+                                                "http://localhost:9002/"),
+                                        Recipient.of(
+                                                PublicKey.from(
+                                                        Base64.getDecoder()
+                                                                .decode(
+                                                                        "BULeR8JyUWhiuuCMU/HLA0Q5pzkYT+cHII3ZKBey3Bo=")),
+                                                "http://localhost:9001/")))
+                        .build();
 
         when(discovery.getCurrent()).thenReturn(nodeInfo);
 
@@ -76,7 +113,7 @@ public class PartyInfoResourceTest {
 
         assertThat(actualJsonObject).containsOnlyKeys("keys");
         assertThat(actualJsonObject.getJsonArray("keys"))
-            .containsExactlyInAnyOrderElementsOf(expectedJsonObject.getJsonArray("keys"));
+                .containsExactlyInAnyOrderElementsOf(expectedJsonObject.getJsonArray("keys"));
 
         verify(discovery).getCurrent();
     }
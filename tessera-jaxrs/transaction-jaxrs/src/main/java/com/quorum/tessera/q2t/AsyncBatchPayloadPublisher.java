@@ -12,8 +12,11 @@ import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
 
@@ -76,4 +79,67 @@ public class AsyncBatchPayloadPublisher implements BatchPayloadPublisher {
             throw new BatchPublishPayloadException(e);
         }
     }
+
+    /**
+     * Asynchronously strips each payload for the recipient it is listed under and publishes them, handing the payloads
+     * for all the recipients on one node to the publisher at once so that they can be pushed together.
+     *
+     * <p>This method blocks until the payloads have been published to every node; if publishing to a node fails with an
+     * exception, the method exits immediately and does not wait for the remaining nodes.
+     *
+     * @param payloads the payloads to be stripped and pushed, keyed by the public key of their recipient
+     */
+    @Override
+    public void publishPayloads(Map<PublicKey, List<EncodedPayload>> payloads) {
+        final Map<String, Map<PublicKey, List<EncodedPayload>>> payloadsByNode = new LinkedHashMap<>();
+        payloads.forEach(
+                (recipient, recipientPayloads) ->
+                        payloadsByNode
+                                .computeIfAbsent(publisher.nodeOf(recipient), node -> new LinkedHashMap<>())
+                                .put(recipient, recipientPayloads));
+
+        if (payloadsByNode.isEmpty()) {
+            return;
+        }
+
+        final CancellableCountDownLatch latch = countDownLatchFactory.create(payloadsByNode.size());
+
+        payloadsByNode
+                .values()
+                .forEach(
+                        nodePayloads ->
+                                executor.execute(
+                                        () -> {
+                                            try {
+                                                publisher.publishPayloads(strip(nodePayloads));
+                                                latch.countDown();
+                                            } catch (RuntimeException e) {
+                                                LOGGER.info("unable to publish payloads in batch: {}", e.getMessage());
+                                                latch.cancelWithException(e);
+                                            }
+                                        }));
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new BatchPublishPayloadException(e);
+        }
+    }
+
+    private Map<PublicKey, List<EncodedPayload>> strip(Map<PublicKey, List<EncodedPayload>> payloads) {
+        final Map<PublicKey, List<EncodedPayload>> outgoing = new LinkedHashMap<>();
+        payloads.forEach(
+                (recipient, recipientPayloads) ->
+                        outgoing.put(
+                                recipient,
+                                recipientPayloads.stream()
+                                        .map(payload -> encoder.forRecipient(payload, recipient))
+                                        .collect(Collectors.toList())));
+        return outgoing;
+    }
+
+    @Override
+    public boolean isCompressionSupported(List<PublicKey> recipientKeys) {
+        return recipientKeys.stream().allMatch(publisher::isCompressionSupported);
+    }
 }
@@ -46,8 +46,9 @@ public class Q2TRestApp extends TesseraRestApplication {
         TransactionManager transactionManager = TransactionManagerFactory.create().create(config);
         EncodedPayloadManager encodedPayloadManager = EncodedPayloadManager.create(config);
 
-        TransactionResource transactionResource = new TransactionResource(transactionManager);
-        TransactionResource3 transactionResource3 = new TransactionResource3(transactionManager);
+        final long asyncTimeout = getAsyncTimeout(config);
+        TransactionResource transactionResource = new TransactionResource(transactionManager, asyncTimeout);
+        TransactionResource3 transactionResource3 = new TransactionResource3(transactionManager, asyncTimeout);
 
         RawTransactionResource rawTransactionResource = new RawTransactionResource(transactionManager);
         EncodedPayloadResource encodedPayloadResource =
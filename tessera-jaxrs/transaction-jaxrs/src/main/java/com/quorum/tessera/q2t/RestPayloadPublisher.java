@@ -1,9 +1,13 @@
 package com.quorum.tessera.q2t;
 
+import com.quorum.tessera.api.BatchReceiveRequest;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.transaction.exception.EnhancedPrivacyNotSupportedException;
 import com.quorum.tessera.partyinfo.node.NodeInfo;
@@ -11,15 +15,23 @@ import com.quorum.tessera.transaction.publish.NodeOfflineException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
 import com.quorum.tessera.version.EnhancedPrivacyVersion;
+import com.quorum.tessera.version.PayloadCompressionVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class RestPayloadPublisher implements PayloadPublisher {
 
@@ -31,14 +43,25 @@ public class RestPayloadPublisher implements PayloadPublisher {
 
     private final Discovery discovery;
 
+    private final PeerHealthRegistry peerHealthRegistry;
+
     public RestPayloadPublisher(Client restclient, Discovery discovery) {
         this(restclient, PayloadEncoder.create(), discovery);
     }
 
     public RestPayloadPublisher(Client restclient, PayloadEncoder payloadEncoder, Discovery discovery) {
+        this(restclient, payloadEncoder, discovery, PeerHealthRegistry.getInstance());
+    }
+
+    public RestPayloadPublisher(
+            Client restclient,
+            PayloadEncoder payloadEncoder,
+            Discovery discovery,
+            PeerHealthRegistry peerHealthRegistry) {
         this.restclient = restclient;
         this.payloadEncoder = payloadEncoder;
         this.discovery = discovery;
+        this.peerHealthRegistry = peerHealthRegistry;
     }
 
     @Override
@@ -46,32 +69,144 @@ public class RestPayloadPublisher implements PayloadPublisher {
 
         final NodeInfo remoteNodeInfo = discovery.getRemoteNodeInfo(recipientKey);
 
+        checkEnhancedPrivacySupported(remoteNodeInfo, payload, recipientKey);
+
+        push(remoteNodeInfo.getUrl(), payload);
+    }
+
+    /**
+     * Publishes the payloads for all the recipients hosted on one node in a single request to its {@code /push/batch}
+     * endpoint, split into requests of at most {@link BatchReceiveRequest#MAX_REQUESTS} payloads. Nodes that do not
+     * accept batches, which includes nodes in recovery mode, have each payload pushed on its own instead.
+     *
+     * @param payloads the payload objects to be pushed, keyed by the public key identifying their target node
+     */
+    @Override
+    public void publishPayloads(Map<PublicKey, List<EncodedPayload>> payloads) {
+
+        final Map<String, List<EncodedPayload>> payloadsByNode = new LinkedHashMap<>();
+        payloads.forEach(
+                (recipientKey, recipientPayloads) -> {
+                    final NodeInfo remoteNodeInfo = discovery.getRemoteNodeInfo(recipientKey);
+                    recipientPayloads.forEach(
+                            payload -> checkEnhancedPrivacySupported(remoteNodeInfo, payload, recipientKey));
+                    payloadsByNode
+                            .computeIfAbsent(remoteNodeInfo.getUrl(), url -> new ArrayList<>())
+                            .addAll(recipientPayloads);
+                });
+
+        payloadsByNode.forEach(
+                (targetUrl, nodePayloads) -> {
+                    for (int from = 0; from < nodePayloads.size(); from += BatchReceiveRequest.MAX_REQUESTS) {
+                        final int to = Math.min(from + BatchReceiveRequest.MAX_REQUESTS, nodePayloads.size());
+                        pushBatch(targetUrl, nodePayloads.subList(from, to));
+                    }
+                });
+    }
+
+    /**
+     * Identifies the recipient's node by its url, as the payloads for all the recipients on it are pushed together.
+     *
+     * @param recipientKey the public key identifying the target node
+     * @return the url of the recipient's node
+     */
+    @Override
+    public String nodeOf(PublicKey recipientKey) {
+        return discovery.getRemoteNodeInfo(recipientKey).getUrl();
+    }
+
+    /**
+     * Checks the API versions the recipient's node advertised to find out whether it can decrypt compressed payloads. A
+     * recipient that is not currently known is reported as not supporting them, and publishing to it will report the
+     * missing recipient.
+     *
+     * @param recipientKey the public key identifying the target node
+     * @return true if the recipient's node supports compressed payloads
+     */
+    @Override
+    public boolean isCompressionSupported(PublicKey recipientKey) {
+        try {
+            return discovery
+                    .getRemoteNodeInfo(recipientKey)
+                    .supportedApiVersions()
+                    .contains(PayloadCompressionVersion.API_VERSION_2_2);
+        } catch (KeyNotFoundException ex) {
+            LOGGER.debug("Unable to find node of recipient {}", recipientKey.encodeToBase64(), ex);
+            return false;
+        }
+    }
+
+    private static void checkEnhancedPrivacySupported(
+            NodeInfo remoteNodeInfo, EncodedPayload payload, PublicKey recipientKey) {
         if (PrivacyMode.STANDARD_PRIVATE != payload.getPrivacyMode()
                 && !remoteNodeInfo.supportedApiVersions().contains(EnhancedPrivacyVersion.API_VERSION_2)) {
             throw new EnhancedPrivacyNotSupportedException(
                     "Transactions with enhanced privacy is not currently supported on recipient "
                             + recipientKey.encodeToBase64());
         }
+    }
 
-        final String targetUrl = remoteNodeInfo.getUrl();
+    private void push(String targetUrl, EncodedPayload payload) {
 
         LOGGER.info("Publishing message to {}", targetUrl);
 
         final byte[] encoded = payloadEncoder.encode(payload);
 
-        try (Response response =
-                restclient
-                        .target(targetUrl)
-                        .path("/push")
-                        .request()
-                        .post(Entity.entity(encoded, MediaType.APPLICATION_OCTET_STREAM_TYPE))) {
+        final int status = post(targetUrl, "/push", Entity.entity(encoded, MediaType.APPLICATION_OCTET_STREAM_TYPE));
 
-            if (Response.Status.OK.getStatusCode() != response.getStatus()
-                    && Response.Status.CREATED.getStatusCode() != response.getStatus()) {
-                throw new PublishPayloadException("Unable to push payload to recipient url " + targetUrl);
-            }
+        if (Response.Status.OK.getStatusCode() != status && Response.Status.CREATED.getStatusCode() != status) {
+            throw new PublishPayloadException("Unable to push payload to recipient url " + targetUrl);
+        }
+
+        LOGGER.info("Published to {}", targetUrl);
+    }
+
+    private void pushBatch(String targetUrl, List<EncodedPayload> payloads) {
+
+        LOGGER.info("Publishing {} messages to {}", payloads.size(), targetUrl);
+
+        final JsonArrayBuilder encodedPayloads = Json.createArrayBuilder();
+        payloads.stream()
+                .map(payloadEncoder::encode)
+                .map(Base64.getEncoder()::encodeToString)
+                .forEach(encodedPayloads::add);
+        final String body = Json.createObjectBuilder().add("encodedPayloads", encodedPayloads).build().toString();
+
+        final int status = post(targetUrl, "/push/batch", Entity.entity(body, MediaType.APPLICATION_JSON_TYPE));
+
+        if (Response.Status.NOT_FOUND.getStatusCode() == status) {
+            LOGGER.debug("{} does not accept batches, pushing payloads individually", targetUrl);
+            payloads.forEach(payload -> push(targetUrl, payload));
+            return;
+        }
+
+        if (Response.Status.OK.getStatusCode() != status) {
+            throw new PublishPayloadException("Unable to push payloads to recipient url " + targetUrl);
+        }
+
+        LOGGER.info("Published {} messages to {}", payloads.size(), targetUrl);
+    }
+
+    /**
+     * Posts to the recipient's node, failing fast without a request if too many recent calls to the node have failed.
+     *
+     * @return the status of the response
+     */
+    private int post(String targetUrl, String path, Entity<?> entity) {
+        final NodeUri peer = NodeUri.create(targetUrl);
+        if (!peerHealthRegistry.allowRequest(peer)) {
+            LOGGER.info("Not publishing to {} as too many recent calls to it have failed", targetUrl);
+            throw new NodeOfflineException(URI.create(targetUrl));
+        }
 
-            LOGGER.info("Published to {}", targetUrl);
+        try {
+            return peerHealthRegistry.record(
+                    peer,
+                    () -> {
+                        try (Response response = restclient.target(targetUrl).path(path).request().post(entity)) {
+                            return response.getStatus();
+                        }
+                    });
         } catch (ProcessingException ex) {
             LOGGER.debug("", ex);
             throw new NodeOfflineException(URI.create(targetUrl));
@@ -1,11 +1,14 @@
 package com.quorum.tessera.q2t;
 
 import com.quorum.tessera.api.*;
+import com.quorum.tessera.api.common.AsyncResponses;
 import com.quorum.tessera.api.constraint.PrivacyValid;
 import com.quorum.tessera.config.constraints.ValidBase64;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.transaction.ReceiveResult;
+import com.quorum.tessera.transaction.SendResult;
 import com.quorum.tessera.transaction.TransactionManager;
 import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
@@ -20,14 +23,22 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Providers;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -52,8 +63,15 @@ public class TransactionResource {
 
     private final TransactionManager transactionManager;
 
+    private final long asyncTimeout;
+
     public TransactionResource(TransactionManager transactionManager) {
+        this(transactionManager, AsyncResponse.NO_TIMEOUT);
+    }
+
+    public TransactionResource(TransactionManager transactionManager, long asyncTimeout) {
         this.transactionManager = Objects.requireNonNull(transactionManager);
+        this.asyncTimeout = asyncTimeout;
     }
 
     @Operation(
@@ -68,7 +86,44 @@ public class TransactionResource {
     @Path("send")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response send(@NotNull @Valid @PrivacyValid final SendRequest sendRequest) {
+    public void send(
+            @NotNull @Valid @PrivacyValid final SendRequest sendRequest, @Suspended final AsyncResponse asyncResponse) {
+
+        final com.quorum.tessera.transaction.SendRequest request = toSendRequest(sendRequest);
+
+        AsyncResponses.resume(asyncResponse, transactionManager.sendAsync(request), this::created, asyncTimeout);
+    }
+
+    @Operation(
+            summary = "/sendBatch",
+            operationId = "encryptStoreAndSendBatchJson",
+            description =
+                    "encrypts several payloads, stores the results in database in one database transaction, and publishes them to recipients, pushing the payloads for each recipient node together")
+    @ApiResponse(
+            responseCode = "200",
+            description = "a result for each transaction, in the order requested",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchSendResult.class))))
+    @POST
+    @Path("sendBatch")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public Response sendBatch(
+            @NotNull @Valid @PrivacyValid final BatchSendRequest batchSendRequest, @Context final Providers providers) {
+
+        final List<com.quorum.tessera.transaction.SendRequest> requests =
+                Stream.of(batchSendRequest.getRequests()).map(this::toSendRequest).collect(Collectors.toList());
+
+        LOGGER.debug("Received batch send request for {} transactions", requests.size());
+
+        final BatchSendResult[] results =
+                transactionManager.sendBatch(requests).stream()
+                        .map(result -> toBatchSendResult(result, providers))
+                        .toArray(BatchSendResult[]::new);
+
+        return Response.status(Status.OK).type(APPLICATION_JSON).entity(results).build();
+    }
+
+    private com.quorum.tessera.transaction.SendRequest toSendRequest(final SendRequest sendRequest) {
 
         Base64.Decoder base64Decoder = Base64.getDecoder();
 
@@ -98,37 +153,49 @@ public class TransactionResource {
 
         final PrivacyMode privacyMode = PrivacyMode.fromFlag(sendRequest.getPrivacyFlag());
 
-        final com.quorum.tessera.transaction.SendRequest request =
-                com.quorum.tessera.transaction.SendRequest.Builder.create()
-                        .withRecipients(recipientList)
-                        .withSender(sender)
-                        .withPayload(sendRequest.getPayload())
-                        .withExecHash(execHash)
-                        .withPrivacyMode(privacyMode)
-                        .withAffectedContractTransactions(affectedTransactions)
-                        .build();
-
-        final com.quorum.tessera.transaction.SendResponse response = transactionManager.send(request);
-
-        final String encodedKey =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(Base64.getEncoder()::encodeToString)
-                        .get();
-
-        final SendResponse sendResponse =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(Base64.getEncoder()::encodeToString)
-                        .map(messageHash -> new SendResponse(messageHash, null))
-                        .get();
+        return com.quorum.tessera.transaction.SendRequest.Builder.create()
+                .withRecipients(recipientList)
+                .withSender(sender)
+                .withPayload(sendRequest.getPayload())
+                .withExecHash(execHash)
+                .withPrivacyMode(privacyMode)
+                .withAffectedContractTransactions(affectedTransactions)
+                .build();
+    }
 
-        final URI location =
-                UriBuilder.fromPath("transaction").path(URLEncoder.encode(encodedKey, StandardCharsets.UTF_8)).build();
+    private static BatchSendResult toBatchSendResult(final SendResult result, final Providers providers) {
+
+        final BatchSendResult batchSendResult = new BatchSendResult();
+
+        result.getResponse()
+                .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
+                .map(MessageHash::getHashBytes)
+                .map(Base64.getEncoder()::encodeToString)
+                .ifPresent(
+                        key -> {
+                            batchSendResult.setStatus(Status.CREATED.getStatusCode());
+                            batchSendResult.setKey(key);
+                        });
+
+        result.getError()
+                .map(error -> toErrorResponse(error, providers))
+                .ifPresent(
+                        errorResponse -> {
+                            batchSendResult.setStatus(errorResponse.getStatus());
+                            batchSendResult.setError(Objects.toString(errorResponse.getEntity(), ""));
+                        });
+
+        return batchSendResult;
+    }
 
-        return Response.status(Status.CREATED).type(APPLICATION_JSON).location(location).entity(sendResponse).build();
+    // failed requests in a batch get the status and message they would have had if requested on their own
+    private static Response toErrorResponse(final RuntimeException error, final Providers providers) {
+        @SuppressWarnings("unchecked")
+        final ExceptionMapper<RuntimeException> mapper =
+                providers.getExceptionMapper((Class<RuntimeException>) error.getClass());
+        return Optional.ofNullable(mapper)
+                .map(m -> m.toResponse(error))
+                .orElseGet(() -> Response.serverError().entity(error.getMessage()).build());
     }
 
     @Operation(
@@ -176,14 +243,15 @@ public class TransactionResource {
     @Path("sendsignedtx")
     @Consumes(APPLICATION_OCTET_STREAM)
     @Produces(TEXT_PLAIN)
-    public Response sendSignedTransactionStandard(
+    public void sendSignedTransactionStandard(
             @Parameter(
                             description =
                                     "comma-separated list of recipient public keys (for application/octet-stream requests)",
                             schema = @Schema(format = "base64"))
                     @HeaderParam("c11n-to")
                     final String recipientKeys,
-            @Valid @NotNull @Size(min = 1) final byte[] signedTransaction) {
+            @Valid @NotNull @Size(min = 1) final byte[] signedTransaction,
+            @Suspended final AsyncResponse asyncResponse) {
 
         final List<PublicKey> recipients =
                 Stream.ofNullable(recipientKeys)
@@ -203,20 +271,8 @@ public class TransactionResource {
                         .withExecHash(new byte[0])
                         .build();
 
-        final com.quorum.tessera.transaction.SendResponse response = transactionManager.sendSignedTransaction(request);
-
-        final String encodedTransactionHash =
-                Base64.getEncoder().encodeToString(response.getTransactionHash().getHashBytes());
-
-        LOGGER.debug("Encoded key: {}", encodedTransactionHash);
-
-        URI location =
-                UriBuilder.fromPath("transaction")
-                        .path(URLEncoder.encode(encodedTransactionHash, StandardCharsets.UTF_8))
-                        .build();
-
-        // TODO: Quorum expects only 200 responses. When Quorum can handle a 201, change to CREATED
-        return Response.status(Status.OK).entity(encodedTransactionHash).location(location).build();
+        AsyncResponses.resume(
+                asyncResponse, transactionManager.sendSignedTransactionAsync(request), this::ok, asyncTimeout);
     }
 
     // path /sendsignedtx is overloaded (application/octet-stream and application/json) annotations cannot handle
@@ -226,8 +282,9 @@ public class TransactionResource {
     @Path("sendsignedtx")
     @Consumes(APPLICATION_JSON)
     @Produces(APPLICATION_JSON)
-    public Response sendSignedTransactionEnhanced(
-            @NotNull @Valid @PrivacyValid final SendSignedRequest sendSignedRequest) {
+    public void sendSignedTransactionEnhanced(
+            @NotNull @Valid @PrivacyValid final SendSignedRequest sendSignedRequest,
+            @Suspended final AsyncResponse asyncResponse) {
 
         final List<PublicKey> recipients =
                 Optional.ofNullable(sendSignedRequest.getTo())
@@ -258,26 +315,8 @@ public class TransactionResource {
                         .withExecHash(execHash)
                         .build();
 
-        final com.quorum.tessera.transaction.SendResponse response = transactionManager.sendSignedTransaction(request);
-
-        final String endcodedTransactionHash =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(Base64.getEncoder()::encodeToString)
-                        .get();
-
-        LOGGER.debug("Encoded key: {}", endcodedTransactionHash);
-
-        URI location =
-                UriBuilder.fromPath("transaction")
-                        .path(URLEncoder.encode(endcodedTransactionHash, StandardCharsets.UTF_8))
-                        .build();
-
-        SendResponse sendResponse = new SendResponse();
-        sendResponse.setKey(endcodedTransactionHash);
-
-        return Response.status(Status.CREATED).type(APPLICATION_JSON).location(location).entity(sendResponse).build();
+        AsyncResponses.resume(
+                asyncResponse, transactionManager.sendSignedTransactionAsync(request), this::created, asyncTimeout);
     }
 
     @Operation(
@@ -298,7 +337,7 @@ public class TransactionResource {
     @Path("sendraw")
     @Consumes(APPLICATION_OCTET_STREAM)
     @Produces(TEXT_PLAIN)
-    public Response sendRaw(
+    public void sendRaw(
             @HeaderParam("c11n-from")
                     @Parameter(
                             description =
@@ -312,7 +351,8 @@ public class TransactionResource {
                             description = "comma-separated list of recipient public keys",
                             schema = @Schema(format = "base64"))
                     final String recipientKeys,
-            @Schema(description = "data to be encrypted") @NotNull @Size(min = 1) @Valid final byte[] payload) {
+            @Schema(description = "data to be encrypted") @NotNull @Size(min = 1) @Valid final byte[] payload,
+            @Suspended final AsyncResponse asyncResponse) {
 
         final PublicKey senderKey =
                 Optional.ofNullable(sender)
@@ -341,18 +381,33 @@ public class TransactionResource {
                         .withExecHash(new byte[0])
                         .build();
 
-        final com.quorum.tessera.transaction.SendResponse sendResponse = transactionManager.send(request);
+        AsyncResponses.resume(asyncResponse, transactionManager.sendAsync(request), this::ok, asyncTimeout);
+    }
+
+    // the JSON response to a send, giving the hash of the transaction
+    private Response created(final com.quorum.tessera.transaction.SendResponse response) {
+
+        final String encodedKey = Base64.getEncoder().encodeToString(response.getTransactionHash().getHashBytes());
+
+        LOGGER.debug("Encoded key: {}", encodedKey);
+
+        final URI location =
+                UriBuilder.fromPath("transaction").path(URLEncoder.encode(encodedKey, StandardCharsets.UTF_8)).build();
+
+        final SendResponse sendResponse = new SendResponse(encodedKey, null);
+
+        return Response.status(Status.CREATED).type(APPLICATION_JSON).location(location).entity(sendResponse).build();
+    }
+
+    // the plain text response to a send, giving the hash of the transaction
+    private Response ok(final com.quorum.tessera.transaction.SendResponse response) {
 
         final String encodedTransactionHash =
-                Optional.of(sendResponse)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(Base64.getEncoder()::encodeToString)
-                        .get();
+                Base64.getEncoder().encodeToString(response.getTransactionHash().getHashBytes());
 
         LOGGER.debug("Encoded key: {}", encodedTransactionHash);
 
-        URI location =
+        final URI location =
                 UriBuilder.fromPath("transaction")
                         .path(URLEncoder.encode(encodedTransactionHash, StandardCharsets.UTF_8))
                         .build();
@@ -444,6 +499,68 @@ public class TransactionResource {
 
         LOGGER.debug("Received receive request");
 
+        com.quorum.tessera.transaction.ReceiveResponse response = transactionManager.receive(toReceiveRequest(request));
+
+        ReceiveResponse receiveResponse = new ReceiveResponse();
+        receiveResponse.setPrivacyFlag(response.getPrivacyMode().getPrivacyFlag());
+        receiveResponse.setPayload(response.getUnencryptedTransactionData());
+        Optional.ofNullable(response.getExecHash()).map(String::new).ifPresent(receiveResponse::setExecHash);
+
+        String[] affectedTransactions =
+                response.getAffectedTransactions().stream()
+                        .map(MessageHash::getHashBytes)
+                        .map(Base64.getEncoder()::encodeToString)
+                        .toArray(String[]::new);
+
+        receiveResponse.setAffectedContractTransactions(affectedTransactions);
+
+        return Response.status(Status.OK).type(APPLICATION_JSON).entity(receiveResponse).build();
+    }
+
+    @Operation(
+            summary = "/transaction/batch",
+            operationId = "getDecryptedPayloadsJson",
+            description =
+                    "get several payloads from database, decrypt, and return a result for each in the order requested")
+    @ApiResponse(
+            responseCode = "200",
+            description = "a result for each requested payload, each sent as soon as it has been decrypted",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = BatchReceiveResult.class))))
+    @POST
+    @Path("/transaction/batch")
+    @Consumes(APPLICATION_JSON)
+    @Produces(APPLICATION_JSON)
+    public Response receiveBatch(
+            @NotNull @Valid final BatchReceiveRequest batchReceiveRequest, @Context final Providers providers) {
+
+        final List<com.quorum.tessera.transaction.ReceiveRequest> requests =
+                Stream.of(batchReceiveRequest.getRequests())
+                        .map(TransactionResource::toReceiveRequest)
+                        .collect(Collectors.toList());
+
+        LOGGER.debug("Received batch receive request for {} transactions", requests.size());
+
+        final Stream<ReceiveResult> results = transactionManager.receiveAll(requests);
+
+        final StreamingOutput output =
+                out -> {
+                    try (JsonGenerator generator = Json.createGenerator(out)) {
+                        generator.writeStartArray();
+                        results.map(result -> toBatchReceiveResult(result, providers))
+                                .forEach(
+                                        result -> {
+                                            write(generator, result);
+                                            generator.flush();
+                                        });
+                        generator.writeEnd();
+                    }
+                };
+
+        return Response.status(Status.OK).type(APPLICATION_JSON).entity(output).build();
+    }
+
+    private static com.quorum.tessera.transaction.ReceiveRequest toReceiveRequest(final ReceiveRequest request) {
+
         Base64.Decoder decoder = Base64.getDecoder();
 
         MessageHash transactionHash =
@@ -458,29 +575,62 @@ public class TransactionResource {
                         .map(PublicKey::from)
                         .orElse(null);
 
-        com.quorum.tessera.transaction.ReceiveRequest receiveRequest =
-                com.quorum.tessera.transaction.ReceiveRequest.Builder.create()
-                        .withTransactionHash(transactionHash)
-                        .withRecipient(recipient)
-                        .withRaw(request.isRaw())
-                        .build();
-
-        com.quorum.tessera.transaction.ReceiveResponse response = transactionManager.receive(receiveRequest);
-
-        ReceiveResponse receiveResponse = new ReceiveResponse();
-        receiveResponse.setPrivacyFlag(response.getPrivacyMode().getPrivacyFlag());
-        receiveResponse.setPayload(response.getUnencryptedTransactionData());
-        Optional.ofNullable(response.getExecHash()).map(String::new).ifPresent(receiveResponse::setExecHash);
-
-        String[] affectedTransactions =
-                response.getAffectedTransactions().stream()
-                        .map(MessageHash::getHashBytes)
-                        .map(Base64.getEncoder()::encodeToString)
-                        .toArray(String[]::new);
+        return com.quorum.tessera.transaction.ReceiveRequest.Builder.create()
+                .withTransactionHash(transactionHash)
+                .withRecipient(recipient)
+                .withRaw(request.isRaw())
+                .build();
+    }
 
-        receiveResponse.setAffectedContractTransactions(affectedTransactions);
+    private static BatchReceiveResult toBatchReceiveResult(final ReceiveResult result, final Providers providers) {
+
+        final BatchReceiveResult batchReceiveResult = new BatchReceiveResult();
+        batchReceiveResult.setKey(Base64.getEncoder().encodeToString(result.getTransactionHash().getHashBytes()));
+
+        result.getResponse()
+                .ifPresent(
+                        response -> {
+                            batchReceiveResult.setStatus(Status.OK.getStatusCode());
+                            batchReceiveResult.setPayload(response.getUnencryptedTransactionData());
+                            batchReceiveResult.setPrivacyFlag(response.getPrivacyMode().getPrivacyFlag());
+                            batchReceiveResult.setAffectedContractTransactions(
+                                    response.getAffectedTransactions().stream()
+                                            .map(MessageHash::getHashBytes)
+                                            .map(Base64.getEncoder()::encodeToString)
+                                            .toArray(String[]::new));
+                            Optional.ofNullable(response.getExecHash())
+                                    .map(String::new)
+                                    .ifPresent(batchReceiveResult::setExecHash);
+                        });
+
+        result.getError()
+                .map(error -> toErrorResponse(error, providers))
+                .ifPresent(
+                        errorResponse -> {
+                            batchReceiveResult.setStatus(errorResponse.getStatus());
+                            batchReceiveResult.setError(Objects.toString(errorResponse.getEntity(), ""));
+                        });
+
+        return batchReceiveResult;
+    }
 
-        return Response.status(Status.OK).type(APPLICATION_JSON).entity(receiveResponse).build();
+    private static void write(final JsonGenerator generator, final BatchReceiveResult result) {
+        generator.writeStartObject();
+        generator.write("key", result.getKey());
+        generator.write("status", result.getStatus());
+
+        if (Objects.nonNull(result.getError())) {
+            generator.write("error", result.getError());
+        } else {
+            generator.write("payload", Base64.getEncoder().encodeToString(result.getPayload()));
+            generator.write("privacyFlag", result.getPrivacyFlag());
+            generator.writeStartArray("affectedContractTransactions");
+            Stream.of(result.getAffectedContractTransactions()).forEach(generator::write);
+            generator.writeEnd();
+            Optional.ofNullable(result.getExecHash()).ifPresent(execHash -> generator.write("execHash", execHash));
+        }
+
+        generator.writeEnd();
     }
 
     @Operation(
@@ -4,6 +4,7 @@ import com.quorum.tessera.api.ReceiveResponse;
 import com.quorum.tessera.api.SendRequest;
 import com.quorum.tessera.api.SendResponse;
 import com.quorum.tessera.api.SendSignedRequest;
+import com.quorum.tessera.api.common.AsyncResponses;
 import com.quorum.tessera.api.constraint.PrivacyValid;
 import com.quorum.tessera.config.constraints.ValidBase64;
 import com.quorum.tessera.data.MessageHash;
@@ -26,6 +27,8 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import java.net.URI;
@@ -57,8 +60,15 @@ public class TransactionResource3 {
 
     private final Base64.Encoder base64Encoder = Base64.getEncoder();
 
+    private final long asyncTimeout;
+
     public TransactionResource3(final TransactionManager transactionManager) {
+        this(transactionManager, AsyncResponse.NO_TIMEOUT);
+    }
+
+    public TransactionResource3(final TransactionManager transactionManager, final long asyncTimeout) {
         this.transactionManager = Objects.requireNonNull(transactionManager);
+        this.asyncTimeout = asyncTimeout;
     }
 
     @Operation(
@@ -73,7 +83,8 @@ public class TransactionResource3 {
     @Path("send")
     @Consumes(MIME_TYPE_JSON_2_1)
     @Produces(MIME_TYPE_JSON_2_1)
-    public Response send(@NotNull @Valid @PrivacyValid final SendRequest sendRequest) {
+    public void send(
+            @NotNull @Valid @PrivacyValid final SendRequest sendRequest, @Suspended final AsyncResponse asyncResponse) {
 
         final PublicKey sender =
                 Optional.ofNullable(sendRequest.getFrom())
@@ -111,33 +122,7 @@ public class TransactionResource3 {
                         .withAffectedContractTransactions(affectedTransactions)
                         .build();
 
-        final com.quorum.tessera.transaction.SendResponse response = transactionManager.send(request);
-
-        final String encodedKey =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(base64Encoder::encodeToString)
-                        .get();
-
-        final String[] managedParties =
-                Optional.of(response).map(com.quorum.tessera.transaction.SendResponse::getManagedParties)
-                        .orElse(Collections.emptySet()).stream()
-                        .map(PublicKey::encodeToBase64)
-                        .toArray(String[]::new);
-
-        final SendResponse sendResponse =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(base64Encoder::encodeToString)
-                        .map(messageHash -> new SendResponse(messageHash, managedParties))
-                        .get();
-
-        final URI location =
-                UriBuilder.fromPath("transaction").path(URLEncoder.encode(encodedKey, StandardCharsets.UTF_8)).build();
-
-        return Response.created(location).entity(sendResponse).build();
+        AsyncResponses.resume(asyncResponse, transactionManager.sendAsync(request), this::created, asyncTimeout);
     }
 
     @Operation(
@@ -175,7 +160,9 @@ public class TransactionResource3 {
     @Path("sendsignedtx")
     @Consumes(MIME_TYPE_JSON_2_1)
     @Produces(MIME_TYPE_JSON_2_1)
-    public Response sendSignedTransaction(@NotNull @Valid @PrivacyValid final SendSignedRequest sendSignedRequest) {
+    public void sendSignedTransaction(
+            @NotNull @Valid @PrivacyValid final SendSignedRequest sendSignedRequest,
+            @Suspended final AsyncResponse asyncResponse) {
 
         final List<PublicKey> recipients =
                 Optional.ofNullable(sendSignedRequest.getTo()).stream()
@@ -205,35 +192,26 @@ public class TransactionResource3 {
                         .withExecHash(execHash)
                         .build();
 
-        final com.quorum.tessera.transaction.SendResponse response = transactionManager.sendSignedTransaction(request);
+        AsyncResponses.resume(
+                asyncResponse, transactionManager.sendSignedTransactionAsync(request), this::created, asyncTimeout);
+    }
 
-        final String encodedTransactionHash =
-                Optional.of(response)
-                        .map(com.quorum.tessera.transaction.SendResponse::getTransactionHash)
-                        .map(MessageHash::getHashBytes)
-                        .map(base64Encoder::encodeToString)
-                        .get();
+    // the response to a send, giving the hash of the transaction and the parties managed by this node
+    private Response created(final com.quorum.tessera.transaction.SendResponse response) {
 
-        LOGGER.debug("Encoded key: {}", encodedTransactionHash);
+        final String encodedKey = base64Encoder.encodeToString(response.getTransactionHash().getHashBytes());
 
-        final URI location =
-                UriBuilder.fromPath("transaction")
-                        .path(URLEncoder.encode(encodedTransactionHash, StandardCharsets.UTF_8))
-                        .build();
+        LOGGER.debug("Encoded key: {}", encodedKey);
 
         final String[] managedParties =
-                Optional.of(response).map(com.quorum.tessera.transaction.SendResponse::getManagedParties)
-                        .orElse(Collections.emptySet()).stream()
+                Optional.ofNullable(response.getManagedParties()).orElse(Collections.emptySet()).stream()
                         .map(PublicKey::encodeToBase64)
                         .toArray(String[]::new);
 
-        final SendResponse responseEntity = new SendResponse();
-        responseEntity.setKey(encodedTransactionHash);
-        responseEntity.setManagedParties(managedParties);
-
-        LOGGER.debug("Encoded key: {}", encodedTransactionHash);
+        final URI location =
+                UriBuilder.fromPath("transaction").path(URLEncoder.encode(encodedKey, StandardCharsets.UTF_8)).build();
 
-        return Response.created(location).entity(responseEntity).build();
+        return Response.created(location).entity(new SendResponse(encodedKey, managedParties)).build();
     }
 
     @Operation(
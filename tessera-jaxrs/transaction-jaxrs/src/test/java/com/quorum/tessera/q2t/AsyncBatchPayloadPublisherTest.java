@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
@@ -85,8 +86,7 @@ public class AsyncBatchPayloadPublisherTest {
         final Executor realExecutor = Executors.newSingleThreadExecutor();
         when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
-        asyncPublisher =
-            new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+        asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
 
         final EncodedPayload payload = mock(EncodedPayload.class);
         final EncodedPayload strippedPayload = mock(EncodedPayload.class);
@@ -157,8 +157,7 @@ public class AsyncBatchPayloadPublisherTest {
         final Executor realExecutor = Executors.newCachedThreadPool();
         when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
 
-        asyncPublisher =
-            new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+        asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
 
         final EncodedPayload payload = mock(EncodedPayload.class);
         final EncodedPayload strippedPayload = mock(EncodedPayload.class);
@@ -172,18 +171,16 @@ public class AsyncBatchPayloadPublisherTest {
 
         final PublishPayloadException cause = new PublishPayloadException("some exception");
 
-        doThrow(cause)
-            .doNothing()
-            .when(publisher).publishPayload(any(EncodedPayload.class), any(PublicKey.class));
+        doThrow(cause).doNothing().when(publisher).publishPayload(any(EncodedPayload.class), any(PublicKey.class));
 
         doAnswer(
-            invocation -> {
-                // sleep main thread so publish threads can work
-                Thread.sleep(200);
-                return null;
-            })
-            .when(countDownLatch)
-            .await();
+                        invocation -> {
+                            // sleep main thread so publish threads can work
+                            Thread.sleep(200);
+                            return null;
+                        })
+                .when(countDownLatch)
+                .await();
 
         asyncPublisher.publishPayload(payload, recipients);
 
@@ -197,4 +194,166 @@ public class AsyncBatchPayloadPublisherTest {
         verify(countDownLatch).cancelWithException(cause);
         verify(countDownLatch).await();
     }
+
+    @Test
+    public void publishPayloadsUsesThreadForEachNode() throws InterruptedException {
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey sameNodeRecipient = PublicKey.from("SAMENODERECIPIENT".getBytes());
+        final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+        when(publisher.nodeOf(recipient)).thenReturn("node");
+        when(publisher.nodeOf(sameNodeRecipient)).thenReturn("node");
+        when(publisher.nodeOf(otherRecipient)).thenReturn("otherNode");
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+
+        asyncPublisher.publishPayloads(
+                Map.of(
+                        recipient,
+                        List.of(payload),
+                        sameNodeRecipient,
+                        List.of(payload),
+                        otherRecipient,
+                        List.of(payload)));
+
+        verify(publisher).nodeOf(recipient);
+        verify(publisher).nodeOf(sameNodeRecipient);
+        verify(publisher).nodeOf(otherRecipient);
+        verify(countDownLatchFactory).create(2);
+        verify(executorFactory).createCachedThreadPool();
+        verify(executor, times(2)).execute(any(Runnable.class));
+        verify(countDownLatch).await();
+    }
+
+    @Test
+    public void publishPayloadsStripsEachPayloadForItsRecipient() throws InterruptedException {
+        final Executor realExecutor = Executors.newSingleThreadExecutor();
+        when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
+
+        asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+        when(publisher.nodeOf(recipient)).thenReturn("node");
+        when(publisher.nodeOf(otherRecipient)).thenReturn("node");
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        final EncodedPayload otherPayload = mock(EncodedPayload.class);
+        final EncodedPayload strippedPayload = mock(EncodedPayload.class);
+        final EncodedPayload otherStrippedPayload = mock(EncodedPayload.class);
+        final EncodedPayload payloadForOtherRecipient = mock(EncodedPayload.class);
+
+        when(encoder.forRecipient(payload, recipient)).thenReturn(strippedPayload);
+        when(encoder.forRecipient(otherPayload, recipient)).thenReturn(otherStrippedPayload);
+        when(encoder.forRecipient(payload, otherRecipient)).thenReturn(payloadForOtherRecipient);
+
+        doAnswer(
+                        invocation -> {
+                            // sleep main thread so publish threads can work
+                            Thread.sleep(200);
+                            return null;
+                        })
+                .when(countDownLatch)
+                .await();
+
+        asyncPublisher.publishPayloads(
+                Map.of(recipient, List.of(payload, otherPayload), otherRecipient, List.of(payload)));
+
+        verify(publisher).nodeOf(recipient);
+        verify(publisher).nodeOf(otherRecipient);
+        verify(encoder).forRecipient(payload, recipient);
+        verify(encoder).forRecipient(otherPayload, recipient);
+        verify(encoder).forRecipient(payload, otherRecipient);
+        verify(publisher)
+                .publishPayloads(
+                        Map.of(
+                                recipient,
+                                List.of(strippedPayload, otherStrippedPayload),
+                                otherRecipient,
+                                List.of(payloadForOtherRecipient)));
+        verify(executorFactory, times(2)).createCachedThreadPool();
+        verify(countDownLatchFactory).create(1);
+        verify(countDownLatch).countDown();
+        verify(countDownLatch).await();
+    }
+
+    @Test
+    public void publishPayloadsNoRecipientsDoesNothing() {
+        asyncPublisher.publishPayloads(Map.of());
+
+        verify(executorFactory).createCachedThreadPool();
+    }
+
+    @Test
+    public void publishPayloadsWrapsInterruptedException() throws InterruptedException {
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        when(publisher.nodeOf(recipient)).thenReturn("node");
+
+        final InterruptedException cause = new InterruptedException("some exception");
+        doThrow(cause).when(countDownLatch).await();
+
+        final Throwable ex =
+                catchThrowable(
+                        () -> asyncPublisher.publishPayloads(Map.of(recipient, List.of(mock(EncodedPayload.class)))));
+        assertThat(ex).isExactlyInstanceOf(BatchPublishPayloadException.class).hasCause(cause);
+
+        verify(publisher).nodeOf(recipient);
+        verify(executorFactory).createCachedThreadPool();
+        verify(executor).execute(any(Runnable.class));
+        verify(countDownLatchFactory).create(1);
+        verify(countDownLatch).await();
+    }
+
+    @Test
+    public void publishPayloadsCancelsCountDownLatchIfOneNodeFails() throws InterruptedException {
+        final Executor realExecutor = Executors.newSingleThreadExecutor();
+        when(executorFactory.createCachedThreadPool()).thenReturn(realExecutor);
+
+        asyncPublisher = new AsyncBatchPayloadPublisher(executorFactory, countDownLatchFactory, publisher, encoder);
+
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        when(publisher.nodeOf(recipient)).thenReturn("node");
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        final EncodedPayload strippedPayload = mock(EncodedPayload.class);
+        when(encoder.forRecipient(payload, recipient)).thenReturn(strippedPayload);
+
+        final PublishPayloadException cause = new PublishPayloadException("some exception");
+        doThrow(cause).when(publisher).publishPayloads(anyMap());
+
+        doAnswer(
+                        invocation -> {
+                            // sleep main thread so publish threads can work
+                            Thread.sleep(200);
+                            return null;
+                        })
+                .when(countDownLatch)
+                .await();
+
+        asyncPublisher.publishPayloads(Map.of(recipient, List.of(payload)));
+
+        verify(publisher).nodeOf(recipient);
+        verify(encoder).forRecipient(payload, recipient);
+        verify(publisher).publishPayloads(Map.of(recipient, List.of(strippedPayload)));
+        verify(executorFactory, times(2)).createCachedThreadPool();
+        verify(countDownLatchFactory).create(1);
+        verify(countDownLatch).cancelWithException(cause);
+        verify(countDownLatch).await();
+    }
+
+    @Test
+    public void compressionIsSupportedOnlyIfEveryRecipientSupportsIt() {
+        final PublicKey recipient = PublicKey.from("RECIPIENT".getBytes());
+        final PublicKey otherRecipient = PublicKey.from("OTHERRECIPIENT".getBytes());
+
+        when(publisher.isCompressionSupported(recipient)).thenReturn(true);
+        when(publisher.isCompressionSupported(otherRecipient)).thenReturn(false);
+
+        assertThat(asyncPublisher.isCompressionSupported(List.of(recipient))).isTrue();
+        assertThat(asyncPublisher.isCompressionSupported(List.of(recipient, otherRecipient))).isFalse();
+        assertThat(asyncPublisher.isCompressionSupported(List.of())).isTrue();
+
+        verify(publisher, times(2)).isCompressionSupported(recipient);
+        verify(publisher).isCompressionSupported(otherRecipient);
+        verify(executorFactory).createCachedThreadPool();
+    }
 }
@@ -0,0 +1,138 @@
+package com.quorum.tessera.q2t;
+
+import com.quorum.tessera.config.CommunicationType;
+import com.quorum.tessera.config.ServerConfig;
+import com.quorum.tessera.config.ServerTuningConfig;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.server.JerseyServer;
+import com.quorum.tessera.transaction.SendRequest;
+import com.quorum.tessera.transaction.SendResponse;
+import com.quorum.tessera.transaction.TransactionManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures send throughput when more clients send than the server has threads for, with the send done on the request
+ * thread and with the request suspended while the transaction manager sends. Each send spends 50 milliseconds
+ * waiting, standing in for the recipients' nodes storing the pushed transaction.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.q2t.AsyncSendBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(128)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class AsyncSendBenchmark {
+
+    private static final PublicKey SENDER = PublicKey.from("SENDER".getBytes());
+
+    @Param({"blocking", "async"})
+    public String mode;
+
+    private ExecutorService sendExecutor;
+
+    private JerseyServer server;
+
+    private Client client;
+
+    private WebTarget target;
+
+    @Setup
+    public void setUp() throws Exception {
+        sendExecutor = Executors.newCachedThreadPool();
+
+        // records no invocations, as there are far too many to keep
+        final TransactionManager transactionManager = mock(TransactionManager.class, withSettings().stubOnly());
+        when(transactionManager.defaultPublicKey()).thenReturn(SENDER);
+        when(transactionManager.send(any()))
+                .thenAnswer(
+                        invocation -> {
+                            Thread.sleep(50);
+                            return SendResponse.Builder.create()
+                                    .withMessageHash(new MessageHash("HASH".getBytes()))
+                                    .build();
+                        });
+        when(transactionManager.sendAsync(any()))
+                .thenAnswer(
+                        invocation -> {
+                            final SendRequest request = invocation.getArgument(0);
+                            if ("blocking".equals(mode)) {
+                                return CompletableFuture.completedFuture(transactionManager.send(request));
+                            }
+                            return CompletableFuture.supplyAsync(() -> transactionManager.send(request), sendExecutor);
+                        });
+
+        final ServerTuningConfig tuning = new ServerTuningConfig();
+        tuning.setMinThreads(16);
+        tuning.setMaxThreads(16);
+        tuning.setAcceptors(1);
+        tuning.setSelectors(1);
+        tuning.setQueueCapacity(1024);
+        tuning.setAcceptQueueSize(1024);
+
+        final ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setCommunicationType(CommunicationType.REST);
+        serverConfig.setServerAddress("http://localhost:8091");
+        serverConfig.setTuningConfig(tuning);
+
+        server =
+                new JerseyServer(
+                        serverConfig,
+                        new Application() {
+                            @Override
+                            public Set<Object> getSingletons() {
+                                return Set.of(new TransactionResource(transactionManager, 30000L));
+                            }
+                        });
+        server.start();
+
+        client = ClientBuilder.newClient();
+        target = client.target(serverConfig.getServerUri()).path("sendraw");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.stop();
+        sendExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int send() {
+        final Response response =
+                target.request()
+                        .header("c11n-to", Base64.getEncoder().encodeToString("RECIPIENT".getBytes()))
+                        .post(Entity.entity("PAYLOAD".getBytes(), MediaType.APPLICATION_OCTET_STREAM));
+        response.close();
+        return response.getStatus();
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AsyncSendBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,9 +1,13 @@
 package com.quorum.tessera.q2t;
 
+import com.quorum.tessera.api.BatchReceiveRequest;
 import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.discovery.NodeUri;
+import com.quorum.tessera.discovery.PeerHealthRegistry;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 import com.quorum.tessera.enclave.PrivacyMode;
+import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.jaxrs.mock.MockClient;
 import com.quorum.tessera.transaction.exception.EnhancedPrivacyNotSupportedException;
@@ -13,18 +17,22 @@ import com.quorum.tessera.transaction.publish.NodeOfflineException;
 import com.quorum.tessera.transaction.publish.PublishPayloadException;
 import org.junit.*;
 
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonString;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.io.StringReader;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -39,12 +47,18 @@ public class RestPayloadPublisherTest {
 
     private Discovery discovery;
 
+    private PeerHealthRegistry peerHealthRegistry;
+
     @Before
     public void onSetUp() {
         mockClient = new MockClient();
         encoder = mock(PayloadEncoder.class);
         discovery = mock(Discovery.class);
-        publisher = new RestPayloadPublisher(mockClient, encoder, discovery);
+        peerHealthRegistry = mock(PeerHealthRegistry.class);
+        when(peerHealthRegistry.allowRequest(any(NodeUri.class))).thenReturn(true);
+        when(peerHealthRegistry.record(any(NodeUri.class), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        publisher = new RestPayloadPublisher(mockClient, encoder, discovery, peerHealthRegistry);
     }
 
     @After
@@ -80,11 +94,14 @@ public class RestPayloadPublisherTest {
         when(recipient.getKey()).thenReturn(recipientKey);
         when(recipient.getUrl()).thenReturn(targetUrl);
         when(nodeInfo.getRecipients()).thenReturn(Set.of(recipient));
+        when(nodeInfo.getUrl()).thenReturn(targetUrl);
         when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
 
         publisher.publishPayload(encodedPayload, recipientKey);
 
         assertThat(postedEntities).hasSize(1);
+        verify(peerHealthRegistry).allowRequest(NodeUri.create(targetUrl));
+        verify(peerHealthRegistry).record(eq(NodeUri.create(targetUrl)), any());
 
         Entity entity = postedEntities.get(0);
         assertThat(entity.getMediaType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM_TYPE);
@@ -123,6 +140,7 @@ public class RestPayloadPublisherTest {
         when(recipient.getKey()).thenReturn(recipientKey);
         when(recipient.getUrl()).thenReturn(targetUrl);
         when(nodeInfo.getRecipients()).thenReturn(Set.of(recipient));
+        when(nodeInfo.getUrl()).thenReturn(targetUrl);
         when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
 
         publisher.publishPayload(encodedPayload, recipientKey);
@@ -163,6 +181,7 @@ public class RestPayloadPublisherTest {
         when(recipient.getKey()).thenReturn(recipientKey);
         when(recipient.getUrl()).thenReturn(targetUrl);
         when(nodeInfo.getRecipients()).thenReturn(Set.of(recipient));
+        when(nodeInfo.getUrl()).thenReturn(targetUrl);
         when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
 
         try {
@@ -228,7 +247,8 @@ public class RestPayloadPublisherTest {
         when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
         when(encoder.encode(payload)).thenReturn("SomeData".getBytes());
 
-        RestPayloadPublisher restPayloadPublisher = new RestPayloadPublisher(client, encoder, discovery);
+        RestPayloadPublisher restPayloadPublisher =
+                new RestPayloadPublisher(client, encoder, discovery, peerHealthRegistry);
 
         try {
             restPayloadPublisher.publishPayload(payload, recipientKey);
@@ -241,4 +261,292 @@ public class RestPayloadPublisherTest {
             verify(discovery).getRemoteNodeInfo(eq(recipientKey));
         }
     }
+
+    @Test
+    public void publishToNodeWithOpenCircuitFailsFast() {
+
+        final String targetUri = "http://deadnode.com/";
+        final PublicKey recipientKey = mock(PublicKey.class);
+
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn(targetUri);
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+        when(peerHealthRegistry.allowRequest(NodeUri.create(targetUri))).thenReturn(false);
+
+        Client client = mock(Client.class);
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(payload)).thenReturn("SomeData".getBytes());
+
+        RestPayloadPublisher restPayloadPublisher =
+                new RestPayloadPublisher(client, encoder, discovery, peerHealthRegistry);
+
+        final Throwable throwable = catchThrowable(() -> restPayloadPublisher.publishPayload(payload, recipientKey));
+
+        assertThat(throwable).isInstanceOf(NodeOfflineException.class).hasMessageContaining(targetUri);
+        verifyNoInteractions(client);
+        verify(peerHealthRegistry, never()).record(any(NodeUri.class), any());
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+        verify(encoder).encode(payload);
+    }
+
+    @Test
+    public void publishPayloadsPushesOneBatchPerNode() {
+
+        Invocation.Builder invocationBuilder = mockClient.getWebTarget().getMockInvocationBuilder();
+
+        List<javax.ws.rs.client.Entity> postedEntities = new ArrayList<>();
+
+        doAnswer(
+                        (invocation) -> {
+                            postedEntities.add(invocation.getArgument(0));
+                            return Response.ok().build();
+                        })
+                .when(invocationBuilder)
+                .post(any(javax.ws.rs.client.Entity.class));
+
+        EncodedPayload firstPayload = mock(EncodedPayload.class);
+        when(firstPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(firstPayload)).thenReturn("FIRST".getBytes());
+        EncodedPayload secondPayload = mock(EncodedPayload.class);
+        when(secondPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(secondPayload)).thenReturn("SECOND".getBytes());
+
+        PublicKey firstKey = mock(PublicKey.class);
+        PublicKey secondKey = mock(PublicKey.class);
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn("http://someplace.com");
+        when(discovery.getRemoteNodeInfo(firstKey)).thenReturn(nodeInfo);
+        when(discovery.getRemoteNodeInfo(secondKey)).thenReturn(nodeInfo);
+
+        Map<PublicKey, List<EncodedPayload>> payloads = new LinkedHashMap<>();
+        payloads.put(firstKey, List.of(firstPayload));
+        payloads.put(secondKey, List.of(secondPayload));
+
+        publisher.publishPayloads(payloads);
+
+        assertThat(postedEntities).hasSize(1);
+
+        Entity entity = postedEntities.get(0);
+        assertThat(entity.getMediaType()).isEqualTo(MediaType.APPLICATION_JSON_TYPE);
+        JsonObject body = Json.createReader(new StringReader((String) entity.getEntity())).readObject();
+        assertThat(body.getJsonArray("encodedPayloads").getValuesAs(JsonString::getString))
+                .containsExactly(
+                        Base64.getEncoder().encodeToString("FIRST".getBytes()),
+                        Base64.getEncoder().encodeToString("SECOND".getBytes()));
+
+        verify(encoder).encode(firstPayload);
+        verify(encoder).encode(secondPayload);
+        verify(invocationBuilder).post(any(javax.ws.rs.client.Entity.class));
+        verify(discovery).getRemoteNodeInfo(firstKey);
+        verify(discovery).getRemoteNodeInfo(secondKey);
+    }
+
+    @Test
+    public void publishPayloadsSplitsBatchesLargerThanMaximum() {
+
+        Invocation.Builder invocationBuilder = mockClient.getWebTarget().getMockInvocationBuilder();
+
+        List<javax.ws.rs.client.Entity> postedEntities = new ArrayList<>();
+
+        doAnswer(
+                        (invocation) -> {
+                            postedEntities.add(invocation.getArgument(0));
+                            return Response.ok().build();
+                        })
+                .when(invocationBuilder)
+                .post(any(javax.ws.rs.client.Entity.class));
+
+        EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(payload)).thenReturn("PAYLOAD".getBytes());
+
+        PublicKey recipientKey = mock(PublicKey.class);
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn("http://someplace.com");
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        final int payloadCount = BatchReceiveRequest.MAX_REQUESTS + 1;
+        publisher.publishPayloads(Map.of(recipientKey, Collections.nCopies(payloadCount, payload)));
+
+        assertThat(postedEntities)
+                .extracting(entity -> Json.createReader(new StringReader((String) entity.getEntity())).readObject())
+                .extracting(body -> body.getJsonArray("encodedPayloads").size())
+                .containsExactly(BatchReceiveRequest.MAX_REQUESTS, 1);
+
+        verify(encoder, times(payloadCount)).encode(payload);
+        verify(invocationBuilder, times(2)).post(any(javax.ws.rs.client.Entity.class));
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void publishPayloadsPushesIndividuallyToNodesWithoutBatches() {
+
+        Invocation.Builder invocationBuilder = mockClient.getWebTarget().getMockInvocationBuilder();
+
+        List<javax.ws.rs.client.Entity> postedEntities = new ArrayList<>();
+
+        doAnswer(
+                        (invocation) -> {
+                            postedEntities.add(invocation.getArgument(0));
+                            if (postedEntities.size() == 1) {
+                                return Response.status(Response.Status.NOT_FOUND).build();
+                            }
+                            return Response.created(URI.create("http://location")).build();
+                        })
+                .when(invocationBuilder)
+                .post(any(javax.ws.rs.client.Entity.class));
+
+        EncodedPayload firstPayload = mock(EncodedPayload.class);
+        when(firstPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(firstPayload)).thenReturn("FIRST".getBytes());
+        EncodedPayload secondPayload = mock(EncodedPayload.class);
+        when(secondPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(secondPayload)).thenReturn("SECOND".getBytes());
+
+        PublicKey recipientKey = mock(PublicKey.class);
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn("http://someplace.com");
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        publisher.publishPayloads(Map.of(recipientKey, List.of(firstPayload, secondPayload)));
+
+        assertThat(postedEntities).hasSize(3);
+        assertThat(postedEntities.get(1).getMediaType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM_TYPE);
+        assertThat(postedEntities.get(1).getEntity()).isEqualTo("FIRST".getBytes());
+        assertThat(postedEntities.get(2).getEntity()).isEqualTo("SECOND".getBytes());
+
+        verify(encoder, times(2)).encode(firstPayload);
+        verify(encoder, times(2)).encode(secondPayload);
+        verify(invocationBuilder, times(3)).post(any(javax.ws.rs.client.Entity.class));
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void publishPayloadsReturnsError() {
+
+        Invocation.Builder invocationBuilder = mockClient.getWebTarget().getMockInvocationBuilder();
+
+        doAnswer((invocation) -> Response.serverError().build())
+                .when(invocationBuilder)
+                .post(any(javax.ws.rs.client.Entity.class));
+
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(encodedPayload)).thenReturn("Some Data".getBytes());
+
+        PublicKey recipientKey = mock(PublicKey.class);
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn("http://someplace.com");
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        final Throwable throwable =
+                catchThrowable(() -> publisher.publishPayloads(Map.of(recipientKey, List.of(encodedPayload))));
+
+        assertThat(throwable)
+                .isInstanceOf(PublishPayloadException.class)
+                .hasMessage("Unable to push payloads to recipient url http://someplace.com");
+
+        verify(encoder).encode(encodedPayload);
+        verify(invocationBuilder).post(any(javax.ws.rs.client.Entity.class));
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void publishPayloadsWithEnhancedTransactionsToNodesThatDoNotSupport() {
+
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getPrivacyMode()).thenReturn(PrivacyMode.PARTY_PROTECTION);
+
+        PublicKey recipientKey = mock(PublicKey.class);
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.supportedApiVersions()).thenReturn(Set.of("v1"));
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        final Throwable throwable =
+                catchThrowable(() -> publisher.publishPayloads(Map.of(recipientKey, List.of(encodedPayload))));
+
+        assertThat(throwable)
+                .isInstanceOf(EnhancedPrivacyNotSupportedException.class)
+                .hasMessageContaining("Transactions with enhanced privacy is not currently supported");
+
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void publishPayloadsHandlesConnectionError() {
+
+        final String targetUri = "http://jimmywhite.com";
+        final PublicKey recipientKey = mock(PublicKey.class);
+
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn(targetUri);
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        Client client = mock(Client.class);
+        when(client.target(targetUri)).thenThrow(ProcessingException.class);
+
+        final EncodedPayload payload = mock(EncodedPayload.class);
+        when(payload.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(encoder.encode(payload)).thenReturn("SomeData".getBytes());
+
+        RestPayloadPublisher restPayloadPublisher =
+                new RestPayloadPublisher(client, encoder, discovery, peerHealthRegistry);
+
+        final Throwable throwable =
+                catchThrowable(() -> restPayloadPublisher.publishPayloads(Map.of(recipientKey, List.of(payload))));
+
+        assertThat(throwable).isInstanceOf(NodeOfflineException.class).hasMessageContaining(targetUri);
+
+        verify(client).target(targetUri);
+        verify(encoder).encode(payload);
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void compressionIsSupportedByNodesAdvertisingIt() {
+        final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+        final NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.supportedApiVersions()).thenReturn(Set.of("v2", "2.1", "2.2"));
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        assertThat(publisher.isCompressionSupported(recipientKey)).isTrue();
+
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void compressionIsNotSupportedByOlderNodes() {
+        final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+        final NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.supportedApiVersions()).thenReturn(Set.of("v2", "2.1"));
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        assertThat(publisher.isCompressionSupported(recipientKey)).isFalse();
+
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void compressionIsNotSupportedForUnknownRecipients() {
+        final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenThrow(new KeyNotFoundException("not found"));
+
+        assertThat(publisher.isCompressionSupported(recipientKey)).isFalse();
+
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
+
+    @Test
+    public void nodeOfRecipientIsTheUrlOfItsNode() {
+        final PublicKey recipientKey = PublicKey.from("RECIPIENT".getBytes());
+        final NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getUrl()).thenReturn("http://someplace.com");
+        when(discovery.getRemoteNodeInfo(recipientKey)).thenReturn(nodeInfo);
+
+        assertThat(publisher.nodeOf(recipientKey)).isEqualTo("http://someplace.com");
+
+        verify(discovery).getRemoteNodeInfo(recipientKey);
+    }
 }
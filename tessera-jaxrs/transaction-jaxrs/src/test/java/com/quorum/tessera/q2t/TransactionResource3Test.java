@@ -22,6 +22,7 @@ import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Response;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -179,7 +180,8 @@ public class TransactionResource3Test {
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
         when(sendResponse.getManagedParties()).thenReturn(Set.of(sender));
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, "application/vnd.tessera-2.1+json"));
@@ -194,7 +196,7 @@ public class TransactionResource3Test {
         ArgumentCaptor<com.quorum.tessera.transaction.SendRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendRequest.class);
 
-        verify(transactionManager).send(argumentCaptor.capture());
+        verify(transactionManager).sendAsync(argumentCaptor.capture());
         verify(transactionManager).defaultPublicKey();
 
         com.quorum.tessera.transaction.SendRequest businessObject = argumentCaptor.getValue();
@@ -237,7 +239,8 @@ public class TransactionResource3Test {
 
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, "application/vnd.tessera-2.1+json"));
@@ -251,7 +254,7 @@ public class TransactionResource3Test {
         ArgumentCaptor<com.quorum.tessera.transaction.SendRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendRequest.class);
 
-        verify(transactionManager).send(argumentCaptor.capture());
+        verify(transactionManager).sendAsync(argumentCaptor.capture());
         verify(transactionManager).defaultPublicKey();
 
         com.quorum.tessera.transaction.SendRequest businessObject = argumentCaptor.getValue();
@@ -289,7 +292,8 @@ public class TransactionResource3Test {
         when(messageHash.getHashBytes()).thenReturn(txnData);
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, "application/vnd.tessera-2.1+json"));
@@ -298,7 +302,7 @@ public class TransactionResource3Test {
 
         assertThat(result.getLocation().getPath()).isEqualTo("/transaction/" + base64Encoder.encodeToString(txnData));
 
-        verify(transactionManager).send(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
         verify(transactionManager).defaultPublicKey();
     }
 
@@ -315,8 +319,8 @@ public class TransactionResource3Test {
 
         when(sendResponse.getTransactionHash()).thenReturn(transactionHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         SendSignedRequest sendSignedRequest = new SendSignedRequest();
         sendSignedRequest.setHash("SOMEDATA".getBytes());
@@ -339,7 +343,7 @@ public class TransactionResource3Test {
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
 
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
@@ -367,8 +371,8 @@ public class TransactionResource3Test {
         when(sendResponse.getTransactionHash()).thenReturn(transactionHash);
         when(sendResponse.getManagedParties()).thenReturn(Set.of(sender));
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         SendSignedRequest sendSignedRequest = new SendSignedRequest();
         sendSignedRequest.setHash("SOMEDATA".getBytes());
@@ -391,7 +395,7 @@ public class TransactionResource3Test {
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
 
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
@@ -415,8 +419,8 @@ public class TransactionResource3Test {
 
         when(sendResponse.getTransactionHash()).thenReturn(transactionHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final String base64AffectedHash1 = Base64.getEncoder().encodeToString("aHash1".getBytes());
         final String base64AffectedHash2 = Base64.getEncoder().encodeToString("aHash2".getBytes());
@@ -444,7 +448,7 @@ public class TransactionResource3Test {
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
 
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
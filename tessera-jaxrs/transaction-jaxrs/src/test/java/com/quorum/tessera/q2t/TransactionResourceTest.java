@@ -4,8 +4,12 @@ import com.quorum.tessera.api.*;
 import com.quorum.tessera.data.MessageHash;
 import com.quorum.tessera.enclave.PrivacyMode;
 import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.api.exception.TransactionNotFoundExceptionMapper;
 import com.quorum.tessera.transaction.ReceiveResponse;
+import com.quorum.tessera.transaction.ReceiveResult;
+import com.quorum.tessera.transaction.SendResult;
 import com.quorum.tessera.transaction.TransactionManager;
+import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.JerseyTest;
 import org.glassfish.jersey.test.TestProperties;
@@ -18,12 +22,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,7 +67,9 @@ public class TransactionResourceTest {
                         forceSet(TestProperties.CONTAINER_PORT, "0");
                         enable(TestProperties.LOG_TRAFFIC);
                         enable(TestProperties.DUMP_ENTITY);
-                        return new ResourceConfig().register(transactionResource);
+                        return new ResourceConfig()
+                                .register(transactionResource)
+                                .register(TransactionNotFoundExceptionMapper.class);
                     }
                 };
 
@@ -104,6 +116,239 @@ public class TransactionResourceTest {
         verify(transactionManager).receive(any(com.quorum.tessera.transaction.ReceiveRequest.class));
     }
 
+    @Test
+    public void receiveBatch() {
+        final MessageHash foundHash = new MessageHash("FOUND".getBytes());
+        final MessageHash missingHash = new MessageHash("MISSING".getBytes());
+        final MessageHash affectedHash = new MessageHash("AFFECTED".getBytes());
+        final MessageHash failedHash = new MessageHash("FAILED".getBytes());
+
+        final ReceiveResponse receiveResponse = mock(ReceiveResponse.class);
+        when(receiveResponse.getUnencryptedTransactionData()).thenReturn("Result".getBytes());
+        when(receiveResponse.getPrivacyMode()).thenReturn(PrivacyMode.PRIVATE_STATE_VALIDATION);
+        when(receiveResponse.getAffectedTransactions()).thenReturn(Set.of(affectedHash));
+        when(receiveResponse.getExecHash()).thenReturn("execHash".getBytes());
+
+        when(transactionManager.receiveAll(anyList()))
+                .thenReturn(
+                        Stream.of(
+                                ReceiveResult.success(foundHash, receiveResponse),
+                                ReceiveResult.failure(missingHash, new TransactionNotFoundException("Not found")),
+                                ReceiveResult.failure(failedHash, new IllegalStateException("Failed"))));
+
+        final String recipient = Base64.getEncoder().encodeToString("Bobby Sixkiller".getBytes());
+        final JsonArray requests =
+                Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("key", encode(foundHash)).add("to", recipient))
+                        .add(Json.createObjectBuilder().add("key", encode(missingHash)))
+                        .add(Json.createObjectBuilder().add("key", encode(failedHash)).add("raw", true))
+                        .build();
+
+        final Response response =
+                jersey.target("transaction")
+                        .path("batch")
+                        .request()
+                        .post(
+                                Entity.entity(
+                                        Json.createObjectBuilder().add("requests", requests).build().toString(),
+                                        MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+
+        final JsonArray results = Json.createReader(new StringReader(response.readEntity(String.class))).readArray();
+        assertThat(results).hasSize(3);
+
+        final JsonObject found = results.getJsonObject(0);
+        assertThat(found.getString("key")).isEqualTo(encode(foundHash));
+        assertThat(found.getInt("status")).isEqualTo(200);
+        assertThat(Base64.getDecoder().decode(found.getString("payload"))).isEqualTo("Result".getBytes());
+        assertThat(found.getInt("privacyFlag")).isEqualTo(PrivacyMode.PRIVATE_STATE_VALIDATION.getPrivacyFlag());
+        assertThat(found.getJsonArray("affectedContractTransactions").getString(0)).isEqualTo(encode(affectedHash));
+        assertThat(found.getString("execHash")).isEqualTo("execHash");
+        assertThat(found.containsKey("error")).isFalse();
+
+        final JsonObject missing = results.getJsonObject(1);
+        assertThat(missing.getString("key")).isEqualTo(encode(missingHash));
+        assertThat(missing.getInt("status")).isEqualTo(404);
+        assertThat(missing.getString("error")).isEqualTo("Not found");
+        assertThat(missing.containsKey("payload")).isFalse();
+
+        final JsonObject failed = results.getJsonObject(2);
+        assertThat(failed.getString("key")).isEqualTo(encode(failedHash));
+        assertThat(failed.getInt("status")).isEqualTo(500);
+        assertThat(failed.getString("error")).isEqualTo("Failed");
+
+        final ArgumentCaptor<List<com.quorum.tessera.transaction.ReceiveRequest>> captor =
+                ArgumentCaptor.forClass(List.class);
+        verify(transactionManager).receiveAll(captor.capture());
+
+        final List<com.quorum.tessera.transaction.ReceiveRequest> receiveRequests = captor.getValue();
+        assertThat(receiveRequests)
+                .extracting(com.quorum.tessera.transaction.ReceiveRequest::getTransactionHash)
+                .containsExactly(foundHash, missingHash, failedHash);
+        assertThat(receiveRequests.get(0).getRecipient()).contains(PublicKey.from("Bobby Sixkiller".getBytes()));
+        assertThat(receiveRequests.get(1).getRecipient()).isEmpty();
+        assertThat(receiveRequests.get(2).isRaw()).isTrue();
+    }
+
+    @Test
+    public void receiveBatchWithoutExecHash() {
+        final MessageHash hash = new MessageHash("HASH".getBytes());
+
+        final ReceiveResponse receiveResponse = mock(ReceiveResponse.class);
+        when(receiveResponse.getUnencryptedTransactionData()).thenReturn("Result".getBytes());
+        when(receiveResponse.getPrivacyMode()).thenReturn(PrivacyMode.STANDARD_PRIVATE);
+        when(receiveResponse.getAffectedTransactions()).thenReturn(Set.of());
+
+        when(transactionManager.receiveAll(anyList()))
+                .thenReturn(Stream.of(ReceiveResult.success(hash, receiveResponse)));
+
+        final BatchReceiveRequest batchReceiveRequest = new BatchReceiveRequest();
+        final ReceiveRequest receiveRequest = new ReceiveRequest();
+        receiveRequest.setKey(encode(hash));
+        batchReceiveRequest.setRequests(new ReceiveRequest[] {receiveRequest});
+
+        final Response response =
+                jersey.target("transaction")
+                        .path("batch")
+                        .request()
+                        .post(Entity.entity(batchReceiveRequest, MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+
+        final JsonObject result =
+                Json.createReader(new StringReader(response.readEntity(String.class))).readArray().getJsonObject(0);
+        assertThat(result.getInt("status")).isEqualTo(200);
+        assertThat(result.getJsonArray("affectedContractTransactions")).isEmpty();
+        assertThat(result.containsKey("execHash")).isFalse();
+
+        verify(transactionManager).receiveAll(anyList());
+    }
+
+    @Test
+    public void receiveBatchRequiresRequests() {
+        final Response response =
+                jersey.target("transaction")
+                        .path("batch")
+                        .request()
+                        .post(Entity.entity("{\"requests\":[]}", MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    @Test
+    public void receiveBatchRejectsTooManyRequests() {
+        final String key = encode(new MessageHash("HASH".getBytes()));
+        final JsonArrayBuilder requests = Json.createArrayBuilder();
+        for (int i = 0; i <= BatchReceiveRequest.MAX_REQUESTS; i++) {
+            requests.add(Json.createObjectBuilder().add("key", key));
+        }
+        final String body = Json.createObjectBuilder().add("requests", requests).build().toString();
+
+        // posted as json, as the client validates a bean before sending it
+        final Response response =
+                jersey.target("transaction")
+                        .path("batch")
+                        .request()
+                        .post(Entity.entity(body, MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void sendBatch() {
+        final MessageHash sentHash = new MessageHash("SENT".getBytes());
+        final com.quorum.tessera.transaction.SendResponse sendResponse =
+                com.quorum.tessera.transaction.SendResponse.Builder.create()
+                        .withMessageHash(sentHash)
+                        .withManagedParties(Set.of())
+                        .build();
+
+        when(transactionManager.sendBatch(anyList()))
+                .thenReturn(
+                        List.of(
+                                SendResult.success(sendResponse),
+                                SendResult.failure(new TransactionNotFoundException("Not found")),
+                                SendResult.failure(new IllegalStateException("Failed"))));
+
+        final String sender = Base64.getEncoder().encodeToString("Sender".getBytes());
+        final String recipient = Base64.getEncoder().encodeToString("Bobby Sixkiller".getBytes());
+        final String payload = Base64.getEncoder().encodeToString("PAYLOAD".getBytes());
+        final JsonArray requests =
+                Json.createArrayBuilder()
+                        .add(
+                                Json.createObjectBuilder()
+                                        .add("from", sender)
+                                        .add("to", Json.createArrayBuilder().add(recipient))
+                                        .add("payload", payload))
+                        .add(Json.createObjectBuilder().add("from", sender).add("payload", payload))
+                        .add(Json.createObjectBuilder().add("from", sender).add("payload", payload))
+                        .build();
+
+        final Response response =
+                jersey.target("sendBatch")
+                        .request()
+                        .post(
+                                Entity.entity(
+                                        Json.createObjectBuilder().add("requests", requests).build().toString(),
+                                        MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+
+        final JsonArray results = Json.createReader(new StringReader(response.readEntity(String.class))).readArray();
+        assertThat(results).hasSize(3);
+
+        final JsonObject sent = results.getJsonObject(0);
+        assertThat(sent.getString("key")).isEqualTo(encode(sentHash));
+        assertThat(sent.getInt("status")).isEqualTo(201);
+        assertThat(sent.containsKey("error")).isFalse();
+
+        final JsonObject notFound = results.getJsonObject(1);
+        assertThat(notFound.containsKey("key")).isFalse();
+        assertThat(notFound.getInt("status")).isEqualTo(404);
+        assertThat(notFound.getString("error")).isEqualTo("Not found");
+
+        final JsonObject failed = results.getJsonObject(2);
+        assertThat(failed.getInt("status")).isEqualTo(500);
+        assertThat(failed.getString("error")).isEqualTo("Failed");
+
+        final ArgumentCaptor<List<com.quorum.tessera.transaction.SendRequest>> captor =
+                ArgumentCaptor.forClass(List.class);
+        verify(transactionManager).sendBatch(captor.capture());
+
+        final List<com.quorum.tessera.transaction.SendRequest> sendRequests = captor.getValue();
+        assertThat(sendRequests).hasSize(3);
+        assertThat(sendRequests.get(0).getSender()).isEqualTo(PublicKey.from("Sender".getBytes()));
+        assertThat(sendRequests.get(0).getRecipients()).containsExactly(PublicKey.from("Bobby Sixkiller".getBytes()));
+        assertThat(sendRequests.get(0).getPayload()).isEqualTo("PAYLOAD".getBytes());
+        assertThat(sendRequests.get(1).getRecipients()).isEmpty();
+    }
+
+    @Test
+    public void sendBatchRequiresExecHashForPrivateStateValidation() {
+        final String payload = Base64.getEncoder().encodeToString("PAYLOAD".getBytes());
+        final JsonArray requests =
+                Json.createArrayBuilder()
+                        .add(Json.createObjectBuilder().add("payload", payload))
+                        .add(Json.createObjectBuilder().add("payload", payload).add("privacyFlag", 3))
+                        .build();
+
+        final Response response =
+                jersey.target("sendBatch")
+                        .request()
+                        .post(
+                                Entity.entity(
+                                        Json.createObjectBuilder().add("requests", requests).build().toString(),
+                                        MediaType.APPLICATION_JSON));
+
+        assertThat(response.getStatus()).isEqualTo(400);
+    }
+
+    private static String encode(final MessageHash hash) {
+        return Base64.getEncoder().encodeToString(hash.getHashBytes());
+    }
+
     @Test
     public void receiveWithRecipient() {
         String key = Base64.getEncoder().encodeToString("KEY".getBytes());
@@ -229,7 +474,8 @@ public class TransactionResourceTest {
 
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, MediaType.APPLICATION_JSON));
@@ -243,7 +489,7 @@ public class TransactionResourceTest {
         ArgumentCaptor<com.quorum.tessera.transaction.SendRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendRequest.class);
 
-        verify(transactionManager).send(argumentCaptor.capture());
+        verify(transactionManager).sendAsync(argumentCaptor.capture());
         verify(transactionManager).defaultPublicKey();
 
         com.quorum.tessera.transaction.SendRequest businessObject = argumentCaptor.getValue();
@@ -287,7 +533,8 @@ public class TransactionResourceTest {
 
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, MediaType.APPLICATION_JSON));
@@ -301,7 +548,7 @@ public class TransactionResourceTest {
         ArgumentCaptor<com.quorum.tessera.transaction.SendRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendRequest.class);
 
-        verify(transactionManager).send(argumentCaptor.capture());
+        verify(transactionManager).sendAsync(argumentCaptor.capture());
         verify(transactionManager).defaultPublicKey();
 
         com.quorum.tessera.transaction.SendRequest businessObject = argumentCaptor.getValue();
@@ -339,7 +586,8 @@ public class TransactionResourceTest {
         when(messageHash.getHashBytes()).thenReturn(txnData);
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final Response result =
                 jersey.target("send").request().post(Entity.entity(sendRequest, MediaType.APPLICATION_JSON));
@@ -348,7 +596,60 @@ public class TransactionResourceTest {
 
         assertThat(result.getLocation().getPath()).isEqualTo("/transaction/" + base64Encoder.encodeToString(txnData));
 
-        verify(transactionManager).send(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).defaultPublicKey();
+    }
+
+    @Test
+    public void sendFailureIsMapped() {
+        final SendRequest sendRequest = new SendRequest();
+        sendRequest.setPayload(Base64.getEncoder().encode("PAYLOAD".getBytes()));
+
+        when(transactionManager.defaultPublicKey()).thenReturn(mock(PublicKey.class));
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TransactionNotFoundException("Not found")));
+
+        final Response result =
+                jersey.target("send").request().post(Entity.entity(sendRequest, MediaType.APPLICATION_JSON));
+
+        assertThat(result.getStatus()).isEqualTo(404);
+
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).defaultPublicKey();
+    }
+
+    @Test
+    public void sendTimesOutWithoutCancellingSend() throws Exception {
+        final CompletableFuture<com.quorum.tessera.transaction.SendResponse> pending = new CompletableFuture<>();
+        when(transactionManager.defaultPublicKey()).thenReturn(mock(PublicKey.class));
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(pending);
+
+        final TransactionResource timingOutResource = new TransactionResource(transactionManager, 100L);
+        final JerseyTest timingOut =
+                new JerseyTest() {
+                    @Override
+                    protected Application configure() {
+                        forceSet(TestProperties.CONTAINER_PORT, "0");
+                        return new ResourceConfig().register(timingOutResource);
+                    }
+                };
+        timingOut.setUp();
+
+        final SendRequest sendRequest = new SendRequest();
+        sendRequest.setPayload(Base64.getEncoder().encode("PAYLOAD".getBytes()));
+
+        try {
+            final Response result =
+                    timingOut.target("send").request().post(Entity.entity(sendRequest, MediaType.APPLICATION_JSON));
+
+            assertThat(result.getStatus()).isEqualTo(503);
+            // the send is left to finish
+            assertThat(pending).isNotDone();
+        } finally {
+            timingOut.tearDown();
+        }
+
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
         verify(transactionManager).defaultPublicKey();
     }
 
@@ -365,8 +666,8 @@ public class TransactionResourceTest {
         String recipentKey =
                 "BULeR8JyUWhiuuCMU/HLA0Q5pzkYT+cHII3ZKBey3Bo=,QfeDAys9MPDs2XHExtc84jKGHxZg/aj52DTh0vtA3Xc=";
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         Response result =
                 jersey.target("sendsignedtx")
@@ -379,7 +680,7 @@ public class TransactionResourceTest {
 
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
@@ -401,8 +702,8 @@ public class TransactionResourceTest {
         when(messageHash.getHashBytes()).thenReturn(txnData);
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         StreamingOutput streamingOutput = output -> output.write("signedTxData".getBytes());
 
@@ -414,7 +715,8 @@ public class TransactionResourceTest {
 
         assertThat(result.getStatus()).isEqualTo(200);
         assertThat(result.readEntity(String.class)).isEqualTo(Base64.getEncoder().encodeToString("KEY".getBytes()));
-        verify(transactionManager).sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class));
+        verify(transactionManager)
+                .sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class));
     }
 
     @Test
@@ -427,8 +729,8 @@ public class TransactionResourceTest {
         when(messageHash.getHashBytes()).thenReturn(txnData);
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         Response result =
                 jersey.target("sendsignedtx")
@@ -438,7 +740,8 @@ public class TransactionResourceTest {
 
         assertThat(result.getStatus()).isEqualTo(200);
         assertThat(result.readEntity(String.class)).isEqualTo(Base64.getEncoder().encodeToString("KEY".getBytes()));
-        verify(transactionManager).sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class));
+        verify(transactionManager)
+                .sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class));
     }
 
     @Test
@@ -454,8 +757,8 @@ public class TransactionResourceTest {
 
         when(sendResponse.getTransactionHash()).thenReturn(transactionHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         SendSignedRequest sendSignedRequest = new SendSignedRequest();
         sendSignedRequest.setHash("SOMEDATA".getBytes());
@@ -477,7 +780,7 @@ public class TransactionResourceTest {
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
 
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
@@ -501,8 +804,8 @@ public class TransactionResourceTest {
 
         when(sendResponse.getTransactionHash()).thenReturn(transactionHash);
 
-        when(transactionManager.sendSignedTransaction(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
-                .thenReturn(sendResponse);
+        when(transactionManager.sendSignedTransactionAsync(any(com.quorum.tessera.transaction.SendSignedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         final String base64AffectedHash1 = Base64.getEncoder().encodeToString("aHash1".getBytes());
         final String base64AffectedHash2 = Base64.getEncoder().encodeToString("aHash2".getBytes());
@@ -530,7 +833,7 @@ public class TransactionResourceTest {
         ArgumentCaptor<com.quorum.tessera.transaction.SendSignedRequest> argumentCaptor =
                 ArgumentCaptor.forClass(com.quorum.tessera.transaction.SendSignedRequest.class);
 
-        verify(transactionManager).sendSignedTransaction(argumentCaptor.capture());
+        verify(transactionManager).sendSignedTransactionAsync(argumentCaptor.capture());
 
         com.quorum.tessera.transaction.SendSignedRequest obj = argumentCaptor.getValue();
 
@@ -557,7 +860,8 @@ public class TransactionResourceTest {
 
         when(transactionManager.defaultPublicKey()).thenReturn(mock(PublicKey.class));
 
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         Response result =
                 jersey.target("sendraw")
@@ -568,7 +872,7 @@ public class TransactionResourceTest {
 
         assertThat(result.getStatus()).isEqualTo(200);
         assertThat(result.readEntity(String.class)).isEqualTo(Base64.getEncoder().encodeToString(txnData));
-        verify(transactionManager).send(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
         verify(transactionManager).defaultPublicKey();
     }
 
@@ -583,7 +887,8 @@ public class TransactionResourceTest {
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
 
         when(transactionManager.defaultPublicKey()).thenReturn(mock(PublicKey.class));
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         Response result =
                 jersey.target("sendraw")
@@ -596,7 +901,7 @@ public class TransactionResourceTest {
 
         assertThat(result.getStatus()).isEqualTo(200);
         assertThat(result.readEntity(String.class)).isEqualTo(Base64.getEncoder().encodeToString(txnData));
-        verify(transactionManager).send(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
         verify(transactionManager).defaultPublicKey();
     }
 
@@ -610,7 +915,8 @@ public class TransactionResourceTest {
         when(messageHash.getHashBytes()).thenReturn(txnData);
         when(sendResponse.getTransactionHash()).thenReturn(messageHash);
         when(transactionManager.defaultPublicKey()).thenReturn(mock(PublicKey.class));
-        when(transactionManager.send(any(com.quorum.tessera.transaction.SendRequest.class))).thenReturn(sendResponse);
+        when(transactionManager.sendAsync(any(com.quorum.tessera.transaction.SendRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResponse));
 
         Response result =
                 jersey.target("sendraw")
@@ -621,7 +927,7 @@ public class TransactionResourceTest {
 
         assertThat(result.getStatus()).isEqualTo(200);
         assertThat(result.readEntity(String.class)).isEqualTo(Base64.getEncoder().encodeToString(txnData));
-        verify(transactionManager).send(any(com.quorum.tessera.transaction.SendRequest.class));
+        verify(transactionManager).sendAsync(any(com.quorum.tessera.transaction.SendRequest.class));
         verify(transactionManager).defaultPublicKey();
     }
 
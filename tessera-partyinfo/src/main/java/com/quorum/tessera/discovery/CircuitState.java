@@ -0,0 +1,14 @@
+package com.quorum.tessera.discovery;
+
+/** Whether calls to a peer are being made, or are failing fast as the peer keeps failing */
+public enum CircuitState {
+
+    /** Calls are made as usual */
+    CLOSED,
+
+    /** Too many recent calls failed, so calls fail fast until the peer is tried again */
+    OPEN,
+
+    /** The peer is being tried again, and the result of the trial closes or reopens the circuit */
+    HALF_OPEN
+}
@@ -1,42 +1,45 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 enum DefaultNetworkStore implements NetworkStore {
-
     INSTANCE;
 
-    private final Set<ActiveNode> activeNodes = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<NetworkSnapshot> snapshot = new AtomicReference<>(NetworkSnapshot.EMPTY);
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultNetworkStore.class);
 
     @Override
     public NetworkStore store(ActiveNode activeNode) {
 
-        activeNodes.removeIf(a -> a.getUri().equals(activeNode.getUri()));
-        activeNodes.add(activeNode);
+        final NetworkSnapshot current = snapshot.updateAndGet(s -> s.with(activeNode));
 
-        LOGGER.debug("Stored node {}. Active node count {}",activeNode.getUri(),activeNodes.size());
+        LOGGER.debug("Stored node {}. Active node count {}", activeNode.getUri(), current.size());
         return this;
     }
 
     @Override
     public NetworkStore remove(NodeUri nodeUri) {
-        activeNodes.removeIf(a -> a.getUri().equals(nodeUri));
-        LOGGER.debug("Removed node {}. Active node count {}",nodeUri,activeNodes.size());
+        final NetworkSnapshot current = snapshot.updateAndGet(s -> s.without(nodeUri));
+        LOGGER.debug("Removed node {}. Active node count {}", nodeUri, current.size());
         return this;
     }
 
     @Override
     public Stream<ActiveNode> getActiveNodes() {
-        LOGGER.debug("Fetching active nodes {}",activeNodes);
-        return activeNodes.stream();
+        final NetworkSnapshot current = snapshot.get();
+        LOGGER.debug("Fetching {} active nodes", current.size());
+        return current.getActiveNodes();
     }
 
-
-
+    @Override
+    public Optional<ActiveNode> getActiveNode(PublicKey key) {
+        return snapshot.get().getActiveNode(key);
+    }
 }
@@ -0,0 +1,182 @@
+package com.quorum.tessera.discovery;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the outcome and latency of the last few calls to each peer in a ring buffer, which is the rolling window the
+ * peer's circuit opens from. Each peer's window is only locked by the calls to that peer.
+ */
+class DefaultPeerHealthRegistry implements PeerHealthRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultPeerHealthRegistry.class);
+
+    static final int WINDOW_SIZE = 20;
+
+    static final int MINIMUM_CALLS = 5;
+
+    static final double FAILURE_THRESHOLD = 0.5;
+
+    static final long OPEN_MILLIS = 10000L;
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final double failureThreshold;
+
+    private final long openMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<NodeUri, PeerCircuit> circuits = new ConcurrentHashMap<>();
+
+    DefaultPeerHealthRegistry() {
+        this(WINDOW_SIZE, MINIMUM_CALLS, FAILURE_THRESHOLD, OPEN_MILLIS, System::currentTimeMillis);
+    }
+
+    DefaultPeerHealthRegistry(
+            final int windowSize,
+            final int minimumCalls,
+            final double failureThreshold,
+            final long openMillis,
+            final LongSupplier clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    @Override
+    public boolean allowRequest(final NodeUri peer) {
+        return Optional.ofNullable(circuits.get(peer))
+                .map(circuit -> circuit.allowRequest(clock.getAsLong()))
+                .orElse(true);
+    }
+
+    @Override
+    public <T> T record(final NodeUri peer, final Supplier<T> call) {
+        final PeerCircuit circuit = circuits.computeIfAbsent(peer, PeerCircuit::new);
+        final long start = clock.getAsLong();
+        try {
+            final T result = call.get();
+            final long end = clock.getAsLong();
+            circuit.record(false, end - start, end);
+            return result;
+        } catch (RuntimeException ex) {
+            final long end = clock.getAsLong();
+            circuit.record(true, end - start, end);
+            throw ex;
+        }
+    }
+
+    @Override
+    public Optional<PeerHealth> getHealth(final NodeUri peer) {
+        return Optional.ofNullable(circuits.get(peer)).map(PeerCircuit::snapshot);
+    }
+
+    @Override
+    public List<PeerHealth> getPeerHealth() {
+        return circuits.values().stream().map(PeerCircuit::snapshot).collect(Collectors.toList());
+    }
+
+    @Override
+    public void remove(final NodeUri peer) {
+        circuits.remove(peer);
+    }
+
+    private class PeerCircuit {
+
+        private final NodeUri peer;
+
+        private final boolean[] failed = new boolean[windowSize];
+
+        private final long[] latencies = new long[windowSize];
+
+        private int calls;
+
+        private int next;
+
+        private CircuitState state = CircuitState.CLOSED;
+
+        private long nextTrialAt;
+
+        PeerCircuit(final NodeUri peer) {
+            this.peer = peer;
+        }
+
+        synchronized boolean allowRequest(final long now) {
+            if (state == CircuitState.CLOSED) {
+                return true;
+            }
+            if (now < nextTrialAt) {
+                return false;
+            }
+            // an unfinished trial does not hold the circuit forever, another is let through after the next pause
+            state = CircuitState.HALF_OPEN;
+            nextTrialAt = now + openMillis;
+            LOGGER.debug("Letting a trial call through to {}", peer);
+            return true;
+        }
+
+        synchronized void record(final boolean failure, final long latency, final long now) {
+            if (state != CircuitState.CLOSED && !failure) {
+                LOGGER.info("{} answered again, closing its circuit", peer);
+                state = CircuitState.CLOSED;
+                // the failures that opened the circuit would otherwise open it again straight away
+                calls = 0;
+                next = 0;
+            }
+
+            failed[next] = failure;
+            latencies[next] = latency;
+            next = (next + 1) % windowSize;
+            calls = Math.min(calls + 1, windowSize);
+
+            if (state == CircuitState.HALF_OPEN && failure) {
+                open(now);
+            } else if (state == CircuitState.CLOSED
+                    && calls >= minimumCalls
+                    && failures() >= failureThreshold * calls) {
+                open(now);
+            }
+        }
+
+        private void open(final long now) {
+            LOGGER.warn("Too many calls to {} failed, failing calls to it fast for {} ms", peer, openMillis);
+            state = CircuitState.OPEN;
+            nextTrialAt = now + openMillis;
+        }
+
+        private int failures() {
+            int failures = 0;
+            for (int i = 0; i < calls; i++) {
+                if (failed[i]) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        synchronized PeerHealth snapshot() {
+            long totalLatency = 0;
+            long maxLatency = 0;
+            for (int i = 0; i < calls; i++) {
+                totalLatency += latencies[i];
+                maxLatency = Math.max(maxLatency, latencies[i]);
+            }
+            final long averageLatency = calls == 0 ? 0 : totalLatency / calls;
+            return new PeerHealth(peer, state, calls, failures(), averageLatency, maxLatency);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.quorum.tessera.discovery;
+
+import com.quorum.tessera.encryption.PublicKey;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * An immutable view of the active nodes, indexed by their uri and by the keys they own. A change to the network
+ * creates a new snapshot rather than changing this one, so readers never need a lock and finding the node that owns a
+ * recipient key does not have to look through the keys of every node.
+ */
+final class NetworkSnapshot {
+
+    static final NetworkSnapshot EMPTY = new NetworkSnapshot(Map.of());
+
+    private final Map<NodeUri, ActiveNode> nodesByUri;
+
+    private final Map<PublicKey, ActiveNode> nodesByKey;
+
+    private NetworkSnapshot(final Map<NodeUri, ActiveNode> nodesByUri) {
+        final Map<PublicKey, ActiveNode> nodesByKey = new HashMap<>();
+        nodesByUri.values().forEach(node -> node.getKeys().forEach(key -> nodesByKey.put(key, node)));
+
+        this.nodesByUri = Collections.unmodifiableMap(nodesByUri);
+        this.nodesByKey = Collections.unmodifiableMap(nodesByKey);
+    }
+
+    /**
+     * Creates a snapshot with the node added, replacing any node with the same uri.
+     *
+     * @param activeNode the node to add
+     * @return the new snapshot, or this snapshot if it already holds the same node with the same keys and versions
+     */
+    NetworkSnapshot with(final ActiveNode activeNode) {
+        final ActiveNode existing = nodesByUri.get(activeNode.getUri());
+        // nodes are stored again on every partyinfo poll, and usually have not changed since the last one
+        if (existing != null
+                && existing.getKeys().equals(activeNode.getKeys())
+                && existing.getSupportedVersions().equals(activeNode.getSupportedVersions())) {
+            return this;
+        }
+
+        final Map<NodeUri, ActiveNode> updated = new HashMap<>(nodesByUri);
+        updated.put(activeNode.getUri(), activeNode);
+        return new NetworkSnapshot(updated);
+    }
+
+    /**
+     * Creates a snapshot without the node with the given uri.
+     *
+     * @param nodeUri the uri of the node to remove
+     * @return the new snapshot, or this snapshot if it does not hold the node
+     */
+    NetworkSnapshot without(final NodeUri nodeUri) {
+        if (!nodesByUri.containsKey(nodeUri)) {
+            return this;
+        }
+
+        final Map<NodeUri, ActiveNode> updated = new HashMap<>(nodesByUri);
+        updated.remove(nodeUri);
+        return new NetworkSnapshot(updated);
+    }
+
+    Optional<ActiveNode> getActiveNode(final PublicKey key) {
+        return Optional.ofNullable(nodesByKey.get(key));
+    }
+
+    Stream<ActiveNode> getActiveNodes() {
+        return nodesByUri.values().stream();
+    }
+
+    int size() {
+        return nodesByUri.size();
+    }
+}
@@ -1,5 +1,8 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
+
+import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.stream.Stream;
 
@@ -11,8 +14,9 @@ public interface NetworkStore {
 
     Stream<ActiveNode> getActiveNodes();
 
+    Optional<ActiveNode> getActiveNode(PublicKey key);
+
     static NetworkStore getInstance() {
         return ServiceLoader.load(NetworkStore.class).findFirst().get();
     }
-
 }
@@ -1,5 +1,8 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
+
+import java.util.Optional;
 import java.util.stream.Stream;
 
 public class NetworkStoreFactory implements NetworkStore {
@@ -29,4 +32,8 @@ public class NetworkStoreFactory implements NetworkStore {
         return networkStore.getActiveNodes();
     }
 
+    @Override
+    public Optional<ActiveNode> getActiveNode(PublicKey key) {
+        return networkStore.getActiveNode(key);
+    }
 }
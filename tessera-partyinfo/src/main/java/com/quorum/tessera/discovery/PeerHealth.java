@@ -0,0 +1,95 @@
+package com.quorum.tessera.discovery;
+
+import java.util.Objects;
+
+/** A snapshot of how a peer has answered its recent calls */
+public class PeerHealth {
+
+    private final NodeUri uri;
+
+    private final CircuitState state;
+
+    private final int calls;
+
+    private final int failures;
+
+    private final long averageLatency;
+
+    private final long maxLatency;
+
+    public PeerHealth(
+            final NodeUri uri,
+            final CircuitState state,
+            final int calls,
+            final int failures,
+            final long averageLatency,
+            final long maxLatency) {
+        this.uri = Objects.requireNonNull(uri);
+        this.state = Objects.requireNonNull(state);
+        this.calls = calls;
+        this.failures = failures;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    public NodeUri getUri() {
+        return uri;
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    /** @return the number of recent calls the other figures are taken from */
+    public int getCalls() {
+        return calls;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    /** @return the average time in milliseconds the recent calls took */
+    public long getAverageLatency() {
+        return averageLatency;
+    }
+
+    /** @return the longest time in milliseconds a recent call took */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * The share of recent calls that succeeded, from 0 to 1. A peer that has not been called yet scores 1, and a peer
+     * whose circuit is not closed scores 0.
+     *
+     * @return the health score of the peer
+     */
+    public double getScore() {
+        if (state != CircuitState.CLOSED) {
+            return 0;
+        }
+        if (calls == 0) {
+            return 1;
+        }
+        return (double) (calls - failures) / calls;
+    }
+
+    @Override
+    public String toString() {
+        return "PeerHealth{"
+                + "uri="
+                + uri
+                + ", state="
+                + state
+                + ", calls="
+                + calls
+                + ", failures="
+                + failures
+                + ", averageLatency="
+                + averageLatency
+                + ", maxLatency="
+                + maxLatency
+                + '}';
+    }
+}
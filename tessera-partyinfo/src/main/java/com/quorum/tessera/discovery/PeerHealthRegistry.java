@@ -0,0 +1,52 @@
+package com.quorum.tessera.discovery;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * Keeps track of how reliably and how quickly peers have answered their recent calls, and acts as a circuit breaker for
+ * each of them. Once enough of a peer's recent calls have failed its circuit opens, and callers that ask first fail
+ * straight away rather than waiting for the client to time out. After a pause a single trial call is let through, and
+ * the circuit closes again as soon as the peer answers a call.
+ */
+public interface PeerHealthRegistry {
+
+    /**
+     * Checks whether a call should be made to the peer. An open circuit lets one trial call through once it has been
+     * open for a while, and then waits again until the trial is over.
+     *
+     * @param peer the node to call
+     * @return false if the call should fail fast as the peer's circuit is open
+     */
+    boolean allowRequest(NodeUri peer);
+
+    /**
+     * Makes a call to the peer, recording how long it took and whether it failed. A call fails if it throws, in which
+     * case the exception is rethrown.
+     *
+     * @param peer the node being called
+     * @param call makes the call
+     * @param <T> the type of the result of the call
+     * @return the result of the call
+     */
+    <T> T record(NodeUri peer, Supplier<T> call);
+
+    Optional<PeerHealth> getHealth(NodeUri peer);
+
+    /** @return the health of every peer that has been called */
+    List<PeerHealth> getPeerHealth();
+
+    /**
+     * Forgets the calls made to a peer that has left the party, so the registry does not keep a window for every node
+     * that has ever been called. A peer that comes back starts again with a closed circuit.
+     *
+     * @param peer the node that has left
+     */
+    void remove(NodeUri peer);
+
+    static PeerHealthRegistry getInstance() {
+        return ServiceLoader.load(PeerHealthRegistry.class).findFirst().get();
+    }
+}
@@ -0,0 +1,45 @@
+package com.quorum.tessera.discovery;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public class PeerHealthRegistryFactory implements PeerHealthRegistry {
+
+    private static final PeerHealthRegistry INSTANCE = new DefaultPeerHealthRegistry();
+
+    public static PeerHealthRegistry provider() {
+        return INSTANCE;
+    }
+
+    private final PeerHealthRegistry peerHealthRegistry;
+
+    public PeerHealthRegistryFactory() {
+        this.peerHealthRegistry = provider();
+    }
+
+    @Override
+    public boolean allowRequest(NodeUri peer) {
+        return peerHealthRegistry.allowRequest(peer);
+    }
+
+    @Override
+    public <T> T record(NodeUri peer, Supplier<T> call) {
+        return peerHealthRegistry.record(peer, call);
+    }
+
+    @Override
+    public Optional<PeerHealth> getHealth(NodeUri peer) {
+        return peerHealthRegistry.getHealth(peer);
+    }
+
+    @Override
+    public List<PeerHealth> getPeerHealth() {
+        return peerHealthRegistry.getPeerHealth();
+    }
+
+    @Override
+    public void remove(NodeUri peer) {
+        peerHealthRegistry.remove(peer);
+    }
+}
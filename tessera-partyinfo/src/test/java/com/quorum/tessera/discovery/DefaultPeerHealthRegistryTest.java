@@ -0,0 +1,194 @@
+package com.quorum.tessera.discovery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class DefaultPeerHealthRegistryTest {
+
+    private static final NodeUri PEER = NodeUri.create("http://peer.com:8080");
+
+    private AtomicLong clock;
+
+    private DefaultPeerHealthRegistry registry;
+
+    @Before
+    public void onSetUp() {
+        clock = new AtomicLong(1000L);
+        registry = new DefaultPeerHealthRegistry(4, 2, 0.5, 100L, clock::get);
+    }
+
+    @Test
+    public void unknownPeerIsAvailable() {
+        assertThat(registry.allowRequest(PEER)).isTrue();
+        assertThat(registry.getHealth(PEER)).isEmpty();
+        assertThat(registry.getPeerHealth()).isEmpty();
+    }
+
+    @Test
+    public void recordsResultAndLatencyOfCalls() {
+        assertThat(registry.record(PEER, () -> slowCall(10L))).isEqualTo("DONE");
+        assertThat(registry.record(PEER, () -> slowCall(30L))).isEqualTo("DONE");
+
+        final PeerHealth health = registry.getHealth(PEER).get();
+        assertThat(health.getUri()).isEqualTo(PEER);
+        assertThat(health.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(health.getCalls()).isEqualTo(2);
+        assertThat(health.getFailures()).isZero();
+        assertThat(health.getAverageLatency()).isEqualTo(20L);
+        assertThat(health.getMaxLatency()).isEqualTo(30L);
+        assertThat(health.getScore()).isEqualTo(1.0);
+        assertThat(registry.getPeerHealth()).extracting(PeerHealth::getUri).containsExactly(PEER);
+    }
+
+    @Test
+    public void peerBeingCalledForTheFirstTimeHasNoCalls() {
+        final PeerHealth health = registry.record(PEER, () -> registry.getHealth(PEER).get());
+
+        assertThat(health.getCalls()).isZero();
+        assertThat(health.getAverageLatency()).isZero();
+        assertThat(health.getScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void failureIsRecordedAndRethrown() {
+        final RuntimeException failure = new IllegalStateException("OUCH");
+
+        final Throwable thrown = catchThrowable(() -> registry.record(PEER, () -> fail(failure)));
+
+        assertThat(thrown).isSameAs(failure);
+        final PeerHealth health = registry.getHealth(PEER).get();
+        assertThat(health.getFailures()).isEqualTo(1);
+        // fewer calls than needed to judge the peer by
+        assertThat(health.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(health.getScore()).isEqualTo(0.0);
+        assertThat(registry.allowRequest(PEER)).isTrue();
+    }
+
+    @Test
+    public void circuitOpensOnceEnoughCallsFail() {
+        registry.record(PEER, () -> "DONE");
+        registry.record(PEER, () -> "DONE");
+        failCall();
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.CLOSED);
+
+        failCall();
+
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(registry.getHealth(PEER).get().getScore()).isEqualTo(0.0);
+        assertThat(registry.allowRequest(PEER)).isFalse();
+    }
+
+    @Test
+    public void onlyRecentCallsAreCounted() {
+        failCall();
+        registry.record(PEER, () -> "DONE");
+        registry.record(PEER, () -> "DONE");
+        registry.record(PEER, () -> "DONE");
+        registry.record(PEER, () -> "DONE");
+
+        // the failure has left the window, so one more does not open the circuit
+        failCall();
+
+        final PeerHealth health = registry.getHealth(PEER).get();
+        assertThat(health.getCalls()).isEqualTo(4);
+        assertThat(health.getFailures()).isEqualTo(1);
+        assertThat(health.getState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    public void singleTrialIsLetThroughAfterPause() {
+        openCircuit();
+
+        clock.addAndGet(99L);
+        assertThat(registry.allowRequest(PEER)).isFalse();
+
+        clock.addAndGet(1L);
+        assertThat(registry.allowRequest(PEER)).isTrue();
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(registry.allowRequest(PEER)).isFalse();
+
+        // a trial that never finishes does not keep the circuit shut
+        clock.addAndGet(100L);
+        assertThat(registry.allowRequest(PEER)).isTrue();
+    }
+
+    @Test
+    public void failedTrialReopensCircuit() {
+        openCircuit();
+        clock.addAndGet(100L);
+        assertThat(registry.allowRequest(PEER)).isTrue();
+
+        failCall();
+
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(registry.allowRequest(PEER)).isFalse();
+    }
+
+    @Test
+    public void successfulCallClosesCircuit() {
+        openCircuit();
+
+        registry.record(PEER, () -> "DONE");
+
+        final PeerHealth health = registry.getHealth(PEER).get();
+        assertThat(health.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(health.getCalls()).isEqualTo(1);
+        assertThat(health.getFailures()).isZero();
+        assertThat(registry.allowRequest(PEER)).isTrue();
+    }
+
+    @Test
+    public void failureWhileOpenKeepsCircuitOpen() {
+        openCircuit();
+
+        failCall();
+
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    public void removedPeerIsForgotten() {
+        openCircuit();
+
+        registry.remove(PEER);
+
+        assertThat(registry.getHealth(PEER)).isEmpty();
+        assertThat(registry.getPeerHealth()).isEmpty();
+        assertThat(registry.allowRequest(PEER)).isTrue();
+    }
+
+    @Test
+    public void defaultRegistryUsesDefaultThresholds() {
+        final DefaultPeerHealthRegistry defaultRegistry = new DefaultPeerHealthRegistry();
+
+        for (int i = 0; i < DefaultPeerHealthRegistry.MINIMUM_CALLS; i++) {
+            catchThrowable(() -> defaultRegistry.record(PEER, () -> fail(new IllegalStateException())));
+        }
+
+        assertThat(defaultRegistry.allowRequest(PEER)).isFalse();
+    }
+
+    private void openCircuit() {
+        failCall();
+        failCall();
+        assertThat(registry.getHealth(PEER).get().getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    private void failCall() {
+        catchThrowable(() -> registry.record(PEER, () -> fail(new IllegalStateException())));
+    }
+
+    private String slowCall(long millis) {
+        clock.addAndGet(millis);
+        return "DONE";
+    }
+
+    private static String fail(RuntimeException failure) {
+        throw failure;
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.Test;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -145,7 +146,7 @@ public class DiscoveryHelperTest {
         when(activeNode.getKeys()).thenReturn(Set.of(key, anotherKey));
         when(activeNode.getSupportedVersions()).thenReturn(Set.of("v1", "v2"));
 
-        when(networkStore.getActiveNodes()).thenReturn(Stream.of(activeNode));
+        when(networkStore.getActiveNode(key)).thenReturn(Optional.of(activeNode));
 
         final NodeInfo result = discoveryHelper.buildRemoteNodeInfo(key);
 
@@ -153,27 +154,19 @@ public class DiscoveryHelperTest {
         assertThat(result.getUrl()).isEqualTo(url);
         assertThat(result.getRecipients()).containsExactlyInAnyOrder(recipient, sameNodeDifferentKey);
         assertThat(result.supportedApiVersions()).containsExactlyInAnyOrder("v1", "v2");
-        verify(networkStore).getActiveNodes();
+        verify(networkStore).getActiveNode(key);
     }
 
     @Test
     public void recipientKeyNotFound() {
-        String url = "http://nodeurl.com/";
-
-        final PublicKey key = PublicKey.from("key".getBytes());
         final PublicKey anotherKey = PublicKey.from("anotherKey".getBytes());
 
-        ActiveNode activeNode = mock(ActiveNode.class);
-        when(activeNode.getUri()).thenReturn(NodeUri.create(url));
-        when(activeNode.getKeys()).thenReturn(Set.of(key));
-        when(activeNode.getSupportedVersions()).thenReturn(Set.of("v1", "v2"));
-
-        when(networkStore.getActiveNodes()).thenReturn(Stream.of(activeNode));
+        when(networkStore.getActiveNode(anotherKey)).thenReturn(Optional.empty());
 
         assertThatExceptionOfType(KeyNotFoundException.class)
                 .isThrownBy(() -> discoveryHelper.buildRemoteNodeInfo(anotherKey));
 
-        verify(networkStore).getActiveNodes();
+        verify(networkStore).getActiveNode(anotherKey);
     }
 
     @Test
@@ -181,17 +174,19 @@ public class DiscoveryHelperTest {
 
         when(runtimeContext.getP2pServerUri()).thenReturn(URI.create("http://own.com"));
 
-        final ActiveNode node1 = ActiveNode.Builder.create()
-            .withUri(NodeUri.create("http://node1.com"))
-            .withKeys(List.of(PublicKey.from("key1".getBytes())))
-            .withSupportedVersions(List.of("v1"))
-            .build();
+        final ActiveNode node1 =
+                ActiveNode.Builder.create()
+                        .withUri(NodeUri.create("http://node1.com"))
+                        .withKeys(List.of(PublicKey.from("key1".getBytes())))
+                        .withSupportedVersions(List.of("v1"))
+                        .build();
 
-        final ActiveNode node2 = ActiveNode.Builder.create()
-            .withUri(NodeUri.create("http://node2.com"))
-            .withKeys(List.of(PublicKey.from("key2".getBytes())))
-            .withSupportedVersions(List.of("v2"))
-            .build();
+        final ActiveNode node2 =
+                ActiveNode.Builder.create()
+                        .withUri(NodeUri.create("http://node2.com"))
+                        .withKeys(List.of(PublicKey.from("key2".getBytes())))
+                        .withSupportedVersions(List.of("v2"))
+                        .build();
 
         when(networkStore.getActiveNodes()).thenReturn(Stream.of(node1, node2));
 
@@ -199,13 +194,19 @@ public class DiscoveryHelperTest {
 
         assertThat(nodeInfos).hasSize(2);
 
-        Set<ActiveNode> activeNodes = nodeInfos.stream().map(
-            nodeInfo -> ActiveNode.Builder.create()
-                .withUri(NodeUri.create(nodeInfo.getUrl()))
-                .withKeys(nodeInfo.getRecipients().stream().map(Recipient::getKey).collect(Collectors.toSet()))
-                .withSupportedVersions(nodeInfo.supportedApiVersions())
-                .build()
-        ).collect(Collectors.toSet());
+        Set<ActiveNode> activeNodes =
+                nodeInfos.stream()
+                        .map(
+                                nodeInfo ->
+                                        ActiveNode.Builder.create()
+                                                .withUri(NodeUri.create(nodeInfo.getUrl()))
+                                                .withKeys(
+                                                        nodeInfo.getRecipients().stream()
+                                                                .map(Recipient::getKey)
+                                                                .collect(Collectors.toSet()))
+                                                .withSupportedVersions(nodeInfo.supportedApiVersions())
+                                                .build())
+                        .collect(Collectors.toSet());
 
         assertThat(activeNodes).containsExactlyInAnyOrder(node1, node2);
 
@@ -218,17 +219,19 @@ public class DiscoveryHelperTest {
 
         when(runtimeContext.getP2pServerUri()).thenReturn(URI.create("http://node1.com"));
 
-        final ActiveNode node1 = ActiveNode.Builder.create()
-            .withUri(NodeUri.create("http://node1.com"))
-            .withKeys(List.of(PublicKey.from("key1".getBytes())))
-            .withSupportedVersions(List.of("v1"))
-            .build();
+        final ActiveNode node1 =
+                ActiveNode.Builder.create()
+                        .withUri(NodeUri.create("http://node1.com"))
+                        .withKeys(List.of(PublicKey.from("key1".getBytes())))
+                        .withSupportedVersions(List.of("v1"))
+                        .build();
 
-        final ActiveNode node2 = ActiveNode.Builder.create()
-            .withUri(NodeUri.create("http://node2.com"))
-            .withKeys(List.of(PublicKey.from("key2".getBytes())))
-            .withSupportedVersions(List.of("v2"))
-            .build();
+        final ActiveNode node2 =
+                ActiveNode.Builder.create()
+                        .withUri(NodeUri.create("http://node2.com"))
+                        .withKeys(List.of(PublicKey.from("key2".getBytes())))
+                        .withSupportedVersions(List.of("v2"))
+                        .build();
 
         when(networkStore.getActiveNodes()).thenReturn(Stream.of(node1, node2));
 
@@ -236,13 +239,19 @@ public class DiscoveryHelperTest {
 
         assertThat(nodeInfos).hasSize(1);
 
-        Set<ActiveNode> activeNodes = nodeInfos.stream().map(
-            nodeInfo -> ActiveNode.Builder.create()
-                .withUri(NodeUri.create(nodeInfo.getUrl()))
-                .withKeys(nodeInfo.getRecipients().stream().map(Recipient::getKey).collect(Collectors.toSet()))
-                .withSupportedVersions(nodeInfo.supportedApiVersions())
-                .build()
-        ).collect(Collectors.toSet());
+        Set<ActiveNode> activeNodes =
+                nodeInfos.stream()
+                        .map(
+                                nodeInfo ->
+                                        ActiveNode.Builder.create()
+                                                .withUri(NodeUri.create(nodeInfo.getUrl()))
+                                                .withKeys(
+                                                        nodeInfo.getRecipients().stream()
+                                                                .map(Recipient::getKey)
+                                                                .collect(Collectors.toSet()))
+                                                .withSupportedVersions(nodeInfo.supportedApiVersions())
+                                                .build())
+                        .collect(Collectors.toSet());
 
         assertThat(activeNodes).containsExactlyInAnyOrder(node2);
 
@@ -0,0 +1,88 @@
+package com.quorum.tessera.discovery;
+
+import com.quorum.tessera.encryption.PublicKey;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetworkSnapshotTest {
+
+    private static final PublicKey KEY = PublicKey.from("key".getBytes());
+
+    private static final PublicKey OTHER_KEY = PublicKey.from("otherKey".getBytes());
+
+    private static final NodeUri NODE_URI = NodeUri.create("http://someaddress.com");
+
+    @Test
+    public void emptySnapshotHasNoNodes() {
+        assertThat(NetworkSnapshot.EMPTY.getActiveNodes()).isEmpty();
+        assertThat(NetworkSnapshot.EMPTY.getActiveNode(KEY)).isEmpty();
+        assertThat(NetworkSnapshot.EMPTY.size()).isZero();
+    }
+
+    @Test
+    public void addingNodeDoesNotChangeExistingSnapshot() {
+        final ActiveNode activeNode = ActiveNode.Builder.create().withUri(NODE_URI).withKeys(List.of(KEY)).build();
+
+        final NetworkSnapshot snapshot = NetworkSnapshot.EMPTY.with(activeNode);
+
+        assertThat(snapshot.getActiveNodes()).containsExactly(activeNode);
+        assertThat(snapshot.getActiveNode(KEY)).containsSame(activeNode);
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(NetworkSnapshot.EMPTY.getActiveNode(KEY)).isEmpty();
+    }
+
+    @Test
+    public void storingUnchangedNodeKeepsSnapshot() {
+        final ActiveNode activeNode =
+                ActiveNode.Builder.create()
+                        .withUri(NODE_URI)
+                        .withKeys(List.of(KEY))
+                        .withSupportedVersions(List.of("v1"))
+                        .build();
+        final NetworkSnapshot snapshot = NetworkSnapshot.EMPTY.with(activeNode);
+
+        assertThat(snapshot.with(ActiveNode.Builder.from(activeNode).build())).isSameAs(snapshot);
+    }
+
+    @Test
+    public void storingNodeWithChangedKeysOrVersionsReplacesIt() {
+        final ActiveNode activeNode = ActiveNode.Builder.create().withUri(NODE_URI).withKeys(List.of(KEY)).build();
+        final NetworkSnapshot snapshot = NetworkSnapshot.EMPTY.with(activeNode);
+
+        final ActiveNode rotated = ActiveNode.Builder.create().withUri(NODE_URI).withKeys(List.of(OTHER_KEY)).build();
+        final NetworkSnapshot rotatedSnapshot = snapshot.with(rotated);
+
+        assertThat(rotatedSnapshot.getActiveNodes()).containsExactly(rotated);
+        assertThat(rotatedSnapshot.getActiveNode(KEY)).isEmpty();
+        assertThat(rotatedSnapshot.getActiveNode(OTHER_KEY)).containsSame(rotated);
+
+        final ActiveNode upgraded = ActiveNode.Builder.from(activeNode).withSupportedVersions(List.of("v2")).build();
+        final NetworkSnapshot upgradedSnapshot = snapshot.with(upgraded);
+
+        assertThat(upgradedSnapshot).isNotSameAs(snapshot);
+        assertThat(upgradedSnapshot.getActiveNode(KEY).get().getSupportedVersions()).containsExactly("v2");
+    }
+
+    @Test
+    public void keySharedByTwoNodesStaysRoutableWhenOneIsRemoved() {
+        final NodeUri otherUri = NodeUri.create("http://someotheraddress.com");
+        final ActiveNode activeNode = ActiveNode.Builder.create().withUri(NODE_URI).withKeys(List.of(KEY)).build();
+        final ActiveNode otherNode = ActiveNode.Builder.create().withUri(otherUri).withKeys(List.of(KEY)).build();
+
+        final NetworkSnapshot snapshot = NetworkSnapshot.EMPTY.with(activeNode).with(otherNode).without(NODE_URI);
+
+        assertThat(snapshot.getActiveNode(KEY)).containsSame(otherNode);
+    }
+
+    @Test
+    public void removingUnknownNodeKeepsSnapshot() {
+        final ActiveNode activeNode = ActiveNode.Builder.create().withUri(NODE_URI).withKeys(List.of(KEY)).build();
+        final NetworkSnapshot snapshot = NetworkSnapshot.EMPTY.with(activeNode);
+
+        assertThat(snapshot.without(NodeUri.create("http://someotheraddress.com"))).isSameAs(snapshot);
+        assertThat(snapshot.without(NODE_URI).getActiveNodes()).isEmpty();
+    }
+}
@@ -1,9 +1,12 @@
 package com.quorum.tessera.discovery;
 
+import com.quorum.tessera.encryption.PublicKey;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class NetworkStoreTest {
@@ -14,25 +17,19 @@ public class NetworkStoreTest {
     public void setUp() {
         networkStore = NetworkStore.getInstance();
         assertThat(networkStore).isExactlyInstanceOf(NetworkStoreFactory.class);
-        networkStore.getActiveNodes()
-            .map(ActiveNode::getUri)
-            .forEach(networkStore::remove);
+        networkStore.getActiveNodes().map(ActiveNode::getUri).forEach(networkStore::remove);
     }
 
     @After
     public void tearDown() {
-        networkStore.getActiveNodes()
-            .map(ActiveNode::getUri)
-            .forEach(networkStore::remove);
-
+        networkStore.getActiveNodes().map(ActiveNode::getUri).forEach(networkStore::remove);
     }
 
     @Test
     public void storeAndRemoveNode() {
 
         NodeUri nodeUri = NodeUri.create("http://someaddress.com");
-        ActiveNode activeNode = ActiveNode.Builder.create().withUri(nodeUri)
-            .build();
+        ActiveNode activeNode = ActiveNode.Builder.create().withUri(nodeUri).build();
 
         networkStore.store(activeNode);
 
@@ -41,27 +38,40 @@ public class NetworkStoreTest {
         networkStore.remove(nodeUri);
 
         assertThat(networkStore.getActiveNodes()).isEmpty();
-
     }
 
-
     @Test
     public void storeTwoNodes() {
         NodeUri nodeUri = NodeUri.create("http://someaddress.com");
         NodeUri someOtherNodeUri = NodeUri.create("http://someotheraddress.com");
 
-        networkStore.store(ActiveNode.Builder.create()
-            .withUri(nodeUri)
-            .build());
+        networkStore.store(ActiveNode.Builder.create().withUri(nodeUri).build());
 
-        networkStore.store(ActiveNode.Builder.create()
-            .withUri(someOtherNodeUri)
-            .build());
+        networkStore.store(ActiveNode.Builder.create().withUri(someOtherNodeUri).build());
 
         assertThat(networkStore.getActiveNodes().count()).isEqualTo(2L);
+    }
+
+    @Test
+    public void findNodeByRecipientKey() {
+        PublicKey key = PublicKey.from("key".getBytes());
+        PublicKey otherKey = PublicKey.from("otherKey".getBytes());
+        NodeUri nodeUri = NodeUri.create("http://someaddress.com");
+
+        ActiveNode activeNode = ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(key)).build();
+        networkStore.store(activeNode);
 
+        assertThat(networkStore.getActiveNode(key)).containsSame(activeNode);
+        assertThat(networkStore.getActiveNode(otherKey)).isEmpty();
 
-    }
+        ActiveNode rotated = ActiveNode.Builder.create().withUri(nodeUri).withKeys(List.of(otherKey)).build();
+        networkStore.store(rotated);
 
+        assertThat(networkStore.getActiveNode(key)).isEmpty();
+        assertThat(networkStore.getActiveNode(otherKey)).containsSame(rotated);
 
+        networkStore.remove(nodeUri);
+
+        assertThat(networkStore.getActiveNode(otherKey)).isEmpty();
+    }
 }
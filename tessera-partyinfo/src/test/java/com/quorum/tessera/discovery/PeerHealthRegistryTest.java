@@ -0,0 +1,26 @@
+package com.quorum.tessera.discovery;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PeerHealthRegistryTest {
+
+    @Test
+    public void getInstanceDelegatesToSharedRegistry() {
+        final NodeUri peer = NodeUri.create("http://registrytest.com:8080");
+        final PeerHealthRegistry registry = PeerHealthRegistry.getInstance();
+        assertThat(registry).isExactlyInstanceOf(PeerHealthRegistryFactory.class);
+
+        assertThat(registry.allowRequest(peer)).isTrue();
+        assertThat(registry.record(peer, () -> "DONE")).isEqualTo("DONE");
+
+        final PeerHealthRegistry other = PeerHealthRegistry.getInstance();
+        assertThat(other.getHealth(peer)).isPresent();
+        assertThat(other.getPeerHealth()).extracting(PeerHealth::getUri).contains(peer);
+        assertThat(other.getHealth(peer).get().toString()).contains("state=CLOSED");
+
+        other.remove(peer);
+        assertThat(registry.getHealth(peer)).isEmpty();
+    }
+}
@@ -10,10 +10,22 @@ import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EnclaveFactory;
 import com.quorum.tessera.recovery.resend.*;
 
+import java.util.concurrent.CompletionStage;
+
 public interface BatchResendManager {
 
     ResendBatchResponse resendBatch(ResendBatchRequest request);
 
+    /**
+     * Resends all transactions to the recipient on a thread of the manager's own, sharing the scan of the transaction
+     * store with the other resends requested at the same time.
+     *
+     * @param request the recipient to resend to, and the size of the batches to push
+     * @return the number of transactions resent, available once every transaction has been pushed
+     * @see ResendScheduler
+     */
+    CompletionStage<ResendBatchResponse> resendBatchAsync(ResendBatchRequest request);
+
     void storeResendBatch(PushBatchRequest resendPushBatchRequest);
 
     static BatchResendManager create(Config config) {
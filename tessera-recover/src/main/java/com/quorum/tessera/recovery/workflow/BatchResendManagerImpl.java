@@ -1,5 +1,6 @@
 package com.quorum.tessera.recovery.workflow;
 
+import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.data.EncryptedTransactionDAO;
 import com.quorum.tessera.data.staging.StagingEntityDAO;
 import com.quorum.tessera.data.staging.StagingTransactionUtils;
@@ -13,8 +14,10 @@ import com.quorum.tessera.recovery.resend.ResendBatchRequest;
 import com.quorum.tessera.recovery.resend.ResendBatchResponse;
 import com.quorum.tessera.util.Base64Codec;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
 public class BatchResendManagerImpl implements BatchResendManager {
 
@@ -34,6 +37,8 @@ public class BatchResendManagerImpl implements BatchResendManager {
 
     private final int maxResults;
 
+    private final ResendScheduler<Map.Entry<PublicKey, Integer>, ResendBatchResponse> resendScheduler;
+
     public BatchResendManagerImpl(
             Enclave enclave,
             StagingEntityDAO stagingEntityDAO,
@@ -61,6 +66,28 @@ public class BatchResendManagerImpl implements BatchResendManager {
             Discovery discovery,
             ResendBatchPublisher resendBatchPublisher,
             int maxResults) {
+        this(
+                payloadEncoder,
+                base64Decoder,
+                enclave,
+                stagingEntityDAO,
+                encryptedTransactionDAO,
+                discovery,
+                resendBatchPublisher,
+                maxResults,
+                new ResendScheduler<>(encryptedTransactionDAO, maxResults));
+    }
+
+    BatchResendManagerImpl(
+            PayloadEncoder payloadEncoder,
+            Base64Codec base64Decoder,
+            Enclave enclave,
+            StagingEntityDAO stagingEntityDAO,
+            EncryptedTransactionDAO encryptedTransactionDAO,
+            Discovery discovery,
+            ResendBatchPublisher resendBatchPublisher,
+            int maxResults,
+            ResendScheduler<Map.Entry<PublicKey, Integer>, ResendBatchResponse> resendScheduler) {
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
         this.base64Decoder = Objects.requireNonNull(base64Decoder);
         this.enclave = Objects.requireNonNull(enclave);
@@ -69,41 +96,52 @@ public class BatchResendManagerImpl implements BatchResendManager {
         this.discovery = Objects.requireNonNull(discovery);
         this.resendBatchPublisher = Objects.requireNonNull(resendBatchPublisher);
         this.maxResults = maxResults;
+        this.resendScheduler = Objects.requireNonNull(resendScheduler);
     }
 
-    static int calculateBatchCount(long maxResults, long total) {
-        return (int) Math.ceil((double) total / maxResults);
+    @Override
+    public ResendBatchResponse resendBatch(ResendBatchRequest request) {
+        return ResendScheduler.await(resendBatchAsync(request));
     }
 
     @Override
-    public ResendBatchResponse resendBatch(ResendBatchRequest request) {
+    public CompletionStage<ResendBatchResponse> resendBatchAsync(ResendBatchRequest request) {
 
         final int batchSize = validateRequestBatchSize(request.getBatchSize());
         final byte[] publicKeyData = base64Decoder.decode(request.getPublicKey());
         final PublicKey recipientPublicKey = PublicKey.from(publicKeyData);
 
-        final long transactionCount = encryptedTransactionDAO.transactionCount();
-        final long batchCount = calculateBatchCount(maxResults, transactionCount);
-
-        final BatchWorkflow batchWorkflow =
-                BatchWorkflowFactory.newFactory(
-                                enclave, payloadEncoder, discovery, resendBatchPublisher, transactionCount)
-                        .create();
-
-        IntStream.range(0, (int) batchCount)
-                .map(i -> i * maxResults)
-                .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, maxResults))
-                .flatMap(List::stream)
-                .forEach(
-                        encryptedTransaction -> {
-                            final BatchWorkflowContext context = new BatchWorkflowContext();
-                            context.setEncryptedTransaction(encryptedTransaction);
-                            context.setRecipientKey(recipientPublicKey);
-                            context.setBatchSize(batchSize);
-                            batchWorkflow.execute(context);
-                        });
-
-        return ResendBatchResponse.from(batchWorkflow.getPublishedMessageCount());
+        return resendScheduler.schedule(
+                Map.entry(recipientPublicKey, batchSize),
+                transactionCount -> {
+                    final BatchWorkflow batchWorkflow =
+                            BatchWorkflowFactory.newFactory(
+                                            enclave, payloadEncoder, discovery, resendBatchPublisher, transactionCount)
+                                    .create();
+
+                    return new ResendScheduler.Resend<>() {
+                        @Override
+                        public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                            final List<BatchWorkflowContext> contexts =
+                                    encryptedTransactions.stream()
+                                            .map(
+                                                    encryptedTransaction -> {
+                                                        final BatchWorkflowContext context = new BatchWorkflowContext();
+                                                        context.setEncryptedTransaction(encryptedTransaction);
+                                                        context.setRecipientKey(recipientPublicKey);
+                                                        context.setBatchSize(batchSize);
+                                                        return context;
+                                                    })
+                                            .collect(Collectors.toList());
+                            batchWorkflow.executePage(contexts);
+                        }
+
+                        @Override
+                        public ResendBatchResponse result() {
+                            return ResendBatchResponse.from(batchWorkflow.getPublishedMessageCount());
+                        }
+                    };
+                });
     }
 
     @Override
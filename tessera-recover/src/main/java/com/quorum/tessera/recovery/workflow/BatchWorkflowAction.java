@@ -1,7 +1,20 @@
 package com.quorum.tessera.recovery.workflow;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface BatchWorkflowAction {
 
     boolean execute(BatchWorkflowContext context);
 
+    /**
+     * Runs the action on a page of transactions read from the store. Actions whose work is the same for every
+     * transaction of the page override this to do that work once for the whole page.
+     *
+     * @param contexts one for each transaction of the page
+     * @return the contexts the action passed on, in the same order
+     */
+    default List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+        return contexts.stream().filter(this::execute).collect(Collectors.toList());
+    }
 }
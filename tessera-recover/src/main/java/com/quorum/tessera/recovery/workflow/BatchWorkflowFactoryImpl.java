@@ -83,6 +83,27 @@ public class BatchWorkflowFactoryImpl implements BatchWorkflowFactory {
                 return outcome;
             }
 
+            @Override
+            public List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+                if (contexts.isEmpty()) {
+                    return contexts;
+                }
+
+                List<BatchWorkflowContext> passed = contexts;
+                final List<BatchWorkflowAction> filters = handlers.subList(0, handlers.size() - 1);
+                for (int i = 0; i < filters.size() && !passed.isEmpty(); i++) {
+                    passed = filters.get(i).executePage(passed);
+                }
+
+                // the whole page is filtered before any of it is published, so the total is already known
+                final long expectedTotal = filteredMessageCount.addAndGet(passed.size() - contexts.size());
+                contexts.forEach(context -> context.setExpectedTotal(expectedTotal));
+
+                encodedPayloadPublisher.executePage(passed);
+                encodedPayloadPublisher.checkOutstandingPayloads(contexts.get(contexts.size() - 1));
+                return passed;
+            }
+
             @Override
             public long getPublishedMessageCount() {
                 return encodedPayloadPublisher.getPublishedCount();
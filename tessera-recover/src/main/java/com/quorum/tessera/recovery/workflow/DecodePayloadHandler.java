@@ -4,12 +4,68 @@ import com.quorum.tessera.data.EncryptedTransaction;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.enclave.PayloadEncoder;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DecodePayloadHandler implements BatchWorkflowAction {
 
+    // pages shorter than this are not worth handing to other threads
+    static final int MIN_PARALLEL_CHUNK_SIZE = 64;
+
     private PayloadEncoder encoder;
 
+    private final Executor executor;
+
+    private final int parallelism;
+
     public DecodePayloadHandler(PayloadEncoder encoder) {
+        this(encoder, DecodeExecutor.INSTANCE, DecodeExecutor.THREADS + 1);
+    }
+
+    DecodePayloadHandler(PayloadEncoder encoder, Executor executor, int parallelism) {
         this.encoder = encoder;
+        this.executor = Objects.requireNonNull(executor);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * The threads that resend pages are decoded on, shared by every resend. There is one per processor, at the lowest
+     * priority like the resend scans themselves. Only a few chunks may wait for a thread; once they are taken the
+     * thread running the workflow decodes the chunk itself, so resends never take threads from the rest of the node.
+     */
+    private static final class DecodeExecutor {
+
+        static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+        static final ThreadPoolExecutor INSTANCE = newExecutor(THREADS);
+    }
+
+    static ThreadPoolExecutor newExecutor(final int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        1L,
+                        TimeUnit.MINUTES,
+                        new ArrayBlockingQueue<>(threads),
+                        runnable -> {
+                            final Thread thread =
+                                    new Thread(runnable, "resend-decode-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            thread.setPriority(Thread.MIN_PRIORITY);
+                            return thread;
+                        },
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     @Override
@@ -23,4 +79,24 @@ public class DecodePayloadHandler implements BatchWorkflowAction {
 
         return true;
     }
+
+    @Override
+    public List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+        // each transaction is decoded on its own, so the page is split into chunks decoded in parallel. The calling
+        // thread decodes the first chunk while the decode threads take the rest. Every transaction is passed on, so
+        // the page is returned as it is.
+        final int size = contexts.size();
+        final int chunkSize = Math.max(MIN_PARALLEL_CHUNK_SIZE, (size + parallelism - 1) / parallelism);
+
+        final List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            final List<BatchWorkflowContext> chunk = contexts.subList(from, Math.min(from + chunkSize, size));
+            chunks.add(CompletableFuture.runAsync(() -> chunk.forEach(this::execute), executor));
+        }
+
+        contexts.subList(0, Math.min(chunkSize, size)).forEach(this::execute);
+
+        chunks.forEach(ResendScheduler::await);
+        return contexts;
+    }
 }
@@ -4,7 +4,11 @@ import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EncodedPayload;
 import com.quorum.tessera.encryption.PublicKey;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class FilterPayload implements BatchWorkflowFilter {
 
@@ -16,18 +20,27 @@ public class FilterPayload implements BatchWorkflowFilter {
 
     @Override
     public boolean filter(BatchWorkflowContext context) {
+        return filter(context, enclave::getPublicKeys);
+    }
+
+    @Override
+    public List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+        // the enclave's keys are fetched once for the page rather than for every transaction
+        final Set<PublicKey> enclaveKeys = enclave.getPublicKeys();
+        return contexts.stream().filter(context -> filter(context, () -> enclaveKeys)).collect(Collectors.toList());
+    }
+
+    private static boolean filter(BatchWorkflowContext context, Supplier<Set<PublicKey>> enclaveKeys) {
 
         EncodedPayload encodedPayload = context.getEncodedPayload();
         PublicKey recipientPublicKey = context.getRecipientKey();
 
         final boolean isCurrentNodeSender =
-            encodedPayload.getRecipientKeys().contains(recipientPublicKey)
-                && enclave.getPublicKeys().contains(encodedPayload.getSenderKey());
+                encodedPayload.getRecipientKeys().contains(recipientPublicKey)
+                        && enclaveKeys.get().contains(encodedPayload.getSenderKey());
 
-        final boolean isRequestedNodeSender =
-            Objects.equals(encodedPayload.getSenderKey(), recipientPublicKey);
+        final boolean isRequestedNodeSender = Objects.equals(encodedPayload.getSenderKey(), recipientPublicKey);
 
         return isCurrentNodeSender || isRequestedNodeSender;
-
     }
 }
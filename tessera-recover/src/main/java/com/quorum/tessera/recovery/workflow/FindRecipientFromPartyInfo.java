@@ -5,6 +5,12 @@ import com.quorum.tessera.encryption.KeyNotFoundException;
 import com.quorum.tessera.encryption.PublicKey;
 import com.quorum.tessera.partyinfo.node.Recipient;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public class FindRecipientFromPartyInfo implements BatchWorkflowAction {
 
     private Discovery discovery;
@@ -20,13 +26,32 @@ public class FindRecipientFromPartyInfo implements BatchWorkflowAction {
                 discovery.getCurrent().getRecipients().stream()
                         .filter(recipient -> recipientKey.equals(recipient.getKey()))
                         .findAny()
-                        .orElseThrow(
-                                () ->
-                                        new KeyNotFoundException(
-                                                "Recipient not found for key: " + recipientKey.encodeToBase64()));
+                        .orElseThrow(() -> recipientNotFound(recipientKey));
 
         event.setRecipient(retrievedRecipientFromStore);
 
         return true;
     }
+
+    @Override
+    public List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+        // the recipients are built from every node's keys, so they are looked up once for the page
+        final Map<PublicKey, Recipient> recipients =
+                discovery.getCurrent().getRecipients().stream()
+                        .collect(Collectors.toMap(Recipient::getKey, Function.identity(), (first, other) -> first));
+
+        contexts.forEach(
+                context -> {
+                    final PublicKey recipientKey = context.getRecipientKey();
+                    context.setRecipient(
+                            Optional.ofNullable(recipients.get(recipientKey))
+                                    .orElseThrow(() -> recipientNotFound(recipientKey)));
+                });
+
+        return contexts;
+    }
+
+    private static KeyNotFoundException recipientNotFound(PublicKey recipientKey) {
+        return new KeyNotFoundException("Recipient not found for key: " + recipientKey.encodeToBase64());
+    }
 }
@@ -13,25 +13,40 @@ import com.quorum.tessera.recovery.resend.ResendResponse;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 import com.quorum.tessera.transaction.publish.PayloadPublisherFactory;
 
+import java.util.concurrent.CompletionStage;
+
 public interface LegacyResendManager {
 
     ResendResponse resend(ResendRequest request);
 
+    /**
+     * Resends on a thread of the manager's own when the request is for all transactions, sharing the scan of the
+     * transaction store with the other resends requested at the same time. An individual transaction is looked up
+     * straight away.
+     *
+     * @param request the recipient to resend to, and the transaction if only one is to be resent
+     * @return the response, available once every transaction has been pushed
+     * @see ResendScheduler
+     */
+    CompletionStage<ResendResponse> resendAsync(ResendRequest request);
+
     static LegacyResendManager create(final Config config) {
         return ServiceLoaderUtil.load(LegacyResendManager.class)
-            .orElseGet(
-                () -> {
-                    final Discovery discovery = Discovery.getInstance();
-                    final Enclave enclave = EnclaveFactory.create().create(config);
-                    final EntityManagerDAOFactory entityManagerDAOFactory = EntityManagerDAOFactory.newFactory(config);
-                    final EncryptedTransactionDAO txDao = entityManagerDAOFactory.createEncryptedTransactionDAO();
-                    final PayloadEncoder encoder = PayloadEncoder.create();
-                    final PayloadPublisher publisher = PayloadPublisherFactory.newFactory(config).create(config);
-                    final int maxResults = 100;
+                .orElseGet(
+                        () -> {
+                            final Discovery discovery = Discovery.getInstance();
+                            final Enclave enclave = EnclaveFactory.create().create(config);
+                            final EntityManagerDAOFactory entityManagerDAOFactory =
+                                    EntityManagerDAOFactory.newFactory(config);
+                            final EncryptedTransactionDAO txDao =
+                                    entityManagerDAOFactory.createEncryptedTransactionDAO();
+                            final PayloadEncoder encoder = PayloadEncoder.create();
+                            final PayloadPublisher publisher =
+                                    PayloadPublisherFactory.newFactory(config).create(config);
+                            final int maxResults = 100;
 
-                    return new LegacyResendManagerImpl(enclave, txDao, maxResults, encoder, publisher, discovery);
-                }
-            );
+                            return new LegacyResendManagerImpl(
+                                    enclave, txDao, maxResults, encoder, publisher, discovery);
+                        });
     }
-
 }
@@ -16,8 +16,9 @@ import com.quorum.tessera.transaction.exception.TransactionNotFoundException;
 import com.quorum.tessera.transaction.publish.PayloadPublisher;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 public class LegacyResendManagerImpl implements LegacyResendManager {
 
@@ -25,14 +26,14 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
     private final EncryptedTransactionDAO encryptedTransactionDAO;
 
-    private final int resendFetchSize;
-
     private final PayloadEncoder payloadEncoder;
 
     private final PayloadPublisher payloadPublisher;
 
     private final Discovery discovery;
 
+    private final ResendScheduler<PublicKey, ResendResponse> resendScheduler;
+
     public LegacyResendManagerImpl(
             final Enclave enclave,
             final EncryptedTransactionDAO encryptedTransactionDAO,
@@ -40,42 +41,72 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
             final PayloadEncoder payloadEncoder,
             final PayloadPublisher payloadPublisher,
             final Discovery discovery) {
+        this(
+                enclave,
+                encryptedTransactionDAO,
+                payloadEncoder,
+                payloadPublisher,
+                discovery,
+                new ResendScheduler<>(encryptedTransactionDAO, resendFetchSize));
+    }
+
+    LegacyResendManagerImpl(
+            final Enclave enclave,
+            final EncryptedTransactionDAO encryptedTransactionDAO,
+            final PayloadEncoder payloadEncoder,
+            final PayloadPublisher payloadPublisher,
+            final Discovery discovery,
+            final ResendScheduler<PublicKey, ResendResponse> resendScheduler) {
         this.enclave = Objects.requireNonNull(enclave);
         this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
-        this.resendFetchSize = resendFetchSize;
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
         this.payloadPublisher = Objects.requireNonNull(payloadPublisher);
         this.discovery = Objects.requireNonNull(discovery);
+        this.resendScheduler = Objects.requireNonNull(resendScheduler);
     }
 
     @Override
     public ResendResponse resend(ResendRequest request) {
+        return ResendScheduler.await(resendAsync(request));
+    }
+
+    @Override
+    public CompletionStage<ResendResponse> resendAsync(ResendRequest request) {
         if (request.getType() == ResendRequest.ResendRequestType.INDIVIDUAL) {
-            return resendIndividual(request.getRecipient(), request.getHash());
+            return CompletableFuture.completedFuture(resendIndividual(request.getRecipient(), request.getHash()));
         }
 
         final LegacyWorkflowFactory batchWorkflowFactory =
                 new LegacyWorkflowFactory(enclave, payloadEncoder, discovery, payloadPublisher);
 
-        final BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
-
-        final long transactionCount = encryptedTransactionDAO.transactionCount();
-        final long batchCount = calculateBatchCount(resendFetchSize, transactionCount);
-
-        IntStream.range(0, (int) batchCount)
-                .map(i -> i * resendFetchSize)
-                .mapToObj(offset -> encryptedTransactionDAO.retrieveTransactions(offset, resendFetchSize))
-                .flatMap(List::stream)
-                .forEach(
-                        encryptedTransaction -> {
-                            final BatchWorkflowContext context = new BatchWorkflowContext();
-                            context.setEncryptedTransaction(encryptedTransaction);
-                            context.setRecipientKey(request.getRecipient());
-                            context.setBatchSize(1);
-                            batchWorkflow.execute(context);
-                        });
-
-        return ResendResponse.Builder.create().build();
+        return resendScheduler.schedule(
+                request.getRecipient(),
+                transactionCount -> {
+                    final BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
+
+                    return new ResendScheduler.Resend<>() {
+                        @Override
+                        public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                            final List<BatchWorkflowContext> contexts =
+                                    encryptedTransactions.stream()
+                                            .map(
+                                                    encryptedTransaction -> {
+                                                        final BatchWorkflowContext context = new BatchWorkflowContext();
+                                                        context.setEncryptedTransaction(encryptedTransaction);
+                                                        context.setRecipientKey(request.getRecipient());
+                                                        context.setBatchSize(1);
+                                                        return context;
+                                                    })
+                                            .collect(Collectors.toList());
+                            batchWorkflow.executePage(contexts);
+                        }
+
+                        @Override
+                        public ResendResponse result() {
+                            return ResendResponse.Builder.create().build();
+                        }
+                    };
+                });
     }
 
     protected ResendResponse resendIndividual(final PublicKey targetResendKey, final MessageHash messageHash) {
@@ -130,8 +161,4 @@ public class LegacyResendManagerImpl implements LegacyResendManager {
 
         return ResendResponse.Builder.create().withPayload(builder.build()).build();
     }
-
-    static int calculateBatchCount(long maxResults, long total) {
-        return (int) Math.ceil((double) total / maxResults);
-    }
 }
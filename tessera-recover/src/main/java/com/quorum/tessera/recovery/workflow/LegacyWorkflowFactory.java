@@ -19,10 +19,11 @@ public class LegacyWorkflowFactory {
 
     private final PayloadPublisher payloadPublisher;
 
-    public LegacyWorkflowFactory(final Enclave enclave,
-                                 final PayloadEncoder payloadEncoder,
-                                 final Discovery discovery,
-                                 final PayloadPublisher payloadPublisher) {
+    public LegacyWorkflowFactory(
+            final Enclave enclave,
+            final PayloadEncoder payloadEncoder,
+            final Discovery discovery,
+            final PayloadPublisher payloadPublisher) {
         this.enclave = Objects.requireNonNull(enclave);
         this.payloadEncoder = Objects.requireNonNull(payloadEncoder);
         this.discovery = Objects.requireNonNull(discovery);
@@ -38,19 +39,20 @@ public class LegacyWorkflowFactory {
         final SearchRecipientKeyForPayload searchRecipientKeyForPayload = new SearchRecipientKeyForPayload(enclave);
         final FindRecipientFromPartyInfo findRecipientFromPartyInfo = new FindRecipientFromPartyInfo(discovery);
         final SenderIsNotRecipient senderIsNotRecipient = new SenderIsNotRecipient(enclave);
-        final SingleEncodedPayloadPublisher encodedPayloadPublisher = new SingleEncodedPayloadPublisher(payloadPublisher);
+        final SingleEncodedPayloadPublisher encodedPayloadPublisher =
+                new SingleEncodedPayloadPublisher(payloadPublisher);
 
-        final List<BatchWorkflowAction> handlers = List.of(
-            validateEnclaveStatus,
-            decodePayloadHandler,
-            standardPrivateOnlyFilter,
-            filterPayload,
-            preparePayloadForRecipient,
-            searchRecipientKeyForPayload,
-            findRecipientFromPartyInfo,
-            senderIsNotRecipient,
-            encodedPayloadPublisher
-        );
+        final List<BatchWorkflowAction> handlers =
+                List.of(
+                        validateEnclaveStatus,
+                        decodePayloadHandler,
+                        standardPrivateOnlyFilter,
+                        filterPayload,
+                        preparePayloadForRecipient,
+                        searchRecipientKeyForPayload,
+                        findRecipientFromPartyInfo,
+                        senderIsNotRecipient,
+                        encodedPayloadPublisher);
 
         return new BatchWorkflow() {
 
@@ -59,6 +61,15 @@ public class LegacyWorkflowFactory {
                 return handlers.stream().filter(Predicate.not(h -> h.execute(context))).findFirst().isEmpty();
             }
 
+            @Override
+            public List<BatchWorkflowContext> executePage(final List<BatchWorkflowContext> contexts) {
+                List<BatchWorkflowContext> passed = contexts;
+                for (int i = 0; i < handlers.size() && !passed.isEmpty(); i++) {
+                    passed = handlers.get(i).executePage(passed);
+                }
+                return passed;
+            }
+
             @Override
             public long getPublishedMessageCount() {
                 return 0;
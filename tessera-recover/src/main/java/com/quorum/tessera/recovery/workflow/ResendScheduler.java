@@ -0,0 +1,255 @@
+package com.quorum.tessera.recovery.workflow;
+
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+/**
+ * Runs the resends of all transactions to a recipient, each of which reads the whole transaction store.
+ *
+ * <p>Resends requested while a scan is waiting to start join that scan, so the store is read once for all of them
+ * however many arrive together, as when a whole network restarts. A resend identical to one that is already waiting or
+ * running joins it rather than resending everything again. The store is read in hash order, each page starting after
+ * the hash that ended the last one, so a page costs the same however far into the store the scan is.
+ *
+ * <p>Only a limited number of scans run at once, which is what keeps them from taking the database and processors away
+ * from live transactions. Their threads are also given the lowest priority, but that is only a hint: HotSpot on Linux
+ * ignores thread priorities unless started with {@code -XX:ThreadPriorityPolicy=1}, which needs root.
+ *
+ * @param <K> what makes two resends identical
+ * @param <R> the result of a resend
+ */
+public class ResendScheduler<K, R> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResendScheduler.class);
+
+    static final int MAX_CONCURRENT_SCANS = 2;
+
+    /**
+     * A resend to one recipient.
+     *
+     * @param <R> the result of the resend
+     */
+    public interface Resend<R> {
+
+        /**
+         * Resends the transactions of a page read by the scan that the recipient is party to.
+         *
+         * @param encryptedTransactions the page of transactions read from the store
+         */
+        void resend(List<EncryptedTransaction> encryptedTransactions);
+
+        /** @return the result once the scan has read every transaction */
+        R result();
+    }
+
+    private final EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private final int fetchSize;
+
+    private final Executor executor;
+
+    private final Map<K, CompletableFuture<R>> inFlight = new HashMap<>();
+
+    private Scan pending;
+
+    public ResendScheduler(final EncryptedTransactionDAO encryptedTransactionDAO, final int fetchSize) {
+        this(encryptedTransactionDAO, fetchSize, newExecutor(MAX_CONCURRENT_SCANS));
+    }
+
+    ResendScheduler(
+            final EncryptedTransactionDAO encryptedTransactionDAO, final int fetchSize, final Executor executor) {
+        this.encryptedTransactionDAO = Objects.requireNonNull(encryptedTransactionDAO);
+        this.fetchSize = fetchSize;
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    static ThreadPoolExecutor newExecutor(final int maxConcurrentScans) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        maxConcurrentScans,
+                        maxConcurrentScans,
+                        1L,
+                        TimeUnit.MINUTES,
+                        new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "resend-scan-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            thread.setPriority(Thread.MIN_PRIORITY);
+                            return thread;
+                        });
+        // resends are rare, so the threads are not kept waiting for the next one
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Waits for the result of a resend, rethrowing the exception it failed with.
+     *
+     * @param result the result of the resend
+     * @param <R> the type of the result
+     * @return the result
+     */
+    static <R> R await(final CompletionStage<R> result) {
+        try {
+            return result.toCompletableFuture().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Schedules a resend, or joins the identical resend that is already scheduled.
+     *
+     * @param key identifies the resend
+     * @param resend creates the resend when its scan starts, given the number of transactions the scan will read
+     * @return the result of the resend; cancelling it does not stop the resend, which others may be waiting for
+     */
+    public synchronized CompletableFuture<R> schedule(final K key, final LongFunction<Resend<R>> resend) {
+        final CompletableFuture<R> existing = inFlight.get(key);
+        if (existing != null) {
+            LOGGER.debug("Joining the resend to {} that is already in progress", key);
+            return existing.copy();
+        }
+
+        final CompletableFuture<R> result = new CompletableFuture<>();
+        inFlight.put(key, result);
+
+        final boolean startScan = pending == null;
+        if (startScan) {
+            pending = new Scan();
+        }
+        pending.participants.add(new Participant(key, resend, result));
+        if (startScan) {
+            executor.execute(pending);
+        }
+        return result.copy();
+    }
+
+    private class Participant {
+
+        private final K key;
+
+        private final LongFunction<Resend<R>> resendFactory;
+
+        private final CompletableFuture<R> result;
+
+        private Resend<R> resend;
+
+        Participant(final K key, final LongFunction<Resend<R>> resendFactory, final CompletableFuture<R> result) {
+            this.key = key;
+            this.resendFactory = resendFactory;
+            this.result = result;
+        }
+
+        boolean start(final long transactionCount) {
+            try {
+                resend = resendFactory.apply(transactionCount);
+                return true;
+            } catch (RuntimeException ex) {
+                fail(ex);
+                return false;
+            }
+        }
+
+        boolean resend(final List<EncryptedTransaction> encryptedTransactions) {
+            try {
+                resend.resend(encryptedTransactions);
+                return true;
+            } catch (RuntimeException ex) {
+                fail(ex);
+                return false;
+            }
+        }
+
+        void complete() {
+            final R value;
+            try {
+                value = resend.result();
+            } catch (RuntimeException ex) {
+                fail(ex);
+                return;
+            }
+            // no longer in flight before it completes, so a requester seeing the result can ask again
+            finished();
+            result.complete(value);
+        }
+
+        void fail(final Throwable cause) {
+            LOGGER.warn("Resend to {} failed: {}", key, cause.getMessage());
+            finished();
+            result.completeExceptionally(cause);
+        }
+
+        private void finished() {
+            synchronized (ResendScheduler.this) {
+                inFlight.remove(key, result);
+            }
+        }
+    }
+
+    private class Scan implements Runnable {
+
+        private final List<Participant> participants = new ArrayList<>();
+
+        @Override
+        public void run() {
+            final List<Participant> active;
+            synchronized (ResendScheduler.this) {
+                // from here on new resends wait for the next scan
+                pending = null;
+                active = new ArrayList<>(participants);
+            }
+            LOGGER.info("Scanning transactions to resend to {} recipients", active.size());
+
+            try {
+                final long transactionCount = encryptedTransactionDAO.transactionCount();
+                active.removeIf(participant -> !participant.start(transactionCount));
+
+                MessageHash after = null;
+                boolean more = true;
+                while (more && !active.isEmpty()) {
+                    final List<EncryptedTransaction> page =
+                            encryptedTransactionDAO.retrieveTransactionsByHashRange(after, null, fetchSize);
+                    if (!page.isEmpty()) {
+                        active.removeIf(participant -> !participant.resend(page));
+                        after = page.get(page.size() - 1).getHash();
+                    }
+                    // a page that is not full is the end of the store
+                    more = page.size() == fetchSize;
+                }
+                active.forEach(Participant::complete);
+            } catch (RuntimeException ex) {
+                active.forEach(participant -> participant.fail(ex));
+            } catch (Error ex) {
+                // left incomplete, the resends would stay in flight and every later identical request would join them
+                active.forEach(participant -> participant.fail(ex));
+                throw ex;
+            }
+        }
+    }
+}
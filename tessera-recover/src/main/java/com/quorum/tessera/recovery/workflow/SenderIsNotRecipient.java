@@ -5,7 +5,10 @@ import com.quorum.tessera.encryption.PublicKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class SenderIsNotRecipient implements BatchWorkflowFilter {
 
@@ -19,9 +22,19 @@ public class SenderIsNotRecipient implements BatchWorkflowFilter {
 
     @Override
     public boolean filter(final BatchWorkflowContext context) {
+        return filter(context, enclave.getPublicKeys());
+    }
+
+    @Override
+    public List<BatchWorkflowContext> executePage(final List<BatchWorkflowContext> contexts) {
+        final Set<PublicKey> enclaveKeys = enclave.getPublicKeys();
+        return contexts.stream().filter(context -> filter(context, enclaveKeys)).collect(Collectors.toList());
+    }
+
+    private static boolean filter(final BatchWorkflowContext context, final Set<PublicKey> enclaveKeys) {
         final PublicKey recipientKey = context.getRecipientKey();
 
-        final boolean valid = !enclave.getPublicKeys().contains(recipientKey);
+        final boolean valid = !enclaveKeys.contains(recipientKey);
 
         if (!valid) {
             // we are trying to send something to ourselves - don't do it
@@ -4,6 +4,8 @@ import com.quorum.tessera.enclave.Enclave;
 import com.quorum.tessera.enclave.EnclaveNotAvailableException;
 import com.quorum.tessera.service.Service;
 
+import java.util.List;
+
 public class ValidateEnclaveStatus implements BatchWorkflowAction {
 
     private Enclave enclave;
@@ -14,9 +16,19 @@ public class ValidateEnclaveStatus implements BatchWorkflowAction {
 
     @Override
     public boolean execute(BatchWorkflowContext context) {
+        validate();
+        return true;
+    }
+
+    @Override
+    public List<BatchWorkflowContext> executePage(List<BatchWorkflowContext> contexts) {
+        validate();
+        return contexts;
+    }
+
+    private void validate() {
         if (enclave.status() == Service.Status.STOPPED) {
             throw new EnclaveNotAvailableException();
         }
-        return true;
     }
 }
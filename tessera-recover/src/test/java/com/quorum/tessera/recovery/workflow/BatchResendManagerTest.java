@@ -19,18 +19,17 @@ import com.quorum.tessera.util.Base64Codec;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
-import static org.mockito.AdditionalMatchers.gt;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.AdditionalMatchers.lt;
 import static org.mockito.Mockito.*;
 
 public class BatchResendManagerTest {
@@ -74,7 +73,8 @@ public class BatchResendManagerTest {
                         encryptedTransactionDAO,
                         discovery,
                         resendBatchPublisher,
-                        5);
+                        5,
+                        new ResendScheduler<>(encryptedTransactionDAO, 5, Runnable::run));
 
         when(enclave.status()).thenReturn(Service.Status.STARTED);
 
@@ -111,9 +111,7 @@ public class BatchResendManagerTest {
         when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
         MockBatchWorkflowFactory.transactionCount = 101L;
 
-        when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-        when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-                .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+        storeTransactions(transactions, 20);
 
         final EncodedPayload toPublish = mock(EncodedPayload.class);
         final MockBatchWorkflowFactory.SimpleBatchWorkflow batchWorkflow = MockBatchWorkflowFactory.getWorkflow();
@@ -126,7 +124,7 @@ public class BatchResendManagerTest {
 
         assertThat(result.getTotal()).isEqualTo(101L);
 
-        verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+        verify(encryptedTransactionDAO, times(21)).retrieveTransactionsByHashRange(any(), isNull(), eq(5));
         verify(encryptedTransactionDAO).transactionCount();
         verify(resendBatchPublisher, times(34)).publishBatch(any(), any());
     }
@@ -145,9 +143,7 @@ public class BatchResendManagerTest {
         when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
         MockBatchWorkflowFactory.transactionCount = 101L;
 
-        when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-        when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-                .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+        storeTransactions(transactions, 20);
 
         final MockBatchWorkflowFactory.SimpleBatchWorkflow batchWorkflow = MockBatchWorkflowFactory.getWorkflow();
         batchWorkflow.setSinglePayloadToPublish(toPublish);
@@ -159,7 +155,7 @@ public class BatchResendManagerTest {
 
         assertThat(result.getTotal()).isEqualTo(101L);
 
-        verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+        verify(encryptedTransactionDAO, times(21)).retrieveTransactionsByHashRange(any(), isNull(), eq(5));
         verify(encryptedTransactionDAO).transactionCount();
         verify(resendBatchPublisher, times(21)).publishBatch(any(), any());
     }
@@ -178,9 +174,7 @@ public class BatchResendManagerTest {
         when(encryptedTransactionDAO.transactionCount()).thenReturn(101L);
         MockBatchWorkflowFactory.transactionCount = 101L;
 
-        when(encryptedTransactionDAO.retrieveTransactions(lt(100), anyInt())).thenReturn(transactions);
-        when(encryptedTransactionDAO.retrieveTransactions(gt(99), anyInt()))
-                .thenReturn(singletonList(mock(EncryptedTransaction.class)));
+        storeTransactions(transactions, 20);
 
         final EncodedPayload toPublish = mock(EncodedPayload.class);
         final MockBatchWorkflowFactory.SimpleBatchWorkflow batchWorkflow = MockBatchWorkflowFactory.getWorkflow();
@@ -193,11 +187,19 @@ public class BatchResendManagerTest {
 
         assertThat(result.getTotal()).isEqualTo(101L);
 
-        verify(encryptedTransactionDAO, times(21)).retrieveTransactions(anyInt(), anyInt());
+        verify(encryptedTransactionDAO, times(21)).retrieveTransactionsByHashRange(any(), isNull(), eq(5));
         verify(encryptedTransactionDAO).transactionCount();
         verify(resendBatchPublisher, times(21)).publishBatch(any(), any());
     }
 
+    // the store holds the given number of full pages followed by a page with a single transaction
+    private void storeTransactions(List<EncryptedTransaction> page, int fullPages) {
+        final List<EncryptedTransaction> lastPage = singletonList(mock(EncryptedTransaction.class));
+        final AtomicInteger pagesRead = new AtomicInteger();
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(any(), isNull(), eq(5)))
+                .thenAnswer(invocation -> pagesRead.getAndIncrement() < fullPages ? page : lastPage);
+    }
+
     @Test
     public void createWithMinimalConstructor() {
         assertThat(
@@ -206,26 +208,6 @@ public class BatchResendManagerTest {
                 .isNotNull();
     }
 
-    @Test
-    public void calculateBatchCount() {
-        long numberOfRecords = 10;
-        long maxResults = 3;
-
-        int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
-
-        assertThat(batchCount).isEqualTo(4);
-    }
-
-    @Test
-    public void calculateBatchCountTotalLowerThanBatchSizeIsSingleBatch() {
-        long numberOfRecords = 100;
-        long maxResults = 10;
-
-        int batchCount = BatchResendManagerImpl.calculateBatchCount(maxResults, numberOfRecords);
-
-        assertThat(batchCount).isEqualTo(10);
-    }
-
     @Test
     public void createBatchResendManager() {
         Config config = mock(Config.class);
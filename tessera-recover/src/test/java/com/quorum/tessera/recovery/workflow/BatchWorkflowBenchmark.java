@@ -0,0 +1,178 @@
+package com.quorum.tessera.recovery.workflow;
+
+import com.quorum.tessera.config.Config;
+import com.quorum.tessera.config.JdbcConfig;
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.EntityManagerDAOFactory;
+import com.quorum.tessera.data.MessageHash;
+import com.quorum.tessera.discovery.Discovery;
+import com.quorum.tessera.enclave.Enclave;
+import com.quorum.tessera.enclave.EncodedPayload;
+import com.quorum.tessera.enclave.PayloadEncoder;
+import com.quorum.tessera.encryption.PublicKey;
+import com.quorum.tessera.partyinfo.node.NodeInfo;
+import com.quorum.tessera.partyinfo.node.Recipient;
+import com.quorum.tessera.service.Service;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures a batch resend of a whole H2 store to one recipient, with the workflow run once for every transaction and
+ * once for every page read from the store. The store holds transactions sent by this node to the recipient and to
+ * another node of a network of a hundred nodes.
+ *
+ * <p>The store is read in hash order, a page after the hash that ended the last one, as paging by offset sorts the whole
+ * table again for every page and would be most of what is measured.
+ *
+ * <p>Run from the test classpath with {@code java com.quorum.tessera.recovery.workflow.BatchWorkflowBenchmark}, the
+ * size of the store can be changed with {@code -p transactions=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Timeout(time = 30, timeUnit = TimeUnit.MINUTES)
+public class BatchWorkflowBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int NODES = 100;
+
+    private static final PublicKey SENDER = PublicKey.from("SENDER".getBytes());
+
+    private static final PublicKey RECIPIENT = PublicKey.from("NODE-0".getBytes());
+
+    @Param({"1000000"})
+    public int transactions;
+
+    @Param({"transaction", "page"})
+    public String mode;
+
+    private final PayloadEncoder payloadEncoder = PayloadEncoder.create();
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private BatchWorkflowFactoryImpl batchWorkflowFactory;
+
+    @Setup
+    public void setUp() {
+        final JdbcConfig jdbcConfig =
+                new JdbcConfig("junit", "", "jdbc:h2:./target/benchmark/resend-" + System.nanoTime());
+        jdbcConfig.setAutoCreateTables(true);
+
+        final Config config = new Config();
+        config.setJdbcConfig(jdbcConfig);
+
+        encryptedTransactionDAO = EntityManagerDAOFactory.newFactory(config).createEncryptedTransactionDAO();
+
+        final PublicKey otherNode = PublicKey.from("NODE-1".getBytes());
+        for (int i = 0; i < transactions; i += PAGE_SIZE) {
+            final List<EncryptedTransaction> page =
+                    IntStream.range(i, Math.min(i + PAGE_SIZE, transactions))
+                            .mapToObj(j -> new EncryptedTransaction(hash(), payload(j % 2 == 0 ? RECIPIENT : otherNode)))
+                            .collect(Collectors.toList());
+            encryptedTransactionDAO.saveAll(page, List.of());
+        }
+
+        // records no invocations, as there are far too many to keep
+        final Enclave enclave = mock(Enclave.class, withSettings().stubOnly());
+        when(enclave.status()).thenReturn(Service.Status.STARTED);
+        when(enclave.getPublicKeys()).thenReturn(Set.of(SENDER));
+
+        final List<Recipient> recipients =
+                IntStream.range(0, NODES)
+                        .mapToObj(i -> Recipient.of(PublicKey.from(("NODE-" + i).getBytes()), "http://node" + i))
+                        .collect(Collectors.toList());
+        // the current node info is built afresh from the network for every call, as the real one is
+        final Discovery discovery = mock(Discovery.class, withSettings().stubOnly());
+        when(discovery.getCurrent())
+                .thenAnswer(
+                        invocation ->
+                                NodeInfo.Builder.create().withUrl("http://sender").withRecipients(recipients).build());
+
+        batchWorkflowFactory = new BatchWorkflowFactoryImpl();
+        batchWorkflowFactory.setEnclave(enclave);
+        batchWorkflowFactory.setPayloadEncoder(payloadEncoder);
+        batchWorkflowFactory.setDiscovery(discovery);
+        batchWorkflowFactory.setResendBatchPublisher((payloads, targetUrl) -> {});
+        batchWorkflowFactory.setTransactionCount(transactions);
+    }
+
+    private static MessageHash hash() {
+        final byte[] hash = new byte[64];
+        ThreadLocalRandom.current().nextBytes(hash);
+        return new MessageHash(hash);
+    }
+
+    private byte[] payload(final PublicKey recipient) {
+        final byte[] cipherText = new byte[512];
+        ThreadLocalRandom.current().nextBytes(cipherText);
+        return payloadEncoder.encode(
+                EncodedPayload.Builder.create()
+                        .withSenderKey(SENDER)
+                        .withCipherText(cipherText)
+                        .withCipherTextNonce(new byte[24])
+                        .withRecipientNonce(new byte[24])
+                        .withRecipientKeys(List.of(SENDER, recipient))
+                        .withRecipientBoxes(List.of(new byte[48], new byte[48]))
+                        .build());
+    }
+
+    @Benchmark
+    public long resend() {
+        final BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
+
+        MessageHash after = null;
+        for (List<EncryptedTransaction> page = encryptedTransactionDAO.retrieveTransactionsByHashRange(after, null, PAGE_SIZE);
+                !page.isEmpty();
+                page = encryptedTransactionDAO.retrieveTransactionsByHashRange(after, null, PAGE_SIZE)) {
+            after = page.get(page.size() - 1).getHash();
+
+            final List<BatchWorkflowContext> contexts = new ArrayList<>();
+            for (EncryptedTransaction encryptedTransaction : page) {
+                final BatchWorkflowContext context = new BatchWorkflowContext();
+                context.setEncryptedTransaction(encryptedTransaction);
+                context.setRecipientKey(RECIPIENT);
+                context.setBatchSize(BATCH_SIZE);
+                contexts.add(context);
+            }
+
+            if ("page".equals(mode)) {
+                batchWorkflow.executePage(contexts);
+            } else {
+                contexts.forEach(batchWorkflow::execute);
+            }
+        }
+        return batchWorkflow.getPublishedMessageCount();
+    }
+
+    public static void main(String... args) throws RunnerException, CommandLineOptionException {
+        new Runner(
+                        new OptionsBuilder()
+                                .parent(new CommandLineOptions(args))
+                                .include(BatchWorkflowBenchmark.class.getSimpleName())
+                                .build())
+                .run();
+    }
+}
@@ -126,4 +126,86 @@ public class BatchWorkflowFactoryTest {
         verify(payloadEncoder).decode(payloadData);
         verify(enclave).status();
     }
+
+    @Test
+    public void executePageFiltersWholePageThenPublishes() {
+
+        BatchWorkflowFactoryImpl batchWorkflowFactory = new BatchWorkflowFactoryImpl();
+        batchWorkflowFactory.setResendBatchPublisher(resendBatchPublisher);
+        batchWorkflowFactory.setPayloadEncoder(payloadEncoder);
+        batchWorkflowFactory.setEnclave(enclave);
+        batchWorkflowFactory.setDiscovery(discovery);
+        batchWorkflowFactory.setTransactionCount(3L);
+
+        BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
+
+        PublicKey recipientKey = mock(PublicKey.class);
+        PublicKey ownedKey = mock(PublicKey.class);
+
+        byte[] payloadData = "PAYLOAD".getBytes();
+        EncodedPayload encodedPayload = mock(EncodedPayload.class);
+        when(encodedPayload.getSenderKey()).thenReturn(ownedKey);
+        when(encodedPayload.getRecipientKeys()).thenReturn(List.of(recipientKey));
+
+        byte[] otherPayloadData = "OTHER".getBytes();
+        EncodedPayload otherPayload = mock(EncodedPayload.class);
+        when(otherPayload.getSenderKey()).thenReturn(ownedKey);
+        when(otherPayload.getRecipientKeys()).thenReturn(List.of(mock(PublicKey.class)));
+
+        List<BatchWorkflowContext> contexts =
+                List.of(
+                        pageContext(recipientKey, payloadData),
+                        pageContext(recipientKey, otherPayloadData),
+                        pageContext(recipientKey, payloadData));
+
+        when(payloadEncoder.decode(payloadData)).thenReturn(encodedPayload);
+        when(payloadEncoder.decode(otherPayloadData)).thenReturn(otherPayload);
+        when(payloadEncoder.forRecipient(any(), any())).thenReturn(encodedPayload);
+        when(enclave.status()).thenReturn(Service.Status.STARTED);
+        when(enclave.getPublicKeys()).thenReturn(Set.of(ownedKey));
+
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getRecipients()).thenReturn(Set.of(Recipient.of(recipientKey, "url")));
+        when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+        assertThat(batchWorkflow.executePage(contexts)).containsExactly(contexts.get(0), contexts.get(2));
+        assertThat(contexts).extracting(BatchWorkflowContext::getExpectedTotal).containsOnly(2L);
+        assertThat(batchWorkflow.getPublishedMessageCount()).isEqualTo(2);
+
+        verify(payloadEncoder, times(2)).decode(payloadData);
+        verify(payloadEncoder).decode(otherPayloadData);
+        verify(enclave).status();
+        verify(enclave, times(2)).getPublicKeys();
+        verify(payloadEncoder, times(2)).forRecipient(any(), any());
+        verify(discovery).getCurrent();
+
+        verify(resendBatchPublisher).publishBatch(any(), any());
+    }
+
+    @Test
+    public void executeEmptyPage() {
+
+        BatchWorkflowFactoryImpl batchWorkflowFactory = new BatchWorkflowFactoryImpl();
+        batchWorkflowFactory.setResendBatchPublisher(resendBatchPublisher);
+        batchWorkflowFactory.setPayloadEncoder(payloadEncoder);
+        batchWorkflowFactory.setEnclave(enclave);
+        batchWorkflowFactory.setDiscovery(discovery);
+        batchWorkflowFactory.setTransactionCount(1L);
+
+        BatchWorkflow batchWorkflow = batchWorkflowFactory.create();
+
+        assertThat(batchWorkflow.executePage(List.of())).isEmpty();
+        assertThat(batchWorkflow.getPublishedMessageCount()).isZero();
+    }
+
+    private static BatchWorkflowContext pageContext(PublicKey recipientKey, byte[] payloadData) {
+        EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+        encryptedTransaction.setEncodedPayload(payloadData);
+
+        BatchWorkflowContext batchWorkflowContext = new BatchWorkflowContext();
+        batchWorkflowContext.setBatchSize(5);
+        batchWorkflowContext.setRecipientKey(recipientKey);
+        batchWorkflowContext.setEncryptedTransaction(encryptedTransaction);
+        return batchWorkflowContext;
+    }
 }
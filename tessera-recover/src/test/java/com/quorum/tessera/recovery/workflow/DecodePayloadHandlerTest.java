@@ -7,7 +7,14 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 public class DecodePayloadHandlerTest {
@@ -50,9 +57,116 @@ public class DecodePayloadHandlerTest {
         verify(payloadEncoder).decode(payloadData);
         verify(encryptedTransaction).getEncodedPayload();
 
-        verifyNoMoreInteractions(context,encryptedTransaction,encodedPayload);
+        verifyNoMoreInteractions(context, encryptedTransaction, encodedPayload);
+    }
+
+    @Test
+    public void handlePage() {
+        final List<BatchWorkflowContext> contexts = new ArrayList<>();
+        final List<EncodedPayload> encodedPayloads = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final byte[] payloadData = ("SOMEDATA" + i).getBytes();
+            final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+            encryptedTransaction.setEncodedPayload(payloadData);
+            contexts.add(new BatchWorkflowContext().setEncryptedTransaction(encryptedTransaction));
+
+            final EncodedPayload encodedPayload = mock(EncodedPayload.class);
+            when(payloadEncoder.decode(payloadData)).thenReturn(encodedPayload);
+            encodedPayloads.add(encodedPayload);
+        }
+
+        final List<BatchWorkflowContext> result = handler.executePage(contexts);
+
+        assertThat(result).isSameAs(contexts);
+        assertThat(result).extracting(BatchWorkflowContext::getEncodedPayload).isEqualTo(encodedPayloads);
+
+        verify(payloadEncoder, times(10)).decode(any());
+    }
 
+    @Test
+    public void smallPageIsDecodedOnCallingThread() {
+        final List<BatchWorkflowContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+            encryptedTransaction.setEncodedPayload(("SOMEDATA" + i).getBytes());
+            contexts.add(new BatchWorkflowContext().setEncryptedTransaction(encryptedTransaction));
+        }
+
+        final Set<Thread> decodingThreads = ConcurrentHashMap.newKeySet();
+        when(payloadEncoder.decode(any()))
+                .thenAnswer(
+                        invocation -> {
+                            decodingThreads.add(Thread.currentThread());
+                            return mock(EncodedPayload.class);
+                        });
+
+        handler.executePage(contexts);
+
+        assertThat(decodingThreads).containsExactly(Thread.currentThread());
+
+        verify(payloadEncoder, times(10)).decode(any());
     }
 
+    @Test
+    public void largePageIsDecodedOnDecodeThreads() {
+        final ThreadPoolExecutor executor = DecodePayloadHandler.newExecutor(2);
+        handler = new DecodePayloadHandler(payloadEncoder, executor, 3);
+
+        final List<BatchWorkflowContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+            encryptedTransaction.setEncodedPayload(("SOMEDATA" + i).getBytes());
+            contexts.add(new BatchWorkflowContext().setEncryptedTransaction(encryptedTransaction));
+        }
+
+        final Set<Thread> decodingThreads = ConcurrentHashMap.newKeySet();
+        when(payloadEncoder.decode(any()))
+                .thenAnswer(
+                        invocation -> {
+                            decodingThreads.add(Thread.currentThread());
+                            return mock(EncodedPayload.class);
+                        });
+
+        try {
+            handler.executePage(contexts);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(contexts).extracting(BatchWorkflowContext::getEncodedPayload).doesNotContainNull();
+        assertThat(decodingThreads).contains(Thread.currentThread()).hasSizeGreaterThan(1);
+        assertThat(decodingThreads)
+                .filteredOn(thread -> thread != Thread.currentThread())
+                .allMatch(thread -> thread.getName().startsWith("resend-decode-"));
+
+        verify(payloadEncoder, times(300)).decode(any());
+    }
 
+    @Test
+    public void failureToDecodeChunkIsRethrown() {
+        final ThreadPoolExecutor executor = DecodePayloadHandler.newExecutor(1);
+        handler = new DecodePayloadHandler(payloadEncoder, executor, 2);
+
+        final List<BatchWorkflowContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final EncryptedTransaction encryptedTransaction = new EncryptedTransaction();
+            encryptedTransaction.setEncodedPayload(("SOMEDATA" + i).getBytes());
+            contexts.add(new BatchWorkflowContext().setEncryptedTransaction(encryptedTransaction));
+        }
+
+        when(payloadEncoder.decode(any())).thenReturn(mock(EncodedPayload.class));
+        when(payloadEncoder.decode("SOMEDATA150".getBytes())).thenThrow(new IllegalStateException("undecodable"));
+
+        final Throwable throwable;
+        try {
+            throwable = catchThrowable(() -> handler.executePage(contexts));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(throwable).isInstanceOf(IllegalStateException.class).hasMessage("undecodable");
+
+        // the first chunk is decoded whole, the second up to the transaction that failed
+        verify(payloadEncoder, times(151)).decode(any());
+    }
 }
@@ -94,4 +94,39 @@ public class FilterPayloadTest {
 
         assertThat(result).isFalse();
     }
+
+    @Test
+    public void filterPageFetchesEnclaveKeysOnce() {
+        final PublicKey thisNode = mock(PublicKey.class);
+        final PublicKey recipient = mock(PublicKey.class);
+        final PublicKey requester = mock(PublicKey.class);
+
+        EncodedPayload sentToRequester = mock(EncodedPayload.class);
+        when(sentToRequester.getSenderKey()).thenReturn(thisNode);
+        when(sentToRequester.getRecipientKeys()).thenReturn(List.of(thisNode, requester));
+
+        EncodedPayload sentToOther = mock(EncodedPayload.class);
+        when(sentToOther.getSenderKey()).thenReturn(thisNode);
+        when(sentToOther.getRecipientKeys()).thenReturn(List.of(thisNode, recipient));
+
+        BatchWorkflowContext relevant = new BatchWorkflowContext();
+        relevant.setEncodedPayload(sentToRequester);
+        relevant.setRecipientKey(requester);
+
+        BatchWorkflowContext irrelevant = new BatchWorkflowContext();
+        irrelevant.setEncodedPayload(sentToOther);
+        irrelevant.setRecipientKey(requester);
+
+        BatchWorkflowContext alsoRelevant = new BatchWorkflowContext();
+        alsoRelevant.setEncodedPayload(sentToRequester);
+        alsoRelevant.setRecipientKey(requester);
+
+        when(enclave.getPublicKeys()).thenReturn(Set.of(thisNode));
+
+        List<BatchWorkflowContext> result = filterPayload.executePage(List.of(relevant, irrelevant, alsoRelevant));
+
+        assertThat(result).containsExactly(relevant, alsoRelevant);
+
+        verify(enclave).getPublicKeys();
+    }
 }
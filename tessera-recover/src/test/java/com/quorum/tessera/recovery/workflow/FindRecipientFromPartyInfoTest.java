@@ -9,9 +9,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.*;
 
@@ -79,4 +83,58 @@ public class FindRecipientFromPartyInfoTest {
             assertThat(batchWorkflowContext.getRecipientKey()).isSameAs(publicKey);
         }
     }
+
+    @Test
+    public void executePageLooksUpRecipientsOnce() {
+        PublicKey publicKey = mock(PublicKey.class);
+        PublicKey otherKey = mock(PublicKey.class);
+
+        Recipient recipient = mock(Recipient.class);
+        when(recipient.getKey()).thenReturn(publicKey);
+        Recipient otherRecipient = mock(Recipient.class);
+        when(otherRecipient.getKey()).thenReturn(otherKey);
+        Recipient sameKeyElsewhere = mock(Recipient.class);
+        when(sameKeyElsewhere.getKey()).thenReturn(otherKey);
+
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getRecipients()).thenReturn(Set.of(recipient, otherRecipient, sameKeyElsewhere));
+        when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+        List<BatchWorkflowContext> contexts =
+                IntStream.range(0, 3)
+                        .mapToObj(
+                                i -> {
+                                    BatchWorkflowContext context = new BatchWorkflowContext();
+                                    context.setRecipientKey(publicKey);
+                                    return context;
+                                })
+                        .collect(Collectors.toList());
+        BatchWorkflowContext otherContext = new BatchWorkflowContext();
+        otherContext.setRecipientKey(otherKey);
+        contexts.add(otherContext);
+
+        List<BatchWorkflowContext> result = findRecipientFromPartyInfo.executePage(contexts);
+
+        assertThat(result).isSameAs(contexts);
+        assertThat(result.subList(0, 3)).extracting(BatchWorkflowContext::getRecipient).containsOnly(recipient);
+        assertThat(otherContext.getRecipient()).isIn(otherRecipient, sameKeyElsewhere);
+
+        verify(discovery).getCurrent();
+    }
+
+    @Test
+    public void executePageKeyNotFound() {
+        BatchWorkflowContext batchWorkflowContext = new BatchWorkflowContext();
+        batchWorkflowContext.setRecipientKey(PublicKey.from("UNKNOWN".getBytes()));
+
+        NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getRecipients()).thenReturn(Set.of());
+        when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+        assertThatExceptionOfType(KeyNotFoundException.class)
+                .isThrownBy(() -> findRecipientFromPartyInfo.executePage(List.of(batchWorkflowContext)));
+
+        assertThat(batchWorkflowContext.getRecipient()).isNull();
+        verify(discovery).getCurrent();
+    }
 }
@@ -195,9 +195,14 @@ public class LegacyResendManagerTest {
         // Not bothered about going through the process, just make sure they are all loaded from the database
         // We are not testing the workflow itself, only that the workflow gets the right amount of transactions
 
+        final MessageHash firstHash = new MessageHash(new byte[] {1});
+        final MessageHash secondHash = new MessageHash(new byte[] {2});
         when(dao.transactionCount()).thenReturn(2L);
-        when(dao.retrieveTransactions(0, 1)).thenReturn(List.of(new EncryptedTransaction()));
-        when(dao.retrieveTransactions(1, 1)).thenReturn(List.of(new EncryptedTransaction()));
+        when(dao.retrieveTransactionsByHashRange(null, null, 1))
+                .thenReturn(List.of(new EncryptedTransaction(firstHash, null)));
+        when(dao.retrieveTransactionsByHashRange(firstHash, null, 1))
+                .thenReturn(List.of(new EncryptedTransaction(secondHash, null)));
+        when(dao.retrieveTransactionsByHashRange(secondHash, null, 1)).thenReturn(List.of());
 
         final ResendResponse response = resendManager.resend(request);
         assertThat(response).isNotNull();
@@ -206,8 +211,9 @@ public class LegacyResendManagerTest {
         verify(enclave, times(2)).status();
         verify(encoder, times(2)).decode(any());
         verify(dao).transactionCount();
-        verify(dao).retrieveTransactions(0, 1);
-        verify(dao).retrieveTransactions(1, 1);
+        verify(dao).retrieveTransactionsByHashRange(null, null, 1);
+        verify(dao).retrieveTransactionsByHashRange(firstHash, null, 1);
+        verify(dao).retrieveTransactionsByHashRange(secondHash, null, 1);
     }
 
     @Test
@@ -14,6 +14,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -120,4 +121,58 @@ public class LegacyResendWorkflowFactoryTest {
         verify(payloadEncoder).decode(encodedPayloadAsBytes);
         verify(enclave).status();
     }
+
+    @Test
+    public void executePageReturnsContextsThatPassedEveryStage() {
+        final byte[] encodedPayloadAsBytes = "to decode".getBytes();
+        final byte[] otherPayloadAsBytes = "other".getBytes();
+        final PublicKey targetResendKey = PublicKey.from("target".getBytes());
+        final PublicKey localRecipient = PublicKey.from("local-recipient".getBytes());
+        final EncodedPayload testPayload =
+                EncodedPayload.Builder.create()
+                        .withSenderKey(targetResendKey)
+                        .withRecipientBox("testbox".getBytes())
+                        .build();
+        final EncodedPayload partyProtectionPayload =
+                EncodedPayload.Builder.create()
+                        .withPrivacyMode(PrivacyMode.PARTY_PROTECTION)
+                        .withSenderKey(targetResendKey)
+                        .build();
+
+        when(payloadEncoder.decode(encodedPayloadAsBytes)).thenReturn(testPayload);
+        when(payloadEncoder.decode(otherPayloadAsBytes)).thenReturn(partyProtectionPayload);
+
+        final NodeInfo nodeInfo = mock(NodeInfo.class);
+        when(nodeInfo.getRecipients()).thenReturn(Set.of(Recipient.of(targetResendKey, "url")));
+        when(discovery.getCurrent()).thenReturn(nodeInfo);
+
+        when(enclave.getPublicKeys()).thenReturn(Set.of(localRecipient));
+        when(enclave.unencryptTransaction(any(EncodedPayload.class), eq(localRecipient))).thenReturn(new byte[0]);
+
+        final BatchWorkflowContext context = legacyContext(encodedPayloadAsBytes, targetResendKey);
+        final BatchWorkflowContext filtered = legacyContext(otherPayloadAsBytes, targetResendKey);
+
+        final List<BatchWorkflowContext> passed = wfFactory.create().executePage(List.of(context, filtered));
+
+        assertThat(passed).containsExactly(context);
+
+        verify(payloadEncoder).decode(encodedPayloadAsBytes);
+        verify(payloadEncoder).decode(otherPayloadAsBytes);
+        verify(discovery).getCurrent();
+        verify(payloadPublisher).publishPayload(any(EncodedPayload.class), eq(targetResendKey));
+        verify(enclave).status();
+        verify(enclave, times(3)).getPublicKeys();
+        verify(enclave).unencryptTransaction(any(EncodedPayload.class), eq(localRecipient));
+    }
+
+    private static BatchWorkflowContext legacyContext(final byte[] encodedPayload, final PublicKey recipientKey) {
+        final EncryptedTransaction encryptedTx = new EncryptedTransaction();
+        encryptedTx.setEncodedPayload(encodedPayload);
+
+        final BatchWorkflowContext context = new BatchWorkflowContext();
+        context.setEncryptedTransaction(encryptedTx);
+        context.setRecipientKey(recipientKey);
+        context.setBatchSize(1);
+        return context;
+    }
 }
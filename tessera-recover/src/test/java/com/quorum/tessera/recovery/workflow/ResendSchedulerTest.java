@@ -0,0 +1,324 @@
+package com.quorum.tessera.recovery.workflow;
+
+import com.quorum.tessera.data.EncryptedTransaction;
+import com.quorum.tessera.data.EncryptedTransactionDAO;
+import com.quorum.tessera.data.MessageHash;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+public class ResendSchedulerTest {
+
+    private EncryptedTransactionDAO encryptedTransactionDAO;
+
+    private Queue<Runnable> scans;
+
+    private ResendScheduler<String, List<EncryptedTransaction>> resendScheduler;
+
+    private final EncryptedTransaction first = new EncryptedTransaction(new MessageHash(new byte[] {1}), null);
+
+    private final EncryptedTransaction second = new EncryptedTransaction(new MessageHash(new byte[] {2}), null);
+
+    private final EncryptedTransaction third = new EncryptedTransaction(new MessageHash(new byte[] {3}), null);
+
+    private final EncryptedTransaction fourth = new EncryptedTransaction(new MessageHash(new byte[] {4}), null);
+
+    @Before
+    public void onSetUp() {
+        encryptedTransactionDAO = mock(EncryptedTransactionDAO.class);
+        when(encryptedTransactionDAO.transactionCount()).thenReturn(3L);
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(null, null, 2)).thenReturn(List.of(first, second));
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(second.getHash(), null, 2))
+                .thenReturn(List.of(third));
+
+        scans = new LinkedList<>();
+        resendScheduler = new ResendScheduler<>(encryptedTransactionDAO, 2, scans::add);
+    }
+
+    @After
+    public void onTearDown() {
+        verifyNoMoreInteractions(encryptedTransactionDAO);
+    }
+
+    @Test
+    public void resendsWaitingToStartShareOneScan() {
+        final CompletableFuture<List<EncryptedTransaction>> someResend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+        final CompletableFuture<List<EncryptedTransaction>> otherResend =
+                resendScheduler.schedule("OTHER_KEY", count -> new RecordingResend());
+
+        assertThat(scans).hasSize(1);
+        assertThat(someResend).isNotDone();
+
+        scans.remove().run();
+
+        assertThat(someResend).isCompletedWithValue(List.of(first, second, third));
+        assertThat(otherResend).isCompletedWithValue(List.of(first, second, third));
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+    }
+
+    @Test
+    public void identicalResendJoinsResendInProgress() {
+        final AtomicInteger created = new AtomicInteger();
+
+        final CompletableFuture<List<EncryptedTransaction>> resend =
+                resendScheduler.schedule(
+                        "SOME_KEY",
+                        count -> {
+                            created.incrementAndGet();
+                            return new RecordingResend();
+                        });
+        final CompletableFuture<List<EncryptedTransaction>> identicalResend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+
+        // one requester giving up does not stop the resend the other is waiting for
+        identicalResend.cancel(true);
+        scans.remove().run();
+
+        assertThat(created).hasValue(1);
+        assertThat(resend).isCompletedWithValue(List.of(first, second, third));
+        assertThat(scans).isEmpty();
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+    }
+
+    @Test
+    public void resendRequestedDuringScanWaitsForNextScan() {
+        final List<CompletableFuture<List<EncryptedTransaction>>> lateResend = new ArrayList<>();
+
+        final CompletableFuture<List<EncryptedTransaction>> resend =
+                resendScheduler.schedule(
+                        "SOME_KEY",
+                        count ->
+                                new RecordingResend() {
+                                    @Override
+                                    public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                                        super.resend(encryptedTransactions);
+                                        if (lateResend.isEmpty()) {
+                                            lateResend.add(
+                                                    resendScheduler.schedule("OTHER_KEY", c -> new RecordingResend()));
+                                        }
+                                    }
+                                });
+
+        scans.remove().run();
+        assertThat(resend).isCompletedWithValue(List.of(first, second, third));
+        assertThat(lateResend.get(0)).isNotDone();
+
+        scans.remove().run();
+        assertThat(lateResend.get(0)).isCompletedWithValue(List.of(first, second, third));
+
+        // finished resends are no longer in progress, so asking again resends again
+        resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+        assertThat(scans).hasSize(1);
+
+        verify(encryptedTransactionDAO, times(2)).transactionCount();
+        verify(encryptedTransactionDAO, times(2)).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO, times(2)).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+    }
+
+    @Test
+    public void failedResendDoesNotFailOthers() {
+        final IllegalStateException failure = new IllegalStateException("FAILED");
+
+        final CompletableFuture<List<EncryptedTransaction>> failedToStart =
+                resendScheduler.schedule(
+                        "NOT_STARTED",
+                        count -> {
+                            throw failure;
+                        });
+        final CompletableFuture<List<EncryptedTransaction>> failedToResend =
+                resendScheduler.schedule(
+                        "NOT_RESENT",
+                        count ->
+                                new RecordingResend() {
+                                    @Override
+                                    public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                                        throw failure;
+                                    }
+                                });
+        final CompletableFuture<List<EncryptedTransaction>> failedToComplete =
+                resendScheduler.schedule(
+                        "NOT_COMPLETED",
+                        count ->
+                                new RecordingResend() {
+                                    @Override
+                                    public List<EncryptedTransaction> result() {
+                                        throw failure;
+                                    }
+                                });
+        final CompletableFuture<List<EncryptedTransaction>> resend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+
+        scans.remove().run();
+
+        assertThat(catchThrowable(failedToStart::join)).hasCause(failure);
+        assertThat(catchThrowable(failedToResend::join)).hasCause(failure);
+        assertThat(catchThrowable(failedToComplete::join)).hasCause(failure);
+        assertThat(resend).isCompletedWithValue(List.of(first, second, third));
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+    }
+
+    @Test
+    public void scanStopsOnceNoResendIsLeft() {
+        final CompletableFuture<List<EncryptedTransaction>> failedToResend =
+                resendScheduler.schedule(
+                        "NOT_RESENT",
+                        count ->
+                                new RecordingResend() {
+                                    @Override
+                                    public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                                        throw new IllegalStateException("FAILED");
+                                    }
+                                });
+
+        scans.remove().run();
+
+        assertThat(failedToResend).isCompletedExceptionally();
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+    }
+
+    @Test
+    public void failureToReadStoreFailsEveryResend() {
+        final IllegalStateException failure = new IllegalStateException("FAILED");
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(second.getHash(), null, 2)).thenThrow(failure);
+
+        final CompletableFuture<List<EncryptedTransaction>> someResend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+        final CompletableFuture<List<EncryptedTransaction>> otherResend =
+                resendScheduler.schedule("OTHER_KEY", count -> new RecordingResend());
+
+        scans.remove().run();
+
+        assertThat(catchThrowable(someResend::join)).hasCause(failure);
+        assertThat(catchThrowable(otherResend::join)).hasCause(failure);
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+    }
+
+    @Test
+    public void errorDuringScanFailsEveryResendAndLetsItBeRequestedAgain() {
+        final OutOfMemoryError error = new OutOfMemoryError("FAILED");
+        final CompletableFuture<List<EncryptedTransaction>> someResend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+        final CompletableFuture<List<EncryptedTransaction>> otherResend =
+                resendScheduler.schedule(
+                        "OTHER_KEY",
+                        count ->
+                                new RecordingResend() {
+                                    @Override
+                                    public void resend(List<EncryptedTransaction> encryptedTransactions) {
+                                        throw error;
+                                    }
+                                });
+
+        assertThat(catchThrowable(scans.remove()::run)).isSameAs(error);
+
+        assertThat(catchThrowable(someResend::join)).hasCause(error);
+        assertThat(catchThrowable(otherResend::join)).hasCause(error);
+
+        final CompletableFuture<List<EncryptedTransaction>> again =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+        assertThat(scans).hasSize(1);
+        assertThat(again).isNotDone();
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+    }
+
+    @Test
+    public void awaitRethrowsCauseOfFailure() {
+        final IllegalStateException failure = new IllegalStateException("FAILED");
+        assertThat(catchThrowable(() -> ResendScheduler.await(CompletableFuture.failedFuture(failure))))
+                .isSameAs(failure);
+
+        final AssertionError error = new AssertionError("ERROR");
+        assertThat(catchThrowable(() -> ResendScheduler.await(CompletableFuture.failedFuture(error))))
+                .isSameAs(error);
+
+        final Exception checked = new Exception("CHECKED");
+        assertThatExceptionOfType(CompletionException.class)
+                .isThrownBy(() -> ResendScheduler.await(CompletableFuture.failedFuture(checked)))
+                .withCause(checked);
+
+        assertThat(ResendScheduler.await(CompletableFuture.completedFuture("DONE"))).isEqualTo("DONE");
+    }
+
+    @Test
+    public void scansRunOnLowPriorityDaemonThreads() throws Exception {
+        final ThreadPoolExecutor executor = ResendScheduler.newExecutor(2);
+        try {
+            final Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).get();
+
+            assertThat(thread.isDaemon()).isTrue();
+            assertThat(thread.getPriority()).isEqualTo(Thread.MIN_PRIORITY);
+            assertThat(thread.getName()).isEqualTo("resend-scan-1");
+            assertThat(executor.getMaximumPoolSize()).isEqualTo(2);
+            assertThat(executor.allowsCoreThreadTimeOut()).isTrue();
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void fullLastPageIsFollowedByEmptyPage() {
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(second.getHash(), null, 2))
+                .thenReturn(List.of(third, fourth));
+        when(encryptedTransactionDAO.retrieveTransactionsByHashRange(fourth.getHash(), null, 2)).thenReturn(List.of());
+
+        final CompletableFuture<List<EncryptedTransaction>> resend =
+                resendScheduler.schedule("SOME_KEY", count -> new RecordingResend());
+
+        scans.remove().run();
+
+        assertThat(resend).isCompletedWithValue(List.of(first, second, third, fourth));
+
+        verify(encryptedTransactionDAO).transactionCount();
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(null, null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(second.getHash(), null, 2);
+        verify(encryptedTransactionDAO).retrieveTransactionsByHashRange(fourth.getHash(), null, 2);
+    }
+
+    private static class RecordingResend implements ResendScheduler.Resend<List<EncryptedTransaction>> {
+
+        private final List<EncryptedTransaction> resent = new ArrayList<>();
+
+        @Override
+        public void resend(List<EncryptedTransaction> encryptedTransactions) {
+            resent.addAll(encryptedTransactions);
+        }
+
+        @Override
+        public List<EncryptedTransaction> result() {
+            return resent;
+        }
+    }
+}
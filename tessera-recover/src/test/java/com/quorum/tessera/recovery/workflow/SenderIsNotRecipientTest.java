@@ -6,6 +6,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -58,4 +59,21 @@ public class SenderIsNotRecipientTest {
         verify(enclave).getPublicKeys();
     }
 
+    @Test
+    public void filterPageFetchesEnclaveKeysOnce() {
+        PublicKey ownKey = mock(PublicKey.class);
+
+        BatchWorkflowContext toSelf = new BatchWorkflowContext();
+        toSelf.setRecipientKey(ownKey);
+        BatchWorkflowContext toOther = new BatchWorkflowContext();
+        toOther.setRecipientKey(mock(PublicKey.class));
+
+        when(enclave.getPublicKeys()).thenReturn(Set.of(ownKey));
+
+        List<BatchWorkflowContext> outcome = senderIsNotRecipient.executePage(List.of(toSelf, toOther, toSelf));
+
+        assertThat(outcome).containsExactly(toOther);
+
+        verify(enclave).getPublicKeys();
+    }
 }
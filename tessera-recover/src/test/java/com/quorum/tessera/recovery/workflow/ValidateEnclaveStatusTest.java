@@ -7,6 +7,9 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.*;
 
@@ -52,7 +55,16 @@ public class ValidateEnclaveStatusTest {
             verify(enclave).status();
             verifyZeroInteractions(context);
         }
-
     }
 
+    @Test
+    public void executePageChecksStatusOnce() {
+        List<BatchWorkflowContext> contexts = List.of(new BatchWorkflowContext(), new BatchWorkflowContext());
+
+        when(enclave.status()).thenReturn(Service.Status.STARTED);
+
+        assertThat(validateEnclaveStatus.executePage(contexts)).isSameAs(contexts);
+
+        verify(enclave).status();
+    }
 }
@@ -1,11 +1,14 @@
 package com.jpmorgan.quorum.mock.servicelocator;
 
-import com.quorum.tessera.service.locator.Default;
 import com.quorum.tessera.service.locator.ServiceLocator;
 import java.util.Collections;
 import java.util.Set;
 
-@Default
+/**
+ * Test locator returning whatever services a test sets. It is not the {@link
+ * com.quorum.tessera.service.locator.Default} locator, which is the launcher's, and is found by {@link
+ * ServiceLocator#create()} as the only locator on the test classpath.
+ */
 public class MockServiceLocator implements com.quorum.tessera.service.locator.ServiceLocator {
 
     private static Set<Object> services = Collections.EMPTY_SET;
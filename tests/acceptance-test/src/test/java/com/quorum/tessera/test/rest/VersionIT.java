@@ -69,7 +69,7 @@ public class VersionIT {
                                             .map(JsonString.class::cast)
                                             .map(JsonString::getString)
                                             .toArray(String[]::new))
-                            .containsExactly("1.0", "2.0", "2.1");
+                            .containsExactly("1.0", "2.0", "2.1", "2.2");
                 });
     }
 }